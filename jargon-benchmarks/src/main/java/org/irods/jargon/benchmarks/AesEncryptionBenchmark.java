@@ -0,0 +1,79 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
+import org.irods.jargon.core.connection.PipelineConfiguration;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.transfer.encrypt.AESKeyGenerator;
+import org.irods.jargon.core.transfer.encrypt.EncryptionBuffer;
+import org.irods.jargon.core.transfer.encrypt.EncryptionWrapperFactory;
+import org.irods.jargon.core.transfer.encrypt.ParallelDecryptionCipherWrapper;
+import org.irods.jargon.core.transfer.encrypt.ParallelEncryptionCipherWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the AES wrapping applied to each buffer of a parallel transfer over
+ * an SSL negotiated connection, for the buffer sizes used by the parallel
+ * transfer threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesEncryptionBenchmark {
+
+	@Param({ "65536", "4194304" })
+	public int bufferSize;
+
+	private byte[] plainText;
+	private byte[] wireBuffer;
+	private ParallelEncryptionCipherWrapper encryptWrapper;
+	private ParallelDecryptionCipherWrapper decryptWrapper;
+
+	@Setup
+	public void setup() throws JargonException {
+		PipelineConfiguration pipelineConfiguration = PipelineConfiguration.instance(new SettableJargonProperties());
+		NegotiatedClientServerConfiguration negotiatedClientServerConfiguration = new NegotiatedClientServerConfiguration(
+				true);
+		negotiatedClientServerConfiguration.setSecretKey(
+				new AESKeyGenerator(pipelineConfiguration, negotiatedClientServerConfiguration).generateKey());
+		encryptWrapper = EncryptionWrapperFactory.instanceEncrypt(pipelineConfiguration,
+				negotiatedClientServerConfiguration);
+		decryptWrapper = EncryptionWrapperFactory.instanceDecrypt(pipelineConfiguration,
+				negotiatedClientServerConfiguration);
+		plainText = ProtocolPayloads.randomBytes(bufferSize);
+
+		// the buffer as framed on the wire: iv, iv padding, then cipher text
+		EncryptionBuffer encrypted = encryptWrapper.encrypt(plainText);
+		byte[] iv = encrypted.getInitializationVector();
+		byte[] cipherText = encrypted.getEncryptedData();
+		wireBuffer = new byte[iv.length + cipherText.length];
+		System.arraycopy(iv, 0, wireBuffer, 0, iv.length);
+		System.arraycopy(cipherText, 0, wireBuffer, iv.length, cipherText.length);
+	}
+
+	@Benchmark
+	public EncryptionBuffer encrypt() throws JargonException {
+		return encryptWrapper.encrypt(plainText);
+	}
+
+	@Benchmark
+	public byte[] decrypt() throws JargonException {
+		return decryptWrapper.decrypt(wireBuffer);
+	}
+
+}
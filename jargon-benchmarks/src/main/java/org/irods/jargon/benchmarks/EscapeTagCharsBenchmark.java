@@ -0,0 +1,60 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.utils.EscapeTagChars;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link EscapeTagChars#forXML(String)} on the kinds of values sent in
+ * packing instructions: paths with nothing to escape, paths with reserved
+ * characters, and long AVU values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeTagCharsBenchmark {
+
+	private String plainPath;
+	private String reservedPath;
+	private String longValue;
+
+	@Setup
+	public void setup() {
+		plainPath = "/tempZone/home/rods/instrument_runs/2023-batch/run_1/sample_1_R1.fastq.gz";
+		reservedPath = "/tempZone/home/rods/A&B <draft>/\"quoted\" 'name' & more.txt";
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			sb.append("{\"key\":\"value ").append(i).append("\",\"flag\":true} ");
+		}
+		longValue = sb.toString();
+	}
+
+	@Benchmark
+	public String plainPath() {
+		return EscapeTagChars.forXML(plainPath);
+	}
+
+	@Benchmark
+	public String reservedPath() {
+		return EscapeTagChars.forXML(reservedPath);
+	}
+
+	@Benchmark
+	public String longValue() {
+		return EscapeTagChars.forXML(longValue);
+	}
+
+}
@@ -0,0 +1,67 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures translation of a GenQuery string into the selects and conditions
+ * sent to iRODS, alone and through to the {@code GenQueryInp} packing
+ * instruction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenQueryTranslateBenchmark {
+
+	private static final String SIMPLE_QUERY = "select COLL_NAME where COLL_PARENT_NAME = '/tempZone/home/rods'";
+
+	private IRODSGenQueryTranslator translator;
+	private IRODSGenQuery listingQuery;
+	private IRODSGenQuery simpleQuery;
+
+	@Setup
+	public void setup() throws JargonException {
+		IRODSServerProperties props = IRODSServerProperties.instance(IRODSServerProperties.IcatEnabled.ICAT_ENABLED,
+				100, "rods4.2.7", "d", "tempZone");
+		translator = new IRODSGenQueryTranslator(props);
+		listingQuery = IRODSGenQuery.instance(ProtocolPayloads.LISTING_QUERY, 5000);
+		simpleQuery = IRODSGenQuery.instance(SIMPLE_QUERY, 5000);
+	}
+
+	@Benchmark
+	public TranslatedIRODSGenQuery translateListingQuery() throws JargonException, JargonQueryException {
+		return translator.getTranslatedQuery(listingQuery);
+	}
+
+	@Benchmark
+	public TranslatedIRODSGenQuery translateSimpleQuery() throws JargonException, JargonQueryException {
+		return translator.getTranslatedQuery(simpleQuery);
+	}
+
+	@Benchmark
+	public Tag translateListingQueryToGenQueryInp() throws JargonException, JargonQueryException {
+		return GenQueryInp.instance(translator.getTranslatedQuery(listingQuery), 0, "tempZone").getTagValue();
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the local file checksums in {@link LocalFileUtils} that are computed
+ * to verify transfers. The file is read repeatedly, so the numbers are for a
+ * file in the page cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalChecksumBenchmark {
+
+	@Param({ "1048576", "67108864" })
+	public int fileSize;
+
+	private File file;
+	private String path;
+
+	@Setup
+	public void setup() throws IOException {
+		file = File.createTempFile("checksumBenchmark", ".dat");
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(ProtocolPayloads.randomBytes(fileSize));
+		} finally {
+			out.close();
+		}
+		path = file.getAbsolutePath();
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public byte[] md5() throws JargonException {
+		return LocalFileUtils.computeMD5FileCheckSumViaAbsolutePath(path);
+	}
+
+	@Benchmark
+	public byte[] sha256() throws JargonException {
+		return LocalFileUtils.computeSHA256FileCheckSumViaAbsolutePath(path);
+	}
+
+	@Benchmark
+	public long crc32() throws JargonException {
+		return LocalFileUtils.computeCRC32FileCheckSumViaAbsolutePath(path);
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds iRODS protocol payloads shaped like those returned by a real server,
+ * for use as benchmark input.
+ */
+public class ProtocolPayloads {
+
+	public static final String ENCODING = "UTF-8";
+
+	/**
+	 * Columns of the data object listing query issued by
+	 * {@code CollectionListingUtils}, with sample values of a realistic size
+	 */
+	private static final int[] LISTING_COLUMNS = { 501, 403, 401, 407, 419, 420, 406, 402, 404, 409 };
+
+	/**
+	 * Query equivalent to the data object listing query issued by
+	 * {@code CollectionListingUtils}
+	 */
+	public static final String LISTING_QUERY = "select COLL_NAME, DATA_NAME, DATA_ID, DATA_SIZE, DATA_CREATE_TIME,"
+			+ " DATA_MODIFY_TIME, DATA_TYPE_NAME, DATA_COLL_ID, DATA_REPL_NUM, DATA_RESC_NAME"
+			+ " where COLL_NAME = '/tempZone/home/rods/instrument_runs/2023-batch/run_1' and DATA_REPL_NUM = '0'"
+			+ " and DATA_NAME like 'sample_%'";
+
+	/**
+	 * Column names for {@link #genQueryOutForListing(int)} in result order
+	 */
+	public static final List<String> LISTING_COLUMN_NAMES = Collections.unmodifiableList(Arrays.asList("COLL_NAME",
+			"DATA_NAME", "DATA_ID", "DATA_SIZE", "DATA_CREATE_TIME", "DATA_MODIFY_TIME", "DATA_TYPE_NAME",
+			"DATA_COLL_ID", "DATA_REPL_NUM", "DATA_RESC_NAME"));
+
+	private ProtocolPayloads() {
+	}
+
+	/**
+	 * Build a block of data for transfer and checksum benchmarks
+	 *
+	 * @param length
+	 *            {@code int} with the length of the data
+	 * @return {@code byte[]} of repeatable pseudo random data
+	 */
+	public static byte[] randomBytes(final int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	/**
+	 * Build a {@code GenQueryOut_PI} message body for a data object listing
+	 *
+	 * @param rows
+	 *            {@code int} with the number of rows in the page
+	 * @return {@code byte[]} with the message body as read from the socket
+	 */
+	public static byte[] genQueryOutForListing(final int rows) {
+		StringBuilder sb = new StringBuilder(rows * LISTING_COLUMNS.length * 48);
+		sb.append("<GenQueryOut_PI>\n<rowCnt>").append(rows).append("</rowCnt>\n");
+		sb.append("<attriCnt>").append(LISTING_COLUMNS.length).append("</attriCnt>\n");
+		sb.append("<continueInx>1</continueInx>\n<totalRowCount>0</totalRowCount>\n");
+		for (int column : LISTING_COLUMNS) {
+			sb.append("<SqlResult_PI>\n<attriInx>").append(column).append("</attriInx>\n");
+			sb.append("<reslen>").append(column == 501 ? 2700 : 64).append("</reslen>\n");
+			for (int i = 0; i < rows; i++) {
+				sb.append("<value>").append(sampleValue(column, i)).append("</value>\n");
+			}
+			sb.append("</SqlResult_PI>\n");
+		}
+		sb.append("</GenQueryOut_PI>\n");
+		return toBytes(sb.toString());
+	}
+
+	private static String sampleValue(final int column, final int row) {
+		switch (column) {
+		case 501:
+			return "/tempZone/home/rods/instrument_runs/2023-&amp;-batch/run_" + (row / 100);
+		case 403:
+			return "sample_" + row + "_R1.fastq.gz";
+		case 407:
+			return String.valueOf(1048576L + row * 37L);
+		case 419:
+		case 420:
+			return "0" + (1670000000L + row);
+		case 404:
+			return "0";
+		case 409:
+			return "sha2:" + "q0WBsFpN7n3x9dKsZ2m8P6kQw1tY4rUo5eIaGhJcLvM=";
+		default:
+			return String.valueOf(10000 + row);
+		}
+	}
+
+	/**
+	 * Build a {@code MsgHeader_PI} header as sent ahead of every response
+	 *
+	 * @return {@code byte[]} with the header
+	 */
+	public static byte[] msgHeader() {
+		return toBytes(
+				"<MsgHeader_PI>\n<type>RODS_API_REPLY</type>\n<msgLen>21033</msgLen>\n<errorLen>0</errorLen>\n<bsLen>0</bsLen>\n<intInfo>0</intInfo>\n</MsgHeader_PI>\n");
+	}
+
+	static byte[] toBytes(final String value) {
+		try {
+			return value.getBytes(ENCODING);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagPullParser;
+import org.irods.jargon.core.query.ColumnarGenQueryResults;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryResultProcessingUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares building result rows from a parsed {@code GenQueryOut} page with
+ * {@link QueryResultProcessingUtils} against {@link ColumnarGenQueryResults},
+ * both for building the page and for reading every value back the way a
+ * listing does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryResultBenchmark {
+
+	@Param({ "50", "500", "5000" })
+	public int rows;
+
+	private Tag genQueryOut;
+
+	@Setup
+	public void setup() throws UnsupportedEncodingException {
+		genQueryOut = TagPullParser.parse(ProtocolPayloads.genQueryOutForListing(rows), true, ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public List<IRODSQueryResultRow> buildRowList() throws JargonException {
+		return QueryResultProcessingUtils.translateResponseIntoResultSet(genQueryOut,
+				ProtocolPayloads.LISTING_COLUMN_NAMES, 1, 0);
+	}
+
+	@Benchmark
+	public List<IRODSQueryResultRow> buildColumnar() throws JargonException {
+		return ColumnarGenQueryResults.instance(genQueryOut, ProtocolPayloads.LISTING_COLUMN_NAMES, 1, 0);
+	}
+
+	@Benchmark
+	public void readRowList(final Blackhole blackhole) throws JargonException {
+		readAll(QueryResultProcessingUtils.translateResponseIntoResultSet(genQueryOut,
+				ProtocolPayloads.LISTING_COLUMN_NAMES, 1, 0), blackhole);
+	}
+
+	@Benchmark
+	public void readColumnar(final Blackhole blackhole) throws JargonException {
+		readAll(ColumnarGenQueryResults.instance(genQueryOut, ProtocolPayloads.LISTING_COLUMN_NAMES, 1, 0),
+				blackhole);
+	}
+
+	private static void readAll(final List<IRODSQueryResultRow> results, final Blackhole blackhole)
+			throws JargonException {
+		int columns = ProtocolPayloads.LISTING_COLUMN_NAMES.size();
+		for (IRODSQueryResultRow row : results) {
+			for (int i = 0; i < columns; i++) {
+				blackhole.consume(row.getColumn(i));
+			}
+			blackhole.consume(row.getColumn("DATA_SIZE"));
+		}
+	}
+
+}
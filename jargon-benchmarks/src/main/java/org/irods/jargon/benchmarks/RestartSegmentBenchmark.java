@@ -0,0 +1,78 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.transfer.FileRestartDataSegment;
+import org.irods.jargon.core.transfer.FileRestartInfo;
+import org.irods.jargon.core.transfer.FileRestartInfoIdentifier;
+import org.irods.jargon.core.transfer.FileRestartManagementException;
+import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the restart progress that each parallel transfer thread reports to
+ * the restart manager after every buffer, with 16 threads updating their own
+ * segments of one file. A publish interval of 0 stores the restart information
+ * under the manager lock on each update, as was always done before segment
+ * progress was kept in per segment counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(RestartSegmentBenchmark.THREADS)
+public class RestartSegmentBenchmark {
+
+	static final int THREADS = 16;
+
+	@Param({ "0", "1000" })
+	public long publishIntervalMillis;
+
+	private MemoryBasedTransferRestartManager restartManager;
+	private FileRestartInfoIdentifier identifier;
+	private final AtomicInteger nextThreadNumber = new AtomicInteger();
+
+	@State(Scope.Thread)
+	public static class Segment {
+		int threadNumber;
+
+		@Setup
+		public void setup(final RestartSegmentBenchmark benchmark) {
+			threadNumber = benchmark.nextThreadNumber.getAndIncrement() % THREADS;
+		}
+	}
+
+	@Setup
+	public void setup() throws FileRestartManagementException {
+		restartManager = new MemoryBasedTransferRestartManager();
+		restartManager.setSegmentPublishIntervalMillis(publishIntervalMillis);
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAbsolutePath("/zone/home/user/large.dat");
+		fileRestartInfo.setLocalAbsolutePath("/tmp/large.dat");
+		fileRestartInfo.setIrodsAccountIdentifier("user@host:1247/zone");
+		for (int i = 0; i < THREADS; i++) {
+			fileRestartInfo.getFileRestartDataSegments().add(new FileRestartDataSegment(i));
+		}
+		identifier = restartManager.storeRestart(fileRestartInfo);
+	}
+
+	@Benchmark
+	public void updateLength(final Segment segment) throws FileRestartManagementException {
+		restartManager.updateLengthForSegment(identifier, segment.threadNumber, 65536L);
+	}
+
+}
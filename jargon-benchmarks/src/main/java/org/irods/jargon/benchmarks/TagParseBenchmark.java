@@ -0,0 +1,65 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagPullParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the original {@code String} based protocol parser with
+ * {@link TagPullParser} on {@code GenQueryOut} pages of various sizes. Run with
+ * {@code -prof gc} to see the allocation rate per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagParseBenchmark {
+
+	@Param({ "50", "500", "5000" })
+	public int rows;
+
+	private byte[] genQueryOut;
+	private byte[] header;
+
+	@Setup
+	public void setup() {
+		genQueryOut = ProtocolPayloads.genQueryOutForListing(rows);
+		header = ProtocolPayloads.msgHeader();
+	}
+
+	@Benchmark
+	public Tag genQueryOutStringParser() throws UnsupportedEncodingException {
+		return Tag.readNextTagFromString(genQueryOut, true, ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public Tag genQueryOutPullParser() throws UnsupportedEncodingException {
+		return TagPullParser.parse(genQueryOut, true, ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public Tag headerStringParser() throws UnsupportedEncodingException {
+		return Tag.readNextTagFromString(header, true, ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public Tag headerPullParser() throws UnsupportedEncodingException {
+		return TagPullParser.parse(header, true, ProtocolPayloads.ENCODING);
+	}
+
+}
@@ -0,0 +1,99 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInp;
+import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagPullParser;
+import org.irods.jargon.core.packinstr.TagWriter;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serializing packing instructions through {@link Tag#parseTag()} and
+ * {@code String.getBytes()} with {@link TagWriter}, for typical requests and
+ * for a large tree with escaped values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagWriteBenchmark {
+
+	@Param({ "50", "5000" })
+	public int rows;
+
+	private Tag genQueryInp;
+	private Tag dataObjInp;
+	private Tag genQueryOut;
+	private TagWriter tagWriter;
+
+	@Setup
+	public void setup() throws JargonException, JargonQueryException, UnsupportedEncodingException {
+		IRODSServerProperties props = IRODSServerProperties.instance(IRODSServerProperties.IcatEnabled.ICAT_ENABLED,
+				100, "rods4.2.7", "d", "tempZone");
+		IRODSGenQueryTranslator translator = new IRODSGenQueryTranslator(props);
+		genQueryInp = GenQueryInp.instance(
+				translator.getTranslatedQuery(IRODSGenQuery.instance(ProtocolPayloads.LISTING_QUERY, 5000)), 0,
+				"tempZone").getTagValue();
+		dataObjInp = DataObjInp.instanceForDataObjectChecksum("/tempZone/home/rods/instrument_runs/sample_1_R1.fastq.gz")
+				.getTagValue();
+		genQueryOut = TagPullParser.parse(ProtocolPayloads.genQueryOutForListing(rows), true, ProtocolPayloads.ENCODING);
+		tagWriter = new TagWriter(ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public byte[] genQueryInpParseTag() throws UnsupportedEncodingException {
+		return genQueryInp.parseTag().getBytes(ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public int genQueryInpTagWriter() {
+		tagWriter.reset();
+		tagWriter.write(genQueryInp);
+		return tagWriter.size();
+	}
+
+	@Benchmark
+	public byte[] dataObjInpParseTag() throws UnsupportedEncodingException {
+		return dataObjInp.parseTag().getBytes(ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public int dataObjInpTagWriter() {
+		tagWriter.reset();
+		tagWriter.write(dataObjInp);
+		return tagWriter.size();
+	}
+
+	@Benchmark
+	public byte[] largeTreeParseTag() throws UnsupportedEncodingException {
+		return genQueryOut.parseTag().getBytes(ProtocolPayloads.ENCODING);
+	}
+
+	@Benchmark
+	public int largeTreeTagWriter() {
+		tagWriter.reset();
+		tagWriter.write(genQueryOut);
+		return tagWriter.size();
+	}
+
+}
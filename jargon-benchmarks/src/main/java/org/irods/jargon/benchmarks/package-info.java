@@ -0,0 +1,5 @@
+/**
+ * JMH microbenchmarks for the hot paths in jargon-core. Build with
+ * {@code mvn package} and run with {@code java -jar target/benchmarks.jar}.
+ */
+package org.irods.jargon.benchmarks;
@@ -0,0 +1,140 @@
+package org.irods.jargon.core.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures socket level send and read through {@link AbstractConnection} over
+ * loopback, with the buffering configured by the default jargon properties.
+ * The peer drains everything sent and streams data back without pause, so the
+ * numbers are for the client side of the connection. This lives in the
+ * connection package so that it can wrap a connected socket the way the
+ * protocol managers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionLoopbackBenchmark {
+
+	@Param({ "1024", "65536", "4194304" })
+	public int messageSize;
+
+	private ServerSocket serverSocket;
+	private Socket peer;
+	private AbstractConnection connection;
+	private byte[] buffer;
+	private OutputStream discard;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, JargonException {
+		serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+		peer = serverSocket.accept();
+		startDaemon("loopback-drain", new Runnable() {
+			@Override
+			public void run() {
+				drain(peer);
+			}
+		});
+		startDaemon("loopback-source", new Runnable() {
+			@Override
+			public void run() {
+				source(peer);
+			}
+		});
+
+		IRODSSimpleProtocolManager irodsProtocolManager = IRODSSimpleProtocolManager.instance();
+		IRODSSession irodsSession = IRODSSession.instance(irodsProtocolManager);
+		IRODSAccount irodsAccount = IRODSAccount.instance("localhost", serverSocket.getLocalPort(), "rods", "rods",
+				"/tempZone/home/rods", "tempZone", "demoResc");
+		connection = new IRODSBasicTCPConnection(irodsAccount,
+				irodsSession.buildPipelineConfigurationBasedOnJargonProperties(), irodsProtocolManager, socket,
+				irodsSession);
+		buffer = new byte[messageSize];
+		discard = new OutputStream() {
+			@Override
+			public void write(final int b) {
+			}
+
+			@Override
+			public void write(final byte[] b, final int off, final int len) {
+			}
+		};
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		connection.obliterateConnectionAndDiscardErrors();
+		peer.close();
+		serverSocket.close();
+	}
+
+	@Benchmark
+	public void send() throws IOException {
+		connection.send(buffer, 0, messageSize);
+		connection.flush();
+	}
+
+	@Benchmark
+	public int read() throws IOException {
+		return connection.read(buffer, 0, messageSize);
+	}
+
+	@Benchmark
+	public void readToStream() throws IOException {
+		connection.read(discard, messageSize, null);
+	}
+
+	private static void startDaemon(final String name, final Runnable runnable) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private static void drain(final Socket socket) {
+		byte[] sink = new byte[64 * 1024];
+		try {
+			InputStream in = socket.getInputStream();
+			while (in.read(sink) != -1) {
+			}
+		} catch (IOException e) {
+			// closed at tear down
+		}
+	}
+
+	private static void source(final Socket socket) {
+		byte[] data = new byte[64 * 1024];
+		try {
+			OutputStream out = socket.getOutputStream();
+			while (true) {
+				out.write(data);
+			}
+		} catch (IOException e) {
+			// closed at tear down
+		}
+	}
+
+}
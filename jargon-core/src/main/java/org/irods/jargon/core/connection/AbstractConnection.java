@@ -9,6 +9,7 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.utils.Host;
@@ -43,6 +44,7 @@ public abstract class AbstractConnection {
 	protected final IRODSAccount irodsAccount;
 	protected final PipelineConfiguration pipelineConfiguration;
 	private final long connectTimeInMillis = System.currentTimeMillis();
+	private SocketBufferTuning socketBufferTuning = null;
 
 	public enum EncryptionType {
 		NONE, SSL_WRAPPED
@@ -62,6 +64,14 @@ public abstract class AbstractConnection {
 	 */
 	private int outputOffset = 0;
 
+	/**
+	 * Guards the output buffer and offset. Exchanges with the agent are
+	 * serialized by the {@link IRODSMidLevelProtocol}, this keeps the buffer
+	 * consistent for callers that send directly, using a lock rather than a
+	 * monitor so that blocking writes do not pin a virtual thread.
+	 */
+	private final ReentrantLock outputLock = new ReentrantLock();
+
 	/**
 	 * Configured negotation policy, either from jargon default properties, or
 	 * overridden in the IRODSAccount
@@ -294,31 +304,50 @@ public abstract class AbstractConnection {
 				return;
 			}
 
+			sendBytes(value, 0, value.length);
+		} catch (IOException ioe) {
+			getIrodsSession().discardSessionForErrors(getIrodsAccount());
+			log.error("ioException in send", ioe);
+			throw ioe;
+		}
+	}
+
+	/**
+	 * Write the given region of the array to the internal buffer or the socket,
+	 * without copying it first
+	 *
+	 * @param value  {@code byte[]} with the data
+	 * @param offset {@code int} offset into the array
+	 * @param length {@code int} number of bytes to write
+	 * @throws IOException If an IOException occurs
+	 */
+	private void sendBytes(final byte[] value, final int offset, final int length) throws IOException {
+		outputLock.lock();
+		try {
 			if (pipelineConfiguration.getInternalCacheBufferSize() <= 0) {
-				irodsOutputStream.write(value);
-			} else if ((value.length + outputOffset) >= pipelineConfiguration.getInternalCacheBufferSize()) {
+				irodsOutputStream.write(value, offset, length);
+			} else if ((length + outputOffset) >= pipelineConfiguration.getInternalCacheBufferSize()) {
 				// in cases where OUTPUT_BUFFER_LENGTH isn't big enough
 				irodsOutputStream.write(outputBuffer, 0, outputOffset);
-				irodsOutputStream.write(value);
+				irodsOutputStream.write(value, offset, length);
 				outputOffset = 0;
 			} else {
 
 				// the message sent isn't longer than OUTPUT_BUFFER_LENGTH
-				System.arraycopy(value, 0, outputBuffer, outputOffset, value.length);
-				outputOffset += value.length;
+				System.arraycopy(value, offset, outputBuffer, outputOffset, length);
+				outputOffset += length;
 
 			}
-		} catch (IOException ioe) {
-			getIrodsSession().discardSessionForErrors(getIrodsAccount());
-			log.error("ioException in send", ioe);
-			throw ioe;
+		} finally {
+			outputLock.unlock();
 		}
 	}
 
 	/**
 	 * Writes a certain length of bytes at some offset in the value array to the
-	 * output stream, by converting the value to a byte array and calling send(
-	 * byte[] value ).
+	 * output stream. The region is written in place, so a reusable buffer (such as
+	 * a {@code TagWriter} holding a serialized packing instruction) may be passed
+	 * without copying.
 	 *
 	 * @param value  value to be sent
 	 * @param offset offset into array
@@ -351,11 +380,19 @@ public abstract class AbstractConnection {
 			throw new IllegalArgumentException(err);
 		}
 
-		byte temp[] = new byte[length];
-
-		System.arraycopy(value, offset, temp, 0, length);
+		if (offset + length > value.length) {
+			String err = "trying to send a byte buffer with a length that is out of range";
+			log.error(err);
+			throw new IllegalArgumentException(err);
+		}
 
-		send(temp);
+		try {
+			sendBytes(value, offset, length);
+		} catch (IOException ioe) {
+			getIrodsSession().discardSessionForErrors(getIrodsAccount());
+			log.error("ioException in send", ioe);
+			throw ioe;
+		}
 	}
 
 	/**
@@ -488,14 +525,19 @@ public abstract class AbstractConnection {
 			throw new ClosedChannelException();
 		}
 
-		if (pipelineConfiguration.getInternalCacheBufferSize() > 0) {
-			irodsOutputStream.write(outputBuffer, 0, outputOffset);
-			irodsOutputStream.flush();
-			byte zerByte = (byte) 0;
-			java.util.Arrays.fill(outputBuffer, zerByte);
-			outputOffset = 0;
-		} else {
-			irodsOutputStream.flush();
+		outputLock.lock();
+		try {
+			if (pipelineConfiguration.getInternalCacheBufferSize() > 0) {
+				irodsOutputStream.write(outputBuffer, 0, outputOffset);
+				irodsOutputStream.flush();
+				byte zerByte = (byte) 0;
+				java.util.Arrays.fill(outputBuffer, zerByte);
+				outputOffset = 0;
+			} else {
+				irodsOutputStream.flush();
+			}
+		} finally {
+			outputLock.unlock();
 		}
 
 	}
@@ -811,4 +853,19 @@ public abstract class AbstractConnection {
 		return connectTimeInMillis;
 	}
 
+	/**
+	 * @return {@link SocketBufferTuning} with the buffer sizes chosen for this
+	 *         connection, or {@code null} if socket buffers are not tuned
+	 */
+	public SocketBufferTuning getSocketBufferTuning() {
+		return socketBufferTuning;
+	}
+
+	/**
+	 * @param socketBufferTuning the buffer sizes chosen for this connection
+	 */
+	protected void setSocketBufferTuning(final SocketBufferTuning socketBufferTuning) {
+		this.socketBufferTuning = socketBufferTuning;
+	}
+
 }
@@ -0,0 +1,123 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * Point in time snapshot of the counters kept by a
+ * {@link PooledIRODSProtocolManager}. Counts are totals since the pool was
+ * created.
+ */
+public final class ConnectionPoolStatistics {
+
+	private final long leases;
+	private final long connectionsCreated;
+	private final long connectionsDiscarded;
+	private final long connectionsEvicted;
+	private final long leaseTimeouts;
+	private final long totalLeaseWaitNanos;
+	private final long maxLeaseWaitNanos;
+	private final int activeConnections;
+	private final int idleConnections;
+
+	ConnectionPoolStatistics(final long leases, final long connectionsCreated, final long connectionsDiscarded,
+			final long connectionsEvicted, final long leaseTimeouts, final long totalLeaseWaitNanos,
+			final long maxLeaseWaitNanos, final int activeConnections, final int idleConnections) {
+		this.leases = leases;
+		this.connectionsCreated = connectionsCreated;
+		this.connectionsDiscarded = connectionsDiscarded;
+		this.connectionsEvicted = connectionsEvicted;
+		this.leaseTimeouts = leaseTimeouts;
+		this.totalLeaseWaitNanos = totalLeaseWaitNanos;
+		this.maxLeaseWaitNanos = maxLeaseWaitNanos;
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+	}
+
+	/**
+	 * @return {@code long} with the number of connections handed out, new or
+	 *         reused
+	 */
+	public long getLeases() {
+		return leases;
+	}
+
+	/**
+	 * @return {@code long} with the number of connections opened and
+	 *         authenticated
+	 */
+	public long getConnectionsCreated() {
+		return connectionsCreated;
+	}
+
+	/**
+	 * @return {@code long} with the number of connections closed because they
+	 *         failed validation, were in error, or were over the idle limit
+	 */
+	public long getConnectionsDiscarded() {
+		return connectionsDiscarded;
+	}
+
+	/**
+	 * @return {@code long} with the number of idle connections closed by the
+	 *         evictor
+	 */
+	public long getConnectionsEvicted() {
+		return connectionsEvicted;
+	}
+
+	/**
+	 * @return {@code long} with the number of leases that failed because no
+	 *         connection was free within the maximum wait time
+	 */
+	public long getLeaseTimeouts() {
+		return leaseTimeouts;
+	}
+
+	/**
+	 * @return {@code long} with the total time in nanoseconds spent waiting for
+	 *         and creating leased connections
+	 */
+	public long getTotalLeaseWaitNanos() {
+		return totalLeaseWaitNanos;
+	}
+
+	/**
+	 * @return {@code long} with the longest time in nanoseconds taken by a lease
+	 */
+	public long getMaxLeaseWaitNanos() {
+		return maxLeaseWaitNanos;
+	}
+
+	/**
+	 * @return {@code long} with the mean time in nanoseconds taken by a lease
+	 */
+	public long getAverageLeaseWaitNanos() {
+		return leases == 0 ? 0L : totalLeaseWaitNanos / leases;
+	}
+
+	/**
+	 * @return {@code int} with the number of connections currently leased
+	 */
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	/**
+	 * @return {@code int} with the number of connections currently idle in the
+	 *         pool
+	 */
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ConnectionPoolStatistics [leases=").append(leases).append(", connectionsCreated=")
+				.append(connectionsCreated).append(", connectionsDiscarded=").append(connectionsDiscarded)
+				.append(", connectionsEvicted=").append(connectionsEvicted).append(", leaseTimeouts=")
+				.append(leaseTimeouts).append(", totalLeaseWaitNanos=").append(totalLeaseWaitNanos)
+				.append(", maxLeaseWaitNanos=").append(maxLeaseWaitNanos).append(", activeConnections=")
+				.append(activeConnections).append(", idleConnections=").append(idleConnections).append("]");
+		return builder.toString();
+	}
+
+}
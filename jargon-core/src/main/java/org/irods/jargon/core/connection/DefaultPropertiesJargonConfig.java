@@ -613,4 +613,104 @@ public class DefaultPropertiesJargonConfig implements JargonProperties {
 		return verifyPropExistsAndGetAsInt("replica.token.cache.timeout.seconds");
 	}
 
+	@Override
+	public boolean isColumnarGenQueryResults() {
+		return verifyPropExistsAndGetAsBoolean("columnar.genquery.results");
+	}
+
+	@Override
+	public boolean isUseChannelsForParallelTransfer() {
+		return verifyPropExistsAndGetAsBoolean("transfer.parallel.use.channels");
+	}
+
+	@Override
+	public int getInputStreamReadAheadBuffers() {
+		return verifyPropExistsAndGetAsInt("jargon.io.input.stream.read.ahead.buffers");
+	}
+
+	@Override
+	public int getInputStreamReadAheadBufferSize() {
+		return verifyPropExistsAndGetAsInt("jargon.io.input.stream.read.ahead.buffer.size");
+	}
+
+	@Override
+	public int getOutputStreamWriteBehindBuffers() {
+		return verifyPropExistsAndGetAsInt("jargon.io.output.stream.write.behind.buffers");
+	}
+
+	@Override
+	public int getOutputStreamWriteBehindBufferSize() {
+		return verifyPropExistsAndGetAsInt("jargon.io.output.stream.write.behind.buffer.size");
+	}
+
+	@Override
+	public int getRandomAccessCacheBlockSize() {
+		return verifyPropExistsAndGetAsInt("jargon.io.random.access.cache.block.size");
+	}
+
+	@Override
+	public int getRandomAccessCacheBlocks() {
+		return verifyPropExistsAndGetAsInt("jargon.io.random.access.cache.blocks");
+	}
+
+	@Override
+	public int getAtomicMetadataBatchSize() {
+		return verifyPropExistsAndGetAsInt("atomic.metadata.batch.size");
+	}
+
+	@Override
+	public int getRecursiveTransferThreads() {
+		return verifyPropExistsAndGetAsInt("transfer.recursive.threads");
+	}
+
+	@Override
+	public long getSmallFileAggregationThreshold() {
+		return verifyPropExistsAndGetAsLong("transfer.aggregate.small.files.threshold");
+	}
+
+	@Override
+	public long getSmallFileAggregationBundleSize() {
+		return verifyPropExistsAndGetAsLong("transfer.aggregate.bundle.size");
+	}
+
+	@Override
+	public String getLongTransferRestartJournal() {
+		return verifyPropExistsAndGetAsString("transfer.long.file.restart.journal");
+	}
+
+	@Override
+	public long getLongTransferRestartPublishIntervalMillis() {
+		return verifyPropExistsAndGetAsLong("transfer.long.file.restart.publish.interval.millis");
+	}
+
+	@Override
+	public boolean isAdaptiveParallelThreads() {
+		return verifyPropExistsAndGetAsBoolean("transfer.adaptive.parallel.threads");
+	}
+
+	@Override
+	public boolean isTcpBufferAutoTune() {
+		return verifyPropExistsAndGetAsBoolean("tcp.buffer.autotune");
+	}
+
+	@Override
+	public int getTcpBufferAutoTuneBandwidthMbits() {
+		return verifyPropExistsAndGetAsInt("tcp.buffer.autotune.bandwidth.mbits");
+	}
+
+	@Override
+	public int getTcpBufferAutoTuneMaxKb() {
+		return verifyPropExistsAndGetAsInt("tcp.buffer.autotune.max.kb");
+	}
+
+	@Override
+	public int getMetadataCacheMaxEntries() {
+		return verifyPropExistsAndGetAsInt("jargon.metadata.cache.max.entries");
+	}
+
+	@Override
+	public long getMetadataCacheTtlMillis() {
+		return verifyPropExistsAndGetAsLong("jargon.metadata.cache.ttl.millis");
+	}
+
 }
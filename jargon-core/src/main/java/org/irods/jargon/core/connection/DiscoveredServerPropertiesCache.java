@@ -53,6 +53,7 @@ public class DiscoveredServerPropertiesCache {
 	public static final String EIRODS = "eirods";
 	public static final String RULE_BASE = "loadedRules";
 	public static final String CHECKSUM_TYPE = "checksumType";
+	public static final String ATOMIC_METADATA_SUPPORTED = "atomicMetadataSupported";
 
 	public static final String IS_TRUE = "true";
 	public static final String IS_FALSE = "false";
@@ -111,6 +111,11 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 		}
 
 		int attemptCount = 3;
+		SocketBufferTuner socketBufferTuner = null;
+		if (getPipelineConfiguration().isTcpBufferAutoTune() && getIrodsSession() != null) {
+			socketBufferTuner = new SocketBufferTuner(getIrodsSession().getDiscoveredServerPropertiesCache(),
+					getPipelineConfiguration());
+		}
 
 		for (int i = 0; i < attemptCount; i++) {
 			log.debug("connecting socket to agent");
@@ -136,11 +141,23 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 				InetSocketAddress address = new InetSocketAddress(irodsAccount.getHost(), irodsAccount.getPort());
 				connection.setKeepAlive(getPipelineConfiguration().isPrimaryTcpKeepAlive());
 
+				SocketBufferTuning socketBufferTuning = null;
+				if (socketBufferTuner != null) {
+					socketBufferTuning = socketBufferTuner.tuneBeforeConnect(connection, irodsAccount.getHost(), 1,
+							false);
+				}
+
 				// assume reuse, nodelay
 				connection.setReuseAddress(true);
 				connection.setTcpNoDelay(false);
+				long connectStart = System.nanoTime();
 				connection.connect(address);
 
+				if (socketBufferTuner != null) {
+					setSocketBufferTuning(socketBufferTuner.tuneAfterConnect(connection, irodsAccount.getHost(), 1,
+							false, System.nanoTime() - connectStart, socketBufferTuning));
+				}
+
 				// success, so break out of reconnect loop
 				log.debug("connection to socket made...");
 				break;
@@ -189,33 +206,36 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 			}
 
 			/*
-			 * Set raw socket i/o buffering per configuration
+			 * Set raw socket i/o buffering per configuration, or as tuned for the link
 			 */
-			if (pipelineConfiguration.getInternalInputStreamBufferSize() <= -1) {
+			int inputStreamBufferSize = pipelineConfiguration.getInternalInputStreamBufferSize();
+			int outputStreamBufferSize = pipelineConfiguration.getInternalOutputStreamBufferSize();
+			if (getSocketBufferTuning() != null) {
+				inputStreamBufferSize = getSocketBufferTuning().getInputStreamBufferSize();
+				outputStreamBufferSize = getSocketBufferTuning().getOutputStreamBufferSize();
+			}
+
+			if (inputStreamBufferSize <= -1) {
 				log.debug("no buffer on input stream");
 				irodsInputStream = connection.getInputStream();
-			} else if (pipelineConfiguration.getInternalInputStreamBufferSize() == 0) {
+			} else if (inputStreamBufferSize == 0) {
 				log.debug("default buffer on input stream");
 				irodsInputStream = new BufferedInputStream(connection.getInputStream());
 			} else {
-				log.debug("buffer of size:{} on input stream",
-						pipelineConfiguration.getInternalInputStreamBufferSize());
-				irodsInputStream = new BufferedInputStream(connection.getInputStream(),
-						pipelineConfiguration.getInternalInputStreamBufferSize());
+				log.debug("buffer of size:{} on input stream", inputStreamBufferSize);
+				irodsInputStream = new BufferedInputStream(connection.getInputStream(), inputStreamBufferSize);
 			}
 
-			if (pipelineConfiguration.getInternalOutputStreamBufferSize() <= -1) {
+			if (outputStreamBufferSize <= -1) {
 				log.debug("no buffer on output stream");
 				irodsOutputStream = connection.getOutputStream();
 
-			} else if (pipelineConfiguration.getInternalOutputStreamBufferSize() == 0) {
+			} else if (outputStreamBufferSize == 0) {
 				log.debug("default buffer on input stream");
 				irodsOutputStream = new BufferedOutputStream(connection.getOutputStream());
 			} else {
-				log.debug("buffer of size:{} on output stream",
-						pipelineConfiguration.getInternalOutputStreamBufferSize());
-				irodsOutputStream = new BufferedOutputStream(connection.getOutputStream(),
-						pipelineConfiguration.getInternalOutputStreamBufferSize());
+				log.debug("buffer of size:{} on output stream", outputStreamBufferSize);
+				irodsOutputStream = new BufferedOutputStream(connection.getOutputStream(), outputStreamBufferSize);
 			}
 
 		} catch (UnknownHostException e) {
@@ -6,6 +6,8 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.bouncycastle.util.encoders.Base64;
 import org.irods.jargon.core.connection.AbstractConnection.EncryptionType;
@@ -17,6 +19,8 @@ import org.irods.jargon.core.packinstr.IRodsPI;
 import org.irods.jargon.core.packinstr.RErrMsg;
 import org.irods.jargon.core.packinstr.SSLEndInp;
 import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagPullParser;
+import org.irods.jargon.core.packinstr.TagWriter;
 import org.irods.jargon.core.protovalues.ErrorEnum;
 import org.irods.jargon.core.protovalues.RequestTypes;
 import org.irods.jargon.core.pub.PluggableApiCallResult;
@@ -36,6 +40,13 @@ import org.slf4j.LoggerFactory;
  * of thumb is to treat a connection to IRODS the same way you would treat a
  * JDBC database connection.
  * <p>
+ * Each exchange with the agent is guarded by a {@code ReentrantLock} rather
+ * than by the monitor of this object, so that a virtual thread blocked on the
+ * socket while holding it does not pin its carrier thread. Accessors of the
+ * connection state do not take the lock, and
+ * {@link #obliterateConnectionAndDiscardErrors()} may be called from another
+ * thread to break a connection that is blocked in i/o.
+ * <p>
  * A note on iRODS connections and handling when things go bad. Typically, an
  * iRODS connection is created by opening a socket, and doing a handshake and
  * other start-up procedures. Once that is done you are connected to an iRODS
@@ -82,19 +93,39 @@ public class IRODSMidLevelProtocol {
 
 	Logger log = LoggerFactory.getLogger(IRODSMidLevelProtocol.class);
 
-	private AbstractConnection irodsConnection;
+	private volatile AbstractConnection irodsConnection;
 	private AbstractConnection irodsConnectionNonEncryptedRef = null;
-	private IRODSProtocolManager irodsProtocolManager;
-	private IRODSServerProperties irodsServerProperties;
-	private IRODSSession irodsSession = null;
+	private volatile IRODSProtocolManager irodsProtocolManager;
+	private volatile IRODSServerProperties irodsServerProperties;
+	private volatile IRODSSession irodsSession = null;
 	private StartupResponseData startupResponseData;
 
+	/**
+	 * Guards the exchange of messages with the agent, so that a request and its
+	 * response are not interleaved with those of another thread
+	 */
+	private final ReentrantLock ioLock = new ReentrantLock();
+
+	/**
+	 * Reusable buffer that outgoing packing instructions are serialized into,
+	 * created on first use. Access is guarded by the {@code ioLock} held by the
+	 * {@code irodsFunction} methods.
+	 */
+	private TagWriter tagWriter = null;
+
+	/**
+	 * Count of open file descriptors, query handles, and other state in the iRODS
+	 * agent that outlives a single call. A pooled {@link IRODSProtocolManager}
+	 * will not take back a connection while it holds agent state.
+	 */
+	private final AtomicInteger agentStateHolds = new AtomicInteger();
+
 	/**
 	 * This is an overhead for iRODS 4.0 - 4.0.3 servers per
 	 * https://github.com/DICE-UNC/jargon/issues/70
 	 *
 	 */
-	private boolean forceSslFlush = false;
+	private volatile boolean forceSslFlush = false;
 
 	public static final int EIRODS_MIN = 301;
 	public static final int EIRODS_MAX = 301;
@@ -107,7 +138,7 @@ public class IRODSMidLevelProtocol {
 	 * authentication using a temporary password generated in the PAM authentication
 	 * process.
 	 */
-	private AuthResponse authResponse = null;
+	private volatile AuthResponse authResponse = null;
 
 	/**
 	 * This account will represent the account information used for the actual
@@ -115,7 +146,7 @@ public class IRODSMidLevelProtocol {
 	 * down into the account presented, and the account actually used in the
 	 * {@code AuthResponse} object.
 	 */
-	private IRODSAccount irodsAccount;
+	private volatile IRODSAccount irodsAccount;
 
 	/**
 	 * Create a base instance of the mid level protocol, which may be processed
@@ -148,11 +179,11 @@ public class IRODSMidLevelProtocol {
 		irodsSession = irodsConnection.getIrodsSession();
 	}
 
-	synchronized boolean isForceSslFlush() {
+	boolean isForceSslFlush() {
 		return forceSslFlush;
 	}
 
-	synchronized void setForceSslFlush(final boolean forceSslFlush) {
+	void setForceSslFlush(final boolean forceSslFlush) {
 		this.forceSslFlush = forceSslFlush;
 	}
 
@@ -181,9 +212,14 @@ public class IRODSMidLevelProtocol {
 		super.finalize();
 	}
 
-	synchronized void closeOutSocketAndSetAsDisconnected() throws IOException {
-		getIrodsConnection().getConnection().close();
-		getIrodsConnection().setConnected(false);
+	void closeOutSocketAndSetAsDisconnected() throws IOException {
+		ioLock.lock();
+		try {
+			getIrodsConnection().getConnection().close();
+			getIrodsConnection().setConnected(false);
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -217,56 +253,59 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link PluggableApiCallResult} with the string-ified JSON response,
 	 *         marshal and unmarshal are external to this method
 	 */
-	public synchronized PluggableApiCallResult irodsPluggableApiFunction(String inputJson, int apiNumber)
+	public PluggableApiCallResult irodsPluggableApiFunction(String inputJson, int apiNumber)
 			throws JargonException {
+		ioLock.lock();
+		try {
+			// BytesBuf_T
+			// see
+			// https://github.com/irods/irods/blob/master/unit_tests/src/test_get_file_descriptor_info.cpp#L47
+			// https://github.com/irods/irods/blob/master/plugins/api/src/get_file_descriptor_info.cpp#L358-L383
+			log.info("irodsPluggableApiFunction()");
+
+			log.debug("apiNumber is:{}", apiNumber);
+
+			if (inputJson == null || inputJson.length() == 0) {
+				String err = "null or blank inputJson";
+				log.error(err);
+				throw new JargonException(err);
+			}
 
-		// BytesBuf_T
-		// see
-		// https://github.com/irods/irods/blob/master/unit_tests/src/test_get_file_descriptor_info.cpp#L47
-		// https://github.com/irods/irods/blob/master/plugins/api/src/get_file_descriptor_info.cpp#L358-L383
-		log.info("irodsPluggableApiFunction()");
-
-		log.debug("apiNumber is:{}", apiNumber);
-
-		if (inputJson == null || inputJson.length() == 0) {
-			String err = "null or blank inputJson";
-			log.error(err);
-			throw new JargonException(err);
-		}
+			byte[] encodedInput = Base64.encode(inputJson.getBytes());
 
-		byte[] encodedInput = Base64.encode(inputJson.getBytes());
+			BinBytesBuff bytesBuff = BinBytesBuff.instance(new String(encodedInput), apiNumber);
+			String tagOut = bytesBuff.getParsedTags();
 
-		BinBytesBuff bytesBuff = BinBytesBuff.instance(new String(encodedInput), apiNumber);
-		String tagOut = bytesBuff.getParsedTags();
+			// message may be null for some operations
 
-		// message may be null for some operations
+			try {
 
-		try {
+				int messageLength = tagOut.getBytes(this.getEncoding()).length;
 
-			int messageLength = tagOut.getBytes(this.getEncoding()).length;
+				sendHeader(IRODSConstants.RODS_API_REQ, messageLength, 0, 0, apiNumber);
 
-			sendHeader(IRODSConstants.RODS_API_REQ, messageLength, 0, 0, apiNumber);
+				if (getStartupResponseData() == null) {
+					log.debug("no ssl flush checking during negotiation");
+				} else if (isPamFlush()) {
+					log.debug("doing extra pam flush for iRODS 3.2");
+					getIrodsConnection().flush();
+				}
 
-			if (getStartupResponseData() == null) {
-				log.debug("no ssl flush checking during negotiation");
-			} else if (isPamFlush()) {
-				log.debug("doing extra pam flush for iRODS 3.2");
+				getIrodsConnection().send(tagOut);
 				getIrodsConnection().flush();
-			}
 
-			getIrodsConnection().send(tagOut);
-			getIrodsConnection().flush();
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			disconnectWithForce();
-			throw new JargonException(e);
+			return readPluggableApiMessage();
+		} finally {
+			ioLock.unlock();
 		}
-
-		return readPluggableApiMessage();
-
 	}
 
 	/**
@@ -276,59 +315,63 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link PluggableApiCallResult} with the iRODS JSON response
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized PluggableApiCallResult readPluggableApiMessage() throws JargonException {
-		log.debug("readPluggableApiMessage()");
-		Tag header = readHeader();
-		Tag message = null;
-		String jsonOutput = null;
-
-		int messageLength = header.getTags()[1].getIntValue();
-		int errorLength = header.getTags()[2].getIntValue();
-		int bytesLength = header.getTags()[3].getIntValue();
-		int info = header.getTags()[4].getIntValue();
-
-		if (log.isDebugEnabled()) {
-			log.debug("message length:{}", messageLength);
-			log.debug("error length:{}", errorLength);
-			log.debug("bytesLength:{}", bytesLength);
-			log.debug("info value:{}", info);
-		}
+	public PluggableApiCallResult readPluggableApiMessage() throws JargonException {
+		ioLock.lock();
+		try {
+			log.debug("readPluggableApiMessage()");
+			Tag header = readHeader();
+			Tag message = null;
+			String jsonOutput = null;
 
-		// Reports iRODS errors, throw exception if appropriate
-		if (info < 0) {
-			processMessageInfoLessThanZero(messageLength, errorLength, info);
-			log.debug("returning null, no results");
-			// query with no results
-			return null;
-		}
+			int messageLength = header.getTags()[1].getIntValue();
+			int errorLength = header.getTags()[2].getIntValue();
+			int bytesLength = header.getTags()[3].getIntValue();
+			int info = header.getTags()[4].getIntValue();
 
-		PluggableApiCallResult pluggableApiResult = new PluggableApiCallResult();
-		pluggableApiResult.setErrorInfo(errorLength);
-		pluggableApiResult.setIntInfo(info);
+			if (log.isDebugEnabled()) {
+				log.debug("message length:{}", messageLength);
+				log.debug("error length:{}", errorLength);
+				log.debug("bytesLength:{}", bytesLength);
+				log.debug("info value:{}", info);
+			}
 
-		if (messageLength > 0) {
-			log.debug("message length greater than zero");
-			message = readMessageBody(messageLength, true);
-			String messageBytes = message.getTag("buf").getStringValue();
-			byte[] decoded = Base64.decode(messageBytes);
-			pluggableApiResult.setJsonResult(new String(decoded));
-		}
+			// Reports iRODS errors, throw exception if appropriate
+			if (info < 0) {
+				processMessageInfoLessThanZero(messageLength, errorLength, info);
+				log.debug("returning null, no results");
+				// query with no results
+				return null;
+			}
 
-		if (errorLength != 0) {
-			processMessageErrorNotEqualZero(errorLength);
-		}
+			PluggableApiCallResult pluggableApiResult = new PluggableApiCallResult();
+			pluggableApiResult.setErrorInfo(errorLength);
+			pluggableApiResult.setIntInfo(info);
 
-		if (bytesLength > 0) {
-			throw new UnsupportedOperationException("unable to handle bytes buffer from pluggable api call");
-		}
+			if (messageLength > 0) {
+				log.debug("message length greater than zero");
+				message = readMessageBody(messageLength, true);
+				String messageBytes = message.getTag("buf").getStringValue();
+				byte[] decoded = Base64.decode(messageBytes);
+				pluggableApiResult.setJsonResult(new String(decoded));
+			}
 
-		// look for the tag with the actual encoded message (tag is buf in a
-		// BinBytesBuf_PI tag
+			if (errorLength != 0) {
+				processMessageErrorNotEqualZero(errorLength);
+			}
+
+			if (bytesLength > 0) {
+				throw new UnsupportedOperationException("unable to handle bytes buffer from pluggable api call");
+			}
 
-		// parse out the response
+			// look for the tag with the actual encoded message (tag is buf in a
+			// BinBytesBuf_PI tag
 
-		return pluggableApiResult;
+			// parse out the response
 
+			return pluggableApiResult;
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -389,60 +432,64 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag}
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized Tag irodsFunction(final String type, final String message, final byte[] errorBytes,
+	public Tag irodsFunction(final String type, final String message, final byte[] errorBytes,
 			final int errorOffset, final int errorLength, final byte[] bytes, final int byteOffset,
 			final int byteBufferLength, final int intInfo) throws JargonException {
+		ioLock.lock();
+		try {
+			log.debug("calling irods function with byte array");
 
-		log.debug("calling irods function with byte array");
+			if (intInfo != 1201) {
+				log.debug("calling irods function with:{}", message);
+			}
 
-		if (intInfo != 1201) {
-			log.debug("calling irods function with:{}", message);
-		}
+			log.debug("api number is:{}", intInfo);
 
-		log.debug("api number is:{}", intInfo);
+			if (type == null || type.length() == 0) {
+				String err = "null or blank type";
+				log.error(err);
+				throw new JargonException(err);
+			}
 
-		if (type == null || type.length() == 0) {
-			String err = "null or blank type";
-			log.error(err);
-			throw new JargonException(err);
-		}
+			// message may be null for some operations
 
-		// message may be null for some operations
+			try {
+				int messageLength = 0;
 
-		try {
-			int messageLength = 0;
+				if (message != null) {
+					messageLength = message.getBytes(getEncoding()).length;
+				}
 
-			if (message != null) {
-				messageLength = message.getBytes(getEncoding()).length;
-			}
+				sendHeader(type, messageLength, errorLength, byteBufferLength, intInfo);
 
-			sendHeader(type, messageLength, errorLength, byteBufferLength, intInfo);
+				if (getStartupResponseData() == null) {
+					log.debug("no ssl flush checking during negotiation");
+				} else if (isPamFlush()) {
+					log.debug("doing extra pam flush for iRODS 3.2");
+					getIrodsConnection().flush();
+				}
 
-			if (getStartupResponseData() == null) {
-				log.debug("no ssl flush checking during negotiation");
-			} else if (isPamFlush()) {
-				log.debug("doing extra pam flush for iRODS 3.2");
+				getIrodsConnection().send(message);
 				getIrodsConnection().flush();
-			}
 
-			getIrodsConnection().send(message);
-			getIrodsConnection().flush();
+				if (byteBufferLength > 0) {
+					getIrodsConnection().send(bytes, byteOffset, byteBufferLength);
+				}
 
-			if (byteBufferLength > 0) {
-				getIrodsConnection().send(bytes, byteOffset, byteBufferLength);
-			}
+				getIrodsConnection().flush();
 
-			getIrodsConnection().flush();
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			disconnectWithForce();
-			throw new JargonException(e);
+			return readMessage();
+		} finally {
+			ioLock.unlock();
 		}
-
-		return readMessage();
 	}
 
 	/**
@@ -465,57 +512,110 @@ public class IRODSMidLevelProtocol {
 	 * @param intInfo          {@code int} with the iRODS API number
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized void irodsFunctionUnidirectional(final String type, final byte[] message,
+	public void irodsFunctionUnidirectional(final String type, final byte[] message,
 			final byte[] errorBytes, final int errorOffset, final int errorLength, final byte[] bytes,
 			final int byteOffset, final int byteBufferLength, final int intInfo) throws JargonException {
+		ioLock.lock();
+		try {
+			log.debug("calling irods function with byte array");
+			log.debug("calling irods function with:{}", message);
+			log.debug("api number is:{}", intInfo);
 
-		log.debug("calling irods function with byte array");
-		log.debug("calling irods function with:{}", message);
-		log.debug("api number is:{}", intInfo);
+			if (type == null || type.length() == 0) {
+				String err = "null or blank type";
+				log.error(err);
+				throw new JargonException(err);
+			}
 
-		if (type == null || type.length() == 0) {
-			String err = "null or blank type";
-			log.error(err);
-			throw new JargonException(err);
-		}
+			// message may be null for some operations
 
-		// message may be null for some operations
+			try {
+				int messageLength = 0;
 
-		try {
-			int messageLength = 0;
+				if (message != null) {
+					messageLength = message.length;
+				}
 
-			if (message != null) {
-				messageLength = message.length;
-			}
+				sendHeader(type, messageLength, errorLength, byteBufferLength, intInfo);
 
-			sendHeader(type, messageLength, errorLength, byteBufferLength, intInfo);
+				if (getStartupResponseData() == null) {
+					log.debug("no pam flush check during negotiation phase");
+				} else if (isPamFlush()) {
+					log.debug("doing extra pam flush for iRODS 3.2");
+					getIrodsConnection().flush();
+				}
 
-			if (getStartupResponseData() == null) {
-				log.debug("no pam flush check during negotiation phase");
-			} else if (isPamFlush()) {
-				log.debug("doing extra pam flush for iRODS 3.2");
-				getIrodsConnection().flush();
-			}
+				if (messageLength > 0) {
+					getIrodsConnection().send(message);
+					getIrodsConnection().flush();
+				}
+
+				if (byteBufferLength > 0) {
+					getIrodsConnection().send(bytes, byteOffset, byteBufferLength);
+				}
 
-			if (messageLength > 0) {
-				getIrodsConnection().send(message);
 				getIrodsConnection().flush();
+
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				disconnectWithForce();
+				throw new JargonException(e);
 			}
+		} finally {
+			ioLock.unlock();
+		}
+	}
 
-			if (byteBufferLength > 0) {
-				getIrodsConnection().send(bytes, byteOffset, byteBufferLength);
+	/**
+	 * Send a packing instruction and its byte stream without waiting for the
+	 * response, so that several requests can be in flight on the connection. The
+	 * responses must then be collected in the order sent with
+	 * {@link #readMessage()}, and the caller should hold {@link #lockExchange()}
+	 * from the first send until the last response is read, so that no other
+	 * request is made on the connection in between.
+	 *
+	 * @param irodsPI          {@link IRodsPI} with the packing instruction
+	 * @param bytes            {@code byte[]} with the binary data to send
+	 * @param byteOffset       {@code int} with the offset into the data bytes
+	 * @param byteStreamLength {@code int} with the length of data from the byte
+	 *                         stream to send
+	 * @throws JargonException on error sending
+	 */
+	public void irodsFunctionUnidirectional(final IRodsPI irodsPI, final byte[] bytes, final int byteOffset,
+			final int byteStreamLength) throws JargonException {
+		ioLock.lock();
+		try {
+			if (irodsPI == null) {
+				String err = "null irodsPI";
+				log.error(err);
+				throw new IllegalArgumentException(err);
 			}
 
-			getIrodsConnection().flush();
+			int messageLength = serializeMessage(irodsPI);
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			disconnectWithForce();
-			throw new JargonException(e);
-		}
+			try {
+				sendHeader(IRODSConstants.RODS_API_REQ, messageLength, 0, byteStreamLength, irodsPI.getApiNumber());
+				irodsConnection.send(tagWriter.getBuffer(), 0, messageLength);
+
+				if (byteStreamLength > 0) {
+					irodsConnection.send(bytes, byteOffset, byteStreamLength);
+				}
 
+				irodsConnection.flush();
+
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("io exception sending irods command", e);
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -566,9 +666,14 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag} with the iRODS protocol response
 	 * @throws JargonException on invocation of the function
 	 */
-	public synchronized Tag irodsFunction(final String type, final String message, final int intInfo)
+	public Tag irodsFunction(final String type, final String message, final int intInfo)
 			throws JargonException {
-		return irodsFunction(type, message, null, 0, 0, null, 0, 0, intInfo);
+		ioLock.lock();
+		try {
+			return irodsFunction(type, message, null, 0, 0, null, 0, 0, intInfo);
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -605,53 +710,55 @@ public class IRODSMidLevelProtocol {
 	 *         the appropriate operation complete messages
 	 * @throws JargonException on function error
 	 */
-	public synchronized long irodsFunctionForStreamingToIRODSInFrames(final IRodsPI irodsPI, final int byteStreamLength,
+	public long irodsFunctionForStreamingToIRODSInFrames(final IRodsPI irodsPI, final int byteStreamLength,
 			final InputStream byteStream, final ConnectionProgressStatusListener connectionProgressStatusListener)
 			throws JargonException {
+		ioLock.lock();
+		try {
+			if (irodsPI == null) {
+				throw new IllegalArgumentException("null irodsPI");
+			}
 
-		if (irodsPI == null) {
-			throw new IllegalArgumentException("null irodsPI");
-		}
+			if (byteStream == null) {
+				throw new IllegalArgumentException("null byteStream");
+			}
 
-		if (byteStream == null) {
-			throw new IllegalArgumentException("null byteStream");
-		}
+			log.debug("calling irodsFunctionForStreamingToIRODSInFrames");
+			log.debug("calling irods function with:{}", irodsPI);
+			log.debug("api number is:{}", irodsPI.getApiNumber());
 
-		log.debug("calling irodsFunctionForStreamingToIRODSInFrames");
-		log.debug("calling irods function with:{}", irodsPI);
-		log.debug("api number is:{}", irodsPI.getApiNumber());
+			long dataSent = 0;
 
-		long dataSent = 0;
+			try {
+				int length = serializeMessage(irodsPI);
+				sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
+				if (length > 0) {
+					irodsConnection.send(tagWriter.getBuffer(), 0, length);
+				}
 
-		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(irodsConnection.getPipelineConfiguration().getDefaultEncoding()).length;
-			}
-			sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
-			irodsConnection.send(message);
+				if (byteStreamLength > 0) {
+					dataSent += irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
+					// do not close stream, it may be sent again in a subsequent
+					// call, and will maintain its internal pointer
+				}
 
-			if (byteStreamLength > 0) {
-				dataSent += irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
-				// do not close stream, it may be sent again in a subsequent
-				// call, and will maintain its internal pointer
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("ioexception", e);
+				disconnectWithForce();
+				throw new JargonException(e);
 			}
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			log.error("ioexception", e);
-			disconnectWithForce();
-			throw new JargonException(e);
+			log.debug("reading message from frame send...");
+			log.debug("read commented out");
+			readMessage();
+			log.debug("message read");
+			return dataSent;
+		} finally {
+			ioLock.unlock();
 		}
-
-		log.debug("reading message from frame send...");
-		log.debug("read commented out");
-		readMessage();
-		log.debug("message read");
-		return dataSent;
 	}
 
 	/**
@@ -693,54 +800,56 @@ public class IRODSMidLevelProtocol {
 	 * @return {@code long} with total bytes sent.
 	 * @throws JargonException for iRODS errors
 	 */
-	public synchronized Tag irodsFunctionIncludingAllDataInStream(final IRodsPI irodsPI, final long byteStreamLength,
+	public Tag irodsFunctionIncludingAllDataInStream(final IRodsPI irodsPI, final long byteStreamLength,
 			final InputStream byteStream, final ConnectionProgressStatusListener connectionProgressStatusListener)
 			throws JargonException {
+		ioLock.lock();
+		try {
+			if (irodsPI == null) {
+				throw new IllegalArgumentException("null irodsPI");
+			}
 
-		if (irodsPI == null) {
-			throw new IllegalArgumentException("null irodsPI");
-		}
+			if (byteStream == null) {
+				throw new IllegalArgumentException("null byteStream");
+			}
 
-		if (byteStream == null) {
-			throw new IllegalArgumentException("null byteStream");
-		}
+			log.debug("calling irods function with streams");
+			log.debug("calling irods function with:{}", irodsPI);
+			log.debug("api number is:{}", irodsPI.getApiNumber());
 
-		log.debug("calling irods function with streams");
-		log.debug("calling irods function with:{}", irodsPI);
-		log.debug("api number is:{}", irodsPI.getApiNumber());
+			try {
+				int length = serializeMessage(irodsPI);
 
-		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(getEncoding()).length;
-			}
+				log.debug("message:{}", tagWriter);
 
-			log.debug("message:{}", message);
+				sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
+				if (length > 0) {
+					irodsConnection.send(tagWriter.getBuffer(), 0, length);
+				}
 
-			sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
-			irodsConnection.send(message);
+				if (byteStreamLength > 0) {
+					irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
+					byteStream.close();
+				} else {
+					log.debug("no byte stream data, so flush output");
+					irodsConnection.flush();
+				}
 
-			if (byteStreamLength > 0) {
-				irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
-				byteStream.close();
-			} else {
-				log.debug("no byte stream data, so flush output");
-				irodsConnection.flush();
-			}
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("ioexception", e);
+				disconnectWithForce();
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			log.error("ioexception", e);
-			disconnectWithForce();
+				throw new JargonException(e);
+			}
 
-			throw new JargonException(e);
+			log.debug("data sent, getting response");
+			return readMessage();
+		} finally {
+			ioLock.unlock();
 		}
-
-		log.debug("data sent, getting response");
-		return readMessage();
 	}
 
 	/**
@@ -766,50 +875,53 @@ public class IRODSMidLevelProtocol {
 	 * @throws JargonException on iRODS error
 	 */
 
-	public synchronized Tag irodsFunction(final IRodsPI irodsPI, final byte[] errorStream, final int errorOffset,
+	public Tag irodsFunction(final IRodsPI irodsPI, final byte[] errorStream, final int errorOffset,
 			final int errorLength, final byte[] bytes, final int byteOffset, final int byteStreamLength)
 			throws JargonException {
+		ioLock.lock();
+		try {
+			if (irodsPI == null) {
+				String err = "null irodsPI";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
 
-		if (irodsPI == null) {
-			String err = "null irodsPI";
-			log.error(err);
-			throw new IllegalArgumentException(err);
-		}
-
-		String out = irodsPI.getParsedTags();
+			int messageLength = serializeMessage(irodsPI);
 
-		if (out == null || out.length() == 0) {
-			String err = "null or missing message returned from parse";
-			log.error(err);
-			throw new IllegalArgumentException(err);
-		}
+			if (messageLength == 0) {
+				String err = "null or missing message returned from parse";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
 
-		if (log.isDebugEnabled()) {
-			log.debug(out);
-		}
+			if (log.isDebugEnabled()) {
+				log.debug("{}", tagWriter);
+			}
 
-		try {
-			sendHeader(IRODSConstants.RODS_API_REQ, out.getBytes(getEncoding()).length, errorLength, byteStreamLength,
-					irodsPI.getApiNumber());
-			irodsConnection.send(out);
+			try {
+				sendHeader(IRODSConstants.RODS_API_REQ, messageLength, errorLength, byteStreamLength,
+						irodsPI.getApiNumber());
+				irodsConnection.send(tagWriter.getBuffer(), 0, messageLength);
 
-			if (byteStreamLength > 0) {
-				irodsConnection.send(bytes, byteOffset, byteStreamLength);
-			}
+				if (byteStreamLength > 0) {
+					irodsConnection.send(bytes, byteOffset, byteStreamLength);
+				}
 
-			irodsConnection.flush();
-			return readMessage();
+				irodsConnection.flush();
+				return readMessage();
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			log.error("io exception sending irods command", e);
-			disconnectWithForce();
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("io exception sending irods command", e);
+				disconnectWithForce();
 
-			throw new JargonException(e);
+				throw new JargonException(e);
+			}
+		} finally {
+			ioLock.unlock();
 		}
-
 	}
 
 	/**
@@ -824,29 +936,33 @@ public class IRODSMidLevelProtocol {
 	 * @return {@code int} with the number of bytes read
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized int read(final byte[] value, final int offset, final int length) throws JargonException {
-
-		if (value == null || value.length == 0) {
-			throw new JargonException("null or empty value");
-		}
+	public int read(final byte[] value, final int offset, final int length) throws JargonException {
+		ioLock.lock();
+		try {
+			if (value == null || value.length == 0) {
+				throw new JargonException("null or empty value");
+			}
 
-		if (offset < 0 || offset > value.length) {
-			throw new JargonException("offset out of range");
-		}
+			if (offset < 0 || offset > value.length) {
+				throw new JargonException("offset out of range");
+			}
 
-		if (length <= 0 || length > value.length) {
-			throw new JargonException("length out of range");
-		}
+			if (length <= 0 || length > value.length) {
+				throw new JargonException("length out of range");
+			}
 
-		try {
-			return irodsConnection.read(value, offset, length);
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			log.error("io exception sending irods command", e);
-			disconnectWithForce();
-			throw new JargonException(e);
+			try {
+				return irodsConnection.read(value, offset, length);
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("io exception sending irods command", e);
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+		} finally {
+			ioLock.unlock();
 		}
 	}
 
@@ -861,9 +977,13 @@ public class IRODSMidLevelProtocol {
 	 * @param length      {@code long} length of data to be read and written out.
 	 * @throws JargonException indicating iRODS error
 	 */
-	public synchronized void read(final OutputStream destination, final long length) throws JargonException {
-
-		read(destination, length, null);
+	public void read(final OutputStream destination, final long length) throws JargonException {
+		ioLock.lock();
+		try {
+			read(destination, length, null);
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -884,26 +1004,30 @@ public class IRODSMidLevelProtocol {
 	 *                                peformance penalty.
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized void read(final OutputStream destination, final long length,
+	public void read(final OutputStream destination, final long length,
 			final ConnectionProgressStatusListener intraFileStatusListener) throws JargonException {
+		ioLock.lock();
+		try {
+			if (length <= 0) {
+				throw new JargonException("length out of range");
+			}
 
-		if (length <= 0) {
-			throw new JargonException("length out of range");
-		}
-
-		if (destination == null) {
-			throw new JargonException("destination is null");
-		}
+			if (destination == null) {
+				throw new JargonException("destination is null");
+			}
 
-		try {
-			irodsConnection.read(destination, length, intraFileStatusListener);
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
-		} catch (IOException e) {
-			log.error("io exception sending irods command", e);
-			disconnectWithForce();
-			throw new JargonException(e);
+			try {
+				irodsConnection.read(destination, length, intraFileStatusListener);
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("io exception sending irods command", e);
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+		} finally {
+			ioLock.unlock();
 		}
 	}
 
@@ -916,15 +1040,20 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag} with the result of the call
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized Tag irodsFunction(final IRodsPI irodsPI) throws JargonException {
+	public Tag irodsFunction(final IRodsPI irodsPI) throws JargonException {
+		ioLock.lock();
+		try {
+			if (irodsPI == null) {
+				String err = "null irodsPI";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
 
-		if (irodsPI == null) {
-			String err = "null irodsPI";
-			log.error(err);
-			throw new IllegalArgumentException(err);
+			serializeMessage(irodsPI);
+			return irodsFunctionWithSerializedMessage(IRODSConstants.RODS_API_REQ, irodsPI.getApiNumber());
+		} finally {
+			ioLock.unlock();
 		}
-
-		return irodsFunction(IRODSConstants.RODS_API_REQ, irodsPI.getParsedTags(), irodsPI.getApiNumber());
 	}
 
 	/**
@@ -936,41 +1065,45 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag} with the result of the call
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized PluggableApiCallResult irodsFunctionWithPluggableResult(final IRodsPI irodsPI)
+	public PluggableApiCallResult irodsFunctionWithPluggableResult(final IRodsPI irodsPI)
 			throws JargonException {
+		ioLock.lock();
+		try {
+			// BytesBuf_T
+			// see
+			// https://github.com/irods/irods/blob/master/unit_tests/src/test_get_file_descriptor_info.cpp#L47
+			// https://github.com/irods/irods/blob/master/plugins/api/src/get_file_descriptor_info.cpp#L358-L383
+			log.info("irodsFunctionWithPluggableResult()");
+
+			if (irodsPI == null) {
+				String err = "null irodsPI";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
 
-		// BytesBuf_T
-		// see
-		// https://github.com/irods/irods/blob/master/unit_tests/src/test_get_file_descriptor_info.cpp#L47
-		// https://github.com/irods/irods/blob/master/plugins/api/src/get_file_descriptor_info.cpp#L358-L383
-		log.info("irodsFunctionWithPluggableResult()");
-
-		if (irodsPI == null) {
-			String err = "null irodsPI";
-			log.error(err);
-			throw new IllegalArgumentException(err);
-		}
-
-		String out = irodsPI.getParsedTags();
+			int messageLength = serializeMessage(irodsPI);
 
-		if (out == null || out.length() == 0) {
-			String err = "null or missing message returned from parse";
-			log.error(err);
-			throw new IllegalArgumentException(err);
-		}
+			if (messageLength == 0) {
+				String err = "null or missing message returned from parse";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
 
-		if (log.isDebugEnabled()) {
-			log.debug(out);
-		}
+			if (log.isDebugEnabled()) {
+				log.debug("{}", tagWriter);
+			}
 
-		try {
-			sendHeader(IRODSConstants.RODS_API_REQ, out.getBytes(getEncoding()).length, 0, 0, irodsPI.getApiNumber());
-			irodsConnection.send(out);
-			irodsConnection.flush();
-		} catch (IOException e) {
-			log.error("");
+			try {
+				sendHeader(IRODSConstants.RODS_API_REQ, messageLength, 0, 0, irodsPI.getApiNumber());
+				irodsConnection.send(tagWriter.getBuffer(), 0, messageLength);
+				irodsConnection.flush();
+			} catch (IOException e) {
+				log.error("");
+			}
+			return readPluggableApiMessage();
+		} finally {
+			ioLock.unlock();
 		}
-		return readPluggableApiMessage();
 	}
 
 	/**
@@ -985,15 +1118,99 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag} with the result of the call
 	 * @throws JargonException for an iRODS error
 	 */
-	public synchronized Tag irodsFunctionForNegotiation(final IRodsPI irodsPI) throws JargonException {
+	public Tag irodsFunctionForNegotiation(final IRodsPI irodsPI) throws JargonException {
+		ioLock.lock();
+		try {
+			if (irodsPI == null) {
+				String err = "null irodsPI";
+				log.error(err);
+				throw new IllegalArgumentException(err);
+			}
+
+			serializeMessage(irodsPI);
+			return irodsFunctionWithSerializedMessage(IRODSConstants.RODS_NEG_REQ, irodsPI.getApiNumber());
+		} finally {
+			ioLock.unlock();
+		}
+	}
+
+	/**
+	 * Send the message currently held in the {@link TagWriter} buffer, with no
+	 * error or binary data, and read the response. This mirrors
+	 * {@link #irodsFunction(String, String, int)} without the intermediate
+	 * {@code String}.
+	 *
+	 * @param type    {@code String} with the type of request
+	 * @param intInfo {@code int} with the iRODS API number
+	 * @return {@link Tag} with the iRODS protocol response
+	 * @throws JargonException for iRODS error
+	 */
+	private Tag irodsFunctionWithSerializedMessage(final String type, final int intInfo) throws JargonException {
 
-		if (irodsPI == null) {
-			String err = "null irodsPI";
-			log.error(err);
-			throw new IllegalArgumentException(err);
+		TagWriter writer = getTagWriter();
+		int messageLength = writer.size();
+
+		if (intInfo != 1201) {
+			log.debug("calling irods function with:{}", writer);
 		}
 
-		return irodsFunction(IRODSConstants.RODS_NEG_REQ, irodsPI.getParsedTags(), irodsPI.getApiNumber());
+		log.debug("api number is:{}", intInfo);
+
+		try {
+			sendHeader(type, messageLength, 0, 0, intInfo);
+
+			if (getStartupResponseData() == null) {
+				log.debug("no ssl flush checking during negotiation");
+			} else if (isPamFlush()) {
+				log.debug("doing extra pam flush for iRODS 3.2");
+				getIrodsConnection().flush();
+			}
+
+			if (messageLength > 0) {
+				getIrodsConnection().send(writer.getBuffer(), 0, messageLength);
+			}
+
+			getIrodsConnection().flush();
+
+		} catch (IOException e) {
+			disconnectWithForce();
+			throw new JargonException(e);
+		}
+
+		return readMessage();
+	}
+
+	/**
+	 * Serialize the packing instruction into the reusable {@link TagWriter} buffer
+	 *
+	 * @param irodsPI {@link IRodsPI} to serialize
+	 * @return {@code int} with the length of the message in bytes, which will be
+	 *         zero if the packing instruction has no message body
+	 * @throws JargonException for error creating the message
+	 */
+	private int serializeMessage(final IRodsPI irodsPI) throws JargonException {
+		TagWriter writer = getTagWriter();
+		writer.reset();
+
+		if (irodsPI instanceof AbstractIRODSPackingInstruction) {
+			((AbstractIRODSPackingInstruction) irodsPI).writeParsedTags(writer);
+		} else {
+			writer.writeString(irodsPI.getParsedTags());
+		}
+
+		return writer.size();
+	}
+
+	private TagWriter getTagWriter() throws JargonException {
+		if (tagWriter == null) {
+			try {
+				tagWriter = new TagWriter(getEncoding());
+			} catch (UnsupportedEncodingException e) {
+				log.error("Unsupported encoding for:{}", getEncoding());
+				throw new JargonException("Unsupported encoding for:" + getEncoding());
+			}
+		}
+		return tagWriter;
 	}
 
 	/**
@@ -1074,8 +1291,13 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag} with the iRODS protocol response
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized Tag readMessage() throws JargonException {
-		return readMessage(true);
+	public Tag readMessage() throws JargonException {
+		ioLock.lock();
+		try {
+			return readMessage(true);
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -1088,66 +1310,123 @@ public class IRODSMidLevelProtocol {
 	 * @return {@link Tag} with the iRODS protocol response
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized Tag readMessage(final boolean decode) throws JargonException {
-		log.debug("reading message from irods");
-		Tag header = readHeader();
-		Tag message = null;
-
-		int messageLength = header.getTags()[1].getIntValue();
-		int errorLength = header.getTags()[2].getIntValue();
-		int bytesLength = header.getTags()[3].getIntValue();
-		int info = header.getTags()[4].getIntValue();
-
-		if (log.isDebugEnabled()) {
-			log.debug("message length:{}", messageLength);
-			log.debug("error length:{}", errorLength);
-			log.debug("bytesLength:{}", bytesLength);
-			log.debug("info value:{}", info);
-		}
-
-		// Reports iRODS errors, throw exception if appropriate
-		if (info < 0) {
-			processMessageInfoLessThanZero(messageLength, errorLength, info);
-			log.debug("returning null, no results");
-			// query with no results
-			return null;
-		}
+	public Tag readMessage(final boolean decode) throws JargonException {
+		ioLock.lock();
+		try {
+			log.debug("reading message from irods");
+			Tag header = readHeader();
+			Tag message = null;
 
-		if (messageLength > 0) {
-			log.debug("message length greater than zero");
-			message = readMessageBody(messageLength, decode);
+			int messageLength = header.getTags()[1].getIntValue();
+			int errorLength = header.getTags()[2].getIntValue();
+			int bytesLength = header.getTags()[3].getIntValue();
+			int info = header.getTags()[4].getIntValue();
 
-			// squelch genqueryout data for nicer logs
 			if (log.isDebugEnabled()) {
-				String messageAsString = message.parseTag();
-				int idx = messageAsString.indexOf("GenQueryOut");
-				if (idx == -1 || ConnectionConstants.DUMP_GEN_QUERY_OUT) {
-					log.debug("message from IRODS read back:{}", messageAsString);
+				log.debug("message length:{}", messageLength);
+				log.debug("error length:{}", errorLength);
+				log.debug("bytesLength:{}", bytesLength);
+				log.debug("info value:{}", info);
+			}
+
+			// Reports iRODS errors, throw exception if appropriate
+			if (info < 0) {
+				processMessageInfoLessThanZero(messageLength, errorLength, info);
+				log.debug("returning null, no results");
+				// query with no results
+				return null;
+			}
+
+			if (messageLength > 0) {
+				log.debug("message length greater than zero");
+				message = readMessageBody(messageLength, decode);
+
+				// squelch genqueryout data for nicer logs
+				if (log.isDebugEnabled()) {
+					String messageAsString = message.parseTag();
+					int idx = messageAsString.indexOf("GenQueryOut");
+					if (idx == -1 || ConnectionConstants.DUMP_GEN_QUERY_OUT) {
+						log.debug("message from IRODS read back:{}", messageAsString);
+					}
 				}
 			}
-		}
-		// previous will have returned or thrown exception
+			// previous will have returned or thrown exception
 
-		if (errorLength != 0) {
-			return processMessageErrorNotEqualZero(errorLength);
-		}
+			if (errorLength != 0) {
+				return processMessageErrorNotEqualZero(errorLength);
+			}
+
+			if (bytesLength != 0 || info > 0) {
+				log.debug("bytes length is not zero");
+				if (message == null) {
+					message = new Tag(IRodsPI.MSG_HEADER_PI_TAG);
+				}
 
-		if (bytesLength != 0 || info > 0) {
-			log.debug("bytes length is not zero");
-			if (message == null) {
-				message = new Tag(IRodsPI.MSG_HEADER_PI_TAG);
+				message.addTag(header);
 			}
 
-			message.addTag(header);
+			return message;
+		} finally {
+			ioLock.unlock();
 		}
-
-		return message;
 	}
 
-	public synchronized boolean isConnected() {
+	public boolean isConnected() {
 		return irodsConnection.isConnected();
 	}
 
+	/**
+	 * Note that state has been created in the iRODS agent (such as an open file
+	 * descriptor or an open query) that later calls will refer to, so that this
+	 * connection stays with the caller until {@link #releaseAgentState()} is
+	 * called.
+	 */
+	public void holdAgentState() {
+		agentStateHolds.incrementAndGet();
+	}
+
+	/**
+	 * Note that state previously noted with {@link #holdAgentState()} has been
+	 * released in the iRODS agent. Extra calls are ignored.
+	 */
+	public void releaseAgentState() {
+		int holds;
+		do {
+			holds = agentStateHolds.get();
+			if (holds == 0) {
+				log.debug("release of agent state with no holds, ignored");
+				return;
+			}
+		} while (!agentStateHolds.compareAndSet(holds, holds - 1));
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if the iRODS agent holds state, such
+	 *         as open files or queries, for this connection
+	 */
+	public boolean isHoldingAgentState() {
+		return agentStateHolds.get() > 0;
+	}
+
+	/**
+	 * Take the lock that guards the exchange of messages with the agent, for an
+	 * exchange made of more than one call, such as a request whose response is
+	 * followed by a byte stream that is collected with
+	 * {@link #read(byte[], int, int)}. The calls made in between lock again, which
+	 * is allowed. Must be paired with {@link #unlockExchange()} in a
+	 * {@code finally} block.
+	 */
+	public void lockExchange() {
+		ioLock.lock();
+	}
+
+	/**
+	 * Release the lock taken with {@link #lockExchange()}
+	 */
+	public void unlockExchange() {
+		ioLock.unlock();
+	}
+
 	/**
 	 * <b>If you are a client, you should not call this!</b> Shutdown hook used by
 	 * the {@link IRODSProtocolManager} to cause the actual connection to be
@@ -1162,42 +1441,46 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized void shutdown() throws JargonException {
-		log.debug("shutting down, need to send disconnect to irods");
-		if (isConnected()) {
-
-			preDisconnectAction();
-
-			log.debug("sending disconnect message");
-			try {
-				sendHeader(RequestTypes.RODS_DISCONNECT.getRequestType(), 0, 0, 0, 0);
-				irodsConnection.flush();
-				log.debug("finally, shutdown is being called on the given connection");
-				irodsConnection.shutdown();
-				if (getIrodsConnectionNonEncryptedRef() != null) {
-					getIrodsConnectionNonEncryptedRef().shutdown();
+	public void shutdown() throws JargonException {
+		ioLock.lock();
+		try {
+			log.debug("shutting down, need to send disconnect to irods");
+			if (isConnected()) {
+
+				preDisconnectAction();
+
+				log.debug("sending disconnect message");
+				try {
+					sendHeader(RequestTypes.RODS_DISCONNECT.getRequestType(), 0, 0, 0, 0);
+					irodsConnection.flush();
+					log.debug("finally, shutdown is being called on the given connection");
+					irodsConnection.shutdown();
+					if (getIrodsConnectionNonEncryptedRef() != null) {
+						getIrodsConnectionNonEncryptedRef().shutdown();
+					}
+				} catch (ClosedChannelException e) {
+					log.error("closed channel", e);
+					disconnectWithForce();
+
+					throw new JargonException(e);
+				} catch (InterruptedIOException e) {
+					log.error("interrupted io", e);
+					disconnectWithForce();
+
+					throw new JargonException(e);
+				} catch (IOException e) {
+					log.error("io exception", e);
+					disconnectWithForce();
+					throw new JargonException(e);
 				}
-			} catch (ClosedChannelException e) {
-				log.error("closed channel", e);
-				disconnectWithForce();
-
-				throw new JargonException(e);
-			} catch (InterruptedIOException e) {
-				log.error("interrupted io", e);
-				disconnectWithForce();
 
-				throw new JargonException(e);
-			} catch (IOException e) {
-				log.error("io exception", e);
-				disconnectWithForce();
-				throw new JargonException(e);
+			} else {
+				log.warn(
+						"disconnect called, but isConnected() is false, this is an unexpected condition that is logged and ignored");
 			}
-
-		} else {
-			log.warn(
-					"disconnect called, but isConnected() is false, this is an unexpected condition that is logged and ignored");
+		} finally {
+			ioLock.unlock();
 		}
-
 	}
 
 	/**
@@ -1211,10 +1494,14 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized void disconnect() throws JargonException {
-		log.debug("closing connection");
-		getIrodsSession().closeSession(getIrodsAccount());
-
+	public void disconnect() throws JargonException {
+		ioLock.lock();
+		try {
+			log.debug("closing connection");
+			getIrodsSession().closeSession(getIrodsAccount());
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -1229,16 +1516,20 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized void disconnectWithForce() throws JargonException {
-		if (getIrodsAccount() != null) {
-			getIrodsSession().discardSessionForErrors(getIrodsAccount());
-		}
+	public void disconnectWithForce() throws JargonException {
+		ioLock.lock();
+		try {
+			if (getIrodsAccount() != null) {
+				getIrodsSession().discardSessionForErrors(getIrodsAccount());
+			}
 
-		if (getIrodsConnection().isConnected()) {
-			log.warn("partial connection, not authenticated, forcefully shut down the socket");
-			getIrodsConnection().obliterateConnectionAndDiscardErrors();
+			if (getIrodsConnection().isConnected()) {
+				log.warn("partial connection, not authenticated, forcefully shut down the socket");
+				getIrodsConnection().obliterateConnectionAndDiscardErrors();
+			}
+		} finally {
+			ioLock.unlock();
 		}
-
 	}
 
 	/**
@@ -1246,7 +1537,7 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @return {@link IRODSServerProperties}
 	 */
-	public synchronized IRODSServerProperties getIRODSServerProperties() {
+	public IRODSServerProperties getIRODSServerProperties() {
 		return irodsServerProperties;
 	}
 
@@ -1255,7 +1546,7 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @return {@link IRODSAccount}
 	 */
-	public synchronized IRODSAccount getIrodsAccount() {
+	public IRODSAccount getIrodsAccount() {
 		return irodsAccount;
 	}
 
@@ -1266,10 +1557,18 @@ public class IRODSMidLevelProtocol {
 	 * @param status {@code int} with the status code to send
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized void operationComplete(final int status) throws JargonException {
-		Tag message = new Tag(AbstractIRODSPackingInstruction.INT_PI,
-				new Tag[] { new Tag(AbstractIRODSPackingInstruction.MY_INT, status), });
-		irodsFunction(IRODSConstants.RODS_API_REQ, message.parseTag(), IRODSConstants.OPR_COMPLETE_AN);
+	public void operationComplete(final int status) throws JargonException {
+		ioLock.lock();
+		try {
+			Tag message = new Tag(AbstractIRODSPackingInstruction.INT_PI,
+					new Tag[] { new Tag(AbstractIRODSPackingInstruction.MY_INT, status), });
+			TagWriter writer = getTagWriter();
+			writer.reset();
+			writer.write(message);
+			irodsFunctionWithSerializedMessage(IRODSConstants.RODS_API_REQ, IRODSConstants.OPR_COMPLETE_AN);
+		} finally {
+			ioLock.unlock();
+		}
 	}
 
 	/**
@@ -1279,12 +1578,17 @@ public class IRODSMidLevelProtocol {
 	 * @param value {@code int} with
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized void sendInNetworkOrder(final int value) throws JargonException {
+	public void sendInNetworkOrder(final int value) throws JargonException {
+		ioLock.lock();
 		try {
-			irodsConnection.sendInNetworkOrder(value);
-		} catch (IOException e) {
-			disconnectWithForce();
-			throw new JargonException(e);
+			try {
+				irodsConnection.sendInNetworkOrder(value);
+			} catch (IOException e) {
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+		} finally {
+			ioLock.unlock();
 		}
 	}
 
@@ -1296,13 +1600,18 @@ public class IRODSMidLevelProtocol {
 	 * @param value {@code int} with
 	 * @throws JargonException on iRODS error
 	 */
-	public synchronized void sendInNetworkOrderWithFlush(final int value) throws JargonException {
+	public void sendInNetworkOrderWithFlush(final int value) throws JargonException {
+		ioLock.lock();
 		try {
-			// irodsConnection.flush();
-			irodsConnection.sendInNetworkOrder(value, true);
-		} catch (IOException e) {
-			disconnectWithForce();
-			throw new JargonException(e);
+			try {
+				// irodsConnection.flush();
+				irodsConnection.sendInNetworkOrder(value, true);
+			} catch (IOException e) {
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+		} finally {
+			ioLock.unlock();
 		}
 	}
 
@@ -1311,7 +1620,7 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @return {@link IRODSSession}
 	 */
-	public synchronized IRODSSession getIrodsSession() {
+	public IRODSSession getIrodsSession() {
 		return irodsSession;
 	}
 
@@ -1320,7 +1629,7 @@ public class IRODSMidLevelProtocol {
 	 *
 	 * @param irodsSession {@link IRODSSession} to set
 	 */
-	public synchronized void setIrodsSession(final IRODSSession irodsSession) {
+	public void setIrodsSession(final IRODSSession irodsSession) {
 		if (irodsSession == null) {
 			throw new IllegalArgumentException("null irodsSession");
 		}
@@ -1331,7 +1640,7 @@ public class IRODSMidLevelProtocol {
 	/**
 	 * @return {@link IRODSProtocolManager} set in this protocol
 	 */
-	public synchronized IRODSProtocolManager getIrodsProtocolManager() {
+	public IRODSProtocolManager getIrodsProtocolManager() {
 		return irodsProtocolManager;
 	}
 
@@ -1348,48 +1657,51 @@ public class IRODSMidLevelProtocol {
 	 * @param reply {@code Tag} containing status messages from IRODS
 	 * @throws JargonException for iRODS error
 	 */
-	public synchronized void processClientStatusMessages(final Tag reply) throws JargonException {
-
-		boolean done = false;
-		Tag ackResult = reply;
-
-		while (!done) {
-			if (ackResult.getLength() > 0) {
-				if (ackResult.getName().equals(IRODSConstants.CollOprStat_PI)) {
-					// formulate an answer status reply
-
-					// if the total file count is 0, then I will continue and
-					// send
-					// the coll stat reply, otherwise, just ignore and
-					// don't send the reply.
-
-					Tag fileCountTag = ackResult.getTag("filesCnt");
-					int fileCount = Integer.parseInt((String) fileCountTag.getValue());
-
-					if (fileCount < IRODSConstants.SYS_CLI_TO_SVR_COLL_STAT_SIZE) {
-						done = true;
-					} else {
-						sendInNetworkOrder(IRODSConstants.SYS_CLI_TO_SVR_COLL_STAT_REPLY);
-						ackResult = readMessage();
+	public void processClientStatusMessages(final Tag reply) throws JargonException {
+		ioLock.lock();
+		try {
+			boolean done = false;
+			Tag ackResult = reply;
+
+			while (!done) {
+				if (ackResult.getLength() > 0) {
+					if (ackResult.getName().equals(IRODSConstants.CollOprStat_PI)) {
+						// formulate an answer status reply
+
+						// if the total file count is 0, then I will continue and
+						// send
+						// the coll stat reply, otherwise, just ignore and
+						// don't send the reply.
+
+						Tag fileCountTag = ackResult.getTag("filesCnt");
+						int fileCount = Integer.parseInt((String) fileCountTag.getValue());
+
+						if (fileCount < IRODSConstants.SYS_CLI_TO_SVR_COLL_STAT_SIZE) {
+							done = true;
+						} else {
+							sendInNetworkOrder(IRODSConstants.SYS_CLI_TO_SVR_COLL_STAT_REPLY);
+							ackResult = readMessage();
+						}
 					}
 				}
 			}
+		} finally {
+			ioLock.unlock();
 		}
-
 	}
 
 	/**
 	 * @return {@link AuthResponse} associated with the authentication of this
 	 *         connection
 	 */
-	public synchronized AuthResponse getAuthResponse() {
+	public AuthResponse getAuthResponse() {
 		return authResponse;
 	}
 
 	/**
 	 * @return {@link IRODSServerProperties} associated with this connection
 	 */
-	synchronized IRODSServerProperties getIrodsServerProperties() {
+	IRODSServerProperties getIrodsServerProperties() {
 		return irodsServerProperties;
 	}
 
@@ -1398,7 +1710,7 @@ public class IRODSMidLevelProtocol {
 	 *                              connection
 	 *
 	 */
-	synchronized void setIrodsServerProperties(final IRODSServerProperties irodsServerProperties) {
+	void setIrodsServerProperties(final IRODSServerProperties irodsServerProperties) {
 		this.irodsServerProperties = irodsServerProperties;
 	}
 
@@ -1406,7 +1718,7 @@ public class IRODSMidLevelProtocol {
 	 * @param irodsAccount {@link IRODSAccount}
 	 *
 	 */
-	synchronized void setIrodsAccount(final IRODSAccount irodsAccount) {
+	void setIrodsAccount(final IRODSAccount irodsAccount) {
 		this.irodsAccount = irodsAccount;
 	}
 
@@ -1415,7 +1727,7 @@ public class IRODSMidLevelProtocol {
 	 *                     connection
 	 *
 	 */
-	protected synchronized void setAuthResponse(final AuthResponse authResponse) {
+	protected void setAuthResponse(final AuthResponse authResponse) {
 		this.authResponse = authResponse;
 	}
 
@@ -1458,7 +1770,7 @@ public class IRODSMidLevelProtocol {
 		}
 
 		try {
-			return Tag.readNextTag(header, getEncoding());
+			return TagPullParser.parse(header, getEncoding());
 		} catch (UnsupportedEncodingException e) {
 			log.error("Unsupported encoding for:{}", getEncoding());
 			throw new JargonException("Unsupported encoding for:" + getEncoding());
@@ -1502,7 +1814,7 @@ public class IRODSMidLevelProtocol {
 			throw new JargonException(e);
 		}
 		try {
-			return Tag.readNextTag(body, decode, getEncoding());
+			return TagPullParser.parse(body, decode, getEncoding());
 		} catch (UnsupportedEncodingException e) {
 			log.error("Unsupported encoding for:{}", getEncoding());
 			throw new JargonException("Unsupported encoding for:" + getEncoding());
@@ -1529,7 +1841,7 @@ public class IRODSMidLevelProtocol {
 		}
 		Tag errorTag;
 		try {
-			errorTag = Tag.readNextTag(errorMessage, getEncoding());
+			errorTag = TagPullParser.parse(errorMessage, getEncoding());
 		} catch (UnsupportedEncodingException e) {
 			log.error("Unsupported encoding for:{}", getEncoding());
 			throw new JargonException("Unsupported encoding for:" + getEncoding());
@@ -1567,7 +1879,7 @@ public class IRODSMidLevelProtocol {
 	 * @see org.irods.jargon.core.connection.IRODSManagedConnection#
 	 * obliterateConnectionAndDiscardErrors()
 	 */
-	public synchronized void obliterateConnectionAndDiscardErrors() {
+	public void obliterateConnectionAndDiscardErrors() {
 		log.warn("obliterateConnectionAndDiscardErrors() will forcefully close the connection");
 		irodsConnection.obliterateConnectionAndDiscardErrors();
 	}
@@ -1575,14 +1887,11 @@ public class IRODSMidLevelProtocol {
 	void processMessageInfoLessThanZero(final int messageLength, final int errorLength, final int info)
 			throws JargonException {
 		log.debug("info is < 0");
-		byte[] messageByte = new byte[messageLength];
 		// if nothing else, read the returned bytes and throw them away
 		if (messageLength > 0) {
 			log.debug("throwing away bytes");
 			try {
 				irodsConnection.read(new byte[messageLength], 0, messageLength);
-				Tag.readNextTag(messageByte, getEncoding());
-
 			} catch (ClosedChannelException e) {
 				log.error("closed channel", e);
 				throw new JargonException(e);
@@ -1630,7 +1939,7 @@ public class IRODSMidLevelProtocol {
 			Tag errorTag;
 
 			try {
-				errorTag = Tag.readNextTag(errorMessage, getEncoding());
+				errorTag = TagPullParser.parse(errorMessage, getEncoding());
 
 				if (errorTag != null) {
 					log.error("IRODS error occured " + errorTag.getTag(RErrMsg.PI_TAG).getTag(IRodsPI.MESSAGE_TAG)
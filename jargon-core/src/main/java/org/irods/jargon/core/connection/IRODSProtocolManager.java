@@ -158,6 +158,20 @@ public abstract class IRODSProtocolManager {
 		}
 	}
 
+	/**
+	 * Indicates whether the {@link IRODSSession} should return connections to this
+	 * manager at the end of each access object call, rather than keeping them in
+	 * the per-thread cache until the session is closed. This is {@code false} by
+	 * default, and is {@code true} for managers that share connections across
+	 * threads, such as {@link PooledIRODSProtocolManager}.
+	 *
+	 * @return {@code boolean} of {@code true} if connections are leased per
+	 *         operation
+	 */
+	public boolean isReleaseAfterOperation() {
+		return false;
+	}
+
 	/**
 	 * Optional method for any cleanup when shutting down the operation of the
 	 * protocol manager. This is useful if the protocol manager is acting as a pool
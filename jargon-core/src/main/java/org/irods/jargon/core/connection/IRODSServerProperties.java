@@ -147,6 +147,21 @@ public class IRODSServerProperties {
 		return supports;
 	}
 
+	/**
+	 * Indicates whether the iRODS server provides the atomic metadata operations
+	 * API plugin
+	 *
+	 * @return {@code boolean} if atomic metadata operations are supported
+	 */
+	public boolean isSupportsAtomicMetadataOperations() {
+		boolean supports = false;
+
+		if (isTheIrodsServerAtLeastAtTheGivenReleaseVersion("rods4.2.8")) {
+			supports = true;
+		}
+		return supports;
+	}
+
 	/**
 	 * Does the server (based on version) support tickets?
 	 *
@@ -3,8 +3,10 @@
  */
 package org.irods.jargon.core.connection;
 
+import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
@@ -39,6 +41,8 @@ import org.irods.jargon.core.query.RodsGenQueryEnum;
 import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.FileBasedTransferRestartManager;
+import org.irods.jargon.core.transfer.FileRestartManagementException;
 import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManager;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.utils.MiscIRODSUtils;
@@ -114,6 +118,18 @@ public class IRODSSession {
 	 */
 	public static final ThreadLocal<Map<String, IRODSMidLevelProtocol>> sessionMap = new ThreadLocal<Map<String, IRODSMidLevelProtocol>>();
 
+	/**
+	 * Depth of nested access object calls on this thread, so that connections
+	 * leased per operation are returned when the outermost call completes. See
+	 * {@link #beginOperation()}.
+	 */
+	private static final ThreadLocal<int[]> operationDepth = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
 	/**
 	 * The parallel transfer thread pool is lazily initialized on the first parallel
 	 * transfer operation. This will use the {@code JargonProperties} configured in
@@ -192,6 +208,12 @@ public class IRODSSession {
 	 */
 	private final DiscoveredServerPropertiesCache discoveredServerPropertiesCache = new DiscoveredServerPropertiesCache();
 
+	/**
+	 * Cache of stats and collection listings, created when first asked for if
+	 * the jargon properties turn it on, and dropped when the properties are set
+	 */
+	private MetadataCache metadataCache = null;
+
 	/**
 	 * Get the {@code JargonProperties} that contains metadata to tune the behavior
 	 * of Jargon. This will either be the default, loaded from the
@@ -252,6 +274,10 @@ public class IRODSSession {
 		TransferOptions transferOptions = new TransferOptions();
 		synchronized (this) {
 			transferOptions.setMaxThreads(jargonProperties.getMaxParallelThreads());
+			transferOptions.setRecursiveTransferThreads(jargonProperties.getRecursiveTransferThreads());
+			transferOptions.setSmallFileAggregationThreshold(jargonProperties.getSmallFileAggregationThreshold());
+			transferOptions.setSmallFileAggregationBundleSize(jargonProperties.getSmallFileAggregationBundleSize());
+			transferOptions.setAdaptiveParallelThreads(jargonProperties.isAdaptiveParallelThreads());
 			transferOptions.setUseParallelTransfer(jargonProperties.isUseParallelTransfer());
 			transferOptions.setAllowPutGetResourceRedirects(jargonProperties.isAllowPutGetResourceRedirects());
 			transferOptions.setComputeAndVerifyChecksumAfterTransfer(
@@ -319,7 +345,7 @@ public class IRODSSession {
 				// in-memory implementation. If the dev futzes with this, they
 				// have to make sure
 				// a restart manager is available.
-				restartManager = new MemoryBasedTransferRestartManager();
+				restartManager = buildDefaultRestartManager();
 			}
 
 		} catch (Exception e) {
@@ -654,6 +680,64 @@ public class IRODSSession {
 
 	}
 
+	/**
+	 * Signal the start of an access object call on this thread. Calls may nest,
+	 * and must be matched by a call to {@link #endOperation()} in a
+	 * {@code finally} block.
+	 * <p>
+	 * This is done by the {@code IRODSAccessObjectFactory} for the access objects
+	 * it creates when the {@link IRODSProtocolManager} leases connections per
+	 * operation, and is not typically called by clients of the API.
+	 */
+	public void beginOperation() {
+		operationDepth.get()[0]++;
+	}
+
+	/**
+	 * Signal the end of an access object call on this thread. When the outermost
+	 * call ends, connections that came from an {@link IRODSProtocolManager} that
+	 * leases per operation are returned to it, unless they hold state in the
+	 * iRODS agent, such as an open file, that a later call will need. Connections
+	 * from other protocol managers stay in the per-thread cache as before.
+	 * <p>
+	 * Errors returning a connection are logged and the connection is discarded.
+	 */
+	public void endOperation() {
+		int[] depth = operationDepth.get();
+		if (depth[0] > 1) {
+			depth[0]--;
+			return;
+		}
+		operationDepth.remove();
+
+		final Map<String, IRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+		if (irodsProtocols == null) {
+			return;
+		}
+
+		Iterator<IRODSMidLevelProtocol> connections = irodsProtocols.values().iterator();
+		while (connections.hasNext()) {
+			IRODSMidLevelProtocol irodsMidLevelProtocol = connections.next();
+			IRODSProtocolManager protocolManager = irodsMidLevelProtocol.getIrodsProtocolManager();
+			if (!protocolManager.isReleaseAfterOperation() || irodsMidLevelProtocol.isHoldingAgentState()) {
+				continue;
+			}
+
+			log.debug("operation complete, returning connection:{}", irodsMidLevelProtocol);
+			connections.remove();
+			try {
+				protocolManager.returnIRODSProtocol(irodsMidLevelProtocol);
+			} catch (JargonException e) {
+				log.warn("error returning connection at end of operation, will discard", e);
+				protocolManager.returnWithForce(irodsMidLevelProtocol);
+			}
+		}
+
+		if (irodsProtocols.isEmpty()) {
+			sessionMap.set(null);
+		}
+	}
+
 	/**
 	 * This method is not particularly useful, but does provide a route to get a
 	 * direct handle on the connections for this Thread in cases where such status
@@ -738,6 +822,7 @@ public class IRODSSession {
 	public void setJargonProperties(final JargonProperties jargonProperties) {
 		synchronized (this) {
 			this.jargonProperties = jargonProperties;
+			metadataCache = null;
 		}
 	}
 
@@ -759,6 +844,25 @@ public class IRODSSession {
 		return discoveredServerPropertiesCache;
 	}
 
+	/**
+	 * Get the cache of {@code ObjStat}s and collection listings shared by the
+	 * access objects of this session, sized by the
+	 * {@code jargon.metadata.cache.max.entries} and
+	 * {@code jargon.metadata.cache.ttl.millis} jargon properties.
+	 *
+	 * @return {@link MetadataCache}, or {@code null} if the cache is turned off
+	 */
+	public MetadataCache getMetadataCache() {
+		synchronized (this) {
+			if (metadataCache == null && jargonProperties.getMetadataCacheMaxEntries() > 0) {
+				log.info("creating metadata cache");
+				metadataCache = new MetadataCache(jargonProperties.getMetadataCacheMaxEntries(),
+						jargonProperties.getMetadataCacheTtlMillis());
+			}
+			return metadataCache;
+		}
+	}
+
 	/**
 	 * Handy method to see if we're using the dynamic server properties cache. This
 	 * is set in the jargon properties.
@@ -784,14 +888,37 @@ public class IRODSSession {
 
 		if (restartManager == null) {
 			if (jargonProperties.isLongTransferRestart()) {
-				log.warn("no restart manager provided, long file restart is on, create default memory based manager");
-				restartManager = new MemoryBasedTransferRestartManager();
+				log.warn("no restart manager provided, long file restart is on, create default manager");
+				try {
+					restartManager = buildDefaultRestartManager();
+				} catch (FileRestartManagementException e) {
+					throw new JargonRuntimeException("unable to create restart manager", e);
+				}
 			}
 		}
 
 		return restartManager;
 	}
 
+	/**
+	 * Build the restart manager used when long file restart is on and none was
+	 * provided, journaled to a local file if the jargon properties give a restart
+	 * journal, otherwise in memory
+	 */
+	private AbstractRestartManager buildDefaultRestartManager() throws FileRestartManagementException {
+		AbstractRestartManager defaultRestartManager;
+		String journal = jargonProperties.getLongTransferRestartJournal();
+		if (journal == null || journal.trim().isEmpty()) {
+			defaultRestartManager = new MemoryBasedTransferRestartManager();
+		} else {
+			log.info("long file restart journal:{}", journal);
+			defaultRestartManager = new FileBasedTransferRestartManager(new File(journal.trim()));
+		}
+		defaultRestartManager
+				.setSegmentPublishIntervalMillis(jargonProperties.getLongTransferRestartPublishIntervalMillis());
+		return defaultRestartManager;
+	}
+
 	public synchronized void setRestartManager(final AbstractRestartManager restartManager) {
 		this.restartManager = restartManager;
 	}
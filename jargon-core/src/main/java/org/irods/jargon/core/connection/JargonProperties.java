@@ -609,4 +609,231 @@ public interface JargonProperties {
 	 */
 	int getReplicaTokenLockTimeoutSeconds();
 
+	/**
+	 * Indicates whether GenQuery results are held in column oriented pages, where
+	 * each row is a view over the column values as returned by iRODS, rather than
+	 * as a list of columns per row. This uses much less heap for large result
+	 * pages, such as when sweeping large parts of the catalog.
+	 *
+	 * @return {@code boolean} of {@code true} if columnar result sets are used
+	 */
+	boolean isColumnarGenQueryResults();
+
+	/**
+	 * Indicates whether unencrypted parallel transfers move data between the
+	 * portal sockets and the local file through NIO channels, which avoids copying
+	 * each buffer through heap arrays. Encrypted transfers always use streams.
+	 *
+	 * @return {@code boolean} of {@code true} if parallel transfer threads use
+	 *         channels
+	 */
+	boolean isUseChannelsForParallelTransfer();
+
+	/**
+	 * Get the number of buffers that an {@code IRODSFileInputStream} keeps fetching
+	 * ahead of the caller, so that the next read is in flight while the current
+	 * buffer is drained. 0 reads synchronously on each call, as before.
+	 * <p>
+	 * jargon.io.input.stream.read.ahead.buffers
+	 *
+	 * @return {@code int} with the number of buffers read ahead
+	 */
+	int getInputStreamReadAheadBuffers();
+
+	/**
+	 * Get the size of each buffer fetched ahead by an {@code IRODSFileInputStream}
+	 * when {@link #getInputStreamReadAheadBuffers()} is greater than zero.
+	 * <p>
+	 * jargon.io.input.stream.read.ahead.buffer.size
+	 *
+	 * @return {@code int} with the buffer size
+	 */
+	int getInputStreamReadAheadBufferSize();
+
+	/**
+	 * Get the number of buffers that an {@code IRODSFileOutputStream} may have
+	 * queued or in flight to iRODS, sent by a background writer so that the
+	 * caller does not wait for each write to be acknowledged. Errors are reported
+	 * on the next write, flush or close. 0 writes synchronously on each call, as
+	 * before.
+	 * <p>
+	 * jargon.io.output.stream.write.behind.buffers
+	 *
+	 * @return {@code int} with the number of buffers written behind
+	 */
+	int getOutputStreamWriteBehindBuffers();
+
+	/**
+	 * Get the size of each buffer written behind by an
+	 * {@code IRODSFileOutputStream} when
+	 * {@link #getOutputStreamWriteBehindBuffers()} is greater than zero.
+	 * <p>
+	 * jargon.io.output.stream.write.behind.buffer.size
+	 *
+	 * @return {@code int} with the buffer size
+	 */
+	int getOutputStreamWriteBehindBufferSize();
+
+	/**
+	 * Get the size of the blocks that an {@code IRODSRandomAccessFile} caches, so
+	 * that small reads and writes are served from memory and written back when the
+	 * file pointer is moved with {@code seek}, a block is evicted, or the file is
+	 * closed. 0 sends each read and write to iRODS, as before.
+	 * <p>
+	 * jargon.io.random.access.cache.block.size
+	 *
+	 * @return {@code int} with the block size
+	 */
+	int getRandomAccessCacheBlockSize();
+
+	/**
+	 * Get the most blocks that an {@code IRODSRandomAccessFile} caches when
+	 * {@link #getRandomAccessCacheBlockSize()} is greater than zero. The least
+	 * recently used block is evicted first.
+	 * <p>
+	 * jargon.io.random.access.cache.blocks
+	 *
+	 * @return {@code int} with the number of blocks
+	 */
+	int getRandomAccessCacheBlocks();
+
+	/**
+	 * Get the number of AVUs sent in each request by the bulk AVU methods of
+	 * the access objects, when iRODS provides the atomic metadata API plugin. 0,
+	 * the default, sends one request per AVU, as before.
+	 * <p>
+	 * atomic.metadata.batch.size
+	 *
+	 * @return {@code int} with the number of AVUs per request
+	 */
+	int getAtomicMetadataBatchSize();
+
+	/**
+	 * Get the number of files transferred at once in a recursive put, get, copy or
+	 * replicate of a collection, each on its own connection. 1 transfers one file
+	 * at a time, as before. A recursive put with small file aggregation on is
+	 * always sequential.
+	 * <p>
+	 * transfer.recursive.threads
+	 *
+	 * @return {@code int} with the number of files transferred at once
+	 */
+	int getRecursiveTransferThreads();
+
+	/**
+	 * Get the size in bytes at or below which the files of a recursive put are
+	 * packed into tar bundles that are streamed to iRODS and extracted there with a
+	 * bulk registration, rather than put one at a time. 0 turns this off. When on,
+	 * recursive puts are sequential whatever the recursive transfer threads.
+	 * <p>
+	 * transfer.aggregate.small.files.threshold
+	 *
+	 * @return {@code long} with the largest file size in bytes that is bundled, 0 if off
+	 */
+	long getSmallFileAggregationThreshold();
+
+	/**
+	 * Get the size in bytes at which a tar bundle of small files in a recursive
+	 * put is closed and extracted in iRODS, and the next bundle started.
+	 * <p>
+	 * transfer.aggregate.bundle.size
+	 *
+	 * @return {@code long} with the size in bytes of a bundle
+	 */
+	long getSmallFileAggregationBundleSize();
+
+	/**
+	 * Get the path of a local journal file in which long file transfer restart
+	 * information is kept, so that a restart survives the JVM. Blank keeps the
+	 * restart information in memory. Only used when long transfer restart is on.
+	 * <p>
+	 * transfer.long.file.restart.journal
+	 *
+	 * @return {@code String} with the path of the restart journal, or blank to keep restarts in memory
+	 */
+	String getLongTransferRestartJournal();
+
+	/**
+	 * Get the time in milliseconds between publishing the segment progress of the
+	 * parallel transfer threads to the long file restart information. The threads
+	 * update per segment counters without locking, and progress not yet published
+	 * only means a restart transfers that part of the file again. 0 publishes each
+	 * update.
+	 * <p>
+	 * transfer.long.file.restart.publish.interval.millis
+	 *
+	 * @return {@code long} with the time in milliseconds between publishing segment progress
+	 */
+	long getLongTransferRestartPublishIntervalMillis();
+
+	/**
+	 * Get whether parallel gets and puts tune the number of threads they request
+	 * from iRODS. The throughput of the first part of each parallel transfer is
+	 * sampled, and the best thread count found so far for the host and the size of
+	 * the file is requested, up to the maximum parallel threads.
+	 * <p>
+	 * transfer.adaptive.parallel.threads
+	 *
+	 * @return {@code boolean} of {@code true} if the parallel thread count is tuned per host and file size
+	 */
+	boolean isAdaptiveParallelThreads();
+
+	/**
+	 * Get whether the TCP send and receive buffers of the primary and parallel
+	 * transfer sockets, and the internal stream buffers, are sized from the
+	 * bandwidth delay product of the link to the host. The round trip time is
+	 * measured on connect, and the bandwidth is given by
+	 * {@link #getTcpBufferAutoTuneBandwidthMbits()}. The window sizes set in the
+	 * properties remain the minimum.
+	 * <p>
+	 * tcp.buffer.autotune
+	 *
+	 * @return {@code boolean} of {@code true} if socket buffers are sized from the measured round trip time
+	 */
+	boolean isTcpBufferAutoTune();
+
+	/**
+	 * Get the bandwidth of the link to iRODS, in megabits per second, that is
+	 * multiplied by the measured round trip time to size the socket buffers when
+	 * {@link #isTcpBufferAutoTune()} is set.
+	 * <p>
+	 * tcp.buffer.autotune.bandwidth.mbits
+	 *
+	 * @return {@code int} with the link bandwidth in megabits per second
+	 */
+	int getTcpBufferAutoTuneBandwidthMbits();
+
+	/**
+	 * Get the largest socket buffer, in kilobytes, set when
+	 * {@link #isTcpBufferAutoTune()} is set. The operating system may cap the
+	 * buffers at a lower size.
+	 * <p>
+	 * tcp.buffer.autotune.max.kb
+	 *
+	 * @return {@code int} with the largest tuned socket buffer in kilobytes
+	 */
+	int getTcpBufferAutoTuneMaxKb();
+
+	/**
+	 * Get the most entries held by the per-session cache of {@code ObjStat}s and
+	 * collection listings, least recently used first out. Jargon drops cached
+	 * entries for a path when it changes the path itself, changes made by other
+	 * clients are seen once the entry expires. A value of 0 turns the cache off.
+	 * <p>
+	 * jargon.metadata.cache.max.entries
+	 *
+	 * @return {@code int} with the most cached stats and listings, 0 if there is no cache
+	 */
+	int getMetadataCacheMaxEntries();
+
+	/**
+	 * Get the time in milliseconds that an entry in the metadata cache is used
+	 * for, when {@link #getMetadataCacheMaxEntries()} is set.
+	 * <p>
+	 * jargon.metadata.cache.ttl.millis
+	 *
+	 * @return {@code long} with the time to live of a cached stat or listing in milliseconds
+	 */
+	long getMetadataCacheTtlMillis();
+
 }
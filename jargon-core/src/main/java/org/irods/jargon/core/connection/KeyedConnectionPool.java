@@ -0,0 +1,534 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keyed pool of connections, with a limit on the connections leased and kept
+ * idle for each key, and eviction of connections that have been idle too long.
+ * This holds the bookkeeping for the {@link PooledIRODSProtocolManager} apart
+ * from the connections themselves, so that it can be tested without a server.
+ * <p>
+ * Idle connections are handed out most recently used first, so that a lightly
+ * loaded pool settles on a few warm connections and lets the rest age out.
+ * Connections are created, validated and destroyed outside of the lock on the
+ * pool, so a slow server does not hold up callers using other keys. Callers
+ * waiting for a connection park on a {@link Condition} rather than a monitor,
+ * so that waiting virtual threads do not pin their carrier threads.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <T>
+ *            type of connection that is pooled
+ */
+class KeyedConnectionPool<T> {
+
+	private static final Logger log = LoggerFactory.getLogger(KeyedConnectionPool.class);
+
+	/**
+	 * Validates and disposes of pooled connections
+	 *
+	 * @param <T>
+	 *            type of connection that is pooled
+	 */
+	interface Lifecycle<T> {
+
+		/**
+		 * Cheaply check a connection before it is leased from the idle pool
+		 *
+		 * @param connection
+		 *            connection to check
+		 * @param idleMillis
+		 *            {@code long} with the time the connection was idle
+		 * @return {@code boolean} of {@code true} if the connection may be leased
+		 */
+		boolean validate(T connection, long idleMillis);
+
+		/**
+		 * Close a connection that is leaving the pool. Errors should be logged and
+		 * not thrown.
+		 *
+		 * @param connection
+		 *            connection to close
+		 */
+		void destroy(T connection);
+	}
+
+	/**
+	 * Creates a connection when there is no idle connection to lease
+	 *
+	 * @param <T>
+	 *            type of connection that is pooled
+	 */
+	interface Factory<T> {
+
+		/**
+		 * @return new connection
+		 * @throws JargonException
+		 *             for iRODS error
+		 */
+		T create() throws JargonException;
+	}
+
+	private static final class IdleConnection<T> {
+		final T connection;
+		final long idleSince;
+
+		IdleConnection(final T connection, final long idleSince) {
+			this.connection = connection;
+			this.idleSince = idleSince;
+		}
+	}
+
+	private static final class KeyState<T> {
+		final Deque<IdleConnection<T>> idle = new ArrayDeque<IdleConnection<T>>();
+		int active = 0;
+	}
+
+	private final Lifecycle<T> lifecycle;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition capacityAvailable = lock.newCondition();
+	private final Map<String, KeyState<T>> keys = new HashMap<String, KeyState<T>>();
+	private final Map<T, String> leased = new IdentityHashMap<T, String>();
+
+	private int maxActivePerKey = 8;
+	private int maxIdlePerKey = 8;
+	private long maxWaitMillis = 30000L;
+	private long idleEvictionMillis = 120000L;
+	private boolean closed = false;
+
+	private long leases = 0L;
+	private long created = 0L;
+	private long discarded = 0L;
+	private long evicted = 0L;
+	private long timeouts = 0L;
+	private long totalLeaseWaitNanos = 0L;
+	private long maxLeaseWaitNanos = 0L;
+
+	KeyedConnectionPool(final Lifecycle<T> lifecycle) {
+		if (lifecycle == null) {
+			throw new IllegalArgumentException("null lifecycle");
+		}
+		this.lifecycle = lifecycle;
+	}
+
+	/**
+	 * Lease a connection for the key, reusing an idle connection if one passes
+	 * validation, creating one if the key is under its limit, or otherwise
+	 * waiting for a connection to be returned
+	 *
+	 * @param key
+	 *            {@code String} that identifies the connections that may be
+	 *            shared
+	 * @param factory
+	 *            {@link Factory} that creates a connection for the key
+	 * @return leased connection, which must be given back or invalidated
+	 * @throws JargonException
+	 *             if a connection could not be created, or none was available in
+	 *             the maximum wait time
+	 */
+	T lease(final String key, final Factory<T> factory) throws JargonException {
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("null or empty key");
+		}
+
+		if (factory == null) {
+			throw new IllegalArgumentException("null factory");
+		}
+
+		final long start = System.nanoTime();
+
+		while (true) {
+			IdleConnection<T> candidate;
+			lock.lock();
+			try {
+				KeyState<T> keyState = awaitCapacity(key, start);
+				candidate = keyState.idle.pollFirst();
+				keyState.active++;
+			} finally {
+				lock.unlock();
+			}
+
+			if (candidate == null) {
+				return createConnection(key, factory, start);
+			}
+
+			long idleMillis = System.currentTimeMillis() - candidate.idleSince;
+			if (lifecycle.validate(candidate.connection, idleMillis)) {
+				lock.lock();
+				try {
+					recordLease(key, candidate.connection, start);
+				} finally {
+					lock.unlock();
+				}
+				return candidate.connection;
+			}
+
+			log.debug("idle connection failed validation, discarding");
+			lock.lock();
+			try {
+				KeyState<T> keyState = keyState(key);
+				keyState.active--;
+				discarded++;
+				removeIfUnused(key, keyState);
+				capacityAvailable.signalAll();
+			} finally {
+				lock.unlock();
+			}
+			lifecycle.destroy(candidate.connection);
+		}
+	}
+
+	/**
+	 * Return a leased connection to the idle pool, destroying it if the key
+	 * already has the maximum idle connections or the pool is closed
+	 *
+	 * @param connection
+	 *            connection that was leased from this pool
+	 */
+	void giveBack(final T connection) {
+		if (connection == null) {
+			throw new IllegalArgumentException("null connection");
+		}
+
+		boolean destroy = true;
+		lock.lock();
+		try {
+			String key = leased.remove(connection);
+			if (key == null) {
+				log.warn("connection given back that was not leased from this pool, will destroy:{}", connection);
+			} else {
+				KeyState<T> keyState = keyState(key);
+				keyState.active--;
+				if (closed || keyState.idle.size() >= maxIdlePerKey) {
+					discarded++;
+				} else {
+					keyState.idle.addFirst(new IdleConnection<T>(connection, System.currentTimeMillis()));
+					destroy = false;
+				}
+				removeIfUnused(key, keyState);
+				capacityAvailable.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (destroy) {
+			lifecycle.destroy(connection);
+		}
+	}
+
+	/**
+	 * Remove a leased connection from the pool without returning it to the idle
+	 * pool. The caller is responsible for closing it.
+	 *
+	 * @param connection
+	 *            connection that was leased from this pool
+	 */
+	void invalidate(final T connection) {
+		if (connection == null) {
+			throw new IllegalArgumentException("null connection");
+		}
+
+		lock.lock();
+		try {
+			String key = leased.remove(connection);
+			if (key == null) {
+				log.warn("invalidating connection that was not leased from this pool:{}", connection);
+				return;
+			}
+
+			KeyState<T> keyState = keyState(key);
+			keyState.active--;
+			discarded++;
+			removeIfUnused(key, keyState);
+			capacityAvailable.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Destroy connections that have been idle longer than the idle eviction time
+	 *
+	 * @return {@code int} with the number of connections evicted
+	 */
+	int evictIdle() {
+		List<T> evictions = new ArrayList<T>();
+		lock.lock();
+		try {
+			if (idleEvictionMillis <= 0) {
+				return 0;
+			}
+
+			long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+			Iterator<Map.Entry<String, KeyState<T>>> entries = keys.entrySet().iterator();
+			while (entries.hasNext()) {
+				KeyState<T> keyState = entries.next().getValue();
+				// least recently used are at the tail
+				while (!keyState.idle.isEmpty() && keyState.idle.peekLast().idleSince <= cutoff) {
+					evictions.add(keyState.idle.pollLast().connection);
+				}
+				if (keyState.active == 0 && keyState.idle.isEmpty()) {
+					entries.remove();
+				}
+			}
+			evicted += evictions.size();
+		} finally {
+			lock.unlock();
+		}
+
+		for (T connection : evictions) {
+			lifecycle.destroy(connection);
+		}
+
+		if (!evictions.isEmpty()) {
+			log.debug("evicted idle connections:{}", evictions.size());
+		}
+		return evictions.size();
+	}
+
+	/**
+	 * Close the pool, destroying the idle connections. Leased connections are
+	 * destroyed as they are given back, and callers waiting for a connection are
+	 * woken with an error.
+	 */
+	void close() {
+		List<T> idleConnections = new ArrayList<T>();
+		lock.lock();
+		try {
+			closed = true;
+			Iterator<KeyState<T>> keyStates = keys.values().iterator();
+			while (keyStates.hasNext()) {
+				KeyState<T> keyState = keyStates.next();
+				for (IdleConnection<T> idleConnection : keyState.idle) {
+					idleConnections.add(idleConnection.connection);
+				}
+				keyState.idle.clear();
+				if (keyState.active == 0) {
+					keyStates.remove();
+				}
+			}
+			discarded += idleConnections.size();
+			capacityAvailable.signalAll();
+		} finally {
+			lock.unlock();
+		}
+
+		for (T connection : idleConnections) {
+			lifecycle.destroy(connection);
+		}
+	}
+
+	/**
+	 * Allow a closed pool to lease connections again
+	 */
+	void open() {
+		lock.lock();
+		try {
+			closed = false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return {@link ConnectionPoolStatistics} with a snapshot of the counters
+	 */
+	ConnectionPoolStatistics getStatistics() {
+		lock.lock();
+		try {
+			int active = 0;
+			int idle = 0;
+			for (KeyState<T> keyState : keys.values()) {
+				active += keyState.active;
+				idle += keyState.idle.size();
+			}
+			return new ConnectionPoolStatistics(leases, created, discarded, evicted, timeouts, totalLeaseWaitNanos,
+					maxLeaseWaitNanos, active, idle);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	int getMaxActivePerKey() {
+		lock.lock();
+		try {
+			return maxActivePerKey;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void setMaxActivePerKey(final int maxActivePerKey) {
+		lock.lock();
+		try {
+			if (maxActivePerKey <= 0) {
+				throw new IllegalArgumentException("maxActivePerKey must be > 0");
+			}
+			this.maxActivePerKey = maxActivePerKey;
+			capacityAvailable.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	int getMaxIdlePerKey() {
+		lock.lock();
+		try {
+			return maxIdlePerKey;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void setMaxIdlePerKey(final int maxIdlePerKey) {
+		lock.lock();
+		try {
+			if (maxIdlePerKey < 0) {
+				throw new IllegalArgumentException("maxIdlePerKey must be >= 0");
+			}
+			this.maxIdlePerKey = maxIdlePerKey;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	long getMaxWaitMillis() {
+		lock.lock();
+		try {
+			return maxWaitMillis;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void setMaxWaitMillis(final long maxWaitMillis) {
+		lock.lock();
+		try {
+			if (maxWaitMillis < 0) {
+				throw new IllegalArgumentException("maxWaitMillis must be >= 0");
+			}
+			this.maxWaitMillis = maxWaitMillis;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	long getIdleEvictionMillis() {
+		lock.lock();
+		try {
+			return idleEvictionMillis;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void setIdleEvictionMillis(final long idleEvictionMillis) {
+		lock.lock();
+		try {
+			this.idleEvictionMillis = idleEvictionMillis;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Wait, holding the lock, until the key is under its limit of leased
+	 * connections. Waiters share one condition across keys, so it is always
+	 * signalled to all of them.
+	 */
+	private KeyState<T> awaitCapacity(final String key, final long start) throws JargonException {
+		while (true) {
+			if (closed) {
+				throw new JargonException("connection pool is closed");
+			}
+
+			KeyState<T> keyState = keyState(key);
+			if (keyState.active < maxActivePerKey) {
+				return keyState;
+			}
+
+			long remainingNanos = maxWaitMillis * 1000000L - (System.nanoTime() - start);
+			if (remainingNanos <= 0) {
+				timeouts++;
+				log.warn("timed out waiting for a pooled connection for key:{}", key);
+				throw new JargonException("timed out waiting for a pooled connection, all " + maxActivePerKey
+						+ " connections are in use");
+			}
+
+			try {
+				capacityAvailable.awaitNanos(remainingNanos);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new JargonException("interrupted waiting for a pooled connection", e);
+			}
+		}
+	}
+
+	private T createConnection(final String key, final Factory<T> factory, final long start)
+			throws JargonException {
+		T connection;
+		try {
+			connection = factory.create();
+		} catch (JargonException | RuntimeException e) {
+			lock.lock();
+			try {
+				KeyState<T> keyState = keyState(key);
+				keyState.active--;
+				removeIfUnused(key, keyState);
+				capacityAvailable.signalAll();
+			} finally {
+				lock.unlock();
+			}
+			throw e;
+		}
+
+		lock.lock();
+		try {
+			created++;
+			recordLease(key, connection, start);
+		} finally {
+			lock.unlock();
+		}
+		return connection;
+	}
+
+	private void recordLease(final String key, final T connection, final long start) {
+		leased.put(connection, key);
+		leases++;
+		long waitNanos = System.nanoTime() - start;
+		totalLeaseWaitNanos += waitNanos;
+		if (waitNanos > maxLeaseWaitNanos) {
+			maxLeaseWaitNanos = waitNanos;
+		}
+	}
+
+	private KeyState<T> keyState(final String key) {
+		KeyState<T> keyState = keys.get(key);
+		if (keyState == null) {
+			keyState = new KeyState<T>();
+			keys.put(key, keyState);
+		}
+		return keyState;
+	}
+
+	private void removeIfUnused(final String key, final KeyState<T> keyState) {
+		if (keyState.active == 0 && keyState.idle.isEmpty()) {
+			keys.remove(key);
+		}
+	}
+
+}
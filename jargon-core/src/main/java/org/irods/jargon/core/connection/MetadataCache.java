@@ -0,0 +1,289 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FilenameUtils;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-session cache of the {@link ObjStat} and the collection listing of iRODS
+ * paths, so that the repeated stats of a {@code File} style workflow (exists,
+ * then isDirectory, then length...) go to iRODS once. Entries are kept for each
+ * account, live for a fixed time, and the least recently used are evicted once
+ * the cache is full.
+ * <p>
+ * Jargon invalidates a path, everything under it, and the collections above
+ * it when it changes the path, so a client sees its own puts, deletes, renames,
+ * new collections and AVU changes at once. Changes made by other clients, and
+ * changes to permissions, are seen once the cached entry expires.
+ * <p>
+ * A lookup that races with an invalidation is not stored, so that a stat read
+ * from iRODS before a change cannot be cached after it. Only stats of paths
+ * that exist are cached. Cached {@code ObjStat}s are shared between callers and
+ * must not be changed.
+ * <p>
+ * This class is thread safe.
+ */
+public class MetadataCache {
+
+	private static final Logger log = LoggerFactory.getLogger(MetadataCache.class);
+
+	private static final char KIND_STAT = 'S';
+	private static final char KIND_LISTING = 'L';
+
+	private final int maxEntries;
+	private final long ttlMillis;
+
+	/**
+	 * Entries in key order, so that a path and everything under it can be found
+	 * as a range of keys
+	 */
+	private final TreeMap<String, Entry> entriesByPath = new TreeMap<String, Entry>();
+
+	/**
+	 * The same entries in access order, least recently used first
+	 */
+	private final LinkedHashMap<String, Entry> entriesByAccess = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	private long generation = 0L;
+	private long hits = 0L;
+	private long misses = 0L;
+	private long expirations = 0L;
+	private long evictions = 0L;
+	private long invalidations = 0L;
+
+	private static final class Entry {
+		private final Object value;
+		private final long expiresAt;
+
+		private Entry(final Object value, final long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * @param maxEntries
+	 *            {@code int} with the most stats and listings held
+	 * @param ttlMillis
+	 *            {@code long} with the time in milliseconds an entry is used for
+	 */
+	public MetadataCache(final int maxEntries, final long ttlMillis) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries must be greater than zero");
+		}
+		if (ttlMillis <= 0) {
+			throw new IllegalArgumentException("ttlMillis must be greater than zero");
+		}
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMillis;
+	}
+
+	/**
+	 * Get the generation to pass to a later put of a value about to be read from
+	 * iRODS. The put is dropped if anything was invalidated in between.
+	 *
+	 * @return {@code long} with the current generation of the cache
+	 */
+	public synchronized long currentGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the stat was read as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the normalized absolute path
+	 * @return {@link ObjStat} that was cached, or {@code null} if there is none
+	 */
+	public ObjStat getObjStat(final IRODSAccount irodsAccount, final String irodsAbsolutePath) {
+		return (ObjStat) get(key(irodsAbsolutePath, KIND_STAT, irodsAccount));
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the stat was read as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the normalized absolute path
+	 * @param objStat
+	 *            {@link ObjStat} to cache
+	 * @param generation
+	 *            {@code long} from {@link #currentGeneration()} before the stat
+	 *            was read
+	 */
+	public void putObjStat(final IRODSAccount irodsAccount, final String irodsAbsolutePath, final ObjStat objStat,
+			final long generation) {
+		if (objStat == null) {
+			throw new IllegalArgumentException("null objStat");
+		}
+		put(key(irodsAbsolutePath, KIND_STAT, irodsAccount), objStat, generation);
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the listing was read as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the normalized absolute path of the
+	 *            collection
+	 * @return {@code List} of {@link CollectionAndDataObjectListingEntry} that
+	 *         is a copy of the cached listing, or {@code null} if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public List<CollectionAndDataObjectListingEntry> getListing(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath) {
+		List<CollectionAndDataObjectListingEntry> listing = (List<CollectionAndDataObjectListingEntry>) get(
+				key(irodsAbsolutePath, KIND_LISTING, irodsAccount));
+		if (listing == null) {
+			return null;
+		}
+		return new ArrayList<CollectionAndDataObjectListingEntry>(listing);
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the listing was read as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the normalized absolute path of the
+	 *            collection
+	 * @param listing
+	 *            {@code List} of {@link CollectionAndDataObjectListingEntry}
+	 *            with the whole of the collection, which is copied
+	 * @param generation
+	 *            {@code long} from {@link #currentGeneration()} before the
+	 *            listing was read
+	 */
+	public void putListing(final IRODSAccount irodsAccount, final String irodsAbsolutePath,
+			final List<CollectionAndDataObjectListingEntry> listing, final long generation) {
+		if (listing == null) {
+			throw new IllegalArgumentException("null listing");
+		}
+		put(key(irodsAbsolutePath, KIND_LISTING, irodsAccount),
+				new ArrayList<CollectionAndDataObjectListingEntry>(listing), generation);
+	}
+
+	/**
+	 * Drop the cached stats and listings of a path that has changed, of
+	 * everything under it, and of the collections above it, for all accounts.
+	 * The collections above are dropped as well as the parent so that
+	 * collections created along the way, as by a recursive mkdir, show up in
+	 * their listings.
+	 *
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path that changed
+	 */
+	public void invalidate(final String irodsAbsolutePath) {
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		String path = FilenameUtils.normalizeNoEndSeparator(irodsAbsolutePath, true);
+		if (path == null || !path.startsWith("/")) {
+			log.warn("cannot invalidate a path that is not absolute, clearing the cache:{}", irodsAbsolutePath);
+			clear();
+			return;
+		}
+		String childPrefix = path.endsWith("/") ? path : path + "/";
+
+		synchronized (this) {
+			generation++;
+			int removed = removeRange(childPrefix, childPrefix.substring(0, childPrefix.length() - 1) + '0');
+			String ancestor = path;
+			removed += removeRange(ancestor + '\0', ancestor + '\1');
+			while (!ancestor.equals("/")) {
+				int index = ancestor.lastIndexOf('/');
+				ancestor = index > 0 ? ancestor.substring(0, index) : "/";
+				removed += removeRange(ancestor + '\0', ancestor + '\1');
+			}
+			invalidations += removed;
+			log.debug("invalidated {} entries for:{}", removed, path);
+		}
+	}
+
+	/**
+	 * Drop everything in the cache
+	 */
+	public synchronized void clear() {
+		generation++;
+		invalidations += entriesByPath.size();
+		entriesByPath.clear();
+		entriesByAccess.clear();
+	}
+
+	/**
+	 * @return {@link MetadataCacheStatistics} with a snapshot of the counters
+	 */
+	public synchronized MetadataCacheStatistics getStatistics() {
+		return new MetadataCacheStatistics(hits, misses, expirations, evictions, invalidations,
+				entriesByPath.size());
+	}
+
+	private synchronized Object get(final String key) {
+		Entry entry = entriesByAccess.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		if (entry.expiresAt <= System.currentTimeMillis()) {
+			entriesByAccess.remove(key);
+			entriesByPath.remove(key);
+			expirations++;
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.value;
+	}
+
+	private synchronized void put(final String key, final Object value, final long generation) {
+		if (generation != this.generation) {
+			log.debug("not caching, changed while it was read:{}", key);
+			return;
+		}
+		Entry entry = new Entry(value, System.currentTimeMillis() + ttlMillis);
+		entriesByPath.put(key, entry);
+		entriesByAccess.put(key, entry);
+		Iterator<String> eldest = entriesByAccess.keySet().iterator();
+		while (entriesByAccess.size() > maxEntries) {
+			String eldestKey = eldest.next();
+			eldest.remove();
+			entriesByPath.remove(eldestKey);
+			evictions++;
+		}
+	}
+
+	private int removeRange(final String fromKey, final String toKey) {
+		Map<String, Entry> range = entriesByPath.subMap(fromKey, toKey);
+		int removed = range.size();
+		for (String key : range.keySet()) {
+			entriesByAccess.remove(key);
+		}
+		range.clear();
+		return removed;
+	}
+
+	/**
+	 * The path leads the key so that the entries of a path, and of the paths
+	 * under it, sort together
+	 */
+	private static String key(final String irodsAbsolutePath, final char kind, final IRODSAccount irodsAccount) {
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAbsolutePath).append('\0').append(kind).append(irodsAccount.toString()).append('#')
+				.append(irodsAccount.getZone());
+		return sb.toString();
+	}
+
+}
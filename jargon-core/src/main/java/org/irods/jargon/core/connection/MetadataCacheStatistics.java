@@ -0,0 +1,90 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * Point in time snapshot of the counters kept by a {@link MetadataCache}.
+ * Counts are totals since the cache was created.
+ */
+public final class MetadataCacheStatistics {
+
+	private final long hits;
+	private final long misses;
+	private final long expirations;
+	private final long evictions;
+	private final long invalidations;
+	private final int size;
+
+	MetadataCacheStatistics(final long hits, final long misses, final long expirations, final long evictions,
+			final long invalidations, final int size) {
+		this.hits = hits;
+		this.misses = misses;
+		this.expirations = expirations;
+		this.evictions = evictions;
+		this.invalidations = invalidations;
+		this.size = size;
+	}
+
+	/**
+	 * @return {@code long} with the number of lookups answered from the cache
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return {@code long} with the number of lookups that went to iRODS,
+	 *         including those that found an expired entry
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return {@code double} with the share of lookups answered from the cache,
+	 *         from 0 to 1
+	 */
+	public double getHitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * @return {@code long} with the number of entries dropped because their time
+	 *         to live had passed
+	 */
+	public long getExpirations() {
+		return expirations;
+	}
+
+	/**
+	 * @return {@code long} with the number of least recently used entries dropped
+	 *         to make room
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return {@code long} with the number of entries dropped because Jargon
+	 *         changed their path
+	 */
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * @return {@code int} with the number of entries currently cached
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("MetadataCacheStatistics [hits=").append(hits).append(", misses=").append(misses)
+				.append(", expirations=").append(expirations).append(", evictions=").append(evictions)
+				.append(", invalidations=").append(invalidations).append(", size=").append(size).append("]");
+		return builder.toString();
+	}
+
+}
@@ -46,6 +46,9 @@ public class PipelineConfiguration {
 	private final int primaryTcpPerformancePrefsLatency;
 	private final int primaryTcpPerformancePrefsBandwidth;
 	private final int socketRenewalIntervalInSeconds;
+	private final boolean tcpBufferAutoTune;
+	private final int tcpBufferAutoTuneBandwidthMbits;
+	private final int tcpBufferAutoTuneMaxKb;
 	/**
 	 * Default SSL negotiation policy, may be overrideen per request in the
 	 * IRODSAccount
@@ -117,6 +120,9 @@ public class PipelineConfiguration {
 		primaryTcpReceiveWindowSize = jargonProperties.getPrimaryTcpReceiveWindowSize();
 		primaryTcpSendWindowSize = jargonProperties.getPrimaryTcpSendWindowSize();
 		socketRenewalIntervalInSeconds = jargonProperties.getSocketRenewalIntervalInSeconds();
+		tcpBufferAutoTune = jargonProperties.isTcpBufferAutoTune();
+		tcpBufferAutoTuneBandwidthMbits = jargonProperties.getTcpBufferAutoTuneBandwidthMbits();
+		tcpBufferAutoTuneMaxKb = jargonProperties.getTcpBufferAutoTuneMaxKb();
 		negotiationPolicy = jargonProperties.getNegotiationPolicy();
 		encryptionAlgorithmEnum = jargonProperties.getEncryptionAlgorithmEnum();
 		encryptionKeySize = jargonProperties.getEncryptionKeySize();
@@ -269,6 +275,18 @@ public class PipelineConfiguration {
 		return primaryTcpPerformancePrefsBandwidth;
 	}
 
+	public boolean isTcpBufferAutoTune() {
+		return tcpBufferAutoTune;
+	}
+
+	public int getTcpBufferAutoTuneBandwidthMbits() {
+		return tcpBufferAutoTuneBandwidthMbits;
+	}
+
+	public int getTcpBufferAutoTuneMaxKb() {
+		return tcpBufferAutoTuneMaxKb;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -333,6 +351,12 @@ public class PipelineConfiguration {
 		builder.append(primaryTcpPerformancePrefsBandwidth);
 		builder.append(", socketRenewalIntervalInSeconds=");
 		builder.append(socketRenewalIntervalInSeconds);
+		builder.append(", tcpBufferAutoTune=");
+		builder.append(tcpBufferAutoTune);
+		builder.append(", tcpBufferAutoTuneBandwidthMbits=");
+		builder.append(tcpBufferAutoTuneBandwidthMbits);
+		builder.append(", tcpBufferAutoTuneMaxKb=");
+		builder.append(tcpBufferAutoTuneMaxKb);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -0,0 +1,346 @@
+package org.irods.jargon.core.connection;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.exception.AuthenticationException;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection manager that shares authenticated connections between threads,
+ * keeping a pool of connections for each {@link IRODSAccount}.
+ * <p>
+ * With this manager, the {@link IRODSSession} leases a connection for the
+ * duration of each access object call rather than for the life of the thread,
+ * and returns it to the pool when the outermost call completes. A connection
+ * that holds state in the iRODS agent, such as an open file or an unclosed
+ * query, stays with its thread until that state is released, and then goes
+ * back to the pool at the end of the next call. A fixed set of worker threads
+ * can therefore be served by far fewer iRODS agents than there are threads.
+ * <p>
+ * Idle connections are checked cheaply before reuse, by looking at the socket
+ * state and the age of the connection against the socket renewal interval in
+ * the jargon properties, with no round trip to the server. Connections idle for
+ * longer than the idle eviction time are closed by a background thread. The
+ * number of connections leased for an account is limited, and callers over the
+ * limit wait up to the maximum wait time before failing with a
+ * {@link JargonException}. Counts and lease wait times are available from
+ * {@link #getStatistics()}.
+ * <p>
+ * Connections are pooled by the {@code toString()} of the account as presented,
+ * in the same way as the per-thread cache in {@code IRODSSession}. A pool
+ * should be used with sessions that share the same jargon properties.
+ * <p>
+ * This class is thread safe.
+ */
+public class PooledIRODSProtocolManager extends IRODSProtocolManager {
+
+	private static final Logger log = LoggerFactory.getLogger(PooledIRODSProtocolManager.class);
+
+	private final KeyedConnectionPool<IRODSMidLevelProtocol> pool;
+	private long evictionIntervalMillis = 30000L;
+	private ScheduledExecutorService evictor = null;
+
+	public static PooledIRODSProtocolManager instance() {
+		return new PooledIRODSProtocolManager();
+	}
+
+	public PooledIRODSProtocolManager() {
+		log.info("creating pooled protocol manager");
+		pool = new KeyedConnectionPool<IRODSMidLevelProtocol>(new KeyedConnectionPool.Lifecycle<IRODSMidLevelProtocol>() {
+
+			@Override
+			public boolean validate(final IRODSMidLevelProtocol irodsMidLevelProtocol, final long idleMillis) {
+				return isReusable(irodsMidLevelProtocol);
+			}
+
+			@Override
+			public void destroy(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+				shutdownQuietly(irodsMidLevelProtocol);
+			}
+		});
+	}
+
+	@Override
+	public IRODSMidLevelProtocol getIRODSProtocol(final IRODSAccount irodsAccount,
+			final PipelineConfiguration pipelineConfiguration, final IRODSSession irodsSession)
+			throws AuthenticationException, JargonException {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (pipelineConfiguration == null) {
+			throw new IllegalArgumentException("null pipelineConfiguration");
+		}
+
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+
+		checkMidLevelProtocolFactory(irodsSession);
+		checkEvictor();
+
+		IRODSMidLevelProtocol irodsMidLevelProtocol = pool.lease(irodsAccount.toString(),
+				new KeyedConnectionPool.Factory<IRODSMidLevelProtocol>() {
+					@Override
+					public IRODSMidLevelProtocol create() throws JargonException {
+						log.debug("creating a pooled connection for account:{}", irodsAccount);
+						return createNewProtocol(irodsAccount, pipelineConfiguration, irodsSession);
+					}
+				});
+
+		if (irodsMidLevelProtocol.getIrodsSession() != irodsSession) {
+			irodsMidLevelProtocol.setIrodsSession(irodsSession);
+		}
+
+		log.debug("leased connection:{}", irodsMidLevelProtocol);
+		return irodsMidLevelProtocol;
+	}
+
+	/**
+	 * Return the connection to the pool. A connection that is no longer
+	 * connected, or that still holds state in the iRODS agent, is closed instead.
+	 */
+	@Override
+	public void returnIRODSProtocol(final IRODSMidLevelProtocol irodsMidLevelProtocol) throws JargonException {
+		log.debug("irodsMidLevelProtocol returned:{}", irodsMidLevelProtocol);
+		if (irodsMidLevelProtocol == null) {
+			throw new IllegalArgumentException("null irodsMidLevelProtocol");
+		}
+
+		if (irodsMidLevelProtocol.isHoldingAgentState()) {
+			log.warn("connection returned while holding agent state, will not be reused:{}", irodsMidLevelProtocol);
+			pool.invalidate(irodsMidLevelProtocol);
+			shutdownQuietly(irodsMidLevelProtocol);
+			return;
+		}
+
+		if (!irodsMidLevelProtocol.isConnected()) {
+			log.info("connection returned disconnected, will not be reused:{}", irodsMidLevelProtocol);
+			pool.invalidate(irodsMidLevelProtocol);
+			return;
+		}
+
+		pool.giveBack(irodsMidLevelProtocol);
+	}
+
+	@Override
+	protected void returnWithForce(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		if (irodsMidLevelProtocol != null) {
+			pool.invalidate(irodsMidLevelProtocol);
+		}
+		super.returnWithForce(irodsMidLevelProtocol);
+	}
+
+	/**
+	 * Connections are leased for each access object call
+	 */
+	@Override
+	public boolean isReleaseAfterOperation() {
+		return true;
+	}
+
+	/**
+	 * Reopen the pool after a call to {@link #destroy()}
+	 */
+	@Override
+	public synchronized void initialize() throws JargonException {
+		log.debug("initialize()");
+		pool.open();
+	}
+
+	/**
+	 * Close the idle connections and stop the evictor. Connections still leased
+	 * are closed as they are returned.
+	 */
+	@Override
+	protected synchronized void destroy() throws JargonException {
+		log.debug("destroy()");
+		if (evictor != null) {
+			evictor.shutdownNow();
+			evictor = null;
+		}
+		pool.close();
+	}
+
+	/**
+	 * Close connections that have been idle longer than the idle eviction time.
+	 * This is done periodically in the background, and may also be called
+	 * directly.
+	 *
+	 * @return {@code int} with the number of connections closed
+	 */
+	public int evictIdleConnections() {
+		return pool.evictIdle();
+	}
+
+	/**
+	 * @return {@link ConnectionPoolStatistics} with a snapshot of the pool
+	 *         counters, including the time callers waited for a connection
+	 */
+	public ConnectionPoolStatistics getStatistics() {
+		return pool.getStatistics();
+	}
+
+	/**
+	 * @return {@code int} with the maximum connections leased at once for an
+	 *         account
+	 */
+	public int getMaxActivePerAccount() {
+		return pool.getMaxActivePerKey();
+	}
+
+	/**
+	 * @param maxActivePerAccount
+	 *            {@code int} with the maximum connections leased at once for an
+	 *            account, default of 8
+	 */
+	public void setMaxActivePerAccount(final int maxActivePerAccount) {
+		pool.setMaxActivePerKey(maxActivePerAccount);
+	}
+
+	/**
+	 * @return {@code int} with the maximum idle connections kept for an account
+	 */
+	public int getMaxIdlePerAccount() {
+		return pool.getMaxIdlePerKey();
+	}
+
+	/**
+	 * @param maxIdlePerAccount
+	 *            {@code int} with the maximum idle connections kept for an
+	 *            account, default of 8
+	 */
+	public void setMaxIdlePerAccount(final int maxIdlePerAccount) {
+		pool.setMaxIdlePerKey(maxIdlePerAccount);
+	}
+
+	/**
+	 * @return {@code long} with the time in milliseconds to wait for a connection
+	 *         when an account is at its limit
+	 */
+	public long getMaxWaitMillis() {
+		return pool.getMaxWaitMillis();
+	}
+
+	/**
+	 * @param maxWaitMillis
+	 *            {@code long} with the time in milliseconds to wait for a
+	 *            connection when an account is at its limit, default of 30000
+	 */
+	public void setMaxWaitMillis(final long maxWaitMillis) {
+		pool.setMaxWaitMillis(maxWaitMillis);
+	}
+
+	/**
+	 * @return {@code long} with the time in milliseconds a connection may sit idle
+	 *         before it is closed
+	 */
+	public long getIdleEvictionMillis() {
+		return pool.getIdleEvictionMillis();
+	}
+
+	/**
+	 * @param idleEvictionMillis
+	 *            {@code long} with the time in milliseconds a connection may sit
+	 *            idle before it is closed, default of 120000, or 0 to keep idle
+	 *            connections open
+	 */
+	public void setIdleEvictionMillis(final long idleEvictionMillis) {
+		pool.setIdleEvictionMillis(idleEvictionMillis);
+	}
+
+	/**
+	 * @return {@code long} with the time in milliseconds between runs of the
+	 *         idle connection evictor
+	 */
+	public synchronized long getEvictionIntervalMillis() {
+		return evictionIntervalMillis;
+	}
+
+	/**
+	 * @param evictionIntervalMillis
+	 *            {@code long} with the time in milliseconds between runs of the
+	 *            idle connection evictor, default of 30000. This takes effect
+	 *            when the evictor is started with the first lease.
+	 */
+	public synchronized void setEvictionIntervalMillis(final long evictionIntervalMillis) {
+		if (evictionIntervalMillis <= 0) {
+			throw new IllegalArgumentException("evictionIntervalMillis must be > 0");
+		}
+		this.evictionIntervalMillis = evictionIntervalMillis;
+	}
+
+	/**
+	 * Cheap check that a connection may be reused, without a round trip to iRODS
+	 */
+	private boolean isReusable(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		if (!irodsMidLevelProtocol.isConnected() || irodsMidLevelProtocol.isHoldingAgentState()) {
+			return false;
+		}
+
+		int renewalInterval = irodsMidLevelProtocol.getPipelineConfiguration().getSocketRenewalIntervalInSeconds();
+		// 0 means ignore
+		if (renewalInterval > 0 && System.currentTimeMillis()
+				- irodsMidLevelProtocol.getConnectTimeInMillis() > renewalInterval * 1000L) {
+			log.debug("pooled connection is past the socket renewal interval:{}", irodsMidLevelProtocol);
+			return false;
+		}
+
+		return true;
+	}
+
+	private void shutdownQuietly(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		try {
+			irodsMidLevelProtocol.shutdown();
+		} catch (JargonException e) {
+			log.warn("error closing pooled connection, will discard", e);
+			irodsMidLevelProtocol.obliterateConnectionAndDiscardErrors();
+		}
+	}
+
+	/**
+	 * Initialize the mid level protocol factory, as is done by the
+	 * {@link IRODSSimpleProtocolManager}
+	 */
+	private synchronized void checkMidLevelProtocolFactory(final IRODSSession irodsSession) throws JargonException {
+		if (getIrodsMidLevelProtocolFactory() == null) {
+			IRODSConnectionFactory irodsConnectionFactory = getIrodsConnectionFactoryProducingFactory()
+					.instance(irodsSession.getJargonProperties());
+
+			setIrodsMidLevelProtocolFactory(
+					new IRODSMidLevelProtocolFactory(irodsConnectionFactory, getAuthenticationFactory()));
+		}
+	}
+
+	private synchronized void checkEvictor() {
+		if (evictor != null) {
+			return;
+		}
+
+		evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "jargon-connection-pool-evictor");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					pool.evictIdle();
+				} catch (RuntimeException e) {
+					log.error("error evicting idle connections", e);
+				}
+			}
+		}, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+}
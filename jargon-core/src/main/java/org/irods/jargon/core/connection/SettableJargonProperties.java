@@ -125,6 +125,122 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 	 */
 	private int replicaTokenLockTimeoutSeconds = 30;
 
+	/**
+	 * {@code boolean} that indicates whether GenQuery results are held in column
+	 * oriented pages
+	 */
+	private boolean columnarGenQueryResults = false;
+
+	/**
+	 * {@code boolean} that indicates whether unencrypted parallel transfers use
+	 * socket and file channels
+	 */
+	private boolean useChannelsForParallelTransfer = true;
+
+	/**
+	 * {@code int} with the number of buffers an input stream reads ahead, 0 to
+	 * read synchronously
+	 */
+	private int inputStreamReadAheadBuffers = 0;
+
+	/**
+	 * {@code int} with the size of each buffer an input stream reads ahead
+	 */
+	private int inputStreamReadAheadBufferSize = 1048576;
+
+	/**
+	 * {@code int} with the number of buffers an output stream may have queued or
+	 * in flight, 0 to write synchronously
+	 */
+	private int outputStreamWriteBehindBuffers = 0;
+
+	/**
+	 * {@code int} with the size of each buffer an output stream writes behind
+	 */
+	private int outputStreamWriteBehindBufferSize = 1048576;
+
+	/**
+	 * {@code int} with the size of the blocks a random access file caches, 0 to
+	 * not cache
+	 */
+	private int randomAccessCacheBlockSize = 0;
+
+	/**
+	 * {@code int} with the most blocks a random access file caches
+	 */
+	private int randomAccessCacheBlocks = 64;
+
+	/**
+	 * {@code int} with the number of AVUs per atomic metadata request in bulk AVU
+	 * operations, 0 for one request per AVU
+	 */
+	private int atomicMetadataBatchSize = 0;
+
+	/**
+	 * {@code int} with the number of files transferred at once in a recursive
+	 * transfer, 1 for one at a time
+	 */
+	private int recursiveTransferThreads = 1;
+
+	/**
+	 * {@code long} with the largest file size in bytes that is bundled in a
+	 * recursive put, 0 if off
+	 */
+	private long smallFileAggregationThreshold = 0;
+
+	/**
+	 * {@code long} with the size in bytes at which a bundle of small files is
+	 * extracted
+	 */
+	private long smallFileAggregationBundleSize = 67108864;
+
+	/**
+	 * {@code String} with the path of the local long file restart journal, blank
+	 * to keep restart information in memory
+	 */
+	private String longTransferRestartJournal = "";
+
+	/**
+	 * {@code long} with the time in milliseconds between publishing segment
+	 * progress to the long file restart information, 0 for each update
+	 */
+	private long longTransferRestartPublishIntervalMillis = 1000;
+
+	/**
+	 * {@code boolean} of {@code true} if parallel transfers tune the number of
+	 * threads requested per host and file size
+	 */
+	private boolean adaptiveParallelThreads = false;
+
+	/**
+	 * {@code boolean} of {@code true} if socket buffers are sized from the
+	 * bandwidth delay product of the link
+	 */
+	private boolean tcpBufferAutoTune = false;
+
+	/**
+	 * {@code int} with the link bandwidth in megabits per second used to size
+	 * socket buffers
+	 */
+	private int tcpBufferAutoTuneBandwidthMbits = 1000;
+
+	/**
+	 * {@code int} with the largest tuned socket buffer in kilobytes
+	 */
+	private int tcpBufferAutoTuneMaxKb = 65536;
+
+	/**
+	 * {@code int} with the most entries in the per-session cache of stats and
+	 * listings, 0 for no cache
+	 */
+	private int metadataCacheMaxEntries = 0;
+
+	/**
+	 * {@code long} with the time in milliseconds a cached stat or listing is used
+	 * for
+	 */
+	private long metadataCacheTtlMillis = 5000;
+
 	/**
 	 * Construct a default properties set based on the provided initial set of
 	 * {@code JargonProperties}. This can be used to wire in properties via
@@ -213,6 +329,26 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		defaultCppRuleEngineIdentifier = jargonProperties.getDefaultCppRuleEngineIdentifier();
 		rulesSetDestinationWhenAuto = jargonProperties.isRulesSetDestinationWhenAuto();
 		replicaTokenLockTimeoutSeconds = jargonProperties.getReplicaTokenLockTimeoutSeconds();
+		columnarGenQueryResults = jargonProperties.isColumnarGenQueryResults();
+		useChannelsForParallelTransfer = jargonProperties.isUseChannelsForParallelTransfer();
+		inputStreamReadAheadBuffers = jargonProperties.getInputStreamReadAheadBuffers();
+		inputStreamReadAheadBufferSize = jargonProperties.getInputStreamReadAheadBufferSize();
+		outputStreamWriteBehindBuffers = jargonProperties.getOutputStreamWriteBehindBuffers();
+		outputStreamWriteBehindBufferSize = jargonProperties.getOutputStreamWriteBehindBufferSize();
+		randomAccessCacheBlockSize = jargonProperties.getRandomAccessCacheBlockSize();
+		randomAccessCacheBlocks = jargonProperties.getRandomAccessCacheBlocks();
+		atomicMetadataBatchSize = jargonProperties.getAtomicMetadataBatchSize();
+		recursiveTransferThreads = jargonProperties.getRecursiveTransferThreads();
+		smallFileAggregationThreshold = jargonProperties.getSmallFileAggregationThreshold();
+		smallFileAggregationBundleSize = jargonProperties.getSmallFileAggregationBundleSize();
+		longTransferRestartJournal = jargonProperties.getLongTransferRestartJournal();
+		longTransferRestartPublishIntervalMillis = jargonProperties.getLongTransferRestartPublishIntervalMillis();
+		adaptiveParallelThreads = jargonProperties.isAdaptiveParallelThreads();
+		tcpBufferAutoTune = jargonProperties.isTcpBufferAutoTune();
+		tcpBufferAutoTuneBandwidthMbits = jargonProperties.getTcpBufferAutoTuneBandwidthMbits();
+		tcpBufferAutoTuneMaxKb = jargonProperties.getTcpBufferAutoTuneMaxKb();
+		metadataCacheMaxEntries = jargonProperties.getMetadataCacheMaxEntries();
+		metadataCacheTtlMillis = jargonProperties.getMetadataCacheTtlMillis();
 	}
 
 	@Override
@@ -790,7 +926,26 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		builder.append("encryptionKeySize=").append(encryptionKeySize).append(", encryptionSaltSize=")
 				.append(encryptionSaltSize).append(", encryptionNumberHashRounds=").append(encryptionNumberHashRounds)
 				.append(", bypassSslCertChecks=").append(bypassSslCertChecks)
-				.append(", replicaTokenLockTimeoutSeconds=").append(replicaTokenLockTimeoutSeconds).append("]");
+				.append(", replicaTokenLockTimeoutSeconds=").append(replicaTokenLockTimeoutSeconds)
+				.append(", columnarGenQueryResults=").append(columnarGenQueryResults)
+				.append(", useChannelsForParallelTransfer=").append(useChannelsForParallelTransfer)
+				.append(", inputStreamReadAheadBuffers=").append(inputStreamReadAheadBuffers)
+				.append(", inputStreamReadAheadBufferSize=").append(inputStreamReadAheadBufferSize)
+				.append(", outputStreamWriteBehindBuffers=").append(outputStreamWriteBehindBuffers)
+				.append(", outputStreamWriteBehindBufferSize=").append(outputStreamWriteBehindBufferSize)
+				.append(", randomAccessCacheBlockSize=").append(randomAccessCacheBlockSize)
+				.append(", randomAccessCacheBlocks=").append(randomAccessCacheBlocks)
+				.append(", atomicMetadataBatchSize=").append(atomicMetadataBatchSize)
+				.append(", recursiveTransferThreads=").append(recursiveTransferThreads)
+				.append(", smallFileAggregationThreshold=").append(smallFileAggregationThreshold)
+				.append(", smallFileAggregationBundleSize=").append(smallFileAggregationBundleSize)
+				.append(", longTransferRestartJournal=").append(longTransferRestartJournal)
+				.append(", longTransferRestartPublishIntervalMillis=").append(longTransferRestartPublishIntervalMillis)
+				.append(", adaptiveParallelThreads=").append(adaptiveParallelThreads).append(", tcpBufferAutoTune=")
+				.append(tcpBufferAutoTune).append(", tcpBufferAutoTuneBandwidthMbits=")
+				.append(tcpBufferAutoTuneBandwidthMbits).append(", tcpBufferAutoTuneMaxKb=")
+				.append(tcpBufferAutoTuneMaxKb).append(", metadataCacheMaxEntries=").append(metadataCacheMaxEntries)
+				.append(", metadataCacheTtlMillis=").append(metadataCacheTtlMillis).append("]");
 		return builder.toString();
 	}
 
@@ -963,4 +1118,205 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		this.replicaTokenLockTimeoutSeconds = replicaTokenLockTimeoutSeconds;
 	}
 
+	@Override
+	public synchronized boolean isColumnarGenQueryResults() {
+		return columnarGenQueryResults;
+	}
+
+	@Override
+	public synchronized void setColumnarGenQueryResults(final boolean columnarGenQueryResults) {
+		this.columnarGenQueryResults = columnarGenQueryResults;
+	}
+
+	@Override
+	public synchronized boolean isUseChannelsForParallelTransfer() {
+		return useChannelsForParallelTransfer;
+	}
+
+	@Override
+	public synchronized void setUseChannelsForParallelTransfer(final boolean useChannelsForParallelTransfer) {
+		this.useChannelsForParallelTransfer = useChannelsForParallelTransfer;
+	}
+
+	@Override
+	public synchronized int getInputStreamReadAheadBuffers() {
+		return inputStreamReadAheadBuffers;
+	}
+
+	@Override
+	public synchronized void setInputStreamReadAheadBuffers(final int inputStreamReadAheadBuffers) {
+		this.inputStreamReadAheadBuffers = inputStreamReadAheadBuffers;
+	}
+
+	@Override
+	public synchronized int getInputStreamReadAheadBufferSize() {
+		return inputStreamReadAheadBufferSize;
+	}
+
+	@Override
+	public synchronized void setInputStreamReadAheadBufferSize(final int inputStreamReadAheadBufferSize) {
+		this.inputStreamReadAheadBufferSize = inputStreamReadAheadBufferSize;
+	}
+
+	@Override
+	public synchronized int getOutputStreamWriteBehindBuffers() {
+		return outputStreamWriteBehindBuffers;
+	}
+
+	@Override
+	public synchronized void setOutputStreamWriteBehindBuffers(final int outputStreamWriteBehindBuffers) {
+		this.outputStreamWriteBehindBuffers = outputStreamWriteBehindBuffers;
+	}
+
+	@Override
+	public synchronized int getOutputStreamWriteBehindBufferSize() {
+		return outputStreamWriteBehindBufferSize;
+	}
+
+	@Override
+	public synchronized void setOutputStreamWriteBehindBufferSize(final int outputStreamWriteBehindBufferSize) {
+		this.outputStreamWriteBehindBufferSize = outputStreamWriteBehindBufferSize;
+	}
+
+	@Override
+	public synchronized int getRandomAccessCacheBlockSize() {
+		return randomAccessCacheBlockSize;
+	}
+
+	@Override
+	public synchronized void setRandomAccessCacheBlockSize(final int randomAccessCacheBlockSize) {
+		this.randomAccessCacheBlockSize = randomAccessCacheBlockSize;
+	}
+
+	@Override
+	public synchronized int getRandomAccessCacheBlocks() {
+		return randomAccessCacheBlocks;
+	}
+
+	@Override
+	public synchronized void setRandomAccessCacheBlocks(final int randomAccessCacheBlocks) {
+		this.randomAccessCacheBlocks = randomAccessCacheBlocks;
+	}
+
+	@Override
+	public synchronized int getAtomicMetadataBatchSize() {
+		return atomicMetadataBatchSize;
+	}
+
+	@Override
+	public synchronized void setAtomicMetadataBatchSize(final int atomicMetadataBatchSize) {
+		this.atomicMetadataBatchSize = atomicMetadataBatchSize;
+	}
+
+	@Override
+	public synchronized int getRecursiveTransferThreads() {
+		return recursiveTransferThreads;
+	}
+
+	@Override
+	public synchronized void setRecursiveTransferThreads(final int recursiveTransferThreads) {
+		this.recursiveTransferThreads = recursiveTransferThreads;
+	}
+
+	@Override
+	public synchronized long getSmallFileAggregationThreshold() {
+		return smallFileAggregationThreshold;
+	}
+
+	@Override
+	public synchronized void setSmallFileAggregationThreshold(final long smallFileAggregationThreshold) {
+		this.smallFileAggregationThreshold = smallFileAggregationThreshold;
+	}
+
+	@Override
+	public synchronized long getSmallFileAggregationBundleSize() {
+		return smallFileAggregationBundleSize;
+	}
+
+	@Override
+	public synchronized void setSmallFileAggregationBundleSize(final long smallFileAggregationBundleSize) {
+		this.smallFileAggregationBundleSize = smallFileAggregationBundleSize;
+	}
+
+	@Override
+	public synchronized String getLongTransferRestartJournal() {
+		return longTransferRestartJournal;
+	}
+
+	@Override
+	public synchronized void setLongTransferRestartJournal(final String longTransferRestartJournal) {
+		this.longTransferRestartJournal = longTransferRestartJournal;
+	}
+
+	@Override
+	public synchronized long getLongTransferRestartPublishIntervalMillis() {
+		return longTransferRestartPublishIntervalMillis;
+	}
+
+	@Override
+	public synchronized void setLongTransferRestartPublishIntervalMillis(
+			final long longTransferRestartPublishIntervalMillis) {
+		this.longTransferRestartPublishIntervalMillis = longTransferRestartPublishIntervalMillis;
+	}
+
+	@Override
+	public synchronized boolean isAdaptiveParallelThreads() {
+		return adaptiveParallelThreads;
+	}
+
+	@Override
+	public synchronized void setAdaptiveParallelThreads(final boolean adaptiveParallelThreads) {
+		this.adaptiveParallelThreads = adaptiveParallelThreads;
+	}
+
+	@Override
+	public synchronized boolean isTcpBufferAutoTune() {
+		return tcpBufferAutoTune;
+	}
+
+	@Override
+	public synchronized void setTcpBufferAutoTune(final boolean tcpBufferAutoTune) {
+		this.tcpBufferAutoTune = tcpBufferAutoTune;
+	}
+
+	@Override
+	public synchronized int getTcpBufferAutoTuneBandwidthMbits() {
+		return tcpBufferAutoTuneBandwidthMbits;
+	}
+
+	@Override
+	public synchronized void setTcpBufferAutoTuneBandwidthMbits(final int tcpBufferAutoTuneBandwidthMbits) {
+		this.tcpBufferAutoTuneBandwidthMbits = tcpBufferAutoTuneBandwidthMbits;
+	}
+
+	@Override
+	public synchronized int getTcpBufferAutoTuneMaxKb() {
+		return tcpBufferAutoTuneMaxKb;
+	}
+
+	@Override
+	public synchronized void setTcpBufferAutoTuneMaxKb(final int tcpBufferAutoTuneMaxKb) {
+		this.tcpBufferAutoTuneMaxKb = tcpBufferAutoTuneMaxKb;
+	}
+
+	@Override
+	public synchronized int getMetadataCacheMaxEntries() {
+		return metadataCacheMaxEntries;
+	}
+
+	@Override
+	public synchronized void setMetadataCacheMaxEntries(final int metadataCacheMaxEntries) {
+		this.metadataCacheMaxEntries = metadataCacheMaxEntries;
+	}
+
+	@Override
+	public synchronized long getMetadataCacheTtlMillis() {
+		return metadataCacheTtlMillis;
+	}
+
+	@Override
+	public synchronized void setMetadataCacheTtlMillis(final long metadataCacheTtlMillis) {
+		this.metadataCacheTtlMillis = metadataCacheTtlMillis;
+	}
+
 }
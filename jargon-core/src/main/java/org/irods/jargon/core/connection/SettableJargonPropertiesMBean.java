@@ -141,4 +141,44 @@ public interface SettableJargonPropertiesMBean extends JargonProperties {
 
 	void setReplicaTokenLockTimeoutSeconds(int replicaTokenLockTimeoutSeconds);
 
+	void setColumnarGenQueryResults(boolean columnarGenQueryResults);
+
+	void setUseChannelsForParallelTransfer(boolean useChannelsForParallelTransfer);
+
+	void setInputStreamReadAheadBuffers(int inputStreamReadAheadBuffers);
+
+	void setInputStreamReadAheadBufferSize(int inputStreamReadAheadBufferSize);
+
+	void setOutputStreamWriteBehindBuffers(int outputStreamWriteBehindBuffers);
+
+	void setOutputStreamWriteBehindBufferSize(int outputStreamWriteBehindBufferSize);
+
+	void setRandomAccessCacheBlockSize(int randomAccessCacheBlockSize);
+
+	void setRandomAccessCacheBlocks(int randomAccessCacheBlocks);
+
+	void setAtomicMetadataBatchSize(int atomicMetadataBatchSize);
+
+	void setRecursiveTransferThreads(int recursiveTransferThreads);
+
+	void setSmallFileAggregationThreshold(long smallFileAggregationThreshold);
+
+	void setSmallFileAggregationBundleSize(long smallFileAggregationBundleSize);
+
+	void setLongTransferRestartJournal(String longTransferRestartJournal);
+
+	void setLongTransferRestartPublishIntervalMillis(long longTransferRestartPublishIntervalMillis);
+
+	void setAdaptiveParallelThreads(boolean adaptiveParallelThreads);
+
+	void setTcpBufferAutoTune(boolean tcpBufferAutoTune);
+
+	void setTcpBufferAutoTuneBandwidthMbits(int tcpBufferAutoTuneBandwidthMbits);
+
+	void setTcpBufferAutoTuneMaxKb(int tcpBufferAutoTuneMaxKb);
+
+	void setMetadataCacheMaxEntries(int metadataCacheMaxEntries);
+
+	void setMetadataCacheTtlMillis(long metadataCacheTtlMillis);
+
 }
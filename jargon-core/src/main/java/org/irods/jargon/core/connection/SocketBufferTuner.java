@@ -0,0 +1,243 @@
+package org.irods.jargon.core.connection;
+
+import java.net.Socket;
+import java.net.SocketException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizes the TCP send and receive buffers of a socket, and the buffers on its
+ * streams, from the bandwidth delay product of the link to the host, when
+ * {@link JargonProperties#isTcpBufferAutoTune()} is set. A TCP connection can
+ * have no more than its window in flight, so a window smaller than the link
+ * bandwidth times the round trip time leaves the link idle for part of every
+ * round trip, which on a long haul link is most of it.
+ * <p>
+ * The round trip time is measured as the time taken by the TCP connect, which
+ * is one round trip, and the shortest time seen for each host is kept in the
+ * {@link DiscoveredServerPropertiesCache}, so that later sockets to the host
+ * are sized before they connect, when the receive window scale is agreed. The
+ * first socket to a host is sized once connected. The bandwidth is not
+ * measured, it is given by
+ * {@link JargonProperties#getTcpBufferAutoTuneBandwidthMbits()}, and is shared
+ * between the sockets of a parallel transfer. The window sizes in the
+ * properties remain the minimum, and buffers are capped at
+ * {@link JargonProperties#getTcpBufferAutoTuneMaxKb()}.
+ */
+public class SocketBufferTuner {
+
+	private static final Logger log = LoggerFactory.getLogger(SocketBufferTuner.class);
+
+	/**
+	 * Cached property with the shortest round trip time to a host in
+	 * microseconds
+	 */
+	public static final String ROUND_TRIP_PROPERTY = "tcpRoundTripMicros";
+
+	/**
+	 * Size of the buffer on a stream when the properties give 0, the Java
+	 * default
+	 */
+	static final int DEFAULT_STREAM_BUFFER_SIZE = 8192;
+
+	/**
+	 * Largest buffer put on a socket stream, which only needs to cover a few
+	 * reads or writes rather than the whole window
+	 */
+	static final int MAX_STREAM_BUFFER_SIZE = 1024 * 1024;
+
+	private final DiscoveredServerPropertiesCache discoveredServerPropertiesCache;
+	private final PipelineConfiguration pipelineConfiguration;
+
+	/**
+	 * @param discoveredServerPropertiesCache
+	 *            {@link DiscoveredServerPropertiesCache} that holds the round
+	 *            trip times
+	 * @param pipelineConfiguration
+	 *            {@link PipelineConfiguration} with the tuning properties
+	 */
+	public SocketBufferTuner(final DiscoveredServerPropertiesCache discoveredServerPropertiesCache,
+			final PipelineConfiguration pipelineConfiguration) {
+		if (discoveredServerPropertiesCache == null) {
+			throw new IllegalArgumentException("null discoveredServerPropertiesCache");
+		}
+		if (pipelineConfiguration == null) {
+			throw new IllegalArgumentException("null pipelineConfiguration");
+		}
+		this.discoveredServerPropertiesCache = discoveredServerPropertiesCache;
+		this.pipelineConfiguration = pipelineConfiguration;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if socket buffers are tuned
+	 */
+	public boolean isEnabled() {
+		return pipelineConfiguration.isTcpBufferAutoTune()
+				&& pipelineConfiguration.getTcpBufferAutoTuneBandwidthMbits() > 0;
+	}
+
+	/**
+	 * @param host
+	 *            {@code String} with the host
+	 * @return {@code long} with the shortest round trip time measured to the
+	 *         host in microseconds, or 0 if none was measured
+	 */
+	public long retrieveRoundTripMicros(final String host) {
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+		String value = discoveredServerPropertiesCache.retrieveValue(host, "", ROUND_TRIP_PROPERTY);
+		return value == null ? 0L : Long.parseLong(value);
+	}
+
+	/**
+	 * Record a round trip time to a host, which is kept if it is the shortest
+	 * seen
+	 *
+	 * @param host
+	 *            {@code String} with the host
+	 * @param roundTripNanos
+	 *            {@code long} with the measured time in nanoseconds
+	 * @return {@code long} with the shortest round trip time in microseconds
+	 */
+	public long recordRoundTrip(final String host, final long roundTripNanos) {
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+		long micros = Math.max(1L, roundTripNanos / 1000L);
+		synchronized (discoveredServerPropertiesCache) {
+			long shortest = retrieveRoundTripMicros(host);
+			if (shortest == 0L || micros < shortest) {
+				log.debug("round trip to {} is {} microseconds", host, micros);
+				discoveredServerPropertiesCache.cacheAProperty(host, "", ROUND_TRIP_PROPERTY, String.valueOf(micros));
+				return micros;
+			}
+			return shortest;
+		}
+	}
+
+	/**
+	 * Work out the buffer sizes for a socket
+	 *
+	 * @param host
+	 *            {@code String} with the host
+	 * @param roundTripMicros
+	 *            {@code long} with the round trip time in microseconds
+	 * @param streams
+	 *            {@code int} with the number of sockets sharing the link
+	 * @param parallel
+	 *            {@code boolean} of {@code true} for a parallel transfer socket,
+	 *            which takes the parallel rather than the primary window sizes
+	 *            as the minimum
+	 * @return {@link SocketBufferTuning} with the sizes
+	 */
+	public SocketBufferTuning computeTuning(final String host, final long roundTripMicros, final int streams,
+			final boolean parallel) {
+		int bandwidthMbits = pipelineConfiguration.getTcpBufferAutoTuneBandwidthMbits();
+		int myStreams = Math.max(1, streams);
+		long bandwidthDelayProduct = bandwidthMbits * roundTripMicros / 8L;
+		long perStream = bandwidthDelayProduct / myStreams;
+		long max = pipelineConfiguration.getTcpBufferAutoTuneMaxKb() * 1024L;
+		int tuned = (int) Math.min(Math.min(perStream, max), Integer.MAX_VALUE);
+
+		int configuredSend = (parallel ? pipelineConfiguration.getParallelTcpSendWindowSize()
+				: pipelineConfiguration.getPrimaryTcpSendWindowSize()) * 1024;
+		int configuredReceive = (parallel ? pipelineConfiguration.getParallelTcpReceiveWindowSize()
+				: pipelineConfiguration.getPrimaryTcpReceiveWindowSize()) * 1024;
+
+		return new SocketBufferTuning(host, roundTripMicros, bandwidthMbits, myStreams, bandwidthDelayProduct,
+				Math.max(configuredSend, tuned), Math.max(configuredReceive, tuned), -1, -1,
+				streamBufferSize(pipelineConfiguration.getInternalInputStreamBufferSize(), tuned),
+				streamBufferSize(pipelineConfiguration.getInternalOutputStreamBufferSize(), tuned));
+	}
+
+	/**
+	 * Size the buffers of a socket before it connects, if a round trip time to
+	 * the host is known
+	 *
+	 * @param socket
+	 *            {@link Socket} that is not yet connected
+	 * @param host
+	 *            {@code String} with the host it will connect to
+	 * @param streams
+	 *            {@code int} with the number of sockets sharing the link
+	 * @param parallel
+	 *            {@code boolean} of {@code true} for a parallel transfer socket
+	 * @return {@link SocketBufferTuning} with the sizes set, or {@code null} if
+	 *         tuning is off or the round trip time is not known yet
+	 * @throws SocketException
+	 *             if the buffer sizes cannot be set
+	 */
+	public SocketBufferTuning tuneBeforeConnect(final Socket socket, final String host, final int streams,
+			final boolean parallel) throws SocketException {
+		if (!isEnabled()) {
+			return null;
+		}
+		long roundTripMicros = retrieveRoundTripMicros(host);
+		if (roundTripMicros == 0L) {
+			return null;
+		}
+		return apply(socket, computeTuning(host, roundTripMicros, streams, parallel));
+	}
+
+	/**
+	 * Record the round trip time from the connect, and size the buffers of the
+	 * socket if that was not done before the connect with the same round trip
+	 * time
+	 *
+	 * @param socket
+	 *            {@link Socket} that is connected
+	 * @param host
+	 *            {@code String} with the host
+	 * @param streams
+	 *            {@code int} with the number of sockets sharing the link
+	 * @param parallel
+	 *            {@code boolean} of {@code true} for a parallel transfer socket
+	 * @param connectNanos
+	 *            {@code long} with the time taken to connect in nanoseconds
+	 * @param beforeConnect
+	 *            {@link SocketBufferTuning} from
+	 *            {@link #tuneBeforeConnect(Socket, String, int, boolean)}, or
+	 *            {@code null}
+	 * @return {@link SocketBufferTuning} with the sizes set, or {@code null} if
+	 *         tuning is off
+	 * @throws SocketException
+	 *             if the buffer sizes cannot be set
+	 */
+	public SocketBufferTuning tuneAfterConnect(final Socket socket, final String host, final int streams,
+			final boolean parallel, final long connectNanos, final SocketBufferTuning beforeConnect)
+			throws SocketException {
+		if (!isEnabled()) {
+			return null;
+		}
+		long roundTripMicros = recordRoundTrip(host, connectNanos);
+		if (beforeConnect != null && beforeConnect.getRoundTripMicros() == roundTripMicros) {
+			return beforeConnect;
+		}
+		return apply(socket, computeTuning(host, roundTripMicros, streams, parallel));
+	}
+
+	private SocketBufferTuning apply(final Socket socket, final SocketBufferTuning tuning) throws SocketException {
+		socket.setSendBufferSize(tuning.getSendBufferSize());
+		socket.setReceiveBufferSize(tuning.getReceiveBufferSize());
+		SocketBufferTuning applied = tuning.withActualSizes(socket.getSendBufferSize(),
+				socket.getReceiveBufferSize());
+		log.info("tuned socket buffers:{}", applied);
+		return applied;
+	}
+
+	/**
+	 * A stream left unbuffered stays so, otherwise the buffer covers the bytes
+	 * in flight, up to {@link #MAX_STREAM_BUFFER_SIZE}
+	 */
+	private static int streamBufferSize(final int configured, final int tuned) {
+		if (configured < 0) {
+			return configured;
+		}
+		int base = configured == 0 ? DEFAULT_STREAM_BUFFER_SIZE : configured;
+		int size = Math.min(tuned, MAX_STREAM_BUFFER_SIZE);
+		return size > base ? size : configured;
+	}
+
+}
@@ -0,0 +1,161 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * Immutable record of the buffer sizes chosen by the {@link SocketBufferTuner}
+ * for one socket, kept for diagnostics. Buffer sizes are in bytes, a stream
+ * buffer size of 0 is the Java default and -1 is unbuffered, as in the
+ * {@link JargonProperties}.
+ */
+public final class SocketBufferTuning {
+
+	private final String host;
+	private final long roundTripMicros;
+	private final int bandwidthMbits;
+	private final int streams;
+	private final long bandwidthDelayProduct;
+	private final int sendBufferSize;
+	private final int receiveBufferSize;
+	private final int actualSendBufferSize;
+	private final int actualReceiveBufferSize;
+	private final int inputStreamBufferSize;
+	private final int outputStreamBufferSize;
+
+	SocketBufferTuning(final String host, final long roundTripMicros, final int bandwidthMbits, final int streams,
+			final long bandwidthDelayProduct, final int sendBufferSize, final int receiveBufferSize,
+			final int actualSendBufferSize, final int actualReceiveBufferSize, final int inputStreamBufferSize,
+			final int outputStreamBufferSize) {
+		this.host = host;
+		this.roundTripMicros = roundTripMicros;
+		this.bandwidthMbits = bandwidthMbits;
+		this.streams = streams;
+		this.bandwidthDelayProduct = bandwidthDelayProduct;
+		this.sendBufferSize = sendBufferSize;
+		this.receiveBufferSize = receiveBufferSize;
+		this.actualSendBufferSize = actualSendBufferSize;
+		this.actualReceiveBufferSize = actualReceiveBufferSize;
+		this.inputStreamBufferSize = inputStreamBufferSize;
+		this.outputStreamBufferSize = outputStreamBufferSize;
+	}
+
+	/**
+	 * Copy with the buffer sizes the operating system actually gave the socket
+	 */
+	SocketBufferTuning withActualSizes(final int actualSendBufferSize, final int actualReceiveBufferSize) {
+		return new SocketBufferTuning(host, roundTripMicros, bandwidthMbits, streams, bandwidthDelayProduct,
+				sendBufferSize, receiveBufferSize, actualSendBufferSize, actualReceiveBufferSize,
+				inputStreamBufferSize, outputStreamBufferSize);
+	}
+
+	/**
+	 * @return {@code String} with the host the socket connects to
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return {@code long} with the shortest round trip time measured to the
+	 *         host, in microseconds
+	 */
+	public long getRoundTripMicros() {
+		return roundTripMicros;
+	}
+
+	/**
+	 * @return {@code int} with the link bandwidth in megabits per second
+	 */
+	public int getBandwidthMbits() {
+		return bandwidthMbits;
+	}
+
+	/**
+	 * @return {@code int} with the number of sockets sharing the link, such as
+	 *         the threads of a parallel transfer
+	 */
+	public int getStreams() {
+		return streams;
+	}
+
+	/**
+	 * @return {@code long} with the bytes in flight needed to fill the link
+	 */
+	public long getBandwidthDelayProduct() {
+		return bandwidthDelayProduct;
+	}
+
+	/**
+	 * @return {@code int} with the send buffer size requested
+	 */
+	public int getSendBufferSize() {
+		return sendBufferSize;
+	}
+
+	/**
+	 * @return {@code int} with the receive buffer size requested
+	 */
+	public int getReceiveBufferSize() {
+		return receiveBufferSize;
+	}
+
+	/**
+	 * @return {@code int} with the send buffer size reported by the socket, or
+	 *         -1 if not known
+	 */
+	public int getActualSendBufferSize() {
+		return actualSendBufferSize;
+	}
+
+	/**
+	 * @return {@code int} with the receive buffer size reported by the socket,
+	 *         or -1 if not known
+	 */
+	public int getActualReceiveBufferSize() {
+		return actualReceiveBufferSize;
+	}
+
+	/**
+	 * @return {@code int} with the size of the buffer on the socket input
+	 *         stream
+	 */
+	public int getInputStreamBufferSize() {
+		return inputStreamBufferSize;
+	}
+
+	/**
+	 * @return {@code int} with the size of the buffer on the socket output
+	 *         stream
+	 */
+	public int getOutputStreamBufferSize() {
+		return outputStreamBufferSize;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("SocketBufferTuning [host=");
+		builder.append(host);
+		builder.append(", roundTripMicros=");
+		builder.append(roundTripMicros);
+		builder.append(", bandwidthMbits=");
+		builder.append(bandwidthMbits);
+		builder.append(", streams=");
+		builder.append(streams);
+		builder.append(", bandwidthDelayProduct=");
+		builder.append(bandwidthDelayProduct);
+		builder.append(", sendBufferSize=");
+		builder.append(sendBufferSize);
+		builder.append(", receiveBufferSize=");
+		builder.append(receiveBufferSize);
+		builder.append(", actualSendBufferSize=");
+		builder.append(actualSendBufferSize);
+		builder.append(", actualReceiveBufferSize=");
+		builder.append(actualReceiveBufferSize);
+		builder.append(", inputStreamBufferSize=");
+		builder.append(inputStreamBufferSize);
+		builder.append(", outputStreamBufferSize=");
+		builder.append(outputStreamBufferSize);
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
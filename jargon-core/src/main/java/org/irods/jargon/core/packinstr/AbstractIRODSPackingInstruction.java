@@ -204,6 +204,34 @@ public abstract class AbstractIRODSPackingInstruction implements IRodsPI {
 
 	}
 
+	/**
+	 * Serialize the packing instruction directly into the given writer, avoiding
+	 * the intermediate {@code String} created by {@link #getParsedTags()}.
+	 *
+	 * @param tagWriter
+	 *            {@link TagWriter} that will receive the message bytes
+	 * @return {@code boolean} that will be {@code false} if this packing
+	 *         instruction has no message body
+	 * @throws JargonException
+	 *             for error creating the message
+	 */
+	public boolean writeParsedTags(final TagWriter tagWriter) throws JargonException {
+
+		if (tagWriter == null) {
+			throw new IllegalArgumentException("null tagWriter");
+		}
+
+		Tag message = getTagValue();
+
+		if (message == null) {
+			return false;
+		}
+
+		tagWriter.write(message);
+		return true;
+
+	}
+
 	/**
 	 * Abstract method returns the {@code Tag} structure for the given packing
 	 * instruction. Implemented by the specific subclass.
@@ -458,6 +458,29 @@ public class Tag implements Cloneable {
 
 	public static Tag readNextTag(final byte[] data, final boolean decode, final String encoding)
 			throws UnsupportedEncodingException {
+		return TagPullParser.parse(data, decode, encoding);
+	}
+
+	/**
+	 * Original {@code String} based parse of the data buffer to discover the first
+	 * tag. The whole buffer is decoded into a {@code String} and walked with
+	 * {@code indexOf}. This is retained for encodings where the protocol markup is
+	 * not ASCII compatible, and as a reference for {@link TagPullParser}, which is
+	 * used by {@link #readNextTag(byte[], boolean, String)}.
+	 *
+	 * @param data
+	 *            {@code byte[]}
+	 * @param decode
+	 *            {@code boolean} indicating that entity references in values
+	 *            should be decoded
+	 * @param encoding
+	 *            {@code String}
+	 * @return {@link Tag}
+	 * @throws UnsupportedEncodingException
+	 *             shouldn't throw, already tested for
+	 */
+	public static Tag readNextTagFromString(final byte[] data, final boolean decode, final String encoding)
+			throws UnsupportedEncodingException {
 		if (data == null) {
 			return null;
 		}
@@ -0,0 +1,361 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single pass, byte level parser for the iRODS XML protocol that builds a
+ * {@link Tag} tree directly from the bytes read off of the socket.
+ * <p>
+ * The markup characters of the iRODS protocol ({@code <}, {@code >},
+ * {@code /}, {@code &} and {@code ;}) are plain ASCII, so for any encoding that
+ * is ASCII compatible (e.g. UTF-8, the default) the structure can be found by
+ * scanning the raw bytes. Only leaf values are turned into {@code String}s, and
+ * entity references are decoded as part of that single copy. Tag names repeat
+ * heavily (a {@code GenQueryOut} response has one {@code value} tag per column
+ * per row), so names are cached per parse and shared between tags.
+ * <p>
+ * The resulting tree is the same as that produced by the original
+ * {@code String} based parser, including the treatment of the newline that
+ * follows a {@code >} character. Encodings that are not ASCII compatible fall
+ * back to {@link Tag#readNextTagFromString(byte[], boolean, String)}.
+ * <p>
+ * Instances are not thread safe, and are meant to be used for one parse. Use
+ * the static {@code parse} methods.
+ */
+public final class TagPullParser {
+
+	private static final byte LT = '<';
+	private static final byte GT = '>';
+	private static final byte SLASH = '/';
+	private static final byte AMP = '&';
+	private static final byte LF = '\n';
+
+	private static final byte[] AMP_ENTITY = { '&', 'a', 'm', 'p', ';' };
+	private static final byte[] LT_ENTITY = { '&', 'l', 't', ';' };
+	private static final byte[] GT_ENTITY = { '&', 'g', 't', ';' };
+	private static final byte[] QUOTE_ENTITY = { '&', 'q', 'u', 'o', 't', ';' };
+	private static final byte[] APOS_ENTITY = { '&', 'a', 'p', 'o', 's', ';' };
+
+	private static final int NAME_CACHE_SIZE = 64;
+
+	private static final ConcurrentHashMap<String, Charset> asciiCompatibleCharsets = new ConcurrentHashMap<String, Charset>();
+
+	private final byte[] data;
+	private final int limit;
+	private final Charset charset;
+	private final boolean decode;
+	private int pos;
+
+	private final String[] nameCache = new String[NAME_CACHE_SIZE];
+	private final int[] nameCacheStart = new int[NAME_CACHE_SIZE];
+	private final int[] nameCacheLength = new int[NAME_CACHE_SIZE];
+
+	/**
+	 * Scratch area for values that need entity decoding, grown as needed and
+	 * re-used for the remainder of the parse
+	 */
+	private byte[] scratch = null;
+
+	private TagPullParser(final byte[] data, final int offset, final int length, final boolean decode,
+			final Charset charset) {
+		this.data = data;
+		pos = offset;
+		limit = offset + length;
+		this.decode = decode;
+		this.charset = charset;
+	}
+
+	/**
+	 * Parse the first tag (and all of its nested tags) found in the given bytes,
+	 * decoding any entity references in the values.
+	 *
+	 * @param data
+	 *            {@code byte[]} with the protocol message
+	 * @param encoding
+	 *            {@code String} with the character encoding of the message
+	 * @return {@link Tag} or {@code null} if no tag was found in the data
+	 * @throws UnsupportedEncodingException
+	 *             if the encoding is not supported
+	 */
+	public static Tag parse(final byte[] data, final String encoding) throws UnsupportedEncodingException {
+		return parse(data, true, encoding);
+	}
+
+	/**
+	 * Parse the first tag (and all of its nested tags) found in the given bytes.
+	 *
+	 * @param data
+	 *            {@code byte[]} with the protocol message
+	 * @param decode
+	 *            {@code boolean} that indicates that entity references in values
+	 *            should be decoded
+	 * @param encoding
+	 *            {@code String} with the character encoding of the message
+	 * @return {@link Tag} or {@code null} if no tag was found in the data
+	 * @throws UnsupportedEncodingException
+	 *             if the encoding is not supported
+	 */
+	public static Tag parse(final byte[] data, final boolean decode, final String encoding)
+			throws UnsupportedEncodingException {
+		if (data == null) {
+			return null;
+		}
+		return parse(data, 0, data.length, decode, encoding);
+	}
+
+	/**
+	 * Parse the first tag (and all of its nested tags) found in a region of the
+	 * given bytes.
+	 *
+	 * @param data
+	 *            {@code byte[]} with the protocol message
+	 * @param offset
+	 *            {@code int} with the start of the message in {@code data}
+	 * @param length
+	 *            {@code int} with the length of the message
+	 * @param decode
+	 *            {@code boolean} that indicates that entity references in values
+	 *            should be decoded
+	 * @param encoding
+	 *            {@code String} with the character encoding of the message
+	 * @return {@link Tag} or {@code null} if no tag was found in the data
+	 * @throws UnsupportedEncodingException
+	 *             if the encoding is not supported
+	 */
+	public static Tag parse(final byte[] data, final int offset, final int length, final boolean decode,
+			final String encoding) throws UnsupportedEncodingException {
+
+		if (data == null) {
+			return null;
+		}
+
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new IllegalArgumentException("offset and length out of range for data");
+		}
+
+		if (encoding == null || encoding.isEmpty()) {
+			throw new IllegalArgumentException("null or empty encoding");
+		}
+
+		Charset charset = asciiCompatibleCharset(encoding);
+		if (charset == null) {
+			byte[] region = data;
+			if (offset != 0 || length != data.length) {
+				region = Arrays.copyOfRange(data, offset, offset + length);
+			}
+			return Tag.readNextTagFromString(region, decode, encoding);
+		}
+
+		return new TagPullParser(data, offset, length, decode, charset).readDocument();
+	}
+
+	/**
+	 * Look up the charset for the encoding, returning {@code null} if the
+	 * protocol markup characters are not encoded as single ASCII bytes
+	 */
+	private static Charset asciiCompatibleCharset(final String encoding) throws UnsupportedEncodingException {
+		Charset charset = asciiCompatibleCharsets.get(encoding);
+		if (charset != null) {
+			return charset;
+		}
+
+		try {
+			charset = Charset.forName(encoding);
+		} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+			throw new UnsupportedEncodingException(encoding);
+		}
+
+		String markup = "<>/&;\n";
+		if (!Arrays.equals(markup.getBytes(charset), markup.getBytes(Charset.forName("US-ASCII")))) {
+			return null;
+		}
+
+		asciiCompatibleCharsets.putIfAbsent(encoding, charset);
+		return charset;
+	}
+
+	private Tag readDocument() {
+		int start = indexOf(LT, pos);
+		if (start < 0) {
+			return null;
+		}
+		pos = start;
+		return readElement();
+	}
+
+	/**
+	 * Read the element starting at the current position, which must be the
+	 * {@code <} of an opening tag, leaving the position after its closing tag
+	 */
+	private Tag readElement() {
+		int nameStart = pos + 1;
+		int nameEnd = indexOf(GT, nameStart);
+		if (nameEnd < 0) {
+			throw new IllegalArgumentException("unterminated tag in iRODS protocol message");
+		}
+
+		Tag tag = new Tag(tagName(nameStart, nameEnd));
+		int contentStart = nameEnd + 1;
+		int next = indexOf(LT, contentStart);
+
+		if (next < 0) {
+			// unterminated value, be lenient and take the rest of the data
+			tag.value = decodeValue(contentStart, limit);
+			pos = limit;
+			return tag;
+		}
+
+		if (isEndTag(next)) {
+			tag.value = decodeValue(contentStart, next);
+			pos = skipEndTag(next);
+			return tag;
+		}
+
+		while (next >= 0) {
+			if (isEndTag(next)) {
+				pos = skipEndTag(next);
+				return tag;
+			}
+			pos = next;
+			tag.addTag(readElement());
+			next = indexOf(LT, pos);
+		}
+
+		pos = limit;
+		return tag;
+	}
+
+	private boolean isEndTag(final int ltPosition) {
+		return ltPosition + 1 < limit && data[ltPosition + 1] == SLASH;
+	}
+
+	private int skipEndTag(final int ltPosition) {
+		int end = indexOf(GT, ltPosition);
+		if (end < 0) {
+			return limit;
+		}
+		return end + 1;
+	}
+
+	private int indexOf(final byte b, final int from) {
+		for (int i = from; i < limit; i++) {
+			if (data[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the tag name for the given range, re-using a previously created
+	 * {@code String} if the same name has been seen
+	 */
+	private String tagName(final int start, final int end) {
+		int length = end - start;
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + data[i];
+		}
+		int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+
+		String cached = nameCache[slot];
+		if (cached != null && nameCacheLength[slot] == length
+				&& regionMatches(nameCacheStart[slot], start, length)) {
+			return cached;
+		}
+
+		String name = new String(data, start, length, charset);
+		nameCache[slot] = name;
+		nameCacheStart[slot] = start;
+		nameCacheLength[slot] = length;
+		return name;
+	}
+
+	private boolean regionMatches(final int first, final int second, final int length) {
+		for (int i = 0; i < length; i++) {
+			if (data[first + i] != data[second + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create the value for a leaf tag. The original parser removed every newline
+	 * that followed a {@code >}, including the one that may lead off a value, and
+	 * that is preserved here. Entity decoding mirrors
+	 * {@link Tag#setValue(String, boolean)}.
+	 */
+	private String decodeValue(final int start, final int end) {
+		boolean needsCopy = false;
+		for (int i = start; i < end; i++) {
+			byte b = data[i];
+			if ((b == AMP && decode) || (b == LF && (i == start || data[i - 1] == GT))) {
+				needsCopy = true;
+				break;
+			}
+		}
+
+		if (!needsCopy) {
+			return new String(data, start, end - start, charset);
+		}
+
+		if (scratch == null || scratch.length < end - start) {
+			scratch = new byte[Math.max(end - start, 256)];
+		}
+
+		int out = 0;
+		for (int i = start; i < end; i++) {
+			byte b = data[i];
+			if (b == LF && (i == start || data[i - 1] == GT)) {
+				continue;
+			}
+
+			if (b == AMP && decode) {
+				if (matches(i, end, AMP_ENTITY)) {
+					scratch[out++] = '&';
+					i += AMP_ENTITY.length - 1;
+					continue;
+				} else if (matches(i, end, LT_ENTITY)) {
+					scratch[out++] = '<';
+					i += LT_ENTITY.length - 1;
+					continue;
+				} else if (matches(i, end, GT_ENTITY)) {
+					scratch[out++] = '>';
+					i += GT_ENTITY.length - 1;
+					continue;
+				} else if (matches(i, end, QUOTE_ENTITY)) {
+					scratch[out++] = '"';
+					i += QUOTE_ENTITY.length - 1;
+					continue;
+				} else if (matches(i, end, APOS_ENTITY)) {
+					scratch[out++] = '`';
+					i += APOS_ENTITY.length - 1;
+					continue;
+				}
+			}
+
+			scratch[out++] = b;
+		}
+
+		return new String(scratch, 0, out, charset);
+	}
+
+	private boolean matches(final int at, final int end, final byte[] entity) {
+		if (at + entity.length > end) {
+			return false;
+		}
+		for (int i = 0; i < entity.length; i++) {
+			if (data[at + i] != entity[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,241 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serializes a {@link Tag} tree into the iRODS XML protocol, writing tags and
+ * escaped values straight into a single, reusable byte buffer in the connection
+ * encoding.
+ * <p>
+ * The bytes produced are the same as those of {@code Tag.parseTag()} encoded
+ * in the given character set, but without building and concatenating a
+ * {@code String} at each level of nesting. The buffer is retained between
+ * messages, so a connection can hold one writer and serialize every request
+ * into it, handing {@link #getBuffer()} and {@link #size()} to the socket.
+ * <p>
+ * This class is not thread safe, and is meant to be owned by one connection.
+ */
+public class TagWriter {
+
+	/**
+	 * Initial size of the buffer, large enough for most requests
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+	/**
+	 * Buffers grown past this size by a large request are released on
+	 * {@link #reset()}, so an occasional bulk message does not pin memory for the
+	 * life of the connection
+	 */
+	public static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+	private static final byte[] NULL_VALUE = { 'n', 'u', 'l', 'l' };
+
+	private final Charset charset;
+	private final boolean asciiCompatible;
+	private byte[] buffer;
+	private int count = 0;
+
+	/**
+	 * Create a writer that encodes values in the given character set
+	 *
+	 * @param encoding
+	 *            {@code String} with the character encoding, typically the
+	 *            default encoding from the pipeline configuration
+	 * @throws UnsupportedEncodingException
+	 *             if the encoding is not supported
+	 */
+	public TagWriter(final String encoding) throws UnsupportedEncodingException {
+		if (encoding == null || encoding.isEmpty()) {
+			throw new IllegalArgumentException("null or empty encoding");
+		}
+
+		try {
+			charset = Charset.forName(encoding);
+		} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+			throw new UnsupportedEncodingException(encoding);
+		}
+
+		String markup = "</>&;\n";
+		asciiCompatible = Arrays.equals(markup.getBytes(charset), markup.getBytes(Charset.forName("US-ASCII")));
+		buffer = new byte[DEFAULT_BUFFER_SIZE];
+	}
+
+	/**
+	 * Discard the contents of the buffer so that the next message may be written
+	 */
+	public void reset() {
+		count = 0;
+		if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+			buffer = new byte[DEFAULT_BUFFER_SIZE];
+		}
+	}
+
+	/**
+	 * Append the serialized form of the tag, and all of its nested tags, to the
+	 * buffer
+	 *
+	 * @param tag
+	 *            {@link Tag} to write
+	 */
+	public void write(final Tag tag) {
+		if (tag == null) {
+			throw new IllegalArgumentException("null tag");
+		}
+
+		if (!asciiCompatible) {
+			writeString(tag.parseTag());
+			return;
+		}
+
+		writeTag(tag);
+	}
+
+	/**
+	 * Append an already formatted protocol message to the buffer, encoded in the
+	 * character set of this writer
+	 *
+	 * @param message
+	 *            {@code String} with the message to write
+	 */
+	public void writeString(final String message) {
+		if (message == null) {
+			return;
+		}
+		byte[] bytes = message.getBytes(charset);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, count, bytes.length);
+		count += bytes.length;
+	}
+
+	/**
+	 * @return {@code byte[]} that is the internal buffer, which is valid from
+	 *         zero to {@link #size()}. This is not a copy and will be overwritten
+	 *         after the next {@link #reset()}
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return {@code int} with the number of bytes written since the last reset
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @return {@code byte[]} with a copy of the bytes written
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, count);
+	}
+
+	/**
+	 * @return {@code String} with the contents of the buffer decoded in the
+	 *         character set of this writer, for logging
+	 */
+	@Override
+	public String toString() {
+		return new String(buffer, 0, count, charset);
+	}
+
+	private void writeTag(final Tag tag) {
+		writeByte(Tag.OPEN_START_TAG);
+		writeAscii(tag.tagName);
+		writeByte(Tag.CLOSE_START_TAG);
+
+		List<Tag> children = tag.tags;
+		if (children != null) {
+			for (int i = 0; i < children.size(); i++) {
+				writeTag(children.get(i));
+			}
+		} else if (tag.value == null) {
+			// parseTag() appends a null value as the string 'null'
+			ensureCapacity(NULL_VALUE.length);
+			System.arraycopy(NULL_VALUE, 0, buffer, count, NULL_VALUE.length);
+			count += NULL_VALUE.length;
+		} else {
+			writeEscaped(tag, tag.value);
+		}
+
+		writeByte('<');
+		writeByte('/');
+		writeAscii(tag.tagName);
+		writeByte(Tag.CLOSE_END_TAG);
+		writeByte('\n');
+	}
+
+	/**
+	 * Write a value, escaping the protocol markup characters in the same way as
+	 * {@code Tag.escapeChars()}. Values that are not plain ASCII are escaped and
+	 * then encoded as a whole.
+	 */
+	private void writeEscaped(final Tag tag, final String value) {
+		int length = value.length();
+		ensureCapacity(length);
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				writeString(tag.escapeChars(value.substring(i)));
+				return;
+			}
+
+			switch (c) {
+			case '&':
+				writeAscii(Tag.AMP);
+				break;
+			case '<':
+				writeAscii(Tag.LT);
+				break;
+			case '>':
+				writeAscii(Tag.GT);
+				break;
+			case '"':
+				writeAscii(Tag.QUOTE);
+				break;
+			case '`':
+				writeAscii(Tag.APOS);
+				break;
+			default:
+				writeByte(c);
+			}
+		}
+	}
+
+	/**
+	 * Write a tag name or entity, falling back to encoding for any name that is
+	 * not plain ASCII
+	 */
+	private void writeAscii(final String value) {
+		int length = value.length();
+		ensureCapacity(length);
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				writeString(value.substring(i));
+				return;
+			}
+			buffer[count++] = (byte) c;
+		}
+	}
+
+	private void writeByte(final int b) {
+		ensureCapacity(1);
+		buffer[count++] = (byte) b;
+	}
+
+	private void ensureCapacity(final int additional) {
+		int required = count + additional;
+		if (required > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+		}
+	}
+
+}
@@ -32,8 +32,27 @@ public class TransferOptions {
 	public static final int DEFAULT_UDP_SEND_RATE = 600000;
 	public static final int DEFAULT_UDP_PACKET_SIZE = 8192;
 	public static final int DEFAULT_MAX_PARALLEL_THREADS = 4;
+	public static final long DEFAULT_SMALL_FILE_AGGREGATION_BUNDLE_SIZE = 64L * 1024L * 1024L;
 
 	private int maxThreads = DEFAULT_MAX_PARALLEL_THREADS;
+	/**
+	 * Number of files transferred at once in a recursive transfer of a collection
+	 */
+	private int recursiveTransferThreads = 1;
+	/**
+	 * Largest file size in bytes packed into tar bundles in a recursive put, 0 if
+	 * files are not bundled
+	 */
+	private long smallFileAggregationThreshold = 0L;
+	/**
+	 * Size in bytes at which a bundle of small files is extracted in iRODS
+	 */
+	private long smallFileAggregationBundleSize = DEFAULT_SMALL_FILE_AGGREGATION_BUNDLE_SIZE;
+	/**
+	 * Request the parallel thread count that sampled throughput showed best for
+	 * the host and file size, rather than always the maximum threads
+	 */
+	private boolean adaptiveParallelThreads = false;
 	private int udpSendRate = DEFAULT_UDP_SEND_RATE;
 	private int udpPacketSize = DEFAULT_UDP_PACKET_SIZE;
 	private boolean allowPutGetResourceRedirects = false;
@@ -79,7 +98,11 @@ public class TransferOptions {
 	@Override
 	public synchronized String toString() {
 		StringBuilder builder = new StringBuilder();
-		builder.append("TransferOptions [maxThreads=").append(maxThreads).append(", udpSendRate=").append(udpSendRate)
+		builder.append("TransferOptions [maxThreads=").append(maxThreads).append(", recursiveTransferThreads=")
+				.append(recursiveTransferThreads).append(", smallFileAggregationThreshold=")
+				.append(smallFileAggregationThreshold).append(", smallFileAggregationBundleSize=")
+				.append(smallFileAggregationBundleSize).append(", adaptiveParallelThreads=")
+				.append(adaptiveParallelThreads).append(", udpSendRate=").append(udpSendRate)
 				.append(", udpPacketSize=").append(udpPacketSize).append(", allowPutGetResourceRedirects=")
 				.append(allowPutGetResourceRedirects).append(", intraFileStatusCallbacks=")
 				.append(intraFileStatusCallbacks).append(", ");
@@ -116,6 +139,10 @@ public class TransferOptions {
 
 			synchronized (this) {
 				setMaxThreads(transferOptions.getMaxThreads());
+				setRecursiveTransferThreads(transferOptions.getRecursiveTransferThreads());
+				setSmallFileAggregationThreshold(transferOptions.getSmallFileAggregationThreshold());
+				setSmallFileAggregationBundleSize(transferOptions.getSmallFileAggregationBundleSize());
+				setAdaptiveParallelThreads(transferOptions.isAdaptiveParallelThreads());
 				setUdpPacketSize(transferOptions.getUdpPacketSize());
 				setUdpSendRate(transferOptions.getUdpSendRate());
 				setAllowPutGetResourceRedirects(transferOptions.isAllowPutGetResourceRedirects());
@@ -162,6 +189,105 @@ public class TransferOptions {
 		this.maxThreads = maxThreads;
 	}
 
+	/**
+	 * Get the number of files transferred at once in a recursive transfer of a
+	 * collection, each on its own connection to iRODS. A recursive put with a
+	 * small file aggregation threshold above 0 ignores this and puts one file or
+	 * bundle at a time.
+	 *
+	 * @return {@code int} with the number of files transferred at once. 1 means
+	 *         one file at a time.
+	 */
+	public synchronized int getRecursiveTransferThreads() {
+		return recursiveTransferThreads;
+	}
+
+	/**
+	 * Set the number of files transferred at once in a recursive transfer of a
+	 * collection, each on its own connection to iRODS. A recursive put with a
+	 * small file aggregation threshold above 0 ignores this and puts one file or
+	 * bundle at a time.
+	 *
+	 * @param recursiveTransferThreads {@code int} with the number of files
+	 *                                 transferred at once, 1 or less for one file
+	 *                                 at a time.
+	 */
+	public synchronized void setRecursiveTransferThreads(final int recursiveTransferThreads) {
+		this.recursiveTransferThreads = recursiveTransferThreads;
+	}
+
+	/**
+	 * Get the largest file size in bytes that a recursive put packs into tar
+	 * bundles, which are streamed to iRODS and extracted there with a bulk
+	 * registration rather than each file being put on its own. Above 0 this takes
+	 * precedence over the recursive transfer threads, so the bundles and the
+	 * larger files of the put are sent one at a time, in the order of the walk.
+	 *
+	 * @return {@code long} with the largest file size in bytes that is bundled. 0
+	 *         means files are not bundled.
+	 */
+	public synchronized long getSmallFileAggregationThreshold() {
+		return smallFileAggregationThreshold;
+	}
+
+	/**
+	 * Set the largest file size in bytes that a recursive put packs into tar
+	 * bundles, which are streamed to iRODS and extracted there with a bulk
+	 * registration rather than each file being put on its own. Above 0 this takes
+	 * precedence over the recursive transfer threads, so the bundles and the
+	 * larger files of the put are sent one at a time, in the order of the walk.
+	 *
+	 * @param smallFileAggregationThreshold {@code long} with the largest file
+	 *                                      size in bytes that is bundled, 0 for
+	 *                                      no bundling.
+	 */
+	public synchronized void setSmallFileAggregationThreshold(final long smallFileAggregationThreshold) {
+		this.smallFileAggregationThreshold = smallFileAggregationThreshold;
+	}
+
+	/**
+	 * Get the size in bytes at which a bundle of small files in a recursive put
+	 * is extracted in iRODS and the next bundle started
+	 *
+	 * @return {@code long} with the size in bytes of a bundle
+	 */
+	public synchronized long getSmallFileAggregationBundleSize() {
+		return smallFileAggregationBundleSize;
+	}
+
+	/**
+	 * Set the size in bytes at which a bundle of small files in a recursive put
+	 * is extracted in iRODS and the next bundle started
+	 *
+	 * @param smallFileAggregationBundleSize {@code long} with the size in bytes
+	 *                                       of a bundle
+	 */
+	public synchronized void setSmallFileAggregationBundleSize(final long smallFileAggregationBundleSize) {
+		this.smallFileAggregationBundleSize = smallFileAggregationBundleSize;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if parallel transfers request the
+	 *         thread count that sampled throughput showed best for the host and
+	 *         file size, up to the maximum threads
+	 */
+	public synchronized boolean isAdaptiveParallelThreads() {
+		return adaptiveParallelThreads;
+	}
+
+	/**
+	 * Set whether parallel transfers tune the number of threads requested from
+	 * iRODS. The throughput of the first part of each parallel transfer is
+	 * sampled and kept for the host and file size, and later transfers request
+	 * the thread count that did best, up to the maximum threads.
+	 *
+	 * @param adaptiveParallelThreads {@code boolean} of {@code true} to tune the
+	 *                                parallel thread count
+	 */
+	public synchronized void setAdaptiveParallelThreads(final boolean adaptiveParallelThreads) {
+		this.adaptiveParallelThreads = adaptiveParallelThreads;
+	}
+
 	/**
 	 * Get the UDP send rate if UDP transfers in use.
 	 *
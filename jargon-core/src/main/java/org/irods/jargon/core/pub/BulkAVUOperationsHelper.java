@@ -0,0 +1,245 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.apiplugin.atomicmetadata.AtomicMetadataOperation;
+import org.irods.jargon.core.pub.apiplugin.atomicmetadata.AtomicMetadataRequest;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Applies the bulk AVU operations of the access objects, sending the AVUs in
+ * batches through the atomic metadata API plugin when iRODS provides it, rather
+ * than one request per AVU.
+ * <p>
+ * An atomic request is applied in whole or not at all, so when iRODS refuses a
+ * batch, for instance because one of the AVUs to add already exists, the AVUs in
+ * that batch are applied one at a time by the access object, giving the same
+ * {@link BulkAVUOperationResponse} for each AVU as without batching. If iRODS
+ * does not have the plugin, AVUs are applied one at a time from then on, and
+ * this is remembered in the {@link DiscoveredServerPropertiesCache} when it is
+ * in use.
+ *
+ */
+class BulkAVUOperationsHelper {
+
+	private static final Logger log = LoggerFactory.getLogger(BulkAVUOperationsHelper.class);
+
+	static final String ENTITY_TYPE_DATA_OBJECT = "data_object";
+	static final String ENTITY_TYPE_COLLECTION = "collection";
+	static final String ENTITY_TYPE_RESOURCE = "resource";
+	static final String ENTITY_TYPE_USER = "user";
+
+	static final String OPERATION_ADD = "add";
+	static final String OPERATION_REMOVE = "remove";
+
+	/**
+	 * Applies a single AVU the way the access object does without batching
+	 */
+	interface SingleAVUOperation {
+
+		/**
+		 * @param avuData {@link AvuData} to apply
+		 * @return {@link BulkAVUOperationResponse} with the result for the AVU
+		 * @throws JargonException for iRODS errors that are not reported in the
+		 *                         response
+		 */
+		BulkAVUOperationResponse apply(AvuData avuData) throws JargonException;
+	}
+
+	private final IRODSGenericAO irodsGenericAO;
+
+	/**
+	 * @param irodsGenericAO {@link IRODSGenericAO} whose connection and
+	 *                       properties are used
+	 */
+	BulkAVUOperationsHelper(final IRODSGenericAO irodsGenericAO) {
+		if (irodsGenericAO == null) {
+			throw new IllegalArgumentException("null irodsGenericAO");
+		}
+		this.irodsGenericAO = irodsGenericAO;
+	}
+
+	/**
+	 * Apply the operation to every AVU for the entity
+	 *
+	 * @param entityType         {@code String} with the atomic metadata entity
+	 *                           type
+	 * @param entityName         {@code String} with the path or name of the
+	 *                           entity
+	 * @param operation          {@code String} with the atomic metadata operation
+	 * @param avuData            {@code List} of {@link AvuData} to apply
+	 * @param singleAVUOperation {@link SingleAVUOperation} that applies one AVU
+	 *                           without batching
+	 * @return {@code List} of {@link BulkAVUOperationResponse} in the order of
+	 *         {@code avuData}
+	 * @throws JargonException for iRODS errors that are not reported in the
+	 *                         responses
+	 */
+	List<BulkAVUOperationResponse> apply(final String entityType, final String entityName, final String operation,
+			final List<AvuData> avuData, final SingleAVUOperation singleAVUOperation) throws JargonException {
+
+		if (entityType == null || entityType.isEmpty()) {
+			throw new IllegalArgumentException("null or empty entityType");
+		}
+
+		if (entityName == null || entityName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty entityName");
+		}
+
+		if (operation == null || operation.isEmpty()) {
+			throw new IllegalArgumentException("null or empty operation");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		if (singleAVUOperation == null) {
+			throw new IllegalArgumentException("null singleAVUOperation");
+		}
+
+		int batchSize = irodsGenericAO.getJargonProperties().getAtomicMetadataBatchSize();
+		boolean atomic = batchSize > 0 && isAtomicMetadataAvailable();
+		log.debug("atomic metadata requests:{}, batch size:{}", atomic, batchSize);
+
+		BulkAVUOperationResponse[] responses = new BulkAVUOperationResponse[avuData.size()];
+		List<Integer> batch = new ArrayList<Integer>();
+
+		for (int i = 0; i < avuData.size(); i++) {
+			if (!atomic || !isBatchable(operation, avuData.get(i))) {
+				responses[i] = singleAVUOperation.apply(avuData.get(i));
+				continue;
+			}
+
+			batch.add(i);
+			if (batch.size() == batchSize) {
+				atomic = applyBatch(entityType, entityName, operation, avuData, batch, responses, singleAVUOperation);
+				batch.clear();
+			}
+		}
+
+		if (!batch.isEmpty()) {
+			applyBatch(entityType, entityName, operation, avuData, batch, responses, singleAVUOperation);
+		}
+
+		return Arrays.asList(responses);
+	}
+
+	/**
+	 * Send one atomic request for the AVUs at the given indexes, falling back to
+	 * one request per AVU if it is refused
+	 *
+	 * @return {@code boolean} of {@code true} if atomic requests may be used for
+	 *         later batches
+	 */
+	private boolean applyBatch(final String entityType, final String entityName, final String operation,
+			final List<AvuData> avuData, final List<Integer> batch, final BulkAVUOperationResponse[] responses,
+			final SingleAVUOperation singleAVUOperation) throws JargonException {
+
+		log.debug("sending atomic request for {} AVUs", batch.size());
+
+		AtomicMetadataRequest request = new AtomicMetadataRequest();
+		request.setEntityName(entityName);
+		request.setEntityType(entityType);
+		for (Integer index : batch) {
+			AvuData value = avuData.get(index);
+			AtomicMetadataOperation atomicMetadataOperation = new AtomicMetadataOperation();
+			atomicMetadataOperation.setOperation(operation);
+			atomicMetadataOperation.setAttribute(value.getAttribute());
+			atomicMetadataOperation.setValue(value.getValue());
+			atomicMetadataOperation.setUnits(value.getUnit());
+			request.getOperations().add(atomicMetadataOperation);
+		}
+
+		boolean available = true;
+		try {
+			String requestString = IRODSSession.objectMapper.writeValueAsString(request);
+			ApiPluginExecutor apiPluginExecutor = irodsGenericAO.getIRODSAccessObjectFactory()
+					.getApiPluginExecutor(irodsGenericAO.getIRODSAccount());
+			try {
+				apiPluginExecutor.callPluggableApi(ApiPluginConstants.ATOMIC_APPLY_METADATA_OPERATIONS_APN,
+						requestString);
+			} finally {
+				if (entityType.equals(ENTITY_TYPE_DATA_OBJECT) || entityType.equals(ENTITY_TYPE_COLLECTION)) {
+					irodsGenericAO.invalidateMetadataCache(entityName);
+				}
+			}
+			for (Integer index : batch) {
+				responses[index] = BulkAVUOperationResponse.instance(BulkAVUOperationResponse.ResultStatus.OK,
+						avuData.get(index), "");
+			}
+			return true;
+		} catch (JsonProcessingException e) {
+			log.error("error writing json", e);
+			throw new JargonException("error writing atomic metadata request", e);
+		} catch (JargonException je) {
+			if (je.getUnderlyingIRODSExceptionCode() == ErrorEnum.SYS_UNMATCHED_API_NUM.getInt()) {
+				log.warn("atomic metadata api plugin is not available, applying AVUs one at a time");
+				cacheAtomicMetadataUnavailable();
+				available = false;
+			} else {
+				log.info("atomic metadata request refused, applying the AVUs in the batch one at a time", je);
+			}
+		}
+
+		for (Integer index : batch) {
+			responses[index] = singleAVUOperation.apply(avuData.get(index));
+		}
+		return available;
+	}
+
+	/**
+	 * AVUs are removed one at a time with wildcard matching, so only removals
+	 * with no wildcard characters give the same result from an atomic request,
+	 * which matches exactly
+	 */
+	private static boolean isBatchable(final String operation, final AvuData avuData) {
+		if (!OPERATION_REMOVE.equals(operation)) {
+			return true;
+		}
+		return !hasWildcard(avuData.getAttribute()) && !hasWildcard(avuData.getValue())
+				&& !hasWildcard(avuData.getUnit());
+	}
+
+	private static boolean hasWildcard(final String value) {
+		return value.indexOf('%') > -1 || value.indexOf('_') > -1;
+	}
+
+	private boolean isAtomicMetadataAvailable() throws JargonException {
+		if (!irodsGenericAO.getIRODSServerProperties().isSupportsAtomicMetadataOperations()) {
+			return false;
+		}
+
+		if (irodsGenericAO.getIRODSAccessObjectFactory().isUsingDynamicServerPropertiesCache()) {
+			String cached = irodsGenericAO.getIRODSSession().getDiscoveredServerPropertiesCache().retrieveValue(
+					irodsGenericAO.getIRODSAccount().getHost(), irodsGenericAO.getIRODSAccount().getZone(),
+					DiscoveredServerPropertiesCache.ATOMIC_METADATA_SUPPORTED);
+			if (DiscoveredServerPropertiesCache.IS_FALSE.equals(cached)) {
+				log.debug("cached that atomic metadata is not available");
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void cacheAtomicMetadataUnavailable() throws JargonException {
+		if (irodsGenericAO.getIRODSAccessObjectFactory().isUsingDynamicServerPropertiesCache()) {
+			irodsGenericAO.getIRODSSession().getDiscoveredServerPropertiesCache().cacheAProperty(
+					irodsGenericAO.getIRODSAccount().getHost(), irodsGenericAO.getIRODSAccount().getZone(),
+					DiscoveredServerPropertiesCache.ATOMIC_METADATA_SUPPORTED, DiscoveredServerPropertiesCache.IS_FALSE);
+		}
+	}
+
+}
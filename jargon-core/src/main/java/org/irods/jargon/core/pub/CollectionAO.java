@@ -788,6 +788,10 @@ public interface CollectionAO extends FileCatalogObjectAO {
 	 *
 	 * This method will return a collection of individual success or failure for
 	 * each AVU.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
 	 *
 	 * @param absolutePath {@code String} with the absolute path for the collection
 	 * @param avuData      {@code List} of {@link AvuData} with the AVU values to be
@@ -807,6 +811,10 @@ public interface CollectionAO extends FileCatalogObjectAO {
 	 *
 	 * This method will return a collection of individual success or failure for
 	 * each AVU.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
 	 *
 	 * @param absolutePath {@code String} with the absolute path for the collection
 	 * @param avuData      {@code List} of
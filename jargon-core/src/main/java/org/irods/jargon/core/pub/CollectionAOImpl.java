@@ -359,26 +359,30 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
-
-		for (AvuData value : avuData) {
-			try {
-				addAVUMetadata(absolutePath, value);
-			} catch (FileNotFoundException dnf) {
-				log.error("FileNotFoundException when adding an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-			} catch (DuplicateDataException dde) {
-				log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value, dde.getMessage()));
-				continue;
-
-			}
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
-		}
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_COLLECTION, myPath, BulkAVUOperationsHelper.OPERATION_ADD,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							addAVUMetadata(absolutePath, value);
+						} catch (FileNotFoundException dnf) {
+							log.error("FileNotFoundException when adding an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						} catch (DuplicateDataException dde) {
+							log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
+							return BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value,
+									dde.getMessage());
+						}
+
+						log.info("treat as success...", value);
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
 
 		log.info("...complete");
 		return responses;
@@ -397,26 +401,34 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 		log.info("deleteBulkAVUMetadataToCollection()");
 
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty absolute path");
+		}
+
 		if (avuData == null || avuData.isEmpty()) {
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
-
-		for (AvuData value : avuData) {
-			try {
-				deleteAVUMetadata(absolutePath, value);
-			} catch (FileNotFoundException dnf) {
-				log.error("FileNotFoundException when deleti an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-
-			}
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
-		}
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_COLLECTION, myPath, BulkAVUOperationsHelper.OPERATION_REMOVE,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							deleteAVUMetadata(absolutePath, value);
+						} catch (FileNotFoundException dnf) {
+							log.error("FileNotFoundException when deleti an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						}
+
+						log.info("treat as success...", value);
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
 
 		log.info("...complete");
 		return responses;
@@ -464,6 +476,8 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 			log.error("jargon exception adding AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(myPath);
 		}
 
 		log.debug("metadata added");
@@ -510,6 +524,8 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 			log.error("jargon exception adding AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(myPath);
 		}
 
 		log.debug("metadata added");
@@ -554,6 +570,8 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 			log.error("jargon exception removing AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(myPath);
 		}
 
 		log.debug("metadata removed");
@@ -710,6 +728,8 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 			log.error("jargon exception modifying AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(myPath);
 		}
 
 		log.debug("metadata rewritten");
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.MetadataCache;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.FileNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
@@ -289,12 +290,7 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 
 		log.info("querying for children...");
 
-		final List<CollectionAndDataObjectListingEntry> entries = new ArrayList<>();
-
-		entries.addAll(collectionListingUtils.listCollectionsUnderPath(objStat, 0));
-		entries.addAll(collectionListingUtils.listDataObjectsUnderPath(objStat, 0));
-
-		return entries;
+		return listDataObjectsAndCollectionsUnderObjStat(objStat, collectionListingUtils);
 	}
 
 	@Override
@@ -313,11 +309,36 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 
 		final CollectionListingUtils collectionListingUtils = new CollectionListingUtils(getIRODSAccount(),
 				getIRODSAccessObjectFactory());
+		return listDataObjectsAndCollectionsUnderObjStat(objStat, collectionListingUtils);
+	}
+
+	/**
+	 * List the collections and then the data objects under a collection, from the
+	 * metadata cache of the session if it is on and holds the listing
+	 */
+	private List<CollectionAndDataObjectListingEntry> listDataObjectsAndCollectionsUnderObjStat(
+			final ObjStat objStat, final CollectionListingUtils collectionListingUtils) throws JargonException {
+
+		MetadataCache metadataCache = getIRODSSession().getMetadataCache();
+		long cacheGeneration = 0L;
+		if (metadataCache != null) {
+			List<CollectionAndDataObjectListingEntry> cachedEntries = metadataCache.getListing(getIRODSAccount(),
+					objStat.getAbsolutePath());
+			if (cachedEntries != null) {
+				log.info("listing from cache");
+				return cachedEntries;
+			}
+			cacheGeneration = metadataCache.currentGeneration();
+		}
+
 		final List<CollectionAndDataObjectListingEntry> entries = new ArrayList<>();
 
 		entries.addAll(collectionListingUtils.listCollectionsUnderPath(objStat, 0));
 		entries.addAll(collectionListingUtils.listDataObjectsUnderPath(objStat, 0));
 
+		if (metadataCache != null) {
+			metadataCache.putListing(getIRODSAccount(), objStat.getAbsolutePath(), entries, cacheGeneration);
+		}
 		return entries;
 	}
 
@@ -5,13 +5,16 @@ package org.irods.jargon.core.pub;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.MetadataCache;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.FileDriverError;
 import org.irods.jargon.core.exception.FileNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.packinstr.DataObjInpForObjStat;
 import org.irods.jargon.core.packinstr.DataObjInpForQuerySpecColl;
 import org.irods.jargon.core.packinstr.SpecColInfo;
@@ -25,6 +28,7 @@ import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
 import org.irods.jargon.core.query.GenQueryBuilderException;
 import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.irods.jargon.core.query.GenQueryResultIterator;
 import org.irods.jargon.core.query.IRODSGenQueryBuilder;
 import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
 import org.irods.jargon.core.query.IRODSQueryResultRow;
@@ -506,18 +510,19 @@ class CollectionListingUtils {
 		 * query
 		 */
 		String effectiveAbsolutePath = MiscIRODSUtils.determineAbsolutePathBasedOnCollTypeInObjectStat(objStat);
+
+		if (objStat.getSpecColType() != SpecColType.STRUCT_FILE_COLL
+				&& objStat.getSpecColType() != SpecColType.MOUNTED_COLL) {
+			return listAllCollectionsUnderPathViaGenQuery(objStat, partialStartIndex, effectiveAbsolutePath);
+		}
+
 		List<CollectionAndDataObjectListingEntry> entries = new ArrayList<CollectionAndDataObjectListingEntry>();
 		boolean complete = false;
 		int myOffset = partialStartIndex;
 
 		while (!complete) {
 
-			if (objStat.getSpecColType() == SpecColType.STRUCT_FILE_COLL
-					|| objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
-				entries.addAll(listUnderPathWhenSpecColl(objStat, effectiveAbsolutePath, true, myOffset));
-			} else {
-				entries.addAll(listCollectionsUnderPathViaGenQuery(objStat, myOffset, effectiveAbsolutePath));
-			}
+			entries.addAll(listUnderPathWhenSpecColl(objStat, effectiveAbsolutePath, true, myOffset));
 
 			if (entries.isEmpty()) {
 				complete = true;
@@ -684,11 +689,48 @@ class CollectionListingUtils {
 				partialStartIndex, objStat);
 
 		subdirs = new ArrayList<>(resultSet.getResults().size());
+		addCollectionEntriesFromRows(objStat, effectiveAbsolutePath, resultSet.getResults().iterator(),
+				resultSet.getTotalRecords(), subdirs);
+		return subdirs;
+	}
+
+	/**
+	 * List all of the collections under a path with one query, following the
+	 * continuation of the query rather than requerying with an offset for each
+	 * page
+	 */
+	private List<CollectionAndDataObjectListingEntry> listAllCollectionsUnderPathViaGenQuery(final ObjStat objStat,
+			final int partialStartIndex, final String effectiveAbsolutePath) throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, false, true, null);
+		try {
+			IRODSFileSystemAOHelper.buildQueryListAllCollections(effectiveAbsolutePath, builder);
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder exception", e);
+			throw new JargonException("error building query", e);
+		}
+
+		List<CollectionAndDataObjectListingEntry> subdirs = new ArrayList<>();
+		try (GenQueryResultIterator rows = queryForPathAndReturnIterator(objStat.getAbsolutePath(), builder,
+				partialStartIndex)) {
+			addCollectionEntriesFromRows(objStat, effectiveAbsolutePath, rows, rows.getTotalRecords(), subdirs);
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+		return subdirs;
+	}
+
+	private void addCollectionEntriesFromRows(final ObjStat objStat, final String effectiveAbsolutePath,
+			final Iterator<IRODSQueryResultRow> rows, final int totalRecords,
+			final List<CollectionAndDataObjectListingEntry> subdirs) throws JargonException {
+
 		CollectionAndDataObjectListingEntry collectionAndDataObjectListingEntry = null;
+		IRODSQueryResultRow row;
 
-		for (IRODSQueryResultRow row : resultSet.getResults()) {
+		while (rows.hasNext()) {
+			row = rows.next();
 			collectionAndDataObjectListingEntry = CollectionAOHelper
-					.buildCollectionListEntryFromResultSetRowForCollectionQuery(row, resultSet.getTotalRecords());
+					.buildCollectionListEntryFromResultSetRowForCollectionQuery(row, totalRecords);
 
 			if (row.isLastResult()) {
 				log.info("last result!:{}", row);
@@ -707,8 +749,6 @@ class CollectionListingUtils {
 				subdirs.add(collectionAndDataObjectListingEntry);
 			}
 		}
-
-		return subdirs;
 	}
 
 	IRODSQueryResultSet queryForPathAndReturnResultSet(final String absolutePath, final IRODSGenQueryBuilder builder,
@@ -736,6 +776,42 @@ class CollectionListingUtils {
 		return resultSet;
 	}
 
+	/**
+	 * Run the query for the given path and return an iterator over all of the
+	 * results, beginning at the given offset
+	 */
+	private GenQueryResultIterator queryForPathAndReturnIterator(final String absolutePath,
+			final IRODSGenQueryBuilder builder, final int partialStartIndex) throws JargonException {
+
+		log.info("queryForPathAndReturnIterator for: {}", absolutePath);
+		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory.getIRODSGenQueryExecutor(irodsAccount);
+
+		try {
+			IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(
+					irodsAccessObjectFactory.getJargonProperties().getMaxFilesAndDirsQueryMax());
+			return irodsGenQueryExecutor.iterateIRODSQueryInZone(irodsQuery, partialStartIndex,
+					MiscIRODSUtils.getZoneInPath(absolutePath));
+		} catch (JargonQueryException e) {
+			log.error(QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException(e);
+		} catch (GenQueryBuilderException e) {
+			log.error(QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException(e);
+		}
+	}
+
+	/**
+	 * Errors in reading later pages of a query come out of the iterator as runtime
+	 * exceptions, present them as the original checked exception
+	 */
+	private JargonException unwrapQueryException(final JargonRuntimeException e) {
+		log.error("error reading query results", e);
+		if (e.getCause() instanceof JargonException) {
+			return (JargonException) e.getCause();
+		}
+		return new JargonException("error reading query results", e);
+	}
+
 	private void adjustEntryFromRowInCaseOfSpecialCollection(final ObjStat objStat, final String effectiveAbsolutePath,
 			final CollectionAndDataObjectListingEntry collectionAndDataObjectListingEntry) {
 		if (objStat.getSpecColType() == SpecColType.LINKED_COLL) {
@@ -821,18 +897,18 @@ class CollectionListingUtils {
 
 		log.info("listDataObjectsUnderPath for: {}", objStat);
 
+		if (objStat.getSpecColType() != SpecColType.STRUCT_FILE_COLL
+				&& objStat.getSpecColType() != SpecColType.MOUNTED_COLL) {
+			return listAllDataObjectsUnderPathViaGenQuery(objStat, partialStartIndex, effectiveAbsolutePath);
+		}
+
 		List<CollectionAndDataObjectListingEntry> entries = new ArrayList<CollectionAndDataObjectListingEntry>();
 		boolean complete = false;
 		int myOffset = partialStartIndex;
 
 		while (!complete) {
 
-			if (objStat.getSpecColType() == SpecColType.STRUCT_FILE_COLL
-					|| objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
-				entries.addAll(listUnderPathWhenSpecColl(objStat, effectiveAbsolutePath, false, myOffset));
-			} else {
-				entries.addAll(listDataObjectsUnderPathViaGenQuery(objStat, myOffset, effectiveAbsolutePath));
-			}
+			entries.addAll(listUnderPathWhenSpecColl(objStat, effectiveAbsolutePath, false, myOffset));
 
 			if (entries.isEmpty()) {
 				complete = true;
@@ -862,6 +938,34 @@ class CollectionListingUtils {
 		}
 
 		List<CollectionAndDataObjectListingEntry> files = new ArrayList<>(resultSet.getResults().size());
+		addDataObjectEntriesFromRows(objStat, effectiveAbsolutePath, resultSet.getResults().iterator(),
+				resultSet.getTotalRecords(), files);
+		return files;
+	}
+
+	/**
+	 * List all of the data objects under a path with one query, following the
+	 * continuation of the query rather than requerying with an offset for each
+	 * page
+	 */
+	private List<CollectionAndDataObjectListingEntry> listAllDataObjectsUnderPathViaGenQuery(final ObjStat objStat,
+			final int partialStartIndex, final String effectiveAbsolutePath) throws JargonException {
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, false, true, null);
+		IRODSFileSystemAOHelper.buildQueryListAllDataObjectsWithSizeAndDateInfo(effectiveAbsolutePath, builder);
+
+		List<CollectionAndDataObjectListingEntry> files = new ArrayList<>();
+		try (GenQueryResultIterator rows = queryForPathAndReturnIterator(effectiveAbsolutePath, builder,
+				partialStartIndex)) {
+			addDataObjectEntriesFromRows(objStat, effectiveAbsolutePath, rows, rows.getTotalRecords(), files);
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+		return files;
+	}
+
+	private void addDataObjectEntriesFromRows(final ObjStat objStat, final String effectiveAbsolutePath,
+			final Iterator<IRODSQueryResultRow> rows, final int totalRecords,
+			final List<CollectionAndDataObjectListingEntry> files) throws JargonException {
 
 		/*
 		 * the query that gives the necessary data will cause duplication when there are
@@ -870,9 +974,10 @@ class CollectionListingUtils {
 		String lastPath = "";
 		String currentPath = "";
 		CollectionAndDataObjectListingEntry entry;
-		for (IRODSQueryResultRow row : resultSet.getResults()) {
-			entry = CollectionAOHelper.buildCollectionListEntryFromResultSetRowForDataObjectQuery(row,
-					resultSet.getTotalRecords());
+		IRODSQueryResultRow row;
+		while (rows.hasNext()) {
+			row = rows.next();
+			entry = CollectionAOHelper.buildCollectionListEntryFromResultSetRowForDataObjectQuery(row, totalRecords);
 
 			/**
 			 * Use the data in the objStat, in the case of special collections, to augment
@@ -892,7 +997,6 @@ class CollectionListingUtils {
 			lastPath = currentPath;
 			files.add(entry);
 		}
-		return files;
 	}
 
 	/**
@@ -1170,6 +1274,17 @@ class CollectionListingUtils {
 
 		String myPath = MiscIRODSUtils.normalizeIrodsPath(irodsAbsolutePath);
 
+		MetadataCache metadataCache = irodsAccessObjectFactory.getIrodsSession().getMetadataCache();
+		long cacheGeneration = 0L;
+		if (metadataCache != null) {
+			ObjStat cachedObjStat = metadataCache.getObjStat(irodsAccount, myPath);
+			if (cachedObjStat != null) {
+				log.debug("objStat from cache:{}", myPath);
+				return cachedObjStat;
+			}
+			cacheGeneration = metadataCache.currentGeneration();
+		}
+
 		DataObjInpForObjStat dataObjInp = DataObjInpForObjStat.instance(myPath);
 		Tag response;
 		ObjStat objStat;
@@ -1276,6 +1391,9 @@ class CollectionListingUtils {
 		objStat.setModifiedAt(IRODSDataConversionUtil.getDateFromIRODSValue(modifiedDate));
 
 		log.info(objStat.toString());
+		if (metadataCache != null) {
+			metadataCache.putObjStat(irodsAccount, myPath, objStat, cacheGeneration);
+		}
 		return objStat;
 
 	}
@@ -0,0 +1,677 @@
+package org.irods.jargon.core.pub;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatus;
+import org.irods.jargon.core.transfer.TransferStatus.TransferState;
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transfers the files of a collection or local directory tree several at a
+ * time, for the recursive operations of {@link TransferOperationsHelper} when
+ * the {@code TransferOptions} ask for more than one recursive transfer thread.
+ * This keeps the server busy when a tree holds many small files, where a one
+ * file at a time transfer is dominated by round trips.
+ * <p>
+ * The calling thread walks the tree in the same order as a one file at a time
+ * transfer, creating the target collections or directories and applying the
+ * filter of the {@link TransferControlBlock}, so a restart skips the same
+ * files. Each file is then transferred by a worker of a work stealing
+ * {@link ForkJoinPool}. Each worker uses its own connection to iRODS, which is
+ * closed when the worker ends.
+ * <p>
+ * Callbacks to the {@link TransferStatusCallbackListener} are never made at the
+ * same time. The start of a file and the progress within it are reported as
+ * they happen, and the outcome of each file is reported in the order of the
+ * walk, once every file before it is done, so the last file reported complete
+ * is still a safe restart point. Cancelling or pausing the transfer control
+ * block stops the walk and the files not yet started, and a transfer that
+ * reaches the maximum number of errors is cancelled.
+ */
+final class ConcurrentRecursiveTransfer {
+
+	private static final Logger log = LoggerFactory.getLogger(ConcurrentRecursiveTransfer.class);
+
+	/**
+	 * Files walked but not yet reported, per thread, before the walk waits
+	 */
+	static final int PENDING_FILES_PER_THREAD = 64;
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final int threads;
+	private final TransferStatusCallbackListener transferStatusCallbackListener;
+	private final TransferControlBlock transferControlBlock;
+	private final CollectionAO collectionAO;
+	private final Semaphore pendingFiles;
+	private final AtomicInteger workerCount = new AtomicInteger();
+
+	/**
+	 * Guards the listener, and the outcomes waiting to be reported. This is not a
+	 * monitor, so that a worker waiting on a slow callback does not pin a virtual
+	 * thread.
+	 */
+	private final ReentrantLock callbackLock = new ReentrantLock();
+	private final Map<Long, List<TransferStatus>> finished = new HashMap<Long, List<TransferStatus>>();
+	private long nextToReport = 0;
+
+	/**
+	 * Used by the walking thread only
+	 */
+	private long nextSequence = 0;
+	private ForkJoinPool pool = null;
+
+	private volatile JargonException failure = null;
+
+	/**
+	 * Transfer of one file that has passed the filter
+	 */
+	private interface FileTransfer {
+
+		/**
+		 * @param transferOperationsHelper
+		 *            {@link TransferOperationsHelper} using the worker's connection
+		 * @param fileListener
+		 *            {@link TransferStatusCallbackListener} for the file, or
+		 *            {@code null} if the transfer has no listener
+		 * @throws JargonException
+		 *             for errors not reported to the listener
+		 */
+		void transfer(TransferOperationsHelper transferOperationsHelper, TransferStatusCallbackListener fileListener)
+				throws JargonException;
+	}
+
+	/**
+	 * @param irodsSession
+	 *            {@link IRODSSession} that connects the workers
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} for the transfer
+	 * @param threads
+	 *            {@code int} with the number of files transferred at once
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, or {@code null}, in
+	 *            which case the first error is thrown once the files in progress
+	 *            are done
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the transfer, required
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	ConcurrentRecursiveTransfer(final IRODSSession irodsSession, final IRODSAccount irodsAccount, final int threads,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads must be > 0");
+		}
+		if (transferControlBlock == null) {
+			throw new IllegalArgumentException("null transferControlBlock");
+		}
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		this.threads = threads;
+		this.transferStatusCallbackListener = transferStatusCallbackListener;
+		this.transferControlBlock = transferControlBlock;
+		collectionAO = IRODSAccessObjectFactoryImpl.instance(irodsSession).getCollectionAO(irodsAccount);
+		pendingFiles = new Semaphore(threads * PENDING_FILES_PER_THREAD);
+	}
+
+	/**
+	 * Put the contents of a local directory into an existing collection
+	 *
+	 * @param sourceFile
+	 *            {@code File} with the local directory
+	 * @param targetIrodsCollection
+	 *            {@link IRODSFile} with the collection to put into
+	 * @throws JargonException
+	 *             for the first error when there is no listener
+	 */
+	void put(final File sourceFile, final IRODSFile targetIrodsCollection) throws JargonException {
+		log.info("concurrent put of:{} with {} threads", sourceFile.getAbsolutePath(), threads);
+		start();
+		try {
+			walkPut(sourceFile, targetIrodsCollection);
+		} finally {
+			finish();
+		}
+		throwFailure();
+	}
+
+	/**
+	 * Get the contents of a collection into an existing local directory
+	 *
+	 * @param irodsSourceFile
+	 *            {@link IRODSFile} with the collection
+	 * @param targetLocalFile
+	 *            {@code File} with the local directory to get into
+	 * @throws JargonException
+	 *             for the first error when there is no listener
+	 */
+	void get(final IRODSFile irodsSourceFile, final File targetLocalFile) throws JargonException {
+		log.info("concurrent get of:{} with {} threads", irodsSourceFile.getAbsolutePath(), threads);
+		start();
+		try {
+			walkGet(irodsSourceFile, targetLocalFile);
+		} finally {
+			finish();
+		}
+		throwFailure();
+	}
+
+	/**
+	 * Copy the contents of a collection into an existing collection
+	 *
+	 * @param irodsSourceFile
+	 *            {@link IRODSFile} with the collection
+	 * @param targetResource
+	 *            {@code String} with the resource to copy to, blank for the
+	 *            default
+	 * @param targetIrodsFileAbsolutePath
+	 *            {@code String} with the collection to copy into
+	 * @throws JargonException
+	 *             for the first error when there is no listener
+	 */
+	void copy(final IRODSFile irodsSourceFile, final String targetResource, final String targetIrodsFileAbsolutePath)
+			throws JargonException {
+		log.info("concurrent copy of:{} with {} threads", irodsSourceFile.getAbsolutePath(), threads);
+		start();
+		try {
+			walkCopy(irodsSourceFile, targetResource, targetIrodsFileAbsolutePath);
+		} finally {
+			finish();
+		}
+		throwFailure();
+	}
+
+	/**
+	 * Replicate the contents of a collection to a resource
+	 *
+	 * @param irodsSourceFile
+	 *            {@link IRODSFile} with the collection
+	 * @param targetResource
+	 *            {@code String} with the resource to replicate to
+	 * @throws JargonException
+	 *             for the first error when there is no listener
+	 */
+	void replicate(final IRODSFile irodsSourceFile, final String targetResource) throws JargonException {
+		log.info("concurrent replicate of:{} with {} threads", irodsSourceFile.getAbsolutePath(), threads);
+		start();
+		try {
+			walkReplicate(irodsSourceFile, targetResource);
+		} finally {
+			finish();
+		}
+		throwFailure();
+	}
+
+	private boolean walkPut(final File sourceFile, final IRODSFile targetIrodsCollection) throws JargonException {
+		File[] files = sourceFile.listFiles();
+		if (files == null) {
+			return true;
+		}
+
+		for (final File fileInSourceCollection : files) {
+			if (isStopped(TransferType.PUT, fileInSourceCollection, targetIrodsCollection.getAbsolutePath(), "")) {
+				return false;
+			}
+
+			String targetPath = targetIrodsCollection.getAbsolutePath() + "/" + fileInSourceCollection.getName();
+
+			if (fileInSourceCollection.isDirectory()) {
+				IRODSFile newSubCollection = collectionAO.instanceIRODSFileForCollectionPath(targetPath);
+				newSubCollection.setResource(targetIrodsCollection.getResource());
+				try {
+					newSubCollection.mkdirs();
+				} catch (RuntimeException e) {
+					reportError(TransferType.PUT, fileInSourceCollection.getAbsolutePath(), targetPath, "",
+							new JargonException(e));
+					continue;
+				}
+				if (!walkPut(fileInSourceCollection, newSubCollection)) {
+					return false;
+				}
+				continue;
+			}
+
+			if (!transferControlBlock.filter(fileInSourceCollection.getAbsolutePath())) {
+				reportFiltered(TransferType.PUT, fileInSourceCollection.getAbsolutePath(), targetPath, "");
+				continue;
+			}
+
+			final IRODSFile targetFileAsFile = collectionAO.getIRODSFileFactory().instanceIRODSFile(targetPath);
+			targetFileAsFile.setResource(targetIrodsCollection.getResource());
+			submit(new FileTransfer() {
+				@Override
+				public void transfer(final TransferOperationsHelper transferOperationsHelper,
+						final TransferStatusCallbackListener fileListener) throws JargonException {
+					transferOperationsHelper.putSingleFile(fileInSourceCollection, targetFileAsFile, fileListener,
+							transferControlBlock);
+				}
+			});
+		}
+		return true;
+	}
+
+	private boolean walkGet(final IRODSFile irodsSourceFile, final File targetLocalFile) throws JargonException {
+		for (File child : irodsSourceFile.listFiles()) {
+			final IRODSFile fileInSourceCollection = (IRODSFile) child;
+			fileInSourceCollection.setResource(irodsSourceFile.getResource());
+			final File target = new File(targetLocalFile, fileInSourceCollection.getName());
+
+			if (isStopped(TransferType.GET, child, targetLocalFile.getAbsolutePath(), "")) {
+				return false;
+			}
+
+			if (fileInSourceCollection.isDirectory()) {
+				log.info("recursively creating parent directory in local file system at: {}",
+						target.getAbsolutePath());
+				if (!target.mkdirs()) {
+					log.warn("unable to make directories in local file system, log and proceed");
+				}
+				if (!walkGet(fileInSourceCollection, target)) {
+					return false;
+				}
+				continue;
+			}
+
+			if (!transferControlBlock.filter(fileInSourceCollection.getAbsolutePath())) {
+				reportFiltered(TransferType.GET, fileInSourceCollection.getAbsolutePath(), target.getAbsolutePath(),
+						"");
+				continue;
+			}
+
+			submit(new FileTransfer() {
+				@Override
+				public void transfer(final TransferOperationsHelper transferOperationsHelper,
+						final TransferStatusCallbackListener fileListener) throws JargonException {
+					transferOperationsHelper.getSingleFile(fileInSourceCollection, target, fileListener,
+							transferControlBlock);
+				}
+			});
+		}
+		return true;
+	}
+
+	private boolean walkCopy(final IRODSFile irodsSourceFile, final String targetResource,
+			final String targetIrodsFileAbsolutePath) throws JargonException {
+		for (File fileInSourceCollection : irodsSourceFile.listFiles()) {
+			if (isStopped(TransferType.COPY, fileInSourceCollection, targetIrodsFileAbsolutePath, targetResource)) {
+				return false;
+			}
+
+			final String sourcePath = fileInSourceCollection.getAbsolutePath();
+			final String targetPath = targetIrodsFileAbsolutePath + "/" + fileInSourceCollection.getName();
+
+			if (fileInSourceCollection.isDirectory()) {
+				log.debug("source is a collection, create the target");
+				try {
+					collectionAO.instanceIRODSFileForCollectionPath(targetPath).mkdirs();
+				} catch (RuntimeException e) {
+					reportError(TransferType.COPY, sourcePath, targetPath, targetResource, new JargonException(e));
+					continue;
+				}
+				if (!walkCopy((IRODSFile) fileInSourceCollection, targetResource, targetPath)) {
+					return false;
+				}
+				continue;
+			}
+
+			if (!transferControlBlock.filter(sourcePath)) {
+				reportFiltered(TransferType.COPY, sourcePath, targetPath, targetResource);
+				continue;
+			}
+
+			submit(new FileTransfer() {
+				@Override
+				public void transfer(final TransferOperationsHelper transferOperationsHelper,
+						final TransferStatusCallbackListener fileListener) throws JargonException {
+					transferOperationsHelper.copySingleFile(sourcePath, targetResource, targetPath, fileListener,
+							transferControlBlock);
+				}
+			});
+		}
+		return true;
+	}
+
+	private boolean walkReplicate(final IRODSFile irodsSourceFile, final String targetResource)
+			throws JargonException {
+		for (File fileInSourceCollection : irodsSourceFile.listFiles()) {
+			if (isStopped(TransferType.REPLICATE, fileInSourceCollection, "", targetResource)) {
+				return false;
+			}
+
+			final String sourcePath = fileInSourceCollection.getAbsolutePath();
+
+			if (fileInSourceCollection.isDirectory()) {
+				if (!walkReplicate((IRODSFile) fileInSourceCollection, targetResource)) {
+					return false;
+				}
+				continue;
+			}
+
+			if (!transferControlBlock.filter(sourcePath)) {
+				reportFiltered(TransferType.REPLICATE, sourcePath, "", targetResource);
+				continue;
+			}
+
+			submit(new FileTransfer() {
+				@Override
+				public void transfer(final TransferOperationsHelper transferOperationsHelper,
+						final TransferStatusCallbackListener fileListener) throws JargonException {
+					transferOperationsHelper.replicateSingleFile(sourcePath, targetResource, fileListener,
+							transferControlBlock);
+				}
+			});
+		}
+		return true;
+	}
+
+	private void start() {
+		pool = new ForkJoinPool(threads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(final ForkJoinPool forkJoinPool) {
+				return new TransferWorker(forkJoinPool);
+			}
+		}, null, true);
+	}
+
+	/**
+	 * Wait for the files submitted to be done and the workers to close their
+	 * connections
+	 */
+	private void finish() {
+		pool.shutdown();
+		boolean interrupted = false;
+		while (true) {
+			try {
+				if (pool.awaitTermination(1, TimeUnit.MINUTES)) {
+					break;
+				}
+				log.debug("waiting for recursive transfer workers");
+			} catch (InterruptedException e) {
+				// files in progress finish, the rest are not started
+				log.info("interrupted waiting for workers, cancel and continue waiting");
+				transferControlBlock.setCancelled(true);
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void throwFailure() throws JargonException {
+		if (failure != null && !transferControlBlock.isCancelled()) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Check for a cancel or pause before each entry of the walk, reporting it as
+	 * the one at a time transfer does
+	 */
+	private boolean isStopped(final TransferType transferType, final File fileInSourceCollection,
+			final String targetPath, final String targetResource) throws JargonException {
+
+		if (Thread.interrupted()) {
+			log.info("cancellation detected, set cancelled in tcb");
+			transferControlBlock.setCancelled(true);
+		}
+
+		if (failure != null) {
+			return true;
+		}
+
+		if (!transferControlBlock.isCancelled() && !transferControlBlock.isPaused()) {
+			return false;
+		}
+
+		log.info("transfer cancelled or paused");
+		if (transferStatusCallbackListener != null) {
+			TransferState interruptStatus;
+			if (transferControlBlock.shouldTransferBeAbandonedDueToNumberOfErrors()) {
+				interruptStatus = TransferState.FAILURE;
+			} else if (transferControlBlock.isCancelled()) {
+				interruptStatus = TransferState.CANCELLED;
+			} else {
+				interruptStatus = TransferState.PAUSED;
+			}
+
+			// a copy does not track length
+			long length = transferType == TransferType.COPY ? 0L : fileInSourceCollection.length();
+			report(nextSequence(),
+					Collections.singletonList(TransferStatus.instance(transferType,
+							fileInSourceCollection.getAbsolutePath(), targetPath,
+							targetResource, length, length, transferControlBlock.getTotalFilesTransferredSoFar(),
+							transferControlBlock.getTotalFilesSkippedSoFar(),
+							transferControlBlock.getTotalFilesToTransfer(), interruptStatus, irodsAccount.getHost(),
+							irodsAccount.getZone())));
+		}
+		return true;
+	}
+
+	private void reportFiltered(final TransferType transferType, final String sourcePath, final String targetPath,
+			final String targetResource) {
+		log.info("file is filtered and discarded: {}", sourcePath);
+		transferControlBlock.incrementFilesSkippedSoFar();
+		if (transferStatusCallbackListener == null) {
+			return;
+		}
+		report(nextSequence(),
+				Collections.singletonList(TransferStatus.instance(transferType, sourcePath, targetPath,
+						targetResource, 0, 0, transferControlBlock.getTotalFilesTransferredSoFar(),
+						transferControlBlock.getTotalFilesSkippedSoFar(),
+						transferControlBlock.getTotalFilesToTransfer(), TransferState.RESTARTING,
+						irodsAccount.getHost(), irodsAccount.getZone())));
+	}
+
+	/**
+	 * Report an error creating or listing a collection or directory of the walk,
+	 * which is skipped
+	 */
+	private void reportError(final TransferType transferType, final String sourcePath, final String targetPath,
+			final String targetResource, final JargonException je) {
+		log.error("exception in transfer", je);
+		if (transferStatusCallbackListener == null) {
+			log.warn("exception will be re-thrown, as there is no status callback listener");
+			fail(je);
+			return;
+		}
+
+		transferControlBlock.reportErrorInTransfer();
+		checkMaximumErrors();
+		report(nextSequence(),
+				Collections.singletonList(TransferStatus.instanceForException(transferType, sourcePath, targetPath,
+						targetResource, 0L, 0L, transferControlBlock.getTotalFilesTransferredSoFar(),
+						transferControlBlock.getTotalFilesSkippedSoFar(),
+						transferControlBlock.getTotalFilesToTransfer(), je, irodsAccount.getHost(),
+						irodsAccount.getZone())));
+	}
+
+	private long nextSequence() {
+		pendingFiles.acquireUninterruptibly();
+		return nextSequence++;
+	}
+
+	private void submit(final FileTransfer fileTransfer) {
+		final long sequence = nextSequence();
+		pool.execute(new Runnable() {
+			@Override
+			public void run() {
+				runTransfer(sequence, fileTransfer);
+			}
+		});
+	}
+
+	/**
+	 * Run on a worker, reporting the outcome of the file in walk order
+	 */
+	private void runTransfer(final long sequence, final FileTransfer fileTransfer) {
+		FileListener fileListener = transferStatusCallbackListener == null ? null : new FileListener();
+		try {
+			if (failure == null && !transferControlBlock.isCancelled() && !transferControlBlock.isPaused()) {
+				TransferOperationsHelper transferOperationsHelper = ((TransferWorker) Thread.currentThread())
+						.getTransferOperationsHelper();
+				transferOperationsHelper.checkRenewalOfSocket();
+				fileTransfer.transfer(transferOperationsHelper, fileListener);
+				checkMaximumErrors();
+			}
+		} catch (JargonException e) {
+			log.error("exception in transfer", e);
+			fail(e);
+		} catch (RuntimeException e) {
+			log.error("unanticipated exception in transfer", e);
+			fail(new JargonException(e));
+		} finally {
+			report(sequence, fileListener == null ? Collections.<TransferStatus> emptyList() : fileListener.outcome);
+		}
+	}
+
+	private void checkMaximumErrors() {
+		if (transferControlBlock.shouldTransferBeAbandonedDueToNumberOfErrors()
+				&& !transferControlBlock.isCancelled()) {
+			log.warn("maximum errors reached, cancelling the transfer");
+			transferControlBlock.setCancelled(true);
+		}
+	}
+
+	private void fail(final JargonException e) {
+		callbackLock.lock();
+		try {
+			if (failure == null) {
+				failure = e;
+			}
+		} finally {
+			callbackLock.unlock();
+		}
+	}
+
+	/**
+	 * Hold the outcome of a file until every file before it in the walk is
+	 * reported
+	 */
+	private void report(final long sequence, final List<TransferStatus> outcome) {
+		callbackLock.lock();
+		try {
+			finished.put(sequence, outcome);
+			List<TransferStatus> next;
+			while ((next = finished.remove(nextToReport)) != null) {
+				nextToReport++;
+				pendingFiles.release();
+				for (TransferStatus transferStatus : next) {
+					try {
+						transferStatusCallbackListener.statusCallback(transferStatus);
+					} catch (JargonException e) {
+						log.error("exception in status callback", e);
+						fail(e);
+					}
+				}
+			}
+		} finally {
+			callbackLock.unlock();
+		}
+	}
+
+	/**
+	 * Listener for one file, passing on the start of the file and progress within
+	 * it, and keeping the outcome to report in walk order
+	 */
+	private final class FileListener implements TransferStatusCallbackListener {
+
+		private final List<TransferStatus> outcome = new ArrayList<TransferStatus>();
+
+		@Override
+		public FileStatusCallbackResponse statusCallback(final TransferStatus transferStatus)
+				throws JargonException {
+			if (transferStatus.isIntraFileStatusReport()
+					|| transferStatus.getTransferState() == TransferState.IN_PROGRESS_START_FILE) {
+				callbackLock.lock();
+				try {
+					return transferStatusCallbackListener.statusCallback(transferStatus);
+				} finally {
+					callbackLock.unlock();
+				}
+			}
+			outcome.add(transferStatus);
+			return FileStatusCallbackResponse.CONTINUE;
+		}
+
+		@Override
+		public void overallStatusCallback(final TransferStatus transferStatus) throws JargonException {
+			callbackLock.lock();
+			try {
+				transferStatusCallbackListener.overallStatusCallback(transferStatus);
+			} finally {
+				callbackLock.unlock();
+			}
+		}
+
+		@Override
+		public CallbackResponse transferAsksWhetherToForceOperation(final String irodsAbsolutePath,
+				final boolean isCollection) {
+			callbackLock.lock();
+			try {
+				return transferStatusCallbackListener.transferAsksWhetherToForceOperation(irodsAbsolutePath,
+						isCollection);
+			} finally {
+				callbackLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Worker thread holding its own connection, closed when the worker ends
+	 */
+	private final class TransferWorker extends ForkJoinWorkerThread {
+
+		private TransferOperationsHelper transferOperationsHelper = null;
+
+		private TransferWorker(final ForkJoinPool forkJoinPool) {
+			super(forkJoinPool);
+			setName("jargon-recursive-transfer-" + workerCount.incrementAndGet());
+		}
+
+		private TransferOperationsHelper getTransferOperationsHelper() throws JargonException {
+			if (transferOperationsHelper == null) {
+				transferOperationsHelper = TransferOperationsHelper.instance(irodsSession, irodsAccount);
+			}
+			return transferOperationsHelper;
+		}
+
+		@Override
+		protected void onTermination(final Throwable exception) {
+			try {
+				irodsSession.closeSession();
+			} catch (JargonException e) {
+				log.warn("error closing connections of recursive transfer worker", e);
+			} finally {
+				super.onTermination(exception);
+			}
+		}
+	}
+
+}
@@ -985,6 +985,10 @@ public interface DataObjectAO extends FileCatalogObjectAO {
 	 * returned giving individual success/failure information. For example, an
 	 * attempt to add a duplicate AVU will result in an error entry in the response
 	 * versus a thrown exception.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
 	 *
 	 * @param absolutePath {@code String} with the absolute path to the data object
 	 * @param avuData      {@code List} of {@link AvuData} for each AVU to be added.
@@ -1000,6 +1004,10 @@ public interface DataObjectAO extends FileCatalogObjectAO {
 	 * Given a list of avu metadata, delete all from the data object. A response
 	 * will be returned giving individual success/failure information. Note that a
 	 * delete of a non-existent AVU will be silently ignored
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
 	 *
 	 * @param absolutePath {@code String} with the absolute path to the data object
 	 * @param avuData      {@code List} of {@link AvuData} for each AVU to be
@@ -66,6 +66,7 @@ import org.irods.jargon.core.query.SpecificQueryResultSet;
 import org.irods.jargon.core.rule.IRODSRuleExecResult;
 import org.irods.jargon.core.rule.IRODSRuleParameter;
 import org.irods.jargon.core.rule.RuleInvocationConfiguration;
+import org.irods.jargon.core.transfer.AbstractParallelFileTransferStrategy;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
 import org.irods.jargon.core.transfer.FileRestartInfo;
@@ -75,6 +76,7 @@ import org.irods.jargon.core.transfer.FileRestartManagementException;
 import org.irods.jargon.core.transfer.GetTransferRestartProcessor;
 import org.irods.jargon.core.transfer.ParallelGetFileTransferStrategy;
 import org.irods.jargon.core.transfer.ParallelPutFileTransferStrategy;
+import org.irods.jargon.core.transfer.ParallelThreadCountTuner;
 import org.irods.jargon.core.transfer.PutTransferRestartProcessor;
 import org.irods.jargon.core.transfer.RestartFailedException;
 import org.irods.jargon.core.transfer.TransferControlBlock;
@@ -392,8 +394,12 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		TransferControlBlock effectiveTransferControlBlock = checkTransferControlBlockForOptionsAndSetDefaultsIfNotSpecified(
 				transferControlBlock);
 
-		putCommonProcessing(localFile, irodsFileDestination, ignoreChecks, effectiveTransferControlBlock,
-				transferStatusCallbackListener);
+		try {
+			putCommonProcessing(localFile, irodsFileDestination, ignoreChecks, effectiveTransferControlBlock,
+					transferStatusCallbackListener);
+		} finally {
+			invalidateMetadataCache(irodsFileDestination.getAbsolutePath());
+		}
 
 	}
 
@@ -435,7 +441,11 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		if (overwrite) {
 			effectiveTransferControlBlock.getTransferOptions().setForceOption(ForceOption.USE_FORCE);
 		}
-		putCommonProcessing(localFile, irodsFileDestination, false, effectiveTransferControlBlock, null);
+		try {
+			putCommonProcessing(localFile, irodsFileDestination, false, effectiveTransferControlBlock, null);
+		} finally {
+			invalidateMetadataCache(irodsFileDestination.getAbsolutePath());
+		}
 
 	}
 
@@ -482,7 +492,11 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 				transferControlBlock);
 
 		// no callback listener for client side operations, may add later
-		putCommonProcessing(localFile, irodsFileDestination, true, effectiveTransferControlBlock, null);
+		try {
+			putCommonProcessing(localFile, irodsFileDestination, true, effectiveTransferControlBlock, null);
+		} finally {
+			invalidateMetadataCache(irodsFileDestination.getAbsolutePath());
+		}
 
 	}
 
@@ -774,6 +788,15 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			myTransferOptions.setMaxThreads(-1);
 		}
 
+		ParallelThreadCountTuner parallelThreadCountTuner = buildParallelThreadCountTunerIfAdaptive(
+				myTransferOptions);
+		if (parallelThreadCountTuner != null) {
+			myTransferOptions.setMaxThreads(parallelThreadCountTuner.threadsToRequest(
+					AbstractParallelFileTransferStrategy.TransferType.PUT_TRANSFER, localFile.length(),
+					myTransferOptions.getMaxThreads()));
+			log.info("adaptive parallel threads, requesting {} threads", myTransferOptions.getMaxThreads());
+		}
+
 		ConnectionProgressStatusListener intraFileStatusListener = null;
 
 		boolean execFlag = false;
@@ -819,7 +842,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 				 * restart processing is done inside of the parallel put code
 				 */
 				parallelPutTransfer(localFile, targetFile.getAbsolutePath(), responseToInitialCallForPut,
-						numberOfThreads, localFile.length(), transferControlBlock, transferStatusCallbackListener);
+						numberOfThreads, localFile.length(), transferControlBlock, transferStatusCallbackListener,
+						parallelThreadCountTuner, myTransferOptions.getMaxThreads());
 			} else {
 				log.info(
 						"parallel operation deferred by server sending 0 threads back in PortalOperOut, revert to single thread transfer");
@@ -863,11 +887,17 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 	 * @param transferLength
 	 * @param transferControlBlock
 	 * @param transferStatusCallbackListener
+	 * @param parallelThreadCountTuner
+	 *            {@link ParallelThreadCountTuner} that records the throughput, or
+	 *            {@code null}
+	 * @param requestedThreads
+	 *            {@code int} with the number of threads asked of iRODS
 	 */
 	private void parallelPutTransfer(final File localFile, final String irodsAbsolutePath,
 			final Tag responseToInitialCallForPut, final int numberOfThreads, final long transferLength,
 			final TransferControlBlock transferControlBlock,
-			final TransferStatusCallbackListener transferStatusCallbackListener)
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final ParallelThreadCountTuner parallelThreadCountTuner, final int requestedThreads)
 			throws DataNotFoundException, OverwriteException, JargonException {
 
 		/*
@@ -890,10 +920,18 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 				transferStatusCallbackListener, fileRestartInfo,
 				getIRODSProtocol().getStartupResponseData().getNegotiatedClientServerConfiguration());
 		log.info("getting ready to initiate parallel file transfer strategy:{}", parallelPutFileStrategy);
+		if (parallelThreadCountTuner != null) {
+			parallelPutFileStrategy.sampleThroughput();
+		}
 
 		try {
 			parallelPutFileStrategy.transfer();
 			log.info("transfer process is complete");
+			if (parallelThreadCountTuner != null) {
+				parallelThreadCountTuner.recordThroughput(
+						AbstractParallelFileTransferStrategy.TransferType.PUT_TRANSFER, transferLength,
+						requestedThreads, parallelPutFileStrategy.getSampledBytesPerSecond());
+			}
 			int statusForComplete = responseToInitialCallForPut.getTag(IRODSConstants.L1_DESC_INX).getIntValue();
 			log.debug("status for complete:{}", statusForComplete);
 
@@ -1052,11 +1090,20 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 			long irodsFileLength = irodsFileToGet.length();
 			log.info("testing file length to set parallel transfer options");
+			ParallelThreadCountTuner parallelThreadCountTuner = null;
 			if (irodsFileLength > ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
 				if (!thisFileTransferOptions.isUseParallelTransfer()) {
 					log.info("no parallel transfer set in transferOptions");
 					thisFileTransferOptions.setMaxThreads(-1);
 				}
+				parallelThreadCountTuner = buildParallelThreadCountTunerIfAdaptive(thisFileTransferOptions);
+				if (parallelThreadCountTuner != null) {
+					thisFileTransferOptions.setMaxThreads(parallelThreadCountTuner.threadsToRequest(
+							AbstractParallelFileTransferStrategy.TransferType.GET_TRANSFER, irodsFileLength,
+							thisFileTransferOptions.getMaxThreads()));
+					log.info("adaptive parallel threads, requesting {} threads",
+							thisFileTransferOptions.getMaxThreads());
+				}
 			} else {
 				thisFileTransferOptions.setMaxThreads(0);
 			}
@@ -1074,7 +1121,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			}
 
 			processGetAfterResourceDetermined(irodsFileToGet, localFile, dataObjInp, thisFileTransferOptions,
-					irodsFileLength, operativeTransferControlBlock, transferStatusCallbackListener, false);
+					irodsFileLength, operativeTransferControlBlock, transferStatusCallbackListener, false,
+					parallelThreadCountTuner);
 		}
 	}
 
@@ -1281,7 +1329,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		transferControlBlock.setTransferOptions(myTransferOptions);
 
 		return processGetAfterResourceDetermined(irodsFileToGet, localFileToHoldData, dataObjInp, myTransferOptions, 0,
-				transferControlBlock, null, true);
+				transferControlBlock, null, true, null);
 
 	}
 
@@ -1324,6 +1372,10 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 	 * @param clientSideAction {@code boolean} that is {@code true} if this is a
 	 * client-side action in rule processing
 	 * 
+	 * @param parallelThreadCountTuner {@link ParallelThreadCountTuner} that chose
+	 * the threads requested in the transfer options and records the throughput,
+	 * or {@code null}
+	 * 
 	 * @return {@code int} that is the file handle (l1descInx) that iRODS uses for
 	 * this file
 	 * 
@@ -1336,7 +1388,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 	private int processGetAfterResourceDetermined(final IRODSFile irodsFileToGet, final File localFileToHoldData,
 			final DataObjInp dataObjInp, final TransferOptions thisFileTransferOptions, final long irodsFileLength,
 			final TransferControlBlock transferControlBlock,
-			final TransferStatusCallbackListener transferStatusCallbackListener, final boolean clientSideAction)
+			final TransferStatusCallbackListener transferStatusCallbackListener, final boolean clientSideAction,
+			final ParallelThreadCountTuner parallelThreadCountTuner)
 			throws OverwriteException, DataNotFoundException, JargonException {
 
 		log.info("process get after resource determined");
@@ -1409,7 +1462,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 				try {
 					checkNbrThreadsAndProcessAsParallelIfMoreThanZeroThreads(irodsFileToGet, localFileToHoldData,
 							thisFileTransferOptions, message, lengthFromIrodsResponse, irodsFileLength,
-							transferControlBlock, transferStatusCallbackListener, clientSideAction);
+							transferControlBlock, transferStatusCallbackListener, clientSideAction,
+							parallelThreadCountTuner);
 
 					if (!getIRODSServerProperties().isTheIrodsServerAtLeastAtTheGivenReleaseVersion("rods4.1.6")) {
 						getIRODSProtocol().operationComplete(l1descInx);
@@ -1516,13 +1570,16 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 	 * @param irodsFileLength
 	 * @param transferControlBlock
 	 * @param transferStatusCallbackListener
+	 * @param parallelThreadCountTuner
+	 *            {@link ParallelThreadCountTuner} that records the throughput, or
+	 *            {@code null}
 	 * @throws JargonException
 	 */
 	private void checkNbrThreadsAndProcessAsParallelIfMoreThanZeroThreads(final IRODSFile irodsSourceFile,
 			final File localFileToHoldData, final TransferOptions transferOptions, final Tag message, final long length,
 			final long irodsFileLength, final TransferControlBlock transferControlBlock,
-			final TransferStatusCallbackListener transferStatusCallbackListener, final boolean clientSideAction)
-			throws JargonException {
+			final TransferStatusCallbackListener transferStatusCallbackListener, final boolean clientSideAction,
+			final ParallelThreadCountTuner parallelThreadCountTuner) throws JargonException {
 
 		final String host = message.getTag(IRODSConstants.PortList_PI).getTag(IRODSConstants.hostAddr).getStringValue();
 		int port = message.getTag(IRODSConstants.PortList_PI).getTag(IRODSConstants.portNum).getIntValue();
@@ -1561,9 +1618,17 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 					port, numberOfThreads, password, localFileToHoldData, getIRODSAccessObjectFactory(),
 					irodsFileLength, transferControlBlock, transferStatusCallbackListener, fileRestartInfo,
 					getIRODSProtocol().getStartupResponseData().getNegotiatedClientServerConfiguration());
+			if (parallelThreadCountTuner != null) {
+				parallelGetTransferStrategy.sampleThroughput();
+			}
 
 			try {
 				parallelGetTransferStrategy.transfer();
+				if (parallelThreadCountTuner != null) {
+					parallelThreadCountTuner.recordThroughput(
+							AbstractParallelFileTransferStrategy.TransferType.GET_TRANSFER, irodsFileLength,
+							transferOptions.getMaxThreads(), parallelGetTransferStrategy.getSampledBytesPerSecond());
+				}
 
 			} catch (Throwable e) {
 
@@ -1574,6 +1639,23 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		}
 	}
 
+	/**
+	 * Build a tuner for the number of parallel threads if the transfer options
+	 * ask for adaptive parallel threads and allow more than one thread
+	 *
+	 * @param transferOptions
+	 *            {@link TransferOptions} for the transfer
+	 * @return {@link ParallelThreadCountTuner} or {@code null}
+	 */
+	private ParallelThreadCountTuner buildParallelThreadCountTunerIfAdaptive(final TransferOptions transferOptions) {
+		if (transferOptions == null || !transferOptions.isAdaptiveParallelThreads()
+				|| transferOptions.getMaxThreads() < 2) {
+			return null;
+		}
+		return new ParallelThreadCountTuner(getIRODSSession().getDiscoveredServerPropertiesCache(),
+				getIRODSAccount().getHost(), getIRODSAccount().getZone());
+	}
+
 	/**
 	 * See if jargon props say to do long file restarts, and a restart manager is
 	 * configured
@@ -1616,6 +1698,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		/*
 		 * May just be null
 		 */
+		getIRODSSession().getRestartManager().publishSegmentProgress(fileRestartInfoIdentifier);
 		return getIRODSSession().getRestartManager().retrieveRestart(fileRestartInfoIdentifier);
 
 	}
@@ -1803,26 +1886,30 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<>();
-
-		for (AvuData value : avuData) {
-			try {
-				addAVUMetadata(absolutePath, value);
-			} catch (DataNotFoundException dnf) {
-				log.error("dataNotFoundException when adding an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-			} catch (DuplicateDataException dde) {
-				log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value, dde.getMessage()));
-				continue;
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
 
-			}
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_DATA_OBJECT, myPath, BulkAVUOperationsHelper.OPERATION_ADD,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							addAVUMetadata(absolutePath, value);
+						} catch (DataNotFoundException dnf) {
+							log.error("dataNotFoundException when adding an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						} catch (DuplicateDataException dde) {
+							log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
+							return BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value,
+									dde.getMessage());
+						}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
-		}
+						log.info("treat as success...", value);
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
 
 		log.info("...complete");
 		return responses;
@@ -1834,26 +1921,34 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		log.info("deleteBulkAVUMetadataFromDataObject()");
 
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty absolute path");
+		}
+
 		if (avuData == null) {
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<>();
-
-		for (AvuData value : avuData) {
-			try {
-				deleteAVUMetadata(absolutePath, value);
-			} catch (DataNotFoundException dnf) {
-				log.error("dataNotFoundException when deleti an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
 
-			}
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_DATA_OBJECT, myPath, BulkAVUOperationsHelper.OPERATION_REMOVE,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							deleteAVUMetadata(absolutePath, value);
+						} catch (DataNotFoundException dnf) {
+							log.error("dataNotFoundException when deleti an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
-		}
+						log.info("treat as success...", value);
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
 
 		log.info("...complete");
 		return responses;
@@ -1921,6 +2016,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 			log.error("jargon exception adding AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(absPath);
 		}
 
 		log.debug("metadata added");
@@ -2059,6 +2156,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 			log.error("jargon exception adding AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(absPath);
 		}
 
 		log.debug("metadata added");
@@ -2162,6 +2261,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 			log.error("jargon exception removing AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(absPath);
 		}
 
 		log.debug("metadata removed");
@@ -2529,6 +2630,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		} catch (JargonException je) {
 			log.error("error copying irods file", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(myTargetFile.getAbsolutePath());
 		}
 		log.info("copy complete");
 
@@ -2807,7 +2910,13 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		log.info("computing checksum on irodsFile: {}", irodsFile.getAbsolutePath());
 
 		DataObjInp dataObjInp = DataObjInp.instanceForDataObjectChecksum(irodsFile.getAbsolutePath());
-		Tag response = getIRODSProtocol().irodsFunction(dataObjInp);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(dataObjInp);
+		} finally {
+			// the checksum is registered, and is part of the stat
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
+		}
 
 		if (response == null) {
 			log.error("invalid response to checksum call, response was null, expected checksum value");
@@ -3503,6 +3612,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 			log.error("jargon exception modifying AVU metadata", je);
 			throw je;
+		} finally {
+			invalidateMetadataCache(myPath);
 		}
 
 		log.debug("metadata rewritten");
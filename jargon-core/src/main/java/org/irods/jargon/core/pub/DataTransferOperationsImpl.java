@@ -291,8 +291,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			if (reroutedAccount != null) {
 				// re-routing...go to another host, the finally below will close
 				// this spawned new connection
-				DataTransferOperationsImpl reroutedDataTransferOperations = (DataTransferOperationsImpl) getIRODSAccessObjectFactory()
-						.getDataTransferOperations(reroutedAccount);
+				DataTransferOperationsImpl reroutedDataTransferOperations = new DataTransferOperationsImpl(
+						getIRODSSession(), reroutedAccount);
 				reroutedDataTransferOperations.processGetAfterAnyConnectionRerouting(irodsSourceFile, targetLocalFile,
 						transferStatusCallbackListener, operativeTransferControlBlock, targetLocalFileNameForCallbacks);
 
@@ -664,8 +664,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			 */
 			if (reroutedAccount != null) {
 				log.info("connection was rerouted");
-				DataTransferOperationsImpl reroutedDataTransferOperations = (DataTransferOperationsImpl) getIRODSAccessObjectFactory()
-						.getDataTransferOperations(reroutedAccount);
+				DataTransferOperationsImpl reroutedDataTransferOperations = new DataTransferOperationsImpl(
+						getIRODSSession(), reroutedAccount);
 				reroutedDataTransferOperations.processPutAfterAnyConnectionRerouting(sourceFile, targetIrodsFile,
 						transferStatusCallbackListener, operativeTransferControlBlock);
 			} else {
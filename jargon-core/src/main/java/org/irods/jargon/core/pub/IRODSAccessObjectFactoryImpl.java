@@ -40,6 +40,13 @@ import org.slf4j.LoggerFactory;
  * thread. This factory has hooks to also close those connections, and this can
  * be used in cases where this factory is injected itself into another service.
  *
+ * <p>
+ * When the {@code IRODSProtocolManager} of the session leases connections per
+ * operation, as the
+ * {@link org.irods.jargon.core.connection.PooledIRODSProtocolManager} does, the
+ * access objects from this factory instead return their connection to the pool
+ * at the end of each call, and connections are shared between threads.
+ *
  * @author Mike Conway, DICE (www.irods.org)
  *
  */
@@ -72,7 +79,13 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		 * returning the cached response. If the account is not authenticated, it will
 		 * cause the authentication process and cache the response.
 		 */
-		AuthResponse authResponse = irodsSession.currentConnection(irodsAccount).getAuthResponse();
+		AuthResponse authResponse;
+		irodsSession.beginOperation();
+		try {
+			authResponse = irodsSession.currentConnection(irodsAccount).getAuthResponse();
+		} finally {
+			irodsSession.endOperation();
+		}
 
 		log.debug("authResponse:{}", authResponse);
 		return authResponse;
@@ -99,7 +112,13 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		 * returning the cached response. If the account is not authenticated, it will
 		 * cause the authentication process and cache the response.
 		 */
-		AuthResponse authResponse = irodsSession.currentConnection(irodsAccount).getAuthResponse();
+		AuthResponse authResponse;
+		irodsSession.beginOperation();
+		try {
+			authResponse = irodsSession.currentConnection(irodsAccount).getAuthResponse();
+		} finally {
+			irodsSession.endOperation();
+		}
 		log.debug("authResponse:{}", authResponse);
 		return authResponse;
 	}
@@ -220,6 +239,18 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		return new IRODSAccessObjectFactoryImpl(irodsSession);
 	}
 
+	/**
+	 * Wrap the access object so that each call on it is one operation in the
+	 * session, see {@link IRODSGenericAO#leasePerOperation}
+	 *
+	 * @param accessObjectInterface {@code Class} of the access object interface
+	 * @param accessObject          access object implementation
+	 * @return access object implementing the interface
+	 */
+	private <T> T leasePerOperation(final Class<T> accessObjectInterface, final T accessObject) {
+		return IRODSGenericAO.leasePerOperation(irodsSession, accessObjectInterface, accessObject);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -229,7 +260,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public UserAO getUserAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new UserAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(UserAO.class, new UserAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -241,7 +272,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public UserGroupAO getUserGroupAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new UserGroupAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(UserGroupAO.class, new UserGroupAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -254,7 +285,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public EnvironmentalInfoAO getEnvironmentalInfoAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new EnvironmentalInfoAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(EnvironmentalInfoAO.class, new EnvironmentalInfoAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -266,7 +297,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public QuotaAO getQuotaAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new QuotaAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(QuotaAO.class, new QuotaAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -278,7 +309,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public IRODSGenQueryExecutor getIRODSGenQueryExecutor(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new IRODSGenQueryExecutorImpl(irodsSession, irodsAccount);
+		return leasePerOperation(IRODSGenQueryExecutor.class,
+				new IRODSGenQueryExecutorImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -290,7 +322,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ZoneAO getZoneAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ZoneAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(ZoneAO.class, new ZoneAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -302,7 +334,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ResourceAO getResourceAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ResourceAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(ResourceAO.class, new ResourceAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -314,7 +346,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ResourceGroupAO getResourceGroupAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ResourceGroupAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(ResourceGroupAO.class, new ResourceGroupAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -326,7 +358,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public IRODSFileSystemAO getIRODSFileSystemAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new IRODSFileSystemAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(IRODSFileSystemAO.class, new IRODSFileSystemAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -350,7 +382,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public CollectionAO getCollectionAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(CollectionAO.class, new CollectionAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -362,7 +394,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public DataObjectAO getDataObjectAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new DataObjectAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(DataObjectAO.class, new DataObjectAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -374,7 +406,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public DataObjectAuditAO getDataObjectAuditAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new DataObjectAuditAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(DataObjectAuditAO.class, new DataObjectAuditAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -386,13 +418,13 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public CollectionAuditAO getCollectionAuditAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionAuditAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(CollectionAuditAO.class, new CollectionAuditAOImpl(irodsSession, irodsAccount));
 	}
 
 	@Override
 	public CollectionPagerAO getCollectionPagerAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionPagerAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(CollectionPagerAO.class, new CollectionPagerAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -408,7 +440,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		// don't initialize the server properties here for eIRODS, as it's used
 		// to load the rule base. This is not awesome but will go away when
 		// eirods numbering get's lined up with community
-		return new RuleProcessingAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(RuleProcessingAO.class, new RuleProcessingAOImpl(irodsSession, irodsAccount));
 
 	}
 
@@ -421,7 +453,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public DataTransferOperations getDataTransferOperations(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new DataTransferOperationsImpl(irodsSession, irodsAccount);
+		return leasePerOperation(DataTransferOperations.class,
+				new DataTransferOperationsImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -433,7 +466,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public BulkFileOperationsAO getBulkFileOperationsAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new BulkFileOperationsAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(BulkFileOperationsAO.class, new BulkFileOperationsAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -447,7 +480,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	public RemoteExecutionOfCommandsAO getRemoteExecutionOfCommandsAO(final IRODSAccount irodsAccount)
 			throws JargonException {
 		checkIrodsSessionSet();
-		return new RemoteExecutionOfCommandsAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(RemoteExecutionOfCommandsAO.class,
+				new RemoteExecutionOfCommandsAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -461,7 +495,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	public CollectionAndDataObjectListAndSearchAO getCollectionAndDataObjectListAndSearchAO(
 			final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionAndDataObjectListAndSearchAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(CollectionAndDataObjectListAndSearchAO.class,
+				new CollectionAndDataObjectListAndSearchAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -473,7 +508,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public SimpleQueryExecutorAO getSimpleQueryExecutorAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new SimpleQueryExecutorAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(SimpleQueryExecutorAO.class,
+				new SimpleQueryExecutorAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -485,7 +521,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public Stream2StreamAO getStream2StreamAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new Stream2StreamAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(Stream2StreamAO.class, new Stream2StreamAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -498,7 +534,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public MountedCollectionAO getMountedCollectionAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new MountedCollectionAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(MountedCollectionAO.class, new MountedCollectionAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -510,7 +546,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ProtocolExtensionPoint getProtocolExtensionPoint(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ProtocolExtensionPointImpl(irodsSession, irodsAccount);
+		return leasePerOperation(ProtocolExtensionPoint.class,
+				new ProtocolExtensionPointImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -523,7 +560,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	public IRODSRegistrationOfFilesAO getIRODSRegistrationOfFilesAO(final IRODSAccount irodsAccount)
 			throws JargonException {
 		checkIrodsSessionSet();
-		return new IRODSRegistrationOfFilesAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(IRODSRegistrationOfFilesAO.class,
+				new IRODSRegistrationOfFilesAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -589,7 +627,12 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 			}
 		}
 
-		return irodsSession.currentConnection(irodsAccount).getIRODSServerProperties();
+		irodsSession.beginOperation();
+		try {
+			return irodsSession.currentConnection(irodsAccount).getIRODSServerProperties();
+		} finally {
+			irodsSession.endOperation();
+		}
 	}
 
 	/*
@@ -626,7 +669,7 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public SpecificQueryAO getSpecificQueryAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new SpecificQueryAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(SpecificQueryAO.class, new SpecificQueryAOImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -638,20 +681,21 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public TrashOperationsAO getTrashOperationsAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new TrashOperationsAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(TrashOperationsAO.class, new TrashOperationsAOImpl(irodsSession, irodsAccount));
 	}
 
 	@Override
 	public DataObjectChecksumUtilitiesAO getDataObjectChecksumUtilitiesAO(final IRODSAccount irodsAccount)
 			throws JargonException {
 		checkIrodsSessionSet();
-		return new DataObjectChecksumUtilitiesAOImpl(irodsSession, irodsAccount);
+		return leasePerOperation(DataObjectChecksumUtilitiesAO.class,
+				new DataObjectChecksumUtilitiesAOImpl(irodsSession, irodsAccount));
 	}
 
 	@Override
 	public ApiPluginExecutor getApiPluginExecutor(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ApiPluginExecutorImpl(irodsSession, irodsAccount);
+		return leasePerOperation(ApiPluginExecutor.class, new ApiPluginExecutorImpl(irodsSession, irodsAccount));
 	}
 
 	/*
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.concurrent.locks.Lock;
 
 import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.connection.ReplicaTokenCacheEntry;
 import org.irods.jargon.core.connection.ReplicaTokenCacheManager;
@@ -936,6 +937,15 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		}
 
 		log.debug("file id for opened file:{}", fileId);
+		// the descriptor is only valid on this connection until it is closed
+		getIRODSProtocol().holdAgentState();
+
+		if (myOpenFlags != OpenFlags.READ) {
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
+			if (!absPath.equals(irodsFile.getAbsolutePath())) {
+				invalidateMetadataCache(absPath);
+			}
+		}
 
 		return fileId;
 	}
@@ -1000,8 +1010,13 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 			dataObjInp.setOperationType(DataObjInp.PUT_OPERATION_TYPE);
 		}
 
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjInp.getParsedTags(),
-				DataObjInp.CREATE_FILE_API_NBR);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjInp.getParsedTags(),
+					DataObjInp.CREATE_FILE_API_NBR);
+		} finally {
+			invalidateMetadataCache(absolutePath);
+		}
 		if (response == null) {
 			String msg = "null response from IRODS call";
 			log.error(msg);
@@ -1011,6 +1026,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		responseFileNbr = response.getTag(MsgHeader.PI_NAME).getTag(MsgHeader.INT_INFO).getIntValue();
 
 		log.debug("response file nbr:{}", responseFileNbr);
+		// the descriptor is only valid on this connection until it is closed
+		getIRODSProtocol().holdAgentState();
 
 		return responseFileNbr;
 
@@ -1043,6 +1060,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 			}
 		} catch (CatalogAlreadyHasItemByThatNameException e) {
 			log.info("directory already exists in mkdir, log and ignore");
+		} finally {
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
 		}
 
 		log.debug("mkdir succesful");
@@ -1071,8 +1090,14 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 			openedDataObjInp = OpenedDataObjInp.instanceForFileClose(fileDescriptor);
 		}
 
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, openedDataObjInp.getParsedTags(),
-				openedDataObjInp.getApiNumber());
+		IRODSMidLevelProtocol irodsProtocol = getIRODSProtocol();
+		Tag response;
+		try {
+			response = irodsProtocol.irodsFunction(IRODSConstants.RODS_API_REQ, openedDataObjInp.getParsedTags(),
+					openedDataObjInp.getApiNumber());
+		} finally {
+			irodsProtocol.releaseAgentState();
+		}
 
 		if (response != null) {
 			log.warn("expected null response to close, logged but not an error, received:{}", response.parseTag());
@@ -1104,8 +1129,13 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		}
 
 		DataObjInp dataObjInp = DataObjInp.instanceForDeleteWithForce(irodsFile.getAbsolutePath());
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjInp.getParsedTags(),
-				DataObjInp.DELETE_FILE_API_NBR);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjInp.getParsedTags(),
+					DataObjInp.DELETE_FILE_API_NBR);
+		} finally {
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
+		}
 
 		if (response != null) {
 			String msg = "unexpected response from irods, expected null message - logged and ignored ";
@@ -1146,6 +1176,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		} catch (DuplicateDataException dde) {
 			log.warn(
 					"duplicate data exception logged and ignored, see GForge: [#639] 809000 errors on delete operations when trash file already exists");
+		} finally {
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
 		}
 
 	}
@@ -1176,10 +1208,14 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		CollInp collInp = CollInp.instance(irodsFile.getAbsolutePath(), CollInp.RECURSIVE_OPERATION,
 				CollInp.FORCE_OPERATION);
 
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, collInp.getParsedTags(),
-				CollInp.RMDIR_API_NBR);
+		try {
+			Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, collInp.getParsedTags(),
+					CollInp.RMDIR_API_NBR);
 
-		processClientStatusMessages(response);
+			processClientStatusMessages(response);
+		} finally {
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
+		}
 
 		log.info("deletion successful");
 
@@ -1209,10 +1245,14 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 
 		CollInp collInp = CollInp.instance(irodsFile.getAbsolutePath(), CollInp.RECURSIVE_OPERATION);
 
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, collInp.getParsedTags(),
-				CollInp.RMDIR_API_NBR);
+		try {
+			Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, collInp.getParsedTags(),
+					CollInp.RMDIR_API_NBR);
 
-		processClientStatusMessages(response);
+			processClientStatusMessages(response);
+		} finally {
+			invalidateMetadataCache(irodsFile.getAbsolutePath());
+		}
 
 		log.info("deletion successful");
 
@@ -1274,8 +1314,14 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 
 		DataObjCopyInp dataObjCopyInp = DataObjCopyInp.instanceForRenameCollection(fromFile.getAbsolutePath(),
 				toFile.getAbsolutePath(), force);
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
-				DataObjCopyInp.RENAME_FILE_API_NBR);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
+					DataObjCopyInp.RENAME_FILE_API_NBR);
+		} finally {
+			invalidateMetadataCache(fromFile.getAbsolutePath());
+			invalidateMetadataCache(toFile.getAbsolutePath());
+		}
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1304,8 +1350,14 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 
 		DataObjCopyInp dataObjCopyInp = DataObjCopyInp.instanceForRenameFile(fromFile.getAbsolutePath(),
 				toFile.getAbsolutePath());
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
-				DataObjCopyInp.RENAME_FILE_API_NBR);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
+					DataObjCopyInp.RENAME_FILE_API_NBR);
+		} finally {
+			invalidateMetadataCache(fromFile.getAbsolutePath());
+			invalidateMetadataCache(toFile.getAbsolutePath());
+		}
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1331,8 +1383,14 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 
 		DataObjCopyInp dataObjCopyInp = DataObjCopyInp.instanceForRenameFile(fromFile.getAbsolutePath(),
 				toFile.getAbsolutePath(), force);
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
-				DataObjCopyInp.RENAME_FILE_API_NBR);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
+					DataObjCopyInp.RENAME_FILE_API_NBR);
+		} finally {
+			invalidateMetadataCache(fromFile.getAbsolutePath());
+			invalidateMetadataCache(toFile.getAbsolutePath());
+		}
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1441,8 +1499,13 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 			apiNbr = DataObjInp.PHYMOVE_FILE_API_NBR;
 		}
 
-		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
-				apiNbr);
+		Tag response;
+		try {
+			response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
+					apiNbr);
+		} finally {
+			invalidateMetadataCache(absolutePathToSourceFile);
+		}
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -3,8 +3,12 @@
  */
 package org.irods.jargon.core.pub;
 
+import java.util.stream.Stream;
+
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
 import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
 
@@ -217,4 +221,87 @@ public interface IRODSGenQueryExecutor extends IRODSAccessObject {
 	IRODSQueryResultSet getMoreResults(IRODSQueryResultSet irodsQueryResultSet)
 			throws JargonException, JargonQueryException;
 
+	/**
+	 * Execute an iquest-like query and return an iterator over all of its results.
+	 * The iterator follows the continuation of the query from page to page, and
+	 * fetches the next page in the background while the current page is
+	 * processed, so that large queries may be processed in constant memory.
+	 * <p>
+	 * The results in iRODS are closed when the last row is read. The iterator
+	 * should be closed, preferably with try-with-resources, so that the results
+	 * are also closed when iteration stops early.
+	 *
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} that will wrap the given query
+	 * @return {@link GenQueryResultIterator} over the rows of the query
+	 * @throws JargonException
+	 *             for iRODS error
+	 * @throws JargonQueryException
+	 *             for query error
+	 */
+	GenQueryResultIterator iterateIRODSQuery(AbstractIRODSGenQuery irodsQuery)
+			throws JargonException, JargonQueryException;
+
+	/**
+	 * Execute an iquest-like query and return an iterator over all of its results,
+	 * beginning at an offset, in an optional zone. See
+	 * {@link #iterateIRODSQuery(AbstractIRODSGenQuery)}.
+	 *
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} that will wrap the given query
+	 * @param partialStartIndex
+	 *            {@code int} that indicates an offset within the results from which
+	 *            to begin
+	 * @param zoneName
+	 *            {@code String} ({@code null} or blank if not used) that indicates
+	 *            an optional zone for the query
+	 * @return {@link GenQueryResultIterator} over the rows of the query
+	 * @throws JargonException
+	 *             for iRODS error
+	 * @throws JargonQueryException
+	 *             for query error
+	 */
+	GenQueryResultIterator iterateIRODSQueryInZone(AbstractIRODSGenQuery irodsQuery, int partialStartIndex,
+			String zoneName) throws JargonException, JargonQueryException;
+
+	/**
+	 * Execute an iquest-like query and return a {@code Stream} of all of its
+	 * results, as described in {@link #iterateIRODSQuery(AbstractIRODSGenQuery)}.
+	 * Closing the stream closes the results in iRODS, so the stream should be used
+	 * in a try-with-resources block. Errors reading later pages are thrown as a
+	 * {@code JargonRuntimeException}.
+	 *
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} that will wrap the given query
+	 * @return {@code Stream} of {@link IRODSQueryResultRow}
+	 * @throws JargonException
+	 *             for iRODS error
+	 * @throws JargonQueryException
+	 *             for query error
+	 */
+	Stream<IRODSQueryResultRow> streamIRODSQuery(AbstractIRODSGenQuery irodsQuery)
+			throws JargonException, JargonQueryException;
+
+	/**
+	 * Execute an iquest-like query and return a {@code Stream} of all of its
+	 * results, beginning at an offset, in an optional zone. See
+	 * {@link #streamIRODSQuery(AbstractIRODSGenQuery)}.
+	 *
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} that will wrap the given query
+	 * @param partialStartIndex
+	 *            {@code int} that indicates an offset within the results from which
+	 *            to begin
+	 * @param zoneName
+	 *            {@code String} ({@code null} or blank if not used) that indicates
+	 *            an optional zone for the query
+	 * @return {@code Stream} of {@link IRODSQueryResultRow}
+	 * @throws JargonException
+	 *             for iRODS error
+	 * @throws JargonQueryException
+	 *             for query error
+	 */
+	Stream<IRODSQueryResultRow> streamIRODSQueryInZone(AbstractIRODSGenQuery irodsQuery, int partialStartIndex,
+			String zoneName) throws JargonException, JargonQueryException;
+
 }
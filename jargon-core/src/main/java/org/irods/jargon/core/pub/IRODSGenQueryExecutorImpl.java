@@ -1,10 +1,14 @@
 package org.irods.jargon.core.pub;
 
+import java.util.stream.Stream;
+
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.query.AbstractIRODSGenQuery;
 import org.irods.jargon.core.query.GenQueryProcessor;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
 import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
 import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
@@ -251,4 +255,43 @@ public final class IRODSGenQueryExecutorImpl extends IRODSGenericAO implements I
 		genQueryProcessor.closeResults(irodsQueryResultSet);
 	}
 
+	@Override
+	public GenQueryResultIterator iterateIRODSQuery(final AbstractIRODSGenQuery irodsQuery)
+			throws JargonException, JargonQueryException {
+		return iterateIRODSQueryInZone(irodsQuery, 0, null);
+	}
+
+	@Override
+	public GenQueryResultIterator iterateIRODSQueryInZone(final AbstractIRODSGenQuery irodsQuery,
+			final int partialStartIndex, final String zoneName) throws JargonException, JargonQueryException {
+
+		log.info("iterateIRODSQueryInZone()");
+
+		if (irodsQuery == null) {
+			throw new IllegalArgumentException("null irodsQuery");
+		}
+
+		if (partialStartIndex < 0) {
+			throw new IllegalArgumentException("partial start index must be >= 0");
+		}
+
+		log.info("query: {}", irodsQuery);
+
+		GenQueryProcessor genQueryProcessor = new GenQueryProcessor(getIRODSProtocol());
+		TranslatedIRODSGenQuery translatedIRODSQuery = genQueryProcessor.translateProvidedQuery(irodsQuery);
+		return GenQueryResultIterator.instance(genQueryProcessor, translatedIRODSQuery, partialStartIndex, zoneName);
+	}
+
+	@Override
+	public Stream<IRODSQueryResultRow> streamIRODSQuery(final AbstractIRODSGenQuery irodsQuery)
+			throws JargonException, JargonQueryException {
+		return iterateIRODSQuery(irodsQuery).stream();
+	}
+
+	@Override
+	public Stream<IRODSQueryResultRow> streamIRODSQueryInZone(final AbstractIRODSGenQuery irodsQuery,
+			final int partialStartIndex, final String zoneName) throws JargonException, JargonQueryException {
+		return iterateIRODSQueryInZone(irodsQuery, partialStartIndex, zoneName).stream();
+	}
+
 }
@@ -3,11 +3,18 @@
  */
 package org.irods.jargon.core.pub;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSProtocolManager;
 import org.irods.jargon.core.connection.IRODSServerProperties;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.connection.JargonProperties;
+import org.irods.jargon.core.connection.MetadataCache;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.OperationComplete;
 import org.irods.jargon.core.packinstr.Tag;
@@ -58,7 +65,12 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		instrumented = getIRODSSession().getJargonProperties().isInstrument();
 
 		log.debug("establishing connection");
-		irodsSession.currentConnection(irodsAccount);
+		irodsSession.beginOperation();
+		try {
+			irodsSession.currentConnection(irodsAccount);
+		} finally {
+			irodsSession.endOperation();
+		}
 	}
 
 	/*
@@ -169,6 +181,21 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		return getIRODSAccessObjectFactory().buildTransferOptionsBasedOnJargonProperties();
 	}
 
+	/**
+	 * Drop anything the metadata cache of the session holds for a path that this
+	 * access object has changed, if the cache is on
+	 *
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path of the file or collection
+	 *            that changed
+	 */
+	protected void invalidateMetadataCache(final String irodsAbsolutePath) {
+		MetadataCache metadataCache = getIRODSSession().getMetadataCache();
+		if (metadataCache != null) {
+			metadataCache.invalidate(irodsAbsolutePath);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -239,4 +266,58 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
 	}
 
+	/**
+	 * When the {@link IRODSProtocolManager} leases connections per operation,
+	 * wrap the access object so that each call on it is bracketed by
+	 * {@link IRODSSession#beginOperation()} and
+	 * {@link IRODSSession#endOperation()}, and the connection goes back to the
+	 * pool when the outermost call completes. Otherwise the access object is
+	 * returned as is.
+	 *
+	 * @param irodsSession          {@link IRODSSession} the access object uses
+	 * @param accessObjectInterface {@code Class} of the access object interface
+	 * @param accessObject          access object implementation
+	 * @return access object implementing the interface
+	 */
+	protected static <T> T leasePerOperation(final IRODSSession irodsSession, final Class<T> accessObjectInterface,
+			final T accessObject) {
+		IRODSProtocolManager irodsProtocolManager = irodsSession.getIrodsProtocolManager();
+		if (irodsProtocolManager == null || !irodsProtocolManager.isReleaseAfterOperation()) {
+			return accessObject;
+		}
+
+		return accessObjectInterface.cast(Proxy.newProxyInstance(accessObjectInterface.getClassLoader(),
+				new Class<?>[] { accessObjectInterface }, new OperationScope(irodsSession, accessObject)));
+	}
+
+	/**
+	 * Brackets each call on an access object as one operation in the session
+	 */
+	private static final class OperationScope implements InvocationHandler {
+
+		private final IRODSSession irodsSession;
+		private final Object accessObject;
+
+		OperationScope(final IRODSSession irodsSession, final Object accessObject) {
+			this.irodsSession = irodsSession;
+			this.accessObject = accessObject;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(accessObject, args);
+			}
+
+			irodsSession.beginOperation();
+			try {
+				return method.invoke(accessObject, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			} finally {
+				irodsSession.endOperation();
+			}
+		}
+	}
+
 }
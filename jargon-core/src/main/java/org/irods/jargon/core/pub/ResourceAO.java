@@ -175,6 +175,48 @@ public interface ResourceAO extends IRODSAccessObject {
 	 */
 	void deleteAVUMetadata(String resourceName, AvuData avuData) throws InvalidResourceException, JargonException;
 
+	/**
+	 * Given a list of avu metadata, add all to the resource. A response will be
+	 * returned giving individual success/failure information. For example, an
+	 * attempt to add a duplicate AVU will result in an error entry in the response
+	 * versus a thrown exception.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
+	 *
+	 * @param resourceName
+	 *            {@code String} with the name of the resource
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} for each AVU to be added.
+	 * @return {@code List} of {@link BulkAVUOperationResponse} with details on
+	 *         the success or failure of the add of each AVU.
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	List<BulkAVUOperationResponse> addBulkAVUMetadataToResource(String resourceName, List<AvuData> avuData)
+			throws JargonException;
+
+	/**
+	 * Given a list of avu metadata, delete all from the resource. A response will
+	 * be returned giving individual success/failure information.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
+	 *
+	 * @param resourceName
+	 *            {@code String} with the name of the resource
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} for each AVU to be deleted.
+	 * @return {@code List} of {@link BulkAVUOperationResponse} with details on
+	 *         the success or failure of the delete of each AVU.
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromResource(String resourceName, List<AvuData> avuData)
+			throws JargonException;
+
 	/**
 	 * Add a new resource
 	 *
@@ -14,6 +14,7 @@ import org.irods.jargon.core.exception.ResourceHierarchyException;
 import org.irods.jargon.core.packinstr.GeneralAdminInpForResources;
 import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
 import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.BulkAVUOperationResponse.ResultStatus;
 import org.irods.jargon.core.pub.domain.AvuData;
 import org.irods.jargon.core.pub.domain.Resource;
 import org.irods.jargon.core.pub.domain.Zone;
@@ -1104,6 +1105,82 @@ public final class ResourceAOImpl extends IRODSGenericAO implements ResourceAO {
 		log.debug("metadata removed");
 	}
 
+	@Override
+	public List<BulkAVUOperationResponse> addBulkAVUMetadataToResource(final String resourceName,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("addBulkAVUMetadataToResource()");
+
+		if (resourceName == null || resourceName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty resource name");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_RESOURCE, resourceName, BulkAVUOperationsHelper.OPERATION_ADD,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							addAVUMetadata(resourceName, value);
+						} catch (DataNotFoundException dnf) {
+							log.error("DataNotFoundException when adding an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						} catch (DuplicateDataException dde) {
+							log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
+							return BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value,
+									dde.getMessage());
+						}
+
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
+
+		log.info("...complete");
+		return responses;
+	}
+
+	@Override
+	public List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromResource(final String resourceName,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("deleteBulkAVUMetadataFromResource()");
+
+		if (resourceName == null || resourceName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty resource name");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_RESOURCE, resourceName, BulkAVUOperationsHelper.OPERATION_REMOVE,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							deleteAVUMetadata(resourceName, value);
+						} catch (DataNotFoundException dnf) {
+							log.error("DataNotFoundException when deleting an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						}
+
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
+
+		log.info("...complete");
+		return responses;
+	}
+
 	public void addResourceListingSpecificQuery() throws JargonException {
 		log.info("addResourceListingSpecificQuery()");
 
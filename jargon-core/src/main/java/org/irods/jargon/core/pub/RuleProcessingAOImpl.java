@@ -930,8 +930,7 @@ public final class RuleProcessingAOImpl extends IRODSGenericAO implements RulePr
 
 	private void clientSidePutAction(final String irodsFileAbsolutePath, final File localFile,
 			final String resourceName, final boolean force, final int nbrThreads) throws JargonException {
-		DataObjectAOImpl dataObjectAO = (DataObjectAOImpl) getIRODSAccessObjectFactory()
-				.getDataObjectAO(getIRODSAccount());
+		DataObjectAOImpl dataObjectAO = new DataObjectAOImpl(getIRODSSession(), getIRODSAccount());
 		IRODSFile irodsFile = dataObjectAO.instanceIRODSFileForPath(irodsFileAbsolutePath);
 		irodsFile.setResource(resourceName);
 		log.debug("performing put of file");
@@ -960,8 +959,7 @@ public final class RuleProcessingAOImpl extends IRODSGenericAO implements RulePr
 
 		log.info("client-side get action");
 
-		DataObjectAOImpl dataObjectAO = (DataObjectAOImpl) getIRODSAccessObjectFactory()
-				.getDataObjectAO(getIRODSAccount());
+		DataObjectAOImpl dataObjectAO = new DataObjectAOImpl(getIRODSSession(), getIRODSAccount());
 		IRODSFile irodsFile = dataObjectAO.instanceIRODSFileForPath(irodsFileAbsolutePath);
 		irodsFile.setResource(resourceName);
 		log.info("performing get of file");
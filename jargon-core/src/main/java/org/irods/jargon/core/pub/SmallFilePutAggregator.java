@@ -0,0 +1,313 @@
+package org.irods.jargon.core.pub;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.packinstr.TransferOptions.ForceOption;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recursive put of a local directory tree that packs the small files into tar
+ * bundles, for the {@link TransferOperationsHelper} when the
+ * {@link TransferOptions} give a small file aggregation threshold. Each bundle
+ * is streamed straight into a data object in the target collection, extracted
+ * there by iRODS with a bulk registration, and then deleted, so a tree of many
+ * tiny files costs a few round trips per bundle rather than several per file.
+ * Files larger than the threshold are put on their own as before.
+ * <p>
+ * The tree is walked in the same order as a put of one file at a time, with
+ * the same filtering for restarts, and a bundle is extracted before any larger
+ * file is put, so files are still reported complete in the order of the walk
+ * and the last file reported complete is a safe restart point. Files in a
+ * bundle are reported started as they are added and complete once the bundle
+ * is extracted. If a bundle cannot be written or extracted, for instance
+ * because one of its files already exists in iRODS, its files are put one at a
+ * time, which applies the usual overwrite handling.
+ */
+final class SmallFilePutAggregator {
+
+	private static final Logger log = LoggerFactory.getLogger(SmallFilePutAggregator.class);
+
+	/**
+	 * Start of the name of the bundle data objects, which are removed once
+	 * extracted
+	 */
+	static final String BUNDLE_PREFIX = ".jargon-bundle-";
+
+	private final TransferOperationsHelper transferOperationsHelper;
+	private final IRODSFileFactory irodsFileFactory;
+	private final BulkFileOperationsAO bulkFileOperationsAO;
+	private final TransferStatusCallbackListener transferStatusCallbackListener;
+	private final TransferControlBlock transferControlBlock;
+	private final long threshold;
+	private final long bundleSize;
+	private final int bufferSize;
+	private final boolean force;
+
+	/**
+	 * Files in the open bundle, in the order of the walk
+	 */
+	private final List<BundledFile> bundledFiles = new ArrayList<BundledFile>();
+	private IRODSFile targetCollection = null;
+	private IRODSFile bundleFile = null;
+	private TarBundleWriter tarBundleWriter = null;
+
+	private static final class BundledFile {
+		private final File sourceFile;
+		private final IRODSFile targetFile;
+
+		private BundledFile(final File sourceFile, final IRODSFile targetFile) {
+			this.sourceFile = sourceFile;
+			this.targetFile = targetFile;
+		}
+	}
+
+	/**
+	 * @param transferOperationsHelper
+	 *            {@link TransferOperationsHelper} that puts the larger files and
+	 *            makes the callbacks
+	 * @param irodsSession
+	 *            {@link IRODSSession} for the transfer
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} for the transfer
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, or {@code null}
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} with the {@link TransferOptions} that
+	 *            set the threshold, required
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	SmallFilePutAggregator(final TransferOperationsHelper transferOperationsHelper, final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount, final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+		if (transferOperationsHelper == null) {
+			throw new IllegalArgumentException("null transferOperationsHelper");
+		}
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		if (transferControlBlock == null || transferControlBlock.getTransferOptions() == null) {
+			throw new IllegalArgumentException("null transferControlBlock or transfer options");
+		}
+		this.transferOperationsHelper = transferOperationsHelper;
+		this.transferStatusCallbackListener = transferStatusCallbackListener;
+		this.transferControlBlock = transferControlBlock;
+		TransferOptions transferOptions = transferControlBlock.getTransferOptions();
+		threshold = Math.min(transferOptions.getSmallFileAggregationThreshold(), TarBundleWriter.MAX_ENTRY_SIZE);
+		bundleSize = transferOptions.getSmallFileAggregationBundleSize();
+		force = transferOptions.getForceOption() == ForceOption.USE_FORCE;
+		IRODSAccessObjectFactory irodsAccessObjectFactory = IRODSAccessObjectFactoryImpl.instance(irodsSession);
+		irodsFileFactory = irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount);
+		bulkFileOperationsAO = irodsAccessObjectFactory.getBulkFileOperationsAO(irodsAccount);
+		bufferSize = irodsSession.getJargonProperties().getPutBufferSize();
+	}
+
+	/**
+	 * Put the files under a local directory into a collection
+	 *
+	 * @param sourceDirectory
+	 *            {@link File} with the directory whose contents are put
+	 * @param targetIrodsCollection
+	 *            {@link IRODSFile} with the collection that receives them
+	 * @throws JargonException
+	 *             for errors not reported to the listener
+	 */
+	void put(final File sourceDirectory, final IRODSFile targetIrodsCollection) throws JargonException {
+		log.info("putting {} with small files in bundles of up to {} bytes", sourceDirectory, bundleSize);
+		targetCollection = targetIrodsCollection;
+		try {
+			if (walk(sourceDirectory, targetIrodsCollection, "")) {
+				extractBundle();
+			}
+		} finally {
+			abandonBundle();
+		}
+	}
+
+	/**
+	 * @return {@code boolean} of {@code false} if the transfer was stopped
+	 */
+	private boolean walk(final File directory, final IRODSFile targetIrodsCollection, final String entryPrefix)
+			throws JargonException {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return true;
+		}
+
+		for (File file : files) {
+			if (Thread.interrupted()) {
+				log.info("cancellation detected, set cancelled in tcb");
+				transferControlBlock.setCancelled(true);
+			}
+
+			if (transferControlBlock.isCancelled() || transferControlBlock.isPaused()) {
+				log.info("will notify pause or cancel for this put, files in the open bundle are not put");
+				abandonBundle();
+				transferOperationsHelper.notifyPauseOrCancelCallbackForPut(targetIrodsCollection,
+						transferStatusCallbackListener, transferControlBlock, file);
+				return false;
+			}
+
+			if (file.isDirectory()) {
+				IRODSFile subCollection = irodsFileFactory.instanceIRODSFile(targetIrodsCollection.getAbsolutePath(),
+						file.getName());
+				subCollection.setResource(targetIrodsCollection.getResource());
+				try {
+					subCollection.mkdirs();
+				} catch (RuntimeException e) {
+					transferOperationsHelper.processRecursivePutException(file, transferStatusCallbackListener,
+							subCollection, transferControlBlock, new JargonException(e));
+					continue;
+				}
+				if (!walk(file, subCollection, entryPrefix + file.getName() + "/")) {
+					return false;
+				}
+				continue;
+			}
+
+			IRODSFile targetFile = irodsFileFactory.instanceIRODSFile(targetIrodsCollection.getAbsolutePath(),
+					file.getName());
+			targetFile.setResource(targetIrodsCollection.getResource());
+			if (transferOperationsHelper.isPutFiltered(file, targetFile, transferStatusCallbackListener,
+					transferControlBlock)) {
+				continue;
+			}
+
+			String entryName = entryPrefix + file.getName();
+			if (file.length() > threshold || !TarBundleWriter.fits(entryName)) {
+				extractBundle();
+				transferOperationsHelper.checkRenewalOfSocket();
+				transferOperationsHelper.putSingleFile(file, targetFile, transferStatusCallbackListener,
+						transferControlBlock);
+			} else if (transferOperationsHelper.startPutOfSingleFile(file, targetFile, transferStatusCallbackListener,
+					transferControlBlock)) {
+				addToBundle(entryName, file, targetFile);
+			}
+		}
+		return true;
+	}
+
+	private void addToBundle(final String entryName, final File file, final IRODSFile targetFile)
+			throws JargonException {
+		bundledFiles.add(new BundledFile(file, targetFile));
+		try {
+			if (tarBundleWriter == null) {
+				openBundle();
+			}
+			tarBundleWriter.addFile(entryName, file);
+		} catch (IOException e) {
+			log.warn("unable to write bundle {}, files will be put one at a time", bundleFile, e);
+			closeQuietly();
+			extractBundle();
+			return;
+		} catch (JargonException je) {
+			log.warn("unable to open bundle {}, files will be put one at a time", bundleFile, je);
+			closeQuietly();
+			extractBundle();
+			return;
+		}
+
+		if (tarBundleWriter.getBytesWritten() >= bundleSize) {
+			extractBundle();
+		}
+	}
+
+	private void openBundle() throws JargonException {
+		bundleFile = irodsFileFactory.instanceIRODSFile(targetCollection.getAbsolutePath(),
+				BUNDLE_PREFIX + UUID.randomUUID().toString() + ".tar");
+		bundleFile.setResource(targetCollection.getResource());
+		log.debug("opening bundle {}", bundleFile);
+		tarBundleWriter = new TarBundleWriter(
+				new BufferedOutputStream(irodsFileFactory.instanceIRODSFileOutputStream(bundleFile), bufferSize),
+				bufferSize);
+	}
+
+	/**
+	 * Extract the open bundle and report its files complete, or put its files
+	 * one at a time if it cannot be extracted
+	 */
+	private void extractBundle() throws JargonException {
+		if (bundledFiles.isEmpty()) {
+			return;
+		}
+
+		boolean extracted = false;
+		if (tarBundleWriter != null) {
+			log.info("extracting bundle {} of {} files", bundleFile, bundledFiles.size());
+			try {
+				tarBundleWriter.close();
+				tarBundleWriter = null;
+				String resource = bundleFile.getResource() == null ? "" : bundleFile.getResource();
+				if (force) {
+					bulkFileOperationsAO.extractABundleIntoAnIrodsCollectionWithForceOption(
+							bundleFile.getAbsolutePath(), targetCollection.getAbsolutePath(), resource);
+				} else {
+					bulkFileOperationsAO.extractABundleIntoAnIrodsCollectionWithBulkOperationOptimization(
+							bundleFile.getAbsolutePath(), targetCollection.getAbsolutePath(), resource);
+				}
+				extracted = true;
+			} catch (IOException e) {
+				log.warn("unable to write bundle {}, files will be put one at a time", bundleFile, e);
+			} catch (JargonException je) {
+				log.warn("unable to extract bundle {}, files will be put one at a time", bundleFile, je);
+			}
+		}
+		abandonBundle();
+
+		List<BundledFile> files = new ArrayList<BundledFile>(bundledFiles);
+		bundledFiles.clear();
+		for (BundledFile bundledFile : files) {
+			if (extracted) {
+				transferOperationsHelper.completePutOfSingleFile(bundledFile.sourceFile, bundledFile.targetFile,
+						transferStatusCallbackListener, transferControlBlock);
+			} else {
+				transferOperationsHelper.transferPutOfSingleFile(bundledFile.sourceFile, bundledFile.targetFile,
+						transferStatusCallbackListener, transferControlBlock);
+			}
+		}
+	}
+
+	/**
+	 * Close and delete the open bundle, if any, without extracting it
+	 */
+	private void abandonBundle() {
+		closeQuietly();
+		if (bundleFile != null) {
+			try {
+				bundleFile.deleteWithForceOption();
+			} catch (RuntimeException e) {
+				log.warn("unable to delete bundle {}", bundleFile, e);
+			}
+			bundleFile = null;
+		}
+	}
+
+	private void closeQuietly() {
+		if (tarBundleWriter != null) {
+			try {
+				tarBundleWriter.close();
+			} catch (IOException e) {
+				log.warn("error closing bundle {}", bundleFile, e);
+			}
+			tarBundleWriter = null;
+		}
+	}
+
+}
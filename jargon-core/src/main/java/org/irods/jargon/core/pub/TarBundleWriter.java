@@ -0,0 +1,211 @@
+package org.irods.jargon.core.pub;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a tar archive in the POSIX ustar format to a stream one file at a
+ * time, so that a bundle of local files can be streamed straight into an iRODS
+ * data object and extracted there by the {@link BulkFileOperationsAO}, without
+ * first being written to a local temporary file.
+ * <p>
+ * Only regular files are written, with entry names that are relative paths
+ * using {@code /} as the separator. A name must fit the ustar name and prefix
+ * fields, see {@link #fits(String)}.
+ */
+final class TarBundleWriter implements Closeable {
+
+	static final int BLOCK_SIZE = 512;
+
+	/**
+	 * Largest entry the eleven octal digit size field can describe
+	 */
+	static final long MAX_ENTRY_SIZE = 077777777777L;
+
+	private static final int NAME_LENGTH = 100;
+	private static final int PREFIX_LENGTH = 155;
+
+	private final OutputStream outputStream;
+	private final byte[] buffer;
+	private long bytesWritten = 0L;
+	private boolean closed = false;
+
+	/**
+	 * @param outputStream
+	 *            {@link OutputStream} that receives the archive, and is closed
+	 *            when the archive is closed
+	 * @param bufferSize
+	 *            {@code int} with the size of the buffer used to copy each file
+	 */
+	TarBundleWriter(final OutputStream outputStream, final int bufferSize) {
+		if (outputStream == null) {
+			throw new IllegalArgumentException("null outputStream");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be > 0");
+		}
+		this.outputStream = outputStream;
+		buffer = new byte[Math.max(bufferSize, BLOCK_SIZE)];
+	}
+
+	/**
+	 * @param entryName
+	 *            {@code String} with the relative path of an entry
+	 * @return {@code boolean} of {@code true} if the name can be written in a
+	 *         ustar header
+	 */
+	static boolean fits(final String entryName) {
+		return entryName != null && !entryName.isEmpty() && splitName(entryName) != null;
+	}
+
+	/**
+	 * Add a file, copying exactly the length it has when its header is written
+	 *
+	 * @param entryName
+	 *            {@code String} with the relative path of the entry
+	 * @param file
+	 *            {@link File} with the content
+	 * @throws IOException
+	 *             if the file cannot be read, or changes length while being read
+	 */
+	void addFile(final String entryName, final File file) throws IOException {
+		if (closed) {
+			throw new IOException("bundle is closed");
+		}
+		if (!fits(entryName)) {
+			throw new IllegalArgumentException("entry name does not fit a ustar header:" + entryName);
+		}
+		if (file == null) {
+			throw new IllegalArgumentException("null file");
+		}
+
+		long length = file.length();
+		if (length > MAX_ENTRY_SIZE) {
+			throw new IOException("file too large for a tar entry:" + file);
+		}
+
+		write(header(entryName, length, file.lastModified() / 1000L));
+
+		long remaining = length;
+		InputStream inputStream = new FileInputStream(file);
+		try {
+			while (remaining > 0) {
+				int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (read < 0) {
+					throw new IOException("file became shorter while being bundled:" + file);
+				}
+				outputStream.write(buffer, 0, read);
+				remaining -= read;
+			}
+		} finally {
+			inputStream.close();
+		}
+		bytesWritten += length;
+
+		int padding = (int) ((BLOCK_SIZE - length % BLOCK_SIZE) % BLOCK_SIZE);
+		if (padding > 0) {
+			write(new byte[padding]);
+		}
+	}
+
+	/**
+	 * @return {@code long} with the bytes of the archive written so far
+	 */
+	long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * Write the end of archive marker and close the stream
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			write(new byte[BLOCK_SIZE * 2]);
+			outputStream.flush();
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private void write(final byte[] bytes) throws IOException {
+		outputStream.write(bytes);
+		bytesWritten += bytes.length;
+	}
+
+	/**
+	 * Split a name into the ustar prefix and name fields
+	 *
+	 * @return {@code byte[][]} with the prefix and the name, or {@code null} if
+	 *         the name does not fit
+	 */
+	private static byte[][] splitName(final String entryName) {
+		byte[] bytes = entryName.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length <= NAME_LENGTH) {
+			return new byte[][] { new byte[0], bytes };
+		}
+		for (int i = Math.min(bytes.length - 2, PREFIX_LENGTH); i > 0; i--) {
+			if (bytes[i] == '/') {
+				if (bytes.length - i - 1 > NAME_LENGTH) {
+					return null;
+				}
+				return new byte[][] { Arrays.copyOfRange(bytes, 0, i), Arrays.copyOfRange(bytes, i + 1, bytes.length) };
+			}
+		}
+		return null;
+	}
+
+	private static byte[] header(final String entryName, final long length, final long modifiedSeconds) {
+		byte[] header = new byte[BLOCK_SIZE];
+		byte[][] name = splitName(entryName);
+		System.arraycopy(name[1], 0, header, 0, name[1].length);
+		octal(header, 100, 8, 0644);
+		octal(header, 108, 8, 0);
+		octal(header, 116, 8, 0);
+		octal(header, 124, 12, length);
+		octal(header, 136, 12, Math.max(0L, Math.min(modifiedSeconds, MAX_ENTRY_SIZE)));
+		header[156] = '0';
+		ascii(header, 257, "ustar");
+		ascii(header, 263, "00");
+		System.arraycopy(name[0], 0, header, 345, name[0].length);
+
+		// the checksum is computed with its own field as spaces
+		Arrays.fill(header, 148, 156, (byte) ' ');
+		long checksum = 0;
+		for (byte b : header) {
+			checksum += b & 0xff;
+		}
+		octal(header, 148, 7, checksum);
+		header[155] = ' ';
+		return header;
+	}
+
+	/**
+	 * Write a zero padded octal number ending in a NUL into a field
+	 */
+	private static void octal(final byte[] header, final int offset, final int length, final long value) {
+		String digits = Long.toOctalString(value);
+		int padding = length - 1 - digits.length();
+		for (int i = 0; i < padding; i++) {
+			header[offset + i] = '0';
+		}
+		ascii(header, offset + padding, digits);
+		header[offset + length - 1] = 0;
+	}
+
+	private static void ascii(final byte[] header, final int offset, final String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(bytes, 0, header, offset, bytes.length);
+	}
+
+}
@@ -90,6 +90,14 @@ final class TransferOperationsHelper {
 		log.info("recursively getting source file: {}", irodsSourceFile.getAbsolutePath());
 		log.info("    into iRODS file: {}", targetLocalFile.getAbsolutePath());
 
+		int recursiveTransferThreads = getRecursiveTransferThreads(transferControlBlock);
+		if (recursiveTransferThreads > 1) {
+			new ConcurrentRecursiveTransfer(dataObjectAO.getIRODSSession(), dataObjectAO.getIRODSAccount(),
+					recursiveTransferThreads, transferStatusCallbackListener, transferControlBlock)
+							.get(irodsSourceFile, targetLocalFile);
+			return;
+		}
+
 		for (File fileInSourceCollection : irodsSourceFile.listFiles()) {
 
 			if (Thread.interrupted()) {
@@ -100,9 +108,7 @@ final class TransferOperationsHelper {
 			/**
 			 * See if I want to close and renew the socket
 			 */
-			if (collectionAO.getIRODSProtocol().getPipelineConfiguration().getSocketRenewalIntervalInSeconds() > 0) {
-				collectionAO.getIRODSSession().currentConnectionCheckRenewalOfSocket(collectionAO.getIRODSAccount());
-			}
+			checkRenewalOfSocket();
 
 			// for each file in the given source collection, put the data file,
 			// or create the new irodsCollection and step into it
@@ -256,6 +262,37 @@ final class TransferOperationsHelper {
 
 		log.info("filter passed, process...");
 
+		getSingleFile(irodsSourceFile, targetLocalFileAsFile, transferStatusCallbackListener, transferControlBlock);
+	}
+
+	/**
+	 * Get a single file that has passed the filter of the transfer control block,
+	 * making the callbacks for the file.
+	 *
+	 * @param irodsSourceFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that is the source
+	 *            of the get.
+	 * @param targetLocalFileAsFile
+	 *            {@code File} on the local file system that will hold the data
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive callbacks of success/failure of
+	 *            the file transfer. This may be set to {@code null}, in which case,
+	 *            exceptions that are thrown will be rethrown by this method to the
+	 *            caller.
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock}
+	 *            implementation that is the communications mechanism between the
+	 *            initiator of the transfer and the transfer process. This is
+	 *            required.
+	 * @throws JargonException
+	 */
+	void getSingleFile(final IRODSFile irodsSourceFile, final File targetLocalFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
+		int totalFiles = transferControlBlock.getTotalFilesToTransfer();
+
 		try {
 
 			if (transferStatusCallbackListener != null) {
@@ -392,6 +429,23 @@ final class TransferOperationsHelper {
 		log.info("    into iRODS file: {}", targetIrodsCollection.getAbsolutePath());
 		log.info("     to resource:{}", targetIrodsCollection.getResource());
 
+		if (getSmallFileAggregationThreshold(transferControlBlock) > 0) {
+			if (getRecursiveTransferThreads(transferControlBlock) > 1) {
+				log.info("small file aggregation takes precedence over recursive transfer threads, put is sequential");
+			}
+			new SmallFilePutAggregator(this, dataObjectAO.getIRODSSession(), dataObjectAO.getIRODSAccount(),
+					transferStatusCallbackListener, transferControlBlock).put(sourceFile, targetIrodsCollection);
+			return;
+		}
+
+		int recursiveTransferThreads = getRecursiveTransferThreads(transferControlBlock);
+		if (recursiveTransferThreads > 1) {
+			new ConcurrentRecursiveTransfer(dataObjectAO.getIRODSSession(), dataObjectAO.getIRODSAccount(),
+					recursiveTransferThreads, transferStatusCallbackListener, transferControlBlock)
+							.put(sourceFile, targetIrodsCollection);
+			return;
+		}
+
 		try {
 			File[] files = sourceFile.listFiles();
 			if (files != null) {
@@ -413,11 +467,7 @@ final class TransferOperationsHelper {
 					/**
 					 * See if I want to close and renew the socket
 					 */
-					if (collectionAO.getIRODSProtocol().getPipelineConfiguration()
-							.getSocketRenewalIntervalInSeconds() > 0) {
-						collectionAO.getIRODSSession()
-								.currentConnectionCheckRenewalOfSocket(collectionAO.getIRODSAccount());
-					}
+					checkRenewalOfSocket();
 
 					if (fileInSourceCollection.isDirectory()) {
 						recursivelyPutACollection(targetIrodsCollection, transferStatusCallbackListener,
@@ -452,7 +502,7 @@ final class TransferOperationsHelper {
 	 *            {@link File} that was the current source of the put
 	 * @throws JargonException
 	 */
-	private void notifyPauseOrCancelCallbackForPut(final IRODSFile targetIrodsCollection,
+	void notifyPauseOrCancelCallbackForPut(final IRODSFile targetIrodsCollection,
 			final TransferStatusCallbackListener transferStatusCallbackListener,
 			final TransferControlBlock transferControlBlock, final File fileInSourceCollection) throws JargonException {
 
@@ -488,7 +538,7 @@ final class TransferOperationsHelper {
 	 * @param je
 	 * @throws JargonException
 	 */
-	private void processRecursivePutException(final File fileInSourceCollection,
+	void processRecursivePutException(final File fileInSourceCollection,
 			final TransferStatusCallbackListener transferStatusCallbackListener, final IRODSFile newIrodsFile,
 			final TransferControlBlock transferControlBlock, final JargonException je) throws JargonException {
 
@@ -607,6 +657,14 @@ final class TransferOperationsHelper {
 		log.info("recursively replicating source file: {}", sourceFile.getAbsolutePath());
 		log.info("    into resource: {}", targetResource);
 
+		int recursiveTransferThreads = getRecursiveTransferThreads(transferControlBlock);
+		if (recursiveTransferThreads > 1) {
+			new ConcurrentRecursiveTransfer(dataObjectAO.getIRODSSession(), dataObjectAO.getIRODSAccount(),
+					recursiveTransferThreads, transferStatusCallbackListener, transferControlBlock)
+							.replicate(sourceFile, targetResource);
+			return;
+		}
+
 		for (File fileInSourceCollection : sourceFile.listFiles()) {
 
 			if (Thread.interrupted()) {
@@ -766,55 +824,180 @@ final class TransferOperationsHelper {
 			targetFileAsFile = targetIrodsFile;
 		}
 
+		if (isPutFiltered(sourceFile, targetFileAsFile, transferStatusCallbackListener, transferControlBlock)) {
+			return;
+		}
+
+		putSingleFile(sourceFile, targetFileAsFile, transferStatusCallbackListener, transferControlBlock);
+	}
+
+	/**
+	 * If restarting a recursive transfer, consult the last good path to see if
+	 * the file needs to be put, and make the callback for a file that does not.
+	 *
+	 * @param sourceFile
+	 *            {@code File} on the local file system that will be the source of
+	 *            the put.
+	 * @param targetFileAsFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that is the data
+	 *            object to put, not its parent collection.
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive the callback, may be
+	 *            {@code null}
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock} with
+	 *            the filter
+	 * @return {@code boolean} of {@code true} if the file is filtered and should
+	 *         not be put
+	 * @throws JargonException
+	 */
+	boolean isPutFiltered(final File sourceFile, final IRODSFile targetFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
+		if (transferControlBlock.filter(sourceFile.getAbsolutePath())) {
+			return false;
+		}
+
+		log.debug("file filtered and not transferred");
+		transferControlBlock.incrementFilesSkippedSoFar();
+		if (transferStatusCallbackListener != null) {
+			TransferStatus status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
+					targetFileAsFile.getAbsolutePath(), "", 0, 0, transferControlBlock.getTotalFilesTransferredSoFar(),
+					transferControlBlock.getTotalFilesSkippedSoFar(), transferControlBlock.getTotalFilesToTransfer(),
+					TransferState.RESTARTING, dataObjectAO.getIRODSAccount().getHost(),
+					dataObjectAO.getIRODSAccount().getZone());
+
+			transferStatusCallbackListener.statusCallback(status);
+		}
+		return true;
+	}
+
+	/**
+	 * Put a single file that has passed the filter of the transfer control block,
+	 * making the callbacks for the file.
+	 *
+	 * @param sourceFile
+	 *            {@code File} on the local file system that will be the source of
+	 *            the put.
+	 * @param targetFileAsFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that is the data
+	 *            object to put, not its parent collection.
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive callbacks of success/failure of
+	 *            the file transfer. This may be set to {@code null}, in which case,
+	 *            exceptions that are thrown will be rethrown by this method to the
+	 *            caller.
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock}
+	 *            implementation that is the communications mechanism between the
+	 *            initiator of the transfer and the transfer process.
+	 * @throws JargonException
+	 */
+	void putSingleFile(final File sourceFile, final IRODSFile targetFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
+		if (startPutOfSingleFile(sourceFile, targetFileAsFile, transferStatusCallbackListener, transferControlBlock)) {
+			transferPutOfSingleFile(sourceFile, targetFileAsFile, transferStatusCallbackListener,
+					transferControlBlock);
+		}
+	}
+
+	/**
+	 * Make the callback for the start of the put of a single file, which the
+	 * listener may answer by skipping the file.
+	 *
+	 * @param sourceFile
+	 *            {@code File} on the local file system that will be the source of
+	 *            the put.
+	 * @param targetFileAsFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that is the data
+	 *            object to put, not its parent collection.
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive the callbacks, may be
+	 *            {@code null}
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock}
+	 *            implementation that is the communications mechanism between the
+	 *            initiator of the transfer and the transfer process.
+	 * @return {@code boolean} of {@code true} if the file should be put,
+	 *         {@code false} if it was skipped or the callback failed
+	 * @throws JargonException
+	 */
+	boolean startPutOfSingleFile(final File sourceFile, final IRODSFile targetFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
+		if (transferStatusCallbackListener == null) {
+			return true;
+		}
+
 		try {
+			TransferStatus status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
+					targetFileAsFile.getAbsolutePath(), targetFileAsFile.getResource(), sourceFile.length(), 0,
+					transferControlBlock.getTotalFilesTransferredSoFar(),
+					transferControlBlock.getTotalFilesSkippedSoFar(), transferControlBlock.getTotalFilesToTransfer(),
+					TransferState.IN_PROGRESS_START_FILE, dataObjectAO.getIRODSAccount().getHost(),
+					dataObjectAO.getIRODSAccount().getZone());
 
-			// if I am restarting a recursive transfer. Consult the last good
-			// path to see if I need to transfer this file
+			/*
+			 * I make the status callback, and the listener, if configured, may respond to
+			 * skip this file or continue. If they say skip, then send a callback that says
+			 * this was done, and increment the skipped count in the tcb
+			 */
 
-			if (!transferControlBlock.filter(sourceFile.getAbsolutePath())) {
-				log.debug("file filtered and not transferred");
+			FileStatusCallbackResponse response = transferStatusCallbackListener.statusCallback(status);
+			if (response == FileStatusCallbackResponse.SKIP) {
+				log.info("file signalled as skipped in callback response:{}", sourceFile.getAbsolutePath());
 				transferControlBlock.incrementFilesSkippedSoFar();
-				TransferStatus status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
+
+				status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
 						targetFileAsFile.getAbsolutePath(), "", 0, 0,
 						transferControlBlock.getTotalFilesTransferredSoFar(),
 						transferControlBlock.getTotalFilesSkippedSoFar(),
-						transferControlBlock.getTotalFilesToTransfer(), TransferState.RESTARTING,
+						transferControlBlock.getTotalFilesToTransfer(), TransferState.SKIPPING,
 						dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
 
 				transferStatusCallbackListener.statusCallback(status);
-				return;
+				return false;
 			}
+			return true;
+		} catch (JargonException je) {
+			processPutOfSingleFileException(sourceFile, targetFileAsFile, transferStatusCallbackListener,
+					transferControlBlock, je);
+			return false;
+		}
+	}
 
-			if (transferStatusCallbackListener != null) {
-				TransferStatus status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
-						targetFileAsFile.getAbsolutePath(), targetFileAsFile.getResource(), sourceFile.length(), 0,
-						transferControlBlock.getTotalFilesTransferredSoFar(),
-						transferControlBlock.getTotalFilesSkippedSoFar(),
-						transferControlBlock.getTotalFilesToTransfer(), TransferState.IN_PROGRESS_START_FILE,
-						dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
-
-				/*
-				 * I make the status callback, and the listener, if configured, may respond to
-				 * skip this file or continue. If they say skip, then send a callback that says
-				 * this was done, and increment the skipped count in the tcb
-				 */
-
-				FileStatusCallbackResponse response = transferStatusCallbackListener.statusCallback(status);
-				if (response == FileStatusCallbackResponse.SKIP) {
-					log.info("file signalled as skipped in callback response:{}", sourceFile.getAbsolutePath());
-					transferControlBlock.incrementFilesSkippedSoFar();
-
-					status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
-							targetFileAsFile.getAbsolutePath(), "", 0, 0,
-							transferControlBlock.getTotalFilesTransferredSoFar(),
-							transferControlBlock.getTotalFilesSkippedSoFar(),
-							transferControlBlock.getTotalFilesToTransfer(), TransferState.SKIPPING,
-							dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
+	/**
+	 * Put a single file once its start has been signalled, making the callback
+	 * for its completion or failure.
+	 *
+	 * @param sourceFile
+	 *            {@code File} on the local file system that will be the source of
+	 *            the put.
+	 * @param targetFileAsFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that is the data
+	 *            object to put, not its parent collection.
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive the callbacks, may be
+	 *            {@code null}, in which case exceptions are rethrown
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock}
+	 *            implementation that is the communications mechanism between the
+	 *            initiator of the transfer and the transfer process.
+	 * @throws JargonException
+	 */
+	void transferPutOfSingleFile(final File sourceFile, final IRODSFile targetFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
 
-					transferStatusCallbackListener.statusCallback(status);
-					return;
-				}
-			}
+		try {
 
 			/*
 			 * The put operation handles any restart processing
@@ -822,46 +1005,79 @@ final class TransferOperationsHelper {
 			dataObjectAO.putLocalDataObjectToIRODS(sourceFile, targetFileAsFile, transferControlBlock,
 					transferStatusCallbackListener, false);
 
-			transferControlBlock.incrementFilesTransferredSoFar();
+			completePutOfSingleFile(sourceFile, targetFileAsFile, transferStatusCallbackListener,
+					transferControlBlock);
+		} catch (JargonException je) {
+			processPutOfSingleFileException(sourceFile, targetFileAsFile, transferStatusCallbackListener,
+					transferControlBlock, je);
+		}
+	}
 
-			if (transferStatusCallbackListener != null) {
+	/**
+	 * Count a single file as transferred and make the callback for its
+	 * completion.
+	 *
+	 * @param sourceFile
+	 *            {@code File} on the local file system that was put
+	 * @param targetFileAsFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that is the data
+	 *            object that was put
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive the callback, may be
+	 *            {@code null}
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock} that
+	 *            counts the files
+	 * @throws JargonException
+	 */
+	void completePutOfSingleFile(final File sourceFile, final IRODSFile targetFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
 
-				TransferStatus status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
-						targetFileAsFile.getAbsolutePath(), targetFileAsFile.getResource(), sourceFile.length(),
-						sourceFile.length(), transferControlBlock.getTotalFilesTransferredSoFar(),
-						transferControlBlock.getTotalFilesSkippedSoFar(),
-						transferControlBlock.getTotalFilesToTransfer(), TransferState.IN_PROGRESS_COMPLETE_FILE,
-						dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
+		transferControlBlock.incrementFilesTransferredSoFar();
 
-				transferStatusCallbackListener.statusCallback(status);
-			}
-		} catch (JargonException je) {
+		if (transferStatusCallbackListener != null) {
 
-			if (!transferControlBlock.isCancelled()) {
+			TransferStatus status = TransferStatus.instance(TransferType.PUT, sourceFile.getAbsolutePath(),
+					targetFileAsFile.getAbsolutePath(), targetFileAsFile.getResource(), sourceFile.length(),
+					sourceFile.length(), transferControlBlock.getTotalFilesTransferredSoFar(),
+					transferControlBlock.getTotalFilesSkippedSoFar(), transferControlBlock.getTotalFilesToTransfer(),
+					TransferState.IN_PROGRESS_COMPLETE_FILE, dataObjectAO.getIRODSAccount().getHost(),
+					dataObjectAO.getIRODSAccount().getZone());
 
-				// may re throw or send back to the callback listener
-				log.error("exception in transfer", je);
+			transferStatusCallbackListener.statusCallback(status);
+		}
+	}
 
-				transferControlBlock.reportErrorInTransfer();
+	private void processPutOfSingleFileException(final File sourceFile, final IRODSFile targetFileAsFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock, final JargonException je) throws JargonException {
 
-				if (transferStatusCallbackListener != null) {
-					log.warn("exception will be passed back to existing callback listener");
+		if (!transferControlBlock.isCancelled()) {
 
-					TransferStatus status = TransferStatus.instanceForException(TransferType.PUT,
-							sourceFile.getAbsolutePath(), targetFileAsFile.getAbsolutePath(),
-							targetFileAsFile.getResource(), sourceFile.length(), targetFileAsFile.length(),
-							transferControlBlock.getTotalFilesTransferredSoFar(),
-							transferControlBlock.getTotalFilesSkippedSoFar(),
-							transferControlBlock.getTotalFilesToTransfer(), je,
-							dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
+			// may re throw or send back to the callback listener
+			log.error("exception in transfer", je);
 
-					transferStatusCallbackListener.statusCallback(status);
+			transferControlBlock.reportErrorInTransfer();
 
-				} else {
-					log.warn("exception will be re-thrown, as there is no status callback listener");
-					throw je;
+			if (transferStatusCallbackListener != null) {
+				log.warn("exception will be passed back to existing callback listener");
+
+				TransferStatus status = TransferStatus.instanceForException(TransferType.PUT,
+						sourceFile.getAbsolutePath(), targetFileAsFile.getAbsolutePath(),
+						targetFileAsFile.getResource(), sourceFile.length(), targetFileAsFile.length(),
+						transferControlBlock.getTotalFilesTransferredSoFar(),
+						transferControlBlock.getTotalFilesSkippedSoFar(),
+						transferControlBlock.getTotalFilesToTransfer(), je,
+						dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
+
+				transferStatusCallbackListener.statusCallback(status);
+
+			} else {
+				log.warn("exception will be re-thrown, as there is no status callback listener");
+				throw je;
 
-				}
 			}
 		}
 	}
@@ -903,6 +1119,34 @@ final class TransferOperationsHelper {
 
 		log.info("filter passed, process...");
 
+		replicateSingleFile(irodsFileAbsolutePath, targetResource, transferStatusCallbackListener,
+				transferControlBlock);
+	}
+
+	/**
+	 * Replicate a single file that has passed the filter of the transfer control
+	 * block, making the callbacks for the file.
+	 *
+	 * @param irodsFileAbsolutePath
+	 *            {@code String} with the absolute path to the data object
+	 * @param targetResource
+	 *            {@code String} with the resource to replicate to
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive callbacks of success/failure of
+	 *            the replication. This may be set to {@code null}, in which case,
+	 *            exceptions that are thrown will be rethrown by this method to the
+	 *            caller.
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock}
+	 *            implementation that is the communications mechanism between the
+	 *            initiator of the transfer and the transfer process.
+	 * @throws JargonException
+	 */
+	void replicateSingleFile(final String irodsFileAbsolutePath, final String targetResource,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
 		try {
 
 			dataObjectAO.replicateIrodsDataObject(irodsFileAbsolutePath, targetResource);
@@ -977,6 +1221,14 @@ final class TransferOperationsHelper {
 		log.info("recursively copying source file: {}", irodsSourceFile.getAbsolutePath());
 		log.info("to target file: {}", targetIrodsFileAbsolutePath);
 		log.info("resource: {}", targetResource);
+
+		int recursiveTransferThreads = getRecursiveTransferThreads(transferControlBlock);
+		if (recursiveTransferThreads > 1) {
+			new ConcurrentRecursiveTransfer(dataObjectAO.getIRODSSession(), dataObjectAO.getIRODSAccount(),
+					recursiveTransferThreads, transferStatusCallbackListener, transferControlBlock)
+							.copy(irodsSourceFile, targetResource, targetIrodsFileAbsolutePath);
+			return;
+		}
 		IRODSFile childTargetFile = null;
 
 		for (File fileInSourceCollection : irodsSourceFile.listFiles()) {
@@ -1071,11 +1323,10 @@ final class TransferOperationsHelper {
 		log.info("targetResource:{}", targetResource);
 		log.info("irodsTargetFileAbsolutePath:{}", irodsTargetFileAbsolutePath);
 
-		try {
-
-			if (!transferControlBlock.filter(irodsSourceFileAbsolutePath)) {
-				log.info("file is filtered and discarded: {}", irodsTargetFileAbsolutePath);
-				transferControlBlock.incrementFilesSkippedSoFar();
+		if (!transferControlBlock.filter(irodsSourceFileAbsolutePath)) {
+			log.info("file is filtered and discarded: {}", irodsTargetFileAbsolutePath);
+			transferControlBlock.incrementFilesSkippedSoFar();
+			if (transferStatusCallbackListener != null) {
 				TransferStatus status = TransferStatus.instance(TransferType.COPY, irodsSourceFileAbsolutePath,
 						irodsTargetFileAbsolutePath, targetResource, 0, 0,
 						transferControlBlock.getTotalFilesTransferredSoFar(),
@@ -1083,10 +1334,46 @@ final class TransferOperationsHelper {
 						transferControlBlock.getTotalFilesToTransfer(), TransferState.RESTARTING,
 						dataObjectAO.getIRODSAccount().getHost(), dataObjectAO.getIRODSAccount().getZone());
 				transferStatusCallbackListener.statusCallback(status);
-				return;
 			}
+			return;
+		}
+
+		log.info("filter passed, process...");
+
+		copySingleFile(irodsSourceFileAbsolutePath, targetResource, irodsTargetFileAbsolutePath,
+				transferStatusCallbackListener, transferControlBlock);
+	}
+
+	/**
+	 * Copy a single file that has passed the filter of the transfer control block,
+	 * making the callbacks for the file.
+	 *
+	 * @param irodsSourceFileAbsolutePath
+	 *            {@code String} with the absolute path to the source data object
+	 * @param targetResource
+	 *            {@code String} with the optional (blank if not specified) resource
+	 *            to which the file wil be copied
+	 * @param irodsTargetFileAbsolutePath
+	 *            {@code String} with the absolute path to the iRODS target file or
+	 *            collection
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive callbacks of success/failure of
+	 *            the copy. This may be set to {@code null}, in which case,
+	 *            exceptions that are thrown will be rethrown by this method to the
+	 *            caller.
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock}
+	 *            implementation that is the communications mechanism between the
+	 *            initiator of the transfer and the transfer process.
+	 * @throws JargonException
+	 */
+	void copySingleFile(final String irodsSourceFileAbsolutePath, final String targetResource,
+			final String irodsTargetFileAbsolutePath,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
 
-			log.info("filter passed, process...");
+		try {
 
 			IRODSFile irodsSourceFile = dataObjectAO.getIRODSFileFactory()
 					.instanceIRODSFile(irodsSourceFileAbsolutePath);
@@ -1137,4 +1424,30 @@ final class TransferOperationsHelper {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Close and renew the socket of this thread's connection if it has been open
+	 * longer than the renewal interval in the pipeline configuration
+	 *
+	 * @throws JargonException
+	 */
+	void checkRenewalOfSocket() throws JargonException {
+		if (collectionAO.getIRODSProtocol().getPipelineConfiguration().getSocketRenewalIntervalInSeconds() > 0) {
+			collectionAO.getIRODSSession().currentConnectionCheckRenewalOfSocket(collectionAO.getIRODSAccount());
+		}
+	}
+
+	private static long getSmallFileAggregationThreshold(final TransferControlBlock transferControlBlock) {
+		if (transferControlBlock == null || transferControlBlock.getTransferOptions() == null) {
+			return 0;
+		}
+		return transferControlBlock.getTransferOptions().getSmallFileAggregationThreshold();
+	}
+
+	private static int getRecursiveTransferThreads(final TransferControlBlock transferControlBlock) {
+		if (transferControlBlock == null || transferControlBlock.getTransferOptions() == null) {
+			return 1;
+		}
+		return transferControlBlock.getTransferOptions().getRecursiveTransferThreads();
+	}
+
+}
@@ -238,6 +238,50 @@ public interface UserAO extends IRODSAccessObject {
 	 */
 	void deleteAVUMetadata(String userName, AvuData avuData) throws DataNotFoundException, JargonException;
 
+	/**
+	 * Given a list of avu metadata, add all to the user. A response will be
+	 * returned giving individual success/failure information. This is only
+	 * possible when a rods admin.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
+	 *
+	 * @param userName
+	 *            {@code String} with the user name to which the AVU metadata will
+	 *            be added
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} for each AVU to be added.
+	 * @return {@code List} of {@link BulkAVUOperationResponse} with details on
+	 *         the success or failure of the add of each AVU.
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	List<BulkAVUOperationResponse> addBulkAVUMetadataToUser(String userName, List<AvuData> avuData)
+			throws JargonException;
+
+	/**
+	 * Given a list of avu metadata, delete all from the user. A response will be
+	 * returned giving individual success/failure information. This is only
+	 * possible when a rods admin.
+	 * <p>
+	 * When iRODS provides the atomic metadata API plugin, the AVUs are sent in
+	 * batches of {@code JargonProperties.getAtomicMetadataBatchSize()}, if that is
+	 * above 0.
+	 *
+	 * @param userName
+	 *            {@code String} with the user name from whom the AVU metadata will
+	 *            be removed
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} for each AVU to be deleted.
+	 * @return {@code List} of {@link BulkAVUOperationResponse} with details on
+	 *         the success or failure of the delete of each AVU.
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromUser(String userName, List<AvuData> avuData)
+			throws JargonException;
+
 	/**
 	 * Modify the given AVU metadata from the user. This is only possible when a
 	 * rods admin.
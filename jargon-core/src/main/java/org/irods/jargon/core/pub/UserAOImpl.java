@@ -21,6 +21,7 @@ import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
 import org.irods.jargon.core.packinstr.Tag;
 import org.irods.jargon.core.packinstr.UserAdminInp;
 import org.irods.jargon.core.protovalues.UserTypeEnum;
+import org.irods.jargon.core.pub.BulkAVUOperationResponse.ResultStatus;
 import org.irods.jargon.core.pub.aohelper.UserAOHelper;
 import org.irods.jargon.core.pub.domain.AvuData;
 import org.irods.jargon.core.pub.domain.User;
@@ -911,6 +912,82 @@ public final class UserAOImpl extends IRODSGenericAO implements UserAO {
 
 	}
 
+	@Override
+	public List<BulkAVUOperationResponse> addBulkAVUMetadataToUser(final String userName,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("addBulkAVUMetadataToUser()");
+
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_USER, userName, BulkAVUOperationsHelper.OPERATION_ADD, avuData,
+				new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							addAVUMetadata(userName, value);
+						} catch (DataNotFoundException dnf) {
+							log.error("DataNotFoundException when adding an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						} catch (DuplicateDataException dde) {
+							log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
+							return BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value,
+									dde.getMessage());
+						}
+
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
+
+		log.info("...complete");
+		return responses;
+	}
+
+	@Override
+	public List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromUser(final String userName,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("deleteBulkAVUMetadataFromUser()");
+
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		List<BulkAVUOperationResponse> responses = new BulkAVUOperationsHelper(this).apply(
+				BulkAVUOperationsHelper.ENTITY_TYPE_USER, userName, BulkAVUOperationsHelper.OPERATION_REMOVE,
+				avuData, new BulkAVUOperationsHelper.SingleAVUOperation() {
+
+					@Override
+					public BulkAVUOperationResponse apply(final AvuData value) throws JargonException {
+						try {
+							deleteAVUMetadata(userName, value);
+						} catch (DataNotFoundException dnf) {
+							log.error("DataNotFoundException when deleting an AVU, catch and add to response data", dnf);
+							return BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+									dnf.getMessage());
+						}
+
+						return BulkAVUOperationResponse.instance(ResultStatus.OK, value, "");
+					}
+				});
+
+		log.info("...complete");
+		return responses;
+	}
+
 	@Override
 	public void updateUserInfo(final String userName, final String userInfo)
 			throws DataNotFoundException, JargonException {
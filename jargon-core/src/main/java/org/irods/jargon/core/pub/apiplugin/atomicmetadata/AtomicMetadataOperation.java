@@ -50,7 +50,7 @@ public class AtomicMetadataOperation {
 		this.value = value;
 	}
 
-	@JsonGetter("unit")
+	@JsonGetter("units")
 	public String getUnits() {
 		return units;
 	}
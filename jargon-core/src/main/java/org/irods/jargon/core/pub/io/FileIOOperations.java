@@ -6,6 +6,7 @@ package org.irods.jargon.core.pub.io;
 import java.io.OutputStream;
 
 import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSAccessObject;
 
@@ -25,6 +26,42 @@ public interface FileIOOperations extends IRODSAccessObject {
 
 	int write(int fd, byte buffer[], int offset, int length) throws JargonException;
 
+	/**
+	 * Send a write of the given bytes to the open file over the given connection
+	 * without waiting for iRODS to acknowledge it, so that more writes can be sent
+	 * behind it. Each call must be matched, in order, by a call to
+	 * {@link #awaitWriteAcknowledgement(IRODSMidLevelProtocol)}, and the caller
+	 * holds {@link IRODSMidLevelProtocol#lockExchange()} until the writes in
+	 * flight have been acknowledged.
+	 *
+	 * @param irodsProtocol
+	 *            {@link IRODSMidLevelProtocol} that opened the file descriptor
+	 * @param fd
+	 *            {@code int} with the open file descriptor
+	 * @param buffer
+	 *            {@code byte[]} with the data to write
+	 * @param offset
+	 *            {@code int} with the offset in the buffer
+	 * @param length
+	 *            {@code int} with the number of bytes to write
+	 * @throws JargonException
+	 *             for an error sending the write
+	 */
+	void writeWithoutAcknowledgement(IRODSMidLevelProtocol irodsProtocol, int fd, byte buffer[], int offset,
+			int length) throws JargonException;
+
+	/**
+	 * Read the response to the oldest write sent with
+	 * {@link #writeWithoutAcknowledgement(IRODSMidLevelProtocol, int, byte[], int, int)}
+	 *
+	 * @param irodsProtocol
+	 *            {@link IRODSMidLevelProtocol} the write was sent on
+	 * @return {@code int} with the number of bytes iRODS reports as written
+	 * @throws JargonException
+	 *             if iRODS reports an error for the write
+	 */
+	int awaitWriteAcknowledgement(IRODSMidLevelProtocol irodsProtocol) throws JargonException;
+
 	int fileRead(int fd, OutputStream destination, long length) throws JargonException;
 
 	/**
@@ -93,6 +130,32 @@ public interface FileIOOperations extends IRODSAccessObject {
 	 */
 	int fileRead(int fd, byte buffer[], int offset, int length) throws JargonException;
 
+	/**
+	 * Reads up to {@code length} bytes from the open file into the buffer as
+	 * {@link #fileRead(int, byte[], int, int)} does, but over the given connection
+	 * rather than the one belonging to the calling thread. A file descriptor is only
+	 * valid on the connection that opened it, so this lets another thread read
+	 * ahead on behalf of the thread that opened the file. The request and its data
+	 * are exchanged under the connection lock, so calls from the owning thread are
+	 * not interleaved with them.
+	 *
+	 * @param irodsProtocol
+	 *            {@link IRODSMidLevelProtocol} that opened the file descriptor
+	 * @param fd
+	 *            {@code int} with the open file descriptor
+	 * @param buffer
+	 *            {@code byte[]} to read into
+	 * @param offset
+	 *            {@code int} with the offset in the buffer
+	 * @param length
+	 *            {@code int} with the most bytes to read
+	 * @return {@code int} with the number of bytes read, or -1 at end of file
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	int fileRead(IRODSMidLevelProtocol irodsProtocol, int fd, byte buffer[], int offset, int length)
+			throws JargonException;
+
 	/**
 	 * Set the file position for the IRODS file to the specified position
 	 *
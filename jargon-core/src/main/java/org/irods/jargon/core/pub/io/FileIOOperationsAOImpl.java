@@ -87,6 +87,60 @@ public final class FileIOOperationsAOImpl extends IRODSGenericAO implements File
 		return message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.intInfo).getIntValue();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.io.FileIOOperations#writeWithoutAcknowledgement(
+	 * org.irods.jargon.core.connection.IRODSMidLevelProtocol, int, byte[], int,
+	 * int)
+	 */
+	@Override
+	public void writeWithoutAcknowledgement(final IRODSMidLevelProtocol irodsProtocol, final int fd,
+			final byte buffer[], final int offset, final int length) throws JargonException {
+
+		if (irodsProtocol == null) {
+			throw new IllegalArgumentException("null irodsProtocol");
+		}
+
+		if (fd <= 0) {
+			throw new IllegalArgumentException("file is not open, file descriptor was less than zero:" + fd);
+		}
+
+		if (buffer == null || buffer.length == 0) {
+			throw new IllegalArgumentException("null or empty buffer");
+		}
+
+		if (offset < 0 || length <= 0 || offset + length > buffer.length) {
+			throw new IllegalArgumentException("offset:" + offset + " and length:" + length
+					+ " do not fit the buffer length of:" + buffer.length);
+		}
+
+		OpenedDataObjInp openedDataObjInp = OpenedDataObjInp.instanceForFileWrite(fd, 0L, length);
+		irodsProtocol.irodsFunctionUnidirectional(openedDataObjInp, buffer, offset, length);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.io.FileIOOperations#awaitWriteAcknowledgement(org.
+	 * irods.jargon.core.connection.IRODSMidLevelProtocol)
+	 */
+	@Override
+	public int awaitWriteAcknowledgement(final IRODSMidLevelProtocol irodsProtocol) throws JargonException {
+
+		if (irodsProtocol == null) {
+			throw new IllegalArgumentException("null irodsProtocol");
+		}
+
+		Tag message = irodsProtocol.readMessage();
+		if (message == null) {
+			throw new JargonException("no response to write");
+		}
+		return message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.intInfo).getIntValue();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -106,18 +160,23 @@ public final class FileIOOperationsAOImpl extends IRODSGenericAO implements File
 		OpenedDataObjInp fileReadInp = OpenedDataObjInp.instanceForFileRead(fd, length);
 		IRODSMidLevelProtocol irodsProtocol = getIRODSProtocol();
 
-		Tag message = irodsProtocol.irodsFunction(fileReadInp);
+		irodsProtocol.lockExchange();
+		try {
+			Tag message = irodsProtocol.irodsFunction(fileReadInp);
 
-		// Need the total dataSize
-		if (message == null) {
-			return -1;
-		}
+			// Need the total dataSize
+			if (message == null) {
+				return -1;
+			}
 
-		length = message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.bsLen).getIntValue();
+			length = message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.bsLen).getIntValue();
 
-		// read the message byte stream into the local file
-		irodsProtocol.read(destination, length);
-		return message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.intInfo).getIntValue();
+			// read the message byte stream into the local file
+			irodsProtocol.read(destination, length);
+			return message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.intInfo).getIntValue();
+		} finally {
+			irodsProtocol.unlockExchange();
+		}
 	}
 
 	/*
@@ -127,35 +186,60 @@ public final class FileIOOperationsAOImpl extends IRODSGenericAO implements File
 	 * int)
 	 */
 	@Override
-	public int fileRead(final int fd, final byte buffer[], final int offset, int length) throws JargonException {
+	public int fileRead(final int fd, final byte buffer[], final int offset, final int length) throws JargonException {
+		return fileRead(getIRODSProtocol(), fd, buffer, offset, length);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.io.FileIOOperations#fileRead(org.irods.jargon.
+	 * core.connection.IRODSMidLevelProtocol, int, byte[], int, int)
+	 */
+	@Override
+	public int fileRead(final IRODSMidLevelProtocol irodsProtocol, final int fd, final byte buffer[],
+			final int offset, int length) throws JargonException {
 
 		log.debug("file read for fd: {}", fd);
 
+		if (irodsProtocol == null) {
+			throw new IllegalArgumentException("null irodsProtocol");
+		}
+
 		if (fd <= 0) {
 			throw new IllegalArgumentException("invalid file descriptor");
 		}
 
 		OpenedDataObjInp fileReadInp = OpenedDataObjInp.instanceForFileRead(fd, length);
-		IRODSMidLevelProtocol irodsProtocol = getIRODSProtocol();
-		Tag message = irodsProtocol.irodsFunction(fileReadInp);
 
-		// Need the total dataSize
-		if (message == null) {
-			return -1;
-		}
-
-		length = message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.bsLen).getIntValue();
-
-		// read the message byte stream into the local file
-
-		int read = irodsProtocol.read(buffer, offset, length);
-
-		if (read == message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.intInfo).getIntValue()) {
-			return read;
-		} else {
-			log.error(
-					"did not read length equal to response length, expected" + length + " bytes actually read:" + read);
-			throw new JargonException("Bytes read mismatch");
+		/*
+		 * the request and the byte stream that follows its response are one
+		 * exchange, another thread sharing the connection must not get in between
+		 */
+		irodsProtocol.lockExchange();
+		try {
+			Tag message = irodsProtocol.irodsFunction(fileReadInp);
+
+			// Need the total dataSize
+			if (message == null) {
+				return -1;
+			}
+
+			length = message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.bsLen).getIntValue();
+
+			// read the message byte stream into the local file
+
+			int read = irodsProtocol.read(buffer, offset, length);
+
+			if (read == message.getTag(IRODSConstants.MsgHeader_PI).getTag(IRODSConstants.intInfo).getIntValue()) {
+				return read;
+			} else {
+				log.error("did not read length equal to response length, expected" + length
+						+ " bytes actually read:" + read);
+				throw new JargonException("Bytes read mismatch");
+			}
+		} finally {
+			irodsProtocol.unlockExchange();
 		}
 	}
 
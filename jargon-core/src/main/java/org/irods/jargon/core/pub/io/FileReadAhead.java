@@ -0,0 +1,259 @@
+package org.irods.jargon.core.pub.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a window of buffers being fetched from an open iRODS file descriptor by
+ * a background thread while the reader drains the buffer it already has, so
+ * that the round trip for the next read overlaps with the caller's processing
+ * of the current one.
+ * <p>
+ * The fetches are made on the connection that opened the descriptor, which is
+ * captured when this object is created, since a descriptor is not valid on any
+ * other connection. At most {@code window} filled buffers wait for the reader,
+ * and the buffers are recycled, so memory use is bounded by
+ * {@code (window + 1) * bufferSize}.
+ * <p>
+ * This object is used by one reading thread, and is not otherwise thread safe.
+ */
+final class FileReadAhead {
+
+	private static final Logger log = LoggerFactory.getLogger(FileReadAhead.class);
+
+	private final FileIOOperations fileIOOperations;
+	private final IRODSMidLevelProtocol irodsProtocol;
+	private final int fd;
+	private final int bufferSize;
+	private final int maxBuffers;
+
+	/**
+	 * Filled buffers in file order. Sized so that the fetcher never blocks on
+	 * put, which lets {@link #stop()} wait for it by only refilling
+	 * {@link #freeBuffers}
+	 */
+	private final BlockingQueue<Chunk> filledChunks;
+	private final BlockingQueue<byte[]> freeBuffers;
+	private int allocatedBuffers = 0;
+
+	private volatile boolean stopping = false;
+	private Thread fetcher = null;
+	private Chunk current = null;
+	private int currentPosition = 0;
+
+	/**
+	 * Data read by one fetch, or the end of file or error that ended fetching
+	 */
+	private static final class Chunk {
+		private final byte[] buffer;
+		private final int length;
+		private final JargonException error;
+
+		private Chunk(final byte[] buffer, final int length, final JargonException error) {
+			this.buffer = buffer;
+			this.length = length;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * @param fileIOOperations
+	 *            {@link FileIOOperations} used to make the reads
+	 * @param irodsProtocol
+	 *            {@link IRODSMidLevelProtocol} that opened the file descriptor
+	 * @param fd
+	 *            {@code int} with the open file descriptor
+	 * @param window
+	 *            {@code int} with the number of buffers to keep ahead of the
+	 *            reader
+	 * @param bufferSize
+	 *            {@code int} with the size of each read
+	 */
+	FileReadAhead(final FileIOOperations fileIOOperations, final IRODSMidLevelProtocol irodsProtocol, final int fd,
+			final int window, final int bufferSize) {
+		if (fileIOOperations == null) {
+			throw new IllegalArgumentException("null fileIOOperations");
+		}
+		if (irodsProtocol == null) {
+			throw new IllegalArgumentException("null irodsProtocol");
+		}
+		if (fd <= 0) {
+			throw new IllegalArgumentException("invalid file descriptor");
+		}
+		if (window <= 0) {
+			throw new IllegalArgumentException("window must be > 0");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be > 0");
+		}
+		this.fileIOOperations = fileIOOperations;
+		this.irodsProtocol = irodsProtocol;
+		this.fd = fd;
+		this.bufferSize = bufferSize;
+		maxBuffers = window + 1;
+		filledChunks = new ArrayBlockingQueue<Chunk>(maxBuffers + 1);
+		freeBuffers = new ArrayBlockingQueue<byte[]>(maxBuffers);
+	}
+
+	/**
+	 * Read up to {@code len} bytes from the buffers fetched ahead, waiting for the
+	 * next buffer if the current one is used up
+	 *
+	 * @param b
+	 *            {@code byte[]} to read into
+	 * @param off
+	 *            {@code int} with the offset in {@code b}
+	 * @param len
+	 *            {@code int} with the most bytes to read
+	 * @return {@code int} with the number of bytes read, or -1 at end of file
+	 * @throws IOException
+	 *             if a fetch failed, or the wait was interrupted
+	 */
+	int read(final byte[] b, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!nextData()) {
+			return -1;
+		}
+		int count = Math.min(len, current.length - currentPosition);
+		System.arraycopy(current.buffer, currentPosition, b, off, count);
+		currentPosition += count;
+		return count;
+	}
+
+	private boolean nextData() throws IOException {
+		if (current != null) {
+			if (current.error != null) {
+				throw new IOException(current.error);
+			} else if (current.length <= 0) {
+				return false;
+			} else if (currentPosition < current.length) {
+				return true;
+			}
+			recycle(current);
+			current = null;
+		}
+
+		if (fetcher == null) {
+			start();
+		}
+
+		try {
+			current = filledChunks.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for read ahead");
+		}
+		currentPosition = 0;
+
+		if (current.error != null) {
+			throw new IOException(current.error);
+		}
+		return current.length > 0;
+	}
+
+	private void start() {
+		stopping = false;
+		fetcher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				fetch();
+			}
+		}, "jargon-read-ahead-fd-" + fd);
+		fetcher.setDaemon(true);
+		fetcher.start();
+	}
+
+	private void fetch() {
+		try {
+			while (!stopping) {
+				byte[] buffer = takeBuffer();
+				if (stopping) {
+					freeBuffers.offer(buffer);
+					break;
+				}
+				int read = fileIOOperations.fileRead(irodsProtocol, fd, buffer, 0, bufferSize);
+				filledChunks.add(new Chunk(buffer, read, null));
+				if (read <= 0) {
+					log.debug("read ahead reached end of file for fd:{}", fd);
+					break;
+				}
+			}
+		} catch (JargonException e) {
+			log.error("error reading ahead, will be reported to the reader", e);
+			filledChunks.add(new Chunk(null, -1, e));
+		} catch (InterruptedException e) {
+			log.warn("read ahead interrupted");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private byte[] takeBuffer() throws InterruptedException {
+		byte[] buffer = freeBuffers.poll();
+		if (buffer != null) {
+			return buffer;
+		}
+		synchronized (this) {
+			if (allocatedBuffers < maxBuffers) {
+				allocatedBuffers++;
+				return new byte[bufferSize];
+			}
+		}
+		return freeBuffers.take();
+	}
+
+	private void recycle(final Chunk chunk) {
+		if (chunk.buffer != null) {
+			freeBuffers.offer(chunk.buffer);
+		}
+	}
+
+	/**
+	 * Stop fetching and discard what was fetched but not read. The file pointer
+	 * in iRODS is then past the data that has been read, so a caller that goes
+	 * on reading must seek to its own position first. A later
+	 * {@link #read(byte[], int, int)} starts fetching again from the iRODS file
+	 * pointer.
+	 *
+	 * @throws IOException
+	 *             if interrupted waiting for an in flight fetch to finish
+	 */
+	void stop() throws IOException {
+		if (current != null) {
+			recycle(current);
+			current = null;
+		}
+		if (fetcher == null) {
+			return;
+		}
+		stopping = true;
+		try {
+			while (fetcher.isAlive()) {
+				// hand buffers back so a fetcher waiting for one wakes and sees the stop
+				drainFilled();
+				fetcher.join(100);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for read ahead to stop");
+		}
+		drainFilled();
+		fetcher = null;
+	}
+
+	private void drainFilled() {
+		Chunk chunk;
+		while ((chunk = filledChunks.poll()) != null) {
+			recycle(chunk);
+		}
+	}
+
+}
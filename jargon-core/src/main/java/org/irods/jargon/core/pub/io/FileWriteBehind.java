@@ -0,0 +1,331 @@
+package org.irods.jargon.core.pub.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulates data written to an open iRODS file descriptor in pooled buffers
+ * that a background thread sends as file writes, keeping several writes in
+ * flight on the connection rather than waiting for each acknowledgement before
+ * taking more data. The caller only waits when every buffer is queued or in
+ * flight, so a stream of writes proceeds at the speed of the link rather than
+ * one round trip per buffer.
+ * <p>
+ * The writes are sent on the connection that opened the descriptor, captured
+ * when this object is created. The writer holds the connection lock while any
+ * write is unacknowledged, so other requests on the connection wait for the
+ * writes in flight to be acknowledged. An error from iRODS, or from the
+ * connection, is reported on the next {@link #write(byte[], int, int)},
+ * {@link #flush()} or {@link #close()}, and later data is discarded.
+ * <p>
+ * This object is used by one writing thread, and is not otherwise thread safe.
+ */
+final class FileWriteBehind {
+
+	private static final Logger log = LoggerFactory.getLogger(FileWriteBehind.class);
+
+	/**
+	 * Queued after the last buffer to end the writer
+	 */
+	private static final Chunk STOP = new Chunk(null, 0);
+
+	private final FileIOOperations fileIOOperations;
+	private final IRODSMidLevelProtocol irodsProtocol;
+	private final int fd;
+	private final int bufferSize;
+	private final int maxInFlight;
+
+	private final BlockingQueue<Chunk> queuedChunks = new LinkedBlockingQueue<Chunk>();
+	private final BlockingQueue<byte[]> freeBuffers;
+	private int allocatedBuffers = 0;
+
+	/**
+	 * Buffers queued or in flight, guarded by this object's monitor
+	 */
+	private int pendingBuffers = 0;
+	private volatile Exception failure = null;
+
+	private Thread writer = null;
+	private byte[] current = null;
+	private int currentLength = 0;
+
+	/**
+	 * Data for one write
+	 */
+	private static final class Chunk {
+		private final byte[] buffer;
+		private final int length;
+
+		private Chunk(final byte[] buffer, final int length) {
+			this.buffer = buffer;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * @param fileIOOperations
+	 *            {@link FileIOOperations} used to make the writes
+	 * @param irodsProtocol
+	 *            {@link IRODSMidLevelProtocol} that opened the file descriptor
+	 * @param fd
+	 *            {@code int} with the open file descriptor
+	 * @param maxInFlight
+	 *            {@code int} with the most writes queued or unacknowledged
+	 * @param bufferSize
+	 *            {@code int} with the size of each write
+	 */
+	FileWriteBehind(final FileIOOperations fileIOOperations, final IRODSMidLevelProtocol irodsProtocol, final int fd,
+			final int maxInFlight, final int bufferSize) {
+		if (fileIOOperations == null) {
+			throw new IllegalArgumentException("null fileIOOperations");
+		}
+		if (irodsProtocol == null) {
+			throw new IllegalArgumentException("null irodsProtocol");
+		}
+		if (fd <= 0) {
+			throw new IllegalArgumentException("invalid file descriptor");
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("maxInFlight must be > 0");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be > 0");
+		}
+		this.fileIOOperations = fileIOOperations;
+		this.irodsProtocol = irodsProtocol;
+		this.fd = fd;
+		this.bufferSize = bufferSize;
+		this.maxInFlight = maxInFlight;
+		freeBuffers = new LinkedBlockingQueue<byte[]>(maxInFlight + 1);
+	}
+
+	/**
+	 * Copy the data into the current buffer, queueing each buffer that fills
+	 *
+	 * @param b
+	 *            {@code byte[]} with the data
+	 * @param off
+	 *            {@code int} with the offset in {@code b}
+	 * @param len
+	 *            {@code int} with the number of bytes
+	 * @throws IOException
+	 *             if an earlier write failed, or the wait for a buffer was
+	 *             interrupted
+	 */
+	void write(final byte[] b, final int off, final int len) throws IOException {
+		checkFailure();
+		int position = off;
+		int remaining = len;
+		while (remaining > 0) {
+			if (current == null) {
+				current = takeBuffer();
+				currentLength = 0;
+			}
+			int count = Math.min(remaining, bufferSize - currentLength);
+			System.arraycopy(b, position, current, currentLength, count);
+			currentLength += count;
+			position += count;
+			remaining -= count;
+			if (currentLength == bufferSize) {
+				queueCurrent();
+			}
+		}
+	}
+
+	/**
+	 * Queue any partly filled buffer and wait for every write to be acknowledged
+	 *
+	 * @throws IOException
+	 *             if a write failed, or the wait was interrupted
+	 */
+	void flush() throws IOException {
+		checkFailure();
+		queueCurrent();
+		synchronized (this) {
+			try {
+				while (pendingBuffers > 0 && failure == null) {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted waiting for writes to be acknowledged");
+			}
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Flush, then end the writer. The file descriptor is left open.
+	 *
+	 * @throws IOException
+	 *             if a write failed, or the wait was interrupted
+	 */
+	void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			stopWriter();
+		}
+	}
+
+	private void stopWriter() throws InterruptedIOException {
+		if (writer == null) {
+			return;
+		}
+		queuedChunks.add(STOP);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for write behind to stop");
+		}
+		writer = null;
+	}
+
+	private void checkFailure() throws IOException {
+		if (failure != null) {
+			throw new IOException("earlier write to iRODS failed", failure);
+		}
+	}
+
+	private byte[] takeBuffer() throws IOException {
+		byte[] buffer = freeBuffers.poll();
+		if (buffer != null) {
+			return buffer;
+		}
+		if (allocatedBuffers < maxInFlight + 1) {
+			allocatedBuffers++;
+			return new byte[bufferSize];
+		}
+		try {
+			return freeBuffers.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for a write buffer");
+		}
+	}
+
+	private void queueCurrent() {
+		if (current == null) {
+			return;
+		}
+		if (currentLength == 0) {
+			freeBuffers.offer(current);
+		} else {
+			if (writer == null) {
+				start();
+			}
+			synchronized (this) {
+				pendingBuffers++;
+			}
+			queuedChunks.add(new Chunk(current, currentLength));
+		}
+		current = null;
+		currentLength = 0;
+	}
+
+	private void start() {
+		writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				send();
+			}
+		}, "jargon-write-behind-fd-" + fd);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	private void send() {
+		Deque<Chunk> inFlight = new ArrayDeque<Chunk>();
+		try {
+			while (true) {
+				Chunk chunk = inFlight.isEmpty() ? queuedChunks.take() : queuedChunks.poll();
+				if (chunk == null) {
+					// nothing more to send yet, collect the oldest acknowledgement
+					acknowledgeOldest(inFlight);
+					continue;
+				}
+
+				if (chunk == STOP) {
+					while (!inFlight.isEmpty()) {
+						acknowledgeOldest(inFlight);
+					}
+					return;
+				}
+
+				if (failure != null) {
+					done(chunk);
+					continue;
+				}
+
+				if (inFlight.size() >= maxInFlight) {
+					acknowledgeOldest(inFlight);
+				}
+
+				if (inFlight.isEmpty()) {
+					irodsProtocol.lockExchange();
+				}
+				inFlight.add(chunk);
+				try {
+					fileIOOperations.writeWithoutAcknowledgement(irodsProtocol, fd, chunk.buffer, 0, chunk.length);
+				} catch (JargonException | RuntimeException e) {
+					log.error("error sending write, writes in flight are abandoned", e);
+					fail(e);
+					// the connection is not usable, so there are no responses to read
+					while (!inFlight.isEmpty()) {
+						done(inFlight.poll());
+					}
+					irodsProtocol.unlockExchange();
+				}
+			}
+		} catch (InterruptedException e) {
+			// only waits when nothing is in flight, so the connection is in step
+			log.warn("write behind interrupted");
+			fail(e);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void acknowledgeOldest(final Deque<Chunk> inFlight) {
+		Chunk chunk = inFlight.poll();
+		try {
+			int written = fileIOOperations.awaitWriteAcknowledgement(irodsProtocol);
+			if (written != chunk.length && failure == null) {
+				log.error("iRODS wrote {} bytes of a write of {}", written, chunk.length);
+				fail(new JargonException("write length mismatch, expected " + chunk.length + " bytes, wrote " + written));
+			}
+		} catch (JargonException | RuntimeException e) {
+			log.error("error acknowledging write", e);
+			fail(e);
+		} finally {
+			done(chunk);
+			if (inFlight.isEmpty()) {
+				irodsProtocol.unlockExchange();
+			}
+		}
+	}
+
+	private void fail(final Exception e) {
+		if (failure == null) {
+			failure = e;
+		}
+	}
+
+	private void done(final Chunk chunk) {
+		freeBuffers.offer(chunk.buffer);
+		synchronized (this) {
+			pendingBuffers--;
+			notifyAll();
+		}
+	}
+
+}
@@ -50,7 +50,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	 */
 	@Override
 	public IRODSFile instanceIRODSFile(final String path) throws JargonException {
-		IRODSFileSystemAO irodsFileSystem = new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount());
+		IRODSFileSystemAO irodsFileSystem = leasePerOperation(getIRODSSession(), IRODSFileSystemAO.class,
+				new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount()));
 		return new IRODSFileImpl(path, irodsFileSystem);
 	}
 
@@ -70,7 +71,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 			throw new IllegalArgumentException("null or empty userName");
 		}
 
-		IRODSFileSystemAO irodsFileSystem = new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount());
+		IRODSFileSystemAO irodsFileSystem = leasePerOperation(getIRODSSession(), IRODSFileSystemAO.class,
+				new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount()));
 
 		String homePath = MiscIRODSUtils.computeHomeDirectoryForGivenUserInSameZoneAsIRODSAccount(getIRODSAccount(),
 				userName);
@@ -103,7 +105,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 		log.debug("irods account: {}", irodsAccount.toString());
 		log.debug("fileName: {}", fileName);
 
-		IRODSFileSystemAO irodsFileSystemAO = new IRODSFileSystemAOImpl(getIRODSSession(), irodsAccount);
+		IRODSFileSystemAO irodsFileSystemAO = leasePerOperation(getIRODSSession(), IRODSFileSystemAO.class,
+				new IRODSFileSystemAOImpl(getIRODSSession(), irodsAccount));
 		return new IRODSFileImpl(uri.getPath(), irodsFileSystemAO);
 	}
 
@@ -137,7 +140,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 			return instanceIRODSFile(parent);
 		}
 
-		IRODSFileSystemAO irodsFileSystem = new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount());
+		IRODSFileSystemAO irodsFileSystem = leasePerOperation(getIRODSSession(), IRODSFileSystemAO.class,
+				new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount()));
 
 		// check for blank parent, and "/" as child
 
@@ -169,7 +173,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 			return instanceIRODSFile(parent.getAbsolutePath());
 		}
 
-		IRODSFileSystemAO irodsFileSystem = new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount());
+		IRODSFileSystemAO irodsFileSystem = leasePerOperation(getIRODSSession(), IRODSFileSystemAO.class,
+				new IRODSFileSystemAOImpl(getIRODSSession(), getIRODSAccount()));
 		return new IRODSFileImpl(parent, child, irodsFileSystem);
 
 	}
@@ -227,7 +232,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 		log.info("file:{}", file);
 		log.info("openFlags:{}", openFlags);
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			return new IRODSFileOutputStream(file, fileIOOperations, openFlags);
 		} catch (FileNotFoundException e) {
@@ -253,7 +259,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 		log.info("file:{}", file);
 		log.info("openFlags:{}", openFlags);
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			return new IRODSFileOutputStream(file, fileIOOperations, openFlags, coordinated);
 		} catch (FileNotFoundException e) {
@@ -303,7 +310,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 				}
 			}
 
-			FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), useThisAccount);
+			FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), useThisAccount));
 
 			if (reroute) {
 				IRODSFileFactory rerouteFileFactory = getIRODSAccessObjectFactory().getIRODSFileFactory(useThisAccount);
@@ -339,7 +347,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 		}
 
 		try {
-			FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+			FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 			return new SessionClosingIRODSFileOutputStream(file, fileIOOperations);
 		} catch (FileNotFoundException e) {
 			log.error("FileNotFound creating output stream", e);
@@ -383,7 +392,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 		log.info("name:{}", name);
 		log.info("openFlags:{}", openFlags);
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			if (log.isInfoEnabled()) {
 				log.info("creating IRODSFileImpl for:" + name);
@@ -470,7 +480,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	@Override
 	public IRODSFileInputStream instanceIRODSFileInputStream(final IRODSFile file) throws JargonException {
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			return new IRODSFileInputStream(file, fileIOOperations);
 		} catch (FileNotFoundException e) {
@@ -490,7 +501,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	public IRODSFileInputStream instanceIRODSFileInputStreamGivingFD(final IRODSFile file, final int fd)
 			throws JargonException {
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			return new IRODSFileInputStream(file, fileIOOperations, fd);
 		} catch (FileNotFoundException e) {
@@ -510,7 +522,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	public SessionClosingIRODSFileInputStream instanceSessionClosingIRODSFileInputStream(final String name)
 			throws NoResourceDefinedException, JargonException {
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			if (log.isInfoEnabled()) {
 				log.info("opening IRODSFileImpl for:" + name);
@@ -535,7 +548,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	public SessionClosingIRODSFileInputStream instanceSessionClosingIRODSFileInputStream(final IRODSFile file)
 			throws JargonException {
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			return new SessionClosingIRODSFileInputStream(file, fileIOOperations);
 		} catch (FileNotFoundException e) {
@@ -554,7 +568,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	@Override
 	public IRODSFileInputStream instanceIRODSFileInputStream(final String name) throws JargonException {
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		try {
 			if (log.isInfoEnabled()) {
 				log.info("opening IRODSFileImpl for:" + name);
@@ -594,7 +609,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 			}
 		}
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), useThisAccount);
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), useThisAccount));
 
 		try {
 
@@ -625,7 +641,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	@Override
 	public IRODSRandomAccessFile instanceIRODSRandomAccessFile(final String name)
 			throws NoResourceDefinedException, JargonException {
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		log.info("opening IRODSFileImpl for: {}", name);
 		IRODSFile irodsFile = instanceIRODSFile(name);
 
@@ -660,7 +677,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 			throw new IllegalArgumentException("null openFlags");
 		}
 
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		log.info("opening IRODSFileImpl for: {}", name);
 		IRODSFile irodsFile = instanceIRODSFile(name);
 
@@ -680,7 +698,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	@Override
 	public IRODSRandomAccessFile instanceIRODSRandomAccessFile(final IRODSFile irodsFile)
 			throws NoResourceDefinedException, JargonException {
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		log.info("opening IRODSFileImpl for: {}", irodsFile.getAbsoluteFile());
 
 		if (!irodsFile.exists()) {
@@ -697,7 +716,8 @@ public final class IRODSFileFactoryImpl extends IRODSGenericAO implements IRODSF
 	@Override
 	public IRODSRandomAccessFile instanceIRODSRandomAccessFile(IRODSFile irodsFile, OpenFlags openFlags,
 			boolean coordinated) throws NoResourceDefinedException, JargonException {
-		FileIOOperations fileIOOperations = new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount());
+		FileIOOperations fileIOOperations = leasePerOperation(getIRODSSession(), FileIOOperations.class,
+				new FileIOOperationsAOImpl(getIRODSSession(), getIRODSAccount()));
 		log.info("opening IRODSFileImpl for: {}", irodsFile.getAbsoluteFile());
 
 		/*
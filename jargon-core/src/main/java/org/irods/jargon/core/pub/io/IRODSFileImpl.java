@@ -17,6 +17,7 @@ import java.util.concurrent.locks.Lock;
 
 import org.irods.jargon.core.apiplugin.ApiPluginConstants;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.MetadataCache;
 import org.irods.jargon.core.connection.ReplicaTokenCacheManager;
 import org.irods.jargon.core.exception.CatNoAccessException;
 import org.irods.jargon.core.exception.DataNotFoundException;
@@ -1451,6 +1452,14 @@ public class IRODSFileImpl extends File implements IRODSFile {
 
 		setFileDescriptor(-1);
 
+		// the size and modify time are only settled once a write is closed
+		if (openFlags != OpenFlags.READ) {
+			MetadataCache metadataCache = irodsFileSystemAO.getIRODSSession().getMetadataCache();
+			if (metadataCache != null) {
+				metadataCache.invalidate(getAbsolutePath());
+			}
+		}
+
 	}
 
 	/*
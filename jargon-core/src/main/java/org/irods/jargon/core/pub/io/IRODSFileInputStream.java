@@ -4,6 +4,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.packinstr.DataObjInp.OpenFlags;
@@ -17,6 +18,11 @@ import org.slf4j.LoggerFactory;
  * <p>
  * This code handles soft linked files and collections as expected. You may
  * operate on canoncial paths or soft-linked paths.
+ * <p>
+ * When {@link JargonProperties#getInputStreamReadAheadBuffers()} is greater
+ * than zero, reads are served from buffers that a background thread keeps
+ * fetching ahead on the connection that opened the file, so the wait for the
+ * next read overlaps with the caller's use of the data already returned.
  *
  * @author Mike Conway - DICE (www.irods.org)
  *
@@ -29,6 +35,7 @@ public class IRODSFileInputStream extends InputStream {
 	private transient final FileIOOperations fileIOOperations;
 	private transient int fd = -1;
 	private transient long filePointer = 0;
+	private transient FileReadAhead readAhead = null;
 
 	/**
 	 * Creates a {@code FileInputStream} by opening a connection to an actual file,
@@ -91,9 +98,32 @@ public class IRODSFileInputStream extends InputStream {
 		this.irodsFile = irodsFile;
 		this.fileIOOperations = fileIOOperations;
 		openFile();
+		initReadAhead();
 
 	}
 
+	/**
+	 * Set up reading ahead if configured, capturing the connection of the thread
+	 * that opened the file, as the descriptor is only valid there
+	 */
+	private void initReadAhead() {
+		JargonProperties jargonProperties = fileIOOperations.getJargonProperties();
+		int window = jargonProperties.getInputStreamReadAheadBuffers();
+		if (window <= 0) {
+			return;
+		}
+
+		try {
+			readAhead = new FileReadAhead(fileIOOperations, fileIOOperations.getIRODSProtocol(), fd, window,
+					jargonProperties.getInputStreamReadAheadBufferSize());
+			log.debug("reading ahead with {} buffers", window);
+		} catch (JargonException e) {
+			final String msg = "JargonException setting up read ahead, rethrow as JargonRuntimeException";
+			log.error(msg, e);
+			throw new JargonRuntimeException(msg, e);
+		}
+	}
+
 	/**
 	 *
 	 */
@@ -145,6 +175,7 @@ public class IRODSFileInputStream extends InputStream {
 		this.irodsFile = irodsFile;
 
 		this.fd = fd;
+		initReadAhead();
 
 	}
 
@@ -195,7 +226,12 @@ public class IRODSFileInputStream extends InputStream {
 		try {
 			byte buffer[] = new byte[1];
 
-			int temp = fileIOOperations.fileRead(fd, buffer, 0, 1);
+			int temp;
+			if (readAhead != null) {
+				temp = readAhead.read(buffer, 0, 1);
+			} else {
+				temp = fileIOOperations.fileRead(fd, buffer, 0, 1);
+			}
 
 			if (temp < 0) {
 				return -1;
@@ -279,7 +315,11 @@ public class IRODSFileInputStream extends InputStream {
 
 		int temp;
 		try {
-			temp = fileIOOperations.fileRead(fd, b, off, len);
+			if (readAhead != null) {
+				temp = readAhead.read(b, off, len);
+			} else {
+				temp = fileIOOperations.fileRead(fd, b, off, len);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException in read is converted to IOException for method contract", e);
 			throw new IOException(e);
@@ -361,6 +401,9 @@ public class IRODSFileInputStream extends InputStream {
 
 		try {
 			openFile();
+			if (readAhead != null) {
+				return skipWithReadAhead(numberOfBytesToSkip, length);
+			}
 			if ((filePointer + numberOfBytesToSkip) < length) {
 
 				fileIOOperations.seek(fd, numberOfBytesToSkip, FileIOOperations.SeekWhenceType.SEEK_CURRENT);
@@ -378,6 +421,20 @@ public class IRODSFileInputStream extends InputStream {
 		}
 	}
 
+	/**
+	 * The iRODS file pointer runs ahead of the data returned while reading ahead,
+	 * so discard what was fetched and seek from the start of the file to the
+	 * position after the skip
+	 */
+	private long skipWithReadAhead(final long numberOfBytesToSkip, final long length)
+			throws IOException, JargonException {
+		long skipped = Math.max(0L, Math.min(numberOfBytesToSkip, length - filePointer));
+		readAhead.stop();
+		fileIOOperations.seek(fd, filePointer + skipped, FileIOOperations.SeekWhenceType.SEEK_START);
+		filePointer += skipped;
+		return skipped;
+	}
+
 	/**
 	 * Returns the number of bytes that can be read from this file input stream
 	 * without blocking. Due to the nature of how files are transferred (a byte
@@ -429,6 +486,9 @@ public class IRODSFileInputStream extends InputStream {
 	@Override
 	public void close() throws IOException {
 		log.info("closing file stream and file");
+		if (readAhead != null) {
+			readAhead.stop();
+		}
 		try {
 			irodsFile.close();
 		} catch (JargonException e) {
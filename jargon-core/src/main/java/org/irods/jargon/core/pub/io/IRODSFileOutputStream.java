@@ -4,6 +4,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.exception.NoResourceDefinedException;
@@ -20,6 +21,12 @@ import org.slf4j.LoggerFactory;
  *
  * IRODSFileOutputStream is meant for writing streams of raw bytes such as image
  * data.
+ * <p>
+ * When {@link JargonProperties#getOutputStreamWriteBehindBuffers()} is greater
+ * than zero, written data is collected into buffers that a background writer
+ * sends while the caller goes on writing, with several writes in flight at
+ * once. An error in a write is then reported by the next {@code write},
+ * {@code flush} or {@code close}.
  *
  *
  * @author Mike Conway - DICE (www.irods.org)
@@ -31,6 +38,7 @@ public class IRODSFileOutputStream extends OutputStream {
 
 	private final IRODSFile irodsFile;
 	private final FileIOOperations fileIOOperations;
+	private FileWriteBehind writeBehind = null;
 
 	/**
 	 * @return the fileIOOperations
@@ -108,6 +116,35 @@ public class IRODSFileOutputStream extends OutputStream {
 		openWithFlags(fileIOOperations, openFlags, coordinated);
 
 		this.fileIOOperations = fileIOOperations;
+		initWriteBehind();
+	}
+
+	/**
+	 * Set up writing behind if configured, capturing the connection of the thread
+	 * that opened the file, as the descriptor is only valid there
+	 */
+	private void initWriteBehind() throws JargonException {
+		JargonProperties jargonProperties = fileIOOperations.getJargonProperties();
+		int buffers = jargonProperties.getOutputStreamWriteBehindBuffers();
+		if (buffers <= 0) {
+			return;
+		}
+
+		writeBehind = new FileWriteBehind(fileIOOperations, fileIOOperations.getIRODSProtocol(),
+				irodsFile.getFileDescriptor(), buffers, jargonProperties.getOutputStreamWriteBehindBufferSize());
+		log.debug("writing behind with {} buffers", buffers);
+	}
+
+	/**
+	 * Send any data held for writing behind and wait for iRODS to acknowledge it,
+	 * then stop the writer
+	 */
+	private void closeWriteBehind() throws IOException {
+		if (writeBehind != null) {
+			FileWriteBehind closing = writeBehind;
+			writeBehind = null;
+			closing.close();
+		}
 	}
 
 	/*
@@ -216,6 +253,14 @@ public class IRODSFileOutputStream extends OutputStream {
 		log.info("sendNotifications:{}", sendNotifications);
 		log.info("preserveReplicaStateTable:{}", preserveReplicaStateTable);
 
+		try {
+			closeWriteBehind();
+		} catch (IOException e) {
+			log.error("error writing behind, file is closed and error rethrown", e);
+			irodsFile.close(updateSize, updateStatus, computeChecksum, sendNotifications, preserveReplicaStateTable);
+			throw new JargonException("error in write to iRODS before close", e);
+		}
+
 		irodsFile.close(updateSize, updateStatus, computeChecksum, sendNotifications, preserveReplicaStateTable);
 
 	}
@@ -228,6 +273,17 @@ public class IRODSFileOutputStream extends OutputStream {
 	@Override
 	public void close() throws IOException {
 		log.info("close()");
+		try {
+			closeWriteBehind();
+		} catch (IOException e) {
+			log.error("error writing behind, file is closed and error rethrown", e);
+			try {
+				irodsFile.close();
+			} catch (JargonException je) {
+				log.error("error closing file after failed write, ignored", je);
+			}
+			throw e;
+		}
 		try {
 
 			log.info("close will use replica close and handle checksum there if needed");
@@ -282,6 +338,10 @@ public class IRODSFileOutputStream extends OutputStream {
 		}
 
 		checkIfOpen();
+		if (writeBehind != null) {
+			writeBehind.write(b, off, len);
+			return;
+		}
 		try {
 			fileIOOperations.write(getFileDescriptor(), b, off, len);
 		} catch (JargonException e) {
@@ -309,6 +369,20 @@ public class IRODSFileOutputStream extends OutputStream {
 		write(buffer, 0, buffer.length);
 	}
 
+	/**
+	 * When writing behind, sends any data held and waits for iRODS to acknowledge
+	 * every write, otherwise does nothing as each write is already complete
+	 *
+	 * @throws IOException
+	 *             if a write failed
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (writeBehind != null) {
+			writeBehind.flush();
+		}
+	}
+
 	public int getFileDescriptor() {
 		return irodsFile.getFileDescriptor();
 	}
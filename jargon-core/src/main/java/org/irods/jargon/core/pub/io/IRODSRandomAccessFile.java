@@ -9,6 +9,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.UTFDataFormatException;
 
+import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
 import org.irods.jargon.core.utils.BinaryDataFormat;
@@ -50,6 +51,12 @@ import org.slf4j.LoggerFactory;
  * <b>Note:</b> This class offers features that extend those found in
  * java.io.RandomAccessFile. However, it <i>is not</i> a subclass, due to the
  * unfortunate use of final methods in java.io.RandomAccessFile.
+ * <p>
+ * When {@link JargonProperties#getRandomAccessCacheBlockSize()} is greater than
+ * zero, reads and writes go through a cache of fixed size blocks of the file,
+ * so that typed reads such as {@code readInt()} do not each make a round trip
+ * to iRODS. Written blocks are sent to iRODS on {@code seek}, when evicted from
+ * the cache, and on {@code close}.
  *
  *
  * @author Mike Conway - DICE (www.irods.org) adopted from original Jargon
@@ -63,6 +70,7 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	private final IRODSFile irodsFile;
 	private long filePointer = 0;
 	private BinaryDataFormat fileFormat = new BinaryDataFormat();
+	private RandomAccessBlockCache blockCache = null;
 
 	/**
 	 * Create an instance of the IRODS implementation of a random access file
@@ -97,6 +105,14 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		this.irodsFile = irodsFile;
 		this.fileIOOperations = fileIOOperations;
 
+		JargonProperties jargonProperties = fileIOOperations.getJargonProperties();
+		int blockSize = jargonProperties.getRandomAccessCacheBlockSize();
+		if (blockSize > 0) {
+			log.debug("caching blocks of size {}", blockSize);
+			blockCache = new RandomAccessBlockCache(fileIOOperations, irodsFile.getFileDescriptor(), blockSize,
+					jargonProperties.getRandomAccessCacheBlocks());
+		}
+
 	}
 
 	/**
@@ -310,20 +326,26 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	@Override
 	public String readLine() throws IOException {
-		char ch = (char) read();
-		StringBuffer line = new StringBuffer();
+		StringBuilder line = new StringBuilder();
+		int c = read();
 
-		while ((ch != '\n') && (ch != '\r') && (ch != (char) -1)) {
-			line.append(ch);
-			ch = (char) read();
+		while (c != -1 && c != '\n' && c != '\r') {
+			line.append((char) c);
+			c = read();
 		}
 
-		if ((ch == '\r') && ((read()) != '\n')) {
-			seek(getFilePointer(), null);
-		} else if ((line.length() == 0)) {
+		if (c == -1 && line.length() == 0) {
 			return null;
 		}
 
+		if (c == '\r') {
+			long afterReturn = getFilePointer();
+			if (read() != '\n') {
+				// step back over the byte that was not part of the line terminator
+				seek(afterReturn, SeekWhenceType.SEEK_START);
+			}
+		}
+
 		return line.toString();
 	}
 
@@ -476,7 +498,7 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 			newPosition = length;
 		}
 
-		seek(newPosition, SeekWhenceType.SEEK_CURRENT);
+		seek(newPosition, SeekWhenceType.SEEK_START);
 
 		return (int) (newPosition - position);
 	}
@@ -793,7 +815,11 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		int offset = 0;
 		int read;
 		try {
-			read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(), buffer, offset, 1);
+			if (blockCache != null) {
+				read = blockCache.read(filePointer, buffer, offset, 1);
+			} else {
+				read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(), buffer, offset, 1);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
@@ -801,7 +827,7 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		if (read == 1) {
 			filePointer += 1;
 
-			return buffer[0];
+			return buffer[0] & 0xFF;
 		}
 		return -1;
 
@@ -819,12 +845,18 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	protected int readBytes(final byte buffer[], final int offset, final int len) throws IOException {
 		int read;
 		try {
-			read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(), buffer, offset, len);
+			if (blockCache != null) {
+				read = blockCache.read(filePointer, buffer, offset, len);
+			} else {
+				read = fileIOOperations.fileRead(irodsFile.getFileDescriptor(), buffer, offset, len);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
 		}
-		filePointer += read;
+		if (read > 0) {
+			filePointer += read;
+		}
 
 		return read;
 	}
@@ -839,7 +871,12 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 */
 	protected void writeBytes(final byte buffer[], final int offset, final int len) throws IOException {
 		try {
-			filePointer += fileIOOperations.write(irodsFile.getFileDescriptor(), buffer, offset, len);
+			if (blockCache != null) {
+				blockCache.write(filePointer, buffer, offset, len);
+				filePointer += len;
+			} else {
+				filePointer += fileIOOperations.write(irodsFile.getFileDescriptor(), buffer, offset, len);
+			}
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
 			throw new IOException(e);
@@ -879,6 +916,11 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 			throw new IllegalArgumentException();
 		}
 
+		if (blockCache != null) {
+			seekInCache(position, origin);
+			return;
+		}
+
 		try {
 			fileIOOperations.seek(irodsFile.getFileDescriptor(), position, origin);
 		} catch (JargonException e) {
@@ -888,6 +930,29 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		filePointer = position;
 	}
 
+	/**
+	 * Move the file pointer within the cached file, writing back dirty blocks as
+	 * an uncached seek would make earlier writes visible
+	 */
+	private void seekInCache(final long position, final SeekWhenceType origin) throws IOException {
+		long newPosition;
+		if (origin == SeekWhenceType.SEEK_CURRENT) {
+			newPosition = filePointer + position;
+		} else if (origin == SeekWhenceType.SEEK_END) {
+			newPosition = length() + position;
+		} else {
+			newPosition = position;
+		}
+
+		try {
+			blockCache.flush();
+		} catch (JargonException e) {
+			log.error("JargonException writing back cached blocks", e);
+			throw new IOException(e);
+		}
+		filePointer = newPosition;
+	}
+
 	/**
 	 * Reads up to {@code len} bytes of data from this file into an array of bytes.
 	 * This method blocks until at least one byte of input is available.
@@ -914,6 +979,9 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public long length() throws IOException {
+		if (blockCache != null) {
+			return Math.max(irodsFile.length(), blockCache.getKnownLength());
+		}
 		return irodsFile.length();
 	}
 
@@ -987,6 +1055,10 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		log.info("sendNotifications:{}", sendNotifications);
 		log.info("preserveReplicaStateTable:{}", preserveReplicaStateTable);
 
+		if (blockCache != null) {
+			blockCache.flush();
+		}
+
 		irodsFile.close(updateSize, updateStatus, computeChecksum, sendNotifications, preserveReplicaStateTable);
 
 	}
@@ -1000,6 +1072,9 @@ public class IRODSRandomAccessFile implements DataInput, DataOutput {
 		log.info("close()");
 
 		try {
+			if (blockCache != null) {
+				blockCache.flush();
+			}
 			irodsFile.close();
 		} catch (JargonException e) {
 			log.error("JargonException reading file", e);
@@ -0,0 +1,318 @@
+package org.irods.jargon.core.pub.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Page cache of fixed size blocks of an open iRODS file, used by
+ * {@link IRODSRandomAccessFile} so that small reads and writes, such as the
+ * typed reads used to parse a binary header or an index, are served from
+ * memory rather than each being a round trip to iRODS.
+ * <p>
+ * Blocks are loaded whole on first use and evicted least recently used first.
+ * Writes change the cached block and mark the range written as dirty, and dirty
+ * ranges are written back when a block is evicted or on {@link #flush()}. Only
+ * the range written is sent, so a write back does not extend the file with the
+ * unwritten tail of a block.
+ * <p>
+ * The cache positions the iRODS file pointer itself for each load and write
+ * back, and is not thread safe.
+ */
+final class RandomAccessBlockCache {
+
+	private static final Logger log = LoggerFactory.getLogger(RandomAccessBlockCache.class);
+
+	private final FileIOOperations fileIOOperations;
+	private final int fd;
+	private final int blockSize;
+	private final int maxBlocks;
+
+	/**
+	 * Cached blocks by block index, in access order
+	 */
+	private final LinkedHashMap<Long, Block> blocks = new LinkedHashMap<Long, Block>(16, 0.75f, true);
+
+	/**
+	 * Position of the iRODS file pointer, or -1 if not known
+	 */
+	private long serverPosition = -1;
+
+	/**
+	 * Length of the file including data written to the cache, as far as it is
+	 * known from the blocks loaded and written
+	 */
+	private long knownLength = 0;
+
+	/**
+	 * One block of the file
+	 */
+	private static final class Block {
+		private final long index;
+		private final byte[] data;
+		/**
+		 * Bytes of {@link #data} that hold file content
+		 */
+		private int length;
+		private int dirtyFrom = Integer.MAX_VALUE;
+		private int dirtyTo = 0;
+
+		private Block(final long index, final int blockSize) {
+			this.index = index;
+			data = new byte[blockSize];
+		}
+
+		private boolean isDirty() {
+			return dirtyFrom < dirtyTo;
+		}
+
+		private void markDirty(final int from, final int to) {
+			dirtyFrom = Math.min(dirtyFrom, from);
+			dirtyTo = Math.max(dirtyTo, to);
+		}
+
+		private void clean() {
+			dirtyFrom = Integer.MAX_VALUE;
+			dirtyTo = 0;
+		}
+	}
+
+	/**
+	 * @param fileIOOperations
+	 *            {@link FileIOOperations} used to load and write back blocks
+	 * @param fd
+	 *            {@code int} with the open file descriptor
+	 * @param blockSize
+	 *            {@code int} with the size of each block
+	 * @param maxBlocks
+	 *            {@code int} with the most blocks to keep
+	 */
+	RandomAccessBlockCache(final FileIOOperations fileIOOperations, final int fd, final int blockSize,
+			final int maxBlocks) {
+		if (fileIOOperations == null) {
+			throw new IllegalArgumentException("null fileIOOperations");
+		}
+		if (fd <= 0) {
+			throw new IllegalArgumentException("invalid file descriptor");
+		}
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("blockSize must be > 0");
+		}
+		if (maxBlocks <= 0) {
+			throw new IllegalArgumentException("maxBlocks must be > 0");
+		}
+		this.fileIOOperations = fileIOOperations;
+		this.fd = fd;
+		this.blockSize = blockSize;
+		this.maxBlocks = maxBlocks;
+	}
+
+	/**
+	 * Read up to {@code len} bytes at the given file position, from one block
+	 *
+	 * @param position
+	 *            {@code long} with the file position
+	 * @param b
+	 *            {@code byte[]} to read into
+	 * @param off
+	 *            {@code int} with the offset in {@code b}
+	 * @param len
+	 *            {@code int} with the most bytes to read
+	 * @return {@code int} with the number of bytes read, or -1 at end of file
+	 * @throws JargonException
+	 *             if a block cannot be loaded or an evicted block written back
+	 */
+	int read(final long position, final byte[] b, final int off, final int len) throws JargonException {
+		if (len == 0) {
+			return 0;
+		}
+		Block block = block(position / blockSize);
+		int inBlock = (int) (position % blockSize);
+		if (inBlock >= block.length) {
+			return -1;
+		}
+		int count = Math.min(len, block.length - inBlock);
+		System.arraycopy(block.data, inBlock, b, off, count);
+		return count;
+	}
+
+	/**
+	 * Write the bytes into the cached blocks at the given file position
+	 *
+	 * @param position
+	 *            {@code long} with the file position
+	 * @param b
+	 *            {@code byte[]} with the data
+	 * @param off
+	 *            {@code int} with the offset in {@code b}
+	 * @param len
+	 *            {@code int} with the number of bytes
+	 * @throws JargonException
+	 *             if a block cannot be loaded or an evicted block written back
+	 */
+	void write(final long position, final byte[] b, final int off, final int len) throws JargonException {
+		long current = position;
+		int from = off;
+		int remaining = len;
+		while (remaining > 0) {
+			long index = current / blockSize;
+			int inBlock = (int) (current % blockSize);
+			int count = Math.min(remaining, blockSize - inBlock);
+			Block block;
+			if (inBlock == 0 && count == blockSize) {
+				// whole block is replaced, no need to load it
+				block = blocks.get(index);
+				if (block == null) {
+					block = new Block(index, blockSize);
+					add(block);
+				}
+			} else {
+				block = block(index);
+			}
+
+			if (inBlock > block.length) {
+				// writing past the end leaves zeros in between, which are written back too
+				block.markDirty(block.length, inBlock);
+			}
+			System.arraycopy(b, from, block.data, inBlock, count);
+			block.length = Math.max(block.length, inBlock + count);
+			block.markDirty(inBlock, inBlock + count);
+			knownLength = Math.max(knownLength, current + count);
+
+			current += count;
+			from += count;
+			remaining -= count;
+		}
+	}
+
+	/**
+	 * Write back every dirty block, in file order
+	 *
+	 * @throws JargonException
+	 *             if a write back fails
+	 */
+	void flush() throws JargonException {
+		List<Block> dirty = new ArrayList<Block>();
+		for (Block block : blocks.values()) {
+			if (block.isDirty()) {
+				dirty.add(block);
+			}
+		}
+		if (dirty.isEmpty()) {
+			return;
+		}
+		Collections.sort(dirty, new Comparator<Block>() {
+			@Override
+			public int compare(final Block o1, final Block o2) {
+				return Long.compare(o1.index, o2.index);
+			}
+		});
+		for (Block block : dirty) {
+			writeBack(block);
+		}
+	}
+
+	/**
+	 * @return {@code long} with the length of the file including cached writes,
+	 *         as far as the blocks seen so far show it
+	 */
+	long getKnownLength() {
+		return knownLength;
+	}
+
+	private Block block(final long index) throws JargonException {
+		Block block = blocks.get(index);
+		if (block != null) {
+			zeroFillTo(block);
+			return block;
+		}
+		block = load(index);
+		add(block);
+		return block;
+	}
+
+	/**
+	 * A block loaded short of its size before a later write extended the file
+	 * reads as zeros up to the new end of file
+	 */
+	private void zeroFillTo(final Block block) {
+		long blockStart = block.index * blockSize;
+		if (block.length < blockSize && knownLength > blockStart + block.length) {
+			int newLength = (int) Math.min(blockSize, knownLength - blockStart);
+			Arrays.fill(block.data, block.length, newLength, (byte) 0);
+			block.length = newLength;
+		}
+	}
+
+	private void add(final Block block) throws JargonException {
+		blocks.put(block.index, block);
+		if (blocks.size() > maxBlocks) {
+			Iterator<Map.Entry<Long, Block>> eldest = blocks.entrySet().iterator();
+			Block evicted = eldest.next().getValue();
+			eldest.remove();
+			if (evicted.isDirty()) {
+				writeBack(evicted);
+			}
+		}
+	}
+
+	private Block load(final long index) throws JargonException {
+		Block block = new Block(index, blockSize);
+		long blockStart = index * blockSize;
+		seekTo(blockStart);
+		while (block.length < blockSize) {
+			int read = fileIOOperations.fileRead(fd, block.data, block.length, blockSize - block.length);
+			if (read <= 0) {
+				break;
+			}
+			block.length += read;
+			serverPosition += read;
+		}
+		knownLength = Math.max(knownLength, blockStart + block.length);
+		zeroFillTo(block);
+		log.debug("loaded block {} with {} bytes", index, block.length);
+		return block;
+	}
+
+	private void writeBack(final Block block) throws JargonException {
+		if (!block.isDirty()) {
+			return;
+		}
+		long start = block.index * blockSize + block.dirtyFrom;
+		int length = block.dirtyTo - block.dirtyFrom;
+		log.debug("writing back {} bytes of block {}", length, block.index);
+		seekTo(start);
+		int written;
+		if (block.dirtyFrom == 0) {
+			written = fileIOOperations.write(fd, block.data, 0, length);
+		} else {
+			// write takes an offset no greater than the length, so send a copy of the range
+			written = fileIOOperations.write(fd, Arrays.copyOfRange(block.data, block.dirtyFrom, block.dirtyTo), 0,
+					length);
+		}
+		if (written != length) {
+			serverPosition = -1;
+			throw new JargonException(
+					"short write of cached block, expected " + length + " bytes, wrote " + written);
+		}
+		serverPosition = start + length;
+		block.clean();
+	}
+
+	private void seekTo(final long position) throws JargonException {
+		if (serverPosition != position) {
+			serverPosition = fileIOOperations.seek(fd, position, SeekWhenceType.SEEK_START);
+		}
+	}
+
+}
@@ -0,0 +1,245 @@
+package org.irods.jargon.core.query;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.GenQueryOut;
+import org.irods.jargon.core.packinstr.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Column oriented page of GenQuery results, holding the values in one array per
+ * selected column, as they arrive in the {@code GenQueryOut_PI} response.
+ * <p>
+ * This is a {@code List} of {@link IRODSQueryResultRow} so that it can be used
+ * anywhere the row oriented results are used, but rows are not materialized
+ * up front. Each call to {@link #get(int)} returns a lightweight view that
+ * refers to this page by row index, and that resolves column names through a
+ * map shared by every row of the page. Numeric and date values are parsed only
+ * when asked for, through the {@code getColumnAsLongOrZero()} and similar
+ * methods of the row.
+ * <p>
+ * For large pages this avoids a column {@code List} and a row object per
+ * result, which is the bulk of the heap used by the row oriented form when
+ * sweeping large parts of the catalog. The page is immutable.
+ */
+public final class ColumnarGenQueryResults extends AbstractList<IRODSQueryResultRow> implements RandomAccess {
+
+	private static final Logger log = LoggerFactory.getLogger(ColumnarGenQueryResults.class);
+
+	private final String[][] columns;
+	private final List<String> columnNames;
+	private final Map<String, Integer> columnPositions;
+	private final int rowCount;
+	private final int firstRecordCount;
+	private final boolean lastResult;
+
+	/**
+	 * Given the raw response from iRODS, create a column oriented page of
+	 * results. This is the counterpart of
+	 * {@link QueryResultProcessingUtils#translateResponseIntoResultSet(Tag, List, int, int)}
+	 * and numbers the records in the same way.
+	 *
+	 * @param queryResponse
+	 *            {@link Tag} set with the raw GenQuery response from iRODS, may be
+	 *            {@code null} for an empty result
+	 * @param columnNames
+	 *            {@code List<String>} with the column names
+	 * @param continuation
+	 *            {@code int} with the continuation index from the response
+	 * @param partialStartIndex
+	 *            {@code int} with the offset into the query results for the query
+	 *            generating this response
+	 * @return {@link ColumnarGenQueryResults}
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	public static ColumnarGenQueryResults instance(final Tag queryResponse, final List<String> columnNames,
+			final int continuation, final int partialStartIndex) throws JargonException {
+
+		if (columnNames == null) {
+			throw new IllegalArgumentException("null columnNames");
+		}
+
+		int firstRecordCount = partialStartIndex + 1;
+		boolean lastResult = (continuation == 0);
+
+		if (queryResponse == null) {
+			log.info("empty result set from query, returning as an empty result set ( no rows found)");
+			return new ColumnarGenQueryResults(new String[0][], columnNames, 0, firstRecordCount, lastResult);
+		}
+
+		int rows = queryResponse.getTag(GenQueryOut.ROW_CNT).getIntValue();
+		int attributes = queryResponse.getTag(GenQueryOut.ATTRIB_CNT).getIntValue();
+		log.info("rows returned from iRODS query: {}", rows);
+
+		Tag[] sqlResults = queryResponse.getTags();
+		if (sqlResults.length < 4 + attributes) {
+			throw new JargonException("GenQueryOut response is missing result columns");
+		}
+
+		String[][] columns = new String[attributes][];
+		for (int j = 0; j < attributes; j++) {
+			Tag[] values = sqlResults[4 + j].getTags();
+			if (values == null || values.length < 2 + rows) {
+				throw new JargonException("GenQueryOut response is missing values for column:" + j);
+			}
+			String[] column = new String[rows];
+			for (int i = 0; i < rows; i++) {
+				column[i] = values[2 + i].getStringValue();
+			}
+			columns[j] = column;
+		}
+
+		return new ColumnarGenQueryResults(columns, columnNames, rows, firstRecordCount, lastResult);
+	}
+
+	private ColumnarGenQueryResults(final String[][] columns, final List<String> columnNames, final int rowCount,
+			final int firstRecordCount, final boolean lastResult) {
+		this.columns = columns;
+		this.columnNames = columnNames;
+		this.rowCount = rowCount;
+		this.firstRecordCount = firstRecordCount;
+		this.lastResult = lastResult;
+
+		Map<String, Integer> positions = new HashMap<String, Integer>(columnNames.size() * 2);
+		for (int i = 0; i < columnNames.size(); i++) {
+			// first column of a given name wins, as in the row oriented lookup
+			if (!positions.containsKey(columnNames.get(i))) {
+				positions.put(columnNames.get(i), i);
+			}
+		}
+		columnPositions = Collections.unmodifiableMap(positions);
+	}
+
+	/**
+	 * Get a view of the given row
+	 *
+	 * @param index
+	 *            {@code int} with the zero based row index in this page
+	 * @return {@link IRODSQueryResultRow} that reads its values from this page
+	 */
+	@Override
+	public IRODSQueryResultRow get(final int index) {
+		if (index < 0 || index >= rowCount) {
+			throw new IndexOutOfBoundsException("row out of range:" + index);
+		}
+		return new ColumnarRow(this, index);
+	}
+
+	/**
+	 * @return {@code int} with the number of rows in this page
+	 */
+	@Override
+	public int size() {
+		return rowCount;
+	}
+
+	/**
+	 * Get the value at the given row and column without creating a row view
+	 *
+	 * @param row
+	 *            {@code int} with the zero based row index in this page
+	 * @param column
+	 *            {@code int} with the zero based column index
+	 * @return {@code String} with the value as returned by iRODS
+	 */
+	public String getValue(final int row, final int column) {
+		if (column < 0 || column >= columns.length) {
+			throw new IndexOutOfBoundsException("column out of range:" + column);
+		}
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("row out of range:" + row);
+		}
+		return columns[column][row];
+	}
+
+	/**
+	 * Get all of the values of one column, useful for analytics over a single
+	 * attribute of a large result
+	 *
+	 * @param column
+	 *            {@code int} with the zero based column index
+	 * @return unmodifiable {@code List<String>} backed by the column array
+	 */
+	public List<String> getColumnValues(final int column) {
+		if (column < 0 || column >= columns.length) {
+			throw new IndexOutOfBoundsException("column out of range:" + column);
+		}
+		return Collections.unmodifiableList(Arrays.asList(columns[column]));
+	}
+
+	/**
+	 * Returns the index of the column with the given name, or -1 if not found
+	 *
+	 * @param columnName
+	 *            {@code String} with the name to resolve
+	 * @return {@code int}
+	 */
+	public int getColumnPosition(final String columnName) {
+		Integer position = columnPositions.get(columnName);
+		return position == null ? -1 : position;
+	}
+
+	/**
+	 * @return {@code List<String>} with the column names
+	 */
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * @return {@code int} with the number of columns
+	 */
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	/**
+	 * Row view over a page of columnar results. The values are presented as a
+	 * read only {@code List} that indexes into the column arrays.
+	 */
+	private static final class ColumnarRow extends IRODSQueryResultRow {
+
+		private final ColumnarGenQueryResults page;
+
+		ColumnarRow(final ColumnarGenQueryResults page, final int row) {
+			super(page, new RowValues(page, row), page.firstRecordCount + row, page.lastResult);
+			this.page = page;
+		}
+
+		@Override
+		protected int getColumnNamePosition(final String columnName) {
+			return page.getColumnPosition(columnName);
+		}
+	}
+
+	private static final class RowValues extends AbstractList<String> implements RandomAccess {
+
+		private final ColumnarGenQueryResults page;
+		private final int row;
+
+		RowValues(final ColumnarGenQueryResults page, final int row) {
+			this.page = page;
+			this.row = row;
+		}
+
+		@Override
+		public String get(final int index) {
+			return page.columns[index][row];
+		}
+
+		@Override
+		public int size() {
+			return page.columns.length;
+		}
+	}
+
+}
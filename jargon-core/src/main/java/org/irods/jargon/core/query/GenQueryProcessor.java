@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.GenQueryInp;
@@ -57,6 +58,36 @@ public class GenQueryProcessor {
 	public IRODSQueryResultSet executeTranslatedIRODSQuery(final TranslatedIRODSGenQuery translatedIRODSQuery,
 			final int continueIndex, final int partialStartIndex, final QueryCloseBehavior queryCloseBehavior,
 			final String zoneName) throws JargonException {
+		return executeTranslatedIRODSQuery(translatedIRODSQuery, continueIndex, partialStartIndex, partialStartIndex,
+				queryCloseBehavior, zoneName);
+	}
+
+	/**
+	 * Execute a query, or get the next page of a query by continuation, numbering
+	 * the records of the result from the given offset. This allows pages obtained
+	 * by continuation to carry on the record count of the pages before them.
+	 *
+	 * @param translatedIRODSQuery {@link TranslatedIRODSGenQuery} to be run
+	 * @param continueIndex        {@code int} if this is a continuation of a
+	 *                             non-closed result
+	 * @param partialStartIndex    {@code int} with an offset
+	 * @param recordOffset         {@code int} with the number of records that
+	 *                             precede this page in the overall result
+	 * @param queryCloseBehavior   {@link QueryCloseBehavior} describing desired
+	 *                             behavior upon completion of this query
+	 * @param zoneName             {@code String} ({@code null} or blank if not
+	 *                             used) that indicates an optional zone for the
+	 *                             query
+	 * @return {@link IRODSQueryResultSet}
+	 * @throws JargonException {@link JargonException}
+	 */
+	public IRODSQueryResultSet executeTranslatedIRODSQuery(final TranslatedIRODSGenQuery translatedIRODSQuery,
+			final int continueIndex, final int partialStartIndex, final int recordOffset,
+			final QueryCloseBehavior queryCloseBehavior, final String zoneName) throws JargonException {
+
+		if (recordOffset < 0) {
+			throw new JargonException("record offset cannot be less than zero");
+		}
 
 		if (continueIndex < 0) {
 			throw new JargonException("continue index must be >= 0");
@@ -94,19 +125,28 @@ public class GenQueryProcessor {
 			int totalRecords = response.getTag("totalRowCount").getIntValue();
 			log.info("total records:{}", totalRecords);
 
-			result = QueryResultProcessingUtils.translateResponseIntoResultSet(response, columnNames, continuation,
-					partialStartIndex);
+			if (isColumnarGenQueryResults()) {
+				result = ColumnarGenQueryResults.instance(response, columnNames, continuation, recordOffset);
+			} else {
+				result = QueryResultProcessingUtils.translateResponseIntoResultSet(response, columnNames,
+						continuation, recordOffset);
+			}
 
 			resultSet = IRODSQueryResultSet.instance(translatedIRODSQuery, result, continuation, totalRecords);
 
 			if (resultSet.isHasMoreRecords() && queryCloseBehavior == QueryCloseBehavior.AUTO_CLOSE) {
 				log.info("auto closing result set");
-				closeResults(resultSet);
+				sendCloseResults(resultSet);
+			} else if (queryCloseBehavior == QueryCloseBehavior.MANUAL_CLOSE) {
+				trackOpenQuery(continueIndex, resultSet.isHasMoreRecords());
 			}
 
 			return resultSet;
 		} catch (DataNotFoundException dnf) {
 			log.info("response from IRODS call indicates no rows found");
+			if (queryCloseBehavior == QueryCloseBehavior.MANUAL_CLOSE) {
+				trackOpenQuery(continueIndex, false);
+			}
 			result = new ArrayList<IRODSQueryResultRow>();
 			resultSet = IRODSQueryResultSet.instance(translatedIRODSQuery, result, 0, 0);
 			return resultSet;
@@ -114,11 +154,43 @@ public class GenQueryProcessor {
 			if (resultSet != null // && resultSet.isHasMoreRecords()
 					&& queryCloseBehavior == QueryCloseBehavior.AUTO_CLOSE) {
 				log.info("auto closing result set");
-				closeResults(resultSet);
+				sendCloseResults(resultSet);
 			}
 		}
 	}
 
+	/**
+	 * A query left open in the agent for later pages ties the caller to this
+	 * connection, so note when one is opened by a first page and released by its
+	 * last page
+	 *
+	 * @param continueIndex {@code int} with the continuation index sent
+	 * @param open          {@code boolean} of {@code true} if the query has more
+	 *                      results in the agent
+	 */
+	private void trackOpenQuery(final int continueIndex, final boolean open) {
+		if (continueIndex == 0 && open) {
+			irodsCommands.holdAgentState();
+		} else if (continueIndex > 0 && !open) {
+			irodsCommands.releaseAgentState();
+		}
+	}
+
+	/**
+	 * Consult the jargon properties of the session to see if results are to be
+	 * held in column oriented pages
+	 *
+	 * @return {@code boolean} of {@code true} if a
+	 *         {@link ColumnarGenQueryResults} should back the result set
+	 */
+	private boolean isColumnarGenQueryResults() {
+		IRODSSession irodsSession = irodsCommands.getIrodsSession();
+		if (irodsSession == null || irodsSession.getJargonProperties() == null) {
+			return false;
+		}
+		return irodsSession.getJargonProperties().isColumnarGenQueryResults();
+	}
+
 	/**
 	 * Send the query
 	 *
@@ -152,6 +224,19 @@ public class GenQueryProcessor {
 			return;
 		}
 
+		try {
+			sendCloseResults(irodsQueryResultSet);
+		} finally {
+			irodsCommands.releaseAgentState();
+		}
+	}
+
+	private void sendCloseResults(final IRODSQueryResultSet irodsQueryResultSet) throws JargonException {
+		if (!irodsQueryResultSet.isHasMoreRecords()) {
+			log.info("no results to close, ignore");
+			return;
+		}
+
 		GenQueryInp genQueryInp = GenQueryInp.instanceForCloseQuery(irodsQueryResultSet.getTranslatedIRODSQuery(),
 				irodsQueryResultSet.getContinuationIndex());
 		sendGenQueryAndReturnResponse(genQueryInp);
@@ -0,0 +1,356 @@
+package org.irods.jargon.core.query;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over every row of a GenQuery, following the continuation index from
+ * page to page so that the caller sees one sequence of rows.
+ * <p>
+ * While the caller processes a page, the next page is requested in the
+ * background, so that the round trip to iRODS overlaps with the processing of
+ * the results. Only the current page and the one being fetched are held in
+ * memory, so scans of any size run in constant memory. The query handle in
+ * iRODS is released when the last page is read, or by {@link #close()} when
+ * iteration stops early, so this iterator should be used in a
+ * try-with-resources block.
+ * <p>
+ * The background request is made on the same connection as the caller, which
+ * is safe because each request and its response are exchanged atomically on
+ * the connection. Errors from iRODS are thrown from {@link #hasNext()} and
+ * {@link #next()} as a {@link JargonRuntimeException} with the original
+ * {@link JargonException} as the cause.
+ * <p>
+ * This iterator is meant to be used by one thread.
+ */
+public class GenQueryResultIterator implements Iterator<IRODSQueryResultRow>, Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(GenQueryResultIterator.class);
+
+	/**
+	 * Source of the pages of a query, allowing the iteration to be tested apart
+	 * from a connection
+	 */
+	interface PageSource {
+
+		/**
+		 * @return {@link IRODSQueryResultSet} with the first page of the query
+		 * @throws JargonException
+		 *             for iRODS error
+		 */
+		IRODSQueryResultSet firstPage() throws JargonException;
+
+		/**
+		 * @param previous
+		 *            {@link IRODSQueryResultSet} with more records
+		 * @param recordOffset
+		 *            {@code int} with the number of records before the next page
+		 * @return {@link IRODSQueryResultSet} with the next page of the query
+		 * @throws JargonException
+		 *             for iRODS error
+		 */
+		IRODSQueryResultSet nextPage(IRODSQueryResultSet previous, int recordOffset) throws JargonException;
+
+		/**
+		 * @param page
+		 *            {@link IRODSQueryResultSet} whose query handle should be
+		 *            released
+		 * @throws JargonException
+		 *             for iRODS error
+		 */
+		void closePage(IRODSQueryResultSet page) throws JargonException;
+	}
+
+	private final PageSource pageSource;
+	private final boolean prefetch;
+	private IRODSQueryResultSet currentPage;
+	private Iterator<IRODSQueryResultRow> currentRows;
+	private int nextRecordOffset;
+	private Future<IRODSQueryResultSet> nextPage;
+	private ExecutorService prefetchExecutor;
+	private boolean closed = false;
+
+	/**
+	 * Run the query and return an iterator over all of its results, prefetching
+	 * each page in the background
+	 *
+	 * @param genQueryProcessor
+	 *            {@link GenQueryProcessor} for the connection that will run the
+	 *            query
+	 * @param translatedIRODSQuery
+	 *            {@link TranslatedIRODSGenQuery} to be run
+	 * @param partialStartIndex
+	 *            {@code int} with an offset into the results, 0 to start at the
+	 *            beginning
+	 * @param zoneName
+	 *            {@code String} ({@code null} or blank if not used) that
+	 *            indicates an optional zone for the query
+	 * @return {@link GenQueryResultIterator} positioned before the first row
+	 * @throws JargonException
+	 *             for iRODS error running the query
+	 */
+	public static GenQueryResultIterator instance(final GenQueryProcessor genQueryProcessor,
+			final TranslatedIRODSGenQuery translatedIRODSQuery, final int partialStartIndex, final String zoneName)
+			throws JargonException {
+
+		if (genQueryProcessor == null) {
+			throw new IllegalArgumentException("null genQueryProcessor");
+		}
+
+		if (translatedIRODSQuery == null) {
+			throw new IllegalArgumentException("null translatedIRODSQuery");
+		}
+
+		if (partialStartIndex < 0) {
+			throw new IllegalArgumentException("partialStartIndex < 0");
+		}
+
+		PageSource pageSource = new PageSource() {
+
+			@Override
+			public IRODSQueryResultSet firstPage() throws JargonException {
+				return genQueryProcessor.executeTranslatedIRODSQuery(translatedIRODSQuery, 0, partialStartIndex,
+						QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+			}
+
+			@Override
+			public IRODSQueryResultSet nextPage(final IRODSQueryResultSet previous, final int recordOffset)
+					throws JargonException {
+				return genQueryProcessor.executeTranslatedIRODSQuery(translatedIRODSQuery,
+						previous.getContinuationIndex(), 0, recordOffset, QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+			}
+
+			@Override
+			public void closePage(final IRODSQueryResultSet page) throws JargonException {
+				genQueryProcessor.closeResults(page);
+			}
+		};
+
+		return new GenQueryResultIterator(pageSource, partialStartIndex, true);
+	}
+
+	/**
+	 * Constructor fetches the first page
+	 *
+	 * @param pageSource
+	 *            {@link PageSource} that runs the query
+	 * @param partialStartIndex
+	 *            {@code int} with the offset of the first page
+	 * @param prefetch
+	 *            {@code boolean} of {@code true} if the next page should be
+	 *            fetched in the background
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	GenQueryResultIterator(final PageSource pageSource, final int partialStartIndex, final boolean prefetch)
+			throws JargonException {
+		this.pageSource = pageSource;
+		this.prefetch = prefetch;
+		nextRecordOffset = partialStartIndex;
+		setCurrentPage(pageSource.firstPage());
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+
+		while (!currentRows.hasNext()) {
+			if (!currentPage.isHasMoreRecords()) {
+				log.debug("last page of query has been read");
+				close();
+				return false;
+			}
+			advancePage();
+		}
+
+		return true;
+	}
+
+	@Override
+	public IRODSQueryResultRow next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("no more query results");
+		}
+		return currentRows.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("query results cannot be removed");
+	}
+
+	/**
+	 * Release the query handle in iRODS if the results were not read to the end,
+	 * waiting for any page being fetched in the background. This method may be
+	 * called more than once.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		log.debug("close()");
+		IRODSQueryResultSet lastPage = currentPage;
+
+		try {
+			if (nextPage != null) {
+				try {
+					lastPage = awaitNextPage();
+				} catch (JargonException | JargonRuntimeException e) {
+					log.warn("query failed fetching the next page, nothing to close", e);
+					lastPage = null;
+				}
+			}
+
+			if (lastPage != null && lastPage.isHasMoreRecords()) {
+				log.debug("releasing query handle for unread results");
+				pageSource.closePage(lastPage);
+			}
+		} catch (JargonException e) {
+			log.error("unable to close query results", e);
+			throw new JargonRuntimeException("unable to close query results", e);
+		} finally {
+			currentRows = Collections.<IRODSQueryResultRow>emptyList().iterator();
+			if (prefetchExecutor != null) {
+				prefetchExecutor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Get a sequential {@code Stream} over the remaining rows. Closing the stream
+	 * closes this iterator.
+	 *
+	 * @return {@code Stream} of {@link IRODSQueryResultRow}
+	 */
+	public Stream<IRODSQueryResultRow> stream() {
+		Spliterator<IRODSQueryResultRow> spliterator = Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				close();
+			}
+		});
+	}
+
+	/**
+	 * @return {@code List<String>} with the column names of the query
+	 */
+	public List<String> getColumnNames() {
+		return currentPage.getColumnNames();
+	}
+
+	/**
+	 * @return {@code int} with the total records reported by iRODS with the
+	 *         latest page, if the query asked for a total row count
+	 */
+	public int getTotalRecords() {
+		return currentPage.getTotalRecords();
+	}
+
+	private void setCurrentPage(final IRODSQueryResultSet page) {
+		currentPage = page;
+		currentRows = page.getResults().iterator();
+		nextRecordOffset += page.getResults().size();
+
+		if (prefetch && page.isHasMoreRecords()) {
+			final IRODSQueryResultSet previous = page;
+			final int recordOffset = nextRecordOffset;
+			nextPage = getPrefetchExecutor().submit(new Callable<IRODSQueryResultSet>() {
+				@Override
+				public IRODSQueryResultSet call() throws JargonException {
+					return pageSource.nextPage(previous, recordOffset);
+				}
+			});
+		}
+	}
+
+	private void advancePage() {
+		IRODSQueryResultSet page;
+		try {
+			if (nextPage != null) {
+				page = awaitNextPage();
+			} else {
+				page = pageSource.nextPage(currentPage, nextRecordOffset);
+			}
+		} catch (JargonException e) {
+			log.error("error getting next page of query results", e);
+			failed();
+			throw new JargonRuntimeException("error getting next page of query results", e);
+		} catch (JargonRuntimeException e) {
+			failed();
+			throw e;
+		}
+		setCurrentPage(page);
+	}
+
+	/**
+	 * Wait for the page being fetched in the background
+	 */
+	private IRODSQueryResultSet awaitNextPage() throws JargonException {
+		try {
+			return nextPage.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonRuntimeException("interrupted waiting for query results", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonRuntimeException("error getting next page of query results", e.getCause());
+		} finally {
+			nextPage = null;
+		}
+	}
+
+	/**
+	 * After an error the state of the handle in iRODS is unknown, so stop without
+	 * trying to close it
+	 */
+	private void failed() {
+		closed = true;
+		currentRows = Collections.<IRODSQueryResultRow>emptyList().iterator();
+		if (prefetchExecutor != null) {
+			prefetchExecutor.shutdown();
+		}
+	}
+
+	private ExecutorService getPrefetchExecutor() {
+		if (prefetchExecutor == null) {
+			prefetchExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable runnable) {
+					Thread thread = new Thread(runnable, "jargon-genquery-prefetch");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return prefetchExecutor;
+	}
+
+}
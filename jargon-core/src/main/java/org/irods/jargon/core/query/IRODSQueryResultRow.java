@@ -120,6 +120,27 @@ public class IRODSQueryResultRow {
 
 	}
 
+	/**
+	 * Constructor for rows that are views over a {@link ColumnarGenQueryResults}
+	 * page, which has already checked the column values and names
+	 *
+	 * @param columnarResults
+	 *            {@link ColumnarGenQueryResults} that holds the values
+	 * @param queryResultColumns
+	 *            {@code List<String} view of the values of this row
+	 * @param recordCount
+	 *            {@code int} with the index of the current record
+	 * @param lastResult
+	 *            {@code boolean} of {@code true} if there are more records to page
+	 */
+	IRODSQueryResultRow(final ColumnarGenQueryResults columnarResults, final List<String> queryResultColumns,
+			final int recordCount, final boolean lastResult) {
+		this.queryResultColumns = queryResultColumns;
+		this.lastResult = lastResult;
+		this.recordCount = recordCount;
+		columnNames = columnarResults.getColumnNames();
+	}
+
 	/**
 	 * Given a columnNumber, return the value of the column in the result set.
 	 *
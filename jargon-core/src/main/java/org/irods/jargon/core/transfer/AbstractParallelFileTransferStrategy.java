@@ -7,6 +7,8 @@ import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.connection.SocketBufferTuner;
+import org.irods.jargon.core.connection.SocketBufferTuning;
 import org.irods.jargon.core.exception.ClientServerNegotiationException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
@@ -41,6 +43,8 @@ public abstract class AbstractParallelFileTransferStrategy {
 	protected final long transferLength;
 	private final PipelineConfiguration pipelineConfiguration;
 	private final FileRestartInfo fileRestartInfo;
+	private final SocketBufferTuner socketBufferTuner;
+	private volatile SocketBufferTuning socketBufferTuning = null;
 
 	/**
 	 * Negotiated encryption configuration for transport security, and any other
@@ -52,6 +56,7 @@ public abstract class AbstractParallelFileTransferStrategy {
 	private final TransferControlBlock transferControlBlock;
 	private final TransferStatusCallbackListener transferStatusCallbackListener;
 	private ConnectionProgressStatusListener connectionProgressStatusListener = null;
+	private ParallelThroughputSampler throughputSampler = null;
 	private final int parallelSocketTimeoutInSecs;
 	private final JargonProperties jargonProperties;
 
@@ -147,6 +152,13 @@ public abstract class AbstractParallelFileTransferStrategy {
 				irodsAccessObjectFactory.getIrodsSession().getJargonProperties());
 		pipelineConfiguration = irodsAccessObjectFactory.getIrodsSession()
 				.buildPipelineConfigurationBasedOnJargonProperties();
+		if (pipelineConfiguration.isTcpBufferAutoTune()) {
+			socketBufferTuner = new SocketBufferTuner(
+					irodsAccessObjectFactory.getIrodsSession().getDiscoveredServerPropertiesCache(),
+					pipelineConfiguration);
+		} else {
+			socketBufferTuner = null;
+		}
 		this.fileRestartInfo = fileRestartInfo;
 
 		parallelSocketTimeoutInSecs = jargonProperties.getIRODSParallelTransferSocketTimeout();
@@ -286,6 +298,25 @@ public abstract class AbstractParallelFileTransferStrategy {
 		this.connectionProgressStatusListener = connectionProgressStatusListener;
 	}
 
+	/**
+	 * Time the first half of the transfer, for
+	 * {@link #getSampledBytesPerSecond()}. This is called before
+	 * {@link #transfer()}, and any intra-file status callbacks are still made.
+	 */
+	public synchronized void sampleThroughput() {
+		throughputSampler = new ParallelThroughputSampler(connectionProgressStatusListener, transferLength / 2);
+		connectionProgressStatusListener = throughputSampler;
+	}
+
+	/**
+	 * @return {@code double} with the bytes per second over the first half of
+	 *         the transfer, or 0 if {@link #sampleThroughput()} was not called or
+	 *         the first half was not reached
+	 */
+	public synchronized double getSampledBytesPerSecond() {
+		return throughputSampler == null ? 0 : throughputSampler.getBytesPerSecond();
+	}
+
 	/**
 	 * @return the transferLength
 	 */
@@ -331,10 +362,42 @@ public abstract class AbstractParallelFileTransferStrategy {
 		return negotiatedClientServerConfiguration.isSslConnection();
 	}
 
+	/**
+	 * Handy method for threads to determine whether data should be moved through
+	 * socket and file channels, which is done for unencrypted transfers when
+	 * enabled in the jargon properties
+	 *
+	 * @return {@code boolean} of {@code true} if channels should be used
+	 */
+	boolean useChannels() {
+		return !doEncryption() && jargonProperties.isUseChannelsForParallelTransfer();
+	}
+
 	public PipelineConfiguration getPipelineConfiguration() {
 		return pipelineConfiguration;
 	}
 
+	/**
+	 * @return {@link SocketBufferTuner} that sizes the buffers of the transfer
+	 *         sockets, or {@code null} if they are not tuned
+	 */
+	SocketBufferTuner getSocketBufferTuner() {
+		return socketBufferTuner;
+	}
+
+	/**
+	 * @return {@link SocketBufferTuning} with the buffer sizes chosen for the
+	 *         last transfer socket connected, or {@code null} if socket buffers
+	 *         are not tuned
+	 */
+	public SocketBufferTuning getSocketBufferTuning() {
+		return socketBufferTuning;
+	}
+
+	void setSocketBufferTuning(final SocketBufferTuning socketBufferTuning) {
+		this.socketBufferTuning = socketBufferTuning;
+	}
+
 	/**
 	 * Provides individual threads a hook to create the appropriate encryption
 	 * cipher if needed.
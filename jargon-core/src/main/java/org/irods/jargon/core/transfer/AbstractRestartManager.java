@@ -3,6 +3,11 @@
  */
 package org.irods.jargon.core.transfer;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +18,17 @@ import org.slf4j.LoggerFactory;
  * This manager serves as a repository of file restart info and a place to
  * update that information, maintaining a representation of
  * {@link FileRestartInfo} for a given path
+ * <p>
+ * The progress that the parallel transfer threads report after each buffer
+ * through {@link #updateLengthForSegment(FileRestartInfoIdentifier, int, long)}
+ * and {@link #updateOffsetForSegment(FileRestartInfoIdentifier, int, long)} is
+ * kept in a slot of atomic counters for each segment, without taking a lock, and
+ * is published to the stored {@link FileRestartInfo} at most once per segment
+ * publish interval. Each segment is expected to be updated only by the thread
+ * with its number. Progress that was not yet published only means a restart
+ * transfers that part of the file again, and
+ * {@link #publishSegmentProgress(FileRestartInfoIdentifier)} publishes it at
+ * once, as is done before a restart.
  *
  * @author Mike Conway - DICE
  *
@@ -21,6 +37,102 @@ public abstract class AbstractRestartManager {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractRestartManager.class);
 
+	/**
+	 * Default time in milliseconds between publishing segment progress to the
+	 * stored restart information
+	 */
+	public static final long DEFAULT_SEGMENT_PUBLISH_INTERVAL_MILLIS = 1000L;
+
+	/**
+	 * Progress of the segments of the restarts being updated, by identifier
+	 */
+	private final ConcurrentHashMap<FileRestartInfoIdentifier, SegmentProgress> segmentProgress = new ConcurrentHashMap<FileRestartInfoIdentifier, SegmentProgress>();
+
+	private volatile long segmentPublishIntervalMillis = DEFAULT_SEGMENT_PUBLISH_INTERVAL_MILLIS;
+
+	/**
+	 * Offset and length counters for one segment. The version is odd while the
+	 * segment is moved to a new offset so that the two are read as a consistent
+	 * pair.
+	 */
+	private static final class SegmentSlot {
+		private final int threadNumber;
+		private final AtomicLong version = new AtomicLong();
+		private final AtomicLong offset;
+		private final AtomicLong length;
+
+		private SegmentSlot(final FileRestartDataSegment fileRestartDataSegment) {
+			threadNumber = fileRestartDataSegment.getThreadNumber();
+			offset = new AtomicLong(fileRestartDataSegment.getOffset());
+			length = new AtomicLong(fileRestartDataSegment.getLength());
+		}
+
+		private void beginUpdate() {
+			while (true) {
+				long current = version.get();
+				if ((current & 1L) == 0 && version.compareAndSet(current, current + 1)) {
+					return;
+				}
+				Thread.yield();
+			}
+		}
+
+		private void endUpdate() {
+			version.incrementAndGet();
+		}
+
+		/**
+		 * Adding to the length leaves the offset as it was, so the pair stays
+		 * consistent without a new version
+		 */
+		private void addLength(final long delta) {
+			length.addAndGet(delta);
+		}
+
+		private void moveTo(final long newOffset) {
+			beginUpdate();
+			length.set(0L);
+			offset.set(newOffset);
+			endUpdate();
+		}
+
+		/**
+		 * Copy the counters into a segment as a consistent pair
+		 */
+		private void copyTo(final FileRestartDataSegment fileRestartDataSegment) {
+			while (true) {
+				long before = version.get();
+				if ((before & 1L) == 0) {
+					long currentOffset = offset.get();
+					long currentLength = length.get();
+					if (version.get() == before) {
+						fileRestartDataSegment.setOffset(currentOffset);
+						fileRestartDataSegment.setLength(currentLength);
+						return;
+					}
+				}
+				Thread.yield();
+			}
+		}
+	}
+
+	/**
+	 * Segment slots for one stored {@link FileRestartInfo}
+	 */
+	private static final class SegmentProgress {
+		private final FileRestartInfo fileRestartInfo;
+		private final SegmentSlot[] slots;
+		private final AtomicLong nextPublish = new AtomicLong();
+
+		private SegmentProgress(final FileRestartInfo fileRestartInfo) {
+			this.fileRestartInfo = fileRestartInfo;
+			slots = new SegmentSlot[fileRestartInfo.getFileRestartDataSegments().size()];
+			for (int i = 0; i < slots.length; i++) {
+				slots[i] = new SegmentSlot(fileRestartInfo.getFileRestartDataSegments().get(i));
+			}
+		}
+	}
+
 	/**
 	 * Either return existing, or create a new restart identifier
 	 *
@@ -65,6 +177,7 @@ public abstract class AbstractRestartManager {
 			}
 			storeRestart(info);
 		}
+		removeStaleSegmentProgress();
 		return info;
 	}
 
@@ -112,33 +225,23 @@ public abstract class AbstractRestartManager {
 	 */
 	public void updateLengthForSegment(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
 			final int threadNumber, final long length) throws FileRestartManagementException {
-		log.info("updateLengthForSegment()");
+		log.debug("updateLengthForSegment()");
 		if (fileRestartInfoIdentifier == null) {
 			throw new IllegalArgumentException("null identifier");
 		}
 
-		synchronized (this) {
-			FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
-			if (info == null) {
-				throw new FileRestartManagementException("unable to find restart info");
-			}
-
-			if (info.getFileRestartDataSegments().size() - 1 < threadNumber) {
-				throw new FileRestartManagementException("unable to locate thread number");
-			}
-
-			FileRestartDataSegment dataSegment = info.getFileRestartDataSegments().get(threadNumber);
+		SegmentProgress progress = findSegmentProgress(fileRestartInfoIdentifier);
+		SegmentSlot slot = findSegmentSlot(progress, threadNumber);
 
-			if (dataSegment.getThreadNumber() != threadNumber) {
-				log.error("thread number in segment odos not match requested:{}", threadNumber);
-				log.error("segment was:{}", dataSegment);
-				throw new FileRestartManagementException("thread number mismatch");
-			}
-
-			dataSegment.setLength(dataSegment.getLength() + length);
-			storeRestart(info);
+		if (slot.threadNumber != threadNumber) {
+			log.error("thread number in segment odos not match requested:{}", threadNumber);
+			log.error("segment was:{}", progress.fileRestartInfo.getFileRestartDataSegments().get(threadNumber));
+			throw new FileRestartManagementException("thread number mismatch");
 		}
 
+		slot.addLength(length);
+		publishIfDue(fileRestartInfoIdentifier, progress);
+
 	}
 
 	/**
@@ -156,27 +259,147 @@ public abstract class AbstractRestartManager {
 	 */
 	public void updateOffsetForSegment(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
 			final int threadNumber, final long offset) throws FileRestartManagementException {
-		log.info("updateLenghtForSegment()");
+		log.debug("updateOffsetForSegment()");
 		if (fileRestartInfoIdentifier == null) {
 			throw new IllegalArgumentException("null identifier");
 		}
 
+		SegmentProgress progress = findSegmentProgress(fileRestartInfoIdentifier);
+		findSegmentSlot(progress, threadNumber).moveTo(offset);
+		publishIfDue(fileRestartInfoIdentifier, progress);
+
+	}
+
+	/**
+	 * Publish the segment progress of a restart to the stored restart information
+	 * now, rather than waiting for the segment publish interval, for instance
+	 * before the restart information is read to restart a transfer
+	 *
+	 * @param fileRestartInfoIdentifier
+	 *            {@link FileRestartInfoIdentifier}
+	 * @throws FileRestartManagementException
+	 *             for restart error
+	 */
+	public void publishSegmentProgress(final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null identifier");
+		}
+
+		SegmentProgress progress = segmentProgress.get(fileRestartInfoIdentifier);
+		if (progress != null) {
+			publish(fileRestartInfoIdentifier, progress);
+		}
+	}
+
+	/**
+	 * Publish the segment progress of all restarts being updated
+	 *
+	 * @throws FileRestartManagementException
+	 *             for restart error
+	 */
+	public void publishAllSegmentProgress() throws FileRestartManagementException {
+		for (Map.Entry<FileRestartInfoIdentifier, SegmentProgress> entry : segmentProgress.entrySet()) {
+			publish(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * @return {@code long} with the time in milliseconds between publishing the
+	 *         progress of the segments to the stored restart information
+	 */
+	public long getSegmentPublishIntervalMillis() {
+		return segmentPublishIntervalMillis;
+	}
+
+	/**
+	 * @param segmentPublishIntervalMillis
+	 *            {@code long} with the time in milliseconds between publishing the
+	 *            progress of the segments to the stored restart information, 0 to
+	 *            publish each update
+	 */
+	public void setSegmentPublishIntervalMillis(final long segmentPublishIntervalMillis) {
+		if (segmentPublishIntervalMillis < 0) {
+			throw new IllegalArgumentException("segmentPublishIntervalMillis must be >= 0");
+		}
+		this.segmentPublishIntervalMillis = segmentPublishIntervalMillis;
+	}
+
+	private SegmentProgress findSegmentProgress(final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+		SegmentProgress progress = segmentProgress.get(fileRestartInfoIdentifier);
+		if (progress != null) {
+			return progress;
+		}
+
 		synchronized (this) {
 			FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
 			if (info == null) {
 				throw new FileRestartManagementException("unable to find restart info");
 			}
+			progress = segmentProgress.get(fileRestartInfoIdentifier);
+			if (progress == null || progress.fileRestartInfo != info) {
+				progress = new SegmentProgress(info);
+				segmentProgress.put(fileRestartInfoIdentifier, progress);
+			}
+			return progress;
+		}
+	}
 
-			if (info.getFileRestartDataSegments().size() - 1 < threadNumber) {
-				throw new FileRestartManagementException("unable to locate thread number");
+	private SegmentSlot findSegmentSlot(final SegmentProgress progress, final int threadNumber)
+			throws FileRestartManagementException {
+		if (threadNumber < 0 || progress.slots.length - 1 < threadNumber) {
+			throw new FileRestartManagementException("unable to locate thread number");
+		}
+		return progress.slots[threadNumber];
+	}
+
+	/**
+	 * Publish if the interval has passed, with only the thread that claims the
+	 * next interval doing so
+	 */
+	private void publishIfDue(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
+			final SegmentProgress progress) throws FileRestartManagementException {
+		long now = System.currentTimeMillis();
+		long due = progress.nextPublish.get();
+		if (now >= due && progress.nextPublish.compareAndSet(due, now + segmentPublishIntervalMillis)) {
+			publish(fileRestartInfoIdentifier, progress);
+		}
+	}
+
+	/**
+	 * Copy the counters into the stored restart information and store it, unless
+	 * the restart was since deleted or replaced
+	 */
+	private void publish(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
+			final SegmentProgress progress) throws FileRestartManagementException {
+		synchronized (this) {
+			FileRestartInfo info = retrieveRestart(fileRestartInfoIdentifier);
+			if (info != progress.fileRestartInfo) {
+				log.debug("restart deleted or replaced, discard segment progress for:{}", fileRestartInfoIdentifier);
+				segmentProgress.remove(fileRestartInfoIdentifier, progress);
+				return;
 			}
 
-			FileRestartDataSegment dataSegment = info.getFileRestartDataSegments().get(threadNumber);
-			dataSegment.setOffset(offset);
-			dataSegment.setLength(0);
+			for (int i = 0; i < progress.slots.length; i++) {
+				progress.slots[i].copyTo(info.getFileRestartDataSegments().get(i));
+			}
 			storeRestart(info);
 		}
+	}
 
+	/**
+	 * Drop the progress of restarts that were deleted or replaced since
+	 */
+	private synchronized void removeStaleSegmentProgress() throws FileRestartManagementException {
+		Iterator<Map.Entry<FileRestartInfoIdentifier, SegmentProgress>> entries = segmentProgress.entrySet()
+				.iterator();
+		while (entries.hasNext()) {
+			Map.Entry<FileRestartInfoIdentifier, SegmentProgress> entry = entries.next();
+			if (retrieveRestart(entry.getKey()) != entry.getValue().fileRestartInfo) {
+				entries.remove();
+			}
+		}
 	}
 
 	/**
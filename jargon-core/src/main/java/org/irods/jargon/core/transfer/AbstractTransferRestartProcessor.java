@@ -172,6 +172,7 @@ public abstract class AbstractTransferRestartProcessor extends AbstractJargonSer
 		if (getRestartManager() == null) {
 			throw new JargonRuntimeException("no restart manager configured");
 		}
+		getRestartManager().publishSegmentProgress(fileRestartInfoIdentifier);
 		return getRestartManager().retrieveRestart(fileRestartInfoIdentifier);
 	}
 
@@ -217,6 +218,7 @@ public abstract class AbstractTransferRestartProcessor extends AbstractJargonSer
 
 		log.info("see if restart for:{}", fileRestartInfoIdentifier);
 
+		getRestartManager().publishSegmentProgress(fileRestartInfoIdentifier);
 		FileRestartInfo fileRestartInfo = getRestartManager().retrieveRestart(fileRestartInfoIdentifier);
 
 		return fileRestartInfo;
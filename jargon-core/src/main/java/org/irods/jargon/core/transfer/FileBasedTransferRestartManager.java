@@ -0,0 +1,574 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartStatus;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restart manager that keeps the restart information in memory and journals
+ * each change to a local file, so that the restart of a long file transfer
+ * survives the JVM. When created over an existing journal the restarts in it
+ * are read back, so a transfer that was interrupted by a crash resumes from the
+ * segments last committed rather than from the start.
+ * <p>
+ * The journal is append only. Each record holds the whole of a
+ * {@link FileRestartInfo} or the deletion of one, with a length and a checksum
+ * so that a record torn by a crash is ignored when the journal is read. A new
+ * restart and the deletion of a restart are committed to disk immediately, as
+ * a deletion that was lost would have a later transfer of the same file resume
+ * from stale segments. The segment updates made by the parallel transfer
+ * threads are instead buffered and committed together at most once per commit
+ * interval, so that a transfer does not force the disk for every buffer it
+ * moves. An update that was not committed only means the restart transfers that
+ * part of the file again. The journal is rewritten with just the live restarts
+ * when it is opened and whenever it grows well beyond them.
+ * <p>
+ * Use {@link #close()} when done so that buffered updates are committed.
+ */
+public class FileBasedTransferRestartManager extends AbstractRestartManager implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(FileBasedTransferRestartManager.class);
+
+	/**
+	 * Default time in milliseconds that segment updates are buffered before they
+	 * are committed to the journal
+	 */
+	public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 1000L;
+
+	/**
+	 * Identifies a restart journal, written at the start of the file
+	 */
+	static final int JOURNAL_MAGIC = 0x4a524a31;
+
+	/**
+	 * Journal records below which the journal is not compacted
+	 */
+	static final int COMPACTION_MINIMUM_RECORDS = 1024;
+
+	/**
+	 * Journal records per live restart above which the journal is compacted
+	 */
+	static final int COMPACTION_RECORDS_PER_RESTART = 8;
+
+	private static final byte STORE_RECORD = 1;
+	private static final byte DELETE_RECORD = 2;
+	private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+	private final File journalFile;
+	private final long commitIntervalMillis;
+	private final Map<FileRestartInfoIdentifier, FileRestartInfo> restarts = new HashMap<FileRestartInfoIdentifier, FileRestartInfo>();
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	private FileChannel journalChannel = null;
+	private int journalRecords = 0;
+	private long lastCommit = 0L;
+
+	/**
+	 * Open, or create, a restart journal with the default commit interval
+	 *
+	 * @param journalFile
+	 *            {@link File} with the local journal
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be read or written
+	 */
+	public FileBasedTransferRestartManager(final File journalFile) throws FileRestartManagementException {
+		this(journalFile, DEFAULT_COMMIT_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Open, or create, a restart journal
+	 *
+	 * @param journalFile
+	 *            {@link File} with the local journal
+	 * @param commitIntervalMillis
+	 *            {@code long} with the time in milliseconds that segment updates
+	 *            are buffered before they are committed, 0 to commit each update
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be read or written
+	 */
+	public FileBasedTransferRestartManager(final File journalFile, final long commitIntervalMillis)
+			throws FileRestartManagementException {
+		if (journalFile == null) {
+			throw new IllegalArgumentException("null journalFile");
+		}
+
+		if (commitIntervalMillis < 0) {
+			throw new IllegalArgumentException("commitIntervalMillis must be >= 0");
+		}
+
+		log.info("opening restart journal:{}", journalFile);
+		this.journalFile = journalFile.getAbsoluteFile();
+		this.commitIntervalMillis = commitIntervalMillis;
+
+		synchronized (this) {
+			replay();
+			compact();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#storeRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfoIdentifier storeRestart(final FileRestartInfo fileRestartInfo)
+			throws FileRestartManagementException {
+
+		log.info("storeRestart()");
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		FileRestartInfoIdentifier identifier;
+
+		synchronized (this) {
+			checkOpen();
+			identifier = FileRestartInfoIdentifier.instanceFromFileRestartInfo(fileRestartInfo);
+			boolean newRestart = restarts.put(identifier, fileRestartInfo) == null;
+			append(storeRecord(fileRestartInfo));
+			commit(newRestart);
+		}
+		return identifier;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#deleteRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public void deleteRestart(final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+
+		log.info("deleteRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+
+		synchronized (this) {
+			checkOpen();
+			if (restarts.remove(fileRestartInfoIdentifier) != null) {
+				append(deleteRecord(fileRestartInfoIdentifier));
+				commit(true);
+			}
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#retrieveRestart
+	 * (org.irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public FileRestartInfo retrieveRestart(final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+
+		log.info("retrieveRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+		synchronized (this) {
+			return restarts.get(fileRestartInfoIdentifier);
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#updateSegment(org
+	 * .irods.jargon.core.transfer.FileRestartInfo,
+	 * org.irods.jargon.core.transfer.FileRestartDataSegment)
+	 */
+	@Override
+	public void updateSegment(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment) throws FileRestartManagementException {
+
+		log.info("updateSegment()");
+
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		if (fileRestartDataSegment == null) {
+			throw new IllegalArgumentException("null fileRestartDataSegment");
+		}
+
+		log.info("updating fileRestartInfo:{}", fileRestartInfo);
+		log.info("updating fileRestartDataSegment:{}", fileRestartDataSegment);
+
+		synchronized (this) {
+			FileRestartInfo actualRestartInfo = retrieveRestart(fileRestartInfo.identifierFromThisInfo());
+			if (actualRestartInfo == null) {
+				log.error("no restart stored for:{}", fileRestartInfo);
+				throw new FileRestartManagementException("unable to find restart info");
+			}
+			if (actualRestartInfo.getFileRestartDataSegments().size() <= fileRestartDataSegment.getThreadNumber()) {
+				log.error("fileRestartInfo does not contain the given segment:{}", fileRestartInfo);
+				throw new FileRestartManagementException("unable to find segment");
+			}
+			FileRestartDataSegment actualSegment = actualRestartInfo.getFileRestartDataSegments()
+					.get(fileRestartDataSegment.getThreadNumber());
+			if (actualSegment.getThreadNumber() != fileRestartDataSegment.getThreadNumber()) {
+				log.error("mismatch in thread number in update request for segment:{}", fileRestartDataSegment);
+				throw new FileRestartManagementException("file segment does not match thread number");
+			}
+
+			actualRestartInfo.getFileRestartDataSegments().set(actualSegment.getThreadNumber(), fileRestartDataSegment);
+			storeRestart(actualRestartInfo);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#
+	 * incrementRestartAttempts(org.irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfo incrementRestartAttempts(final FileRestartInfo fileRestartInfo)
+			throws RestartFailedException, FileRestartManagementException {
+
+		log.info("incrementRestartAttempts()");
+		if (fileRestartInfo == null) {
+			log.info("no restart to increment, returning null");
+			return null;
+		}
+		log.info("fileRestartInfo:{}", fileRestartInfo);
+
+		synchronized (this) {
+			FileRestartInfo actualRestartInfo = retrieveRestart(fileRestartInfo.identifierFromThisInfo());
+			if (actualRestartInfo == null) {
+				log.error("nothing to increment!");
+				return null;
+			}
+			int currentRestarts = actualRestartInfo.getNumberRestarts();
+			currentRestarts++;
+			if (currentRestarts > ConnectionConstants.MAX_FILE_RESTART_ATTEMPTS) {
+				log.error("violates max restart attempts, go ahead and fail the restart attempt");
+				throw new RestartFailedException("restart failed with too many attempts");
+			}
+			actualRestartInfo.setNumberRestarts(currentRestarts);
+			storeRestart(actualRestartInfo);
+			return fileRestartInfo;
+		}
+
+	}
+
+	/**
+	 * Publish the segment progress and commit any buffered segment updates to the
+	 * journal
+	 *
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be written
+	 */
+	public void commit() throws FileRestartManagementException {
+		synchronized (this) {
+			checkOpen();
+			publishAllSegmentProgress();
+			commit(true);
+		}
+	}
+
+	/**
+	 * Commit any buffered segment updates and close the journal. The restarts are
+	 * no longer available from this manager once closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (journalChannel == null) {
+				return;
+			}
+			log.info("closing restart journal:{}", journalFile);
+			try {
+				publishAllSegmentProgress();
+				commit(true);
+			} catch (FileRestartManagementException e) {
+				throw new IOException("unable to commit restart journal", e);
+			} finally {
+				journalChannel.close();
+				journalChannel = null;
+				restarts.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return {@link File} with the journal
+	 */
+	public File getJournalFile() {
+		return journalFile;
+	}
+
+	private void checkOpen() throws FileRestartManagementException {
+		if (journalChannel == null) {
+			throw new FileRestartManagementException("restart journal is closed");
+		}
+	}
+
+	private void append(final byte[] record) {
+		pending.write(record, 0, record.length);
+		journalRecords++;
+	}
+
+	/**
+	 * Write and force the buffered records if asked to, or if the commit interval
+	 * has passed since the last commit, and compact the journal when it has grown
+	 * well beyond the live restarts
+	 */
+	private void commit(final boolean force) throws FileRestartManagementException {
+		long now = System.currentTimeMillis();
+		if (pending.size() == 0 || !force && now - lastCommit < commitIntervalMillis) {
+			return;
+		}
+
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+			while (buffer.hasRemaining()) {
+				journalChannel.write(buffer);
+			}
+			journalChannel.force(false);
+		} catch (IOException e) {
+			log.error("unable to write restart journal:{}", journalFile, e);
+			throw new FileRestartManagementException("unable to write restart journal", e);
+		}
+		pending.reset();
+		lastCommit = now;
+
+		if (journalRecords > COMPACTION_MINIMUM_RECORDS
+				&& journalRecords > COMPACTION_RECORDS_PER_RESTART * restarts.size()) {
+			compact();
+		}
+	}
+
+	/**
+	 * Read the restarts in an existing journal, stopping at the first record that
+	 * is incomplete or does not match its checksum
+	 */
+	private void replay() throws FileRestartManagementException {
+		if (!journalFile.exists() || journalFile.length() == 0) {
+			log.info("no existing restart journal");
+			return;
+		}
+
+		InputStream inputStream = null;
+		try {
+			inputStream = new FileInputStream(journalFile);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+			if (in.readInt() != JOURNAL_MAGIC) {
+				log.error("file is not a restart journal:{}", journalFile);
+				throw new FileRestartManagementException("file is not a restart journal:" + journalFile);
+			}
+
+			int records = 0;
+			while (true) {
+				byte[] record;
+				try {
+					int length = in.readInt();
+					long checksum = in.readLong();
+					if (length <= 0 || length > MAX_RECORD_LENGTH) {
+						log.warn("invalid record length in restart journal, ignoring the rest");
+						break;
+					}
+					record = new byte[length];
+					in.readFully(record);
+					if (checksum(record) != checksum) {
+						log.warn("checksum mismatch in restart journal, ignoring the rest");
+						break;
+					}
+				} catch (EOFException e) {
+					break;
+				}
+				replayRecord(record);
+				records++;
+			}
+			log.info("read {} records with {} restarts from restart journal", records, restarts.size());
+		} catch (IOException e) {
+			log.error("unable to read restart journal:{}", journalFile, e);
+			throw new FileRestartManagementException("unable to read restart journal", e);
+		} finally {
+			if (inputStream != null) {
+				try {
+					inputStream.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private void replayRecord(final byte[] record) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		byte type = in.readByte();
+		FileRestartInfoIdentifier identifier = new FileRestartInfoIdentifier();
+		identifier.setIrodsAccountIdentifier(in.readUTF());
+		identifier.setAbsolutePath(in.readUTF());
+		identifier.setRestartType(RestartType.valueOf(in.readUTF()));
+
+		if (type == DELETE_RECORD) {
+			restarts.remove(identifier);
+			return;
+		}
+
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAccountIdentifier(identifier.getIrodsAccountIdentifier());
+		fileRestartInfo.setIrodsAbsolutePath(identifier.getAbsolutePath());
+		fileRestartInfo.setRestartType(identifier.getRestartType());
+		fileRestartInfo.setLocalAbsolutePath(in.readUTF());
+		fileRestartInfo.setRestartStatus(RestartStatus.valueOf(in.readUTF()));
+		fileRestartInfo.setNumberRestarts(in.readInt());
+		int segments = in.readInt();
+		for (int i = 0; i < segments; i++) {
+			FileRestartDataSegment segment = new FileRestartDataSegment(in.readInt());
+			segment.setOffset(in.readLong());
+			segment.setLength(in.readLong());
+			fileRestartInfo.getFileRestartDataSegments().add(segment);
+		}
+		restarts.put(identifier, fileRestartInfo);
+	}
+
+	/**
+	 * Rewrite the journal with one record for each live restart, replacing the old
+	 * journal only once the new one is on disk
+	 */
+	private void compact() throws FileRestartManagementException {
+		log.info("compacting restart journal with {} restarts", restarts.size());
+		File compacted = new File(journalFile.getParentFile(), journalFile.getName() + ".compact");
+		try {
+			if (journalChannel != null) {
+				journalChannel.close();
+				journalChannel = null;
+			}
+
+			ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+			new DataOutputStream(snapshot).writeInt(JOURNAL_MAGIC);
+			for (FileRestartInfo fileRestartInfo : restarts.values()) {
+				byte[] record = storeRecord(fileRestartInfo);
+				snapshot.write(record, 0, record.length);
+			}
+
+			FileChannel channel = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				ByteBuffer buffer = ByteBuffer.wrap(snapshot.toByteArray());
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			} finally {
+				channel.close();
+			}
+
+			try {
+				Files.move(compacted.toPath(), journalFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(compacted.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			journalChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			journalRecords = restarts.size();
+		} catch (IOException e) {
+			log.error("unable to compact restart journal:{}", journalFile, e);
+			throw new FileRestartManagementException("unable to compact restart journal", e);
+		}
+	}
+
+	private static byte[] storeRecord(final FileRestartInfo fileRestartInfo) {
+		try {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(payload);
+			out.writeByte(STORE_RECORD);
+			writeIdentifier(out, fileRestartInfo.identifierFromThisInfo());
+			out.writeUTF(nullToEmpty(fileRestartInfo.getLocalAbsolutePath()));
+			out.writeUTF(fileRestartInfo.getRestartStatus() == null ? RestartStatus.OFF.name()
+					: fileRestartInfo.getRestartStatus().name());
+			out.writeInt(fileRestartInfo.getNumberRestarts());
+			out.writeInt(fileRestartInfo.getFileRestartDataSegments().size());
+			for (FileRestartDataSegment segment : fileRestartInfo.getFileRestartDataSegments()) {
+				out.writeInt(segment.getThreadNumber());
+				out.writeLong(segment.getOffset());
+				out.writeLong(segment.getLength());
+			}
+			return frame(payload.toByteArray());
+		} catch (IOException e) {
+			throw new IllegalStateException("unable to write to a byte array", e);
+		}
+	}
+
+	private static byte[] deleteRecord(final FileRestartInfoIdentifier fileRestartInfoIdentifier) {
+		try {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(payload);
+			out.writeByte(DELETE_RECORD);
+			writeIdentifier(out, fileRestartInfoIdentifier);
+			return frame(payload.toByteArray());
+		} catch (IOException e) {
+			throw new IllegalStateException("unable to write to a byte array", e);
+		}
+	}
+
+	private static void writeIdentifier(final DataOutputStream out,
+			final FileRestartInfoIdentifier fileRestartInfoIdentifier) throws IOException {
+		out.writeUTF(nullToEmpty(fileRestartInfoIdentifier.getIrodsAccountIdentifier()));
+		out.writeUTF(nullToEmpty(fileRestartInfoIdentifier.getAbsolutePath()));
+		out.writeUTF(fileRestartInfoIdentifier.getRestartType() == null ? RestartType.PUT.name()
+				: fileRestartInfoIdentifier.getRestartType().name());
+	}
+
+	/**
+	 * Prefix a record payload with its length and checksum
+	 */
+	private static byte[] frame(final byte[] payload) throws IOException {
+		ByteArrayOutputStream record = new ByteArrayOutputStream(payload.length + 12);
+		DataOutputStream out = new DataOutputStream(record);
+		out.writeInt(payload.length);
+		out.writeLong(checksum(payload));
+		out.write(payload);
+		return record.toByteArray();
+	}
+
+	private static long checksum(final byte[] payload) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(payload, 0, payload.length);
+		return crc32.getValue();
+	}
+
+	private static String nullToEmpty(final String value) {
+		return value == null ? "" : value;
+	}
+
+}
@@ -0,0 +1,259 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.transfer.encrypt.ParallelEncryptionCipherWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and encrypts the chunks of a parallel put on a thread of its own, so
+ * that the next chunk is encrypted while the transfer thread sends the current
+ * one. Chunks come from a fixed pool of buffers that is reused for the whole
+ * transfer, so that nothing is allocated per chunk. Each chunk holds the
+ * little endian length iRODS expects in front of the encrypted data, so it is
+ * sent with one write.
+ * <p>
+ * The pipeline is used by one transfer thread, and only one segment of the
+ * file is read at a time.
+ */
+final class ParallelEncryptionPipeline {
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelEncryptionPipeline.class);
+
+	/**
+	 * Number of chunks in the pool, one being sent while the other is encrypted
+	 */
+	static final int POOLED_CHUNKS = 2;
+
+	/**
+	 * Marks the end of a segment in the queue of encrypted chunks
+	 */
+	private static final EncryptedChunk END_OF_SEGMENT = new EncryptedChunk(new byte[0], 0);
+
+	private final ParallelEncryptionCipherWrapper parallelEncryptionCipherWrapper;
+	private final RandomAccessFile localRandomAccessFile;
+	private final int chunkSize;
+	private final BlockingQueue<EncryptedChunk> freeChunks = new ArrayBlockingQueue<EncryptedChunk>(POOLED_CHUNKS);
+	private final BlockingQueue<EncryptedChunk> encryptedChunks = new ArrayBlockingQueue<EncryptedChunk>(
+			POOLED_CHUNKS + 1);
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private Future<Void> segmentFuture = null;
+
+	/**
+	 * @param parallelEncryptionCipherWrapper
+	 *            {@link ParallelEncryptionCipherWrapper} used only by this
+	 *            pipeline from now on
+	 * @param localRandomAccessFile
+	 *            {@link RandomAccessFile} that is read from its current
+	 *            position
+	 * @param chunkSize
+	 *            {@code int} with the largest number of bytes of plaintext in a
+	 *            chunk
+	 */
+	ParallelEncryptionPipeline(final ParallelEncryptionCipherWrapper parallelEncryptionCipherWrapper,
+			final RandomAccessFile localRandomAccessFile, final int chunkSize) {
+		if (parallelEncryptionCipherWrapper == null) {
+			throw new IllegalArgumentException("null parallelEncryptionCipherWrapper");
+		}
+		if (localRandomAccessFile == null) {
+			throw new IllegalArgumentException("null localRandomAccessFile");
+		}
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be > 0");
+		}
+		this.parallelEncryptionCipherWrapper = parallelEncryptionCipherWrapper;
+		this.localRandomAccessFile = localRandomAccessFile;
+		this.chunkSize = chunkSize;
+		int encryptedSize = ConnectionConstants.INT_LENGTH
+				+ parallelEncryptionCipherWrapper.getEncryptedLength(chunkSize);
+		for (int i = 0; i < POOLED_CHUNKS; i++) {
+			freeChunks.add(new EncryptedChunk(new byte[chunkSize], encryptedSize));
+		}
+	}
+
+	/**
+	 * Start reading and encrypting a segment of the file from the current
+	 * position of the file
+	 *
+	 * @param length
+	 *            {@code long} with the number of bytes in the segment
+	 * @throws JargonException
+	 *             if the previous segment was not finished
+	 */
+	void startSegment(final long length) throws JargonException {
+		if (segmentFuture != null) {
+			throw new JargonException("previous segment not finished");
+		}
+		segmentFuture = executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					encryptSegment(length);
+				} finally {
+					encryptedChunks.add(END_OF_SEGMENT);
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Wait for the next encrypted chunk of the segment
+	 *
+	 * @return {@link EncryptedChunk} to send and then give back with
+	 *         {@link #recycle(EncryptedChunk)}, or {@code null} if the segment is
+	 *         done or the file ended early
+	 * @throws JargonException
+	 *             if the chunk could not be read or encrypted
+	 */
+	EncryptedChunk nextChunk() throws JargonException {
+		try {
+			EncryptedChunk chunk = encryptedChunks.take();
+			if (chunk != END_OF_SEGMENT) {
+				return chunk;
+			}
+			// put back so that finishSegment() sees the end too
+			encryptedChunks.add(END_OF_SEGMENT);
+			finishSegment();
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted waiting for encrypted chunk", e);
+		}
+	}
+
+	/**
+	 * Give a sent chunk back to the pool
+	 *
+	 * @param chunk
+	 *            {@link EncryptedChunk} from {@link #nextChunk()}
+	 */
+	void recycle(final EncryptedChunk chunk) {
+		freeChunks.add(chunk);
+	}
+
+	/**
+	 * Wait for the encryption of the segment to end, and make the pool ready for
+	 * the next segment
+	 *
+	 * @throws JargonException
+	 *             if the segment could not be read or encrypted
+	 */
+	void finishSegment() throws JargonException {
+		if (segmentFuture == null) {
+			return;
+		}
+		try {
+			segmentFuture.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted waiting for encryption", e);
+		} catch (ExecutionException e) {
+			log.error("error encrypting segment", e.getCause());
+			if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonException("error encrypting segment", e.getCause());
+		} finally {
+			segmentFuture = null;
+			EncryptedChunk chunk;
+			while ((chunk = encryptedChunks.poll()) != null) {
+				if (chunk != END_OF_SEGMENT) {
+					freeChunks.add(chunk);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stop the encryption thread, abandoning any segment in progress
+	 */
+	void close() {
+		if (segmentFuture != null) {
+			segmentFuture.cancel(true);
+		}
+		executor.shutdownNow();
+	}
+
+	private void encryptSegment(final long length) throws IOException, InterruptedException, JargonException {
+		long remaining = length;
+		while (remaining > 0) {
+			EncryptedChunk chunk = freeChunks.take();
+			byte[] plaintext = chunk.plaintext.array();
+			int toRead = (int) Math.min(chunkSize, remaining);
+			int read = 0;
+			while (read < toRead) {
+				int count = localRandomAccessFile.read(plaintext, read, toRead - read);
+				if (count <= 0) {
+					break;
+				}
+				read += count;
+			}
+			if (read == 0) {
+				log.debug("file ended with {} bytes of the segment left", remaining);
+				freeChunks.add(chunk);
+				return;
+			}
+			chunk.plaintext.clear();
+			chunk.plaintext.limit(read);
+			chunk.encrypted.clear();
+			chunk.encrypted.position(ConnectionConstants.INT_LENGTH);
+			int encryptedLength = parallelEncryptionCipherWrapper.encrypt(chunk.plaintext, chunk.encrypted);
+			chunk.encrypted.putInt(0, encryptedLength);
+			chunk.encrypted.flip();
+			chunk.plaintextLength = read;
+			remaining -= read;
+			encryptedChunks.put(chunk);
+		}
+	}
+
+	/**
+	 * One pooled chunk, with the plaintext read from the file and the length
+	 * prefixed encrypted data sent to iRODS
+	 */
+	static final class EncryptedChunk {
+
+		private final ByteBuffer plaintext;
+		private final ByteBuffer encrypted;
+		private int plaintextLength;
+
+		private EncryptedChunk(final byte[] plaintext, final int encryptedSize) {
+			this.plaintext = ByteBuffer.wrap(plaintext);
+			encrypted = ByteBuffer.allocate(encryptedSize).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		/**
+		 * @return {@code int} with the number of bytes of the file in the chunk
+		 */
+		int getPlaintextLength() {
+			return plaintextLength;
+		}
+
+		/**
+		 * Write the length and encrypted data of the chunk
+		 *
+		 * @param out
+		 *            {@link OutputStream} to write to
+		 * @throws IOException
+		 *             if the write fails
+		 */
+		void writeTo(final OutputStream out) throws IOException {
+			out.write(encrypted.array(), encrypted.arrayOffset(), encrypted.limit());
+		}
+	}
+
+}
@@ -11,9 +11,14 @@ import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Callable;
 
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.SocketBufferTuner;
+import org.irods.jargon.core.connection.SocketBufferTuning;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.transfer.encrypt.ParallelDecryptionCipherWrapper;
@@ -39,6 +44,19 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 	 */
 	private ParallelDecryptionCipherWrapper parallelDecryptionCipherWrapper;
 
+	/**
+	 * Buffers for the data read from iRODS and for the decrypted data, reused
+	 * from chunk to chunk and only grown when a larger chunk arrives
+	 */
+	private ByteBuffer received = null;
+	private ByteBuffer decrypted = null;
+
+	/**
+	 * Will contain the channel the data is read through if the transfer uses
+	 * channels rather than streams
+	 */
+	private ParallelTransferChannel parallelTransferChannel;
+
 	public static final Logger log = LoggerFactory.getLogger(ParallelGetTransferThread.class);
 
 	/**
@@ -82,7 +100,14 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 	@Override
 	public ParallelTransferResult call() throws JargonException {
 		try {
-			Socket s = new Socket();
+			Socket s;
+			if (parallelGetFileTransferStrategy.useChannels()) {
+				log.debug("unencrypted transfer, will read data through a socket channel");
+				s = SocketChannel.open().socket();
+			} else {
+				s = new Socket();
+			}
+
 			if (parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize() > 0) {
 				s.setSendBufferSize(
 						parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize()
@@ -109,18 +134,48 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 
 			s.setKeepAlive(parallelGetFileTransferStrategy.getPipelineConfiguration().isParallelTcpKeepAlive());
 
+			SocketBufferTuner socketBufferTuner = parallelGetFileTransferStrategy.getSocketBufferTuner();
+			SocketBufferTuning socketBufferTuning = null;
+			if (socketBufferTuner != null) {
+				socketBufferTuning = socketBufferTuner.tuneBeforeConnect(s, parallelGetFileTransferStrategy.getHost(),
+						parallelGetFileTransferStrategy.getNumberOfThreads(), true);
+			}
+
 			// assume reuse, nodelay
 			s.setReuseAddress(true);
 			s.setTcpNoDelay(false);
+			long connectStart = System.nanoTime();
 			s.connect(address);
+			if (socketBufferTuner != null) {
+				socketBufferTuning = socketBufferTuner.tuneAfterConnect(s, parallelGetFileTransferStrategy.getHost(),
+						parallelGetFileTransferStrategy.getNumberOfThreads(), true, System.nanoTime() - connectStart,
+						socketBufferTuning);
+				parallelGetFileTransferStrategy.setSocketBufferTuning(socketBufferTuning);
+			}
 			setS(s);
 			byte[] outputBuffer = new byte[4];
 			Host.copyInt(parallelGetFileTransferStrategy.getPassword(), outputBuffer);
 
+			if (s.getChannel() != null) {
+				parallelTransferChannel = new ParallelTransferChannel(s.getChannel(),
+						parallelGetFileTransferStrategy.getParallelSocketTimeoutInSecs() * 1000L);
+				log.debug("socket established, sending cookie to iRODS listener");
+				parallelTransferChannel.write(outputBuffer);
+				log.info("socket channel is open and password sent, now begin the get operation");
+				get();
+				ParallelTransferResult result = new ParallelTransferResult();
+				result.transferException = getExceptionInTransfer();
+				return result;
+			}
+
 			int inputBuffSize = parallelGetFileTransferStrategy.getJargonProperties()
 					.getInternalInputStreamBufferSize();
 			int outputBuffSize = parallelGetFileTransferStrategy.getJargonProperties()
 					.getInternalOutputStreamBufferSize();
+			if (socketBufferTuning != null) {
+				inputBuffSize = socketBufferTuning.getInputStreamBufferSize();
+				outputBuffSize = socketBufferTuning.getOutputStreamBufferSize();
+			}
 
 			if (inputBuffSize < 0) {
 				setIn(getS().getInputStream());
@@ -176,7 +231,11 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 			log.info("opening local randomAccessFile");
 			local = new RandomAccessFile(parallelGetFileTransferStrategy.getLocalFile(), "rw");
 			log.info("random access file opened rw mode");
-			processingLoopForGetData(local);
+			if (parallelTransferChannel != null) {
+				processingLoopForGetDataThroughChannel(local.getChannel());
+			} else {
+				processingLoopForGetData(local);
+			}
 
 		} catch (JargonException je) {
 			log.error("a jargon exception occurred in the get loop");
@@ -188,6 +247,9 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 			log.info("parallel thread closing out local random access file stream");
 			try {
 				log.info("closing sockets, this close eats exceptions");
+				if (parallelTransferChannel != null) {
+					parallelTransferChannel.close();
+				}
 				close();
 				log.info("closing local file");
 				if (local != null) {
@@ -269,21 +331,29 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 
 				if (newSize <= 0) {
 					return;
-				} else {
+				} else if (received == null || received.capacity() < newSize) {
 					// c code - size_t buf_size = ( 2 * TRANS_BUF_SZ ) * sizeof(
 					// unsigned char );
-					buffer = new byte[newSize];
+					received = ByteBuffer.allocate(newSize);
 				}
 
-				read = myRead(getIn(), buffer, newSize);
+				read = myRead(getIn(), received.array(), newSize);
+				buffer = received.array();
 
 				/*
-				 * If encrypted, strip off the iv and decrypt before writing
+				 * If encrypted, strip off the iv and decrypt before writing, reusing the
+				 * buffers from chunk to chunk
 				 */
 
 				if (parallelGetFileTransferStrategy.doEncryption()) {
-					buffer = parallelDecryptionCipherWrapper.decrypt(buffer);
-					read = buffer.length;
+					if (decrypted == null || decrypted.capacity() < newSize) {
+						decrypted = ByteBuffer.allocate(newSize);
+					}
+					received.clear();
+					received.limit(newSize);
+					decrypted.clear();
+					read = parallelDecryptionCipherWrapper.decrypt(received, decrypted);
+					buffer = decrypted.array();
 
 				}
 
@@ -369,6 +439,84 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 		}
 	}
 
+	/**
+	 * Read each segment iRODS sends straight from the socket channel into the file
+	 * channel at the segment offset, with the same restart and progress
+	 * bookkeeping as {@link #processingLoopForGetData(RandomAccessFile)}
+	 *
+	 * @param local
+	 *            {@link FileChannel} for the local file
+	 * @throws JargonException
+	 */
+	private void processingLoopForGetDataThroughChannel(final FileChannel local) throws JargonException {
+		try {
+			int operation = parallelTransferChannel.readInt();
+			parallelTransferChannel.readInt();
+			long offset = parallelTransferChannel.readLong();
+			long length = parallelTransferChannel.readLong();
+			log.info(">>>new offset:{}", offset);
+			log.info(">>>new length:{}", length);
+
+			if (operation != GET_OPR) {
+				log.error("Parallel transfer expected GET,  server requested {}", operation);
+				throw new JargonException("parallel get transfer, unexpected transfer type from iRODS:" + operation);
+			}
+
+			long copyBufferSize = parallelGetFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize();
+
+			while (operation != DONE_OPR) {
+				if (length < 0) {
+					String msg = "length < 0 passed in header from iRODS during parallel get operation";
+					log.error(msg);
+					throw new JargonException(msg);
+				}
+
+				updateRestartOffset(offset);
+
+				long position = offset;
+				long remaining = length;
+				while (remaining > 0) {
+					if (Thread.interrupted()) {
+						throw new IOException(
+								"interrupted, consider connection corrupted and return IOException to clear");
+					}
+
+					long count = Math.min(copyBufferSize, remaining);
+					parallelTransferChannel.readToFile(local, position, count);
+					position += count;
+					remaining -= count;
+
+					/*
+					 * Make an intra-file status call-back if a listener is configured
+					 */
+					if (parallelGetFileTransferStrategy.getConnectionProgressStatusListener() != null) {
+						parallelGetFileTransferStrategy.getConnectionProgressStatusListener()
+								.connectionProgressStatusCallback(ConnectionProgressStatus.instanceForReceive(count));
+					}
+				}
+
+				if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+					parallelGetFileTransferStrategy.getRestartManager().updateLengthForSegment(
+							parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+							getThreadNumber(), length);
+					log.debug("signal storage of new info");
+				}
+
+				// read the next header
+				operation = parallelTransferChannel.readInt();
+				parallelTransferChannel.readInt();
+				offset = parallelTransferChannel.readLong();
+				length = parallelTransferChannel.readLong();
+				log.info(">>>new offset:{}", offset);
+				log.info(">>>new length:{}", length);
+			}
+
+		} catch (IOException e) {
+			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER, parallelGetFileTransferStrategy.toString());
+			throw new JargonException(IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
+		}
+	}
+
 	private int myRead(final InputStream in, final byte[] buffer, final int length)
 			throws IOException, JargonException {
 		int myLength = length;
@@ -381,7 +529,7 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 		}
 
 		while (myLength > 0) {
-			log.info(" top of while, my length:{} ", myLength);
+			log.debug(" top of while, my length:{} ", myLength);
 			if (ptr > buffer.length) {
 				log.error("ptr out of synch");
 				log.error("buffer size:{}", buffer.length);
@@ -391,13 +539,12 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 				throw new JargonException("pointer is pointing out of range of the buffer");
 			}
 
-			log.info("===========================");
-			log.info("ptr:{}", ptr);
-			log.info("myLength:{}", myLength);
+			log.debug("ptr:{}", ptr);
+			log.debug("myLength:{}", myLength);
 
 			read = in.read(buffer, ptr, myLength);
 
-			log.info(">>> read:{}", read);
+			log.debug(">>> read:{}", read);
 
 			if (read < 0) {
 				log.error("read < 0");
@@ -408,9 +555,9 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 			totalRead += read;
 			ptr += read;
 
-			log.info("total read now:{}", totalRead);
-			log.info("out of original length:{}", length);
-			log.info("makes my length:{}", myLength);
+			log.debug("total read now:{}", totalRead);
+			log.debug("out of original length:{}", length);
+			log.debug("makes my length:{}", myLength);
 
 		}
 
@@ -433,11 +580,7 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 
 		} else if (offset > 0) {
 
-			if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
-				parallelGetFileTransferStrategy.getRestartManager().updateOffsetForSegment(
-						parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
-						getThreadNumber(), offset);
-			}
+			updateRestartOffset(offset);
 
 			try {
 				if (offset == local.getFilePointer()) {
@@ -452,4 +595,19 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 			}
 		}
 	}
+
+	/**
+	 * If restarting, maintain a reference to the offset of the segment
+	 *
+	 * @param offset
+	 *            {@code long} with the offset iRODS sent for the segment
+	 * @throws JargonException
+	 */
+	private void updateRestartOffset(final long offset) throws JargonException {
+		if (offset > 0 && parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+			parallelGetFileTransferStrategy.getRestartManager().updateOffsetForSegment(
+					parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(), getThreadNumber(),
+					offset);
+		}
+	}
 }
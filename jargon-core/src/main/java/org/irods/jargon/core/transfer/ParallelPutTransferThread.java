@@ -2,18 +2,19 @@ package org.irods.jargon.core.transfer;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.Arrays;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Callable;
 
 import org.irods.jargon.core.connection.ConnectionConstants;
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.SocketBufferTuner;
+import org.irods.jargon.core.connection.SocketBufferTuning;
 import org.irods.jargon.core.exception.JargonException;
-import org.irods.jargon.core.transfer.encrypt.EncryptionBuffer;
 import org.irods.jargon.core.transfer.encrypt.ParallelEncryptionCipherWrapper;
 import org.irods.jargon.core.utils.Host;
 import org.slf4j.Logger;
@@ -35,6 +36,18 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 	private RandomAccessFile localRandomAccessFile = null;
 	private ParallelEncryptionCipherWrapper parallelEncryptionCipherWrapper = null;
 
+	/**
+	 * Encrypts the next chunk while the current one is sent, if the transfer is
+	 * encrypted
+	 */
+	private ParallelEncryptionPipeline parallelEncryptionPipeline = null;
+
+	/**
+	 * Will contain the channel the data is sent through if the transfer uses
+	 * channels rather than streams
+	 */
+	private ParallelTransferChannel parallelTransferChannel = null;
+
 	public static final Logger log = LoggerFactory.getLogger(ParallelPutTransferThread.class);
 
 	/**
@@ -72,7 +85,14 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 		try {
 			log.info("opening socket to parallel transfer (high) port at port:{}",
 					parallelPutFileTransferStrategy.getPort());
-			Socket s = new Socket();
+			Socket s;
+			if (parallelPutFileTransferStrategy.useChannels()) {
+				log.debug("unencrypted transfer, will send data through a socket channel");
+				s = SocketChannel.open().socket();
+			} else {
+				s = new Socket();
+			}
+
 			if (parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize() > 0) {
 				s.setSendBufferSize(
 						parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize()
@@ -99,15 +119,40 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 			s.setKeepAlive(parallelPutFileTransferStrategy.getPipelineConfiguration().isParallelTcpKeepAlive());
 
+			SocketBufferTuner socketBufferTuner = parallelPutFileTransferStrategy.getSocketBufferTuner();
+			SocketBufferTuning socketBufferTuning = null;
+			if (socketBufferTuner != null) {
+				socketBufferTuning = socketBufferTuner.tuneBeforeConnect(s, parallelPutFileTransferStrategy.getHost(),
+						parallelPutFileTransferStrategy.getNumberOfThreads(), true);
+			}
+
 			// assume reuse, nodelay
 			s.setReuseAddress(true);
 			s.setTcpNoDelay(false);
+			long connectStart = System.nanoTime();
 			s.connect(address);
+			if (socketBufferTuner != null) {
+				socketBufferTuning = socketBufferTuner.tuneAfterConnect(s, parallelPutFileTransferStrategy.getHost(),
+						parallelPutFileTransferStrategy.getNumberOfThreads(), true, System.nanoTime() - connectStart,
+						socketBufferTuning);
+				parallelPutFileTransferStrategy.setSocketBufferTuning(socketBufferTuning);
+			}
 			setS(s);
+
+			if (s.getChannel() != null) {
+				parallelTransferChannel = new ParallelTransferChannel(s.getChannel(),
+						parallelPutFileTransferStrategy.getParallelSocketTimeoutInSecs() * 1000L);
+				return;
+			}
+
 			int inputBuffSize = this.parallelPutFileTransferStrategy.getJargonProperties()
 					.getInternalInputStreamBufferSize();
 			int outputBuffSize = this.parallelPutFileTransferStrategy.getJargonProperties()
 					.getInternalOutputStreamBufferSize();
+			if (socketBufferTuning != null) {
+				inputBuffSize = socketBufferTuning.getInputStreamBufferSize();
+				outputBuffSize = socketBufferTuning.getOutputStreamBufferSize();
+			}
 
 			if (inputBuffSize < 0) {
 				setIn(getS().getInputStream());
@@ -152,11 +197,17 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 			// write the cookie
 			byte b[] = new byte[4];
 			Host.copyInt(parallelPutFileTransferStrategy.getPassword(), b);
-			getOut().write(b);
-			getOut().flush();
+			if (parallelTransferChannel != null) {
+				parallelTransferChannel.write(b);
+				log.debug("cookie written for output thread...calling putThroughChannel()");
+				putThroughChannel(localRandomAccessFile.getChannel());
+			} else {
+				getOut().write(b);
+				getOut().flush();
 
-			log.debug("cookie written for output thread...calling put() to start read/write loop");
-			put();
+				log.debug("cookie written for output thread...calling put() to start read/write loop");
+				put();
+			}
 			log.debug("put operation completed");
 			ParallelTransferResult result = new ParallelTransferResult();
 			return result;
@@ -166,6 +217,9 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 			throw new JargonException("error during parallel file put", e);
 		} finally {
 			log.info("closing sockets, this eats any exceptions");
+			if (parallelTransferChannel != null) {
+				parallelTransferChannel.close();
+			}
 			close();
 			log.info("socket conns for parallel transfer closed, now close the file stream");
 			// close file stream
@@ -199,6 +253,11 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 		buffer = new byte[parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize()];
 		long currentOffset = 0;
 
+		if (parallelEncryptionCipherWrapper != null) {
+			parallelEncryptionPipeline = new ParallelEncryptionPipeline(parallelEncryptionCipherWrapper,
+					localRandomAccessFile, buffer.length);
+		}
+
 		try {
 			while (!done) {
 
@@ -275,6 +334,110 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 		} catch (Exception e) {
 			log.error("An IO exception occurred during a parallel file put operation", e);
 			throw new JargonException("IOException during parallel file put", e);
+		} finally {
+			if (parallelEncryptionPipeline != null) {
+				parallelEncryptionPipeline.close();
+			}
+		}
+	}
+
+	/**
+	 * Serve each segment iRODS asks for by sending that region of the file straight
+	 * from the file channel to the socket channel, with the same restart
+	 * bookkeeping and progress callbacks as {@link #put()}. The transfer control
+	 * block is checked between buffers so that a cancelled put stops sending.
+	 *
+	 * @param local
+	 *            {@link FileChannel} for the local file
+	 * @throws JargonException
+	 */
+	private void putThroughChannel(final FileChannel local) throws JargonException {
+		log.info("putThroughChannel()..");
+		long copyBufferSize = parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize();
+		TransferControlBlock transferControlBlock = parallelPutFileTransferStrategy.getTransferControlBlock();
+
+		try {
+			while (true) {
+				int operation = parallelTransferChannel.readInt();
+				if (operation == AbstractParallelTransferThread.DONE_OPR) {
+					log.info("done received");
+					break;
+				} else if (operation != AbstractParallelTransferThread.PUT_OPR) {
+					throw new JargonException("unknown operation received");
+				}
+
+				parallelTransferChannel.readInt();
+				long offset = parallelTransferChannel.readLong();
+				long length = parallelTransferChannel.readLong();
+				log.info("   offset:{}", offset);
+				log.info("   length:{}", length);
+
+				/*
+				 * If restarting, maintain a reference to the offset
+				 */
+				if (parallelPutFileTransferStrategy.getFileRestartInfo() != null) {
+					parallelPutFileTransferStrategy.getRestartManager().updateOffsetForSegment(
+							parallelPutFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+							getThreadNumber(), offset);
+				}
+
+				long position = offset;
+				long remaining = length;
+				long totalWrittenSinceLastRestartUpdate = 0;
+				while (remaining > 0) {
+					if (Thread.interrupted()) {
+						if (transferControlBlock != null) {
+							transferControlBlock.setCancelled(true);
+						}
+						throw new IOException(
+								"interrupted, consider connection corrupted and return IOException to clear");
+					}
+
+					if (transferControlBlock != null && transferControlBlock.isCancelled()) {
+						throw new JargonException("parallel put cancelled");
+					}
+
+					long count = Math.min(copyBufferSize, remaining);
+					parallelTransferChannel.writeFromFile(local, position, count);
+					position += count;
+					remaining -= count;
+					totalWrittenSinceLastRestartUpdate += count;
+
+					/*
+					 * Make an intra-file status call-back if a listener is configured
+					 */
+					if (parallelPutFileTransferStrategy.getConnectionProgressStatusListener() != null) {
+						parallelPutFileTransferStrategy.getConnectionProgressStatusListener()
+								.connectionProgressStatusCallback(ConnectionProgressStatus.instanceForSend(count));
+					}
+
+					if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+							&& totalWrittenSinceLastRestartUpdate >= ConnectionConstants.MIN_FILE_RESTART_SIZE) {
+						parallelPutFileTransferStrategy.getRestartManager().updateLengthForSegment(
+								parallelPutFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+								getThreadNumber(), totalWrittenSinceLastRestartUpdate);
+						totalWrittenSinceLastRestartUpdate = 0;
+						log.debug("signal storage of new info");
+					}
+				}
+
+				if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+						&& totalWrittenSinceLastRestartUpdate > 0) {
+					parallelPutFileTransferStrategy.getRestartManager().updateLengthForSegment(
+							parallelPutFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+							getThreadNumber(), totalWrittenSinceLastRestartUpdate);
+					log.debug("signal storage of new info");
+				}
+			}
+
+		} catch (JargonException je) {
+			setExceptionInTransfer(je);
+			throw je;
+		} catch (IOException e) {
+			log.error("An IO exception occurred during a parallel file put operation", e);
+			JargonException je = new JargonException("IOException during parallel file put", e);
+			setExceptionInTransfer(je);
+			throw je;
 		}
 	}
 
@@ -287,6 +450,10 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 		long totalWrittenSinceLastRestartUpdate = 0;
 		log.debug("readWriteLoopForCurrentHeaderDirective()");
 		try {
+			if (parallelEncryptionPipeline != null) {
+				parallelEncryptionPipeline.startSegment(length);
+			}
+
 			while (transferLength > 0) {
 				if (Thread.interrupted()) {
 					throw new IOException(
@@ -296,10 +463,21 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 				log.debug("read/write loop at top");
 
-				read = localRandomAccessFile.read(buffer, 0,
-						(int) Math.min(
-								parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize(),
-								transferLength));
+				/*
+				 * if encrypting, the chunk was read and encrypted while the previous one was
+				 * sent
+				 */
+
+				ParallelEncryptionPipeline.EncryptedChunk encryptedChunk = null;
+				if (parallelEncryptionPipeline != null) {
+					encryptedChunk = parallelEncryptionPipeline.nextChunk();
+					read = encryptedChunk == null ? 0 : encryptedChunk.getPlaintextLength();
+				} else {
+					read = localRandomAccessFile.read(buffer, 0,
+							(int) Math.min(
+									parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize(),
+									transferLength));
+				}
 
 				log.debug("bytes read: {}", read);
 
@@ -309,31 +487,9 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 					transferLength -= read;
 					log.debug("getting ready to write to iRODS, new txfr length:{}", transferLength);
 
-					/*
-					 * if encrypting, encrypt this buffer before sending
-					 */
-
-					if (parallelPutFileTransferStrategy.doEncryption()) {
-						log.debug("put with encryption, encrypt this buffer");
-						EncryptionBuffer encryptedBuff = parallelEncryptionCipherWrapper
-								.encrypt(Arrays.copyOf(buffer, read));
-						log.debug("iv length:{}", encryptedBuff.getInitializationVector().length);
-						// sendInNetworkOrder(encryptedBuff.getEncryptedData().length
-						// + encryptedBuff.getInitializationVector().length);
-						sendInLittleEndian(encryptedBuff.getEncryptedData().length
-								+ encryptedBuff.getInitializationVector().length);
-						log.debug("computed length:{}", encryptedBuff.getEncryptedData().length
-								+ encryptedBuff.getInitializationVector().length);
-						// this encryptedBuff has the data and the iv
-						ByteArrayOutputStream buffOut = new ByteArrayOutputStream(
-								encryptedBuff.getEncryptedData().length
-										+ encryptedBuff.getInitializationVector().length);
-						buffOut.write(encryptedBuff.getInitializationVector());
-						buffOut.write(encryptedBuff.getEncryptedData());
-						// getOut().write(buffOut.toByteArray());
-						buffOut.writeTo(getOut());
-						// getOut().write(encryptedBuff.getInitializationVector());
-						// getOut().write(encryptedBuff.getEncryptedData());
+					if (encryptedChunk != null) {
+						encryptedChunk.writeTo(getOut());
+						parallelEncryptionPipeline.recycle(encryptedChunk);
 					} else {
 						getOut().write(buffer, 0, read);
 					}
@@ -377,6 +533,10 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 				Thread.yield();
 			}
 
+			if (parallelEncryptionPipeline != null) {
+				parallelEncryptionPipeline.finishSegment();
+			}
+
 			log.info("final flush of output buffer");
 			getOut().flush();
 
@@ -0,0 +1,252 @@
+package org.irods.jargon.core.transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.transfer.AbstractParallelFileTransferStrategy.TransferType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the number of threads to request for a parallel transfer to or from
+ * one iRODS host, from the throughput sampled on earlier transfers, and keeps
+ * the samples and the best count found so far as properties in the
+ * {@link DiscoveredServerPropertiesCache} for the host and zone.
+ * <p>
+ * Transfers are grouped by direction and by size, each size bucket four times
+ * the size of the one below. Within a bucket the candidate counts are the
+ * powers of two from two up to the maximum threads, and the maximum itself. One
+ * thread is not a candidate, as iRODS sends a single thread transfer over the
+ * main connection and it would never be sampled. The first transfer in a bucket
+ * requests the maximum, as was always done. After that the count with the best
+ * throughput is requested, unless the next smaller or larger candidate has not
+ * been sampled yet, in which case that one is tried, so over a few transfers
+ * the count climbs to the best one for the link and then stays there. A new
+ * sample is averaged with the earlier one for the same count, so one slow
+ * transfer does not throw away what was learned, while a lasting change in the
+ * link still moves the choice.
+ */
+public class ParallelThreadCountTuner {
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelThreadCountTuner.class);
+
+	/**
+	 * Start of the cached property with the best thread count for a direction
+	 * and size bucket
+	 */
+	public static final String BEST_THREADS_PROPERTY = "parallelThreads.";
+
+	/**
+	 * Start of the cached property with the sampled throughput of each thread
+	 * count for a direction and size bucket
+	 */
+	public static final String THROUGHPUT_PROPERTY = "parallelThroughput.";
+
+	/**
+	 * Weight of a new throughput sample against the earlier average for the same
+	 * thread count
+	 */
+	static final double SAMPLE_WEIGHT = 0.5;
+
+	private final DiscoveredServerPropertiesCache discoveredServerPropertiesCache;
+	private final String host;
+	private final String zone;
+
+	/**
+	 * @param discoveredServerPropertiesCache
+	 *            {@link DiscoveredServerPropertiesCache} that holds the samples
+	 * @param host
+	 *            {@code String} with the iRODS host
+	 * @param zone
+	 *            {@code String} with the iRODS zone
+	 */
+	public ParallelThreadCountTuner(final DiscoveredServerPropertiesCache discoveredServerPropertiesCache,
+			final String host, final String zone) {
+		if (discoveredServerPropertiesCache == null) {
+			throw new IllegalArgumentException("null discoveredServerPropertiesCache");
+		}
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+		this.discoveredServerPropertiesCache = discoveredServerPropertiesCache;
+		this.host = host;
+		this.zone = zone == null ? "" : zone;
+	}
+
+	/**
+	 * Number of threads to request for a transfer
+	 *
+	 * @param transferType
+	 *            {@link TransferType} with the direction
+	 * @param transferLength
+	 *            {@code long} with the length of the file
+	 * @param maxThreads
+	 *            {@code int} with the most threads allowed. Values less than 2
+	 *            are returned as they are
+	 * @return {@code int} with the number of threads to request
+	 */
+	public int threadsToRequest(final TransferType transferType, final long transferLength, final int maxThreads) {
+		if (transferType == null) {
+			throw new IllegalArgumentException("null transferType");
+		}
+		if (maxThreads < 2) {
+			return maxThreads;
+		}
+
+		List<Integer> candidates = candidates(maxThreads);
+		Map<Integer, Double> samples;
+		synchronized (discoveredServerPropertiesCache) {
+			samples = retrieveSamples(transferType, transferLength);
+		}
+		samples.keySet().retainAll(candidates);
+		if (samples.isEmpty()) {
+			log.debug("no throughput sampled for {} of {} bytes, requesting {} threads", transferType,
+					transferLength, maxThreads);
+			return maxThreads;
+		}
+
+		int best = best(samples);
+		int index = candidates.indexOf(best);
+		int threads = best;
+		if (index > 0 && !samples.containsKey(candidates.get(index - 1))) {
+			threads = candidates.get(index - 1);
+		} else if (index < candidates.size() - 1 && !samples.containsKey(candidates.get(index + 1))) {
+			threads = candidates.get(index + 1);
+		}
+		log.debug("best sampled thread count for {} of {} bytes is {}, requesting {} threads", transferType,
+				transferLength, best, threads);
+		return threads;
+	}
+
+	/**
+	 * Record the throughput of a transfer
+	 *
+	 * @param transferType
+	 *            {@link TransferType} with the direction
+	 * @param transferLength
+	 *            {@code long} with the length of the file
+	 * @param requestedThreads
+	 *            {@code int} with the number of threads that was requested,
+	 *            which is what {@link #threadsToRequest(TransferType, long, int)}
+	 *            chooses between
+	 * @param bytesPerSecond
+	 *            {@code double} with the sampled throughput. Values that are not
+	 *            positive are ignored
+	 */
+	public void recordThroughput(final TransferType transferType, final long transferLength,
+			final int requestedThreads, final double bytesPerSecond) {
+		if (transferType == null) {
+			throw new IllegalArgumentException("null transferType");
+		}
+		if (requestedThreads < 1 || bytesPerSecond <= 0 || Double.isNaN(bytesPerSecond)
+				|| Double.isInfinite(bytesPerSecond)) {
+			log.debug("ignoring throughput {} for {} threads", bytesPerSecond, requestedThreads);
+			return;
+		}
+
+		synchronized (discoveredServerPropertiesCache) {
+			Map<Integer, Double> samples = retrieveSamples(transferType, transferLength);
+			Double previous = samples.get(requestedThreads);
+			samples.put(requestedThreads, previous == null ? bytesPerSecond
+					: SAMPLE_WEIGHT * bytesPerSecond + (1 - SAMPLE_WEIGHT) * previous);
+			String bucket = bucketName(transferType, transferLength);
+			discoveredServerPropertiesCache.cacheAProperty(host, zone, THROUGHPUT_PROPERTY + bucket,
+					formatSamples(samples));
+			discoveredServerPropertiesCache.cacheAProperty(host, zone, BEST_THREADS_PROPERTY + bucket,
+					String.valueOf(best(samples)));
+		}
+		log.debug("recorded {} bytes per second for {} threads on {} of {} bytes", bytesPerSecond, requestedThreads,
+				transferType, transferLength);
+	}
+
+	/**
+	 * Best thread count sampled so far
+	 *
+	 * @param transferType
+	 *            {@link TransferType} with the direction
+	 * @param transferLength
+	 *            {@code long} with the length of the file
+	 * @return {@code int} with the thread count, or 0 if nothing was sampled for
+	 *         the direction and size
+	 */
+	public int retrieveBestThreads(final TransferType transferType, final long transferLength) {
+		if (transferType == null) {
+			throw new IllegalArgumentException("null transferType");
+		}
+		String value = discoveredServerPropertiesCache.retrieveValue(host, zone,
+				BEST_THREADS_PROPERTY + bucketName(transferType, transferLength));
+		return value == null ? 0 : Integer.parseInt(value);
+	}
+
+	/**
+	 * Size bucket of a transfer, each four times the size of the one below
+	 */
+	static int sizeBucket(final long transferLength) {
+		return (63 - Long.numberOfLeadingZeros(Math.max(1L, transferLength))) / 2;
+	}
+
+	/**
+	 * Thread counts to choose between, in ascending order, for a maximum of at
+	 * least two
+	 */
+	static List<Integer> candidates(final int maxThreads) {
+		List<Integer> candidates = new ArrayList<Integer>();
+		for (int threads = 2; threads < maxThreads; threads *= 2) {
+			candidates.add(threads);
+		}
+		candidates.add(maxThreads);
+		return candidates;
+	}
+
+	private static String bucketName(final TransferType transferType, final long transferLength) {
+		return transferType.name() + "." + sizeBucket(transferLength);
+	}
+
+	private static int best(final Map<Integer, Double> samples) {
+		int best = 0;
+		double bestBytesPerSecond = -1;
+		for (Map.Entry<Integer, Double> entry : samples.entrySet()) {
+			if (entry.getValue() > bestBytesPerSecond) {
+				best = entry.getKey();
+				bestBytesPerSecond = entry.getValue();
+			}
+		}
+		return best;
+	}
+
+	private Map<Integer, Double> retrieveSamples(final TransferType transferType, final long transferLength) {
+		Map<Integer, Double> samples = new TreeMap<Integer, Double>();
+		String value = discoveredServerPropertiesCache.retrieveValue(host, zone,
+				THROUGHPUT_PROPERTY + bucketName(transferType, transferLength));
+		if (value == null || value.isEmpty()) {
+			return samples;
+		}
+		for (String sample : value.split(";")) {
+			int separator = sample.indexOf('=');
+			try {
+				samples.put(Integer.valueOf(sample.substring(0, separator)),
+						Double.valueOf(sample.substring(separator + 1)));
+			} catch (RuntimeException e) {
+				log.warn("ignoring unreadable throughput sample:{}", sample);
+			}
+		}
+		return samples;
+	}
+
+	private static String formatSamples(final Map<Integer, Double> samples) {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<Integer, Double> entry : samples.entrySet()) {
+			if (builder.length() > 0) {
+				builder.append(';');
+			}
+			builder.append(entry.getKey());
+			builder.append('=');
+			builder.append(entry.getValue());
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.irods.jargon.core.transfer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
+
+/**
+ * Listener installed on a parallel transfer that adds up the bytes reported by
+ * all of its threads and notes how long the first part of the transfer took,
+ * passing each report on to the listener it replaces, if any. Only the first
+ * part is timed so that the threads finishing their segments one by one at the
+ * end do not count against the thread count.
+ */
+final class ParallelThroughputSampler implements ConnectionProgressStatusListener {
+
+	private final ConnectionProgressStatusListener delegate;
+	private final long sampleLength;
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicBoolean sampled = new AtomicBoolean();
+	private volatile long sampledBytes = 0L;
+	private volatile long sampledNanos = 0L;
+
+	/**
+	 * @param delegate
+	 *            {@link ConnectionProgressStatusListener} that receives the
+	 *            reports as well, or {@code null}
+	 * @param sampleLength
+	 *            {@code long} with the bytes to time
+	 */
+	ParallelThroughputSampler(final ConnectionProgressStatusListener delegate, final long sampleLength) {
+		this.delegate = delegate;
+		this.sampleLength = Math.max(1L, sampleLength);
+	}
+
+	@Override
+	public void connectionProgressStatusCallback(final ConnectionProgressStatus connectionProgressStatus) {
+		long total = bytes.addAndGet(connectionProgressStatus.getByteCount());
+		if (total >= sampleLength && !sampled.get() && sampled.compareAndSet(false, true)) {
+			sampledBytes = total;
+			sampledNanos = Math.max(1L, System.nanoTime() - startNanos);
+		}
+		if (delegate != null) {
+			delegate.connectionProgressStatusCallback(connectionProgressStatus);
+		}
+	}
+
+	@Override
+	public void finalConnectionProgressStatusCallback(final ConnectionProgressStatus connectionProgressStatus) {
+		if (delegate != null) {
+			delegate.finalConnectionProgressStatusCallback(connectionProgressStatus);
+		}
+	}
+
+	/**
+	 * @return {@code double} with the bytes per second over the timed part of
+	 *         the transfer, or 0 if it has not been reached
+	 */
+	double getBytesPerSecond() {
+		long nanos = sampledNanos;
+		if (nanos == 0L) {
+			return 0;
+		}
+		return sampledBytes * 1.0e9 / nanos;
+	}
+
+}
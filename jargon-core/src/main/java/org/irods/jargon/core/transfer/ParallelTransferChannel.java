@@ -0,0 +1,215 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the data of one parallel transfer stream between a portal socket and
+ * the local file through NIO channels, so that data is not copied through heap
+ * arrays on the way. Data read from the socket lands in a direct buffer that is
+ * written to the file channel at the segment offset, and data sent is handed
+ * from the file channel to the socket with {@code transferTo}.
+ * <p>
+ * The socket channel is put in non-blocking mode, and waits are done on a
+ * {@link Selector}, because reads on a blocking channel do not honor the socket
+ * timeout that the stream based transfer relies on.
+ */
+class ParallelTransferChannel implements Closeable {
+
+	public static final Logger log = LoggerFactory.getLogger(ParallelTransferChannel.class);
+
+	/**
+	 * Size of the direct buffer that data passes through between the socket and
+	 * the file
+	 */
+	static final int DIRECT_BUFFER_SIZE = 256 * 1024;
+
+	private final SocketChannel socketChannel;
+	private final Selector selector;
+	private final SelectionKey selectionKey;
+	private final long timeoutMillis;
+	private final ByteBuffer headerBuffer = ByteBuffer.allocate(8);
+	private ByteBuffer directBuffer;
+
+	/**
+	 * Take over a connected socket channel for the transfer
+	 *
+	 * @param socketChannel
+	 *            {@link SocketChannel} that is connected to the iRODS portal
+	 * @param timeoutMillis
+	 *            {@code long} with the longest to wait for the socket to become
+	 *            readable or writable, 0 to wait indefinitely
+	 * @throws IOException
+	 *             if the channel cannot be registered
+	 */
+	ParallelTransferChannel(final SocketChannel socketChannel, final long timeoutMillis) throws IOException {
+		if (socketChannel == null) {
+			throw new IllegalArgumentException("null socketChannel");
+		}
+		if (timeoutMillis < 0) {
+			throw new IllegalArgumentException("timeoutMillis must be >= 0");
+		}
+		this.socketChannel = socketChannel;
+		this.timeoutMillis = timeoutMillis;
+		socketChannel.configureBlocking(false);
+		selector = Selector.open();
+		selectionKey = socketChannel.register(selector, 0);
+	}
+
+	/**
+	 * Write all of the given bytes to the socket
+	 *
+	 * @param bytes
+	 *            {@code byte[]} to write
+	 * @throws IOException
+	 *             on a socket error or timeout
+	 */
+	void write(final byte[] bytes) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			if (socketChannel.write(buffer) == 0) {
+				await(SelectionKey.OP_WRITE);
+			}
+		}
+	}
+
+	/**
+	 * Read an int in network order, as used in the transfer headers
+	 *
+	 * @return {@code int} read
+	 * @throws IOException
+	 *             on a socket error, timeout, or end of stream
+	 */
+	int readInt() throws IOException {
+		readHeaderBytes(4);
+		return headerBuffer.getInt(0);
+	}
+
+	/**
+	 * Read a long in network order, as used in the transfer headers
+	 *
+	 * @return {@code long} read
+	 * @throws IOException
+	 *             on a socket error, timeout, or end of stream
+	 */
+	long readLong() throws IOException {
+		readHeaderBytes(8);
+		return headerBuffer.getLong(0);
+	}
+
+	private void readHeaderBytes(final int length) throws IOException {
+		headerBuffer.clear();
+		headerBuffer.limit(length);
+		readFully(headerBuffer);
+	}
+
+	/**
+	 * Read exactly {@code count} bytes from the socket and write them to the file
+	 * starting at {@code position}
+	 *
+	 * @param file
+	 *            {@link FileChannel} open for write
+	 * @param position
+	 *            {@code long} with the file offset to write at
+	 * @param count
+	 *            {@code long} with the number of bytes to move
+	 * @throws IOException
+	 *             on a socket or file error, timeout, or end of stream
+	 */
+	void readToFile(final FileChannel file, final long position, final long count) throws IOException {
+		ByteBuffer buffer = getDirectBuffer();
+		long written = 0;
+		while (written < count) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), count - written));
+			readFully(buffer);
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				written += file.write(buffer, position + written);
+			}
+		}
+	}
+
+	/**
+	 * Send exactly {@code count} bytes of the file starting at {@code position} to
+	 * the socket with {@code FileChannel.transferTo}, which lets the kernel send
+	 * straight from the page cache where it can
+	 *
+	 * @param file
+	 *            {@link FileChannel} open for read
+	 * @param position
+	 *            {@code long} with the file offset to send from
+	 * @param count
+	 *            {@code long} with the number of bytes to send
+	 * @throws IOException
+	 *             on a socket or file error, timeout, or if the file is shorter
+	 *             than requested
+	 */
+	void writeFromFile(final FileChannel file, final long position, final long count) throws IOException {
+		long sent = 0;
+		while (sent < count) {
+			long written = file.transferTo(position + sent, count - sent, socketChannel);
+			if (written == 0) {
+				if (position + sent >= file.size()) {
+					throw new EOFException("local file ended before the length requested by iRODS");
+				}
+				await(SelectionKey.OP_WRITE);
+			}
+			sent += written;
+		}
+	}
+
+	private void readFully(final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = socketChannel.read(buffer);
+			if (read < 0) {
+				throw new EOFException("end of stream from iRODS during parallel transfer");
+			} else if (read == 0) {
+				await(SelectionKey.OP_READ);
+			}
+		}
+	}
+
+	private ByteBuffer getDirectBuffer() {
+		if (directBuffer == null) {
+			directBuffer = ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+		}
+		return directBuffer;
+	}
+
+	private void await(final int operation) throws IOException {
+		selectionKey.interestOps(operation);
+		int ready = selector.select(timeoutMillis);
+		selector.selectedKeys().clear();
+		if (ready == 0) {
+			if (Thread.interrupted()) {
+				throw new IOException("interrupted, consider connection corrupted and return IOException to clear");
+			}
+			log.error("timeout waiting on parallel transfer socket after {} millis", timeoutMillis);
+			throw new SocketTimeoutException("timeout waiting on parallel transfer socket");
+		}
+	}
+
+	/**
+	 * Release the selector, the socket itself is closed by the transfer thread
+	 */
+	@Override
+	public void close() {
+		try {
+			selector.close();
+		} catch (IOException e) {
+			log.warn("IOException closing selector - log and ignore");
+		}
+	}
+
+}
@@ -3,6 +3,7 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -12,11 +13,13 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.ClientServerNegotiationException;
+import org.irods.jargon.core.exception.EncryptionException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +52,12 @@ class AesCipherDecryptWrapper extends ParallelDecryptionCipherWrapper {
 
 	public static final Logger log = LoggerFactory.getLogger(AesCipherDecryptWrapper.class);
 
+	/**
+	 * Holds the initialization vector of the buffer being decrypted, reused from
+	 * buffer to buffer
+	 */
+	private final byte[] initializationVector = new byte[16];
+
 	/**
 	 * Default constructor with configuration information needed to set up the
 	 * algorithm
@@ -96,7 +105,7 @@ class AesCipherDecryptWrapper extends ParallelDecryptionCipherWrapper {
 	protected byte[] doDecrypt(final EncryptionBuffer input) {
 		try {
 			getCipher().init(Cipher.DECRYPT_MODE, getNegotiatedClientServerConfiguration().getSecretKey(),
-					new IvParameterSpec(input.getInitializationVector()));
+					new IvParameterSpec(input.getInitializationVector(), 0, initializationVector.length));
 
 			byte[] original = getCipher().doFinal(input.getEncryptedData());
 			return original;
@@ -108,9 +117,42 @@ class AesCipherDecryptWrapper extends ParallelDecryptionCipherWrapper {
 		}
 	}
 
+	@Override
+	protected int doDecrypt(final ByteBuffer fullBuffer, final ByteBuffer output) throws EncryptionException {
+		// the iv is followed by 16 bytes of unused data from iRODS
+		if (fullBuffer.remaining() < AesCipherEncryptWrapper.IV_HEADER_LENGTH) {
+			log.error("unusable data in buffer, less than 32 bytes");
+			throw new EncryptionException("unusable data in data buffer");
+		}
+
+		if (output.remaining() < fullBuffer.remaining() - AesCipherEncryptWrapper.IV_HEADER_LENGTH) {
+			throw new EncryptionException("output buffer too small for decrypted data");
+		}
+
+		fullBuffer.get(initializationVector);
+		fullBuffer.position(fullBuffer.position() + AesCipherEncryptWrapper.IV_HEADER_LENGTH
+				- initializationVector.length);
+
+		if (!fullBuffer.hasRemaining()) {
+			log.warn("no data in buffer to decrypt");
+			return 0;
+		}
+
+		try {
+			getCipher().init(Cipher.DECRYPT_MODE, getNegotiatedClientServerConfiguration().getSecretKey(),
+					new IvParameterSpec(initializationVector));
+			return getCipher().doFinal(fullBuffer, output);
+
+		} catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException | InvalidKeyException
+				| InvalidAlgorithmParameterException e) {
+			log.error("error during decryption", e);
+			throw new EncryptionException("Unable to decrypt given negotiated settings", e);
+		}
+	}
+
 	@Override
 	protected byte[] doDecrypt(final byte[] fullBuffer) {
-		log.info("doDecrypt()");
+		log.debug("doDecrypt()");
 		// need to split out iv and buffer data, note that there is currently 16
 		// bytes of unused data in the IV from iRODS
 
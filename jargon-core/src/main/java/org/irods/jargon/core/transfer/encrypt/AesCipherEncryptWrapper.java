@@ -3,19 +3,17 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.security.AlgorithmParameters;
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.security.spec.InvalidParameterSpecException;
+import java.util.Arrays;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
-import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.ShortBufferException;
 
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
@@ -43,6 +41,19 @@ class AesCipherEncryptWrapper extends ParallelEncryptionCipherWrapper {
 	public static final Logger log = LoggerFactory.getLogger(AesCipherEncryptWrapper.class);
 	public static byte[] ivPad = new byte[16];
 
+	/**
+	 * Length of the initialization vector and the unused pad that iRODS puts in
+	 * front of each encrypted buffer
+	 */
+	static final int IV_HEADER_LENGTH = 32;
+
+	/**
+	 * Initialization vector followed by the pad, as sent in front of each
+	 * buffer. The cipher is initialized once, and goes back to the same
+	 * initialization vector after each {@code doFinal()}
+	 */
+	private byte[] ivHeader;
+
 	/**
 	 * Default constructor with configuration information needed to set up the
 	 * algorithm
@@ -77,6 +88,7 @@ class AesCipherEncryptWrapper extends ParallelEncryptionCipherWrapper {
 
 			SecretKey secretKey = getNegotiatedClientServerConfiguration().getSecretKey();
 			getCipher().init(Cipher.ENCRYPT_MODE, secretKey);
+			ivHeader = Arrays.copyOf(getCipher().getIV(), IV_HEADER_LENGTH);
 
 		} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException e) {
 			log.error("error generating key for cipher", e);
@@ -88,34 +100,41 @@ class AesCipherEncryptWrapper extends ParallelEncryptionCipherWrapper {
 	@Override
 	protected EncryptionBuffer doEncrypt(final byte[] input) throws EncryptionException {
 
-		log.info("encrypt");
 		if (input == null) {
 			throw new IllegalArgumentException("null input");
 		}
 
 		try {
+			byte[] encrypted = getCipher().doFinal(input);
+			log.debug("encrypted length:{}", encrypted.length);
+			return new EncryptionBuffer(ivHeader.clone(), encrypted);
 
-			AlgorithmParameters params = getCipher().getParameters();
-			byte[] mInitVec = params.getParameterSpec(IvParameterSpec.class).getIV();
-			ByteArrayOutputStream bos = new ByteArrayOutputStream();
-			bos.write(mInitVec);
-			// TODO: add version checking
-			bos.write(ivPad);
-
-			// get the initialization vector and store as member var
-			// byte[] mInitVec = getCipher().getIV();
+		} catch (IllegalBlockSizeException | BadPaddingException e) {
+			log.error("encryption exception", e);
+			throw new EncryptionException("encryption exception", e);
+		}
 
-			log.debug("encrypting");
-			byte[] encrypted;
+	}
 
-			encrypted = getCipher().doFinal(input);
-			log.debug("encrypted length:{}", encrypted.length);
-			return new EncryptionBuffer(bos.toByteArray(), encrypted);
+	@Override
+	protected int doEncrypt(final ByteBuffer input, final ByteBuffer output) throws EncryptionException {
+		if (output.remaining() < getEncryptedLength(input.remaining())) {
+			throw new EncryptionException("output buffer too small for encrypted data");
+		}
+		int start = output.position();
+		try {
+			output.put(ivHeader);
+			getCipher().doFinal(input, output);
+			return output.position() - start;
 
-		} catch (IllegalBlockSizeException | BadPaddingException | InvalidParameterSpecException | IOException e) {
+		} catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
 			log.error("encryption exception", e);
 			throw new EncryptionException("encryption exception", e);
 		}
+	}
 
+	@Override
+	public int getEncryptedLength(final int plaintextLength) {
+		return IV_HEADER_LENGTH + getCipher().getOutputSize(plaintextLength);
 	}
 }
@@ -3,6 +3,8 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
+
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.EncryptionException;
@@ -35,7 +37,7 @@ public abstract class ParallelDecryptionCipherWrapper extends ParallelCipherWrap
 	 *             {@link EncryptionException}
 	 */
 	public byte[] decrypt(final EncryptionBuffer input) throws EncryptionException {
-		log.info("decrypt()");
+		log.debug("decrypt()");
 
 		return doDecrypt(input);
 	}
@@ -53,10 +55,37 @@ public abstract class ParallelDecryptionCipherWrapper extends ParallelCipherWrap
 	 *             {@link EncryptionException}
 	 */
 	public byte[] decrypt(final byte[] fullBuffer) throws EncryptionException {
-		log.info("decrypt");
+		log.debug("decrypt");
 		return doDecrypt(fullBuffer);
 	}
 
+	/**
+	 * Decrypt a complete buffer from iRODS into the output buffer. Nothing is
+	 * allocated for the data, so that the caller can reuse the same buffers for
+	 * every chunk of a transfer.
+	 *
+	 * @param fullBuffer
+	 *            {@link ByteBuffer} with the full buffer from iRODS, including any
+	 *            encryption related payload, between its position and limit,
+	 *            which is consumed
+	 * @param output
+	 *            {@link ByteBuffer} the plaintext is written to from its
+	 *            position, which must have at least as many bytes remaining as
+	 *            the full buffer
+	 * @return {@code int} with the number of bytes of plaintext written
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	public int decrypt(final ByteBuffer fullBuffer, final ByteBuffer output) throws EncryptionException {
+		if (fullBuffer == null) {
+			throw new IllegalArgumentException("null fullBuffer");
+		}
+		if (output == null) {
+			throw new IllegalArgumentException("null output");
+		}
+		return doDecrypt(fullBuffer, output);
+	}
+
 	protected abstract byte[] doDecrypt(byte[] fullBuffer);
 
 	/**
@@ -71,4 +100,17 @@ public abstract class ParallelDecryptionCipherWrapper extends ParallelCipherWrap
 	 */
 	protected abstract byte[] doDecrypt(EncryptionBuffer input) throws EncryptionException;
 
+	/**
+	 * Decrypt a complete buffer from iRODS into the given buffer
+	 *
+	 * @param fullBuffer
+	 *            {@link ByteBuffer} with the full buffer from iRODS
+	 * @param output
+	 *            {@link ByteBuffer} to write the plaintext to
+	 * @return {@code int} with the number of bytes written
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	protected abstract int doDecrypt(ByteBuffer fullBuffer, ByteBuffer output) throws EncryptionException;
+
 }
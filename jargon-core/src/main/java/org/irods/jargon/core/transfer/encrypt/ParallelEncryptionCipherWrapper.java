@@ -3,6 +3,8 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
+
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.EncryptionException;
@@ -37,10 +39,37 @@ public abstract class ParallelEncryptionCipherWrapper extends ParallelCipherWrap
 	 *             {@link EncryptionException}
 	 */
 	public EncryptionBuffer encrypt(final byte[] input) throws EncryptionException {
-		log.info("encrypt()");
+		log.debug("encrypt()");
 		return doEncrypt(input);
 	}
 
+	/**
+	 * Encrypt the remaining bytes of the plaintext into the output buffer, in the
+	 * form sent to iRODS, which includes any encryption related payload such as
+	 * the initialization vector. Nothing is allocated, so that the caller can
+	 * reuse the same buffers for every chunk of a transfer.
+	 *
+	 * @param input
+	 *            {@link ByteBuffer} with the plaintext between its position and
+	 *            limit, which is consumed
+	 * @param output
+	 *            {@link ByteBuffer} the encrypted data is written to from its
+	 *            position, which must have at least
+	 *            {@link #getEncryptedLength(int)} bytes remaining
+	 * @return {@code int} with the number of bytes written to the output
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	public int encrypt(final ByteBuffer input, final ByteBuffer output) throws EncryptionException {
+		if (input == null) {
+			throw new IllegalArgumentException("null input");
+		}
+		if (output == null) {
+			throw new IllegalArgumentException("null output");
+		}
+		return doEncrypt(input, output);
+	}
+
 	/**
 	 * Encrypt the given data
 	 *
@@ -52,4 +81,27 @@ public abstract class ParallelEncryptionCipherWrapper extends ParallelCipherWrap
 	 */
 	protected abstract EncryptionBuffer doEncrypt(byte[] input) throws EncryptionException;
 
+	/**
+	 * Encrypt the given data into the given buffer
+	 *
+	 * @param input
+	 *            {@link ByteBuffer} of plaintext data
+	 * @param output
+	 *            {@link ByteBuffer} to write the encrypted data to
+	 * @return {@code int} with the number of bytes written
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	protected abstract int doEncrypt(ByteBuffer input, ByteBuffer output) throws EncryptionException;
+
+	/**
+	 * Get the size of the buffer sent to iRODS for a given amount of plaintext,
+	 * used to size the output of {@link #encrypt(ByteBuffer, ByteBuffer)}
+	 *
+	 * @param plaintextLength
+	 *            {@code int} with the number of bytes of plaintext
+	 * @return {@code int} with the number of bytes once encrypted
+	 */
+	public abstract int getEncryptedLength(int plaintextLength);
+
 }
@@ -0,0 +1,219 @@
+package org.irods.jargon.core.connection;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.irods.jargon.core.connection.AbstractConnection.EncryptionType;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.utils.IRODSConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Drives many concurrent operations, on virtual threads where the JVM has them,
+ * through a few {@link IRODSMidLevelProtocol} instances talking to a local
+ * responder that echoes each request back
+ */
+public class IRODSMidLevelProtocolConcurrencyTest {
+
+	private static final int OPERATIONS = 5000;
+	private static final int CONNECTIONS = 4;
+	private static final int API_NUMBER = 700;
+
+	@Test
+	public void testConcurrentRequestsAreNotInterleaved() throws Exception {
+		EchoAgent agent = new EchoAgent(false);
+		List<IRODSMidLevelProtocol> protocols = new ArrayList<IRODSMidLevelProtocol>();
+		ExecutorService executor = newVirtualThreadExecutor();
+		try {
+			for (int i = 0; i < CONNECTIONS; i++) {
+				protocols.add(agent.connect());
+			}
+
+			List<Future<String>> replies = new ArrayList<Future<String>>();
+			for (int i = 0; i < OPERATIONS; i++) {
+				final IRODSMidLevelProtocol protocol = protocols.get(i % CONNECTIONS);
+				final String value = "operation-" + i;
+				replies.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						Tag reply = protocol.irodsFunction(IRODSConstants.RODS_API_REQ,
+								"<STR_PI><myStr>" + value + "</myStr></STR_PI>", API_NUMBER);
+						return reply.getTag("myStr").getStringValue();
+					}
+				}));
+			}
+
+			for (int i = 0; i < OPERATIONS; i++) {
+				Assert.assertEquals("reply did not match request", "operation-" + i,
+						replies.get(i).get(60, TimeUnit.SECONDS));
+			}
+			Assert.assertEquals("wrong number of requests at agent", OPERATIONS, agent.requests.get());
+		} finally {
+			executor.shutdownNow();
+			for (IRODSMidLevelProtocol protocol : protocols) {
+				protocol.obliterateConnectionAndDiscardErrors();
+			}
+			agent.close();
+		}
+	}
+
+	@Test
+	public void testObliterateFromAnotherThreadWhileBlockedInRead() throws Exception {
+		EchoAgent agent = new EchoAgent(true);
+		ExecutorService executor = newVirtualThreadExecutor();
+		try {
+			final IRODSMidLevelProtocol protocol = agent.connect();
+			Future<Tag> reply = executor.submit(new Callable<Tag>() {
+				@Override
+				public Tag call() throws Exception {
+					return protocol.irodsFunction(IRODSConstants.RODS_API_REQ,
+							"<STR_PI><myStr>never answered</myStr></STR_PI>", API_NUMBER);
+				}
+			});
+
+			Assert.assertTrue("request never reached agent", agent.received.await(30, TimeUnit.SECONDS));
+			protocol.obliterateConnectionAndDiscardErrors();
+			Assert.assertFalse("should be disconnected", protocol.isConnected());
+
+			try {
+				reply.get(30, TimeUnit.SECONDS);
+				Assert.fail("blocked read should fail once the connection is closed");
+			} catch (java.util.concurrent.ExecutionException e) {
+				Assert.assertTrue("should fail with JargonException", e.getCause() instanceof JargonException);
+			}
+		} finally {
+			executor.shutdownNow();
+			agent.close();
+		}
+	}
+
+	/**
+	 * Virtual threads when running on a JVM that has them, otherwise a platform
+	 * thread pool
+	 */
+	private static ExecutorService newVirtualThreadExecutor() throws Exception {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (NoSuchMethodException e) {
+			return Executors.newFixedThreadPool(64);
+		}
+	}
+
+	/**
+	 * Minimal iRODS agent that answers each API request with its own message
+	 * body, or never answers when silent
+	 */
+	private static class EchoAgent {
+
+		private static final Pattern HEADER_FIELD = Pattern.compile("<(msgLen|errorLen|bsLen)>(\\d+)</");
+
+		private final ServerSocket serverSocket;
+		private final boolean silent;
+		private final List<Socket> sockets = new ArrayList<Socket>();
+		final AtomicInteger requests = new AtomicInteger();
+		final CountDownLatch received = new CountDownLatch(1);
+
+		EchoAgent(final boolean silent) throws IOException {
+			this.silent = silent;
+			serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		}
+
+		IRODSMidLevelProtocol connect() throws Exception {
+			IRODSAccount irodsAccount = IRODSAccount.instance("localhost", serverSocket.getLocalPort(), "test",
+					"test", "", "zone", "");
+			irodsAccount.setClientServerNegotiationPolicy(new ClientServerNegotiationPolicy());
+			IRODSSimpleProtocolManager irodsProtocolManager = new IRODSSimpleProtocolManager();
+			IRODSSession irodsSession = new IRODSSession(irodsProtocolManager);
+
+			Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+			final Socket accepted = serverSocket.accept();
+			synchronized (sockets) {
+				sockets.add(socket);
+				sockets.add(accepted);
+			}
+			Thread responder = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					respond(accepted);
+				}
+			}, "echo-agent");
+			responder.setDaemon(true);
+			responder.start();
+
+			IRODSBasicTCPConnection connection = new IRODSBasicTCPConnection(irodsAccount,
+					irodsSession.buildPipelineConfigurationBasedOnJargonProperties(), irodsProtocolManager, socket,
+					irodsSession);
+			Assert.assertEquals(EncryptionType.NONE, connection.getEncryptionType());
+			IRODSMidLevelProtocol protocol = new IRODSMidLevelProtocol(connection, irodsProtocolManager);
+			protocol.setIrodsSession(irodsSession);
+			protocol.setIrodsAccount(irodsAccount);
+			return protocol;
+		}
+
+		private void respond(final Socket socket) {
+			try {
+				DataInputStream in = new DataInputStream(socket.getInputStream());
+				DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+				while (true) {
+					byte[] header = new byte[in.readInt()];
+					in.readFully(header);
+					Matcher matcher = HEADER_FIELD.matcher(new String(header, "UTF-8"));
+					int total = 0;
+					int messageLength = 0;
+					while (matcher.find()) {
+						int length = Integer.parseInt(matcher.group(2));
+						if (matcher.group(1).equals("msgLen")) {
+							messageLength = length;
+						}
+						total += length;
+					}
+					byte[] payload = new byte[total];
+					in.readFully(payload);
+					requests.incrementAndGet();
+					received.countDown();
+					if (silent) {
+						continue;
+					}
+
+					byte[] replyHeader = IRODSMidLevelProtocol.createHeaderBytesFromData("RODS_API_REPLY",
+							messageLength, 0, 0, 0, "UTF-8");
+					out.writeInt(replyHeader.length);
+					out.write(replyHeader);
+					out.write(payload, 0, messageLength);
+					out.flush();
+				}
+			} catch (IOException | JargonException e) {
+				// connection closed
+			}
+		}
+
+		void close() throws IOException {
+			synchronized (sockets) {
+				for (Socket socket : sockets) {
+					socket.close();
+				}
+			}
+			serverSocket.close();
+		}
+	}
+
+}
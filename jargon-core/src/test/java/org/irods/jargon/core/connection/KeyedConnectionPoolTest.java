@@ -0,0 +1,233 @@
+package org.irods.jargon.core.connection;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyedConnectionPoolTest {
+
+	@Test
+	public void testLeaseReusesReturnedConnection() throws Exception {
+		TestLifecycle lifecycle = new TestLifecycle();
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(lifecycle);
+		TestFactory factory = new TestFactory();
+
+		TestConnection first = pool.lease("user1", factory);
+		pool.giveBack(first);
+		TestConnection second = pool.lease("user1", factory);
+
+		Assert.assertSame("should reuse idle connection", first, second);
+		Assert.assertEquals("should only create once", 1, factory.created.get());
+		ConnectionPoolStatistics statistics = pool.getStatistics();
+		Assert.assertEquals("wrong leases", 2, statistics.getLeases());
+		Assert.assertEquals("wrong created", 1, statistics.getConnectionsCreated());
+		Assert.assertEquals("wrong active", 1, statistics.getActiveConnections());
+		Assert.assertEquals("wrong idle", 0, statistics.getIdleConnections());
+	}
+
+	@Test
+	public void testKeysAreSeparate() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		TestFactory factory = new TestFactory();
+
+		TestConnection user1 = pool.lease("user1", factory);
+		pool.giveBack(user1);
+		TestConnection user2 = pool.lease("user2", factory);
+
+		Assert.assertNotSame("should not share across keys", user1, user2);
+		Assert.assertEquals("wrong idle", 1, pool.getStatistics().getIdleConnections());
+	}
+
+	@Test
+	public void testInvalidIdleConnectionIsDiscarded() throws Exception {
+		TestLifecycle lifecycle = new TestLifecycle();
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(lifecycle);
+		TestFactory factory = new TestFactory();
+
+		TestConnection first = pool.lease("user1", factory);
+		pool.giveBack(first);
+		first.valid = false;
+		TestConnection second = pool.lease("user1", factory);
+
+		Assert.assertNotSame("should not reuse invalid connection", first, second);
+		Assert.assertTrue("should destroy invalid connection", first.destroyed);
+		Assert.assertEquals("wrong discarded", 1, pool.getStatistics().getConnectionsDiscarded());
+	}
+
+	@Test
+	public void testMaxIdlePerKey() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		pool.setMaxIdlePerKey(1);
+		TestFactory factory = new TestFactory();
+
+		TestConnection first = pool.lease("user1", factory);
+		TestConnection second = pool.lease("user1", factory);
+		pool.giveBack(first);
+		pool.giveBack(second);
+
+		Assert.assertFalse("first should be idle", first.destroyed);
+		Assert.assertTrue("second should be over idle limit", second.destroyed);
+		Assert.assertEquals("wrong idle", 1, pool.getStatistics().getIdleConnections());
+	}
+
+	@Test
+	public void testWaitForReturnedConnection() throws Exception {
+		final KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(
+				new TestLifecycle());
+		pool.setMaxActivePerKey(1);
+		pool.setMaxWaitMillis(10000);
+		final TestFactory factory = new TestFactory();
+
+		TestConnection first = pool.lease("user1", factory);
+		final AtomicReference<TestConnection> waited = new AtomicReference<TestConnection>();
+		final CountDownLatch done = new CountDownLatch(1);
+		Thread waiter = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					waited.set(pool.lease("user1", factory));
+				} catch (JargonException e) {
+					// leave unset
+				}
+				done.countDown();
+			}
+		});
+		waiter.start();
+
+		Assert.assertFalse("should wait while at limit", done.await(100, TimeUnit.MILLISECONDS));
+		pool.giveBack(first);
+		Assert.assertTrue("should get returned connection", done.await(5, TimeUnit.SECONDS));
+		Assert.assertSame("should get the returned connection", first, waited.get());
+		Assert.assertTrue("should record wait time", pool.getStatistics().getMaxLeaseWaitNanos() > 0);
+	}
+
+	@Test
+	public void testTimeoutAtLimit() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		pool.setMaxActivePerKey(1);
+		pool.setMaxWaitMillis(20);
+		TestFactory factory = new TestFactory();
+
+		pool.lease("user1", factory);
+		try {
+			pool.lease("user1", factory);
+			Assert.fail("should time out");
+		} catch (JargonException e) {
+			// expected
+		}
+		Assert.assertEquals("wrong timeouts", 1, pool.getStatistics().getLeaseTimeouts());
+	}
+
+	@Test
+	public void testFailedCreateFreesSlot() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		pool.setMaxActivePerKey(1);
+		pool.setMaxWaitMillis(0);
+		TestFactory factory = new TestFactory();
+		factory.fail = true;
+
+		try {
+			pool.lease("user1", factory);
+			Assert.fail("should fail create");
+		} catch (JargonException e) {
+			// expected
+		}
+
+		factory.fail = false;
+		Assert.assertNotNull("slot should be free", pool.lease("user1", factory));
+	}
+
+	@Test
+	public void testInvalidateFreesSlot() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		pool.setMaxActivePerKey(1);
+		pool.setMaxWaitMillis(0);
+		TestFactory factory = new TestFactory();
+
+		TestConnection first = pool.lease("user1", factory);
+		pool.invalidate(first);
+		TestConnection second = pool.lease("user1", factory);
+
+		Assert.assertNotSame("should create a new connection", first, second);
+		Assert.assertFalse("invalidate leaves closing to the caller", first.destroyed);
+	}
+
+	@Test
+	public void testEvictIdle() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		TestFactory factory = new TestFactory();
+
+		TestConnection first = pool.lease("user1", factory);
+		pool.giveBack(first);
+		Assert.assertEquals("should not evict recent connection", 0, pool.evictIdle());
+
+		pool.setIdleEvictionMillis(1);
+		Thread.sleep(10);
+		Assert.assertEquals("should evict idle connection", 1, pool.evictIdle());
+		Assert.assertTrue("should destroy evicted connection", first.destroyed);
+		Assert.assertEquals("wrong evicted", 1, pool.getStatistics().getConnectionsEvicted());
+		Assert.assertEquals("wrong idle", 0, pool.getStatistics().getIdleConnections());
+	}
+
+	@Test
+	public void testClose() throws Exception {
+		KeyedConnectionPool<TestConnection> pool = new KeyedConnectionPool<TestConnection>(new TestLifecycle());
+		TestFactory factory = new TestFactory();
+
+		TestConnection idle = pool.lease("user1", factory);
+		TestConnection leased = pool.lease("user1", factory);
+		pool.giveBack(idle);
+		pool.close();
+
+		Assert.assertTrue("should destroy idle connection", idle.destroyed);
+		Assert.assertFalse("should not destroy leased connection", leased.destroyed);
+		pool.giveBack(leased);
+		Assert.assertTrue("should destroy connection returned after close", leased.destroyed);
+
+		try {
+			pool.lease("user1", factory);
+			Assert.fail("should not lease from closed pool");
+		} catch (JargonException e) {
+			// expected
+		}
+	}
+
+	private static class TestConnection {
+		volatile boolean valid = true;
+		volatile boolean destroyed = false;
+	}
+
+	private static class TestLifecycle implements KeyedConnectionPool.Lifecycle<TestConnection> {
+
+		@Override
+		public boolean validate(final TestConnection connection, final long idleMillis) {
+			return connection.valid;
+		}
+
+		@Override
+		public void destroy(final TestConnection connection) {
+			connection.destroyed = true;
+		}
+	}
+
+	private static class TestFactory implements KeyedConnectionPool.Factory<TestConnection> {
+
+		final AtomicInteger created = new AtomicInteger();
+		volatile boolean fail = false;
+
+		@Override
+		public TestConnection create() throws JargonException {
+			if (fail) {
+				throw new JargonException("unable to connect");
+			}
+			created.incrementAndGet();
+			return new TestConnection();
+		}
+	}
+
+}
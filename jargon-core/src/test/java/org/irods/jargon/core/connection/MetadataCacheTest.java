@@ -0,0 +1,129 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MetadataCacheTest {
+
+	private static IRODSAccount account;
+	private static IRODSAccount otherAccount;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		account = IRODSAccount.instance("host", 1247, "user", "password", "/zone/home/user", "zone", "");
+		otherAccount = IRODSAccount.instance("host", 1247, "other", "password", "/zone/home/other", "zone", "");
+	}
+
+	@Test
+	public void testHitsAndMisses() throws Exception {
+		MetadataCache cache = new MetadataCache(10, 60000);
+		Assert.assertNull("should miss when empty", cache.getObjStat(account, "/zone/home/user/a"));
+		ObjStat objStat = objStat("/zone/home/user/a");
+		cache.putObjStat(account, "/zone/home/user/a", objStat, cache.currentGeneration());
+
+		Assert.assertSame("should hit", objStat, cache.getObjStat(account, "/zone/home/user/a"));
+		Assert.assertNull("accounts should be separate", cache.getObjStat(otherAccount, "/zone/home/user/a"));
+		Assert.assertNull("stats and listings should be separate", cache.getListing(account, "/zone/home/user/a"));
+
+		MetadataCacheStatistics statistics = cache.getStatistics();
+		Assert.assertEquals("wrong hits", 1, statistics.getHits());
+		Assert.assertEquals("wrong misses", 3, statistics.getMisses());
+		Assert.assertEquals("wrong size", 1, statistics.getSize());
+		Assert.assertEquals(0.25, statistics.getHitRatio(), 0.001);
+	}
+
+	@Test
+	public void testListingIsCopied() throws Exception {
+		MetadataCache cache = new MetadataCache(10, 60000);
+		List<CollectionAndDataObjectListingEntry> listing = new ArrayList<CollectionAndDataObjectListingEntry>();
+		listing.add(new CollectionAndDataObjectListingEntry());
+		cache.putListing(account, "/zone/home/user", listing, cache.currentGeneration());
+		listing.clear();
+
+		List<CollectionAndDataObjectListingEntry> cached = cache.getListing(account, "/zone/home/user");
+		Assert.assertEquals("should not see changes made after the put", 1, cached.size());
+		cached.clear();
+		Assert.assertEquals("should not see changes made to a returned listing", 1,
+				cache.getListing(account, "/zone/home/user").size());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() throws Exception {
+		MetadataCache cache = new MetadataCache(2, 60000);
+		put(cache, "/zone/a");
+		put(cache, "/zone/b");
+		Assert.assertNotNull(cache.getObjStat(account, "/zone/a"));
+		put(cache, "/zone/c");
+
+		Assert.assertNotNull("recently used should be kept", cache.getObjStat(account, "/zone/a"));
+		Assert.assertNull("least recently used should be evicted", cache.getObjStat(account, "/zone/b"));
+		Assert.assertNotNull(cache.getObjStat(account, "/zone/c"));
+		Assert.assertEquals("wrong evictions", 1, cache.getStatistics().getEvictions());
+	}
+
+	@Test
+	public void testEntriesExpire() throws Exception {
+		MetadataCache cache = new MetadataCache(10, 50);
+		put(cache, "/zone/a");
+		Thread.sleep(100);
+		Assert.assertNull("should have expired", cache.getObjStat(account, "/zone/a"));
+		Assert.assertEquals("wrong expirations", 1, cache.getStatistics().getExpirations());
+		Assert.assertEquals("wrong size", 0, cache.getStatistics().getSize());
+	}
+
+	@Test
+	public void testInvalidateDropsPathChildrenAndAncestors() throws Exception {
+		MetadataCache cache = new MetadataCache(100, 60000);
+		String[] paths = { "/", "/zone", "/zone/home", "/zone/home/dir", "/zone/home/dir/file", "/zone/home/dir/sub",
+				"/zone/home/dir/sub/file", "/zone/home/dir2", "/zone/home/dir.txt", "/zone/home/sibling" };
+		for (String path : paths) {
+			put(cache, path);
+			cache.putObjStat(otherAccount, path, objStat(path), cache.currentGeneration());
+			cache.putListing(account, path, new ArrayList<CollectionAndDataObjectListingEntry>(),
+					cache.currentGeneration());
+		}
+
+		cache.invalidate("/zone/home/dir/");
+
+		String[] dropped = { "/", "/zone", "/zone/home", "/zone/home/dir", "/zone/home/dir/file", "/zone/home/dir/sub",
+				"/zone/home/dir/sub/file" };
+		for (String path : dropped) {
+			Assert.assertNull("should drop:" + path, cache.getObjStat(account, path));
+			Assert.assertNull("should drop for all accounts:" + path, cache.getObjStat(otherAccount, path));
+			Assert.assertNull("should drop listing:" + path, cache.getListing(account, path));
+		}
+		String[] kept = { "/zone/home/dir2", "/zone/home/dir.txt", "/zone/home/sibling" };
+		for (String path : kept) {
+			Assert.assertNotNull("should keep:" + path, cache.getObjStat(account, path));
+			Assert.assertNotNull("should keep listing:" + path, cache.getListing(account, path));
+		}
+		Assert.assertEquals("wrong invalidations", dropped.length * 3, cache.getStatistics().getInvalidations());
+	}
+
+	@Test
+	public void testPutAfterInvalidateIsDropped() throws Exception {
+		MetadataCache cache = new MetadataCache(10, 60000);
+		long generation = cache.currentGeneration();
+		cache.invalidate("/zone/a");
+		cache.putObjStat(account, "/zone/a", objStat("/zone/a"), generation);
+		Assert.assertNull("stat read before the change should not be cached",
+				cache.getObjStat(account, "/zone/a"));
+	}
+
+	private static void put(final MetadataCache cache, final String path) {
+		cache.putObjStat(account, path, objStat(path), cache.currentGeneration());
+	}
+
+	private static ObjStat objStat(final String path) {
+		ObjStat objStat = new ObjStat();
+		objStat.setAbsolutePath(path);
+		return objStat;
+	}
+
+}
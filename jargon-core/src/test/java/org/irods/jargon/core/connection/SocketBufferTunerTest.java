@@ -0,0 +1,116 @@
+package org.irods.jargon.core.connection;
+
+import java.net.Socket;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SocketBufferTunerTest {
+
+	@Test
+	public void testLongHaulLinkGetsBandwidthDelayProduct() throws Exception {
+		SocketBufferTuner tuner = new SocketBufferTuner(new DiscoveredServerPropertiesCache(),
+				PipelineConfiguration.instance(buildProperties()));
+		SocketBufferTuning tuning = tuner.computeTuning("host", 100000L, 1, false);
+		Assert.assertEquals(12500000L, tuning.getBandwidthDelayProduct());
+		Assert.assertEquals(12500000, tuning.getSendBufferSize());
+		Assert.assertEquals(12500000, tuning.getReceiveBufferSize());
+		Assert.assertEquals(SocketBufferTuner.MAX_STREAM_BUFFER_SIZE, tuning.getInputStreamBufferSize());
+		Assert.assertEquals("unbuffered stream should stay so", -1, tuning.getOutputStreamBufferSize());
+	}
+
+	@Test
+	public void testParallelStreamsShareTheLink() throws Exception {
+		SocketBufferTuner tuner = new SocketBufferTuner(new DiscoveredServerPropertiesCache(),
+				PipelineConfiguration.instance(buildProperties()));
+		SocketBufferTuning tuning = tuner.computeTuning("host", 100000L, 4, true);
+		Assert.assertEquals(3125000, tuning.getSendBufferSize());
+		Assert.assertEquals(3125000, tuning.getReceiveBufferSize());
+	}
+
+	@Test
+	public void testShortLinkKeepsConfiguredSizes() throws Exception {
+		SettableJargonProperties jargonProperties = buildProperties();
+		jargonProperties.setPrimaryTcpSendWindowSize(64);
+		jargonProperties.setInternalInputStreamBufferSize(65536);
+		SocketBufferTuner tuner = new SocketBufferTuner(new DiscoveredServerPropertiesCache(),
+				PipelineConfiguration.instance(jargonProperties));
+		SocketBufferTuning tuning = tuner.computeTuning("host", 200L, 1, false);
+		Assert.assertEquals(25000L, tuning.getBandwidthDelayProduct());
+		Assert.assertEquals(64 * 1024, tuning.getSendBufferSize());
+		Assert.assertEquals(25000, tuning.getReceiveBufferSize());
+		Assert.assertEquals(65536, tuning.getInputStreamBufferSize());
+	}
+
+	@Test
+	public void testBuffersAreCapped() throws Exception {
+		SettableJargonProperties jargonProperties = buildProperties();
+		jargonProperties.setTcpBufferAutoTuneMaxKb(1024);
+		SocketBufferTuner tuner = new SocketBufferTuner(new DiscoveredServerPropertiesCache(),
+				PipelineConfiguration.instance(jargonProperties));
+		SocketBufferTuning tuning = tuner.computeTuning("host", 1000000L, 1, false);
+		Assert.assertEquals(1024 * 1024, tuning.getSendBufferSize());
+		Assert.assertEquals(1024 * 1024, tuning.getReceiveBufferSize());
+	}
+
+	@Test
+	public void testShortestRoundTripIsKept() throws Exception {
+		SocketBufferTuner tuner = new SocketBufferTuner(new DiscoveredServerPropertiesCache(),
+				PipelineConfiguration.instance(buildProperties()));
+		Assert.assertEquals(0L, tuner.retrieveRoundTripMicros("host"));
+		Assert.assertEquals(5000L, tuner.recordRoundTrip("host", 5000000L));
+		Assert.assertEquals(5000L, tuner.recordRoundTrip("host", 9000000L));
+		Assert.assertEquals(3000L, tuner.recordRoundTrip("host", 3000000L));
+		Assert.assertEquals(3000L, tuner.retrieveRoundTripMicros("host"));
+		Assert.assertEquals(0L, tuner.retrieveRoundTripMicros("other"));
+	}
+
+	@Test
+	public void testTuneBeforeConnectNeedsRoundTrip() throws Exception {
+		SocketBufferTuner tuner = new SocketBufferTuner(new DiscoveredServerPropertiesCache(),
+				PipelineConfiguration.instance(buildProperties()));
+		Socket socket = new Socket();
+		try {
+			Assert.assertNull(tuner.tuneBeforeConnect(socket, "host", 1, false));
+			tuner.recordRoundTrip("host", 1000000L);
+			SocketBufferTuning tuning = tuner.tuneBeforeConnect(socket, "host", 1, false);
+			Assert.assertNotNull(tuning);
+			Assert.assertEquals(1000L, tuning.getRoundTripMicros());
+			Assert.assertTrue("should report the size the socket has", tuning.getActualReceiveBufferSize() > 0);
+		} finally {
+			socket.close();
+		}
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		SettableJargonProperties jargonProperties = buildProperties();
+		jargonProperties.setTcpBufferAutoTune(false);
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		SocketBufferTuner tuner = new SocketBufferTuner(cache, PipelineConfiguration.instance(jargonProperties));
+		tuner.recordRoundTrip("host", 1000000L);
+		Socket socket = new Socket();
+		try {
+			Assert.assertFalse(tuner.isEnabled());
+			Assert.assertNull(tuner.tuneBeforeConnect(socket, "host", 1, false));
+			Assert.assertNull(tuner.tuneAfterConnect(socket, "host", 1, false, 1000L, null));
+		} finally {
+			socket.close();
+		}
+	}
+
+	private static SettableJargonProperties buildProperties() throws Exception {
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setTcpBufferAutoTune(true);
+		jargonProperties.setTcpBufferAutoTuneBandwidthMbits(1000);
+		jargonProperties.setTcpBufferAutoTuneMaxKb(65536);
+		jargonProperties.setPrimaryTcpSendWindowSize(0);
+		jargonProperties.setPrimaryTcpReceiveWindowSize(0);
+		jargonProperties.setParallelTcpSendWindowSize(0);
+		jargonProperties.setParallelTcpReceiveWindowSize(0);
+		jargonProperties.setInternalInputStreamBufferSize(0);
+		jargonProperties.setInternalOutputStreamBufferSize(-1);
+		return jargonProperties;
+	}
+
+}
@@ -0,0 +1,123 @@
+package org.irods.jargon.core.packinstr;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TagPullParserTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Test
+	public final void testParseMsgHeader() throws Exception {
+		String header = "<MsgHeader_PI><type>RODS_API_REPLY</type><msgLen>210</msgLen><errorLen>0</errorLen><bsLen>0</bsLen><intInfo>0</intInfo></MsgHeader_PI>";
+		Tag tag = TagPullParser.parse(header.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("wrong tag name", "MsgHeader_PI", tag.getName());
+		Assert.assertEquals("wrong msgLen", 210, tag.getTags()[1].getIntValue());
+		Assert.assertEquals("wrong type", "RODS_API_REPLY", tag.getTag("type").getStringValue());
+		assertSameAsStringParser(header, true);
+	}
+
+	@Test
+	public final void testParseGenQueryOut() throws Exception {
+		String genQueryOut = buildGenQueryOut(20, 3);
+		Tag tag = TagPullParser.parse(genQueryOut.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("wrong rowCnt", 20, tag.getTag(GenQueryOut.ROW_CNT).getIntValue());
+		Assert.assertEquals("wrong value", "/zone/home/rods/coll<1>&more/file_5.txt",
+				tag.getTags()[4].getTags()[2 + 5].getStringValue());
+		assertSameAsStringParser(genQueryOut, true);
+		assertSameAsStringParser(genQueryOut, false);
+	}
+
+	@Test
+	public final void testParseEmptyValue() throws Exception {
+		String message = "<KeyValPair_PI><ssLen>1</ssLen><keyWord>dataIncluded</keyWord><svalue></svalue></KeyValPair_PI>\n";
+		Tag tag = TagPullParser.parse(message.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("should be empty value", "", tag.getTag("svalue").getStringValue());
+		assertSameAsStringParser(message, true);
+	}
+
+	@Test
+	public final void testParseEntities() throws Exception {
+		String message = "<RErrMsg_PI><status>-808000</status><msg>a &lt;b&gt; &amp;&amp;c &quot;d&quot; &apos;e&apos; &bogus; &amp &</msg></RErrMsg_PI>";
+		Tag tag = TagPullParser.parse(message.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("entities not decoded", "a <b> &&c \"d\" `e` &bogus; &amp &",
+				tag.getTag("msg").getStringValue());
+		assertSameAsStringParser(message, true);
+		assertSameAsStringParser(message, false);
+	}
+
+	@Test
+	public final void testParseNewlinesAndMultiByte() throws Exception {
+		String message = "<DataObjInp_PI>\n<objPath>\n/zone/home/über/日本\n</objPath>\n<createMode>0</createMode>\n<KeyValPair_PI>\n<ssLen>0</ssLen>\n</KeyValPair_PI>\n</DataObjInp_PI>\n";
+		Tag tag = TagPullParser.parse(message.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("wrong path", "/zone/home/über/日本\n", tag.getTag("objPath").getStringValue());
+		assertSameAsStringParser(message, true);
+	}
+
+	@Test
+	public final void testParseNoTag() throws Exception {
+		Assert.assertNull("should be null for no tag", TagPullParser.parse(new byte[10], ENCODING));
+		Assert.assertNull("should be null for null data", TagPullParser.parse(null, ENCODING));
+	}
+
+	@Test
+	public final void testParseRegion() throws Exception {
+		String message = "<INT_PI><myInt>3</myInt></INT_PI>";
+		byte[] bytes = ("xx" + message + "<bogus>").getBytes(ENCODING);
+		Tag tag = TagPullParser.parse(bytes, 2, message.length(), true, ENCODING);
+		Assert.assertEquals("wrong int", 3, tag.getTag("myInt").getIntValue());
+	}
+
+	@Test(expected = java.io.UnsupportedEncodingException.class)
+	public final void testParseBadEncoding() throws Exception {
+		TagPullParser.parse("<a>b</a>".getBytes(ENCODING), "no-such-encoding");
+	}
+
+	@Test
+	public final void testReadNextTagUsesPullParser() throws Exception {
+		String genQueryOut = buildGenQueryOut(2, 2);
+		Tag tag = Tag.readNextTag(genQueryOut.getBytes(ENCODING), ENCODING);
+		Assert.assertEquals("wrong attriCnt", 2, tag.getTag(GenQueryOut.ATTRIB_CNT).getIntValue());
+	}
+
+	private void assertSameAsStringParser(final String message, final boolean decode) throws Exception {
+		byte[] bytes = message.getBytes(ENCODING);
+		Tag expected = Tag.readNextTagFromString(bytes, decode, ENCODING);
+		Tag actual = TagPullParser.parse(bytes, decode, ENCODING);
+		assertSameTree(expected, actual);
+	}
+
+	private void assertSameTree(final Tag expected, final Tag actual) {
+		Assert.assertEquals("tag name mismatch", expected.getName(), actual.getName());
+		if (expected.getTags() == null) {
+			Assert.assertNull("unexpected children for:" + actual.getName(), actual.getTags());
+			Assert.assertEquals("value mismatch for:" + expected.getName(), expected.getStringValue(),
+					actual.getStringValue());
+			return;
+		}
+		Assert.assertNotNull("missing children for:" + expected.getName(), actual.getTags());
+		Assert.assertEquals("child count mismatch for:" + expected.getName(), expected.getTags().length,
+				actual.getTags().length);
+		for (int i = 0; i < expected.getTags().length; i++) {
+			assertSameTree(expected.getTags()[i], actual.getTags()[i]);
+		}
+	}
+
+	private String buildGenQueryOut(final int rows, final int columns) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<GenQueryOut_PI>\n<rowCnt>").append(rows).append("</rowCnt>\n");
+		sb.append("<attriCnt>").append(columns).append("</attriCnt>\n");
+		sb.append("<continueInx>0</continueInx>\n<totalRowCount>0</totalRowCount>\n");
+		for (int j = 0; j < columns; j++) {
+			sb.append("<SqlResult_PI>\n<attriInx>").append(401 + j).append("</attriInx>\n");
+			sb.append("<reslen>").append(64).append("</reslen>\n");
+			for (int i = 0; i < rows; i++) {
+				sb.append("<value>/zone/home/rods/coll&lt;1&gt;&amp;more/file_").append(i).append(".txt</value>\n");
+			}
+			sb.append("</SqlResult_PI>\n");
+		}
+		sb.append("</GenQueryOut_PI>\n");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,86 @@
+package org.irods.jargon.core.packinstr;
+
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TagWriterTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Test
+	public final void testWriteSameAsParseTag() throws Exception {
+		Tag tag = new Tag("DataObjInp_PI", new Tag[] { new Tag("objPath", "/zone/home/rods/a<b>&\"c`.txt"),
+				new Tag("createMode", 488), new Tag("dataSize", 10L),
+				Tag.createKeyValueTag(new String[][] { { "dataType", "generic" }, { "destRescName", null } }) });
+		assertSameAsParseTag(tag);
+	}
+
+	@Test
+	public final void testWriteMultiByteValue() throws Exception {
+		Tag tag = new Tag("CollInpNew_PI", new Tag[] { new Tag("collName", "/zone/home/über/日本&<x>"),
+				new Tag("flags", 0) });
+		assertSameAsParseTag(tag);
+	}
+
+	@Test
+	public final void testWriteModAvuMetadataInp() throws Exception {
+		ModAvuMetadataInp modAvuMetadataInp = ModAvuMetadataInp.instanceForAddCollectionMetadata("/zone/home/rods",
+				AvuData.instance("attr&1", "value<1>", "unit"));
+		TagWriter tagWriter = new TagWriter(ENCODING);
+		Assert.assertTrue("should have written a message", modAvuMetadataInp.writeParsedTags(tagWriter));
+		Assert.assertArrayEquals("did not get same bytes as parsed tags",
+				modAvuMetadataInp.getParsedTags().getBytes(ENCODING), tagWriter.toByteArray());
+	}
+
+	@Test
+	public final void testResetReusesBuffer() throws Exception {
+		TagWriter tagWriter = new TagWriter(ENCODING);
+		tagWriter.write(new Tag("INT_PI", new Tag[] { new Tag("myInt", 1) }));
+		byte[] buffer = tagWriter.getBuffer();
+		tagWriter.reset();
+		Assert.assertEquals("should be empty after reset", 0, tagWriter.size());
+		tagWriter.write(new Tag("INT_PI", new Tag[] { new Tag("myInt", 2) }));
+		Assert.assertSame("buffer should be reused", buffer, tagWriter.getBuffer());
+		Assert.assertEquals("wrong contents after reset", "<INT_PI><myInt>2</myInt>\n</INT_PI>\n",
+				tagWriter.toString());
+	}
+
+	@Test
+	public final void testGrowAndRelease() throws Exception {
+		TagWriter tagWriter = new TagWriter(ENCODING);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < TagWriter.MAX_RETAINED_BUFFER_SIZE + 10; i++) {
+			sb.append('x');
+		}
+		Tag tag = new Tag("BinBytesBuf_PI", new Tag[] { new Tag("buf", sb.toString()) });
+		tagWriter.write(tag);
+		Assert.assertArrayEquals("large message not written", tag.parseTag().getBytes(ENCODING),
+				tagWriter.toByteArray());
+		tagWriter.reset();
+		Assert.assertEquals("large buffer should have been released", TagWriter.DEFAULT_BUFFER_SIZE,
+				tagWriter.getBuffer().length);
+	}
+
+	@Test
+	public final void testWriteNonAsciiCompatibleEncoding() throws Exception {
+		Tag tag = new Tag("INT_PI", new Tag[] { new Tag("myInt", 1) });
+		TagWriter tagWriter = new TagWriter("UTF-16");
+		tagWriter.write(tag);
+		Assert.assertArrayEquals("did not encode in UTF-16", tag.parseTag().getBytes("UTF-16"),
+				tagWriter.toByteArray());
+	}
+
+	@Test(expected = java.io.UnsupportedEncodingException.class)
+	public final void testBadEncoding() throws Exception {
+		new TagWriter("no-such-encoding");
+	}
+
+	private void assertSameAsParseTag(final Tag tag) throws Exception {
+		TagWriter tagWriter = new TagWriter(ENCODING);
+		tagWriter.write(tag);
+		Assert.assertArrayEquals("did not get same bytes as parseTag()", tag.parseTag().getBytes(ENCODING),
+				tagWriter.toByteArray());
+	}
+
+}
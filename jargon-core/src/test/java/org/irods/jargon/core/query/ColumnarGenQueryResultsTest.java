@@ -0,0 +1,102 @@
+package org.irods.jargon.core.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.Tag;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnarGenQueryResultsTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Test
+	public void testSameAsRowOrientedResults() throws Exception {
+		Tag response = buildGenQueryOut(25);
+		List<String> columnNames = columnNames();
+		List<IRODSQueryResultRow> expected = QueryResultProcessingUtils.translateResponseIntoResultSet(response,
+				columnNames, 5, 100);
+		ColumnarGenQueryResults actual = ColumnarGenQueryResults.instance(response, columnNames, 5, 100);
+
+		Assert.assertEquals("wrong number of rows", expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			IRODSQueryResultRow expectedRow = expected.get(i);
+			IRODSQueryResultRow actualRow = actual.get(i);
+			Assert.assertEquals("wrong columns", expectedRow.getColumnsAsList(), actualRow.getColumnsAsList());
+			Assert.assertEquals("wrong record count", expectedRow.getRecordCount(), actualRow.getRecordCount());
+			Assert.assertEquals("wrong last result", expectedRow.isLastResult(), actualRow.isLastResult());
+		}
+	}
+
+	@Test
+	public void testGetColumnsByNameAndType() throws Exception {
+		ColumnarGenQueryResults results = ColumnarGenQueryResults.instance(buildGenQueryOut(3), columnNames(), 0, 0);
+		IRODSQueryResultRow row = results.get(2);
+		Assert.assertEquals("wrong name", "file_2.txt", row.getColumn(RodsGenQueryEnum.COL_DATA_NAME.getName()));
+		Assert.assertEquals("wrong size", 2048L, row.getColumnAsLongOrZero(RodsGenQueryEnum.COL_DATA_SIZE.getName()));
+		Assert.assertEquals("wrong size by position", 2048, row.getColumnAsIntOrZero(1));
+		Assert.assertEquals("wrong date", 1500000002000L,
+				row.getColumnAsDateOrNull(RodsGenQueryEnum.COL_D_MODIFY_TIME.getName()).getTime());
+		Assert.assertEquals("wrong record count", 3, row.getRecordCount());
+		Assert.assertTrue("should be last result", row.isLastResult());
+		Assert.assertEquals("wrong direct value", "file_1.txt", results.getValue(1, 0));
+		Assert.assertEquals("wrong column values", 3, results.getColumnValues(1).size());
+		Assert.assertEquals("wrong position", -1, results.getColumnPosition("bogus"));
+	}
+
+	@Test(expected = JargonException.class)
+	public void testGetColumnBadName() throws Exception {
+		ColumnarGenQueryResults results = ColumnarGenQueryResults.instance(buildGenQueryOut(1), columnNames(), 0, 0);
+		results.get(0).getColumn("bogus");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRowValuesReadOnly() throws Exception {
+		ColumnarGenQueryResults results = ColumnarGenQueryResults.instance(buildGenQueryOut(1), columnNames(), 0, 0);
+		results.get(0).getColumnsAsList().set(0, "x");
+	}
+
+	@Test
+	public void testEmptyResponse() throws Exception {
+		ColumnarGenQueryResults results = ColumnarGenQueryResults.instance(null, columnNames(), 0, 0);
+		Assert.assertTrue("should be empty", results.isEmpty());
+	}
+
+	@Test(expected = JargonException.class)
+	public void testMissingValues() throws Exception {
+		Tag response = buildGenQueryOut(2);
+		response.getTag("rowCnt").setValue(3);
+		ColumnarGenQueryResults.instance(response, columnNames(), 0, 0);
+	}
+
+	private List<String> columnNames() {
+		List<String> columnNames = new ArrayList<String>();
+		columnNames.add(RodsGenQueryEnum.COL_DATA_NAME.getName());
+		columnNames.add(RodsGenQueryEnum.COL_DATA_SIZE.getName());
+		columnNames.add(RodsGenQueryEnum.COL_D_MODIFY_TIME.getName());
+		return columnNames;
+	}
+
+	private Tag buildGenQueryOut(final int rows) throws Exception {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<GenQueryOut_PI>\n<rowCnt>").append(rows).append("</rowCnt>\n");
+		sb.append("<attriCnt>3</attriCnt>\n<continueInx>0</continueInx>\n<totalRowCount>0</totalRowCount>\n");
+		sb.append("<SqlResult_PI>\n<attriInx>403</attriInx>\n<reslen>64</reslen>\n");
+		for (int i = 0; i < rows; i++) {
+			sb.append("<value>file_").append(i).append(".txt</value>\n");
+		}
+		sb.append("</SqlResult_PI>\n<SqlResult_PI>\n<attriInx>407</attriInx>\n<reslen>32</reslen>\n");
+		for (int i = 0; i < rows; i++) {
+			sb.append("<value>").append(i * 1024).append("</value>\n");
+		}
+		sb.append("</SqlResult_PI>\n<SqlResult_PI>\n<attriInx>420</attriInx>\n<reslen>32</reslen>\n");
+		for (int i = 0; i < rows; i++) {
+			sb.append("<value>0").append(1500000000 + i).append("</value>\n");
+		}
+		sb.append("</SqlResult_PI>\n</GenQueryOut_PI>\n");
+		return Tag.readNextTag(sb.toString().getBytes(ENCODING), ENCODING);
+	}
+
+}
@@ -0,0 +1,140 @@
+package org.irods.jargon.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GenQueryResultIteratorTest {
+
+	@Test
+	public void testIterateAllPages() throws Exception {
+		TestPageSource pageSource = new TestPageSource(3, 4, -1);
+		List<Integer> recordCounts = new ArrayList<Integer>();
+		try (GenQueryResultIterator rows = new GenQueryResultIterator(pageSource, 0, true)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				recordCounts.add(row.getRecordCount());
+				Assert.assertEquals("wrong value", "file_" + (row.getRecordCount() - 1), row.getColumn(0));
+			}
+		}
+		Assert.assertEquals("did not get all rows", 12, recordCounts.size());
+		Assert.assertEquals("records not numbered across pages", Integer.valueOf(12), recordCounts.get(11));
+		Assert.assertEquals("should not close when all results are read", 0, pageSource.closeCount.get());
+	}
+
+	@Test
+	public void testCloseEarlyReleasesHandle() throws Exception {
+		TestPageSource pageSource = new TestPageSource(3, 4, -1);
+		try (GenQueryResultIterator rows = new GenQueryResultIterator(pageSource, 0, true)) {
+			rows.next();
+			rows.next();
+		}
+		Assert.assertEquals("should close the query once", 1, pageSource.closeCount.get());
+	}
+
+	@Test
+	public void testNoPrefetch() throws Exception {
+		TestPageSource pageSource = new TestPageSource(2, 4, -1);
+		GenQueryResultIterator rows = new GenQueryResultIterator(pageSource, 10, false);
+		Assert.assertEquals("should not fetch ahead", 1, pageSource.pagesFetched.get());
+		rows.next();
+		rows.close();
+		Assert.assertEquals("should close the query", 1, pageSource.closeCount.get());
+		Assert.assertFalse("should have no more after close", rows.hasNext());
+	}
+
+	@Test
+	public void testErrorGettingNextPage() throws Exception {
+		TestPageSource pageSource = new TestPageSource(3, 2, 1);
+		GenQueryResultIterator rows = new GenQueryResultIterator(pageSource, 0, true);
+		rows.next();
+		rows.next();
+		try {
+			rows.next();
+			Assert.fail("should have gotten an error for the second page");
+		} catch (JargonRuntimeException e) {
+			Assert.assertTrue("cause should be JargonException", e.getCause() instanceof JargonException);
+		}
+		rows.close();
+		Assert.assertEquals("should not close after an error", 0, pageSource.closeCount.get());
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		TestPageSource pageSource = new TestPageSource(4, 5, -1);
+		long count;
+		try (Stream<IRODSQueryResultRow> stream = new GenQueryResultIterator(pageSource, 0, true).stream()) {
+			count = stream.limit(7).count();
+		}
+		Assert.assertEquals("wrong count", 7, count);
+		Assert.assertEquals("closing the stream should close the query", 1, pageSource.closeCount.get());
+	}
+
+	/**
+	 * Serves a number of pages of a one column query, optionally failing on a
+	 * given page
+	 */
+	private static class TestPageSource implements GenQueryResultIterator.PageSource {
+
+		private final int pages;
+		private final int rowsPerPage;
+		private final int failOnPage;
+		private final TranslatedIRODSGenQuery translatedIRODSGenQuery;
+		final AtomicInteger pagesFetched = new AtomicInteger();
+		final AtomicInteger closeCount = new AtomicInteger();
+
+		TestPageSource(final int pages, final int rowsPerPage, final int failOnPage) throws Exception {
+			this.pages = pages;
+			this.rowsPerPage = rowsPerPage;
+			this.failOnPage = failOnPage;
+			List<GenQuerySelectField> selectFields = new ArrayList<GenQuerySelectField>();
+			selectFields.add(GenQuerySelectField.instance(RodsGenQueryEnum.COL_DATA_NAME,
+					GenQuerySelectField.SelectFieldTypes.FIELD,
+					GenQuerySelectField.SelectFieldSource.DEFINED_QUERY_FIELD));
+			translatedIRODSGenQuery = TranslatedIRODSGenQuery.instance(selectFields,
+					Collections.<TranslatedGenQueryCondition>emptyList(),
+					IRODSGenQuery.instance("select " + RodsGenQueryEnum.COL_DATA_NAME.getName(), rowsPerPage));
+		}
+
+		@Override
+		public IRODSQueryResultSet firstPage() throws JargonException {
+			return page(0, 0);
+		}
+
+		@Override
+		public IRODSQueryResultSet nextPage(final IRODSQueryResultSet previous, final int recordOffset)
+				throws JargonException {
+			return page(previous.getContinuationIndex(), recordOffset);
+		}
+
+		@Override
+		public void closePage(final IRODSQueryResultSet page) throws JargonException {
+			Assert.assertTrue("closed a page with no more results", page.isHasMoreRecords());
+			closeCount.incrementAndGet();
+		}
+
+		private IRODSQueryResultSet page(final int pageNumber, final int recordOffset) throws JargonException {
+			pagesFetched.incrementAndGet();
+			if (pageNumber == failOnPage) {
+				throw new JargonException("failed getting page:" + pageNumber);
+			}
+			int continuation = pageNumber + 1 < pages ? pageNumber + 1 : 0;
+			List<String> columnNames = Collections.singletonList(RodsGenQueryEnum.COL_DATA_NAME.getName());
+			List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+			for (int i = 0; i < rowsPerPage; i++) {
+				int record = recordOffset + i + 1;
+				rows.add(IRODSQueryResultRow.instance(Collections.singletonList("file_" + (record - 1)), columnNames,
+						record, continuation == 0));
+			}
+			return IRODSQueryResultSet.instance(translatedIRODSGenQuery, rows, continuation, 0);
+		}
+	}
+
+}
@@ -0,0 +1,199 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FileBasedTransferRestartManagerTest {
+
+	private static File journalDirectory;
+	private static int journalCount = 0;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		journalDirectory = Files.createTempDirectory("restart-journal").toFile();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		File[] files = journalDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		journalDirectory.delete();
+	}
+
+	@Test
+	public void testStoreSurvivesReopen() throws Exception {
+		File journal = newJournal();
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(journal);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo("/irods/path", 4));
+		manager.close();
+
+		FileBasedTransferRestartManager reopened = new FileBasedTransferRestartManager(journal);
+		FileRestartInfo retrievedInfo = reopened.retrieveRestart(identifier);
+		Assert.assertNotNull("did not get info back after reopen", retrievedInfo);
+		Assert.assertEquals("/local/path", retrievedInfo.getLocalAbsolutePath());
+		Assert.assertEquals(RestartType.GET, retrievedInfo.getRestartType());
+		Assert.assertEquals(4, retrievedInfo.getFileRestartDataSegments().size());
+		reopened.close();
+	}
+
+	@Test
+	public void testSegmentUpdatesSurviveReopen() throws Exception {
+		File journal = newJournal();
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(journal);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo("/irods/path", 4));
+		manager.updateOffsetForSegment(identifier, 2, 1000L);
+		for (int i = 0; i < 100; i++) {
+			manager.updateLengthForSegment(identifier, 2, 8L);
+		}
+		manager.close();
+
+		FileBasedTransferRestartManager reopened = new FileBasedTransferRestartManager(journal);
+		FileRestartDataSegment segment = reopened.retrieveRestart(identifier).getFileRestartDataSegments().get(2);
+		Assert.assertEquals(1000L, segment.getOffset());
+		Assert.assertEquals(800L, segment.getLength());
+		reopened.close();
+	}
+
+	@Test
+	public void testUncommittedUpdatesAreLostButCommittedKept() throws Exception {
+		File journal = newJournal();
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(journal, 60000L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo("/irods/path", 2));
+		manager.updateLengthForSegment(identifier, 1, 100L);
+		manager.commit();
+		manager.updateLengthForSegment(identifier, 1, 100L);
+
+		// simulate a crash by reading the journal without closing the manager
+		FileBasedTransferRestartManager recovered = new FileBasedTransferRestartManager(copyOf(journal));
+		Assert.assertEquals("should have the committed length", 100L,
+				recovered.retrieveRestart(identifier).getFileRestartDataSegments().get(1).getLength());
+		recovered.close();
+		manager.close();
+	}
+
+	@Test
+	public void testDeleteSurvivesReopen() throws Exception {
+		File journal = newJournal();
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(journal, 60000L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo("/irods/path", 2));
+		FileRestartInfoIdentifier other = manager.storeRestart(buildRestartInfo("/irods/other", 2));
+		manager.deleteRestart(identifier);
+
+		FileBasedTransferRestartManager recovered = new FileBasedTransferRestartManager(copyOf(journal));
+		Assert.assertNull("delete should be committed at once", recovered.retrieveRestart(identifier));
+		Assert.assertNotNull("other restart should remain", recovered.retrieveRestart(other));
+		recovered.close();
+		manager.close();
+	}
+
+	@Test
+	public void testTornRecordIsIgnored() throws Exception {
+		File journal = newJournal();
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(journal, 0L);
+		manager.setSegmentPublishIntervalMillis(0L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo("/irods/path", 2));
+		manager.updateLengthForSegment(identifier, 0, 100L);
+		manager.updateLengthForSegment(identifier, 0, 100L);
+		File torn = copyOf(journal);
+		manager.close();
+
+		RandomAccessFile file = new RandomAccessFile(torn, "rw");
+		try {
+			file.setLength(file.length() - 5);
+		} finally {
+			file.close();
+		}
+
+		FileBasedTransferRestartManager reopened = new FileBasedTransferRestartManager(torn);
+		Assert.assertEquals("should have the last whole record", 100L,
+				reopened.retrieveRestart(identifier).getFileRestartDataSegments().get(0).getLength());
+		reopened.close();
+	}
+
+	@Test
+	public void testJournalIsCompacted() throws Exception {
+		File journal = newJournal();
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(journal, 0L);
+		manager.setSegmentPublishIntervalMillis(0L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo("/irods/path", 4));
+		long sizeWithOneRecord = journal.length();
+		for (int i = 0; i < FileBasedTransferRestartManager.COMPACTION_MINIMUM_RECORDS * 3; i++) {
+			manager.updateLengthForSegment(identifier, i % 4, 1L);
+		}
+		Assert.assertTrue("journal should be compacted, length " + journal.length(),
+				journal.length() < sizeWithOneRecord * FileBasedTransferRestartManager.COMPACTION_MINIMUM_RECORDS * 2);
+		manager.close();
+
+		FileBasedTransferRestartManager reopened = new FileBasedTransferRestartManager(journal);
+		Assert.assertEquals(FileBasedTransferRestartManager.COMPACTION_MINIMUM_RECORDS * 3,
+				reopened.retrieveRestart(identifier).estimateLengthSoFar());
+		reopened.close();
+	}
+
+	@Test(expected = FileRestartManagementException.class)
+	public void testNotAJournal() throws Exception {
+		File journal = newJournal();
+		Files.write(journal.toPath(), "not a journal".getBytes("UTF-8"));
+		new FileBasedTransferRestartManager(journal);
+	}
+
+	@Test(expected = FileRestartManagementException.class)
+	public void testUpdateNonExistentSegment() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(newJournal());
+		FileRestartInfo fileRestartInfo = buildRestartInfo("/irods/path", 4);
+		manager.storeRestart(fileRestartInfo);
+		try {
+			manager.updateSegment(fileRestartInfo, new FileRestartDataSegment(100));
+		} finally {
+			manager.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStoreNull() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(newJournal());
+		try {
+			manager.storeRestart(null);
+		} finally {
+			manager.close();
+		}
+	}
+
+	private static File newJournal() {
+		return new File(journalDirectory, "restart" + journalCount++ + ".journal");
+	}
+
+	private static File copyOf(final File journal) throws Exception {
+		File copy = newJournal();
+		Files.copy(journal.toPath(), copy.toPath());
+		return copy;
+	}
+
+	private static FileRestartInfo buildRestartInfo(final String irodsPath, final int numberOfThreads)
+			throws Exception {
+		IRODSAccount account = TestingPropertiesHelper.buildBogusIrodsAccount();
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAbsolutePath(irodsPath);
+		fileRestartInfo.setLocalAbsolutePath("/local/path");
+		fileRestartInfo.setRestartType(RestartType.GET);
+		fileRestartInfo.setIrodsAccountIdentifier(account.toString());
+		for (int i = 0; i < numberOfThreads; i++) {
+			fileRestartInfo.getFileRestartDataSegments().add(new FileRestartDataSegment(i));
+		}
+		return fileRestartInfo;
+	}
+
+}
@@ -163,4 +163,98 @@ public class MemoryBasedTransferRestartManagerTest {
 
 	}
 
+	@Test
+	public void testConcurrentSegmentUpdatesArePublished() throws Exception {
+		final MemoryBasedTransferRestartManager manager = new MemoryBasedTransferRestartManager();
+		manager.setSegmentPublishIntervalMillis(60000L);
+		final int nbrThreads = 16;
+		final int updates = 10000;
+		FileRestartInfo fileRestartInfo = buildRestartInfo(nbrThreads);
+		final FileRestartInfoIdentifier identifier = manager.storeRestart(fileRestartInfo);
+
+		Thread[] threads = new Thread[nbrThreads];
+		final Exception[] failures = new Exception[nbrThreads];
+		for (int i = 0; i < nbrThreads; i++) {
+			final int threadNumber = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						manager.updateOffsetForSegment(identifier, threadNumber, threadNumber * 1000000L);
+						for (int j = 0; j < updates; j++) {
+							manager.updateLengthForSegment(identifier, threadNumber, 2);
+						}
+					} catch (Exception e) {
+						failures[threadNumber] = e;
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (int i = 0; i < nbrThreads; i++) {
+			threads[i].join();
+			Assert.assertNull("update failed", failures[i]);
+		}
+
+		manager.publishSegmentProgress(identifier);
+
+		FileRestartInfo retrievedInfo = manager.retrieveRestart(identifier);
+		for (int i = 0; i < nbrThreads; i++) {
+			FileRestartDataSegment segment = retrievedInfo.getFileRestartDataSegments().get(i);
+			Assert.assertEquals(i * 1000000L, segment.getOffset());
+			Assert.assertEquals(updates * 2L, segment.getLength());
+		}
+	}
+
+	@Test
+	public void testUpdateOffsetResetsLength() throws Exception {
+		MemoryBasedTransferRestartManager manager = new MemoryBasedTransferRestartManager();
+		manager.setSegmentPublishIntervalMillis(0L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo(2));
+		manager.updateLengthForSegment(identifier, 1, 500L);
+		manager.updateOffsetForSegment(identifier, 1, 4000L);
+		manager.updateLengthForSegment(identifier, 1, 10L);
+
+		FileRestartDataSegment segment = manager.retrieveRestart(identifier).getFileRestartDataSegments().get(1);
+		Assert.assertEquals(4000L, segment.getOffset());
+		Assert.assertEquals(10L, segment.getLength());
+	}
+
+	@Test
+	public void testProgressNotCarriedToReplacedRestart() throws Exception {
+		MemoryBasedTransferRestartManager manager = new MemoryBasedTransferRestartManager();
+		manager.setSegmentPublishIntervalMillis(60000L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo(2));
+		manager.updateLengthForSegment(identifier, 0, 100L);
+		manager.updateLengthForSegment(identifier, 0, 100L);
+		manager.deleteRestart(identifier);
+
+		FileRestartInfo replacement = manager.retrieveRestartAndBuildIfNotStored(identifier, "/local/path", 2);
+		manager.updateLengthForSegment(identifier, 0, 7L);
+		manager.publishSegmentProgress(identifier);
+
+		Assert.assertSame(replacement, manager.retrieveRestart(identifier));
+		Assert.assertEquals(7L, replacement.getFileRestartDataSegments().get(0).getLength());
+	}
+
+	@Test(expected = FileRestartManagementException.class)
+	public void testUpdateLengthForMissingThread() throws Exception {
+		MemoryBasedTransferRestartManager manager = new MemoryBasedTransferRestartManager();
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildRestartInfo(2));
+		manager.updateLengthForSegment(identifier, 2, 100L);
+	}
+
+	private static FileRestartInfo buildRestartInfo(final int nbrThreads) throws Exception {
+		IRODSAccount account = TestingPropertiesHelper.buildBogusIrodsAccount();
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAbsolutePath("/irods/path");
+		fileRestartInfo.setLocalAbsolutePath("/local/path");
+		fileRestartInfo.setRestartType(RestartType.GET);
+		fileRestartInfo.setIrodsAccountIdentifier(account.toString());
+		for (int i = 0; i < nbrThreads; i++) {
+			fileRestartInfo.getFileRestartDataSegments().add(new FileRestartDataSegment(i));
+		}
+		return fileRestartInfo;
+	}
+
 }
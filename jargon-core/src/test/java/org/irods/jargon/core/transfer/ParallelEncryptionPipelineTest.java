@@ -0,0 +1,131 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
+import org.irods.jargon.core.connection.PipelineConfiguration;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
+import org.irods.jargon.core.transfer.encrypt.AESKeyGenerator;
+import org.irods.jargon.core.transfer.encrypt.EncryptionWrapperFactory;
+import org.irods.jargon.core.transfer.encrypt.ParallelDecryptionCipherWrapper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelEncryptionPipelineTest {
+
+	private static final int CHUNK_SIZE = 1000;
+
+	private PipelineConfiguration pipelineConfiguration;
+	private NegotiatedClientServerConfiguration negotiatedClientServerConfiguration;
+	private File file;
+	private RandomAccessFile localRandomAccessFile;
+	private byte[] data;
+
+	@Before
+	public void setUp() throws Exception {
+		SettableJargonProperties props = new SettableJargonProperties();
+		props.setEncryptionAlgorithmEnum(EncryptionAlgorithmEnum.AES_256_CBC);
+		props.setEncryptionKeySize(EncryptionAlgorithmEnum.AES_256_CBC.getKeySize());
+		props.setEncryptionNumberHashRounds(8);
+		props.setEncryptionSaltSize(8);
+		pipelineConfiguration = PipelineConfiguration.instance(props);
+		negotiatedClientServerConfiguration = new NegotiatedClientServerConfiguration(true);
+		negotiatedClientServerConfiguration.setSecretKey(
+				new AESKeyGenerator(pipelineConfiguration, negotiatedClientServerConfiguration).generateKey());
+
+		data = new byte[CHUNK_SIZE * 5 + 123];
+		new Random(11L).nextBytes(data);
+		file = File.createTempFile("parallelEncryptionPipeline", ".dat");
+		Files.write(file.toPath(), data);
+		localRandomAccessFile = new RandomAccessFile(file, "r");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		localRandomAccessFile.close();
+		file.delete();
+	}
+
+	@Test
+	public void testSegmentsAreEncryptedInOrder() throws Exception {
+		ParallelEncryptionPipeline pipeline = buildPipeline();
+		ByteArrayOutputStream sent = new ByteArrayOutputStream();
+		try {
+			localRandomAccessFile.seek(10);
+			Assert.assertEquals(2500L, sendSegment(pipeline, 2500L, sent));
+			localRandomAccessFile.seek(3000);
+			Assert.assertEquals(1623L, sendSegment(pipeline, 1623L, sent));
+		} finally {
+			pipeline.close();
+		}
+
+		byte[] expected = new byte[2500 + 1623];
+		System.arraycopy(data, 10, expected, 0, 2500);
+		System.arraycopy(data, 3000, expected, 2500, 1623);
+		Assert.assertArrayEquals("wrong data sent", expected, decryptSent(sent.toByteArray()));
+	}
+
+	@Test
+	public void testFileEndingEarlyEndsSegment() throws Exception {
+		ParallelEncryptionPipeline pipeline = buildPipeline();
+		ByteArrayOutputStream sent = new ByteArrayOutputStream();
+		try {
+			localRandomAccessFile.seek(data.length - 1500);
+			Assert.assertEquals("should stop at end of file", 1500L, sendSegment(pipeline, 4000L, sent));
+		} finally {
+			pipeline.close();
+		}
+
+		Assert.assertArrayEquals("wrong data sent", Arrays.copyOfRange(data, data.length - 1500, data.length),
+				decryptSent(sent.toByteArray()));
+	}
+
+	private ParallelEncryptionPipeline buildPipeline() throws Exception {
+		return new ParallelEncryptionPipeline(
+				EncryptionWrapperFactory.instanceEncrypt(pipelineConfiguration, negotiatedClientServerConfiguration),
+				localRandomAccessFile, CHUNK_SIZE);
+	}
+
+	private static long sendSegment(final ParallelEncryptionPipeline pipeline, final long length,
+			final ByteArrayOutputStream sent) throws Exception {
+		long total = 0;
+		pipeline.startSegment(length);
+		ParallelEncryptionPipeline.EncryptedChunk chunk;
+		while (total < length && (chunk = pipeline.nextChunk()) != null) {
+			Assert.assertTrue("chunk too large", chunk.getPlaintextLength() <= CHUNK_SIZE);
+			total += chunk.getPlaintextLength();
+			chunk.writeTo(sent);
+			pipeline.recycle(chunk);
+		}
+		pipeline.finishSegment();
+		return total;
+	}
+
+	/**
+	 * Read back the little endian length prefixed buffers as iRODS would
+	 */
+	private byte[] decryptSent(final byte[] sent) throws Exception {
+		ParallelDecryptionCipherWrapper decryptWrapper = EncryptionWrapperFactory
+				.instanceDecrypt(pipelineConfiguration, negotiatedClientServerConfiguration);
+		ByteBuffer in = ByteBuffer.wrap(sent).order(ByteOrder.LITTLE_ENDIAN);
+		ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+		while (in.hasRemaining()) {
+			int length = in.getInt();
+			byte[] buffer = new byte[length];
+			in.get(buffer);
+			plaintext.write(decryptWrapper.decrypt(buffer));
+		}
+		return plaintext.toByteArray();
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.irods.jargon.core.transfer;
+
+import java.util.Arrays;
+
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.transfer.AbstractParallelFileTransferStrategy.TransferType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelThreadCountTunerTest {
+
+	private static final long LENGTH = 100L * 1024 * 1024;
+
+	@Test
+	public void testFirstTransferRequestsMax() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		Assert.assertEquals(8, tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, 8));
+		Assert.assertEquals(0, tuner.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH));
+	}
+
+	@Test
+	public void testConvergesOnBestCount() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		int threads = 0;
+		for (int i = 0; i < 10; i++) {
+			threads = tuner.threadsToRequest(TransferType.GET_TRANSFER, LENGTH, 16);
+			tuner.recordThroughput(TransferType.GET_TRANSFER, LENGTH, threads, simulatedThroughput(threads));
+		}
+		Assert.assertEquals("should settle on the peak", 4, threads);
+		Assert.assertEquals(4, tuner.retrieveBestThreads(TransferType.GET_TRANSFER, LENGTH));
+	}
+
+	@Test
+	public void testClimbsDownToFewestThreads() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		int threads = 0;
+		for (int i = 0; i < 10; i++) {
+			threads = tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, 16);
+			Assert.assertTrue("should not request a single thread", threads >= 2);
+			tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, threads, 1000.0 / threads);
+		}
+		Assert.assertEquals("should settle on the fewest threads", 2, threads);
+		Assert.assertEquals(2, tuner.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH));
+	}
+
+	@Test
+	public void testStaysAtMaxWhenMaxIsBest() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 8, 800);
+		Assert.assertEquals("should try one step down", 4, tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, 8));
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 4, 400);
+		Assert.assertEquals(8, tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, 8));
+	}
+
+	@Test
+	public void testSamplesAreKeptPerDirectionSizeAndHost() {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(cache, "host", "zone");
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 4, 400);
+		Assert.assertEquals(4, tuner.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH));
+		Assert.assertEquals(0, tuner.retrieveBestThreads(TransferType.GET_TRANSFER, LENGTH));
+		Assert.assertEquals(0, tuner.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH * 4));
+		Assert.assertEquals(0, new ParallelThreadCountTuner(cache, "other", "zone")
+				.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH));
+		Assert.assertEquals(4, new ParallelThreadCountTuner(cache, "host", "zone")
+				.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH + 1));
+	}
+
+	@Test
+	public void testSlowerLinkMovesChoice() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 8, 800);
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 4, 700);
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 8, 400);
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 8, 400);
+		Assert.assertEquals(4, tuner.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH));
+		Assert.assertEquals("should explore below the new best", 2,
+				tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, 8));
+	}
+
+	@Test
+	public void testIgnoresMissingSample() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		tuner.recordThroughput(TransferType.PUT_TRANSFER, LENGTH, 8, 0);
+		Assert.assertEquals(0, tuner.retrieveBestThreads(TransferType.PUT_TRANSFER, LENGTH));
+	}
+
+	@Test
+	public void testSmallMaxIsReturned() {
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), "host",
+				"zone");
+		Assert.assertEquals(-1, tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, -1));
+		Assert.assertEquals(1, tuner.threadsToRequest(TransferType.PUT_TRANSFER, LENGTH, 1));
+	}
+
+	@Test
+	public void testCandidates() {
+		Assert.assertEquals(Arrays.asList(2), ParallelThreadCountTuner.candidates(2));
+		Assert.assertEquals(Arrays.asList(2, 4, 6), ParallelThreadCountTuner.candidates(6));
+		Assert.assertEquals(Arrays.asList(2, 4, 8), ParallelThreadCountTuner.candidates(8));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullHost() {
+		new ParallelThreadCountTuner(new DiscoveredServerPropertiesCache(), null, "zone");
+	}
+
+	/**
+	 * Throughput that rises to a peak at 4 threads and falls off beyond it
+	 */
+	private static double simulatedThroughput(final int threads) {
+		return 1000.0 - Math.abs(Math.log(threads) / Math.log(2) - 2) * 200;
+	}
+
+}
@@ -0,0 +1,143 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelTransferChannelTest {
+
+	private ServerSocket serverSocket;
+	private Socket peer;
+	private ParallelTransferChannel parallelTransferChannel;
+
+	@Before
+	public void setUp() throws Exception {
+		serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		SocketChannel socketChannel = SocketChannel
+				.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+		peer = serverSocket.accept();
+		parallelTransferChannel = new ParallelTransferChannel(socketChannel, 2000);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		parallelTransferChannel.close();
+		peer.close();
+		serverSocket.close();
+	}
+
+	@Test
+	public void testReadHeaderAndSegmentToFile() throws Exception {
+		byte[] data = new byte[ParallelTransferChannel.DIRECT_BUFFER_SIZE * 2 + 1001];
+		new Random(42).nextBytes(data);
+		DataOutputStream out = new DataOutputStream(peer.getOutputStream());
+		out.writeInt(AbstractParallelTransferThread.GET_OPR);
+		out.writeInt(0);
+		out.writeLong(100L);
+		out.writeLong(data.length);
+		out.write(data);
+		out.flush();
+
+		File file = File.createTempFile("parallelTransferChannel", ".dat");
+		RandomAccessFile local = new RandomAccessFile(file, "rw");
+		try {
+			Assert.assertEquals(AbstractParallelTransferThread.GET_OPR, parallelTransferChannel.readInt());
+			Assert.assertEquals(0, parallelTransferChannel.readInt());
+			long offset = parallelTransferChannel.readLong();
+			Assert.assertEquals(100L, offset);
+			long length = parallelTransferChannel.readLong();
+			Assert.assertEquals(data.length, length);
+			parallelTransferChannel.readToFile(local.getChannel(), offset, length);
+		} finally {
+			local.close();
+		}
+
+		byte[] actual = Files.readAllBytes(file.toPath());
+		file.delete();
+		Assert.assertEquals("wrong file length", 100 + data.length, actual.length);
+		Assert.assertArrayEquals("wrong data at offset", data, Arrays.copyOfRange(actual, 100, actual.length));
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		parallelTransferChannel.write(new byte[] { 1, 2, 3, 4 });
+		byte[] actual = new byte[4];
+		new DataInputStream(peer.getInputStream()).readFully(actual);
+		Assert.assertArrayEquals(new byte[] { 1, 2, 3, 4 }, actual);
+	}
+
+	@Test
+	public void testWriteFromFile() throws Exception {
+		byte[] data = new byte[3 * 1024 * 1024 + 17];
+		new Random(7).nextBytes(data);
+		File file = File.createTempFile("parallelTransferChannel", ".dat");
+		Files.write(file.toPath(), data);
+
+		final byte[] received = new byte[data.length - 1000];
+		final DataInputStream in = new DataInputStream(peer.getInputStream());
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					in.readFully(received);
+				} catch (IOException e) {
+					// checked by the content assertion
+				}
+			}
+		});
+		reader.start();
+
+		RandomAccessFile local = new RandomAccessFile(file, "r");
+		try {
+			parallelTransferChannel.writeFromFile(local.getChannel(), 1000, received.length);
+		} finally {
+			local.close();
+		}
+		reader.join(10000);
+		file.delete();
+		Assert.assertArrayEquals("wrong data sent", Arrays.copyOfRange(data, 1000, data.length), received);
+	}
+
+	@Test(expected = EOFException.class)
+	public void testWriteFromFileBeyondEnd() throws Exception {
+		File file = File.createTempFile("parallelTransferChannel", ".dat");
+		Files.write(file.toPath(), new byte[100]);
+		RandomAccessFile local = new RandomAccessFile(file, "r");
+		try {
+			parallelTransferChannel.writeFromFile(local.getChannel(), 50, 100);
+		} finally {
+			local.close();
+			file.delete();
+		}
+	}
+
+	@Test(expected = SocketTimeoutException.class)
+	public void testReadTimesOut() throws Exception {
+		parallelTransferChannel.readInt();
+	}
+
+	@Test(expected = EOFException.class)
+	public void testReadAtEndOfStream() throws Exception {
+		peer.getOutputStream().write(new byte[] { 0, 0 });
+		peer.shutdownOutput();
+		parallelTransferChannel.readInt();
+	}
+
+}
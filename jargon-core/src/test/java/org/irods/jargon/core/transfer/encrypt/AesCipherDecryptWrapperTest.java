@@ -1,6 +1,8 @@
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
@@ -59,4 +61,47 @@ public class AesCipherDecryptWrapperTest {
 		Assert.assertEquals("didnt match encrypted data", begin, result);
 
 	}
+
+	@Test
+	public void testByteBufferRoundTripReusesBuffers() throws Exception {
+		SettableJargonPropertiesMBean props = (SettableJargonPropertiesMBean) irodsFileSystem.getJargonProperties();
+		props.setEncryptionAlgorithmEnum(EncryptionAlgorithmEnum.AES_256_CBC);
+		props.setEncryptionKeySize(EncryptionAlgorithmEnum.AES_256_CBC.getKeySize());
+		props.setEncryptionNumberHashRounds(8);
+		props.setEncryptionSaltSize(8);
+		PipelineConfiguration pipelineConfiguration = PipelineConfiguration.instance(props);
+		NegotiatedClientServerConfiguration config = new NegotiatedClientServerConfiguration(true);
+		AESKeyGenerator generator = new AESKeyGenerator(pipelineConfiguration, config);
+		config.setSecretKey(generator.generateKey());
+		AesCipherEncryptWrapper wrapper = new AesCipherEncryptWrapper(pipelineConfiguration, config);
+		AesCipherDecryptWrapper decryptWrapper = new AesCipherDecryptWrapper(pipelineConfiguration, config);
+
+		ByteBuffer encrypted = ByteBuffer.allocate(wrapper.getEncryptedLength(4096));
+		ByteBuffer decrypted = ByteBuffer.allocate(encrypted.capacity());
+		Random random = new Random(7L);
+		for (int length : new int[] { 4096, 17, 1000 }) {
+			byte[] source = new byte[length];
+			random.nextBytes(source);
+
+			encrypted.clear();
+			int encryptedLength = wrapper.encrypt(ByteBuffer.wrap(source), encrypted);
+			Assert.assertEquals(wrapper.getEncryptedLength(length), encryptedLength);
+
+			// same bytes on the wire as the byte[] form
+			EncryptionBuffer encryptionBuffer = wrapper.encrypt(source);
+			Assert.assertEquals(encryptionBuffer.getInitializationVector().length
+					+ encryptionBuffer.getEncryptedData().length, encryptedLength);
+			byte[] wire = new byte[encryptedLength];
+			System.arraycopy(encrypted.array(), 0, wire, 0, encryptedLength);
+			Assert.assertArrayEquals("wrong decrypted data from byte[] form", source, decryptWrapper.decrypt(wire));
+
+			encrypted.flip();
+			decrypted.clear();
+			int decryptedLength = decryptWrapper.decrypt(encrypted, decrypted);
+			Assert.assertEquals(length, decryptedLength);
+			byte[] actual = new byte[decryptedLength];
+			System.arraycopy(decrypted.array(), 0, actual, 0, decryptedLength);
+			Assert.assertArrayEquals("wrong decrypted data", source, actual);
+		}
+	}
 }
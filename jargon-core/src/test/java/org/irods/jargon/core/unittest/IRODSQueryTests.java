@@ -1,7 +1,9 @@
 
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.query.ColumnarGenQueryResultsTest;
 import org.irods.jargon.core.query.GenQueryFunctionalTests;
+import org.irods.jargon.core.query.GenQueryResultIteratorTest;
 import org.irods.jargon.core.query.GenQuerySelectFieldTest;
 import org.irods.jargon.core.query.IRODSGenQueryBuilderTest;
 import org.irods.jargon.core.query.IRODSGenQueryFromBuilderTest;
@@ -16,7 +18,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ IRODSGenQueryTranslatorTest.class, GenQuerySelectFieldTest.class, TranslatedIRODSQueryTest.class,
 		IRODSSimpleQueryResultSetTest.class, IRODSGenQueryFromBuilderTest.class, SimpleQueryTest.class,
-		UserFilePermissionTest.class, IRODSGenQueryBuilderTest.class, GenQueryFunctionalTests.class })
+		UserFilePermissionTest.class, IRODSGenQueryBuilderTest.class, GenQueryFunctionalTests.class,
+		ColumnarGenQueryResultsTest.class, GenQueryResultIteratorTest.class })
 public class IRODSQueryTests {
 
 }
@@ -26,6 +26,8 @@ import org.irods.jargon.core.packinstr.SSLStartInpTest;
 import org.irods.jargon.core.packinstr.SimpleQueryInpTest;
 import org.irods.jargon.core.packinstr.SpecificQueryInpTest;
 import org.irods.jargon.core.packinstr.StructFileExtAndRegInpTest;
+import org.irods.jargon.core.packinstr.TagPullParserTest;
+import org.irods.jargon.core.packinstr.TagWriterTest;
 import org.irods.jargon.core.packinstr.TransferOptionsTest;
 import org.irods.jargon.core.packinstr.UserAdminInpTest;
 import org.junit.runner.RunWith;
@@ -41,7 +43,8 @@ import org.junit.runners.Suite;
 		DataObjInpForObjStatTest.class, GetTempPasswordForOtherTest.class, DataObjInpForRegTest.class,
 		DataObjInpForUnregisterTest.class, DataObjInpForMcollTest.class, DataObjInpForUnmountTest.class,
 		ReconnMsgTest.class, SpecificQueryInpTest.class, PamAuthRequestInpTest.class, SSLStartInpTest.class,
-		SSLEndInpTest.class, AuthReqPluginRequestInpTest.class, }) // ModDataObjMetaInpTest.class
+		SSLEndInpTest.class, AuthReqPluginRequestInpTest.class, TagPullParserTest.class,
+		TagWriterTest.class, }) // ModDataObjMetaInpTest.class
 																	// })
 public class PackingInstructionTests {
 
@@ -1,7 +1,11 @@
 package org.irods.jargon.core.unittest;
 
 import org.irods.jargon.core.transfer.DefaultTransferControlBlockTest;
+import org.irods.jargon.core.transfer.ParallelEncryptionPipelineTest;
+import org.irods.jargon.core.transfer.ParallelThreadCountTunerTest;
+import org.irods.jargon.core.transfer.ParallelTransferChannelTest;
 import org.irods.jargon.core.transfer.TransferStatusTest;
+import org.irods.jargon.core.transfer.encrypt.AesCipherDecryptWrapperTest;
 import org.irods.jargon.core.transfer.encrypt.AesCipherEncryptWrapperTest;
 import org.irods.jargon.core.transfer.encrypt.EncryptionWrapperFactoryTest;
 import org.junit.runner.RunWith;
@@ -9,7 +13,8 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ TransferStatusTest.class, DefaultTransferControlBlockTest.class,
-		EncryptionWrapperFactoryTest.class, AesCipherEncryptWrapperTest.class })
+		EncryptionWrapperFactoryTest.class, AesCipherEncryptWrapperTest.class, ParallelTransferChannelTest.class,
+		ParallelThreadCountTunerTest.class, AesCipherDecryptWrapperTest.class, ParallelEncryptionPipelineTest.class })
 public class TransferTests {
 
 }
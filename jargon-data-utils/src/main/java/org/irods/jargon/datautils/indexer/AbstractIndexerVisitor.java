@@ -3,6 +3,7 @@
  */
 package org.irods.jargon.datautils.indexer;
 
+import java.util.ArrayDeque;
 import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
@@ -11,14 +12,16 @@ import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.pub.CollectionAO;
 import org.irods.jargon.core.pub.DataObjectAO;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
-import org.irods.jargon.core.pub.io.IRODSFileImpl;
 import org.irods.jargon.core.query.JargonQueryException;
 import org.irods.jargon.core.query.MetaDataAndDomainData;
 import org.irods.jargon.datautils.visitor.AbstractIrodsVisitorComponent;
+import org.irods.jargon.datautils.visitor.ConcurrentHierVisitor;
+import org.irods.jargon.datautils.visitor.CrawlMode;
 import org.irods.jargon.datautils.visitor.HierComponent;
 import org.irods.jargon.datautils.visitor.HierComposite;
 import org.irods.jargon.datautils.visitor.HierLeaf;
-import org.irods.jargon.datautils.visitor.IrodsVisitedComposite;
+import org.irods.jargon.datautils.visitor.HierVisitorCrawlerServiceImpl;
+import org.irods.jargon.datautils.visitor.PrefetchedMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,16 +34,18 @@ import org.slf4j.LoggerFactory;
  * @author conwaymc
  *
  */
-public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorComponent {
+public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorComponent
+		implements ConcurrentHierVisitor<MetadataRollup> {
 
 	public static final Logger log = LoggerFactory.getLogger(AbstractIndexerVisitor.class);
 	private final CollectionAO collectionAO;
 	private final DataObjectAO dataObjectAO;
 	/**
 	 * Set to <code>true</code> to finish all processing in a normal fashion by
-	 * skipping all remaining files/children
+	 * skipping all remaining files/children. Once set it stays set until the next
+	 * launch, so that every worker of a parallel crawl sees it
 	 */
-	private boolean aborted = false;
+	private volatile boolean aborted = false;
 
 	/**
 	 * Filter for deciding whether to index a collection or file. Maybe be left
@@ -53,12 +58,25 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 	 */
 	private MetadataRollup metadataRollup = new MetadataRollup();
 
+	/**
+	 * The metadata stack of the subtree each worker thread of a parallel crawl is
+	 * in, used instead of {@link #metadataRollup} when set
+	 */
+	private final ThreadLocal<MetadataRollup> subtreeMetadataRollup = new ThreadLocal<MetadataRollup>();
+
 	/**
 	 * Optional control that can sleep or halt an indexing run, can be used to limit
 	 * load caused by indexing. Can be left <code>null</code> for no throttling
 	 */
 	private ControlRod controlRod = null;
 
+	/**
+	 * How {@link #launch(String)} lists collections. The batched modes fetch the
+	 * metadata of the children with the listing, rather than querying each node
+	 * as it is visited
+	 */
+	private CrawlMode crawlMode = CrawlMode.NODE_BY_NODE;
+
 	/**
 	 * @param irodsAccessObjectFactory
 	 *            {@link IRODSAccessObjectFactory}
@@ -89,7 +107,9 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		}
 
 		log.debug("checking control rod");
-		aborted = checkControlRod(node);
+		if (checkControlRod(node)) {
+			aborted = true;
+		}
 
 		if (aborted) {
 			log.info("aborted!");
@@ -97,10 +117,13 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		}
 
 		log.info("obtaining metadata for:{}", node);
+		MetadataRollup rollup = currentMetadataRollup();
 		try {
-			List<MetaDataAndDomainData> metadata = collectionAO.findMetadataValuesForCollection(node.getAbsolutePath(),
-					0);
-			metadataRollup.getMetadata().push(metadata);
+			List<MetaDataAndDomainData> metadata = findPrefetchedMetadata(node);
+			if (metadata == null) {
+				metadata = collectionAO.findMetadataValuesForCollection(node.getAbsolutePath(), 0);
+			}
+			rollup.getMetadata().push(metadata);
 			log.info(
 					"pushed metadata in the stack...now filter and then delegate to visitEnterWithMetadata() in the impl class to make any determinations");
 
@@ -108,12 +131,12 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 			 * On a collection, a non indexable result from a filter cases a short circuit
 			 * so that siblings are not processed
 			 */
-			if (!checkIfIndexable(node, metadataRollup)) {
+			if (!checkIfIndexable(node, rollup)) {
 				log.info("not indexable by filter, short circuit");
 				return false;
 			}
 
-			boolean shortCircuit = visitEnterWithMetadata(node, metadataRollup);
+			boolean shortCircuit = visitEnterWithMetadata(node, rollup);
 			// even if short circuited the visitLeave will be called and the metadata will
 			// be popped back off of the stack
 			return shortCircuit;
@@ -157,10 +180,11 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		}
 
 		log.info("visitLeave for node:{}", node);
+		MetadataRollup rollup = currentMetadataRollup();
 
 		log.info("delegating to visit leave before popping metadata off the stack");
-		boolean shortCircuit = visitLeaveWithMetadata(node, metadataRollup, wasEntered);
-		metadataRollup.getMetadata().pop();
+		boolean shortCircuit = visitLeaveWithMetadata(node, rollup, wasEntered);
+		rollup.getMetadata().pop();
 		return shortCircuit;
 	}
 
@@ -204,16 +228,22 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		}
 
 		log.debug("checking control rod");
-		aborted = checkControlRod(node);
+		if (checkControlRod(node)) {
+			aborted = true;
+		}
 
 		if (aborted) {
 			return false;
 		}
 
 		log.info("obtaining metadata for:{}", node);
+		MetadataRollup rollup = currentMetadataRollup();
 		try {
-			List<MetaDataAndDomainData> metadata = dataObjectAO.findMetadataValuesForDataObject(node.getAbsolutePath());
-			metadataRollup.getMetadata().push(metadata);
+			List<MetaDataAndDomainData> metadata = findPrefetchedMetadata(node);
+			if (metadata == null) {
+				metadata = dataObjectAO.findMetadataValuesForDataObject(node.getAbsolutePath());
+			}
+			rollup.getMetadata().push(metadata);
 			log.info(
 					"pushed metadata in the stack...filter and then delegate to visitMetadata() in the impl class to make any determinations");
 
@@ -221,16 +251,16 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 			 * On a leaf don't short circuit just because I don't index this leaf (it could
 			 * be based on file type, etc)
 			 */
-			if (!checkIfIndexable(node, metadataRollup)) {
+			if (!checkIfIndexable(node, rollup)) {
 				log.info("not indexable by filter but don't short circuit, keep processing other siblings");
-				metadataRollup.getMetadata().pop();
+				rollup.getMetadata().pop();
 				return true;
 			}
 
 			log.info("passes filter");
-			boolean shortCircuit = visitWithMetadata(node, metadataRollup);
+			boolean shortCircuit = visitWithMetadata(node, rollup);
 			// now pop the data back off the stack for the next child
-			metadataRollup.getMetadata().pop();
+			rollup.getMetadata().pop();
 			return shortCircuit;
 		} catch (JargonException e) {
 			log.error("error in obtaining metadata", e);
@@ -241,7 +271,8 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 
 	/**
 	 * Base launch method will start the visitor process. This is most likely
-	 * implemented outside of the visitor itself for a particular application.
+	 * implemented outside of the visitor itself for a particular application. The
+	 * collections are listed as given by the {@link CrawlMode}.
 	 * 
 	 * @param startingCollectionPath
 	 *            {@code String} with the starting absolute path of a parent
@@ -254,18 +285,11 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		}
 		log.info("startingCollectionPath:{}", startingCollectionPath);
 		log.info("beginning the crawl...");
+		resetAborted();
 
-		IRODSFileImpl startingPoint;
 		try {
-			startingPoint = (IRODSFileImpl) getIrodsAccessObjectFactory().getIRODSFileFactory(getIrodsAccount())
-					.instanceIRODSFile(startingCollectionPath);
-			if (!startingPoint.isDirectory()) {
-				log.info("starting point is not a leaf node:{}", startingPoint);
-				throw new JargonException("cannot start a crawl on a leaf node!");
-			}
-
-			IrodsVisitedComposite startingComposite = new IrodsVisitedComposite(startingPoint);
-			startingComposite.accept(this);
+			new HierVisitorCrawlerServiceImpl(getIrodsAccessObjectFactory(), getIrodsAccount())
+					.launch(startingCollectionPath, this, crawlMode);
 			log.info("....crawl complete!");
 		} catch (JargonException e) {
 			log.error("error in obtaining metadata", e);
@@ -297,6 +321,17 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		this.indexerFilter = indexerFilter;
 	}
 
+	public CrawlMode getCrawlMode() {
+		return crawlMode;
+	}
+
+	public void setCrawlMode(final CrawlMode crawlMode) {
+		if (crawlMode == null) {
+			throw new IllegalArgumentException("null crawlMode");
+		}
+		this.crawlMode = crawlMode;
+	}
+
 	public ControlRod getControlRod() {
 		return controlRod;
 	}
@@ -319,6 +354,76 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.visitor.ConcurrentHierVisitor#
+	 * captureSubtreeState()
+	 */
+	@Override
+	public MetadataRollup captureSubtreeState() {
+		return copyMetadataRollup(currentMetadataRollup());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.visitor.ConcurrentHierVisitor#
+	 * restoreSubtreeState(java.lang.Object)
+	 */
+	@Override
+	public void restoreSubtreeState(final MetadataRollup state) {
+		if (state == null) {
+			subtreeMetadataRollup.remove();
+		} else {
+			subtreeMetadataRollup.set(copyMetadataRollup(state));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.visitor.ConcurrentHierVisitor#isAborted()
+	 */
+	@Override
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Clear an abort from a previous run, done at each launch
+	 */
+	void resetAborted() {
+		aborted = false;
+	}
+
+	private MetadataRollup currentMetadataRollup() {
+		MetadataRollup rollup = subtreeMetadataRollup.get();
+		if (rollup == null) {
+			return metadataRollup;
+		}
+		return rollup;
+	}
+
+	/*
+	 * The lists of AVUs are shared, only the stack is copied
+	 */
+	private static MetadataRollup copyMetadataRollup(final MetadataRollup rollup) {
+		MetadataRollup copy = new MetadataRollup();
+		copy.setMetadata(new ArrayDeque<List<MetaDataAndDomainData>>(rollup.getMetadata()));
+		return copy;
+	}
+
+	/*
+	 * AVUs listed with the node by a batched crawl, or null if they must be queried
+	 */
+	private List<MetaDataAndDomainData> findPrefetchedMetadata(final HierComponent component) {
+		if (component instanceof PrefetchedMetadata) {
+			return ((PrefetchedMetadata) component).getPrefetchedMetadata();
+		}
+		return null;
+	}
+
 	/*
 	 * Returns <code>true</code> if indexable otherwise it should be ignored
 	 */
@@ -11,6 +11,9 @@ import org.irods.jargon.datautils.visitor.HierComponent;
  * <p>
  * Implementations can simply sleep between accesses, or could interrogate
  * server load to decide how active the indexer will be.
+ * <p>
+ * In a parallel crawl the control rod is called from every worker thread, so it
+ * must be thread safe, and an abort ends the work of all of the workers.
  *
  * @author conwaymc
  *
@@ -9,6 +9,7 @@ import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 import org.irods.jargon.core.pub.io.IRODSFileImpl;
 import org.irods.jargon.core.service.AbstractJargonService;
+import org.irods.jargon.datautils.visitor.HierVisitorCrawlerServiceImpl;
 import org.irods.jargon.datautils.visitor.IrodsVisitedComposite;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +62,7 @@ public class IndexerServiceImpl extends AbstractJargonService {
 		}
 
 		log.info("beginning the crawl...east to west...north to south...");
+		visitor.resetAborted();
 
 		IRODSFileImpl startingPoint = (IRODSFileImpl) getIrodsAccessObjectFactory()
 				.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(startingCollectionPath);
@@ -77,4 +79,35 @@ public class IndexerServiceImpl extends AbstractJargonService {
 
 	}
 
+	/**
+	 * Run the indexer over the given collection on several worker threads, each
+	 * with its own connection, listing collections as given by the
+	 * {@link AbstractIndexerVisitor#getCrawlMode()} of the visitor. Each worker
+	 * keeps the {@link MetadataRollup} of the subtree it is in, and an abort from
+	 * the {@link ControlRod} stops all of the workers.
+	 *
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path of the collection to start
+	 *            from
+	 * @param visitor
+	 *            {@link AbstractIndexerVisitor} to run, whose filter, control rod
+	 *            and indexing actions must be thread safe
+	 * @param numberOfWorkers
+	 *            {@code int} with the number of worker threads and connections
+	 * @throws DataNotFoundException
+	 *             if the starting collection is missing
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public void launchParallel(final String startingCollectionPath, final AbstractIndexerVisitor visitor,
+			final int numberOfWorkers) throws DataNotFoundException, JargonException {
+		log.info("launchParallel");
+		if (visitor == null) {
+			throw new IllegalArgumentException("null visitor");
+		}
+		visitor.resetAborted();
+		new HierVisitorCrawlerServiceImpl(getIrodsAccessObjectFactory(), getIrodsAccount())
+				.launchParallel(startingCollectionPath, visitor, visitor.getCrawlMode(), numberOfWorkers);
+	}
+
 }
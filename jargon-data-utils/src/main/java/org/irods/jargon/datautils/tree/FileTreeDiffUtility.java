@@ -28,6 +28,8 @@ public interface FileTreeDiffUtility {
 	 * Note that setting either the left hand or right hand side timestamp to
 	 * {@code NO_TIMESTAMP_CHECKS} will turn of timestamp checking. This is
 	 * appropriate for an initial synch operation.
+	 * When timestamps are not checked, files of the same length are compared by
+	 * checksum, using the checksum registered in iRODS where there is one.
 	 *
 	 * @param localFileRoot
 	 *
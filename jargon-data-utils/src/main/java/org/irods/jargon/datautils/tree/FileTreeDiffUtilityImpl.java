@@ -2,13 +2,25 @@ package org.irods.jargon.datautils.tree;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.tree.TreeNode;
 
+import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
@@ -16,13 +28,12 @@ import org.irods.jargon.core.pub.DataObjectChecksumUtilitiesAO;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 import org.irods.jargon.core.pub.io.IRODSFile;
 import org.irods.jargon.core.pub.io.IRODSFileFactory;
-import org.irods.jargon.core.pub.io.IRODSFileImpl;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.utils.LocalFileUtils;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
 import org.irods.jargon.datautils.AbstractDataUtilsServiceImpl;
-import org.irods.jargon.datautils.tree.FileOrDirFilter.FilterFor;
 import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +45,14 @@ import org.slf4j.LoggerFactory;
  * Note that this method will be passed an {@code IRODSAccessObjectFactory} ,
  * and this class assumes that the underlying iRODS connection will be closed
  * outside of the scope of this object.
+ * <p>
+ * The diff is made in a single pass over each side. The iRODS subtree is listed
+ * with a few paged queries that bring back the length, modify time and any
+ * registered checksum of each data object, and the local tree is listed in one
+ * walk. The two sorted listings are then merged in memory. Checksums are
+ * compared for files of the same length that were modified after the last
+ * synch, or for all of them when timestamps are not checked, with the local
+ * checksums computed in parallel.
  *
  * @author Mike Conway - DICE (www.irods.org)
  *
@@ -49,6 +68,11 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 	 */
 	private final TransferControlBlock transferControlBlock;
 
+	/**
+	 * Number of threads that compute local checksums
+	 */
+	private int localChecksumThreads = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * Default constructor
 	 *
@@ -209,482 +233,313 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 		log.debug("set root node to:{}", fileTreeNode);
 		FileTreeModel fileTreeModel = new FileTreeModel(fileTreeNode);
 
-		diffTwoFiles(fileTreeNode, localFileRoot, localFileRoot.getAbsolutePath(), (IRODSFileImpl) rootIRODSFile,
-				rootIRODSFile.getAbsolutePath(), timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
+		TreeListing localListing;
+		try {
+			localListing = TreeListing.listLocalTree(localFileRoot);
+		} catch (IOException e) {
+			log.error("unable to list local tree", e);
+			throw new JargonException("unable to list the local tree for a diff", e);
+		}
 
 		if (isCancelled()) {
 			return null;
 		}
 
-		return fileTreeModel;
-	}
+		TreeListing irodsListing = new IRODSTreeLister(irodsAccessObjectFactory, irodsAccount)
+				.listSubtree(rootIRODSFile.getAbsolutePath());
 
-	/*
-	 * Given two relative paths, do the diff. This is the recursive call
-	 * that will descend into child directories and update a shared tree model.
-	 *
-	 * @param currentFileTreeNode
-	 * @param leftHandSide
-	 * @param leftHandSideRootPath
-	 * @param rightHandSide
-	 * @param rightHandSideRootPath
-	 * @param timestampforLastSynchLeftHandSide
-	 * @param timestampForLastSynchRightHandSide
-	 * @return
-	 * @throws JargonException
-	 */
-	private int diffTwoFiles(final FileTreeNode currentFileTreeNode, final File leftHandSide,
-			final String leftHandSideRootPath, final File rightHandSide, final String rightHandSideRootPath,
-			final long timestampforLastSynchLeftHandSide, final long timestampForLastSynchRightHandSide)
-			throws JargonException {
+		List<PendingChecksum> pendingChecksums = new ArrayList<PendingChecksum>();
+		diffDirectory(fileTreeNode, "", localListing, irodsListing, localFileRoot, rootIRODSFile.getAbsolutePath(),
+				timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide, pendingChecksums);
 
 		if (isCancelled()) {
-			return 0;
-		}
-
-		// get the relative paths of each side beneath the root so we compare
-		// apples to apples
-		String leftHandSideAsRelativePath = leftHandSide.getAbsolutePath().substring(leftHandSideRootPath.length());
-		String rightHandSideAsRelativePath = rightHandSide.getAbsolutePath().substring(rightHandSideRootPath.length());
-
-		log.debug("diffTwoFiles in currentTreeNode:{}", currentFileTreeNode);
-
-		/*
-		 * On Win, filenames come across with a // as the delim, replace with a single /
-		 * to normalize for comparison
-		 */
-		leftHandSideAsRelativePath = LocalFileUtils.normalizePath(leftHandSideAsRelativePath);
-
-		log.debug("lhs as relativePath:{}", leftHandSideAsRelativePath);
-		log.debug("rhs as relativePath:{}", rightHandSideAsRelativePath);
-
-		int compValue = leftHandSideAsRelativePath.compareTo(rightHandSideAsRelativePath);
-		log.debug("comp value is:{}", compValue);
-
-		int fileMatchIndex;
-
-		if (compValue < 0) {
-			log.debug("lhs < rhs");
-			log.debug("lhs timestamp:{}", leftHandSide.lastModified());
-			log.debug("lhs cutoff:{}", timestampforLastSynchLeftHandSide);
-			StringBuilder sb = new StringBuilder();
-			sb.append(LocalFileUtils.normalizePath(rightHandSideRootPath));
-			sb.append(leftHandSideAsRelativePath);
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.LEFT_HAND_PLUS,
-					sb.toString(), 0, 0, "", "");
-			currentFileTreeNode.add(new FileTreeNode(entry));
-			log.info("left hand plus generated:{}", entry);
-			fileMatchIndex = 1;
-		} else if (compValue > 0) {
-			log.debug("lhs > rhs");
-			StringBuilder sb = new StringBuilder();
-			sb.append(leftHandSideRootPath);
-			sb.append(rightHandSideAsRelativePath);
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(rightHandSide, DiffType.RIGHT_HAND_PLUS,
-					sb.toString(), 0, 0, "", "");
-			log.info("right hand plus generated:{}", entry);
-			currentFileTreeNode.add(new FileTreeNode(entry));
-			fileMatchIndex = -1;
-		} else {
-			log.debug("file name match");
-			processFileNameMatched(currentFileTreeNode, leftHandSide,
-					LocalFileUtils.normalizePath(leftHandSideRootPath), rightHandSide, rightHandSideRootPath,
-					leftHandSideAsRelativePath, timestampforLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
-			fileMatchIndex = 0;
+			return null;
 		}
 
-		return fileMatchIndex;
-
-	}
-
-	/*
-	 *  Two relative paths are matched. Decide if they are files or
-	 * directories, and diff appropriately.
-	 *
-	 * @param currentFileTreeNode
-	 * @param leftHandSide
-	 * @param leftHandSideRootPath
-	 * @param rightHandSide
-	 * @param rightHandSideRootPath
-	 * @param leftHandSideAsRelativePath
-	 * @param timestampForLastSynchLeftHandSide
-	 * @param timestampForLastSynchRightHandSide
-	 * @throws JargonException
-	 */
-	private void processFileNameMatched(final FileTreeNode currentFileTreeNode, final File leftHandSide,
-			final String leftHandSideRootPath, final File rightHandSide, final String rightHandSideRootPath,
-			final String leftHandSideAsRelativePath, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) throws JargonException {
+		verifyPendingChecksums(pendingChecksums, irodsFileFactory);
 
 		if (isCancelled()) {
-			return;
+			return null;
 		}
 
-		boolean lhsFile = leftHandSide.isFile();
-		boolean rhsFile = rightHandSide.isFile();
-
-		if (lhsFile && rhsFile) {
-			compareTwoMatchedFiles(currentFileTreeNode, leftHandSide, rightHandSide, timestampForLastSynchLeftHandSide,
-					timestampForLastSynchRightHandSide);
-		} else if (lhsFile != rhsFile) {
-			log.warn("a file is being compared to a directory of the same name");
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.FILE_NAME_DIR_NAME_COLLISION,
-					rightHandSide.getAbsolutePath(), rightHandSide.length(), rightHandSide.lastModified(), "", "");
-			currentFileTreeNode.add(new FileTreeNode(entry));
-		} else {
-			compareTwoEqualDirectories(currentFileTreeNode, leftHandSide, leftHandSideRootPath, rightHandSide,
-					rightHandSideRootPath, leftHandSideAsRelativePath, timestampForLastSynchLeftHandSide,
-					timestampForLastSynchRightHandSide);
-		}
+		return fileTreeModel;
 	}
 
-	/**
-	 * I've matched two directories by relative path, proceed to diff them
+	/*
+	 * Merge the children of a directory that is in both trees. Both listings are
+	 * sorted by name, files are diffed first and then directories, descending into
+	 * those that match.
 	 *
-	 * @param currentFileTreeNode
-	 * @param leftHandSide
-	 * @param leftHandSideRootPath
-	 * @param rightHandSide
-	 * @param rightHandSideRootPath
-	 * @param leftHandSideAsRelativePath
+	 * @param parentNode
+	 * @param relativePath
+	 * @param localListing
+	 * @param irodsListing
+	 * @param localDirectory
+	 * @param irodsDirectoryPath
 	 * @param timestampForLastSynchLeftHandSide
 	 * @param timestampForLastSynchRightHandSide
-	 * @throws JargonException
+	 * @param pendingChecksums
 	 */
-	private void compareTwoEqualDirectories(final FileTreeNode currentFileTreeNode, final File leftHandSide,
-			final String leftHandSideRootPath, final File rightHandSide, final String rightHandSideRootPath,
-			final String leftHandSideAsRelativePath, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) throws JargonException {
+	private void diffDirectory(final FileTreeNode parentNode, final String relativePath,
+			final TreeListing localListing, final TreeListing irodsListing, final File localDirectory,
+			final String irodsDirectoryPath, final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide, final List<PendingChecksum> pendingChecksums) {
 
 		if (isCancelled()) {
 			return;
 		}
 
-		log.info("\n\n************************************\n************************************\n\n");
-		log.info("comparing two equal directories");
-		log.info("   lhs dir:{}", leftHandSide.getAbsolutePath());
-		log.info("   rhs dir:{}", rightHandSide.getAbsolutePath());
-
-		FileTreeNode parentNode;
-		// the root node in the resulting diff tree has already been added when
-		// starting the diff, so don't double-add
-		if (leftHandSideAsRelativePath.isEmpty()) {
-			parentNode = currentFileTreeNode;
-		} else {
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.DIRECTORY_NO_DIFF,
-					rightHandSide.getAbsolutePath(), 0, 0, "", "");
-			parentNode = new FileTreeNode(entry);
-			currentFileTreeNode.add(parentNode);
-		}
-
-		// set up the new root node in the compare tree, these are both
-		// directories and I'll recursively descend to the children with this
-		// parent as the root.
-
-		Comparator<File> fileNameComparator = new FileNameComparator();
+		log.debug("diffDirectory:{}", relativePath);
 
-		log.debug("inspecting for files in this pass using a filter for files");
-		FileOrDirFilter filter = new FileOrDirFilter(FilterFor.FILE);
-		File[] lhsChildren = leftHandSide.listFiles(filter);
-		Arrays.sort(lhsChildren, fileNameComparator);
+		SortedMap<String, TreeDiffItem> lhsChildren = localListing.getChildren(relativePath);
+		SortedMap<String, TreeDiffItem> rhsChildren = irodsListing.getChildren(relativePath);
+		SortedSet<String> names = new TreeSet<String>(lhsChildren.keySet());
+		names.addAll(rhsChildren.keySet());
+		String localDirectoryPath = LocalFileUtils.normalizePath(localDirectory.getAbsolutePath());
 
-		log.debug("lhs files in dir:{}", lhsChildren);
-		File[] rhsChildren = rightHandSide.listFiles(filter);
-		Arrays.sort(rhsChildren, fileNameComparator);
-		log.debug("rhs files in dir:{}", rhsChildren);
-
-		int lhMatchOrPass;
-		int j = 0;
-		int i = 0;
-		// first compare files (platform by platform the ordering may be
-		// different iRODS vs. local)
-		// use the lhs as the point of ref, ping each child and do a match/merge
-		// w/rhs
-		File lhsFile = null;
-		for (i = 0; i < lhsChildren.length; i++) {
+		List<String> directoryNames = new ArrayList<String>();
+		for (String name : names) {
 
 			if (isCancelled()) {
 				return;
 			}
 
-			lhsFile = lhsChildren[i];
-			log.debug("inspecting lhs file:{}", lhsFile.getAbsolutePath());
-			if (!lhsFile.isFile()) {
-				log.debug("filtering for files only, this is a dir");
+			TreeDiffItem lhs = lhsChildren.get(name);
+			TreeDiffItem rhs = rhsChildren.get(name);
+			if ((lhs == null || lhs.isDirectory()) && (rhs == null || rhs.isDirectory())) {
+				directoryNames.add(name);
 				continue;
 			}
 
-			if (j >= rhsChildren.length) {
-				lhsChildIsUnmatched(parentNode, lhsFile, rightHandSide, timestampForLastSynchLeftHandSide,
-						timestampForLastSynchRightHandSide);
-
+			String localPath = LocalFileUtils.normalizePath(new File(localDirectory, name).getAbsolutePath());
+			String irodsPath = MiscIRODSUtils.buildAbsolutePathFromCollectionParentAndFileName(irodsDirectoryPath,
+					name);
+
+			if (lhs == null) {
+				FileTreeDiffEntry entry = buildFileTreeDiffEntry(rhs, irodsDirectoryPath, DiffType.RIGHT_HAND_PLUS,
+						localPath, 0, 0, "", "");
+				log.info("right hand plus generated:{}", entry);
+				parentNode.add(new FileTreeNode(entry));
+			} else if (rhs == null) {
+				FileTreeDiffEntry entry = buildFileTreeDiffEntry(lhs, localDirectoryPath, DiffType.LEFT_HAND_PLUS,
+						irodsPath, 0, 0, "", "");
+				log.info("left hand plus generated:{}", entry);
+				parentNode.add(new FileTreeNode(entry));
+			} else if (lhs.isDirectory() != rhs.isDirectory()) {
+				log.warn("a file is being compared to a directory of the same name");
+				FileTreeDiffEntry entry = buildFileTreeDiffEntry(lhs, localDirectoryPath,
+						DiffType.FILE_NAME_DIR_NAME_COLLISION, irodsPath, rhs.getLength(), rhs.getLastModified(), "",
+						"");
+				parentNode.add(new FileTreeNode(entry));
 			} else {
-				while (j < rhsChildren.length) {
-
-					if (isCancelled()) {
-						return;
-					}
-
-					lhMatchOrPass = diffTwoFiles(parentNode, lhsFile, leftHandSideRootPath, rhsChildren[j],
-							rightHandSideRootPath, timestampForLastSynchLeftHandSide,
-							timestampForLastSynchRightHandSide);
-
-					if (lhMatchOrPass == -1) {
-						// left hand side is greater than rhs, so keep pinging
-						// the
-						// rhs
-						j++;
-						log.info("advance rhs pointer");
-					} else if (lhMatchOrPass == 0) {
-						// i was matched, so advance both
-						j++;
-						log.info("advance rhs pointer");
-						break;
-					} else {
-						// rhs was greater, don't advance rhs
-						break;
-					}
-				}
+				compareTwoMatchedFiles(parentNode, lhs, localDirectoryPath, localPath, rhs, irodsPath,
+						timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide, pendingChecksums);
 			}
 		}
 
-		log.info("looking for unmatched rhs files");
-		/*
-		 * the match is driven by the lhs file. Once I've exhausted those, I need to see
-		 * if any unmatched rhs files exist
-		 */
-
-		File rhsFile;
+		log.debug("processing matches on dirs now");
 
-		for (; j < rhsChildren.length; j++) {
+		for (String name : directoryNames) {
 
 			if (isCancelled()) {
 				return;
 			}
 
-			rhsFile = rhsChildren[j];
-			if (!rhsFile.isFile()) {
-				continue;
-			}
-
-			String rightHandSideAsRelativePath = rhsFile.getAbsolutePath().substring(rightHandSideRootPath.length());
-
-			StringBuilder sb = new StringBuilder();
-			sb.append(LocalFileUtils.normalizePath(leftHandSideRootPath));
-			sb.append(rightHandSideAsRelativePath);
-
-			log.debug("unaccounted for rhs file: {}", rhsFile.getAbsolutePath());
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(rhsFile, DiffType.RIGHT_HAND_PLUS, sb.toString(), 0,
-					0, "", "");
-			parentNode.add(new FileTreeNode(entry));
-		}
-
-		log.info("processing matches on dirs now");
-
-		filter = new FileOrDirFilter(FilterFor.DIR);
-		lhsChildren = leftHandSide.listFiles(filter);
-		Arrays.sort(lhsChildren, fileNameComparator);
-		log.debug("lhs files in dir:{}", lhsChildren);
-		rhsChildren = rightHandSide.listFiles(filter);
-		Arrays.sort(rhsChildren, fileNameComparator);
-		log.debug("rhs files in dir:{}", rhsChildren);
-
-		j = 0;
-		// files done, now match collections (platform by platform the ordering
-		// may be different iRODS vs. local)
-		// use the lhs as the point of ref, ping each child and do a match/merge
-		// w/rhs
-		for (File element : lhsChildren) {
-
-			if (isCancelled()) {
-				return;
-			}
-
-			log.debug("inspecting lhs dir, looking for dirs only:{}", element.getAbsolutePath());
-
-			log.debug("j is:{}", j);
-			log.debug("rhsChildren.length() is: {}", rhsChildren.length);
-
-			if (j >= rhsChildren.length) {
-				log.debug("left hand side file is unmatched for : {}", element.getAbsolutePath());
-				lhsChildIsUnmatched(currentFileTreeNode, element, rightHandSide, timestampForLastSynchLeftHandSide,
-						timestampForLastSynchRightHandSide);
+			TreeDiffItem lhs = lhsChildren.get(name);
+			TreeDiffItem rhs = rhsChildren.get(name);
+			File localChild = new File(localDirectory, name);
+			String localPath = LocalFileUtils.normalizePath(localChild.getAbsolutePath());
+			String irodsPath = MiscIRODSUtils.buildAbsolutePathFromCollectionParentAndFileName(irodsDirectoryPath,
+					name);
+
+			if (lhs == null) {
+				log.debug("unaccounted for rhs collection: {}", irodsPath);
+				parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(rhs, irodsDirectoryPath,
+						DiffType.RIGHT_HAND_PLUS, localPath, 0, 0, "", "")));
+			} else if (rhs == null) {
+				log.debug("left hand side dir is unmatched for : {}", localPath);
+				parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(lhs, localDirectoryPath,
+						DiffType.LEFT_HAND_PLUS, irodsPath, 0, 0, "", "")));
 			} else {
-				while (j < rhsChildren.length) {
-
-					if (isCancelled()) {
-						return;
-					}
-
-					if (rhsChildren[j].isFile()) {
-						log.debug("rhs is a file, ignore");
-						j++;
-						continue;
-					}
-
-					lhMatchOrPass = diffTwoFiles(parentNode, element, leftHandSideRootPath, rhsChildren[j],
-							rightHandSideRootPath, timestampForLastSynchLeftHandSide,
-							timestampForLastSynchRightHandSide);
-
-					log.info("checking match or pass for a lhs dir got:{}", lhMatchOrPass);
-
-					if (lhMatchOrPass == -1) {
-						// left hand side is greater than rhs, so keep pinging
-						// the
-						// rhs
-						j++;
-					} else if (lhMatchOrPass == 0) {
-						// i was matched, so advance both
-						j++;
-						break;
-					} else {
-						// rhs was greater, don't advance rhs
-						break;
-					}
-				}
-			}
-		}
-
-		/*
-		 * the match is driven by the lhs file. Once I've exhausted those, I need to see
-		 * if any unmatched rhs collections exist
-		 */
-
-		for (; j < rhsChildren.length; j++) {
-
-			if (isCancelled()) {
-				return;
-			}
-
-			rhsFile = rhsChildren[j];
-			if (rhsFile.isFile()) {
-				continue;
+				FileTreeNode childNode = new FileTreeNode(buildFileTreeDiffEntry(lhs, localDirectoryPath,
+						DiffType.DIRECTORY_NO_DIFF, irodsPath, 0, 0, "", ""));
+				parentNode.add(childNode);
+				diffDirectory(childNode, TreeListing.childPath(relativePath, name), localListing, irodsListing,
+						localChild, irodsPath, timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide,
+						pendingChecksums);
 			}
-
-			log.debug("unaccounted for rhs collection: {}", rhsFile.getAbsolutePath());
-
-			String rightHandSideAsRelativePath = rhsFile.getAbsolutePath().substring(rightHandSideRootPath.length());
-
-			StringBuilder sb = new StringBuilder();
-			sb.append(leftHandSideRootPath);
-			sb.append(rightHandSideAsRelativePath);
-
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(rhsFile, DiffType.RIGHT_HAND_PLUS, sb.toString(), 0,
-					0, "", "");
-			currentFileTreeNode.add(new FileTreeNode(entry));
 		}
 	}
 
-	/**
+	/*
+	 * I've matched two files by relative paths. Now inspect for changes and
+	 * generate any appropriate diff from the listed length and timestamps. Files
+	 * of the same length that were modified after the last synch, or all files of
+	 * the same length if either the right or left timestamp is set to no checks,
+	 * are left to a checksum comparison that is done for all such files at the end
+	 * of the diff. Only files not modified since the last synch skip the checksum.
+	 *
 	 * @param currentFileTreeNode
 	 * @param leftHandSide
+	 * @param localDirectoryPath
+	 * @param localPath
+	 * @param rightHandSide
+	 * @param irodsPath
 	 * @param timestampForLastSynchLeftHandSide
 	 * @param timestampForLastSynchRightHandSide
-	 * @param lhsFile
+	 * @param pendingChecksums
 	 */
-	private void lhsChildIsUnmatched(final FileTreeNode currentFileTreeNode, final File leftHandSide,
-			final File rightHandSide, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) {
-
-		if (isCancelled()) {
-			return;
-		}
+	private void compareTwoMatchedFiles(final FileTreeNode currentFileTreeNode, final TreeDiffItem leftHandSide,
+			final String localDirectoryPath, final String localPath, final TreeDiffItem rightHandSide,
+			final String irodsPath, final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide, final List<PendingChecksum> pendingChecksums) {
 
-		log.info("lhsChildIsUnmatched:{}", leftHandSide.getAbsolutePath());
-		log.info("lhs last synch:{}", timestampForLastSynchLeftHandSide);
-		log.info("leftHandSide lastModified:{}", leftHandSide.lastModified());
+		log.debug("file compare");
 
-		StringBuilder sb = new StringBuilder();
-		sb.append(rightHandSide.getAbsolutePath());
-		sb.append('/');
-		sb.append(leftHandSide.getName());
+		FileTreeDiffEntry entry = buildFileTreeDiffEntry(leftHandSide, localDirectoryPath, DiffType.FILE_OUT_OF_SYNCH,
+				irodsPath, rightHandSide.getLength(), rightHandSide.getLastModified(), "", "");
 
-		// lhs file has no match, right now this synchs up to irods
-		log.debug("unaccounted for lhs file: {}", leftHandSide.getAbsolutePath());
-		FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.LEFT_HAND_PLUS, sb.toString(), 0,
-				0, "", "");
-		currentFileTreeNode.add(new FileTreeNode(entry));
+		if (leftHandSide.getLength() != rightHandSide.getLength()) {
+			log.debug("files differ on length:{}", entry);
+			currentFileTreeNode.add(new FileTreeNode(entry));
+		} else if (timestampForLastSynchLeftHandSide == NO_TIMESTAMP_CHECKS
+				|| timestampForLastSynchRightHandSide == NO_TIMESTAMP_CHECKS
+				|| leftHandSide.getLastModified() > timestampForLastSynchLeftHandSide
+				|| rightHandSide.getLastModified() > timestampForLastSynchRightHandSide) {
+			log.debug("same length, with no timestamp checks or modified after the last synch:{}", entry);
+			// added now to keep the order of the tree, and removed if the checksums match
+			FileTreeNode fileTreeNode = new FileTreeNode(entry);
+			currentFileTreeNode.add(fileTreeNode);
+			pendingChecksums.add(new PendingChecksum(fileTreeNode, leftHandSide, localDirectoryPath, localPath,
+					rightHandSide, irodsPath));
+		} else {
+			log.debug("same length and not modified since the last synch, files are same");
+		}
 	}
 
 	/*
-	 * I've matched two files by relative paths. Now inspect for changes and  generate
-	 * any appropriate diff. If either the right or left timestamp is set to no
-	 * checks, then timestamps are not checked at all.
+	 * Compare the checksums of the files of the same length, taking the iRODS
+	 * checksum from the listing where one is registered, and computing the local
+	 * checksums in parallel while any missing iRODS checksums are computed on this
+	 * thread's connection.
 	 *
-	 * @param currentFileTreeNode
-	 * @param leftHandSide
-	 * @param rightHandSide
-	 * @param timestampForLastSynchLeftHandSide
-	 * @param timestampForLastSynchRightHandSide
+	 * @param pendingChecksums
+	 * @param irodsFileFactory
 	 * @throws JargonException
 	 */
-	private void compareTwoMatchedFiles(final FileTreeNode currentFileTreeNode, final File leftHandSide,
-			final File rightHandSide, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) throws JargonException {
+	private void verifyPendingChecksums(final List<PendingChecksum> pendingChecksums,
+			final IRODSFileFactory irodsFileFactory) throws JargonException {
 
-		if (isCancelled()) {
+		if (pendingChecksums.isEmpty()) {
 			return;
 		}
 
-		log.debug("file compare");
+		log.info("comparing checksums of {} files", pendingChecksums.size());
 
-		if (leftHandSide.length() != rightHandSide.length()) {
+		final AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(localChecksumThreads, pendingChecksums.size()), new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						Thread thread = new Thread(runnable, "jargon-tree-diff-checksum-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
 
-			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.FILE_OUT_OF_SYNCH,
-					rightHandSide.getAbsolutePath(), rightHandSide.length(), rightHandSide.lastModified(), "", "");
-			log.debug("files differ on length:{}", entry);
-			currentFileTreeNode.add(new FileTreeNode(entry));
-		} else {
+		try {
+			for (final PendingChecksum pendingChecksum : pendingChecksums) {
+				if (isCancelled()) {
+					return;
+				}
+
+				if (pendingChecksum.rightHandSide.getChecksum().isEmpty()) {
+					pendingChecksum.rhsChecksum = getIRODSChecksumOnDataObject(
+							irodsFileFactory.instanceIRODSFile(pendingChecksum.irodsPath));
+				} else {
+					pendingChecksum.rhsChecksum = getDataObjectChecksumUtilitiesAO()
+							.computeChecksumValueFromIrodsData(pendingChecksum.rightHandSide.getChecksum());
+				}
 
-			ChecksumValue rhsChecksum = getIRODSChecksumOnDataObject(rightHandSide);
-			ChecksumValue lhsChecksum;
-			try {
-				lhsChecksum = getIrodsAccessObjectFactory().getIrodsSession().getLocalChecksumComputerFactory()
-						.instance(rhsChecksum.getChecksumEncoding())
-						.computeChecksumValueForLocalFile(leftHandSide.getAbsolutePath());
-			} catch (FileNotFoundException e) {
-				log.error("file not found computing checksum", e);
-				throw new JargonException("data error while synchronizing, cannot find local file for checksum", e);
+				final AbstractChecksumComputeStrategy checksumComputer = getIrodsAccessObjectFactory().getIrodsSession()
+						.getLocalChecksumComputerFactory().instance(pendingChecksum.rhsChecksum.getChecksumEncoding());
+				pendingChecksum.lhsChecksum = executor.submit(new Callable<ChecksumValue>() {
+					@Override
+					public ChecksumValue call() throws Exception {
+						return checksumComputer.computeChecksumValueForLocalFile(pendingChecksum.localPath);
+					}
+				});
 			}
 
-			log.debug("left hand side checksum:{}", lhsChecksum);
+			for (PendingChecksum pendingChecksum : pendingChecksums) {
+				if (isCancelled()) {
+					return;
+				}
 
-			if (lhsChecksum.getChecksumStringValue().equals(rhsChecksum.getChecksumStringValue())) {
-				log.debug("checksum match, files are same");
-			} else {
-				log.debug("files differ on checksum");
-				FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.FILE_OUT_OF_SYNCH,
-						rightHandSide.getAbsolutePath(), rightHandSide.length(), rightHandSide.lastModified(),
-						lhsChecksum.getChecksumStringValue(), rhsChecksum.getChecksumStringValue());
-				log.debug("files differ on checksum:{}", entry);
+				ChecksumValue lhsChecksum = awaitLocalChecksum(pendingChecksum);
+				log.debug("left hand side checksum:{}", lhsChecksum);
+
+				if (lhsChecksum.getChecksumStringValue()
+						.equals(pendingChecksum.rhsChecksum.getChecksumStringValue())) {
+					log.debug("checksum match, files are same");
+					pendingChecksum.fileTreeNode.removeFromParent();
+				} else {
+					FileTreeDiffEntry entry = buildFileTreeDiffEntry(pendingChecksum.leftHandSide,
+							pendingChecksum.localDirectoryPath, DiffType.FILE_OUT_OF_SYNCH, pendingChecksum.irodsPath,
+							pendingChecksum.rightHandSide.getLength(), pendingChecksum.rightHandSide.getLastModified(),
+							lhsChecksum.getChecksumStringValue(),
+							pendingChecksum.rhsChecksum.getChecksumStringValue());
+					log.debug("files differ on checksum:{}", entry);
+					pendingChecksum.fileTreeNode.setUserObject(entry);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-				currentFileTreeNode.add(new FileTreeNode(entry));
+	private ChecksumValue awaitLocalChecksum(final PendingChecksum pendingChecksum) throws JargonException {
+		try {
+			return pendingChecksum.lhsChecksum.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted computing local checksum", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof FileNotFoundException) {
+				log.error("file not found computing checksum", e.getCause());
+				throw new JargonException("data error while synchronizing, cannot find local file for checksum",
+						e.getCause());
+			}
+			if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
 			}
+			throw new JargonException("error computing local checksum", e.getCause());
 		}
 	}
 
-	private FileTreeDiffEntry buildFileTreeDiffEntryForFile(final File diffFile, final DiffType diffType,
-			final String absolutePathOppositeFile, final long lengthOppositeSide, final long timestampOppositeSide,
-			final String checksumThisFile, final String checksumOppositeFile) {
+	private FileTreeDiffEntry buildFileTreeDiffEntry(final TreeDiffItem diffItem, final String parentPath,
+			final DiffType diffType, final String absolutePathOppositeFile, final long lengthOppositeSide,
+			final long timestampOppositeSide, final String checksumThisFile, final String checksumOppositeFile) {
 		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
-		entry.setCreatedAt(new Date(diffFile.lastModified()));
+		entry.setCreatedAt(new Date(diffItem.getLastModified()));
 		entry.setModifiedAt(entry.getCreatedAt());
-		entry.setDataSize(diffFile.length());
+		entry.setDataSize(diffItem.getLength());
+		entry.setParentPath(parentPath);
 		FileTreeDiffEntry diffEntry;
 
-		if (diffFile.isFile()) {
+		if (!diffItem.isDirectory()) {
 			entry.setObjectType(ObjectType.DATA_OBJECT);
-			entry.setParentPath(LocalFileUtils.normalizePath(diffFile.getParent()));
-			entry.setPathOrName(diffFile.getName());
+			entry.setPathOrName(diffItem.getName());
 			diffEntry = FileTreeDiffEntry.instanceForFileDiff(diffType, entry, absolutePathOppositeFile,
 					lengthOppositeSide, timestampOppositeSide, checksumThisFile, checksumOppositeFile);
 		} else {
 			entry.setObjectType(ObjectType.COLLECTION);
-			entry.setParentPath(LocalFileUtils.normalizePath(diffFile.getParent()));
 			StringBuilder sb = new StringBuilder();
-			sb.append(entry.getParentPath());
-			sb.append("/");
-			sb.append(diffFile.getName());
+			sb.append(parentPath);
+			if (!parentPath.endsWith("/")) {
+				sb.append("/");
+			}
+			sb.append(diffItem.getName());
 			entry.setPathOrName(sb.toString());
 			diffEntry = FileTreeDiffEntry.instance(diffType, entry, absolutePathOppositeFile, lengthOppositeSide,
 					timestampOppositeSide);
@@ -693,12 +548,62 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 		return diffEntry;
 	}
 
-	private ChecksumValue getIRODSChecksumOnDataObject(final File irodsFile) throws JargonException {
+	private DataObjectChecksumUtilitiesAO getDataObjectChecksumUtilitiesAO() throws JargonException {
 		if (dataObjectChecksumUtilitiesAO == null) {
 			dataObjectChecksumUtilitiesAO = irodsAccessObjectFactory.getDataObjectChecksumUtilitiesAO(irodsAccount);
 		}
-		return dataObjectChecksumUtilitiesAO.computeChecksumOnDataObject((IRODSFile) irodsFile);
+		return dataObjectChecksumUtilitiesAO;
+	}
 
+	private ChecksumValue getIRODSChecksumOnDataObject(final IRODSFile irodsFile) throws JargonException {
+		return getDataObjectChecksumUtilitiesAO().computeChecksumOnDataObject(irodsFile);
+	}
+
+	/**
+	 * @return {@code int} with the number of threads that compute local checksums
+	 */
+	public int getLocalChecksumThreads() {
+		return localChecksumThreads;
+	}
+
+	/**
+	 * @param localChecksumThreads
+	 *            {@code int} with the number of threads that compute local
+	 *            checksums for files of the same length, by default the number of
+	 *            processors
+	 */
+	public void setLocalChecksumThreads(final int localChecksumThreads) {
+		if (localChecksumThreads < 1) {
+			throw new IllegalArgumentException("localChecksumThreads must be 1 or more");
+		}
+		this.localChecksumThreads = localChecksumThreads;
+	}
+
+	/**
+	 * A pair of files of the same length waiting for their checksums to be
+	 * compared, with the node already placed in the diff tree for them
+	 */
+	private static final class PendingChecksum {
+
+		private final FileTreeNode fileTreeNode;
+		private final TreeDiffItem leftHandSide;
+		private final String localDirectoryPath;
+		private final String localPath;
+		private final TreeDiffItem rightHandSide;
+		private final String irodsPath;
+		private ChecksumValue rhsChecksum;
+		private Future<ChecksumValue> lhsChecksum;
+
+		private PendingChecksum(final FileTreeNode fileTreeNode, final TreeDiffItem leftHandSide,
+				final String localDirectoryPath, final String localPath, final TreeDiffItem rightHandSide,
+				final String irodsPath) {
+			this.fileTreeNode = fileTreeNode;
+			this.leftHandSide = leftHandSide;
+			this.localDirectoryPath = localDirectoryPath;
+			this.localPath = localPath;
+			this.rightHandSide = rightHandSide;
+			this.irodsPath = irodsPath;
+		}
 	}
 
 	/**
@@ -0,0 +1,184 @@
+package org.irods.jargon.datautils.tree;
+
+import java.util.Date;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.service.AbstractJargonService;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists a whole iRODS subtree for a tree diff in a fixed number of paged
+ * GenQueries, selecting collections and data objects by the name of their
+ * parent collection, rather than listing and stating each collection in turn.
+ * Each data object comes with its size, modify time and registered checksum.
+ *
+ */
+class IRODSTreeLister extends AbstractJargonService {
+
+	private static final Logger log = LoggerFactory.getLogger(IRODSTreeLister.class);
+
+	/**
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 */
+	IRODSTreeLister(final IRODSAccessObjectFactory irodsAccessObjectFactory, final IRODSAccount irodsAccount) {
+		super(irodsAccessObjectFactory, irodsAccount);
+	}
+
+	/**
+	 * List everything under a collection, in at most three queries
+	 *
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the top collection
+	 * @return {@link TreeListing} of the collections and data objects under the
+	 *         collection
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	TreeListing listSubtree(final String collectionPath) throws JargonException {
+		log.info("listSubtree()");
+		if (collectionPath == null || collectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionPath");
+		}
+		log.info("collectionPath:{}", collectionPath);
+
+		TreeListing listing = new TreeListing();
+		String prefix = collectionPath.endsWith("/") ? collectionPath : collectionPath + "/";
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_MODIFY_TIME)
+					.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, QueryConditionOperators.LIKE,
+							prefix + "%");
+			addCollections(collectionPath, prefix, builder, listing);
+
+			// for the root, the like condition already covers the top collection
+			if (!prefix.equals(collectionPath)) {
+				builder = new IRODSGenQueryBuilder(true, null);
+				addSelectsForDataObjects(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+						QueryConditionOperators.EQUAL, collectionPath);
+				addDataObjects(collectionPath, prefix, builder, listing);
+			}
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForDataObjects(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.LIKE, prefix + "%");
+			addDataObjects(collectionPath, prefix, builder, listing);
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		}
+
+		log.info("listed {} iRODS collections and data objects", listing.size());
+		return listing;
+	}
+
+	private IRODSGenQueryBuilder addSelectsForDataObjects(final IRODSGenQueryBuilder builder)
+			throws GenQueryBuilderException {
+		return builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_CHECKSUM);
+	}
+
+	private void addCollections(final String collectionPath, final String prefix,
+			final IRODSGenQueryBuilder builder, final TreeListing listing) throws JargonException {
+		try (GenQueryResultIterator rows = iterate(collectionPath, builder)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String path = row.getColumn(0);
+				// a query under '/' returns '/' itself
+				if (!path.startsWith(prefix) || path.equals(collectionPath)) {
+					continue;
+				}
+				String relativePath = path.substring(prefix.length());
+				int index = relativePath.lastIndexOf('/');
+				listing.add(index < 0 ? "" : relativePath.substring(0, index),
+						new TreeDiffItem(relativePath.substring(index + 1), true, 0L, toMillis(row.getColumnAsDateOrNull(1)),
+								null));
+				listing.addDirectory(relativePath);
+			}
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+	}
+
+	/*
+	 * A data object with several replicas has a row for each, the first is kept
+	 */
+	private void addDataObjects(final String collectionPath, final String prefix,
+			final IRODSGenQueryBuilder builder, final TreeListing listing) throws JargonException {
+		try (GenQueryResultIterator rows = iterate(collectionPath, builder)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String parent = row.getColumn(0);
+				String parentRelativePath;
+				if (parent.equals(collectionPath)) {
+					parentRelativePath = "";
+				} else if (parent.startsWith(prefix)) {
+					parentRelativePath = parent.substring(prefix.length());
+				} else {
+					continue;
+				}
+				listing.add(parentRelativePath, new TreeDiffItem(row.getColumn(1), false,
+						row.getColumnAsLongOrZero(2), toMillis(row.getColumnAsDateOrNull(3)), row.getColumn(4)));
+			}
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+	}
+
+	private static long toMillis(final Date date) {
+		return date == null ? 0L : date.getTime();
+	}
+
+	/**
+	 * Run the query and return an iterator that follows the continuation of the
+	 * query over all of its pages
+	 */
+	private GenQueryResultIterator iterate(final String collectionPath, final IRODSGenQueryBuilder builder)
+			throws JargonException {
+		IRODSGenQueryExecutor irodsGenQueryExecutor = getIrodsAccessObjectFactory()
+				.getIRODSGenQueryExecutor(getIrodsAccount());
+		try {
+			IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(
+					getIrodsAccessObjectFactory().getJargonProperties().getMaxFilesAndDirsQueryMax());
+			return irodsGenQueryExecutor.iterateIRODSQueryInZone(irodsQuery, 0,
+					MiscIRODSUtils.getZoneInPath(collectionPath));
+		} catch (JargonQueryException | GenQueryBuilderException e) {
+			log.error("error querying for subtree of:{}", collectionPath, e);
+			throw new JargonException("error querying for subtree", e);
+		}
+	}
+
+	/**
+	 * Errors in reading later pages of a query come out of the iterator as runtime
+	 * exceptions, present them as the original checked exception
+	 */
+	private JargonException unwrapQueryException(final JargonRuntimeException e) {
+		log.error("error reading query results", e);
+		if (e.getCause() instanceof JargonException) {
+			return (JargonException) e.getCause();
+		}
+		return new JargonException("error reading query results", e);
+	}
+
+}
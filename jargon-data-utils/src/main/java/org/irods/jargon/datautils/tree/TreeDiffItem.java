@@ -0,0 +1,69 @@
+package org.irods.jargon.datautils.tree;
+
+/**
+ * A file or directory on one side of a tree diff, with the attributes the diff
+ * compares, as listed in one pass over the local tree or a few queries over the
+ * iRODS subtree
+ *
+ */
+final class TreeDiffItem {
+
+	private final String name;
+	private final boolean directory;
+	private final long length;
+	private final long lastModified;
+	private final String checksum;
+
+	/**
+	 * @param name
+	 *            {@code String} with the file name, without any path
+	 * @param directory
+	 *            {@code boolean} that is <code>true</code> for a directory or
+	 *            collection
+	 * @param length
+	 *            {@code long} with the length of a file
+	 * @param lastModified
+	 *            {@code long} with the modify time in milliseconds
+	 * @param checksum
+	 *            {@code String} with the checksum registered in iRODS, in the
+	 *            iRODS format, or an empty string if there is none
+	 */
+	TreeDiffItem(final String name, final boolean directory, final long length, final long lastModified,
+			final String checksum) {
+		this.name = name;
+		this.directory = directory;
+		this.length = length;
+		this.lastModified = lastModified;
+		this.checksum = checksum == null ? "" : checksum;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	boolean isDirectory() {
+		return directory;
+	}
+
+	long getLength() {
+		return length;
+	}
+
+	long getLastModified() {
+		return lastModified;
+	}
+
+	String getChecksum() {
+		return checksum;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("TreeDiffItem [name=").append(name).append(", directory=").append(directory).append(", length=")
+				.append(length).append(", lastModified=").append(lastModified).append(", checksum=").append(checksum)
+				.append("]");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,183 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The whole of one side of a tree diff, held in memory as the children of each
+ * directory sorted by name. Directories are keyed by their path relative to
+ * the top of the tree, with '/' between the names and the top itself as an
+ * empty string, so that the local and iRODS sides can be merged directory by
+ * directory without going back to either file system.
+ *
+ */
+final class TreeListing {
+
+	private static final Logger log = LoggerFactory.getLogger(TreeListing.class);
+
+	private final Map<String, SortedMap<String, TreeDiffItem>> directories = new HashMap<String, SortedMap<String, TreeDiffItem>>();
+
+	private int size = 0;
+
+	TreeListing() {
+		addDirectory("");
+	}
+
+	/**
+	 * List a local tree in one walk, following links as {@link File} does
+	 *
+	 * @param localRoot
+	 *            {@link File} that is the top directory of the tree
+	 * @return {@link TreeListing} of everything under the directory
+	 * @throws IOException
+	 *             if a directory cannot be read
+	 */
+	static TreeListing listLocalTree(final File localRoot) throws IOException {
+		final Path rootPath = localRoot.toPath();
+		final TreeListing listing = new TreeListing();
+
+		Files.walkFileTree(rootPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+				new SimpleFileVisitor<Path>() {
+
+					@Override
+					public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+						if (!dir.equals(rootPath)) {
+							String relativePath = relativePath(rootPath, dir);
+							listing.add(parentOf(relativePath), new TreeDiffItem(dir.getFileName().toString(), true,
+									0L, attrs.lastModifiedTime().toMillis(), null));
+							listing.addDirectory(relativePath);
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+						listing.add(parentOf(relativePath(rootPath, file)), new TreeDiffItem(
+								file.getFileName().toString(), false, attrs.size(), attrs.lastModifiedTime().toMillis(),
+								null));
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+						if (exc instanceof FileSystemLoopException) {
+							log.warn("skipping link that loops back into the tree:{}", file);
+							return FileVisitResult.CONTINUE;
+						}
+						throw exc;
+					}
+				});
+
+		log.info("listed {} local files and directories", listing.size());
+		return listing;
+	}
+
+	/**
+	 * Add a directory, which may have no children
+	 *
+	 * @param relativePath
+	 *            {@code String} with the path of the directory relative to the
+	 *            top
+	 */
+	void addDirectory(final String relativePath) {
+		childrenFor(relativePath);
+	}
+
+	/**
+	 * Add a child to a directory. The first entry for a name is kept, so that a
+	 * data object listed once per replica is only added once.
+	 *
+	 * @param parentRelativePath
+	 *            {@code String} with the path of the parent directory relative to
+	 *            the top
+	 * @param item
+	 *            {@link TreeDiffItem} with the child
+	 */
+	void add(final String parentRelativePath, final TreeDiffItem item) {
+		SortedMap<String, TreeDiffItem> children = childrenFor(parentRelativePath);
+		if (!children.containsKey(item.getName())) {
+			children.put(item.getName(), item);
+			size++;
+		}
+	}
+
+	/**
+	 * @param relativePath
+	 *            {@code String} with the path of a directory relative to the top
+	 * @return {@code SortedMap} of the children of the directory by name, empty
+	 *         if the directory has none or is not in the listing
+	 */
+	SortedMap<String, TreeDiffItem> getChildren(final String relativePath) {
+		SortedMap<String, TreeDiffItem> children = directories.get(relativePath);
+		if (children == null) {
+			return Collections.emptySortedMap();
+		}
+		return children;
+	}
+
+	/**
+	 * @return {@code int} with the number of files and directories under the top
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param parentRelativePath
+	 *            {@code String} with the relative path of a directory
+	 * @param name
+	 *            {@code String} with the name of a child
+	 * @return {@code String} with the relative path of the child
+	 */
+	static String childPath(final String parentRelativePath, final String name) {
+		if (parentRelativePath.isEmpty()) {
+			return name;
+		}
+		return parentRelativePath + "/" + name;
+	}
+
+	private static String parentOf(final String relativePath) {
+		int index = relativePath.lastIndexOf('/');
+		if (index < 0) {
+			return "";
+		}
+		return relativePath.substring(0, index);
+	}
+
+	private static String relativePath(final Path rootPath, final Path path) {
+		StringBuilder sb = new StringBuilder();
+		for (Path element : rootPath.relativize(path)) {
+			if (sb.length() > 0) {
+				sb.append('/');
+			}
+			sb.append(element.toString());
+		}
+		return sb.toString();
+	}
+
+	private SortedMap<String, TreeDiffItem> childrenFor(final String relativePath) {
+		SortedMap<String, TreeDiffItem> children = directories.get(relativePath);
+		if (children == null) {
+			children = new TreeMap<String, TreeDiffItem>();
+			directories.put(relativePath, children);
+		}
+		return children;
+	}
+
+}
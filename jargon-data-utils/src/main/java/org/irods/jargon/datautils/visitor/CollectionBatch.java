@@ -0,0 +1,97 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+
+/**
+ * The children of one collection, with the AVUs of each child, as listed by the
+ * {@link CollectionBatchFetcher}
+ *
+ */
+public class CollectionBatch {
+
+	private final String collectionPath;
+	private final SortedSet<String> collectionPaths = new TreeSet<String>();
+	private final SortedSet<String> dataObjectPaths = new TreeSet<String>();
+	private final Map<String, List<MetaDataAndDomainData>> metadata = new HashMap<String, List<MetaDataAndDomainData>>();
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the parent collection
+	 */
+	public CollectionBatch(final String collectionPath) {
+		if (collectionPath == null || collectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionPath");
+		}
+		this.collectionPath = collectionPath;
+	}
+
+	void addCollection(final String path) {
+		collectionPaths.add(path);
+	}
+
+	void addDataObject(final String path) {
+		dataObjectPaths.add(path);
+	}
+
+	void addMetadata(final String path, final MetaDataAndDomainData metaDataAndDomainData) {
+		List<MetaDataAndDomainData> values = metadata.get(path);
+		if (values == null) {
+			values = new ArrayList<MetaDataAndDomainData>();
+			metadata.put(path, values);
+		}
+		values.add(metaDataAndDomainData);
+	}
+
+	/**
+	 * @return {@code String} with the absolute path of the parent collection
+	 */
+	public String getCollectionPath() {
+		return collectionPath;
+	}
+
+	/**
+	 * @return {@code SortedSet} with the absolute paths of the child collections
+	 */
+	public SortedSet<String> getCollectionPaths() {
+		return Collections.unmodifiableSortedSet(collectionPaths);
+	}
+
+	/**
+	 * @return {@code SortedSet} with the absolute paths of the child data objects
+	 */
+	public SortedSet<String> getDataObjectPaths() {
+		return Collections.unmodifiableSortedSet(dataObjectPaths);
+	}
+
+	/**
+	 * @param path
+	 *            {@code String} with the absolute path of a child
+	 * @return {@code List} of {@link MetaDataAndDomainData} with the AVUs of the
+	 *         child, empty if it has none
+	 */
+	public List<MetaDataAndDomainData> getMetadata(final String path) {
+		List<MetaDataAndDomainData> values = metadata.get(path);
+		if (values == null) {
+			return new ArrayList<MetaDataAndDomainData>();
+		}
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CollectionBatch [collectionPath=").append(collectionPath).append(", collections=")
+				.append(collectionPaths.size()).append(", dataObjects=").append(dataObjectPaths.size())
+				.append(", withMetadata=").append(metadata.size()).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,346 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryResultIterator;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.core.query.MetaDataAndDomainData.MetadataDomain;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.service.AbstractJargonService;
+import org.irods.jargon.core.utils.AccessObjectQueryProcessingUtils;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists the children of a collection, or of a whole subtree, together with the
+ * AVUs of every child, using a fixed number of paged GenQueries that select
+ * children by the name of their parent collection rather than querying each
+ * child in turn. The results are gathered into {@link CollectionBatch} objects
+ * that a batched crawl visits from memory.
+ *
+ */
+public class CollectionBatchFetcher extends AbstractJargonService {
+
+	public static final Logger log = LoggerFactory.getLogger(CollectionBatchFetcher.class);
+
+	/**
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 */
+	public CollectionBatchFetcher(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		super(irodsAccessObjectFactory, irodsAccount);
+	}
+
+	/**
+	 * List the child collections and data objects of a collection, with their
+	 * AVUs, in four queries
+	 *
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the collection
+	 * @return {@link CollectionBatch} with the children of the collection
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public CollectionBatch fetchCollection(final String collectionPath) throws JargonException {
+		log.info("fetchCollection()");
+		if (collectionPath == null || collectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionPath");
+		}
+		log.info("collectionPath:{}", collectionPath);
+
+		Map<String, CollectionBatch> batches = new HashMap<String, CollectionBatch>();
+		CollectionBatch batch = new CollectionBatch(collectionPath);
+		batches.put(collectionPath, batch);
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForCollections(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_PARENT_NAME,
+					QueryConditionOperators.EQUAL, collectionPath);
+			addCollections(collectionPath, builder, batches, false);
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForCollectionMetadata(builder).addConditionAsGenQueryField(
+					RodsGenQueryEnum.COL_COLL_PARENT_NAME, QueryConditionOperators.EQUAL, collectionPath);
+			addCollectionMetadata(collectionPath, builder, batches);
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForDataObjects(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.EQUAL, collectionPath);
+			addDataObjects(collectionPath, builder, batches);
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForDataObjectMetadata(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.EQUAL, collectionPath);
+			addDataObjectMetadata(collectionPath, builder, batches);
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		}
+
+		log.info("fetched:{}", batch);
+		return batch;
+	}
+
+	/**
+	 * List every collection and data object under a collection, with their AVUs,
+	 * in six queries
+	 *
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the top collection
+	 * @return {@code Map} of {@link CollectionBatch} keyed by collection path,
+	 *         with an entry for the top collection and for each collection under
+	 *         it
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public Map<String, CollectionBatch> fetchSubtree(final String collectionPath) throws JargonException {
+		log.info("fetchSubtree()");
+		if (collectionPath == null || collectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionPath");
+		}
+		log.info("collectionPath:{}", collectionPath);
+
+		Map<String, CollectionBatch> batches = new HashMap<String, CollectionBatch>();
+		batches.put(collectionPath, new CollectionBatch(collectionPath));
+		String prefix = buildPrefix(collectionPath);
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForCollections(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.LIKE, prefix + "%");
+			addCollections(collectionPath, builder, batches, true);
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForCollectionMetadata(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.LIKE, prefix + "%");
+			addCollectionMetadata(collectionPath, builder, batches);
+
+			// for the root, the like condition already covers the top collection
+			boolean root = prefix.equals(collectionPath);
+			if (!root) {
+				builder = new IRODSGenQueryBuilder(true, null);
+				addSelectsForDataObjects(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+						QueryConditionOperators.EQUAL, collectionPath);
+				addDataObjects(collectionPath, builder, batches);
+			}
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForDataObjects(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.LIKE, prefix + "%");
+			addDataObjects(collectionPath, builder, batches);
+
+			if (!root) {
+				builder = new IRODSGenQueryBuilder(true, null);
+				addSelectsForDataObjectMetadata(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+						QueryConditionOperators.EQUAL, collectionPath);
+				addDataObjectMetadata(collectionPath, builder, batches);
+			}
+
+			builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForDataObjectMetadata(builder).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.LIKE, prefix + "%");
+			addDataObjectMetadata(collectionPath, builder, batches);
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		}
+
+		log.info("fetched {} collections", batches.size());
+		return batches;
+	}
+
+	private IRODSGenQueryBuilder addSelectsForCollections(final IRODSGenQueryBuilder builder)
+			throws GenQueryBuilderException {
+		return builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_PARENT_NAME);
+	}
+
+	/*
+	 * Same layout as the collection metadata queries in CollectionAOImpl, with the
+	 * parent added at the end
+	 */
+	private IRODSGenQueryBuilder addSelectsForCollectionMetadata(final IRODSGenQueryBuilder builder)
+			throws GenQueryBuilderException {
+		return builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_ID)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_CREATE_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_MODIFY_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_COLL_ATTR_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_COLL_ATTR_VALUE)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_COLL_ATTR_UNITS)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_COLL_ATTR_ID)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_PARENT_NAME);
+	}
+
+	private IRODSGenQueryBuilder addSelectsForDataObjects(final IRODSGenQueryBuilder builder)
+			throws GenQueryBuilderException {
+		return builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME);
+	}
+
+	/*
+	 * Same layout as the data object metadata queries in DataObjectAOImpl
+	 */
+	private IRODSGenQueryBuilder addSelectsForDataObjectMetadata(final IRODSGenQueryBuilder builder)
+			throws GenQueryBuilderException {
+		return builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_ID)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_DATA_ATTR_ID)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_DATA_ATTR_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_DATA_ATTR_VALUE)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_DATA_ATTR_UNITS);
+	}
+
+	/*
+	 * When listing a subtree each collection found also gets an empty batch of its
+	 * own, so that a collection with no children is not queried again
+	 */
+	private void addCollections(final String collectionPath, final IRODSGenQueryBuilder builder,
+			final Map<String, CollectionBatch> batches, final boolean subtree) throws JargonException {
+		String prefix = buildPrefix(collectionPath);
+		try (GenQueryResultIterator rows = iterate(collectionPath, builder)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String path = row.getColumn(0);
+				// a query for the children of '/' returns '/' itself
+				if (!path.startsWith(prefix) || path.equals(collectionPath)) {
+					continue;
+				}
+				batchFor(row.getColumn(1), batches).addCollection(path);
+				if (subtree) {
+					batchFor(path, batches);
+				}
+			}
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+	}
+
+	private void addCollectionMetadata(final String collectionPath, final IRODSGenQueryBuilder builder,
+			final Map<String, CollectionBatch> batches) throws JargonException {
+		String prefix = buildPrefix(collectionPath);
+		try (GenQueryResultIterator rows = iterate(collectionPath, builder)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String path = row.getColumn(1);
+				if (!path.startsWith(prefix) || path.equals(collectionPath)) {
+					continue;
+				}
+				MetaDataAndDomainData metaDataAndDomainData = AccessObjectQueryProcessingUtils
+						.buildMetaDataAndDomainDataFromResultSetRow(MetadataDomain.COLLECTION, row,
+								rows.getTotalRecords());
+				batchFor(row.getColumn(8), batches).addMetadata(path, metaDataAndDomainData);
+			}
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+	}
+
+	private void addDataObjects(final String collectionPath, final IRODSGenQueryBuilder builder,
+			final Map<String, CollectionBatch> batches) throws JargonException {
+		String prefix = buildPrefix(collectionPath);
+		try (GenQueryResultIterator rows = iterate(collectionPath, builder)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String parent = row.getColumn(0);
+				if (!parent.equals(collectionPath) && !parent.startsWith(prefix)) {
+					continue;
+				}
+				batchFor(parent, batches).addDataObject(
+						MiscIRODSUtils.buildAbsolutePathFromCollectionParentAndFileName(parent, row.getColumn(1)));
+			}
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+	}
+
+	private void addDataObjectMetadata(final String collectionPath, final IRODSGenQueryBuilder builder,
+			final Map<String, CollectionBatch> batches) throws JargonException {
+		String prefix = buildPrefix(collectionPath);
+		try (GenQueryResultIterator rows = iterate(collectionPath, builder)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String parent = row.getColumn(1);
+				if (!parent.equals(collectionPath) && !parent.startsWith(prefix)) {
+					continue;
+				}
+				String path = MiscIRODSUtils.buildAbsolutePathFromCollectionParentAndFileName(parent,
+						row.getColumn(2));
+				MetaDataAndDomainData metaDataAndDomainData = MetaDataAndDomainData.instance(MetadataDomain.DATA,
+						row.getColumn(0), path, 0, null, null, row.getColumnAsIntOrZero(3), row.getColumn(4),
+						row.getColumn(5), row.getColumn(6));
+				metaDataAndDomainData.setCount(row.getRecordCount());
+				metaDataAndDomainData.setLastResult(row.isLastResult());
+				metaDataAndDomainData.setTotalRecords(rows.getTotalRecords());
+				batchFor(parent, batches).addMetadata(path, metaDataAndDomainData);
+			}
+		} catch (JargonRuntimeException e) {
+			throw unwrapQueryException(e);
+		}
+	}
+
+	private static CollectionBatch batchFor(final String collectionPath, final Map<String, CollectionBatch> batches) {
+		CollectionBatch batch = batches.get(collectionPath);
+		if (batch == null) {
+			batch = new CollectionBatch(collectionPath);
+			batches.put(collectionPath, batch);
+		}
+		return batch;
+	}
+
+	private static String buildPrefix(final String collectionPath) {
+		if (collectionPath.endsWith("/")) {
+			return collectionPath;
+		}
+		return collectionPath + "/";
+	}
+
+	/**
+	 * Run the query and return an iterator that follows the continuation of the
+	 * query over all of its pages
+	 */
+	private GenQueryResultIterator iterate(final String collectionPath, final IRODSGenQueryBuilder builder)
+			throws JargonException {
+		IRODSGenQueryExecutor irodsGenQueryExecutor = getIrodsAccessObjectFactory()
+				.getIRODSGenQueryExecutor(getIrodsAccount());
+		try {
+			IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(
+					getIrodsAccessObjectFactory().getJargonProperties().getMaxFilesAndDirsQueryMax());
+			return irodsGenQueryExecutor.iterateIRODSQueryInZone(irodsQuery, 0,
+					MiscIRODSUtils.getZoneInPath(collectionPath));
+		} catch (JargonQueryException | GenQueryBuilderException e) {
+			log.error("error querying for children of:{}", collectionPath, e);
+			throw new JargonException("error querying for children", e);
+		}
+	}
+
+	/**
+	 * Errors in reading later pages of a query come out of the iterator as runtime
+	 * exceptions, present them as the original checked exception
+	 */
+	private JargonException unwrapQueryException(final JargonRuntimeException e) {
+		log.error("error reading query results", e);
+		if (e.getCause() instanceof JargonException) {
+			return (JargonException) e.getCause();
+		}
+		return new JargonException("error reading query results", e);
+	}
+
+}
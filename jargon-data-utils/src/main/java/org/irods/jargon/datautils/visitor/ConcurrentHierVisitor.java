@@ -0,0 +1,45 @@
+package org.irods.jargon.datautils.visitor;
+
+/**
+ * A {@link HierVisitor} that may be called from several threads at once by a
+ * parallel crawl. Nodes of different subtrees are visited on different
+ * threads, so any state the visitor keeps from a collection down to its
+ * children (such as a stack of metadata) must be kept per subtree. The crawl
+ * captures that state after entering each collection, and restores a copy of
+ * it on the thread that visits each child, or that leaves the collection.
+ * <p>
+ * Any other state of the visitor, and anything it calls (such as filters), must
+ * be thread safe.
+ *
+ * @param <T>
+ *            type of the per subtree state
+ */
+public interface ConcurrentHierVisitor<T> extends HierVisitor {
+
+	/**
+	 * Capture the per subtree state of the current thread, called just after a
+	 * collection is entered
+	 *
+	 * @return state to be restored for the children of the collection, and for
+	 *         leaving it
+	 */
+	T captureSubtreeState();
+
+	/**
+	 * Make the given state the per subtree state of the current thread. The
+	 * visitor must work on its own copy, as the same state is restored for each
+	 * child of a collection.
+	 *
+	 * @param state
+	 *            state from {@link #captureSubtreeState()}, or <code>null</code>
+	 *            to clear the state of the thread at the end of a crawl
+	 */
+	void restoreSubtreeState(T state);
+
+	/**
+	 * @return {@code boolean} of <code>true</code> if the visitor has decided to
+	 *         end the whole crawl, so that no worker starts another collection
+	 */
+	boolean isAborted();
+
+}
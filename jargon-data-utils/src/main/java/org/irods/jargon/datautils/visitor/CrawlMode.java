@@ -0,0 +1,30 @@
+package org.irods.jargon.datautils.visitor;
+
+/**
+ * How a hierarchical crawl obtains the children of each collection and their
+ * metadata
+ *
+ */
+public enum CrawlMode {
+
+	/**
+	 * List each collection and query the AVUs of each node as it is visited, one
+	 * or more queries per node
+	 */
+	NODE_BY_NODE,
+
+	/**
+	 * List the children of each collection along with the AVUs of all of the
+	 * children in a fixed number of paged queries per collection
+	 */
+	BATCH_PER_COLLECTION,
+
+	/**
+	 * List every collection and data object under the starting collection, along
+	 * with their AVUs, in a fixed number of paged queries for the whole crawl. The
+	 * listing is held in memory until each collection is visited, so this suits
+	 * subtrees that fit in memory.
+	 */
+	BATCH_SUBTREE
+
+}
@@ -40,6 +40,29 @@ public class HierVisitorCrawlerServiceImpl extends AbstractJargonService {
 
 	public void launch(final String startingCollectionPath, final HierVisitor visitor)
 			throws DataNotFoundException, JargonException {
+		launch(startingCollectionPath, visitor, CrawlMode.NODE_BY_NODE);
+	}
+
+	/**
+	 * Crawl from the given collection, obtaining the children of each collection
+	 * as given by the {@link CrawlMode}. The batched modes list children along
+	 * with their AVUs, which visitors can use through {@link PrefetchedMetadata}
+	 * rather than querying each node.
+	 *
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path of the collection to start
+	 *            from
+	 * @param visitor
+	 *            {@link HierVisitor} to visit each node
+	 * @param crawlMode
+	 *            {@link CrawlMode} for listing the children
+	 * @throws DataNotFoundException
+	 *             if the starting collection is missing
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public void launch(final String startingCollectionPath, final HierVisitor visitor, final CrawlMode crawlMode)
+			throws DataNotFoundException, JargonException {
 		log.info("launch");
 		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
 			throw new IllegalArgumentException("null or empty startingCollectionPath");
@@ -49,8 +72,71 @@ public class HierVisitorCrawlerServiceImpl extends AbstractJargonService {
 			throw new IllegalArgumentException("null visitor");
 		}
 
+		if (crawlMode == null) {
+			throw new IllegalArgumentException("null crawlMode");
+		}
+		log.info("crawlMode:{}", crawlMode);
+
 		log.info("beginning the crawl...");
+		buildStartingComposite(startingCollectionPath, crawlMode).accept(visitor);
+
+		log.info("....crawl!");
+
+	}
+
+	/**
+	 * Crawl from the given collection on several worker threads, each with its
+	 * own connection. Collections are handed out to the workers as they are
+	 * found, idle workers taking them from busy ones, and each worker visits the
+	 * data objects of the collections it enters. A collection is left after all
+	 * of its children, and the children of a collection are left in the order of
+	 * {@link #launch(String, HierVisitor, CrawlMode)}. Other calls interleave
+	 * across subtrees.
+	 *
+	 * @param <T>
+	 *            type of the per subtree state of the visitor
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path of the collection to start
+	 *            from
+	 * @param visitor
+	 *            {@link ConcurrentHierVisitor} to visit each node, from any of the
+	 *            workers
+	 * @param crawlMode
+	 *            {@link CrawlMode} for listing the children
+	 * @param numberOfWorkers
+	 *            {@code int} with the number of worker threads and connections
+	 * @throws DataNotFoundException
+	 *             if the starting collection is missing
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public <T> void launchParallel(final String startingCollectionPath, final ConcurrentHierVisitor<T> visitor,
+			final CrawlMode crawlMode, final int numberOfWorkers) throws DataNotFoundException, JargonException {
+		log.info("launchParallel");
+		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty startingCollectionPath");
+		}
+		log.info("startingCollectionPath:{}", startingCollectionPath);
+		if (visitor == null) {
+			throw new IllegalArgumentException("null visitor");
+		}
+		if (crawlMode == null) {
+			throw new IllegalArgumentException("null crawlMode");
+		}
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("numberOfWorkers must be 1 or more");
+		}
+		log.info("crawlMode:{}", crawlMode);
+		log.info("numberOfWorkers:{}", numberOfWorkers);
 
+		log.info("beginning the parallel crawl...");
+		new ParallelHierCrawler<T>(visitor, getIrodsAccessObjectFactory().getIrodsSession(), getIrodsAccount(),
+				numberOfWorkers).crawl(buildStartingComposite(startingCollectionPath, crawlMode));
+		log.info("....crawl!");
+	}
+
+	private IrodsVisitedComposite buildStartingComposite(final String startingCollectionPath,
+			final CrawlMode crawlMode) throws JargonException {
 		IRODSFileImpl startingPoint = (IRODSFileImpl) getIrodsAccessObjectFactory()
 				.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(startingCollectionPath);
 
@@ -59,11 +145,11 @@ public class HierVisitorCrawlerServiceImpl extends AbstractJargonService {
 			throw new JargonException("cannot start a crawl on a leaf node!");
 		}
 
-		IrodsVisitedComposite startingComposite = new IrodsVisitedComposite(startingPoint);
-		startingComposite.accept(visitor);
-
-		log.info("....crawl!");
-
+		if (crawlMode == CrawlMode.NODE_BY_NODE) {
+			return new IrodsVisitedComposite(startingPoint);
+		}
+		return new IrodsBatchVisitedComposite(startingPoint.getAbsolutePath(), startingPoint.getIrodsFileSystemAO(),
+				new CollectionBatchFetcher(getIrodsAccessObjectFactory(), getIrodsAccount()), crawlMode);
 	}
 
 }
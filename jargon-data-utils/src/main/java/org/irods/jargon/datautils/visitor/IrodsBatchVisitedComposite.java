@@ -0,0 +1,120 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A collection visited by a batched crawl. Rather than listing its children
+ * and leaving each child to query its own metadata, the collection gets its
+ * children and their AVUs from a {@link CollectionBatchFetcher}, either per
+ * collection or once for the whole subtree, according to the
+ * {@link CrawlMode}. The children then carry their AVUs as
+ * {@link PrefetchedMetadata}.
+ *
+ */
+public class IrodsBatchVisitedComposite extends IrodsVisitedComposite implements PrefetchedMetadata {
+
+	public static final Logger log = LoggerFactory.getLogger(IrodsBatchVisitedComposite.class);
+
+	private static final long serialVersionUID = -4529404409474307128L;
+
+	private final transient CollectionBatchFetcher collectionBatchFetcher;
+	private final CrawlMode crawlMode;
+	private final List<MetaDataAndDomainData> prefetchedMetadata;
+	private final IrodsBatchVisitedComposite parent;
+
+	/**
+	 * Batches listed for the subtree and not yet visited, kept by the starting
+	 * collection of a {@link CrawlMode#BATCH_SUBTREE} crawl. Listed when the
+	 * starting collection is entered, before any child exists, and then taken
+	 * by collections that may be visited on several threads.
+	 */
+	private transient volatile Map<String, CollectionBatch> subtreeBatches = null;
+
+	/**
+	 * Create the starting collection of a batched crawl
+	 *
+	 * @param pathName
+	 *            {@code String} with the collection path
+	 * @param irodsFileSystemAO
+	 *            {@link IRODSFileSystemAO}
+	 * @param collectionBatchFetcher
+	 *            {@link CollectionBatchFetcher} that lists the children
+	 * @param crawlMode
+	 *            {@link CrawlMode} that is one of the batched modes
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public IrodsBatchVisitedComposite(final String pathName, final IRODSFileSystemAO irodsFileSystemAO,
+			final CollectionBatchFetcher collectionBatchFetcher, final CrawlMode crawlMode) throws JargonException {
+		super(pathName, irodsFileSystemAO);
+		if (collectionBatchFetcher == null) {
+			throw new IllegalArgumentException("null collectionBatchFetcher");
+		}
+		if (crawlMode == null || crawlMode == CrawlMode.NODE_BY_NODE) {
+			throw new IllegalArgumentException("crawlMode must be a batched mode");
+		}
+		this.collectionBatchFetcher = collectionBatchFetcher;
+		this.crawlMode = crawlMode;
+		prefetchedMetadata = null;
+		parent = null;
+	}
+
+	private IrodsBatchVisitedComposite(final String pathName, final IrodsBatchVisitedComposite parent,
+			final List<MetaDataAndDomainData> prefetchedMetadata) throws JargonException {
+		super(pathName, parent.getIrodsFileSystemAO());
+		collectionBatchFetcher = parent.collectionBatchFetcher;
+		crawlMode = parent.crawlMode;
+		this.prefetchedMetadata = prefetchedMetadata;
+		this.parent = parent;
+	}
+
+	@Override
+	public List<MetaDataAndDomainData> getPrefetchedMetadata() {
+		return prefetchedMetadata;
+	}
+
+	/*
+	 * Collections come before data objects, as for a listing
+	 */
+	@Override
+	protected List<IrodsFileItem> listChildren() throws JargonException {
+		CollectionBatch batch = obtainBatch();
+		List<IrodsFileItem> children = new ArrayList<IrodsFileItem>();
+		for (String path : batch.getCollectionPaths()) {
+			children.add(new IrodsBatchVisitedComposite(path, this, batch.getMetadata(path)));
+		}
+		for (String path : batch.getDataObjectPaths()) {
+			children.add(new IrodsBatchVisitedLeaf(path, getIrodsFileSystemAO(), batch.getMetadata(path)));
+		}
+		return children;
+	}
+
+	private CollectionBatch obtainBatch() throws JargonException {
+		if (crawlMode == CrawlMode.BATCH_SUBTREE) {
+			IrodsBatchVisitedComposite start = this;
+			while (start.parent != null) {
+				start = start.parent;
+			}
+			if (start.subtreeBatches == null) {
+				start.subtreeBatches = new ConcurrentHashMap<String, CollectionBatch>(
+						collectionBatchFetcher.fetchSubtree(start.getAbsolutePath()));
+			}
+			CollectionBatch batch = start.subtreeBatches.remove(getAbsolutePath());
+			if (batch != null) {
+				return batch;
+			}
+			log.warn("collection not in subtree listing, fetching it alone:{}", getAbsolutePath());
+		}
+		return collectionBatchFetcher.fetchCollection(getAbsolutePath());
+	}
+
+}
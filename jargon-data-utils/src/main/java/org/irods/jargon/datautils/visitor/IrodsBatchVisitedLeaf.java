@@ -0,0 +1,42 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+
+/**
+ * A data object visited by a batched crawl, carrying the AVUs found when its
+ * parent collection was listed
+ *
+ */
+public class IrodsBatchVisitedLeaf extends IrodsVisitedLeaf implements PrefetchedMetadata {
+
+	private static final long serialVersionUID = 6107741389519203718L;
+
+	private final List<MetaDataAndDomainData> prefetchedMetadata;
+
+	/**
+	 * @param pathName
+	 *            {@code String} with the data object path
+	 * @param irodsFileSystemAO
+	 *            {@link IRODSFileSystemAO}
+	 * @param prefetchedMetadata
+	 *            {@code List} of {@link MetaDataAndDomainData} with the AVUs of
+	 *            the data object
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public IrodsBatchVisitedLeaf(final String pathName, final IRODSFileSystemAO irodsFileSystemAO,
+			final List<MetaDataAndDomainData> prefetchedMetadata) throws JargonException {
+		super(pathName, irodsFileSystemAO);
+		this.prefetchedMetadata = prefetchedMetadata;
+	}
+
+	@Override
+	public List<MetaDataAndDomainData> getPrefetchedMetadata() {
+		return prefetchedMetadata;
+	}
+
+}
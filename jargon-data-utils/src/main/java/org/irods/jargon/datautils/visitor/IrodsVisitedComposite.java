@@ -4,6 +4,8 @@
 package org.irods.jargon.datautils.visitor;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSFileSystemAO;
@@ -92,19 +94,10 @@ public class IrodsVisitedComposite extends IrodsFileItem implements HierComposit
 		if (visitorEntered) { // enter this node?
 
 			log.debug("entering...");
-			for (File file : this.listFiles()) {
-				if (file.isDirectory()) {
-					IrodsVisitedComposite child = new IrodsVisitedComposite((IRODSFileImpl) file);
-					if (!child.accept(visitor)) {
-						log.info("child doesn't accept, short circuit rest of siblings at:{}", child.getAbsolutePath());
-						break;
-					}
-				} else {
-					IrodsVisitedLeaf leaf = new IrodsVisitedLeaf((IRODSFileImpl) file);
-					if (!leaf.accept(visitor)) {
-						log.info("child doesn't accept, short circuit rest of siblings at:{}", leaf.getAbsolutePath());
-						break;
-					}
+			for (IrodsFileItem child : listChildren()) {
+				if (!child.accept(visitor)) {
+					log.info("child doesn't accept, short circuit rest of siblings at:{}", child.getAbsolutePath());
+					break;
 				}
 			}
 
@@ -114,4 +107,24 @@ public class IrodsVisitedComposite extends IrodsFileItem implements HierComposit
 		return visitor.visitLeave(this, visitorEntered);
 	}
 
+	/**
+	 * List the children to visit in order, collections as
+	 * {@link IrodsVisitedComposite} and data objects as {@link IrodsVisitedLeaf}
+	 *
+	 * @return {@code List} of {@link IrodsFileItem} with the children
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	protected List<IrodsFileItem> listChildren() throws JargonException {
+		List<IrodsFileItem> children = new ArrayList<IrodsFileItem>();
+		for (File file : this.listFiles()) {
+			if (file.isDirectory()) {
+				children.add(new IrodsVisitedComposite((IRODSFileImpl) file));
+			} else {
+				children.add(new IrodsVisitedLeaf((IRODSFileImpl) file));
+			}
+		}
+		return children;
+	}
+
 }
@@ -0,0 +1,364 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Crawls a tree on several worker threads. Each collection is a task: the
+ * worker that takes it enters the collection, queues its child collections as
+ * new tasks and visits its data objects. Each worker takes tasks from the front
+ * of its own deque, depth first, and when that is empty steals from the back
+ * of the others, where the collections nearest the top, and so the largest
+ * subtrees, are.
+ * <p>
+ * Each worker uses its own connection, as connections are held per thread by
+ * the {@link IRODSSession}, and closes it when the crawl ends.
+ * <p>
+ * A collection is left once all of its children are done, and the children of
+ * a collection are left in the order they were listed, whichever worker
+ * finishes them, so that within each subtree the calls to
+ * {@link HierVisitor#visitLeave(HierComposite, boolean)} come in the same order
+ * as for a crawl on one thread. The calls for different subtrees, and the
+ * enters and visits, interleave. A child returning <code>false</code> stops
+ * those of its siblings that have not been started yet.
+ *
+ * @param <T>
+ *            type of the per subtree state of the visitor
+ */
+final class ParallelHierCrawler<T> {
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelHierCrawler.class);
+
+	/**
+	 * How long an idle worker waits before looking for work again, in case a
+	 * wake up is missed
+	 */
+	private static final long IDLE_WAIT_MILLIS = 10;
+
+	private final ConcurrentHierVisitor<T> visitor;
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final List<Deque<CollectionTask>> deques;
+	private final Object idleLock = new Object();
+	private final CountDownLatch done = new CountDownLatch(1);
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+	private volatile boolean finished = false;
+
+	/**
+	 * @param visitor
+	 *            {@link ConcurrentHierVisitor} called from all workers
+	 * @param irodsSession
+	 *            {@link IRODSSession} holding the connection of each worker
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} of the connections
+	 * @param numberOfWorkers
+	 *            {@code int} with the number of worker threads
+	 */
+	ParallelHierCrawler(final ConcurrentHierVisitor<T> visitor, final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount, final int numberOfWorkers) {
+		if (visitor == null) {
+			throw new IllegalArgumentException("null visitor");
+		}
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("numberOfWorkers must be 1 or more");
+		}
+		this.visitor = visitor;
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		deques = new ArrayList<Deque<CollectionTask>>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			deques.add(new ConcurrentLinkedDeque<CollectionTask>());
+		}
+	}
+
+	/**
+	 * Crawl from the given collection, returning when the starting collection has
+	 * been left, or a worker fails
+	 *
+	 * @param startingComposite
+	 *            {@link IrodsVisitedComposite} to start from
+	 * @throws JargonException
+	 *             if a worker fails
+	 */
+	void crawl(final IrodsVisitedComposite startingComposite) throws JargonException {
+		log.info("crawl() with {} workers", deques.size());
+		if (startingComposite == null) {
+			throw new IllegalArgumentException("null startingComposite");
+		}
+
+		deques.get(0).add(new CollectionTask(startingComposite, null, visitor.captureSubtreeState()));
+		final AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(deques.size(), new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "jargon-hier-crawl-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		try {
+			for (int i = 0; i < deques.size(); i++) {
+				executor.execute(new Worker(i));
+			}
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail(e);
+		} finally {
+			finished = true;
+			wakeIdleWorkers();
+			executor.shutdown();
+			awaitWorkers(executor);
+		}
+
+		Throwable cause = failure.get();
+		if (cause == null) {
+			log.info("crawl complete");
+			return;
+		}
+		if (cause instanceof JargonException) {
+			throw (JargonException) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		throw new JargonException("error in parallel crawl", cause);
+	}
+
+	private void awaitWorkers(final ExecutorService executor) {
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+				log.info("waiting for workers to finish their current collection");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("interrupted waiting for workers, leaving them to finish");
+		}
+	}
+
+	private boolean isStopping() {
+		return failure.get() != null || visitor.isAborted();
+	}
+
+	private void fail(final Throwable cause) {
+		log.error("parallel crawl failed", cause);
+		failure.compareAndSet(null, cause);
+		done.countDown();
+	}
+
+	private void wakeIdleWorkers() {
+		synchronized (idleLock) {
+			idleLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Enter a collection, queue its child collections and visit its data objects
+	 */
+	private void process(final CollectionTask task, final Deque<CollectionTask> own) throws JargonException {
+		if (isStopping() || task.parent != null && task.parent.shortCircuited) {
+			log.debug("skipping:{}", task.composite);
+			task.finished = true;
+			if (task.parent == null) {
+				leaveStartingCollection(task);
+			} else {
+				partDone(task.parent);
+			}
+			return;
+		}
+
+		visitor.restoreSubtreeState(task.parentState);
+		task.entered = visitor.visitEnter(task.composite);
+		task.started = true;
+		task.state = visitor.captureSubtreeState();
+
+		if (task.entered) {
+			List<CollectionTask> collections = new ArrayList<CollectionTask>();
+			List<IrodsFileItem> leaves = new ArrayList<IrodsFileItem>();
+			for (IrodsFileItem child : task.composite.listChildren()) {
+				if (child instanceof IrodsVisitedComposite) {
+					collections.add(new CollectionTask((IrodsVisitedComposite) child, task, task.state));
+				} else {
+					leaves.add(child);
+				}
+			}
+
+			synchronized (task) {
+				task.children = collections;
+				task.unfinished += collections.size();
+			}
+			// first child at the front, for the owner to take next
+			for (int i = collections.size() - 1; i >= 0; i--) {
+				own.addFirst(collections.get(i));
+			}
+			if (!collections.isEmpty()) {
+				wakeIdleWorkers();
+			}
+
+			for (IrodsFileItem leaf : leaves) {
+				if (isStopping() || task.shortCircuited) {
+					break;
+				}
+				if (!leaf.accept(visitor)) {
+					log.info("child doesn't accept, short circuit rest of siblings at:{}", leaf.getAbsolutePath());
+					task.shortCircuited = true;
+				}
+			}
+		}
+
+		partDone(task);
+	}
+
+	/**
+	 * Count one part of a collection as done, either its own listing and data
+	 * objects or one of its child collections, and leave the children that are
+	 * ready in order. Once all of it is done the collection is itself a finished
+	 * part of its parent.
+	 */
+	private void partDone(final CollectionTask task) {
+		CollectionTask current = task;
+		while (current != null) {
+			synchronized (current) {
+				current.unfinished--;
+				leaveReadyChildren(current);
+				if (current.unfinished > 0) {
+					return;
+				}
+				current.finished = true;
+			}
+			if (current.parent == null) {
+				leaveStartingCollection(current);
+				return;
+			}
+			current = current.parent;
+		}
+	}
+
+	private void leaveReadyChildren(final CollectionTask task) {
+		while (task.nextToLeave < task.children.size() && task.children.get(task.nextToLeave).finished) {
+			CollectionTask child = task.children.get(task.nextToLeave++);
+			if (child.started) {
+				visitor.restoreSubtreeState(child.state);
+				if (!visitor.visitLeave(child.composite, child.entered)) {
+					log.info("child doesn't accept, short circuit rest of siblings at:{}",
+							child.composite.getAbsolutePath());
+					task.shortCircuited = true;
+				}
+			}
+		}
+	}
+
+	private void leaveStartingCollection(final CollectionTask task) {
+		if (task.started) {
+			visitor.restoreSubtreeState(task.state);
+			visitor.visitLeave(task.composite, task.entered);
+		}
+		done.countDown();
+	}
+
+	/**
+	 * A collection in the crawl, with the progress of its children
+	 */
+	private final class CollectionTask {
+
+		private final IrodsVisitedComposite composite;
+		private final CollectionTask parent;
+		private final T parentState;
+		private volatile T state;
+		private volatile boolean started = false;
+		private volatile boolean entered = false;
+		private volatile boolean finished = false;
+		private volatile boolean shortCircuited = false;
+		private List<CollectionTask> children = Collections.emptyList();
+		private int nextToLeave = 0;
+
+		/**
+		 * Parts of the collection not done yet, its own work and then each child
+		 * collection
+		 */
+		private int unfinished = 1;
+
+		private CollectionTask(final IrodsVisitedComposite composite, final CollectionTask parent,
+				final T parentState) {
+			this.composite = composite;
+			this.parent = parent;
+			this.parentState = parentState;
+		}
+	}
+
+	private final class Worker implements Runnable {
+
+		private final int index;
+
+		private Worker(final int index) {
+			this.index = index;
+		}
+
+		@Override
+		public void run() {
+			Deque<CollectionTask> own = deques.get(index);
+			try {
+				CollectionTask task;
+				while ((task = nextTask(own)) != null) {
+					process(task, own);
+				}
+			} catch (Throwable t) {
+				fail(t);
+			} finally {
+				visitor.restoreSubtreeState(null);
+				try {
+					irodsSession.closeSession(irodsAccount);
+				} catch (JargonException e) {
+					log.warn("error closing connection of crawl worker", e);
+				}
+			}
+		}
+
+		private CollectionTask nextTask(final Deque<CollectionTask> own) throws InterruptedException {
+			while (!finished) {
+				CollectionTask task = own.pollFirst();
+				if (task != null) {
+					return task;
+				}
+				for (int i = 1; i < deques.size(); i++) {
+					task = deques.get((index + i) % deques.size()).pollLast();
+					if (task != null) {
+						log.debug("worker {} stole:{}", index, task.composite);
+						return task;
+					}
+				}
+				synchronized (idleLock) {
+					idleLock.wait(IDLE_WAIT_MILLIS);
+				}
+			}
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,22 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.List;
+
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+
+/**
+ * Implemented by nodes of a batched crawl that carry the AVUs found for them
+ * when their parent collection was listed, so that a visitor does not need to
+ * query for them again
+ *
+ */
+public interface PrefetchedMetadata {
+
+	/**
+	 * @return {@code List} of {@link MetaDataAndDomainData} with the AVUs of the
+	 *         node, or <code>null</code> if they were not prefetched (as for the
+	 *         starting collection of a crawl) and must be queried
+	 */
+	List<MetaDataAndDomainData> getPrefetchedMetadata();
+
+}
@@ -0,0 +1,649 @@
+package org.irods.jargon.mockserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+
+/**
+ * Evaluates a {@code GenQueryInp_PI} against the {@link MockCatalog}.
+ * <p>
+ * Only the user (2xx), data object (4xx), collection (5xx), data object and
+ * collection metadata (60x and 61x) and collection access column families are
+ * modeled. A query on user columns alone returns one row per user. Otherwise a
+ * query selecting any data object column returns one row per data object,
+ * joined with its collection, or one row per AVU of each data object if it
+ * refers to data object metadata, and a query on collection access columns
+ * returns one row per collection, joined with the own access of its owner,
+ * otherwise one row per collection, or one row per AVU of each collection if it
+ * refers to collection metadata. A query that refers to any other column
+ * (resources, data object access), mixes users with other families, or mixes
+ * metadata with access or the other kind of metadata finds no rows.
+ */
+class GenQueryEvaluator {
+
+	static final int NO_DISTINCT = 1;
+	static final int RETURN_TOTAL_ROW_COUNT = 32;
+	static final int UPPER_CASE_WHERE = 512;
+
+	static final int SELECT_FIELD = 1;
+	static final int SELECT_MIN = 2;
+	static final int SELECT_MAX = 3;
+	static final int SELECT_SUM = 4;
+	static final int SELECT_AVG = 5;
+	static final int SELECT_COUNT = 6;
+	static final int ORDER_BY = 1024;
+	static final int ORDER_BY_DESC = 2048;
+
+	private static final int DATA_FIRST = 401;
+	private static final int DATA_LAST = 423;
+	private static final int COLL_FIRST = 500;
+	private static final int COLL_LAST = 512;
+	private static final int USER_FIRST = 201;
+	private static final int USER_LAST = 209;
+	private static final int META_DATA_FIRST = 600;
+	private static final int META_DATA_LAST = 605;
+	private static final int META_COLL_FIRST = 610;
+	private static final int META_COLL_LAST = 615;
+	private static final int COLL_ACCESS_TYPE = 710;
+	private static final int COLL_ACCESS_NAME = 711;
+	private static final int COLL_ACCESS_USER_ID = 713;
+	private static final int COLL_ACCESS_COLL_ID = 714;
+	private static final int COLL_ACCESS_USER_NAME = 1300;
+	private static final int COLL_ACCESS_USER_ZONE = 1301;
+
+	/**
+	 * Numeric access type of own
+	 */
+	private static final String OWN_ACCESS_TYPE = "1200";
+
+	private final MockCatalog catalog;
+	private final String resourceName;
+	private final String resourceId;
+
+	GenQueryEvaluator(final MockCatalog catalog, final String resourceName, final String resourceId) {
+		this.catalog = catalog;
+		this.resourceName = resourceName;
+		this.resourceId = resourceId;
+	}
+
+	/**
+	 * Result of a query, with one value per selected column in each row
+	 */
+	static class Result {
+		final int[] columns;
+		final List<String[]> rows;
+
+		Result(final int[] columns, final List<String[]> rows) {
+			this.columns = columns;
+			this.rows = rows;
+		}
+	}
+
+	/**
+	 * Run a query
+	 *
+	 * @param genQueryInp
+	 *            {@link Tag} with the {@code GenQueryInp_PI}
+	 * @return {@link Result} with every row of the query, before paging
+	 * @throws MockServerException
+	 *             if the query cannot be understood
+	 */
+	Result evaluate(final Tag genQueryInp) throws MockServerException {
+		int options = genQueryInp.getTag("options").getIntValue();
+		boolean upperCase = (options & UPPER_CASE_WHERE) != 0;
+
+		Tag selectTag = genQueryInp.getTag("InxIvalPair_PI");
+		int selectCount = selectTag.getTag("iiLen").getIntValue();
+		if (selectCount == 0) {
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "no select columns");
+		}
+		int[] columns = new int[selectCount];
+		int[] flags = new int[selectCount];
+		for (int i = 0; i < selectCount; i++) {
+			columns[i] = selectTag.getTag("inx", i).getIntValue();
+			flags[i] = selectTag.getTag("ivalue", i).getIntValue();
+		}
+
+		Tag conditionTag = genQueryInp.getTag("InxValPair_PI");
+		int conditionCount = conditionTag == null ? 0 : conditionTag.getTag("isLen").getIntValue();
+		List<Condition> conditions = new ArrayList<Condition>();
+		for (int i = 0; i < conditionCount; i++) {
+			conditions.add(Condition.parse(conditionTag.getTag("inx", i).getIntValue(),
+					conditionTag.getTag("svalue", i).getStringValue(), upperCase));
+		}
+
+		boolean dataObjectQuery = false;
+		boolean accessQuery = false;
+		boolean userQuery = false;
+		boolean collectionQuery = false;
+		boolean dataMetadataQuery = false;
+		boolean collectionMetadataQuery = false;
+		List<Integer> referenced = new ArrayList<Integer>();
+		for (int column : columns) {
+			referenced.add(column);
+		}
+		for (Condition condition : conditions) {
+			referenced.add(condition.column);
+		}
+		for (int column : referenced) {
+			if (column >= DATA_FIRST && column <= DATA_LAST) {
+				dataObjectQuery = true;
+			} else if (isCollectionAccessColumn(column)) {
+				accessQuery = true;
+			} else if (column >= USER_FIRST && column <= USER_LAST) {
+				userQuery = true;
+			} else if (column >= COLL_FIRST && column <= COLL_LAST) {
+				collectionQuery = true;
+			} else if (column >= META_DATA_FIRST && column <= META_DATA_LAST) {
+				dataObjectQuery = true;
+				dataMetadataQuery = true;
+			} else if (column >= META_COLL_FIRST && column <= META_COLL_LAST) {
+				collectionQuery = true;
+				collectionMetadataQuery = true;
+			} else {
+				return new Result(columns, new ArrayList<String[]>());
+			}
+		}
+		if (userQuery && (dataObjectQuery || accessQuery || collectionQuery)) {
+			return new Result(columns, new ArrayList<String[]>());
+		}
+		if ((dataMetadataQuery || collectionMetadataQuery) && accessQuery
+				|| dataMetadataQuery && collectionMetadataQuery) {
+			return new Result(columns, new ArrayList<String[]>());
+		}
+
+		List<String[]> matched = new ArrayList<String[]>();
+		Map<Integer, String> values = new HashMap<Integer, String>();
+		if (userQuery) {
+			for (Map.Entry<String, Long> user : catalog.listUsers().entrySet()) {
+				values.clear();
+				putUserValues(values, user.getKey(), user.getValue());
+				addIfMatched(values, columns, conditions, matched);
+			}
+		} else if (accessQuery && !dataObjectQuery) {
+			Map<String, Long> users = catalog.listUsers();
+			for (MockCollection collection : catalog.listCollections()) {
+				Long ownerId = users.get(collection.getOwnerName());
+				if (ownerId == null) {
+					continue;
+				}
+				values.clear();
+				putCollectionValues(values, collection);
+				putCollectionAccessValues(values, collection, ownerId);
+				addIfMatched(values, columns, conditions, matched);
+			}
+		} else if (accessQuery) {
+			return new Result(columns, new ArrayList<String[]>());
+		} else if (dataObjectQuery) {
+			Map<String, MockCollection> collections = new HashMap<String, MockCollection>();
+			for (MockCollection collection : catalog.listCollections()) {
+				collections.put(collection.getPath(), collection);
+			}
+			for (MockDataObject dataObject : catalog.listDataObjects()) {
+				MockCollection collection = collections.get(dataObject.getCollectionPath());
+				if (collection == null) {
+					continue;
+				}
+				values.clear();
+				putCollectionValues(values, collection);
+				putDataObjectValues(values, dataObject);
+				if (dataMetadataQuery) {
+					addForEachAvu(values, META_DATA_FIRST, dataObject.getId(),
+							catalog.findMetadata(dataObject.getPath()), columns, conditions, matched);
+				} else {
+					addIfMatched(values, columns, conditions, matched);
+				}
+			}
+		} else {
+			for (MockCollection collection : catalog.listCollections()) {
+				values.clear();
+				putCollectionValues(values, collection);
+				if (collectionMetadataQuery) {
+					addForEachAvu(values, META_COLL_FIRST, collection.getId(),
+							catalog.findMetadata(collection.getPath()), columns, conditions, matched);
+				} else {
+					addIfMatched(values, columns, conditions, matched);
+				}
+			}
+		}
+
+		List<String[]> rows = aggregate(matched, flags);
+		if ((options & NO_DISTINCT) == 0) {
+			rows = distinct(rows);
+		}
+		Collections.sort(rows, new RowComparator(flags));
+		return new Result(columns, rows);
+	}
+
+	private static void addIfMatched(final Map<Integer, String> values, final int[] columns,
+			final List<Condition> conditions, final List<String[]> matched) {
+		for (Condition condition : conditions) {
+			if (!condition.matches(values.get(condition.column))) {
+				return;
+			}
+		}
+		String[] row = new String[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			row[i] = values.get(columns[i]);
+		}
+		matched.add(row);
+	}
+
+	/**
+	 * Join a collection or data object with each of its AVUs. AVU ids are made up
+	 * from the id of the object and the position of the AVU.
+	 */
+	private static void addForEachAvu(final Map<Integer, String> values, final int firstColumn, final long objectId,
+			final List<AvuData> avus, final int[] columns, final List<Condition> conditions,
+			final List<String[]> matched) {
+		for (int i = 0; i < avus.size(); i++) {
+			AvuData avu = avus.get(i);
+			values.put(firstColumn, avu.getAttribute());
+			values.put(firstColumn + 1, avu.getValue());
+			values.put(firstColumn + 2, avu.getUnit());
+			values.put(firstColumn + 3, String.valueOf(objectId * 1000L + i + 1));
+			values.put(firstColumn + 4, formatTime(0));
+			values.put(firstColumn + 5, formatTime(0));
+			addIfMatched(values, columns, conditions, matched);
+		}
+	}
+
+	private void putCollectionValues(final Map<Integer, String> values, final MockCollection collection) {
+		values.put(500, String.valueOf(collection.getId()));
+		values.put(501, collection.getPath());
+		values.put(502, collection.getParentPath());
+		values.put(503, collection.getOwnerName());
+		values.put(504, collection.getOwnerZone());
+		values.put(505, "0");
+		values.put(506, "");
+		values.put(507, "");
+		values.put(508, formatTime(collection.getCreateTime()));
+		values.put(509, formatTime(collection.getModifyTime()));
+		values.put(510, "");
+		values.put(511, "");
+		values.put(512, "");
+	}
+
+	private static boolean isCollectionAccessColumn(final int column) {
+		return column == COLL_ACCESS_TYPE || column == COLL_ACCESS_NAME || column == COLL_ACCESS_USER_ID
+				|| column == COLL_ACCESS_COLL_ID || column == COLL_ACCESS_USER_NAME || column == COLL_ACCESS_USER_ZONE;
+	}
+
+	private void putUserValues(final Map<Integer, String> values, final String userName, final long userId) {
+		values.put(201, String.valueOf(userId));
+		values.put(202, userName);
+		values.put(203, "rods".equals(userName) ? "rodsadmin" : "rodsuser");
+		values.put(204, catalog.getZone());
+		values.put(206, "");
+		values.put(207, "");
+		values.put(208, formatTime(0));
+		values.put(209, formatTime(0));
+	}
+
+	private void putCollectionAccessValues(final Map<Integer, String> values, final MockCollection collection,
+			final long ownerId) {
+		values.put(COLL_ACCESS_TYPE, OWN_ACCESS_TYPE);
+		values.put(COLL_ACCESS_NAME, "own");
+		values.put(COLL_ACCESS_USER_ID, String.valueOf(ownerId));
+		values.put(COLL_ACCESS_COLL_ID, String.valueOf(collection.getId()));
+		values.put(COLL_ACCESS_USER_NAME, collection.getOwnerName());
+		values.put(COLL_ACCESS_USER_ZONE, collection.getOwnerZone());
+	}
+
+	private void putDataObjectValues(final Map<Integer, String> values, final MockDataObject dataObject) {
+		values.put(401, String.valueOf(dataObject.getId()));
+		values.put(402, String.valueOf(dataObject.getCollectionId()));
+		values.put(403, dataObject.getName());
+		values.put(404, "0");
+		values.put(405, "");
+		values.put(406, "generic");
+		values.put(407, String.valueOf(dataObject.getLength()));
+		values.put(408, "");
+		values.put(409, resourceName);
+		values.put(410, "/var/lib/irods/Vault" + dataObject.getPath());
+		values.put(411, dataObject.getOwnerName());
+		values.put(412, dataObject.getOwnerZone());
+		values.put(413, "1");
+		values.put(414, "");
+		values.put(415, dataObject.getChecksum());
+		values.put(416, "");
+		values.put(417, "0");
+		values.put(418, "");
+		values.put(419, formatTime(dataObject.getCreateTime()));
+		values.put(420, formatTime(dataObject.getModifyTime()));
+		values.put(421, "0");
+		values.put(422, resourceName);
+		values.put(423, resourceId);
+	}
+
+	/**
+	 * Times are kept in the catalog as zero padded seconds since the epoch
+	 */
+	static String formatTime(final long seconds) {
+		return String.format("%011d", seconds);
+	}
+
+	private static List<String[]> aggregate(final List<String[]> matched, final int[] flags) {
+		boolean aggregated = false;
+		for (int flag : flags) {
+			if (isAggregate(flag)) {
+				aggregated = true;
+			}
+		}
+		if (!aggregated) {
+			return matched;
+		}
+
+		Map<List<String>, List<String[]>> groups = new LinkedHashMap<List<String>, List<String[]>>();
+		for (String[] row : matched) {
+			List<String> key = new ArrayList<String>();
+			for (int i = 0; i < flags.length; i++) {
+				if (!isAggregate(flags[i])) {
+					key.add(row[i]);
+				}
+			}
+			List<String[]> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<String[]>();
+				groups.put(key, group);
+			}
+			group.add(row);
+		}
+
+		if (groups.isEmpty() && groupedColumnCount(flags) == 0) {
+			groups.put(new ArrayList<String>(), new ArrayList<String[]>());
+		}
+
+		List<String[]> rows = new ArrayList<String[]>();
+		for (List<String[]> group : groups.values()) {
+			String[] row = new String[flags.length];
+			for (int i = 0; i < flags.length; i++) {
+				if (isAggregate(flags[i])) {
+					row[i] = aggregateColumn(group, i, flags[i]);
+				} else {
+					row[i] = group.get(0)[i];
+				}
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	private static boolean isAggregate(final int flag) {
+		return flag >= SELECT_MIN && flag <= SELECT_COUNT;
+	}
+
+	private static int groupedColumnCount(final int[] flags) {
+		int count = 0;
+		for (int flag : flags) {
+			if (!isAggregate(flag)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static String aggregateColumn(final List<String[]> group, final int column, final int flag) {
+		if (flag == SELECT_COUNT) {
+			return String.valueOf(group.size());
+		}
+		if (group.isEmpty()) {
+			return "";
+		}
+		if (flag == SELECT_MIN || flag == SELECT_MAX) {
+			String result = group.get(0)[column];
+			for (String[] row : group) {
+				int compared = compareValues(row[column], result);
+				if (flag == SELECT_MIN ? compared < 0 : compared > 0) {
+					result = row[column];
+				}
+			}
+			return result;
+		}
+		long sum = 0L;
+		for (String[] row : group) {
+			try {
+				sum += Long.parseLong(row[column]);
+			} catch (NumberFormatException e) {
+				// not numeric, contributes nothing
+			}
+		}
+		if (flag == SELECT_SUM) {
+			return String.valueOf(sum);
+		}
+		return String.valueOf((double) sum / group.size());
+	}
+
+	private static List<String[]> distinct(final List<String[]> rows) {
+		Set<List<String>> seen = new LinkedHashSet<List<String>>();
+		List<String[]> distinct = new ArrayList<String[]>();
+		for (String[] row : rows) {
+			List<String> key = new ArrayList<String>(row.length);
+			Collections.addAll(key, row);
+			if (seen.add(key)) {
+				distinct.add(row);
+			}
+		}
+		return distinct;
+	}
+
+	/**
+	 * Compare as numbers when both values are numeric, otherwise as strings
+	 */
+	static int compareValues(final String left, final String right) {
+		if (left == null || right == null) {
+			return left == null ? (right == null ? 0 : -1) : 1;
+		}
+		try {
+			return Long.compare(Long.parseLong(left), Long.parseLong(right));
+		} catch (NumberFormatException e) {
+			return left.compareTo(right);
+		}
+	}
+
+	/**
+	 * Orders by the columns flagged for ordering, or by every column in select
+	 * order when none are
+	 */
+	private static class RowComparator implements Comparator<String[]> {
+
+		private final int[] flags;
+		private final boolean ordered;
+
+		RowComparator(final int[] flags) {
+			this.flags = flags;
+			boolean anyOrdered = false;
+			for (int flag : flags) {
+				if (flag == ORDER_BY || flag == ORDER_BY_DESC) {
+					anyOrdered = true;
+				}
+			}
+			ordered = anyOrdered;
+		}
+
+		@Override
+		public int compare(final String[] left, final String[] right) {
+			for (int i = 0; i < flags.length; i++) {
+				if (ordered && flags[i] != ORDER_BY && flags[i] != ORDER_BY_DESC) {
+					continue;
+				}
+				int compared = compareValues(left[i], right[i]);
+				if (compared != 0) {
+					return flags[i] == ORDER_BY_DESC ? -compared : compared;
+				}
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * One condition from the {@code InxValPair_PI}, such as {@code = 'value'} or
+	 * {@code like '/zone/home/%'}
+	 */
+	static class Condition {
+
+		private static final String[] OPERATORS = { "not like", "like", "not in", "in", "not between", "between",
+				"is not null", "is null", "<>", "!=", "<=", ">=", "=", "<", ">" };
+
+		final int column;
+		private final String operator;
+		private final List<String> operands;
+		private final boolean upperCase;
+		private final Pattern pattern;
+
+		private Condition(final int column, final String operator, final List<String> operands,
+				final boolean upperCase) {
+			this.column = column;
+			this.operator = operator;
+			this.operands = operands;
+			this.upperCase = upperCase;
+			if (operator.endsWith("like")) {
+				pattern = likePattern(operands.isEmpty() ? "" : operands.get(0));
+			} else {
+				pattern = null;
+			}
+		}
+
+		static Condition parse(final int column, final String value, final boolean upperCase)
+				throws MockServerException {
+			String trimmed = value == null ? "" : value.trim();
+			String lower = trimmed.toLowerCase(Locale.ENGLISH);
+			for (String operator : OPERATORS) {
+				if (!lower.startsWith(operator)) {
+					continue;
+				}
+				String rest = trimmed.substring(operator.length());
+				if (Character.isLetter(operator.charAt(0)) && !rest.isEmpty()
+						&& Character.isLetterOrDigit(rest.charAt(0))) {
+					continue;
+				}
+				List<String> operands = parseOperands(rest);
+				if (upperCase) {
+					for (int i = 0; i < operands.size(); i++) {
+						operands.set(i, operands.get(i).toUpperCase(Locale.ENGLISH));
+					}
+				}
+				return new Condition(column, operator, operands, upperCase);
+			}
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "unsupported condition:" + value);
+		}
+
+		/**
+		 * Quoted literals, or whitespace and comma separated bare values when there
+		 * are none
+		 */
+		private static List<String> parseOperands(final String rest) {
+			List<String> operands = new ArrayList<String>();
+			int i = 0;
+			while (i < rest.length()) {
+				if (rest.charAt(i) != '\'') {
+					i++;
+					continue;
+				}
+				StringBuilder literal = new StringBuilder();
+				i++;
+				while (i < rest.length()) {
+					char c = rest.charAt(i);
+					if (c == '\'') {
+						if (i + 1 < rest.length() && rest.charAt(i + 1) == '\'') {
+							literal.append('\'');
+							i += 2;
+							continue;
+						}
+						break;
+					}
+					literal.append(c);
+					i++;
+				}
+				operands.add(literal.toString());
+				i++;
+			}
+			if (operands.isEmpty()) {
+				for (String bare : rest.replace('(', ' ').replace(')', ' ').split("[\\s,]+")) {
+					if (!bare.isEmpty()) {
+						operands.add(bare);
+					}
+				}
+			}
+			return operands;
+		}
+
+		private static Pattern likePattern(final String like) {
+			StringBuilder regex = new StringBuilder();
+			for (int i = 0; i < like.length(); i++) {
+				char c = like.charAt(i);
+				if (c == '\\' && i + 1 < like.length()) {
+					regex.append(Pattern.quote(String.valueOf(like.charAt(++i))));
+				} else if (c == '%') {
+					regex.append(".*");
+				} else if (c == '_') {
+					regex.append('.');
+				} else {
+					regex.append(Pattern.quote(String.valueOf(c)));
+				}
+			}
+			return Pattern.compile(regex.toString(), Pattern.DOTALL);
+		}
+
+		boolean matches(final String rawValue) {
+			if (operator.equals("is null")) {
+				return rawValue == null || rawValue.isEmpty();
+			}
+			if (operator.equals("is not null")) {
+				return rawValue != null && !rawValue.isEmpty();
+			}
+			if (rawValue == null) {
+				return false;
+			}
+			String value = upperCase ? rawValue.toUpperCase(Locale.ENGLISH) : rawValue;
+			if (pattern != null) {
+				boolean found = pattern.matcher(value).matches();
+				return operator.equals("like") ? found : !found;
+			}
+			if (operator.endsWith("in")) {
+				boolean found = false;
+				for (String operand : operands) {
+					if (compareValues(value, operand) == 0) {
+						found = true;
+					}
+				}
+				return operator.equals("in") ? found : !found;
+			}
+			if (operator.endsWith("between")) {
+				boolean between = operands.size() == 2 && compareValues(value, operands.get(0)) >= 0
+						&& compareValues(value, operands.get(1)) <= 0;
+				return operator.equals("between") ? between : !between;
+			}
+			if (operands.isEmpty()) {
+				return false;
+			}
+			int compared = compareValues(value, operands.get(0));
+			if (operator.equals("=")) {
+				return compared == 0;
+			} else if (operator.equals("<>") || operator.equals("!=")) {
+				return compared != 0;
+			} else if (operator.equals("<")) {
+				return compared < 0;
+			} else if (operator.equals(">")) {
+				return compared > 0;
+			} else if (operator.equals("<=")) {
+				return compared <= 0;
+			} else {
+				return compared >= 0;
+			}
+		}
+	}
+
+}
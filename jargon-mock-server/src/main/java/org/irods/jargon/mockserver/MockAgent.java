@@ -0,0 +1,694 @@
+package org.irods.jargon.mockserver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.utils.Base64;
+import org.irods.jargon.core.utils.IRODSConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Serves one client connection to the {@link MockIRODSServer}, playing the part
+ * of an iRODS agent: the startup handshake and client server negotiation,
+ * native authentication, and then API requests until the client disconnects.
+ */
+class MockAgent implements Runnable {
+
+	private static final Logger log = LoggerFactory.getLogger(MockAgent.class);
+
+	static final int MISC_SVR_INFO_AN = 700;
+	static final int AUTH_REQUEST_AN = 703;
+	static final int AUTH_RESPONSE_AN = 704;
+	static final int OBJ_STAT_AN = 633;
+	static final int GEN_QUERY_AN = 702;
+	static final int DATA_OBJ_CREATE_AN = 601;
+	static final int DATA_OBJ_OPEN_AN = 602;
+	static final int DATA_OBJ_PUT_AN = 606;
+	static final int DATA_OBJ_GET_AN = 608;
+	static final int DATA_OBJ_UNLINK_AN = 615;
+	static final int OPR_COMPLETE_AN = 626;
+	static final int DATA_OBJ_RENAME_AN = 627;
+	static final int DATA_OBJ_CHKSUM_AN = 629;
+	static final int DATA_OBJ_CLOSE_AN = 673;
+	static final int DATA_OBJ_LSEEK_AN = 674;
+	static final int DATA_OBJ_READ_AN = 675;
+	static final int DATA_OBJ_WRITE_AN = 676;
+	static final int RM_COLL_AN = 679;
+	static final int COLL_CREATE_AN = 681;
+	static final int GET_HOST_FOR_PUT_AN = 686;
+	static final int GET_HOST_FOR_GET_AN = 694;
+	static final int MOD_AVU_METADATA_AN = 706;
+	static final int STRUCT_FILE_EXT_AND_REG_AN = 665;
+
+	private static final int O_WRONLY = 1;
+	private static final int O_RDWR = 2;
+	private static final int O_CREAT = 64;
+	private static final int O_TRUNC = 512;
+	private static final int SEEK_CURRENT = 1;
+	private static final int SEEK_END = 2;
+	private static final int FIRST_DESCRIPTOR = 3;
+	private static final SecureRandom random = new SecureRandom();
+
+	private final MockIRODSServer server;
+	private final MockCatalog catalog;
+	private final GenQueryEvaluator genQueryEvaluator;
+	private final Socket socket;
+	private final Map<Integer, OpenDataObject> descriptors = new HashMap<Integer, OpenDataObject>();
+	private final Map<Integer, OpenQuery> queries = new HashMap<Integer, OpenQuery>();
+	private int nextDescriptor = FIRST_DESCRIPTOR;
+	private int nextQuery = 1;
+	private String userName = "";
+	private byte[] challenge;
+	private boolean authenticated = false;
+	private DataOutputStream out;
+
+	MockAgent(final MockIRODSServer server, final Socket socket) {
+		this.server = server;
+		this.socket = socket;
+		catalog = server.getCatalog();
+		genQueryEvaluator = new GenQueryEvaluator(catalog, MockIRODSServer.DEFAULT_RESOURCE,
+				MockIRODSServer.DEFAULT_RESOURCE_ID);
+	}
+
+	@Override
+	public void run() {
+		try {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+			out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+			if (!startup(in)) {
+				return;
+			}
+			while (true) {
+				ProtocolMessage request = ProtocolMessage.read(in);
+				if (request.getType().equals(IRODSConstants.RODS_DISCONNECT)) {
+					log.debug("client disconnected");
+					return;
+				}
+				server.countRequest();
+				dispatch(request);
+			}
+		} catch (EOFException e) {
+			log.debug("connection closed by client");
+		} catch (IOException e) {
+			log.debug("connection failed", e);
+		} finally {
+			for (OpenDataObject descriptor : descriptors.values()) {
+				if (descriptor.portal != null) {
+					descriptor.portal.close();
+				}
+			}
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+
+	/**
+	 * Read the startup pack, negotiate when asked, and send the version
+	 *
+	 * @return {@code boolean} of {@code true} if the client may go on to make
+	 *         requests
+	 */
+	private boolean startup(final DataInputStream in) throws IOException {
+		ProtocolMessage connect = ProtocolMessage.read(in);
+		if (!connect.getType().equals(IRODSConstants.RODS_CONNECT) || connect.getMessage() == null) {
+			throw new IOException("expected a startup pack");
+		}
+		Tag startupPack = connect.getMessage();
+		userName = startupPack.getTag("clientUser").getStringValue();
+		String option = startupPack.getTag("option").getStringValue();
+
+		if (option != null && option.contains("request_server_negotiation")) {
+			ProtocolMessage.write(out, IRODSConstants.RODS_NEG_REQ,
+					new Tag("CS_NEG_PI", new Tag[] { new Tag("status", 1), new Tag("result", "CS_NEG_DONT_CARE") }),
+					null, null, 0, 0);
+			ProtocolMessage negotiated = ProtocolMessage.read(in);
+			String result = negotiated.getMessage() == null ? ""
+					: negotiated.getMessage().getTag("result").getStringValue();
+			if (result.contains("CS_NEG_USE_SSL")) {
+				log.warn("client requires SSL, which the mock server does not support");
+				replyError(new MockServerException(ErrorEnum.SYS_NO_API_PRIV, "SSL is not supported"));
+				return false;
+			}
+		}
+
+		ProtocolMessage.write(out, IRODSConstants.RODS_VERSION,
+				new Tag("Version_PI",
+						new Tag[] { new Tag("status", 0), new Tag("relVersion", server.getReleaseVersion()),
+								new Tag("apiVersion", MockIRODSServer.API_VERSION), new Tag("reconnPort", 0),
+								new Tag("reconnAddr", ""), new Tag("cookie", 0) }),
+				null, null, 0, 0);
+		return true;
+	}
+
+	private void dispatch(final ProtocolMessage request) throws IOException {
+		int apiNumber = request.getIntInfo();
+		Tag message = request.getMessage();
+		try {
+			if (!authenticated && apiNumber != AUTH_REQUEST_AN && apiNumber != AUTH_RESPONSE_AN) {
+				throw new MockServerException(ErrorEnum.CAT_INVALID_AUTHENTICATION, "not authenticated");
+			}
+			switch (apiNumber) {
+			case AUTH_REQUEST_AN:
+				authRequest();
+				break;
+			case AUTH_RESPONSE_AN:
+				authResponse(message);
+				break;
+			case MISC_SVR_INFO_AN:
+				miscServerInfo();
+				break;
+			case OBJ_STAT_AN:
+				objStat(message);
+				break;
+			case GEN_QUERY_AN:
+				genQuery(message);
+				break;
+			case DATA_OBJ_CREATE_AN:
+			case DATA_OBJ_OPEN_AN:
+				openDataObject(message, apiNumber == DATA_OBJ_CREATE_AN);
+				break;
+			case DATA_OBJ_PUT_AN:
+				putDataObject(message, request.getByteStream());
+				break;
+			case DATA_OBJ_GET_AN:
+				getDataObject(message);
+				break;
+			case DATA_OBJ_UNLINK_AN:
+				catalog.removeDataObject(message.getTag("objPath").getStringValue());
+				reply(null, 0);
+				break;
+			case DATA_OBJ_RENAME_AN:
+				renameDataObject(message);
+				break;
+			case DATA_OBJ_CHKSUM_AN:
+				checksum(message);
+				break;
+			case OPR_COMPLETE_AN:
+				closeDescriptor(message.getTag("myInt").getIntValue());
+				reply(null, 0);
+				break;
+			case DATA_OBJ_CLOSE_AN:
+				closeDescriptor(message.getTag("l1descInx").getIntValue());
+				reply(null, 0);
+				break;
+			case DATA_OBJ_LSEEK_AN:
+				seek(message);
+				break;
+			case DATA_OBJ_READ_AN:
+				read(message);
+				break;
+			case DATA_OBJ_WRITE_AN:
+				write(message, request.getByteStream());
+				break;
+			case COLL_CREATE_AN:
+				catalog.createCollection(message.getTag("collName").getStringValue(), userName,
+						hasKeyword(message, "recursiveOpr"));
+				reply(null, 0);
+				break;
+			case RM_COLL_AN:
+				catalog.removeCollection(message.getTag("collName").getStringValue(),
+						hasKeyword(message, "recursiveOpr"));
+				reply(null, 0);
+				break;
+			case MOD_AVU_METADATA_AN:
+				modifyMetadata(message);
+				break;
+			case STRUCT_FILE_EXT_AND_REG_AN:
+				catalog.extractTar(message.getTag("objPath").getStringValue(),
+						message.getTag("collection").getStringValue(), userName, hasKeyword(message, "forceFlag"));
+				reply(null, 0);
+				break;
+			case ApiPluginConstants.ATOMIC_APPLY_METADATA_OPERATIONS_APN:
+				if (!server.isAtomicMetadataAvailable()) {
+					throw new MockServerException(ErrorEnum.SYS_UNMATCHED_API_NUM, "unsupported api:" + apiNumber);
+				}
+				atomicMetadata(message);
+				break;
+			case GET_HOST_FOR_PUT_AN:
+			case GET_HOST_FOR_GET_AN:
+				reply(new Tag("STR_PI", new Tag[] { new Tag("myStr", "thisAddress") }), 0);
+				break;
+			default:
+				throw new MockServerException(ErrorEnum.SYS_UNMATCHED_API_NUM, "unsupported api:" + apiNumber);
+			}
+		} catch (MockServerException e) {
+			log.debug("api {} failed:{}", apiNumber, e.getMessage());
+			replyError(e);
+		} catch (RuntimeException e) {
+			log.error("api {} failed", apiNumber, e);
+			replyError(new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, String.valueOf(e.getMessage())));
+		}
+	}
+
+	private void reply(final Tag message, final int intInfo) throws IOException {
+		ProtocolMessage.write(out, IRODSConstants.RODS_API_REPLY, message, null, null, 0, intInfo);
+	}
+
+	private void replyError(final MockServerException e) throws IOException {
+		Tag error = new Tag("RError_PI", new Tag[] { new Tag("count", 1), new Tag("RErrMsg_PI",
+				new Tag[] { new Tag("status", e.getErrorCode()), new Tag("msg", String.valueOf(e.getMessage())) }) });
+		ProtocolMessage.write(out, IRODSConstants.RODS_API_REPLY, null, error, null, 0, e.getErrorCode());
+	}
+
+	private void authRequest() throws IOException {
+		challenge = new byte[ConnectionConstants.CHALLENGE_LENGTH];
+		random.nextBytes(challenge);
+		reply(new Tag("authRequestOut_PI", new Tag[] { new Tag("challenge", Base64.toString(challenge)) }), 0);
+	}
+
+	private void authResponse(final Tag message) throws MockServerException, IOException {
+		String responseUser = message.getTag("username").getStringValue();
+		String password = server.getPassword(responseUser);
+		if (challenge == null || password == null
+				|| !expectedResponse(challenge, password).equals(message.getTag("response").getStringValue())) {
+			throw new MockServerException(ErrorEnum.CAT_INVALID_AUTHENTICATION, "authentication failed");
+		}
+		userName = responseUser;
+		authenticated = true;
+		challenge = null;
+		reply(null, 0);
+	}
+
+	/**
+	 * The native scheme answer: md5 of the challenge followed by the zero padded
+	 * password, with zero bytes raised to one
+	 */
+	static String expectedResponse(final byte[] challenge, final String password) {
+		byte[] buffer = new byte[ConnectionConstants.CHALLENGE_LENGTH + ConnectionConstants.MAX_PASSWORD_LENGTH];
+		System.arraycopy(challenge, 0, buffer, 0, challenge.length);
+		byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+		System.arraycopy(passwordBytes, 0, buffer, ConnectionConstants.CHALLENGE_LENGTH,
+				Math.min(passwordBytes.length, ConnectionConstants.MAX_PASSWORD_LENGTH));
+		byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("MD5").digest(buffer);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("no MD5 available", e);
+		}
+		for (int i = 0; i < digest.length; i++) {
+			if (digest[i] == 0) {
+				digest[i] = 1;
+			}
+		}
+		return Base64.toString(digest);
+	}
+
+	private void miscServerInfo() throws IOException {
+		reply(new Tag("MiscSvrInfo_PI",
+				new Tag[] { new Tag("serverType", 1), new Tag("serverBootTime", server.getBootTime()),
+						new Tag("relVersion", server.getReleaseVersion()),
+						new Tag("apiVersion", MockIRODSServer.API_VERSION), new Tag("rodsZone", catalog.getZone()) }),
+				0);
+	}
+
+	private void objStat(final Tag message) throws MockServerException, IOException {
+		String path = MockCatalog.normalize(message.getTag("objPath").getStringValue());
+		MockDataObject dataObject = catalog.findDataObject(path);
+		if (dataObject != null) {
+			reply(objStatTag(dataObject.getLength(), 1, dataObject.getId(), dataObject.getOwnerName(),
+					dataObject.getOwnerZone(), dataObject.getCreateTime(), dataObject.getModifyTime()), 0);
+			return;
+		}
+		MockCollection collection = catalog.findCollection(path);
+		if (collection != null) {
+			reply(objStatTag(0L, 2, collection.getId(), collection.getOwnerName(), collection.getOwnerZone(),
+					collection.getCreateTime(), collection.getModifyTime()), 0);
+			return;
+		}
+		throw new MockServerException(ErrorEnum.USER_FILE_DOES_NOT_EXIST, path);
+	}
+
+	private static Tag objStatTag(final long size, final int type, final long id, final String owner,
+			final String zone, final long createTime, final long modifyTime) {
+		return new Tag("RodsObjStat_PI",
+				new Tag[] { new Tag("objSize", size), new Tag("objType", type), new Tag("dataMode", 0),
+						new Tag("dataId", String.valueOf(id)), new Tag("chksum", ""), new Tag("ownerName", owner),
+						new Tag("ownerZone", zone), new Tag("createTime", GenQueryEvaluator.formatTime(createTime)),
+						new Tag("modifyTime", GenQueryEvaluator.formatTime(modifyTime)) });
+	}
+
+	private void genQuery(final Tag message) throws MockServerException, IOException {
+		int maxRows = message.getTag("maxRows").getIntValue();
+		int continueIndex = message.getTag("continueInx").getIntValue();
+
+		OpenQuery query;
+		if (continueIndex > 0) {
+			query = queries.remove(continueIndex);
+			if (maxRows <= 0) {
+				reply(null, 0);
+				return;
+			}
+			if (query == null) {
+				throw new MockServerException(ErrorEnum.CAT_NO_ROWS_FOUND, "no open query:" + continueIndex);
+			}
+		} else {
+			if (maxRows <= 0) {
+				reply(null, 0);
+				return;
+			}
+			int options = message.getTag("options").getIntValue();
+			query = new OpenQuery(genQueryEvaluator.evaluate(message),
+					(options & GenQueryEvaluator.RETURN_TOTAL_ROW_COUNT) != 0);
+			query.position = Math.max(0, message.getTag("partialStartIndex").getIntValue());
+		}
+
+		List<String[]> rows = query.result.rows;
+		int end = Math.min(rows.size(), query.position + maxRows);
+		if (query.position >= end) {
+			throw new MockServerException(ErrorEnum.CAT_NO_ROWS_FOUND, "no rows found");
+		}
+		int start = query.position;
+		query.position = end;
+		int continuation = 0;
+		if (end < rows.size()) {
+			continuation = nextQuery++;
+			queries.put(continuation, query);
+		}
+		reply(genQueryOut(query, start, end, continuation), 0);
+	}
+
+	private static Tag genQueryOut(final OpenQuery query, final int start, final int end, final int continuation) {
+		int[] columns = query.result.columns;
+		List<String[]> rows = query.result.rows;
+		Tag out = new Tag("GenQueryOut_PI",
+				new Tag[] { new Tag("rowCnt", end - start), new Tag("attriCnt", columns.length),
+						new Tag("continueInx", continuation),
+						new Tag("totalRowCount", query.totalRowCount ? rows.size() : 0) });
+		for (int i = 0; i < columns.length; i++) {
+			int resultLength = 1;
+			for (int row = start; row < end; row++) {
+				resultLength = Math.max(resultLength, valueOf(rows.get(row)[i]).length() + 1);
+			}
+			Tag column = new Tag("SqlResult_PI",
+					new Tag[] { new Tag("attriInx", columns[i]), new Tag("reslen", resultLength) });
+			for (int row = start; row < end; row++) {
+				column.addTag(new Tag("value", valueOf(rows.get(row)[i])));
+			}
+			out.addTag(column);
+		}
+		return out;
+	}
+
+	private static String valueOf(final String value) {
+		return value == null ? "" : value;
+	}
+
+	/**
+	 * Checksums are computed on request with the iRODS default SHA-256 scheme, and
+	 * registered on the data object until its content changes
+	 */
+	private void checksum(final Tag message) throws MockServerException, IOException {
+		String path = message.getTag("objPath").getStringValue();
+		MockDataObject dataObject = catalog.findDataObject(path);
+		if (dataObject == null) {
+			throw new MockServerException(ErrorEnum.USER_FILE_DOES_NOT_EXIST, path);
+		}
+		byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256").digest(dataObject.getContent());
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("no SHA-256 available", e);
+		}
+		String checksum = "sha2:" + Base64.toString(digest);
+		dataObject.setChecksum(checksum);
+		reply(new Tag("STR_PI", new Tag[] { new Tag("myStr", checksum) }), 0);
+	}
+
+	/**
+	 * Only data objects are renamed, the source and destination each come as a
+	 * DataObjInp_PI, with any force flag on the source
+	 */
+	private void renameDataObject(final Tag message) throws MockServerException, IOException {
+		Tag[] dataObjInps = message.getTags();
+		catalog.renameDataObject(dataObjInps[0].getTag("objPath").getStringValue(),
+				dataObjInps[1].getTag("objPath").getStringValue(), hasKeyword(dataObjInps[0], "forceFlag"));
+		reply(null, 0);
+	}
+
+	private void openDataObject(final Tag message, final boolean create) throws MockServerException, IOException {
+		String path = message.getTag("objPath").getStringValue();
+		int flags = message.getTag("openFlags").getIntValue();
+		MockDataObject dataObject = catalog.findDataObject(path);
+		if (create) {
+			dataObject = catalog.createDataObject(path, userName, hasKeyword(message, "forceFlag"));
+		} else if (dataObject == null) {
+			if ((flags & O_CREAT) == 0) {
+				throw new MockServerException(ErrorEnum.USER_FILE_DOES_NOT_EXIST, path);
+			}
+			dataObject = catalog.createDataObject(path, userName, false);
+		} else if ((flags & O_TRUNC) != 0) {
+			dataObject.truncate(0L);
+		}
+		boolean writable = create || (flags & (O_WRONLY | O_RDWR)) != 0;
+		reply(null, openDescriptor(new OpenDataObject(dataObject, writable)));
+	}
+
+	private int openDescriptor(final OpenDataObject descriptor) {
+		int fd = nextDescriptor++;
+		descriptors.put(fd, descriptor);
+		return fd;
+	}
+
+	private OpenDataObject descriptor(final int fd) throws MockServerException {
+		OpenDataObject descriptor = descriptors.get(fd);
+		if (descriptor == null) {
+			throw new MockServerException(ErrorEnum.BAD_INPUT_DESC_INDEX, "bad descriptor:" + fd);
+		}
+		return descriptor;
+	}
+
+	private void closeDescriptor(final int fd) throws MockServerException {
+		OpenDataObject descriptor = descriptor(fd);
+		descriptors.remove(fd);
+		if (descriptor.portal != null) {
+			try {
+				descriptor.portal.awaitCompletion();
+			} finally {
+				descriptor.portal.close();
+			}
+		}
+	}
+
+	private void seek(final Tag message) throws MockServerException, IOException {
+		OpenDataObject descriptor = descriptor(message.getTag("l1descInx").getIntValue());
+		long offset = message.getTag("offset").getLongValue();
+		int whence = message.getTag("whence").getIntValue();
+		if (whence == SEEK_CURRENT) {
+			offset += descriptor.position;
+		} else if (whence == SEEK_END) {
+			offset += descriptor.dataObject.getLength();
+		}
+		if (offset < 0) {
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "seek before start");
+		}
+		descriptor.position = offset;
+		reply(new Tag("fileLseekOut_PI", new Tag[] { new Tag("offset", offset) }), 0);
+	}
+
+	private void read(final Tag message) throws MockServerException, IOException {
+		OpenDataObject descriptor = descriptor(message.getTag("l1descInx").getIntValue());
+		int length = message.getTag("len").getIntValue();
+		byte[] buffer = new byte[Math.max(0, length)];
+		int read = descriptor.dataObject.read(descriptor.position, buffer, 0, buffer.length);
+		descriptor.position += read;
+		ProtocolMessage.write(out, IRODSConstants.RODS_API_REPLY, null, null, buffer, read, read);
+	}
+
+	private void write(final Tag message, final byte[] data) throws MockServerException, IOException {
+		OpenDataObject descriptor = descriptor(message.getTag("l1descInx").getIntValue());
+		if (!descriptor.writable) {
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "descriptor not open for write");
+		}
+		descriptor.dataObject.write(descriptor.position, data, 0, data.length);
+		descriptor.position += data.length;
+		reply(null, data.length);
+	}
+
+	private void putDataObject(final Tag message, final byte[] data) throws MockServerException, IOException {
+		String path = message.getTag("objPath").getStringValue();
+		long size = message.getTag("dataSize").getLongValue();
+		boolean overwrite = hasKeyword(message, "forceFlag");
+		if (data.length > 0 || hasKeyword(message, "dataIncluded") || size == 0) {
+			MockDataObject dataObject = catalog.createDataObject(path, userName, overwrite);
+			dataObject.write(0L, data, 0, data.length);
+			reply(null, 0);
+			return;
+		}
+
+		MockDataObject dataObject = catalog.createDataObject(path, userName, overwrite);
+		OpenDataObject descriptor = new OpenDataObject(dataObject, true);
+		int threads = server.threadsFor(message.getTag("numThreads").getIntValue());
+		if (threads > 0) {
+			descriptor.portal = new ParallelPortal(dataObject, size, threads, true);
+			descriptor.portal.start(server.getExecutor());
+		}
+		int fd = openDescriptor(descriptor);
+		reply(portalOprOut(fd, descriptor.portal), 0);
+	}
+
+	private void getDataObject(final Tag message) throws MockServerException, IOException {
+		String path = message.getTag("objPath").getStringValue();
+		MockDataObject dataObject = catalog.findDataObject(path);
+		if (dataObject == null) {
+			throw new MockServerException(ErrorEnum.USER_FILE_DOES_NOT_EXIST, path);
+		}
+		byte[] content = dataObject.getContent();
+		if (content.length <= ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF) {
+			ProtocolMessage.write(out, IRODSConstants.RODS_API_REPLY, portalOprOut(0, null), null, content, content.length, 0);
+			return;
+		}
+
+		OpenDataObject descriptor = new OpenDataObject(dataObject, false);
+		int threads = server.threadsFor(message.getTag("numThreads").getIntValue());
+		int fd;
+		if (threads > 0) {
+			descriptor.portal = new ParallelPortal(dataObject, content.length, threads, false);
+			descriptor.portal.start(server.getExecutor());
+			/*
+			 * the client sends no operation complete for a parallel get, so the
+			 * descriptor is not kept
+			 */
+			fd = nextDescriptor++;
+		} else {
+			fd = openDescriptor(descriptor);
+		}
+		// a positive intInfo has the client keep the header, where it finds bsLen
+		reply(portalOprOut(fd, descriptor.portal), fd);
+	}
+
+	private static Tag portalOprOut(final int fd, final ParallelPortal portal) {
+		return new Tag("PortalOprOut_PI",
+				new Tag[] { new Tag("status", 0), new Tag("l1descInx", fd),
+						new Tag("numThreads", portal == null ? 0 : portal.getNumberOfThreads()),
+						new Tag("chksum", ""),
+						new Tag("PortList_PI",
+								new Tag[] { new Tag("portNum", portal == null ? 0 : portal.getPort()),
+										new Tag("cookie", portal == null ? 0 : portal.getCookie()),
+										new Tag("sock", 0), new Tag("windowSize", 0),
+										new Tag("hostAddr", InetAddress.getLoopbackAddress().getHostAddress()) }) });
+	}
+
+	/**
+	 * Add or remove one AVU on a collection or data object. Wildcard removal is
+	 * treated as an exact match.
+	 */
+	private void modifyMetadata(final Tag message) throws MockServerException, IOException {
+		String operation = message.getTag("arg0").getStringValue();
+		String type = message.getTag("arg1").getStringValue();
+		if (!type.equals("-d") && !type.equals("-C")) {
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "unsupported metadata target:" + type);
+		}
+		boolean add;
+		if (operation.equals("add")) {
+			add = true;
+		} else if (operation.equals("rm") || operation.equals("rmw")) {
+			add = false;
+		} else {
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "unsupported metadata operation:" + operation);
+		}
+		AvuData avuData = AvuData.instance(message.getTag("arg3").getStringValue(),
+				message.getTag("arg4").getStringValue(), valueOf(message.getTag("arg5").getStringValue()));
+		List<MockCatalog.AvuChange> changes = new ArrayList<MockCatalog.AvuChange>();
+		changes.add(new MockCatalog.AvuChange(add, avuData));
+		catalog.changeMetadata(message.getTag("arg2").getStringValue(), type.equals("-d"), changes);
+		reply(null, 0);
+	}
+
+	/**
+	 * Apply the operations of an atomic metadata request, all or none, to a
+	 * collection or data object
+	 */
+	private void atomicMetadata(final Tag message) throws MockServerException, IOException {
+		String json = new String(Base64.fromString(message.getTag("buf").getStringValue()), StandardCharsets.UTF_8);
+		JsonNode request = IRODSSession.objectMapper.readTree(json);
+		String entityType = request.path("entity_type").asText();
+		if (!entityType.equals("data_object") && !entityType.equals("collection")) {
+			throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "unsupported entity_type:" + entityType);
+		}
+		List<MockCatalog.AvuChange> changes = new ArrayList<MockCatalog.AvuChange>();
+		for (JsonNode operation : request.path("operations")) {
+			String op = operation.path("operation").asText();
+			if (!op.equals("add") && !op.equals("remove")) {
+				throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "unsupported operation:" + op);
+			}
+			changes.add(new MockCatalog.AvuChange(op.equals("add"),
+					AvuData.instance(operation.path("attribute").asText(), operation.path("value").asText(),
+							operation.path("units").asText())));
+		}
+		catalog.changeMetadata(request.path("entity_name").asText(), entityType.equals("data_object"), changes);
+		String output = Base64.toString("{}".getBytes(StandardCharsets.UTF_8));
+		reply(new Tag("BinBytesBuf_PI", new Tag[] { new Tag("buflen", output.length()), new Tag("buf", output) }), 0);
+	}
+
+	private static boolean hasKeyword(final Tag message, final String keyword) {
+		Tag keyValuePairs = message.getTag("KeyValPair_PI");
+		if (keyValuePairs == null) {
+			return false;
+		}
+		int count = keyValuePairs.getTag("ssLen").getIntValue();
+		for (int i = 0; i < count; i++) {
+			if (keyword.equals(keyValuePairs.getTag("keyWord", i).getStringValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A data object opened by the client, possibly with a parallel transfer in
+	 * progress
+	 */
+	private static class OpenDataObject {
+		final MockDataObject dataObject;
+		final boolean writable;
+		long position = 0L;
+		ParallelPortal portal;
+
+		OpenDataObject(final MockDataObject dataObject, final boolean writable) {
+			this.dataObject = dataObject;
+			this.writable = writable;
+		}
+	}
+
+	/**
+	 * A query with more rows to return by continuation
+	 */
+	private static class OpenQuery {
+		final GenQueryEvaluator.Result result;
+		final boolean totalRowCount;
+		int position = 0;
+
+		OpenQuery(final GenQueryEvaluator.Result result, final boolean totalRowCount) {
+			this.result = result;
+			this.totalRowCount = totalRowCount;
+		}
+	}
+
+}
@@ -0,0 +1,481 @@
+package org.irods.jargon.mockserver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+
+/**
+ * In-memory catalog of users, collections and data objects, and their AVU
+ * metadata, served by the {@link MockIRODSServer}. Tar data objects can be
+ * extracted as by the bulk file operations.
+ * <p>
+ * There is no permissions model, every authenticated user may read and write
+ * anywhere in the zone. Queries for permissions show the owner of a collection
+ * with own access.
+ */
+public class MockCatalog {
+
+	private static final int TAR_BLOCK = 512;
+
+	private final String zone;
+	private final AtomicLong nextId = new AtomicLong(10000L);
+	private final TreeMap<String, MockCollection> collections = new TreeMap<String, MockCollection>();
+	private final TreeMap<String, MockDataObject> dataObjects = new TreeMap<String, MockDataObject>();
+	private final TreeMap<String, List<AvuData>> metadata = new TreeMap<String, List<AvuData>>();
+	private final TreeMap<String, Long> userIds = new TreeMap<String, Long>();
+
+	/**
+	 * Addition or removal of one AVU
+	 */
+	static final class AvuChange {
+		private final boolean add;
+		private final AvuData avuData;
+
+		AvuChange(final boolean add, final AvuData avuData) {
+			this.add = add;
+			this.avuData = avuData;
+		}
+	}
+
+	MockCatalog(final String zone) {
+		this.zone = zone;
+		addUser("rods");
+		addCollection("/", "", "rods");
+		addCollection("/" + zone, "/", "rods");
+		addCollection("/" + zone + "/home", "/" + zone, "rods");
+		addCollection("/" + zone + "/trash", "/" + zone, "rods");
+	}
+
+	static long now() {
+		return System.currentTimeMillis() / 1000L;
+	}
+
+	/**
+	 * Normalize an absolute path, removing a trailing slash
+	 *
+	 * @param path
+	 *            {@code String} with an absolute path
+	 * @return {@code String} with the normalized path
+	 */
+	static String normalize(final String path) {
+		if (path == null || !path.startsWith("/")) {
+			throw new IllegalArgumentException("path must be absolute");
+		}
+		String normalized = path.replaceAll("/+", "/");
+		if (normalized.length() > 1 && normalized.endsWith("/")) {
+			normalized = normalized.substring(0, normalized.length() - 1);
+		}
+		return normalized;
+	}
+
+	static String parentOf(final String path) {
+		if (path.equals("/")) {
+			return "";
+		}
+		int last = path.lastIndexOf('/');
+		return last == 0 ? "/" : path.substring(0, last);
+	}
+
+	static String nameOf(final String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	private MockCollection addCollection(final String path, final String parentPath, final String owner) {
+		MockCollection collection = new MockCollection(nextId.incrementAndGet(), path, parentPath, owner, zone);
+		collections.put(path, collection);
+		return collection;
+	}
+
+	/**
+	 * Add a user, if not already known
+	 *
+	 * @param userName
+	 *            {@code String} with the user name
+	 * @return {@code long} with the id of the user
+	 */
+	public synchronized long addUser(final String userName) {
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+		Long id = userIds.get(userName);
+		if (id == null) {
+			id = nextId.incrementAndGet();
+			userIds.put(userName, id);
+		}
+		return id;
+	}
+
+	/**
+	 * @return {@code Map} of user name to user id in name order, a snapshot for
+	 *         queries
+	 */
+	public synchronized Map<String, Long> listUsers() {
+		return new TreeMap<String, Long>(userIds);
+	}
+
+	/**
+	 * Create a collection
+	 *
+	 * @param path
+	 *            {@code String} with the absolute path
+	 * @param owner
+	 *            {@code String} with the owning user
+	 * @param parents
+	 *            {@code boolean} to create missing parents, otherwise the parent
+	 *            must exist
+	 * @return {@link MockCollection} that was created, or the existing one when
+	 *         creating parents
+	 * @throws MockServerException
+	 *             if the path exists or the parent is missing
+	 */
+	public synchronized MockCollection createCollection(final String path, final String owner, final boolean parents)
+			throws MockServerException {
+		String normalized = normalize(path);
+		MockCollection existing = collections.get(normalized);
+		if (existing != null) {
+			if (parents) {
+				return existing;
+			}
+			throw new MockServerException(ErrorEnum.CATALOG_ALREADY_HAS_ITEM_BY_THAT_NAME, normalized);
+		}
+		if (dataObjects.containsKey(normalized)) {
+			throw new MockServerException(ErrorEnum.CAT_NAME_EXISTS_AS_DATAOBJ, normalized);
+		}
+		String parentPath = parentOf(normalized);
+		MockCollection parent = collections.get(parentPath);
+		if (parent == null) {
+			if (!parents) {
+				throw new MockServerException(ErrorEnum.CAT_UNKNOWN_COLLECTION, parentPath);
+			}
+			parent = createCollection(parentPath, owner, true);
+		}
+		parent.touch();
+		return addCollection(normalized, parentPath, owner);
+	}
+
+	/**
+	 * Create an empty data object, or truncate an existing one
+	 *
+	 * @param path
+	 *            {@code String} with the absolute path
+	 * @param owner
+	 *            {@code String} with the owning user
+	 * @param overwrite
+	 *            {@code boolean} to truncate an existing data object
+	 * @return {@link MockDataObject} that was created or truncated
+	 * @throws MockServerException
+	 *             if the parent is missing, the path is a collection, or it exists
+	 *             and overwrite is not set
+	 */
+	public synchronized MockDataObject createDataObject(final String path, final String owner,
+			final boolean overwrite) throws MockServerException {
+		String normalized = normalize(path);
+		if (collections.containsKey(normalized)) {
+			throw new MockServerException(ErrorEnum.CAT_NAME_EXISTS_AS_COLLECTION, normalized);
+		}
+		MockDataObject existing = dataObjects.get(normalized);
+		if (existing != null) {
+			if (!overwrite) {
+				throw new MockServerException(ErrorEnum.OVERWITE_WITHOUT_FORCE_FLAG, normalized);
+			}
+			existing.truncate(0L);
+			return existing;
+		}
+		MockCollection parent = collections.get(parentOf(normalized));
+		if (parent == null) {
+			throw new MockServerException(ErrorEnum.CAT_UNKNOWN_COLLECTION, parentOf(normalized));
+		}
+		parent.touch();
+		MockDataObject dataObject = new MockDataObject(nextId.incrementAndGet(), parent, normalized,
+				nameOf(normalized), owner, zone);
+		dataObjects.put(normalized, dataObject);
+		return dataObject;
+	}
+
+	/**
+	 * Extract a tar data object into a collection, creating the collections and
+	 * data objects of its directory and regular file entries. Every entry is
+	 * checked before any is created, so a refused extraction changes nothing.
+	 *
+	 * @param tarPath
+	 *            {@code String} with the absolute path of the tar data object
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the collection to
+	 *            extract into, created if missing
+	 * @param owner
+	 *            {@code String} with the owning user
+	 * @param overwrite
+	 *            {@code boolean} to replace existing data objects
+	 * @return {@code int} with the number of data objects extracted
+	 * @throws MockServerException
+	 *             if the tar is missing or malformed, or an entry exists and
+	 *             overwrite is not set
+	 */
+	public synchronized int extractTar(final String tarPath, final String collectionPath, final String owner,
+			final boolean overwrite) throws MockServerException {
+		MockDataObject tar = dataObjects.get(normalize(tarPath));
+		if (tar == null) {
+			throw new MockServerException(ErrorEnum.CAT_NO_ROWS_FOUND, tarPath);
+		}
+		String target = normalize(collectionPath);
+		byte[] content = tar.getContent();
+
+		Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+		List<String> directories = new ArrayList<String>();
+		int offset = 0;
+		while (offset + TAR_BLOCK <= content.length && content[offset] != 0) {
+			String name = tarString(content, offset, 100);
+			String prefix = tarString(content, offset + 345, 155);
+			if (!prefix.isEmpty()) {
+				name = prefix + "/" + name;
+			}
+			long size;
+			try {
+				size = Long.parseLong(tarString(content, offset + 124, 12).trim(), 8);
+			} catch (NumberFormatException e) {
+				throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "malformed tar header in " + tarPath);
+			}
+			int dataOffset = offset + TAR_BLOCK;
+			if (size < 0 || dataOffset + size > content.length || name.startsWith("/") || name.contains("..")) {
+				throw new MockServerException(ErrorEnum.SYS_API_INPUT_ERR, "malformed tar entry " + name);
+			}
+			byte type = content[offset + 156];
+			String path = normalize(target + "/" + name);
+			if (type == '0' || type == 0) {
+				files.put(path, Arrays.copyOfRange(content, dataOffset, dataOffset + (int) size));
+			} else if (type == '5') {
+				directories.add(path);
+			}
+			offset = dataOffset + (int) ((size + TAR_BLOCK - 1) / TAR_BLOCK * TAR_BLOCK);
+		}
+
+		for (String path : files.keySet()) {
+			if (collections.containsKey(path)) {
+				throw new MockServerException(ErrorEnum.CAT_NAME_EXISTS_AS_COLLECTION, path);
+			}
+			if (!overwrite && dataObjects.containsKey(path)) {
+				throw new MockServerException(ErrorEnum.OVERWITE_WITHOUT_FORCE_FLAG, path);
+			}
+		}
+
+		for (String directory : directories) {
+			if (!collections.containsKey(directory)) {
+				createCollection(directory, owner, true);
+			}
+		}
+		for (Map.Entry<String, byte[]> file : files.entrySet()) {
+			String parent = parentOf(file.getKey());
+			if (!collections.containsKey(parent)) {
+				createCollection(parent, owner, true);
+			}
+			MockDataObject dataObject = createDataObject(file.getKey(), owner, true);
+			dataObject.write(0L, file.getValue(), 0, file.getValue().length);
+		}
+		return files.size();
+	}
+
+	private static String tarString(final byte[] content, final int offset, final int length) {
+		int end = offset;
+		while (end < offset + length && content[end] != 0) {
+			end++;
+		}
+		return new String(content, offset, end - offset, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Create or replace a data object with the given content
+	 *
+	 * @param path
+	 *            {@code String} with the absolute path
+	 * @param owner
+	 *            {@code String} with the owning user
+	 * @param content
+	 *            {@code byte[]} with the content
+	 * @return {@link MockDataObject} that was stored
+	 * @throws MockServerException
+	 *             if the parent is missing or the path is a collection
+	 */
+	public MockDataObject putDataObject(final String path, final String owner, final byte[] content)
+			throws MockServerException {
+		if (content == null) {
+			throw new IllegalArgumentException("null content");
+		}
+		MockDataObject dataObject = createDataObject(path, owner, true);
+		dataObject.write(0L, content, 0, content.length);
+		return dataObject;
+	}
+
+	public synchronized MockCollection findCollection(final String path) {
+		return collections.get(normalize(path));
+	}
+
+	public synchronized MockDataObject findDataObject(final String path) {
+		return dataObjects.get(normalize(path));
+	}
+
+	/**
+	 * Remove a data object
+	 *
+	 * @param path
+	 *            {@code String} with the absolute path
+	 * @throws MockServerException
+	 *             if the data object does not exist
+	 */
+	public synchronized void removeDataObject(final String path) throws MockServerException {
+		String normalized = normalize(path);
+		MockDataObject removed = dataObjects.remove(normalized);
+		if (removed == null) {
+			throw new MockServerException(ErrorEnum.USER_FILE_DOES_NOT_EXIST, normalized);
+		}
+		metadata.remove(normalized);
+		MockCollection parent = collections.get(removed.getCollectionPath());
+		if (parent != null) {
+			parent.touch();
+		}
+	}
+
+	/**
+	 * Rename a data object, keeping its content and metadata
+	 *
+	 * @param fromPath
+	 *            {@code String} with the absolute path of the data object
+	 * @param toPath
+	 *            {@code String} with the new absolute path
+	 * @param overwrite
+	 *            {@code boolean} to replace a data object at the new path
+	 * @throws MockServerException
+	 *             if the data object does not exist, the new parent is missing,
+	 *             or the new path exists and overwrite is not set
+	 */
+	public synchronized void renameDataObject(final String fromPath, final String toPath, final boolean overwrite)
+			throws MockServerException {
+		String normalizedFrom = normalize(fromPath);
+		MockDataObject from = dataObjects.get(normalizedFrom);
+		if (from == null) {
+			throw new MockServerException(ErrorEnum.USER_FILE_DOES_NOT_EXIST, normalizedFrom);
+		}
+		String normalizedTo = normalize(toPath);
+		if (dataObjects.containsKey(normalizedTo) && !overwrite) {
+			throw new MockServerException(ErrorEnum.CAT_NAME_EXISTS_AS_DATAOBJ, normalizedTo);
+		}
+		byte[] content = from.getContent();
+		MockDataObject to = createDataObject(normalizedTo, from.getOwnerName(), true);
+		to.write(0L, content, 0, content.length);
+		List<AvuData> avus = metadata.get(normalizedFrom);
+		removeDataObject(normalizedFrom);
+		if (avus != null) {
+			metadata.put(normalizedTo, avus);
+		}
+	}
+
+	/**
+	 * Remove a collection
+	 *
+	 * @param path
+	 *            {@code String} with the absolute path
+	 * @param recursive
+	 *            {@code boolean} to remove everything underneath, otherwise the
+	 *            collection must be empty
+	 * @throws MockServerException
+	 *             if the collection does not exist or is not empty
+	 */
+	public synchronized void removeCollection(final String path, final boolean recursive)
+			throws MockServerException {
+		String normalized = normalize(path);
+		if (!collections.containsKey(normalized)) {
+			throw new MockServerException(ErrorEnum.CAT_UNKNOWN_COLLECTION, normalized);
+		}
+		String prefix = normalized.equals("/") ? "/" : normalized + "/";
+		Map<String, MockCollection> childCollections = collections.subMap(prefix, prefix + Character.MAX_VALUE);
+		Map<String, MockDataObject> childDataObjects = dataObjects.subMap(prefix, prefix + Character.MAX_VALUE);
+		if (!recursive && (!childCollections.isEmpty() || !childDataObjects.isEmpty())) {
+			throw new MockServerException(ErrorEnum.CAT_COLLECTION_NOT_EMPTY, normalized);
+		}
+		childCollections.clear();
+		childDataObjects.clear();
+		metadata.subMap(prefix, prefix + Character.MAX_VALUE).clear();
+		collections.remove(normalized);
+		metadata.remove(normalized);
+		MockCollection parent = collections.get(parentOf(normalized));
+		if (parent != null) {
+			parent.touch();
+		}
+	}
+
+	/**
+	 * Add and remove AVUs on a collection or data object, making all of the
+	 * changes or, if one fails, none of them. Removing an AVU that is not there
+	 * is not an error.
+	 *
+	 * @param path
+	 *            {@code String} with the absolute path
+	 * @param dataObject
+	 *            {@code boolean} of {@code true} for a data object, otherwise a
+	 *            collection
+	 * @param changes
+	 *            {@code List} of {@link AvuChange} in the order to apply them
+	 * @throws MockServerException
+	 *             if the target is missing or an added AVU is already there
+	 */
+	synchronized void changeMetadata(final String path, final boolean dataObject, final List<AvuChange> changes)
+			throws MockServerException {
+		String normalized = normalize(path);
+		if (dataObject && !dataObjects.containsKey(normalized)) {
+			throw new MockServerException(ErrorEnum.CAT_UNKNOWN_FILE, normalized);
+		} else if (!dataObject && !collections.containsKey(normalized)) {
+			throw new MockServerException(ErrorEnum.CAT_UNKNOWN_COLLECTION, normalized);
+		}
+		List<AvuData> avus = findMetadata(normalized);
+		for (AvuChange change : changes) {
+			if (!change.add) {
+				avus.remove(change.avuData);
+			} else if (avus.contains(change.avuData)) {
+				throw new MockServerException(ErrorEnum.CATALOG_ALREADY_HAS_ITEM_BY_THAT_NAME,
+						change.avuData.toString());
+			} else {
+				avus.add(change.avuData);
+			}
+		}
+		metadata.put(normalized, avus);
+	}
+
+	/**
+	 * @param path
+	 *            {@code String} with the absolute path of a collection or data
+	 *            object
+	 * @return {@code List} of {@link AvuData} in the order added, a snapshot
+	 */
+	public synchronized List<AvuData> findMetadata(final String path) {
+		List<AvuData> avus = metadata.get(normalize(path));
+		return avus == null ? new ArrayList<AvuData>() : new ArrayList<AvuData>(avus);
+	}
+
+	/**
+	 * @return {@code List} of {@link MockCollection} in path order, a snapshot
+	 *         for queries
+	 */
+	public synchronized List<MockCollection> listCollections() {
+		return new ArrayList<MockCollection>(collections.values());
+	}
+
+	/**
+	 * @return {@code List} of {@link MockDataObject} in path order, a snapshot
+	 *         for queries
+	 */
+	public synchronized List<MockDataObject> listDataObjects() {
+		return new ArrayList<MockDataObject>(dataObjects.values());
+	}
+
+	public String getZone() {
+		return zone;
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.irods.jargon.mockserver;
+
+/**
+ * Collection in the {@link MockCatalog}
+ */
+public class MockCollection {
+
+	private final long id;
+	private final String path;
+	private final String parentPath;
+	private final String ownerName;
+	private final String ownerZone;
+	private final long createTime;
+	private volatile long modifyTime;
+
+	MockCollection(final long id, final String path, final String parentPath, final String ownerName,
+			final String ownerZone) {
+		this.id = id;
+		this.path = path;
+		this.parentPath = parentPath;
+		this.ownerName = ownerName;
+		this.ownerZone = ownerZone;
+		createTime = MockCatalog.now();
+		modifyTime = createTime;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return {@code String} with the absolute path of the collection
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return {@code String} with the absolute path of the parent, blank for the
+	 *         root collection
+	 */
+	public String getParentPath() {
+		return parentPath;
+	}
+
+	public String getOwnerName() {
+		return ownerName;
+	}
+
+	public String getOwnerZone() {
+		return ownerZone;
+	}
+
+	/**
+	 * @return {@code long} with the create time in seconds since the epoch
+	 */
+	public long getCreateTime() {
+		return createTime;
+	}
+
+	/**
+	 * @return {@code long} with the modify time in seconds since the epoch
+	 */
+	public long getModifyTime() {
+		return modifyTime;
+	}
+
+	void touch() {
+		modifyTime = MockCatalog.now();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("MockCollection [id=").append(id).append(", path=").append(path).append(", ownerName=")
+				.append(ownerName).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,189 @@
+package org.irods.jargon.mockserver;
+
+import java.util.Arrays;
+
+/**
+ * Data object in the {@link MockCatalog}, holding its content in memory.
+ * <p>
+ * Reads and writes at an offset may come from several parallel transfer
+ * streams at once, and are synchronized on the data object.
+ */
+public class MockDataObject {
+
+	private final long id;
+	private final long collectionId;
+	private final String path;
+	private final String collectionPath;
+	private final String name;
+	private final String ownerName;
+	private final String ownerZone;
+	private final long createTime;
+	private long modifyTime;
+	private byte[] content = new byte[0];
+	private long length = 0L;
+
+	/**
+	 * Checksum registered by a checksum request, cleared when the content changes
+	 */
+	private String checksum = "";
+
+	MockDataObject(final long id, final MockCollection collection, final String path, final String name,
+			final String ownerName, final String ownerZone) {
+		this.id = id;
+		collectionId = collection.getId();
+		collectionPath = collection.getPath();
+		this.path = path;
+		this.name = name;
+		this.ownerName = ownerName;
+		this.ownerZone = ownerZone;
+		createTime = MockCatalog.now();
+		modifyTime = createTime;
+	}
+
+	/**
+	 * Read from the content at an offset
+	 *
+	 * @param offset
+	 *            {@code long} with the offset into the content
+	 * @param buffer
+	 *            {@code byte[]} to read into
+	 * @param bufferOffset
+	 *            {@code int} with the offset into the buffer
+	 * @param count
+	 *            {@code int} with the maximum number of bytes to read
+	 * @return {@code int} with the number of bytes read, 0 at or past the end
+	 */
+	public synchronized int read(final long offset, final byte[] buffer, final int bufferOffset, final int count) {
+		if (offset >= length) {
+			return 0;
+		}
+		int read = (int) Math.min(count, length - offset);
+		System.arraycopy(content, (int) offset, buffer, bufferOffset, read);
+		return read;
+	}
+
+	/**
+	 * Write to the content at an offset, extending it as needed
+	 *
+	 * @param offset
+	 *            {@code long} with the offset into the content
+	 * @param buffer
+	 *            {@code byte[]} with the data
+	 * @param bufferOffset
+	 *            {@code int} with the offset into the buffer
+	 * @param count
+	 *            {@code int} with the number of bytes to write
+	 */
+	public synchronized void write(final long offset, final byte[] buffer, final int bufferOffset, final int count) {
+		long end = offset + count;
+		if (end > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("mock data objects are limited to 2GB");
+		}
+		ensureCapacity(end);
+		System.arraycopy(buffer, bufferOffset, content, (int) offset, count);
+		if (end > length) {
+			length = end;
+		}
+		modifyTime = MockCatalog.now();
+		checksum = "";
+	}
+
+	/**
+	 * Set the length of the content, zero filling if it grows
+	 *
+	 * @param newLength
+	 *            {@code long} with the new length
+	 */
+	public synchronized void truncate(final long newLength) {
+		ensureCapacity(newLength);
+		if (newLength < length) {
+			Arrays.fill(content, (int) newLength, (int) length, (byte) 0);
+		}
+		length = newLength;
+		modifyTime = MockCatalog.now();
+		checksum = "";
+	}
+
+	/**
+	 * @return {@code byte[]} with a copy of the content
+	 */
+	public synchronized byte[] getContent() {
+		return Arrays.copyOf(content, (int) length);
+	}
+
+	public synchronized long getLength() {
+		return length;
+	}
+
+	public synchronized long getModifyTime() {
+		return modifyTime;
+	}
+
+	/**
+	 * @return {@code String} with the registered checksum, in the iRODS format,
+	 *         or an empty string if none has been computed since the last change
+	 */
+	public synchronized String getChecksum() {
+		return checksum;
+	}
+
+	public synchronized void setChecksum(final String checksum) {
+		this.checksum = checksum;
+	}
+
+	private void ensureCapacity(final long capacity) {
+		if (capacity > content.length) {
+			content = Arrays.copyOf(content, (int) Math.max(capacity, Math.min(Integer.MAX_VALUE, content.length * 2L)));
+		}
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public long getCollectionId() {
+		return collectionId;
+	}
+
+	/**
+	 * @return {@code String} with the absolute path of the data object
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return {@code String} with the absolute path of the parent collection
+	 */
+	public String getCollectionPath() {
+		return collectionPath;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getOwnerName() {
+		return ownerName;
+	}
+
+	public String getOwnerZone() {
+		return ownerZone;
+	}
+
+	/**
+	 * @return {@code long} with the create time in seconds since the epoch
+	 */
+	public long getCreateTime() {
+		return createTime;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("MockDataObject [id=").append(id).append(", path=").append(path).append(", length=")
+				.append(getLength()).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,307 @@
+package org.irods.jargon.mockserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small in-process iRODS server that speaks enough of the XML protocol for
+ * Jargon to connect, authenticate, stat, list, query and move data, so that
+ * the protocol and transfer layers can be tested and benchmarked without a
+ * real grid.
+ * <p>
+ * The server listens on an ephemeral loopback port and keeps its catalog in
+ * memory. Native (password) authentication is supported, SSL is not, and there
+ * is no permissions model. It reports itself as an iRODS 4.2.7 server unless
+ * another version is set with {@link #setReleaseVersion(String)}, and serves
+ * the atomic metadata API plugin unless it is turned off with
+ * {@link #setAtomicMetadataAvailable(boolean)}.
+ *
+ * <pre>
+ * MockIRODSServer server = MockIRODSServer.instance();
+ * server.addUser("test", "test");
+ * server.start();
+ * IRODSAccount account = server.buildIRODSAccount("test");
+ * </pre>
+ */
+public class MockIRODSServer implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(MockIRODSServer.class);
+
+	public static final String DEFAULT_ZONE = "tempZone";
+	public static final String DEFAULT_RESOURCE = "demoResc";
+	public static final String RELEASE_VERSION = "rods4.2.7";
+	public static final String API_VERSION = "d";
+	static final String DEFAULT_RESOURCE_ID = "10000";
+	public static final int DEFAULT_MAX_PARALLEL_THREADS = 4;
+
+	private final MockCatalog catalog;
+	private final Map<String, String> passwords = new ConcurrentHashMap<String, String>();
+	private final AtomicLong connectionCount = new AtomicLong();
+	private final AtomicLong requestCount = new AtomicLong();
+	private final int bootTime = (int) MockCatalog.now();
+	private volatile int maxParallelThreads = DEFAULT_MAX_PARALLEL_THREADS;
+	private volatile String releaseVersion = RELEASE_VERSION;
+	private volatile boolean atomicMetadataAvailable = true;
+	private ServerSocket serverSocket;
+	private ExecutorService executor;
+	private Thread acceptor;
+
+	/**
+	 * Create a server for the default zone
+	 *
+	 * @return {@link MockIRODSServer} that is not yet started
+	 */
+	public static MockIRODSServer instance() {
+		return new MockIRODSServer(DEFAULT_ZONE);
+	}
+
+	/**
+	 * Create a server for the given zone
+	 *
+	 * @param zone
+	 *            {@code String} with the zone name
+	 */
+	public MockIRODSServer(final String zone) {
+		if (zone == null || zone.isEmpty()) {
+			throw new IllegalArgumentException("null or empty zone");
+		}
+		catalog = new MockCatalog(zone);
+	}
+
+	/**
+	 * Add a user that may authenticate with the given password, creating its home
+	 * collection
+	 *
+	 * @param userName
+	 *            {@code String} with the user name
+	 * @param password
+	 *            {@code String} with the password
+	 * @throws MockServerException
+	 *             if the home collection cannot be created
+	 */
+	public void addUser(final String userName, final String password) throws MockServerException {
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+		if (password == null) {
+			throw new IllegalArgumentException("null password");
+		}
+		passwords.put(userName, password);
+		catalog.addUser(userName);
+		catalog.createCollection(getHomePath(userName), userName, true);
+	}
+
+	/**
+	 * Start listening on an ephemeral loopback port
+	 *
+	 * @throws IOException
+	 *             if the port cannot be opened
+	 */
+	public synchronized void start() throws IOException {
+		if (serverSocket != null) {
+			throw new IllegalStateException("already started");
+		}
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "mock-irods-agent-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		final ServerSocket listening = serverSocket;
+		acceptor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				accept(listening);
+			}
+		}, "mock-irods-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		log.info("mock iRODS server listening on port {}", serverSocket.getLocalPort());
+	}
+
+	private void accept(final ServerSocket listening) {
+		while (!listening.isClosed()) {
+			try {
+				Socket socket = listening.accept();
+				connectionCount.incrementAndGet();
+				executor.execute(new MockAgent(this, socket));
+			} catch (SocketException e) {
+				log.debug("server socket closed");
+			} catch (IOException e) {
+				log.error("error accepting connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Stop listening and abandon any open connections
+	 */
+	@Override
+	public synchronized void close() {
+		if (serverSocket == null) {
+			return;
+		}
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			log.warn("error closing server socket", e);
+		}
+		executor.shutdownNow();
+		log.info("mock iRODS server closed");
+	}
+
+	/**
+	 * Build an account for a user added with {@link #addUser(String, String)}
+	 *
+	 * @param userName
+	 *            {@code String} with the user name
+	 * @return {@link IRODSAccount} that connects to this server
+	 * @throws JargonException
+	 *             if the account cannot be created
+	 */
+	public IRODSAccount buildIRODSAccount(final String userName) throws JargonException {
+		String password = passwords.get(userName);
+		if (password == null) {
+			throw new IllegalArgumentException("unknown user:" + userName);
+		}
+		return IRODSAccount.instance("localhost", getPort(), userName, password, getHomePath(userName),
+				catalog.getZone(), DEFAULT_RESOURCE);
+	}
+
+	/**
+	 * @param userName
+	 *            {@code String} with the user name
+	 * @return {@code String} with the absolute path of the home collection
+	 */
+	public String getHomePath(final String userName) {
+		return "/" + catalog.getZone() + "/home/" + userName;
+	}
+
+	/**
+	 * @return {@code int} with the port the server is listening on
+	 */
+	public synchronized int getPort() {
+		if (serverSocket == null) {
+			throw new IllegalStateException("not started");
+		}
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return {@link MockCatalog} with the collections and data objects served
+	 */
+	public MockCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * @return {@code long} with the number of connections accepted
+	 */
+	public long getConnectionCount() {
+		return connectionCount.get();
+	}
+
+	/**
+	 * @return {@code long} with the number of API requests served
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	public int getMaxParallelThreads() {
+		return maxParallelThreads;
+	}
+
+	/**
+	 * @param maxParallelThreads
+	 *            {@code int} with the most streams to offer for a parallel
+	 *            transfer, 0 to always send data over the main connection
+	 */
+	public void setMaxParallelThreads(final int maxParallelThreads) {
+		if (maxParallelThreads < 0) {
+			throw new IllegalArgumentException("maxParallelThreads must be >= 0");
+		}
+		this.maxParallelThreads = maxParallelThreads;
+	}
+
+	public String getReleaseVersion() {
+		return releaseVersion;
+	}
+
+	/**
+	 * @param releaseVersion
+	 *            {@code String} with the iRODS release reported to clients that
+	 *            connect after this is set, such as {@code rods4.2.8}
+	 */
+	public void setReleaseVersion(final String releaseVersion) {
+		if (releaseVersion == null || releaseVersion.isEmpty()) {
+			throw new IllegalArgumentException("null or empty releaseVersion");
+		}
+		this.releaseVersion = releaseVersion;
+	}
+
+	public boolean isAtomicMetadataAvailable() {
+		return atomicMetadataAvailable;
+	}
+
+	/**
+	 * @param atomicMetadataAvailable
+	 *            {@code boolean} of {@code false} to answer atomic metadata
+	 *            requests as an unknown API, as a server without the plugin does
+	 */
+	public void setAtomicMetadataAvailable(final boolean atomicMetadataAvailable) {
+		this.atomicMetadataAvailable = atomicMetadataAvailable;
+	}
+
+	/**
+	 * The number of parallel streams for a transfer, as iRODS decides it: a
+	 * negative request turns parallel transfer off, zero takes the server
+	 * maximum
+	 */
+	int threadsFor(final int requested) {
+		if (requested < 0) {
+			return 0;
+		} else if (requested == 0) {
+			return maxParallelThreads;
+		}
+		return Math.min(requested, maxParallelThreads);
+	}
+
+	String getPassword(final String userName) {
+		return passwords.get(userName);
+	}
+
+	int getBootTime() {
+		return bootTime;
+	}
+
+	ExecutorService getExecutor() {
+		return executor;
+	}
+
+	void countRequest() {
+		requestCount.incrementAndGet();
+	}
+
+}
@@ -0,0 +1,37 @@
+package org.irods.jargon.mockserver;
+
+import org.irods.jargon.core.protovalues.ErrorEnum;
+
+/**
+ * Failure of a request to the {@link MockIRODSServer}, carrying the iRODS error
+ * that is returned to the client in the {@code intInfo} of the reply
+ */
+public class MockServerException extends Exception {
+
+	private static final long serialVersionUID = 5237841960231146212L;
+
+	private final ErrorEnum errorEnum;
+
+	public MockServerException(final ErrorEnum errorEnum, final String message) {
+		super(message);
+		if (errorEnum == null) {
+			throw new IllegalArgumentException("null errorEnum");
+		}
+		this.errorEnum = errorEnum;
+	}
+
+	/**
+	 * @return {@link ErrorEnum} with the iRODS error for the failure
+	 */
+	public ErrorEnum getErrorEnum() {
+		return errorEnum;
+	}
+
+	/**
+	 * @return {@code int} with the iRODS error code for the failure
+	 */
+	public int getErrorCode() {
+		return errorEnum.getInt();
+	}
+
+}
@@ -0,0 +1,201 @@
+package org.irods.jargon.mockserver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.utils.IRODSConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listener for the parallel streams of a large put or get. Each client stream
+ * connects and sends the cookie from the {@code PortList_PI}, then the server
+ * directs it with {@code PUT_OPR} or {@code GET_OPR} headers for one segment of
+ * the data object, followed by a {@code DONE_OPR} header.
+ */
+class ParallelPortal {
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelPortal.class);
+
+	static final int ACCEPT_TIMEOUT_MILLIS = 30000;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final SecureRandom random = new SecureRandom();
+
+	private final MockDataObject dataObject;
+	private final long length;
+	private final int numberOfThreads;
+	private final boolean put;
+	private final ServerSocket serverSocket;
+	private final int cookie;
+	private Future<Void> completion;
+
+	/**
+	 * Open the listener for a transfer
+	 *
+	 * @param dataObject
+	 *            {@link MockDataObject} that is the source or target
+	 * @param length
+	 *            {@code long} with the length of the transfer
+	 * @param numberOfThreads
+	 *            {@code int} with the number of client streams to expect
+	 * @param put
+	 *            {@code boolean} of {@code true} for a put, {@code false} for a
+	 *            get
+	 * @throws IOException
+	 *             if the listener cannot be opened
+	 */
+	ParallelPortal(final MockDataObject dataObject, final long length, final int numberOfThreads, final boolean put)
+			throws IOException {
+		this.dataObject = dataObject;
+		this.length = length;
+		this.numberOfThreads = numberOfThreads;
+		this.put = put;
+		serverSocket = new ServerSocket(0, numberOfThreads, InetAddress.getLoopbackAddress());
+		serverSocket.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+		cookie = random.nextInt(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Accept and serve the client streams in the background
+	 *
+	 * @param executor
+	 *            {@link ExecutorService} to run the streams on
+	 */
+	void start(final ExecutorService executor) {
+		completion = executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					serve(executor);
+				} finally {
+					serverSocket.close();
+				}
+				return null;
+			}
+		});
+	}
+
+	private void serve(final ExecutorService executor) throws Exception {
+		List<Future<Void>> streams = new ArrayList<Future<Void>>();
+		long segmentLength = length / numberOfThreads;
+		for (int i = 0; i < numberOfThreads; i++) {
+			final Socket socket = serverSocket.accept();
+			final long offset = segmentLength * i;
+			final long thisLength = i == numberOfThreads - 1 ? length - offset : segmentLength;
+			streams.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					try {
+						transferSegment(socket, offset, thisLength);
+					} finally {
+						socket.close();
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> stream : streams) {
+			stream.get();
+		}
+		log.debug("parallel {} of {} bytes complete", put ? "put" : "get", length);
+	}
+
+	private void transferSegment(final Socket socket, final long offset, final long segmentLength)
+			throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+		int receivedCookie = in.readInt();
+		if (receivedCookie != cookie) {
+			throw new IOException("bad cookie on parallel stream");
+		}
+
+		writeHeader(out, put ? IRODSConstants.PUT_OPR : IRODSConstants.GET_OPR, offset, segmentLength);
+		byte[] buffer = new byte[BUFFER_SIZE];
+		long position = offset;
+		long remaining = segmentLength;
+		while (remaining > 0) {
+			int count = (int) Math.min(buffer.length, remaining);
+			if (put) {
+				in.readFully(buffer, 0, count);
+				dataObject.write(position, buffer, 0, count);
+			} else {
+				int read = dataObject.read(position, buffer, 0, count);
+				if (read <= 0) {
+					throw new IOException("data object shorter than transfer length");
+				}
+				count = read;
+				out.write(buffer, 0, count);
+			}
+			position += count;
+			remaining -= count;
+		}
+		writeHeader(out, IRODSConstants.DONE_OPR, 0L, 0L);
+	}
+
+	private static void writeHeader(final DataOutputStream out, final int operation, final long offset,
+			final long length) throws IOException {
+		out.writeInt(operation);
+		out.writeInt(0);
+		out.writeLong(offset);
+		out.writeLong(length);
+		out.flush();
+	}
+
+	/**
+	 * Wait for every stream to finish
+	 *
+	 * @throws MockServerException
+	 *             if a stream failed or did not connect in time
+	 */
+	void awaitCompletion() throws MockServerException {
+		try {
+			completion.get(ACCEPT_TIMEOUT_MILLIS * 2L, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MockServerException(ErrorEnum.SYS_COPY_LEN_ERR, "interrupted waiting for parallel transfer");
+		} catch (ExecutionException | TimeoutException e) {
+			log.error("parallel transfer failed", e);
+			throw new MockServerException(ErrorEnum.SYS_COPY_LEN_ERR, "parallel transfer failed");
+		}
+	}
+
+	/**
+	 * Stop listening, abandoning any streams that have not connected
+	 */
+	void close() {
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	int getCookie() {
+		return cookie;
+	}
+
+	int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+}
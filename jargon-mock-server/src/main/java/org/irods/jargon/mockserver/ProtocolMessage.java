@@ -0,0 +1,129 @@
+package org.irods.jargon.mockserver;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagPullParser;
+
+/**
+ * One framed iRODS protocol message: a length prefixed {@code MsgHeader_PI}
+ * followed by the message, error and byte stream parts
+ */
+class ProtocolMessage {
+
+	static final String ENCODING = "UTF-8";
+
+	private final String type;
+	private final Tag message;
+	private final byte[] byteStream;
+	private final int intInfo;
+
+	ProtocolMessage(final String type, final Tag message, final byte[] byteStream, final int intInfo) {
+		this.type = type;
+		this.message = message;
+		this.byteStream = byteStream;
+		this.intInfo = intInfo;
+	}
+
+	/**
+	 * Read the next message from the client
+	 *
+	 * @param in
+	 *            {@link DataInputStream} from the client socket
+	 * @return {@link ProtocolMessage} that was read
+	 * @throws IOException
+	 *             if the stream fails or the message cannot be parsed
+	 */
+	static ProtocolMessage read(final DataInputStream in) throws IOException {
+		byte[] headerBytes = new byte[in.readInt()];
+		in.readFully(headerBytes);
+		Tag header = TagPullParser.parse(headerBytes, ENCODING);
+		if (header == null) {
+			throw new IOException("unparseable message header");
+		}
+		int messageLength = header.getTag("msgLen").getIntValue();
+		int errorLength = header.getTag("errorLen").getIntValue();
+		int byteStreamLength = header.getTag("bsLen").getIntValue();
+
+		Tag message = null;
+		if (messageLength > 0) {
+			byte[] messageBytes = new byte[messageLength];
+			in.readFully(messageBytes);
+			message = TagPullParser.parse(messageBytes, true, ENCODING);
+		}
+		if (errorLength > 0) {
+			in.readFully(new byte[errorLength]);
+		}
+		byte[] byteStream = new byte[byteStreamLength];
+		in.readFully(byteStream);
+		return new ProtocolMessage(header.getTag("type").getStringValue(), message, byteStream,
+				header.getTag("intInfo").getIntValue());
+	}
+
+	/**
+	 * Write a message to the client
+	 *
+	 * @param out
+	 *            {@link DataOutputStream} to the client socket
+	 * @param type
+	 *            {@code String} with the header type
+	 * @param message
+	 *            {@link Tag} with the message, or {@code null}
+	 * @param error
+	 *            {@link Tag} with an {@code RError_PI}, or {@code null}
+	 * @param byteStream
+	 *            {@code byte[]} with the byte stream part, or {@code null}
+	 * @param byteStreamLength
+	 *            {@code int} with the number of byte stream bytes to send
+	 * @param intInfo
+	 *            {@code int} with the status or other info value
+	 * @throws IOException
+	 *             if the stream fails
+	 */
+	static void write(final DataOutputStream out, final String type, final Tag message, final Tag error,
+			final byte[] byteStream, final int byteStreamLength, final int intInfo) throws IOException {
+		byte[] messageBytes = message == null ? new byte[0] : message.parseTag().getBytes(StandardCharsets.UTF_8);
+		byte[] errorBytes = error == null ? new byte[0] : error.parseTag().getBytes(StandardCharsets.UTF_8);
+		byte[] header;
+		try {
+			header = IRODSMidLevelProtocol.createHeaderBytesFromData(type, messageBytes.length, errorBytes.length,
+					byteStreamLength, intInfo, ENCODING);
+		} catch (JargonException e) {
+			throw new IOException("unable to create header", e);
+		}
+		out.writeInt(header.length);
+		out.write(header);
+		out.write(messageBytes);
+		out.write(errorBytes);
+		if (byteStreamLength > 0) {
+			out.write(byteStream, 0, byteStreamLength);
+		}
+		out.flush();
+	}
+
+	String getType() {
+		return type;
+	}
+
+	/**
+	 * @return {@link Tag} with the message, or {@code null} when there was no
+	 *         message part
+	 */
+	Tag getMessage() {
+		return message;
+	}
+
+	byte[] getByteStream() {
+		return byteStream;
+	}
+
+	int getIntInfo() {
+		return intInfo;
+	}
+
+}
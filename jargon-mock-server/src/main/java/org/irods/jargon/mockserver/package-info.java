@@ -0,0 +1,5 @@
+/**
+ * In-process mock iRODS server for exercising the Jargon protocol and transfer
+ * layers without a grid. See {@link org.irods.jargon.mockserver.MockIRODSServer}.
+ */
+package org.irods.jargon.mockserver;
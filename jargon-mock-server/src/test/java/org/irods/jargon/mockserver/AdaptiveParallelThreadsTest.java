@@ -0,0 +1,95 @@
+package org.irods.jargon.mockserver;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.AbstractParallelFileTransferStrategy.TransferType;
+import org.irods.jargon.core.transfer.ParallelThreadCountTuner;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AdaptiveParallelThreadsTest {
+
+	private static final int MAX_THREADS = 8;
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static String targetPath;
+	private static File localDirectory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		server = MockIRODSServer.instance();
+		server.setMaxParallelThreads(MAX_THREADS);
+		helper = MockServerTestingHelper.start(server);
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setAdaptiveParallelThreads(true);
+		settableJargonProperties.setMaxParallelThreads(MAX_THREADS);
+		helper.setJargonProperties(settableJargonProperties);
+		targetPath = server.getHomePath("test") + "/adaptive";
+		server.getCatalog().createCollection(targetPath, "test", false);
+		localDirectory = Files.createTempDirectory("adaptive").toFile();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+		File[] files = localDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		localDirectory.delete();
+	}
+
+	@Test
+	public void testPutAndGetRecordThroughputAndTryFewerThreads() throws Exception {
+		byte[] data = new byte[(int) ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF + 4099];
+		new Random(1L).nextBytes(data);
+		File localFile = new File(localDirectory, "large.dat");
+		Files.write(localFile.toPath(), data);
+		DataTransferOperations dataTransferOperations = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+		ParallelThreadCountTuner tuner = new ParallelThreadCountTuner(
+				irodsFileSystem.getIrodsSession().getDiscoveredServerPropertiesCache(), irodsAccount.getHost(),
+				irodsAccount.getZone());
+
+		for (int i = 0; i < 2; i++) {
+			IRODSFile target = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFile(targetPath,
+					"large" + i + ".dat");
+			dataTransferOperations.putOperation(localFile, target, null, null);
+			Assert.assertArrayEquals("wrong content in catalog", data,
+					server.getCatalog().findDataObject(target.getAbsolutePath()).getContent());
+			File returnedFile = new File(localDirectory, "returned" + i + ".dat");
+			dataTransferOperations.getOperation(target, returnedFile, null, null);
+			Assert.assertArrayEquals("wrong content returned", data, Files.readAllBytes(returnedFile.toPath()));
+		}
+
+		for (TransferType transferType : TransferType.values()) {
+			Assert.assertTrue("no best thread count recorded for " + transferType,
+					tuner.retrieveBestThreads(transferType, data.length) > 0);
+			// a file of just over 32MB falls in the bucket of 2^24 to 2^26 bytes
+			String samples = irodsFileSystem.getIrodsSession().getDiscoveredServerPropertiesCache().retrieveValue(
+					irodsAccount.getHost(), irodsAccount.getZone(),
+					ParallelThreadCountTuner.THROUGHPUT_PROPERTY + transferType.name() + ".12");
+			Assert.assertNotNull("no samples for " + transferType, samples);
+			Assert.assertTrue("should have sampled both the most threads and half of them, was " + samples,
+					samples.contains(MAX_THREADS + "=") && samples.contains(MAX_THREADS / 2 + "="));
+		}
+	}
+
+}
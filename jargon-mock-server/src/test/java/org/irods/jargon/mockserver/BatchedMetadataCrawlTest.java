@@ -0,0 +1,166 @@
+package org.irods.jargon.mockserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.CollectionAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.datautils.indexer.AbstractIndexerVisitor;
+import org.irods.jargon.datautils.indexer.MetadataRollup;
+import org.irods.jargon.datautils.visitor.CollectionBatch;
+import org.irods.jargon.datautils.visitor.CollectionBatchFetcher;
+import org.irods.jargon.datautils.visitor.CrawlMode;
+import org.irods.jargon.datautils.visitor.HierComposite;
+import org.irods.jargon.datautils.visitor.HierLeaf;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchedMetadataCrawlTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static String crawlPath;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+
+		crawlPath = server.getHomePath("test") + "/crawl";
+		MockCatalog catalog = server.getCatalog();
+		catalog.createCollection(crawlPath + "/a", "test", true);
+		catalog.createCollection(crawlPath + "/b/c", "test", true);
+		catalog.createCollection(crawlPath + "/empty", "test", true);
+		catalog.putDataObject(crawlPath + "/top.txt", "test", new byte[1]);
+		catalog.putDataObject(crawlPath + "/a/one.txt", "test", new byte[1]);
+		catalog.putDataObject(crawlPath + "/a/two.txt", "test", new byte[1]);
+		catalog.putDataObject(crawlPath + "/b/c/three.txt", "test", new byte[1]);
+
+		IRODSAccessObjectFactory accessObjectFactory = irodsFileSystem.getIRODSAccessObjectFactory();
+		CollectionAO collectionAO = accessObjectFactory.getCollectionAO(irodsAccount);
+		DataObjectAO dataObjectAO = accessObjectFactory.getDataObjectAO(irodsAccount);
+		collectionAO.addAVUMetadata(crawlPath, AvuData.instance("project", "crawl", ""));
+		collectionAO.addAVUMetadata(crawlPath + "/a", AvuData.instance("owner", "alice", ""));
+		collectionAO.addAVUMetadata(crawlPath + "/b/c", AvuData.instance("owner", "carol", "u"));
+		collectionAO.addAVUMetadata(crawlPath + "/b/c", AvuData.instance("level", "3", ""));
+		dataObjectAO.addAVUMetadata(crawlPath + "/a/one.txt", AvuData.instance("size", "small", ""));
+		dataObjectAO.addAVUMetadata(crawlPath + "/b/c/three.txt", AvuData.instance("size", "large", "mb"));
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testFetchCollection() throws Exception {
+		CollectionBatch batch = new CollectionBatchFetcher(irodsFileSystem.getIRODSAccessObjectFactory(),
+				irodsAccount).fetchCollection(crawlPath + "/b");
+		Assert.assertEquals(1, batch.getCollectionPaths().size());
+		Assert.assertTrue(batch.getDataObjectPaths().isEmpty());
+		List<MetaDataAndDomainData> metadata = batch.getMetadata(crawlPath + "/b/c");
+		Assert.assertEquals(2, metadata.size());
+		Assert.assertEquals(crawlPath + "/b/c", metadata.get(0).getDomainObjectUniqueName());
+	}
+
+	@Test
+	public void testBatchedCrawlsSeeSameMetadataWithFewerRequests() throws Exception {
+		List<String> expected = new ArrayList<String>();
+		long nodeByNodeRequests = crawl(CrawlMode.NODE_BY_NODE, expected);
+		Assert.assertTrue("should have entered the empty collection",
+				expected.contains("enter " + crawlPath + "/empty [] [project=crawl]"));
+		Assert.assertTrue("should have rolled up metadata", expected.contains(
+				"visit " + crawlPath + "/b/c/three.txt [size=large mb] [level=3, owner=carol u] [] [project=crawl]"));
+
+		List<String> batched = new ArrayList<String>();
+		long batchedRequests = crawl(CrawlMode.BATCH_PER_COLLECTION, batched);
+		Assert.assertEquals(expected, batched);
+		Assert.assertTrue("batched crawl should need fewer requests", batchedRequests < nodeByNodeRequests);
+
+		List<String> subtree = new ArrayList<String>();
+		long subtreeRequests = crawl(CrawlMode.BATCH_SUBTREE, subtree);
+		Assert.assertEquals(expected, subtree);
+		Assert.assertTrue("subtree crawl should need fewer requests", subtreeRequests < batchedRequests);
+	}
+
+	@Test
+	public void testShortCircuitStopsSiblings() throws Exception {
+		List<String> visited = new ArrayList<String>();
+		RecordingIndexerVisitor visitor = new RecordingIndexerVisitor(visited);
+		visitor.stopAt = crawlPath + "/a/one.txt";
+		visitor.setCrawlMode(CrawlMode.BATCH_SUBTREE);
+		visitor.launch(crawlPath);
+		Assert.assertFalse("sibling should not be visited", visited.contains("visit " + crawlPath + "/a/two.txt"));
+		Assert.assertTrue("parent siblings should be visited",
+				visited.contains("enter " + crawlPath + "/b [] [project=crawl]"));
+	}
+
+	private static long crawl(final CrawlMode crawlMode, final List<String> visited) throws JargonException {
+		RecordingIndexerVisitor visitor = new RecordingIndexerVisitor(visited);
+		visitor.setCrawlMode(crawlMode);
+		long before = server.getRequestCount();
+		visitor.launch(crawlPath);
+		return server.getRequestCount() - before;
+	}
+
+	/**
+	 * Records each node with the metadata rolled up from it to the start
+	 */
+	private static class RecordingIndexerVisitor extends AbstractIndexerVisitor {
+
+		private final List<String> visited;
+		private String stopAt = null;
+
+		RecordingIndexerVisitor(final List<String> visited) throws JargonException {
+			super(irodsFileSystem.getIRODSAccessObjectFactory(), BatchedMetadataCrawlTest.irodsAccount);
+			this.visited = visited;
+		}
+
+		@Override
+		public boolean visitEnterWithMetadata(final HierComposite node, final MetadataRollup metadataRollup) {
+			visited.add(describe("enter", node.getAbsolutePath(), metadataRollup));
+			return true;
+		}
+
+		@Override
+		public boolean visitLeaveWithMetadata(final HierComposite node, final MetadataRollup metadataRollup,
+				final boolean visitorEntered) {
+			return true;
+		}
+
+		@Override
+		public boolean visitWithMetadata(final HierLeaf hierLeaf, final MetadataRollup metadataRollup) {
+			visited.add(describe("visit", hierLeaf.getAbsolutePath(), metadataRollup));
+			return !hierLeaf.getAbsolutePath().equals(stopAt);
+		}
+
+		private String describe(final String action, final String path, final MetadataRollup metadataRollup) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(action).append(' ').append(path);
+			for (List<MetaDataAndDomainData> level : metadataRollup.getMetadata()) {
+				List<String> avus = new ArrayList<String>();
+				for (MetaDataAndDomainData metadata : level) {
+					avus.add((metadata.getAvuAttribute() + "=" + metadata.getAvuValue() + " " + metadata.getAvuUnit())
+							.trim());
+				}
+				Collections.sort(avus);
+				sb.append(' ').append(avus);
+			}
+			return sb.toString();
+		}
+	}
+
+}
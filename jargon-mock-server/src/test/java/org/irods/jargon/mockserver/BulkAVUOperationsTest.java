@@ -0,0 +1,148 @@
+package org.irods.jargon.mockserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.BulkAVUOperationResponse;
+import org.irods.jargon.core.pub.BulkAVUOperationResponse.ResultStatus;
+import org.irods.jargon.core.pub.CollectionAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BulkAVUOperationsTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static MockIRODSServer serverWithoutPlugin;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static IRODSAccount irodsAccountWithoutPlugin;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		server = MockIRODSServer.instance();
+		server.setReleaseVersion("rods4.2.8");
+		helper = MockServerTestingHelper.start(server);
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setAtomicMetadataBatchSize(50);
+		helper.setJargonProperties(settableJargonProperties);
+		serverWithoutPlugin = new MockIRODSServer("otherZone");
+		serverWithoutPlugin.setReleaseVersion("rods4.2.8");
+		serverWithoutPlugin.setAtomicMetadataAvailable(false);
+		serverWithoutPlugin.addUser("test", "test");
+		serverWithoutPlugin.start();
+		irodsAccountWithoutPlugin = serverWithoutPlugin.buildIRODSAccount("test");
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+		serverWithoutPlugin.close();
+	}
+
+	@Test
+	public void testAddToDataObjectInBatches() throws Exception {
+		String path = server.getHomePath("test") + "/batched.dat";
+		server.getCatalog().putDataObject(path, "test", new byte[10]);
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount);
+		List<AvuData> avuData = avus("attr", 200);
+
+		long requestsBefore = server.getRequestCount();
+		List<BulkAVUOperationResponse> responses = dataObjectAO.addBulkAVUMetadataToDataObject(path, avuData);
+		long requests = server.getRequestCount() - requestsBefore;
+
+		assertAllOk(avuData, responses);
+		Assert.assertTrue("should send batches rather than one request per AVU, sent " + requests, requests < 10);
+		Assert.assertEquals("wrong AVUs in catalog", 200, server.getCatalog().findMetadata(path).size());
+	}
+
+	@Test
+	public void testDuplicateInBatchReportedForThatAvu() throws Exception {
+		String path = server.getHomePath("test") + "/duplicate.dat";
+		server.getCatalog().putDataObject(path, "test", new byte[10]);
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount);
+		List<AvuData> existing = new ArrayList<AvuData>();
+		existing.add(AvuData.instance("dup7", "value7", "units7"));
+		dataObjectAO.addBulkAVUMetadataToDataObject(path, existing);
+
+		List<AvuData> avuData = avus("dup", 20);
+		List<BulkAVUOperationResponse> responses = dataObjectAO.addBulkAVUMetadataToDataObject(path, avuData);
+
+		Assert.assertEquals("wrong number of responses", avuData.size(), responses.size());
+		for (int i = 0; i < avuData.size(); i++) {
+			Assert.assertEquals("wrong AVU for response " + i, avuData.get(i), responses.get(i).getAvuData());
+			Assert.assertEquals("wrong status for response " + i,
+					i == 7 ? ResultStatus.DUPLICATE_AVU : ResultStatus.OK, responses.get(i).getResultStatus());
+		}
+		Assert.assertEquals("wrong AVUs in catalog", 20, server.getCatalog().findMetadata(path).size());
+	}
+
+	@Test
+	public void testDeleteFromDataObject() throws Exception {
+		String path = server.getHomePath("test") + "/delete.dat";
+		server.getCatalog().putDataObject(path, "test", new byte[10]);
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount);
+		List<AvuData> avuData = avus("del", 120);
+		dataObjectAO.addBulkAVUMetadataToDataObject(path, avuData);
+
+		List<BulkAVUOperationResponse> responses = dataObjectAO.deleteBulkAVUMetadataFromDataObject(path,
+				avuData.subList(0, 100));
+
+		assertAllOk(avuData.subList(0, 100), responses);
+		Assert.assertEquals("wrong AVUs left in catalog", 20, server.getCatalog().findMetadata(path).size());
+	}
+
+	@Test
+	public void testAddToCollection() throws Exception {
+		String path = server.getHomePath("test") + "/tagged";
+		server.getCatalog().createCollection(path, "test", false);
+		CollectionAO collectionAO = irodsFileSystem.getIRODSAccessObjectFactory().getCollectionAO(irodsAccount);
+		List<AvuData> avuData = avus("coll", 75);
+
+		List<BulkAVUOperationResponse> responses = collectionAO.addBulkAVUMetadataToCollection(path, avuData);
+
+		assertAllOk(avuData, responses);
+		Assert.assertEquals("wrong AVUs in catalog", 75, server.getCatalog().findMetadata(path).size());
+	}
+
+	@Test
+	public void testFallBackWithoutPlugin() throws Exception {
+		String path = serverWithoutPlugin.getHomePath("test") + "/fallback.dat";
+		serverWithoutPlugin.getCatalog().putDataObject(path, "test", new byte[10]);
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataObjectAO(irodsAccountWithoutPlugin);
+		List<AvuData> avuData = avus("plain", 60);
+
+		List<BulkAVUOperationResponse> responses = dataObjectAO.addBulkAVUMetadataToDataObject(path, avuData);
+
+		assertAllOk(avuData, responses);
+		Assert.assertEquals("wrong AVUs in catalog", 60, serverWithoutPlugin.getCatalog().findMetadata(path).size());
+	}
+
+	private static List<AvuData> avus(final String prefix, final int count) {
+		List<AvuData> avuData = new ArrayList<AvuData>();
+		for (int i = 0; i < count; i++) {
+			avuData.add(AvuData.instance(prefix + i, "value" + i, "units" + i));
+		}
+		return avuData;
+	}
+
+	private static void assertAllOk(final List<AvuData> avuData, final List<BulkAVUOperationResponse> responses) {
+		Assert.assertEquals("wrong number of responses", avuData.size(), responses.size());
+		for (int i = 0; i < avuData.size(); i++) {
+			Assert.assertEquals("wrong AVU for response " + i, avuData.get(i), responses.get(i).getAvuData());
+			Assert.assertEquals("wrong status for response " + i, ResultStatus.OK,
+					responses.get(i).getResultStatus());
+		}
+	}
+
+}
@@ -0,0 +1,284 @@
+package org.irods.jargon.mockserver;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatus;
+import org.irods.jargon.core.transfer.TransferStatus.TransferState;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConcurrentRecursiveTransferTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	private static String targetPath;
+	private static File localDirectory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setRecursiveTransferThreads(4);
+		helper.setJargonProperties(settableJargonProperties);
+		targetPath = server.getHomePath("test") + "/concurrent";
+		server.getCatalog().createCollection(targetPath, "test", false);
+		localDirectory = Files.createTempDirectory("concurrent-transfer").toFile();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+		delete(localDirectory);
+	}
+
+	@Test
+	public void testPutTreeReportsOutcomesInWalkOrder() throws Exception {
+		File source = createLocalTree("putTree");
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		RecordingListener listener = new RecordingListener();
+
+		long connectionsBefore = server.getConnectionCount();
+		dataTransferOperations().putOperation(source, target(), listener, null);
+
+		String target = targetPath + "/putTree";
+		for (File file : walkOrder) {
+			String path = target + file.getAbsolutePath().substring(source.getAbsolutePath().length());
+			MockDataObject dataObject = server.getCatalog().findDataObject(path);
+			Assert.assertNotNull("missing " + path, dataObject);
+			Assert.assertArrayEquals("wrong content of " + path, Files.readAllBytes(file.toPath()),
+					dataObject.getContent());
+		}
+		Assert.assertTrue("workers should connect", server.getConnectionCount() - connectionsBefore > 1);
+		Assert.assertFalse("callbacks should not overlap", listener.overlapped);
+		Assert.assertEquals("wrong completions", paths(walkOrder), listener.paths(TransferState.IN_PROGRESS_COMPLETE_FILE));
+		for (File file : walkOrder) {
+			Assert.assertTrue("start should come before complete for " + file,
+					listener.indexOf(file.getAbsolutePath(), TransferState.IN_PROGRESS_START_FILE) < listener
+							.indexOf(file.getAbsolutePath(), TransferState.IN_PROGRESS_COMPLETE_FILE));
+		}
+		Assert.assertEquals("wrong overall completion", TransferState.OVERALL_COMPLETION, listener.lastOverallState);
+	}
+
+	@Test
+	public void testGetTree() throws Exception {
+		File source = createLocalTree("getTree");
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		dataTransferOperations().putOperation(source, target(), null, null);
+		File target = newFolder("returned");
+
+		IRODSFile collection = irodsFileSystem.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFile(targetPath, "getTree");
+		dataTransferOperations().getOperation(collection, target, null, null);
+
+		for (File file : walkOrder) {
+			File returned = new File(target, "getTree" + file.getAbsolutePath().substring(
+					source.getAbsolutePath().length()));
+			Assert.assertArrayEquals("wrong content of " + returned, Files.readAllBytes(file.toPath()),
+					Files.readAllBytes(returned.toPath()));
+		}
+	}
+
+	@Test
+	public void testRestartSkipsFilesUpToRestartPath() throws Exception {
+		File source = createLocalTree("restartTree");
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		int restartIndex = 20;
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock
+				.instance(walkOrder.get(restartIndex).getAbsolutePath());
+		RecordingListener listener = new RecordingListener();
+
+		dataTransferOperations().putOperation(source, target(), listener, transferControlBlock);
+
+		String target = targetPath + "/restartTree";
+		for (int i = 0; i < walkOrder.size(); i++) {
+			String path = target + walkOrder.get(i).getAbsolutePath().substring(source.getAbsolutePath().length());
+			Assert.assertEquals("wrong restart handling of " + path, i > restartIndex,
+					server.getCatalog().findDataObject(path) != null);
+		}
+		Assert.assertEquals("wrong files skipped", paths(walkOrder.subList(0, restartIndex + 1)),
+				listener.paths(TransferState.RESTARTING));
+	}
+
+	@Test
+	public void testCancelStopsTransfer() throws Exception {
+		File source = createLocalTree("cancelTree");
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		final TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		RecordingListener listener = new RecordingListener() {
+			@Override
+			public FileStatusCallbackResponse statusCallback(final TransferStatus transferStatus)
+					throws JargonException {
+				FileStatusCallbackResponse response = super.statusCallback(transferStatus);
+				if (paths(TransferState.IN_PROGRESS_COMPLETE_FILE).size() == 10) {
+					transferControlBlock.setCancelled(true);
+				}
+				return response;
+			}
+		};
+
+		dataTransferOperations().putOperation(source, target(), listener, transferControlBlock);
+
+		int completed = listener.paths(TransferState.IN_PROGRESS_COMPLETE_FILE).size();
+		Assert.assertTrue("should stop early, completed " + completed, completed < walkOrder.size());
+		Assert.assertEquals("completions should follow the walk", paths(walkOrder.subList(0, completed)),
+				listener.paths(TransferState.IN_PROGRESS_COMPLETE_FILE));
+		Assert.assertEquals("wrong overall state", TransferState.CANCELLED, listener.lastOverallState);
+	}
+
+	private static DataTransferOperations dataTransferOperations() throws Exception {
+		return irodsFileSystem.getIRODSAccessObjectFactory().getDataTransferOperations(irodsAccount);
+	}
+
+	private static IRODSFile target() throws Exception {
+		return irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFile(targetPath);
+	}
+
+	/**
+	 * Directory with files at the top and in two levels of subdirectories
+	 */
+	private File createLocalTree(final String name) throws Exception {
+		File root = newFolder(name);
+		Random random = new Random(name.hashCode());
+		createFiles(root, 10, random);
+		for (String child : new String[] { "a", "b", "b/c" }) {
+			File directory = new File(root, child);
+			Assert.assertTrue(directory.mkdirs());
+			createFiles(directory, 25, random);
+		}
+		return root;
+	}
+
+	private static File newFolder(final String name) {
+		File folder = new File(localDirectory, name);
+		Assert.assertTrue(folder.mkdirs());
+		return folder;
+	}
+
+	private static void delete(final File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static void createFiles(final File directory, final int count, final Random random) throws Exception {
+		for (int i = 0; i < count; i++) {
+			byte[] data = new byte[random.nextInt(4096)];
+			random.nextBytes(data);
+			Files.write(new File(directory, "file" + i + ".dat").toPath(), data);
+		}
+	}
+
+	/**
+	 * Files in the order the transfer walks them
+	 */
+	private static void walk(final File directory, final List<File> files) {
+		for (File file : directory.listFiles()) {
+			if (file.isDirectory()) {
+				walk(file, files);
+			} else {
+				files.add(file);
+			}
+		}
+	}
+
+	private static List<String> paths(final List<File> files) {
+		List<String> paths = new ArrayList<String>();
+		for (File file : files) {
+			paths.add(file.getAbsolutePath());
+		}
+		return paths;
+	}
+
+	private static class RecordingListener implements TransferStatusCallbackListener {
+
+		private final List<TransferStatus> statuses = new ArrayList<TransferStatus>();
+		private final AtomicInteger inCallback = new AtomicInteger();
+		private volatile boolean overlapped = false;
+		private volatile TransferState lastOverallState = null;
+
+		@Override
+		public FileStatusCallbackResponse statusCallback(final TransferStatus transferStatus)
+				throws JargonException {
+			if (inCallback.incrementAndGet() > 1) {
+				overlapped = true;
+			}
+			try {
+				Thread.yield();
+				if (!transferStatus.isIntraFileStatusReport()) {
+					synchronized (statuses) {
+						statuses.add(transferStatus);
+					}
+				}
+				return FileStatusCallbackResponse.CONTINUE;
+			} finally {
+				inCallback.decrementAndGet();
+			}
+		}
+
+		@Override
+		public void overallStatusCallback(final TransferStatus transferStatus) throws JargonException {
+			lastOverallState = transferStatus.getTransferState();
+		}
+
+		@Override
+		public CallbackResponse transferAsksWhetherToForceOperation(final String irodsAbsolutePath,
+				final boolean isCollection) {
+			return CallbackResponse.YES_FOR_ALL;
+		}
+
+		List<String> paths(final TransferState transferState) {
+			List<String> paths = new ArrayList<String>();
+			synchronized (statuses) {
+				for (TransferStatus transferStatus : statuses) {
+					if (transferStatus.getTransferState() == transferState) {
+						paths.add(transferStatus.getSourceFileAbsolutePath());
+					}
+				}
+			}
+			return paths;
+		}
+
+		int indexOf(final String path, final TransferState transferState) {
+			synchronized (statuses) {
+				for (int i = 0; i < statuses.size(); i++) {
+					if (statuses.get(i).getTransferState() == transferState
+							&& statuses.get(i).getSourceFileAbsolutePath().equals(path)) {
+						return i;
+					}
+				}
+			}
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+package org.irods.jargon.mockserver;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
+import org.irods.jargon.datautils.tree.FileTreeDiffUtilityImpl;
+import org.irods.jargon.datautils.tree.FileTreeModel;
+import org.irods.jargon.datautils.tree.FileTreeNode;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FileTreeDiffTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	private static String targetPath;
+	private static File localDirectory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		targetPath = server.getHomePath("test") + "/diff";
+		localDirectory = Files.createTempDirectory("tree-diff").toFile();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+		delete(localDirectory);
+	}
+
+	@Test
+	public void testDiffFindsEachKindOfDifference() throws Exception {
+		String tree = "kinds";
+		putBoth(tree, "same.txt", "abc", "abc");
+		putBoth(tree, "nested/deep/same.txt", "abc", "abc");
+		putBoth(tree, "length.txt", "abcd", "abc");
+		putBoth(tree, "content.txt", "abc", "abd");
+		putBoth(tree, "localOnly.txt", "abc", null);
+		putBoth(tree, "irodsOnly.txt", null, "abc");
+		putBoth(tree, "localDir/child.txt", "abc", null);
+		putBoth(tree, "irodsDir/child.txt", null, "abc");
+		putBoth(tree, "clash", "abc", null);
+		putBoth(tree, "clash/child.txt", null, "abc");
+
+		FileTreeModel diffModel = diff(tree, 0L, 0L);
+
+		List<String> diffs = new ArrayList<String>();
+		collectDiffs(tree, (FileTreeNode) diffModel.getRoot(), diffs);
+		Collections.sort(diffs);
+		List<String> expected = new ArrayList<String>();
+		expected.add("FILE_NAME_DIR_NAME_COLLISION clash");
+		expected.add("FILE_OUT_OF_SYNCH content.txt");
+		expected.add("FILE_OUT_OF_SYNCH length.txt");
+		expected.add("LEFT_HAND_PLUS localDir");
+		expected.add("LEFT_HAND_PLUS localOnly.txt");
+		expected.add("RIGHT_HAND_PLUS irodsDir");
+		expected.add("RIGHT_HAND_PLUS irodsOnly.txt");
+		Assert.assertEquals(expected, diffs);
+
+		FileTreeNode nested = child((FileTreeNode) diffModel.getRoot(), "nested");
+		FileTreeNode deep = child(nested, "deep");
+		Assert.assertEquals("matched dir should have no diffs", 0, deep.getChildCount());
+
+		FileTreeDiffEntry content = entry(child((FileTreeNode) diffModel.getRoot(), "content.txt"));
+		Assert.assertFalse("should carry the local checksum", content.getChecksumThisFile().isEmpty());
+		Assert.assertFalse("checksums should differ",
+				content.getChecksumThisFile().equals(content.getChecksumOppositeFile()));
+		Assert.assertTrue("length diff should not need checksums",
+				entry(child((FileTreeNode) diffModel.getRoot(), "length.txt")).getChecksumThisFile().isEmpty());
+	}
+
+	@Test
+	public void testRegisteredChecksumsComeWithTheListing() throws Exception {
+		String tree = "checksums";
+		for (int i = 0; i < 10; i++) {
+			putBoth(tree, "dir" + (i % 3) + "/file" + i + ".txt", "content" + i, "content" + i);
+		}
+
+		long before = server.getRequestCount();
+		List<String> diffs = new ArrayList<String>();
+		collectDiffs(tree, (FileTreeNode) diff(tree, 0L, 0L).getRoot(), diffs);
+		long firstRequests = server.getRequestCount() - before;
+		Assert.assertTrue("trees should match:" + diffs, diffs.isEmpty());
+
+		before = server.getRequestCount();
+		collectDiffs(tree, (FileTreeNode) diff(tree, 0L, 0L).getRoot(), diffs);
+		long secondRequests = server.getRequestCount() - before;
+		Assert.assertTrue("trees should match:" + diffs, diffs.isEmpty());
+		Assert.assertTrue("registered checksums should not be computed again",
+				firstRequests - secondRequests >= 10);
+		Assert.assertTrue("listing should not depend on the number of files, was " + secondRequests,
+				secondRequests < 10);
+	}
+
+	@Test
+	public void testTimestampsDecideWithoutChecksums() throws Exception {
+		String tree = "timestamps";
+		putBoth(tree, "content.txt", "abc", "abd");
+		putBoth(tree, "touched.txt", "abc", "abc");
+		long afterPut = System.currentTimeMillis() + 60000;
+
+		List<String> diffs = new ArrayList<String>();
+		collectDiffs(tree, (FileTreeNode) diff(tree, afterPut, afterPut).getRoot(), diffs);
+		Assert.assertTrue("nothing modified since the last synch", diffs.isEmpty());
+		Assert.assertEquals("should not have computed a checksum", "",
+				server.getCatalog().findDataObject(targetPath + "/" + tree + "/content.txt").getChecksum());
+
+		collectDiffs(tree, (FileTreeNode) diff(tree, afterPut, 1000L).getRoot(), diffs);
+		Assert.assertEquals("modified files with the same content should match by checksum",
+				"[FILE_OUT_OF_SYNCH content.txt]", diffs.toString());
+	}
+
+	private static FileTreeModel diff(final String tree, final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide) throws Exception {
+		FileTreeDiffUtilityImpl fileTreeDiffUtility = new FileTreeDiffUtilityImpl(irodsAccount,
+				irodsFileSystem.getIRODSAccessObjectFactory());
+		fileTreeDiffUtility.setLocalChecksumThreads(2);
+		FileTreeModel diffModel = fileTreeDiffUtility.generateDiffLocalToIRODS(new File(localDirectory, tree),
+				targetPath + "/" + tree, timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
+		Assert.assertNotNull("null diffModel", diffModel);
+		Assert.assertEquals(DiffType.DIRECTORY_NO_DIFF, entry((FileTreeNode) diffModel.getRoot()).getDiffType());
+		return diffModel;
+	}
+
+	/**
+	 * Create a file locally and a data object in iRODS at the same relative path,
+	 * skipping either side when its content is <code>null</code>
+	 */
+	private static void putBoth(final String tree, final String relativePath, final String localContent,
+			final String irodsContent) throws Exception {
+		File localRoot = new File(localDirectory, tree);
+		localRoot.mkdirs();
+		server.getCatalog().createCollection(targetPath + "/" + tree, "test", true);
+		if (localContent != null) {
+			File file = new File(localRoot, relativePath);
+			file.getParentFile().mkdirs();
+			Files.write(file.toPath(), localContent.getBytes("UTF-8"));
+		}
+		if (irodsContent != null) {
+			String path = targetPath + "/" + tree + "/" + relativePath;
+			server.getCatalog().createCollection(path.substring(0, path.lastIndexOf('/')), "test", true);
+			server.getCatalog().putDataObject(path, "test", irodsContent.getBytes("UTF-8"));
+		}
+	}
+
+	/**
+	 * Describe each diff by its type and its path relative to the top of its side
+	 */
+	private static void collectDiffs(final String tree, final FileTreeNode node, final List<String> diffs) {
+		FileTreeDiffEntry diffEntry = entry(node);
+		if (diffEntry.getDiffType() != DiffType.DIRECTORY_NO_DIFF) {
+			String path = diffEntry.getCollectionAndDataObjectListingEntry().getFormattedAbsolutePath();
+			String localRoot = LocalFileUtils.normalizePath(new File(localDirectory, tree).getAbsolutePath()) + "/";
+			String irodsRoot = targetPath + "/" + tree + "/";
+			if (path.startsWith(localRoot)) {
+				path = path.substring(localRoot.length());
+			} else if (path.startsWith(irodsRoot)) {
+				path = path.substring(irodsRoot.length());
+			}
+			diffs.add(diffEntry.getDiffType() + " " + path);
+		}
+		Enumeration<?> children = node.children();
+		while (children.hasMoreElements()) {
+			collectDiffs(tree, (FileTreeNode) children.nextElement(), diffs);
+		}
+	}
+
+	private static FileTreeNode child(final FileTreeNode node, final String name) {
+		Enumeration<?> children = node.children();
+		while (children.hasMoreElements()) {
+			FileTreeNode child = (FileTreeNode) children.nextElement();
+			String path = entry(child).getCollectionAndDataObjectListingEntry().getFormattedAbsolutePath();
+			if (path.endsWith("/" + name)) {
+				return child;
+			}
+		}
+		Assert.fail("no child named:" + name);
+		return null;
+	}
+
+	private static FileTreeDiffEntry entry(final FileTreeNode node) {
+		return (FileTreeDiffEntry) node.getUserObject();
+	}
+
+	private static void delete(final File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+}
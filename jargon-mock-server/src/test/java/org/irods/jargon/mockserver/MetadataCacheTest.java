@@ -0,0 +1,144 @@
+package org.irods.jargon.mockserver;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.MetadataCacheStatistics;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MetadataCacheTest {
+
+	private static final long TTL_MILLIS = 1000;
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static IRODSFileFactory irodsFileFactory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setMetadataCacheMaxEntries(1000);
+		settableJargonProperties.setMetadataCacheTtlMillis(TTL_MILLIS);
+		helper.setJargonProperties(settableJargonProperties);
+		irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testRepeatedStatsComeFromTheCache() throws Exception {
+		String path = server.getHomePath("test") + "/stats.txt";
+		server.getCatalog().putDataObject(path, "test", "abc".getBytes("UTF-8"));
+		IRODSFile file = irodsFileFactory.instanceIRODSFile(path);
+		MetadataCacheStatistics before = statistics();
+
+		assertStats(file, 3);
+		long requests = server.getRequestCount();
+		assertStats(file, 3);
+		Assert.assertEquals("repeated stats should not go to iRODS", requests, server.getRequestCount());
+
+		MetadataCacheStatistics after = statistics();
+		Assert.assertTrue("should have hits", after.getHits() - before.getHits() >= 9);
+		Assert.assertEquals("should only miss the first stat", 1, after.getMisses() - before.getMisses());
+	}
+
+	@Test
+	public void testOwnChangesAreSeenAtOnce() throws Exception {
+		String dirPath = server.getHomePath("test") + "/changes/sub";
+		IRODSFile dir = irodsFileFactory.instanceIRODSFile(dirPath);
+		Assert.assertFalse(dir.exists());
+		dir.mkdirs();
+		Assert.assertTrue("mkdir should be seen", dir.isDirectory());
+		Assert.assertEquals("[sub]", list(server.getHomePath("test") + "/changes").toString());
+		Assert.assertTrue(list(dirPath).isEmpty());
+
+		IRODSFile file = irodsFileFactory.instanceIRODSFile(dirPath, "file.txt");
+		write(file, "abc");
+		Assert.assertEquals("new file should be listed", "[file.txt]", list(dirPath).toString());
+		Assert.assertEquals(3, file.length());
+		write(file, "abcdef");
+		Assert.assertEquals("overwrite should be seen", 6, file.length());
+
+		IRODSFile renamed = irodsFileFactory.instanceIRODSFile(dirPath, "renamed.txt");
+		Assert.assertTrue(file.renameTo(renamed));
+		Assert.assertFalse("rename should be seen", file.exists());
+		Assert.assertEquals(6, renamed.length());
+		Assert.assertEquals("[renamed.txt]", list(dirPath).toString());
+
+		long invalidations = statistics().getInvalidations();
+		irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount)
+				.addAVUMetadata(renamed.getAbsolutePath(), AvuData.instance("attribute", "value", ""));
+		Assert.assertTrue("AVU change should invalidate", statistics().getInvalidations() > invalidations);
+		Assert.assertEquals(6, renamed.length());
+
+		Assert.assertTrue(renamed.delete());
+		Assert.assertFalse("delete should be seen", renamed.exists());
+		Assert.assertTrue(list(dirPath).isEmpty());
+	}
+
+	@Test
+	public void testOtherChangesAreSeenAfterTheTtl() throws Exception {
+		String path = server.getHomePath("test") + "/elsewhere.txt";
+		server.getCatalog().putDataObject(path, "test", "abc".getBytes("UTF-8"));
+		IRODSFile file = irodsFileFactory.instanceIRODSFile(path);
+		Assert.assertEquals(3, file.length());
+
+		server.getCatalog().putDataObject(path, "test", "abcdef".getBytes("UTF-8"));
+		Assert.assertEquals("change by another client should wait for the ttl", 3, file.length());
+		Thread.sleep(TTL_MILLIS + 200);
+		Assert.assertEquals("change should be seen after the ttl", 6, file.length());
+	}
+
+	private static void assertStats(final IRODSFile file, final long length) {
+		Assert.assertTrue(file.exists());
+		Assert.assertTrue(file.isFile());
+		Assert.assertFalse(file.isDirectory());
+		Assert.assertEquals(length, file.length());
+		Assert.assertTrue(file.lastModified() > 0);
+	}
+
+	private static List<String> list(final String path) throws Exception {
+		CollectionAndDataObjectListAndSearchAO listAndSearchAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+		List<String> names = new ArrayList<String>();
+		for (CollectionAndDataObjectListingEntry entry : listAndSearchAO.listDataObjectsAndCollectionsUnderPath(path)) {
+			names.add(entry.getNodeLabelDisplayValue());
+		}
+		return names;
+	}
+
+	private static void write(final IRODSFile file, final String content) throws Exception {
+		OutputStream outputStream = irodsFileFactory.instanceIRODSFileOutputStream(file);
+		try {
+			outputStream.write(content.getBytes("UTF-8"));
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private static MetadataCacheStatistics statistics() {
+		return irodsFileSystem.getIrodsSession().getMetadataCache().getStatistics();
+	}
+
+}
@@ -0,0 +1,229 @@
+package org.irods.jargon.mockserver;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.exception.AuthenticationException;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MockIRODSServerTest {
+
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		server = MockIRODSServer.instance();
+		server.addUser("test", "test");
+		server.addUser("other", "secret");
+		server.start();
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsAccount = server.buildIRODSAccount("test");
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+		server.close();
+	}
+
+	@Test
+	public void testConnectAndGetServerProperties() throws Exception {
+		IRODSServerProperties props = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getEnvironmentalInfoAO(irodsAccount).getIRODSServerPropertiesFromIRODSServer();
+		Assert.assertEquals("wrong version", "4.2.7", props.getIrodsVersion().getOrigVersion());
+		Assert.assertEquals("wrong zone", MockIRODSServer.DEFAULT_ZONE, props.getRodsZone());
+		Assert.assertTrue("should count connection", server.getConnectionCount() > 0);
+	}
+
+	@Test(expected = AuthenticationException.class)
+	public void testBadPassword() throws Exception {
+		IRODSAccount badAccount = IRODSAccount.instance("localhost", server.getPort(), "other", "wrong",
+				server.getHomePath("other"), MockIRODSServer.DEFAULT_ZONE, MockIRODSServer.DEFAULT_RESOURCE);
+		try {
+			irodsFileSystem.getIRODSAccessObjectFactory().getEnvironmentalInfoAO(badAccount)
+					.getIRODSServerPropertiesFromIRODSServer();
+		} finally {
+			irodsFileSystem.closeAndEatExceptions(badAccount);
+		}
+	}
+
+	@Test
+	public void testMkdirsAndObjStat() throws Exception {
+		IRODSFileFactory irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+		IRODSFile dir = irodsFileFactory.instanceIRODSFile(server.getHomePath("test"), "testMkdirs/sub");
+		Assert.assertFalse("should not exist yet", dir.exists());
+		Assert.assertTrue("should make dirs", dir.mkdirs());
+		Assert.assertTrue("should exist", dir.exists());
+		Assert.assertTrue("should be a collection", dir.isDirectory());
+		Assert.assertNotNull("should be in catalog", server.getCatalog().findCollection(dir.getAbsolutePath()));
+	}
+
+	@Test
+	public void testPutGetAndList() throws Exception {
+		IRODSAccessObjectFactory accessObjectFactory = irodsFileSystem.getIRODSAccessObjectFactory();
+		String collection = server.getHomePath("test") + "/testPutGetAndList";
+		server.getCatalog().createCollection(collection, "test", true);
+		byte[] data = randomBytes(100000);
+		File localFile = createLocalFile(data);
+		File returnedFile = File.createTempFile("mockReturned", ".dat");
+		returnedFile.delete();
+
+		DataTransferOperations dataTransferOperations = accessObjectFactory.getDataTransferOperations(irodsAccount);
+		IRODSFile target = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFile(collection,
+				"put.dat");
+		dataTransferOperations.putOperation(localFile, target, null, null);
+		Assert.assertArrayEquals("wrong content in catalog", data,
+				server.getCatalog().findDataObject(target.getAbsolutePath()).getContent());
+		Assert.assertEquals("wrong length", data.length, target.length());
+
+		dataTransferOperations.getOperation(target, returnedFile, null, null);
+		Assert.assertArrayEquals("wrong content returned", data, Files.readAllBytes(returnedFile.toPath()));
+
+		CollectionAndDataObjectListAndSearchAO listAndSearchAO = accessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+		server.getCatalog().createCollection(collection + "/child", "test", false);
+		List<CollectionAndDataObjectListingEntry> entries = listAndSearchAO
+				.listDataObjectsAndCollectionsUnderPath(collection);
+		Assert.assertEquals("wrong number of entries", 2, entries.size());
+		Assert.assertEquals("collection should be first", collection + "/child",
+				entries.get(0).getFormattedAbsolutePath());
+		Assert.assertEquals("wrong data object", "put.dat", entries.get(1).getPathOrName());
+		Assert.assertEquals("wrong data object size", data.length, entries.get(1).getDataSize());
+
+		localFile.delete();
+		returnedFile.delete();
+	}
+
+	@Test
+	public void testParallelPutAndGet() throws Exception {
+		String collection = server.getHomePath("test");
+		byte[] data = randomBytes((int) ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF + 4099);
+		File localFile = createLocalFile(data);
+		File returnedFile = File.createTempFile("mockParallelReturned", ".dat");
+		returnedFile.delete();
+
+		DataTransferOperations dataTransferOperations = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+		IRODSFile target = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFile(collection,
+				"parallel.dat");
+		dataTransferOperations.putOperation(localFile, target, null, null);
+		Assert.assertArrayEquals("wrong content in catalog", data,
+				server.getCatalog().findDataObject(target.getAbsolutePath()).getContent());
+
+		dataTransferOperations.getOperation(target, returnedFile, null, null);
+		Assert.assertArrayEquals("wrong content returned", data, Files.readAllBytes(returnedFile.toPath()));
+
+		localFile.delete();
+		returnedFile.delete();
+	}
+
+	@Test
+	public void testStreamWriteAndRead() throws Exception {
+		byte[] data = randomBytes(70000);
+		readAndWriteThroughStreams(irodsAccount, "stream.dat", data);
+	}
+
+	@Test
+	public void testConcurrentClients() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			for (int i = 0; i < 8; i++) {
+				final String name = "concurrent" + i + ".dat";
+				final byte[] data = randomBytes(5000 + i);
+				results.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try {
+							readAndWriteThroughStreams(irodsAccount, name, data);
+						} finally {
+							irodsFileSystem.closeAndEatExceptions(irodsAccount);
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results) {
+				result.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		Assert.assertTrue("should serve several connections", server.getConnectionCount() >= 8);
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testListMissingCollection() throws Exception {
+		irodsFileSystem.getIRODSAccessObjectFactory().getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+				.listDataObjectsAndCollectionsUnderPath(server.getHomePath("test") + "/noSuchCollection");
+	}
+
+	private static void readAndWriteThroughStreams(final IRODSAccount account, final String name,
+			final byte[] data) throws Exception {
+		IRODSFileFactory irodsFileFactory = irodsFileSystem.getIRODSFileFactory(account);
+		IRODSFile file = irodsFileFactory.instanceIRODSFile(server.getHomePath("test"), name);
+		OutputStream out = irodsFileFactory.instanceIRODSFileOutputStream(file);
+		out.write(data, 0, 1000);
+		out.write(data, 1000, data.length - 1000);
+		out.close();
+
+		byte[] read = new byte[data.length + 10];
+		int total = 0;
+		InputStream in = irodsFileFactory.instanceIRODSFileInputStream(file);
+		int count;
+		while ((count = in.read(read, total, read.length - total)) > 0) {
+			total += count;
+		}
+		in.close();
+		Assert.assertEquals("wrong length read", data.length, total);
+		Assert.assertArrayEquals("wrong content read", data, Arrays.copyOf(read, total));
+	}
+
+	private static byte[] randomBytes(final int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	private static File createLocalFile(final byte[] data) throws IOException {
+		File file = File.createTempFile("mockSource", ".dat");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(data);
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,111 @@
+package org.irods.jargon.mockserver;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSProtocolManager;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+
+/**
+ * Shared fixture for tests against the {@link MockIRODSServer}: starts a server
+ * with a {@code test} user, and an {@link IRODSFileSystem} with the jargon
+ * properties the mock server needs. Create one in {@code @BeforeClass} and
+ * close it in {@code @AfterClass}.
+ */
+public final class MockServerTestingHelper {
+
+	private final MockIRODSServer server;
+	private final IRODSFileSystem irodsFileSystem;
+	private final IRODSAccount irodsAccount;
+
+	/**
+	 * Start a mock server and a file system with the default protocol manager
+	 *
+	 * @return {@link MockServerTestingHelper}
+	 * @throws Exception if the server cannot be started
+	 */
+	public static MockServerTestingHelper start() throws Exception {
+		return new MockServerTestingHelper(IRODSFileSystem.instance());
+	}
+
+	/**
+	 * Start a mock server and a file system with the given protocol manager
+	 *
+	 * @param irodsProtocolManager
+	 *            {@link IRODSProtocolManager} that will create the connections
+	 * @return {@link MockServerTestingHelper}
+	 * @throws Exception if the server cannot be started
+	 */
+	public static MockServerTestingHelper start(final IRODSProtocolManager irodsProtocolManager) throws Exception {
+		return new MockServerTestingHelper(IRODSFileSystem.instance(irodsProtocolManager));
+	}
+
+	/**
+	 * Start a server that was configured but not started, and a file system with
+	 * the default protocol manager
+	 *
+	 * @param server
+	 *            {@link MockIRODSServer} that is not started yet, without the
+	 *            {@code test} user, which is added here
+	 * @return {@link MockServerTestingHelper}
+	 * @throws Exception if the server cannot be started
+	 */
+	public static MockServerTestingHelper start(final MockIRODSServer server) throws Exception {
+		return new MockServerTestingHelper(server, IRODSFileSystem.instance());
+	}
+
+	private MockServerTestingHelper(final IRODSFileSystem irodsFileSystem) throws Exception {
+		this(MockIRODSServer.instance(), irodsFileSystem);
+	}
+
+	private MockServerTestingHelper(final MockIRODSServer server, final IRODSFileSystem irodsFileSystem)
+			throws Exception {
+		this.server = server;
+		this.irodsFileSystem = irodsFileSystem;
+		server.addUser("test", "test");
+		server.start();
+		SettableJargonProperties settableJargonProperties = getJargonProperties();
+		settableJargonProperties.setUsingSpecQueryForDataObjPermissionsForUserInGroup(false);
+		setJargonProperties(settableJargonProperties);
+		irodsAccount = server.buildIRODSAccount("test");
+	}
+
+	/**
+	 * @return {@link SettableJargonProperties} with a copy of the properties in
+	 *         use, to change and pass to {@link #setJargonProperties}
+	 */
+	public SettableJargonProperties getJargonProperties() {
+		return new SettableJargonProperties(irodsFileSystem.getJargonProperties());
+	}
+
+	/**
+	 * @param settableJargonProperties
+	 *            {@link SettableJargonProperties} to use from now on
+	 */
+	public void setJargonProperties(final SettableJargonProperties settableJargonProperties) {
+		irodsFileSystem.getIrodsSession().setJargonProperties(settableJargonProperties);
+	}
+
+	/**
+	 * Close the connections of the file system, then the server
+	 */
+	public void close() {
+		irodsFileSystem.closeAndEatExceptions();
+		server.close();
+	}
+
+	public MockIRODSServer getServer() {
+		return server;
+	}
+
+	public IRODSFileSystem getIrodsFileSystem() {
+		return irodsFileSystem;
+	}
+
+	/**
+	 * @return {@link IRODSAccount} of the {@code test} user
+	 */
+	public IRODSAccount getIrodsAccount() {
+		return irodsAccount;
+	}
+
+}
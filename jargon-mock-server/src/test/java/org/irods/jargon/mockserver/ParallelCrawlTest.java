@@ -0,0 +1,190 @@
+package org.irods.jargon.mockserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.CollectionAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.datautils.indexer.AbstractIndexerVisitor;
+import org.irods.jargon.datautils.indexer.ControlRod;
+import org.irods.jargon.datautils.indexer.IndexerServiceImpl;
+import org.irods.jargon.datautils.indexer.MetadataRollup;
+import org.irods.jargon.datautils.visitor.CrawlMode;
+import org.irods.jargon.datautils.visitor.HierComponent;
+import org.irods.jargon.datautils.visitor.HierComposite;
+import org.irods.jargon.datautils.visitor.HierLeaf;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelCrawlTest {
+
+	private static final int WORKERS = 4;
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static String crawlPath;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+
+		crawlPath = server.getHomePath("test") + "/parallel";
+		MockCatalog catalog = server.getCatalog();
+		CollectionAO collectionAO = irodsFileSystem.getIRODSAccessObjectFactory().getCollectionAO(irodsAccount);
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount);
+		catalog.createCollection(crawlPath, "test", true);
+		collectionAO.addAVUMetadata(crawlPath, AvuData.instance("project", "parallel", ""));
+		for (int i = 0; i < 4; i++) {
+			String top = crawlPath + "/top" + i;
+			catalog.createCollection(top, "test", true);
+			collectionAO.addAVUMetadata(top, AvuData.instance("top", String.valueOf(i), ""));
+			catalog.putDataObject(top + "/file.txt", "test", new byte[1]);
+			for (int j = 0; j < 3; j++) {
+				String sub = top + "/sub" + j;
+				catalog.createCollection(sub, "test", true);
+				for (int k = 0; k < 2; k++) {
+					catalog.putDataObject(sub + "/file" + k + ".txt", "test", new byte[1]);
+				}
+				dataObjectAO.addAVUMetadata(sub + "/file0.txt", AvuData.instance("sub", i + "." + j, ""));
+			}
+		}
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testParallelCrawlMatchesSequentialCrawl() throws Exception {
+		RecordingIndexerVisitor sequential = new RecordingIndexerVisitor();
+		new IndexerServiceImpl(irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount).launch(crawlPath,
+				sequential);
+		Assert.assertEquals(4 + 12 + 1, sequential.leaves.size());
+		Assert.assertEquals("visitLeave should be called last for the start", crawlPath,
+				sequential.leaves.get(sequential.leaves.size() - 1));
+		Assert.assertTrue("should have rolled up metadata", sequential.visits.contains(
+				"visit " + crawlPath + "/top2/sub1/file0.txt [sub=2.1] [] [top=2] [project=parallel]"));
+
+		for (CrawlMode crawlMode : CrawlMode.values()) {
+			RecordingIndexerVisitor parallel = new RecordingIndexerVisitor();
+			parallel.setCrawlMode(crawlMode);
+			new IndexerServiceImpl(irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount)
+					.launchParallel(crawlPath, parallel, WORKERS);
+			Assert.assertEquals("wrong visits for " + crawlMode, sorted(sequential.visits), sorted(parallel.visits));
+			assertLeftInSubtreeOrder(sequential.leaves, parallel.leaves);
+			Assert.assertTrue("metadata stack should be balanced",
+					parallel.getMetadataRollup().getMetadata().isEmpty());
+		}
+	}
+
+	@Test
+	public void testAbortStopsAllWorkers() throws Exception {
+		final AtomicInteger checks = new AtomicInteger();
+		RecordingIndexerVisitor visitor = new RecordingIndexerVisitor();
+		visitor.setControlRod(new ControlRod() {
+			@Override
+			public boolean checkControlRod(final HierComponent hierComponent) {
+				return checks.incrementAndGet() > 10;
+			}
+		});
+		new IndexerServiceImpl(irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount).launchParallel(crawlPath,
+				visitor, WORKERS);
+		Assert.assertTrue("should have stopped early", visitor.visits.size() <= 10);
+		Assert.assertTrue("should have aborted", visitor.isAborted());
+	}
+
+	/**
+	 * Each collection is left after everything under it, and its children are left
+	 * in the same order as on one thread
+	 */
+	private static void assertLeftInSubtreeOrder(final List<String> expected, final List<String> actual) {
+		Assert.assertEquals(sorted(expected), sorted(actual));
+		for (String parent : expected) {
+			List<String> expectedChildren = new ArrayList<String>();
+			for (String path : expected) {
+				if (path.startsWith(parent + "/") && path.indexOf('/', parent.length() + 1) < 0) {
+					expectedChildren.add(path);
+				}
+			}
+			List<String> actualChildren = new ArrayList<String>();
+			for (String path : actual) {
+				if (expectedChildren.contains(path)) {
+					actualChildren.add(path);
+				}
+				if (path.startsWith(parent + "/")) {
+					Assert.assertTrue(path + " left after its parent", actual.indexOf(path) < actual.indexOf(parent));
+				}
+			}
+			Assert.assertEquals("children of " + parent + " left out of order", expectedChildren, actualChildren);
+		}
+	}
+
+	private static List<String> sorted(final List<String> values) {
+		List<String> copy = new ArrayList<String>(values);
+		Collections.sort(copy);
+		return copy;
+	}
+
+	/**
+	 * Records each node with the metadata rolled up from it to the start, from any
+	 * thread
+	 */
+	private static class RecordingIndexerVisitor extends AbstractIndexerVisitor {
+
+		private final List<String> visits = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> leaves = Collections.synchronizedList(new ArrayList<String>());
+
+		RecordingIndexerVisitor() throws JargonException {
+			super(irodsFileSystem.getIRODSAccessObjectFactory(), ParallelCrawlTest.irodsAccount);
+		}
+
+		@Override
+		public boolean visitEnterWithMetadata(final HierComposite node, final MetadataRollup metadataRollup) {
+			visits.add(describe("enter", node.getAbsolutePath(), metadataRollup));
+			return true;
+		}
+
+		@Override
+		public boolean visitLeaveWithMetadata(final HierComposite node, final MetadataRollup metadataRollup,
+				final boolean visitorEntered) {
+			leaves.add(node.getAbsolutePath());
+			return true;
+		}
+
+		@Override
+		public boolean visitWithMetadata(final HierLeaf hierLeaf, final MetadataRollup metadataRollup) {
+			visits.add(describe("visit", hierLeaf.getAbsolutePath(), metadataRollup));
+			return true;
+		}
+
+		private String describe(final String action, final String path, final MetadataRollup metadataRollup) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(action).append(' ').append(path);
+			for (List<MetaDataAndDomainData> level : metadataRollup.getMetadata()) {
+				List<String> avus = new ArrayList<String>();
+				for (MetaDataAndDomainData metadata : level) {
+					avus.add(metadata.getAvuAttribute() + "=" + metadata.getAvuValue());
+				}
+				Collections.sort(avus);
+				sb.append(' ').append(avus);
+			}
+			return sb.toString();
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.irods.jargon.mockserver;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.irods.jargon.core.connection.ConnectionPoolStatistics;
+import org.irods.jargon.core.connection.PooledIRODSProtocolManager;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PooledFileAccessTest {
+
+	private static final int MAX_ACTIVE = 2;
+	private static final int THREADS = MAX_ACTIVE * 3;
+	private static final int CALLS_PER_THREAD = 25;
+
+	private static MockServerTestingHelper helper;
+	private static PooledIRODSProtocolManager pooledIRODSProtocolManager;
+	private static IRODSFileFactory irodsFileFactory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		pooledIRODSProtocolManager = PooledIRODSProtocolManager.instance();
+		pooledIRODSProtocolManager.setMaxActivePerAccount(MAX_ACTIVE);
+		pooledIRODSProtocolManager.setMaxWaitMillis(2000);
+		helper = MockServerTestingHelper.start(pooledIRODSProtocolManager);
+		irodsFileFactory = helper.getIrodsFileSystem().getIRODSFileFactory(helper.getIrodsAccount());
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testMoreThreadsThanPooledConnections() throws Exception {
+		final String parent = helper.getServer().getHomePath("test") + "/pooled";
+		final String path = parent + "/pooled.txt";
+		helper.getServer().getCatalog().createCollection(parent, "test", true);
+		helper.getServer().getCatalog().putDataObject(path, "test", "abc".getBytes("UTF-8"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < THREADS; i++) {
+				final int thread = i;
+				futures.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int found = 0;
+						for (int j = 0; j < CALLS_PER_THREAD; j++) {
+							IRODSFile file = irodsFileFactory.instanceIRODSFile(path);
+							IRODSFile dir = irodsFileFactory.instanceIRODSFile(parent, "dir" + thread + "_" + j);
+							dir.mkdir();
+							if (file.exists() && dir.exists() && "abc".equals(read(file))) {
+								found++;
+							}
+						}
+						return found;
+					}
+				}));
+			}
+			for (Future<Integer> future : futures) {
+				Assert.assertEquals("every thread should see the files", CALLS_PER_THREAD, future.get().intValue());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		ConnectionPoolStatistics statistics = pooledIRODSProtocolManager.getStatistics();
+		Assert.assertEquals("no lease should time out", 0, statistics.getLeaseTimeouts());
+		Assert.assertTrue("should not open more than the pool limit", statistics.getConnectionsCreated() <= MAX_ACTIVE);
+		Assert.assertEquals("connections should go back to the pool", 0, statistics.getActiveConnections());
+	}
+
+	private static String read(final IRODSFile file) throws Exception {
+		InputStream inputStream = irodsFileFactory.instanceIRODSFileInputStream(file);
+		try {
+			byte[] buffer = new byte[16];
+			int read = inputStream.read(buffer);
+			return new String(buffer, 0, read, "UTF-8");
+		} finally {
+			inputStream.close();
+		}
+	}
+
+}
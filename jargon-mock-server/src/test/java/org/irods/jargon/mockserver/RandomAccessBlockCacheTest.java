@@ -0,0 +1,138 @@
+package org.irods.jargon.mockserver;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.irods.jargon.core.pub.io.IRODSRandomAccessFile;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RandomAccessBlockCacheTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setRandomAccessCacheBlockSize(64);
+		settableJargonProperties.setRandomAccessCacheBlocks(4);
+		helper.setJargonProperties(settableJargonProperties);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testTypedReadsAcrossBlocks() throws Exception {
+		byte[] data = new byte[1000];
+		for (int i = 0; i < 250; i++) {
+			data[i * 4] = (byte) (i >>> 24);
+			data[i * 4 + 1] = (byte) (i >>> 16);
+			data[i * 4 + 2] = (byte) (i >>> 8);
+			data[i * 4 + 3] = (byte) i;
+		}
+		IRODSRandomAccessFile file = open("ints.dat", data);
+		for (int i = 0; i < 250; i++) {
+			Assert.assertEquals("wrong int at " + i, i, file.readInt());
+		}
+		Assert.assertEquals("should be end of file", -1, file.read());
+		file.seek(4 * 200, SeekWhenceType.SEEK_START);
+		Assert.assertEquals("wrong int after seek", 200, file.readInt());
+		file.close();
+	}
+
+	@Test
+	public void testReadLine() throws Exception {
+		IRODSRandomAccessFile file = open("lines.txt", "first\nsecond\r\nthird\rfourth\n\nlast".getBytes("UTF-8"));
+		Assert.assertEquals("first", file.readLine());
+		Assert.assertEquals("second", file.readLine());
+		Assert.assertEquals("third", file.readLine());
+		Assert.assertEquals("fourth", file.readLine());
+		Assert.assertEquals("", file.readLine());
+		Assert.assertEquals("last", file.readLine());
+		Assert.assertNull("should be end of file", file.readLine());
+		file.close();
+	}
+
+	@Test
+	public void testWritesWrittenBackOnSeekAndClose() throws Exception {
+		byte[] data = randomBytes(1000);
+		IRODSRandomAccessFile file = open("writes.dat", data);
+		byte[] expected = Arrays.copyOf(data, 1100);
+		file.seek(10, SeekWhenceType.SEEK_START);
+		file.writeInt(0x01020304);
+		System.arraycopy(new byte[] { 1, 2, 3, 4 }, 0, expected, 10, 4);
+		Assert.assertEquals("wrong read back from cache", data[14] & 0xFF, file.read());
+
+		file.seek(990, SeekWhenceType.SEEK_START);
+		Assert.assertArrayEquals("should be written back on seek", Arrays.copyOf(expected, 1000),
+				content("writes.dat"));
+
+		byte[] tail = randomBytes(110);
+		file.write(tail);
+		System.arraycopy(tail, 0, expected, 990, 110);
+		Assert.assertEquals("wrong length with cached writes", 1100L, file.length());
+		file.close();
+		Assert.assertArrayEquals("should be written back on close", expected, content("writes.dat"));
+	}
+
+	@Test
+	public void testEvictionWritesBackDirtyBlocks() throws Exception {
+		byte[] data = randomBytes(2000);
+		IRODSRandomAccessFile file = open("evict.dat", data);
+		byte[] expected = data.clone();
+		// touch more blocks than are kept, writing one byte in each
+		for (int position = 5; position < 2000; position += 100) {
+			file.seek(position, SeekWhenceType.SEEK_START);
+			Assert.assertEquals("wrong byte at " + position, data[position] & 0xFF, file.read());
+			file.seek(position, SeekWhenceType.SEEK_START);
+			file.write(0x7f);
+			expected[position] = 0x7f;
+		}
+		file.close();
+		Assert.assertArrayEquals("wrong content after eviction", expected, content("evict.dat"));
+	}
+
+	@Test
+	public void testSkipBytes() throws Exception {
+		byte[] data = randomBytes(500);
+		IRODSRandomAccessFile file = open("skip.dat", data);
+		file.seek(100, SeekWhenceType.SEEK_START);
+		Assert.assertEquals("wrong skip", 50, file.skipBytes(50));
+		Assert.assertEquals("wrong position after skip", 150L, file.getFilePointer());
+		Assert.assertEquals("wrong byte after skip", data[150] & 0xFF, file.read());
+		file.close();
+	}
+
+	private static IRODSRandomAccessFile open(final String name, final byte[] data) throws Exception {
+		String path = server.getHomePath("test") + "/" + name;
+		server.getCatalog().putDataObject(path, "test", data);
+		return irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSRandomAccessFile(path);
+	}
+
+	private static byte[] content(final String name) {
+		return server.getCatalog().findDataObject(server.getHomePath("test") + "/" + name).getContent();
+	}
+
+	private static byte[] randomBytes(final int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+}
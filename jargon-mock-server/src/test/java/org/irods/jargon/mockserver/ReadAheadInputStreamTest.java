@@ -0,0 +1,99 @@
+package org.irods.jargon.mockserver;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ReadAheadInputStreamTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setInputStreamReadAheadBuffers(3);
+		settableJargonProperties.setInputStreamReadAheadBufferSize(4096);
+		helper.setJargonProperties(settableJargonProperties);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testReadAll() throws Exception {
+		byte[] data = createDataObject("readAll.dat", 70001);
+		InputStream in = openStream("readAll.dat");
+		byte[] read = new byte[data.length + 10];
+		int total = 0;
+		int count;
+		while ((count = in.read(read, total, Math.min(1000, read.length - total))) > 0) {
+			total += count;
+		}
+		Assert.assertEquals("should stay at end of file", -1, in.read());
+		in.close();
+		Assert.assertEquals("wrong length read", data.length, total);
+		Assert.assertArrayEquals("wrong content read", data, Arrays.copyOf(read, total));
+	}
+
+	@Test
+	public void testSingleByteReadsWithCallsBetween() throws Exception {
+		byte[] data = createDataObject("singleBytes.dat", 10000);
+		InputStream in = openStream("singleBytes.dat");
+		for (int i = 0; i < data.length; i++) {
+			if (i % 2500 == 0) {
+				// other requests on the connection while fetches are in flight
+				Assert.assertEquals("wrong available", data.length, in.available());
+			}
+			Assert.assertEquals("wrong byte at " + i, data[i] & 0xFF, in.read());
+		}
+		Assert.assertEquals("should be end of file", -1, in.read());
+		in.close();
+	}
+
+	@Test
+	public void testSkip() throws Exception {
+		byte[] data = createDataObject("skip.dat", 50000);
+		InputStream in = openStream("skip.dat");
+		byte[] read = new byte[100];
+		Assert.assertEquals("wrong first read", 100, in.read(read));
+		Assert.assertEquals("wrong skip", 20000, in.skip(20000));
+		int count = in.read(read);
+		Assert.assertTrue("should read after skip", count > 0);
+		Assert.assertArrayEquals("wrong content after skip", Arrays.copyOfRange(data, 20100, 20100 + count),
+				Arrays.copyOf(read, count));
+		in.close();
+	}
+
+	private static InputStream openStream(final String name) throws Exception {
+		IRODSFileFactory irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+		IRODSFile file = irodsFileFactory.instanceIRODSFile(server.getHomePath("test"), name);
+		return irodsFileFactory.instanceIRODSFileInputStream(file);
+	}
+
+	private static byte[] createDataObject(final String name, final int length) throws Exception {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		server.getCatalog().putDataObject(server.getHomePath("test") + "/" + name, "test", data);
+		return data;
+	}
+
+}
@@ -0,0 +1,237 @@
+package org.irods.jargon.mockserver;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatus;
+import org.irods.jargon.core.transfer.TransferStatus.TransferState;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SmallFileAggregationTest {
+
+	private static final int THRESHOLD = 4096;
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static String targetPath;
+	private static File localDirectory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setSmallFileAggregationThreshold(THRESHOLD);
+		settableJargonProperties.setSmallFileAggregationBundleSize(64 * 1024);
+		helper.setJargonProperties(settableJargonProperties);
+		targetPath = server.getHomePath("test") + "/aggregated";
+		server.getCatalog().createCollection(targetPath, "test", false);
+		localDirectory = Files.createTempDirectory("small-files").toFile();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+		delete(localDirectory);
+	}
+
+	@Test
+	public void testPutTreeInBundles() throws Exception {
+		File source = createLocalTree("bundled", 1L);
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		RecordingListener listener = new RecordingListener();
+
+		long requestsBefore = server.getRequestCount();
+		dataTransferOperations().putOperation(source, target(), listener, null);
+		long requests = server.getRequestCount() - requestsBefore;
+
+		assertTransferred(source, walkOrder);
+		Assert.assertEquals("wrong completions", paths(walkOrder), listener.paths(TransferState.IN_PROGRESS_COMPLETE_FILE));
+		Assert.assertEquals("wrong overall completion", TransferState.OVERALL_COMPLETION, listener.lastOverallState);
+		Assert.assertTrue("should not send several requests per file, sent " + requests + " for " + walkOrder.size(),
+				requests < walkOrder.size());
+	}
+
+	@Test
+	public void testExistingFilesFallBackToOneAtATime() throws Exception {
+		File source = createLocalTree("existing", 2L);
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		dataTransferOperations().putOperation(source, target(), null, null);
+		Random random = new Random(3L);
+		for (File file : walkOrder) {
+			byte[] data = new byte[(int) file.length()];
+			random.nextBytes(data);
+			Files.write(file.toPath(), data);
+		}
+		RecordingListener listener = new RecordingListener();
+
+		dataTransferOperations().putOperation(source, target(), listener, null);
+
+		assertTransferred(source, walkOrder);
+		Assert.assertEquals("wrong completions", paths(walkOrder), listener.paths(TransferState.IN_PROGRESS_COMPLETE_FILE));
+	}
+
+	@Test
+	public void testRestartSkipsFilesUpToRestartPath() throws Exception {
+		File source = createLocalTree("restart", 4L);
+		List<File> walkOrder = new ArrayList<File>();
+		walk(source, walkOrder);
+		int restartIndex = 30;
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock
+				.instance(walkOrder.get(restartIndex).getAbsolutePath());
+		RecordingListener listener = new RecordingListener();
+
+		dataTransferOperations().putOperation(source, target(), listener, transferControlBlock);
+
+		String target = targetPath + "/restart";
+		for (int i = 0; i < walkOrder.size(); i++) {
+			String path = target + walkOrder.get(i).getAbsolutePath().substring(source.getAbsolutePath().length());
+			Assert.assertEquals("wrong restart handling of " + path, i > restartIndex,
+					server.getCatalog().findDataObject(path) != null);
+		}
+		Assert.assertEquals("wrong files skipped", paths(walkOrder.subList(0, restartIndex + 1)),
+				listener.paths(TransferState.RESTARTING));
+		Assert.assertEquals("wrong completions", paths(walkOrder.subList(restartIndex + 1, walkOrder.size())),
+				listener.paths(TransferState.IN_PROGRESS_COMPLETE_FILE));
+	}
+
+	private static void assertTransferred(final File source, final List<File> files) throws Exception {
+		String target = targetPath + "/" + source.getName();
+		for (File file : files) {
+			String path = target + file.getAbsolutePath().substring(source.getAbsolutePath().length());
+			MockDataObject dataObject = server.getCatalog().findDataObject(path);
+			Assert.assertNotNull("missing " + path, dataObject);
+			Assert.assertArrayEquals("wrong content of " + path, Files.readAllBytes(file.toPath()),
+					dataObject.getContent());
+		}
+		for (MockDataObject dataObject : server.getCatalog().listDataObjects()) {
+			Assert.assertFalse("bundle left behind " + dataObject.getPath(),
+					dataObject.getName().endsWith(".tar"));
+		}
+	}
+
+	private static DataTransferOperations dataTransferOperations() throws Exception {
+		return irodsFileSystem.getIRODSAccessObjectFactory().getDataTransferOperations(irodsAccount);
+	}
+
+	private static IRODSFile target() throws Exception {
+		return irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFile(targetPath);
+	}
+
+	/**
+	 * Directory of small files with one larger than the threshold in each, at
+	 * the top and in two levels of subdirectories
+	 */
+	private static File createLocalTree(final String name, final long seed) throws Exception {
+		File root = new File(localDirectory, name);
+		Assert.assertTrue(root.mkdirs());
+		Random random = new Random(seed);
+		createFiles(root, 20, random);
+		for (String child : new String[] { "a", "b", "b/c", "empty" }) {
+			File directory = new File(root, child);
+			Assert.assertTrue(directory.mkdirs());
+			if (!child.equals("empty")) {
+				createFiles(directory, 40, random);
+			}
+		}
+		return root;
+	}
+
+	private static void createFiles(final File directory, final int count, final Random random) throws Exception {
+		for (int i = 0; i < count; i++) {
+			int length = i == 7 ? THRESHOLD + 1 + random.nextInt(20000) : random.nextInt(THRESHOLD + 1);
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			Files.write(new File(directory, "file" + i + ".dat").toPath(), data);
+		}
+	}
+
+	/**
+	 * Files in the order the transfer walks them
+	 */
+	private static void walk(final File directory, final List<File> files) {
+		for (File file : directory.listFiles()) {
+			if (file.isDirectory()) {
+				walk(file, files);
+			} else {
+				files.add(file);
+			}
+		}
+	}
+
+	private static List<String> paths(final List<File> files) {
+		List<String> paths = new ArrayList<String>();
+		for (File file : files) {
+			paths.add(file.getAbsolutePath());
+		}
+		return paths;
+	}
+
+	private static void delete(final File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static class RecordingListener implements TransferStatusCallbackListener {
+
+		private final List<TransferStatus> statuses = new ArrayList<TransferStatus>();
+		private volatile TransferState lastOverallState = null;
+
+		@Override
+		public FileStatusCallbackResponse statusCallback(final TransferStatus transferStatus)
+				throws JargonException {
+			if (!transferStatus.isIntraFileStatusReport()) {
+				statuses.add(transferStatus);
+			}
+			return FileStatusCallbackResponse.CONTINUE;
+		}
+
+		@Override
+		public void overallStatusCallback(final TransferStatus transferStatus) throws JargonException {
+			lastOverallState = transferStatus.getTransferState();
+		}
+
+		@Override
+		public CallbackResponse transferAsksWhetherToForceOperation(final String irodsAbsolutePath,
+				final boolean isCollection) {
+			return CallbackResponse.YES_FOR_ALL;
+		}
+
+		List<String> paths(final TransferState transferState) {
+			List<String> paths = new ArrayList<String>();
+			for (TransferStatus transferStatus : statuses) {
+				if (transferStatus.getTransferState() == transferState) {
+					paths.add(transferStatus.getSourceFileAbsolutePath());
+				}
+			}
+			return paths;
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.irods.jargon.mockserver;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.connection.SocketBufferTuner;
+import org.irods.jargon.core.connection.SocketBufferTuning;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TcpBufferAutoTuneTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+	private static SettableJargonProperties settableJargonProperties;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setTcpBufferAutoTune(true);
+		helper.setJargonProperties(settableJargonProperties);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testConnectionRecordsRoundTripAndTuning() throws Exception {
+		SocketBufferTuning tuning = irodsFileSystem.getIrodsSession().currentConnection(irodsAccount)
+				.getIrodsConnection().getSocketBufferTuning();
+		Assert.assertNotNull("connection should have been tuned", tuning);
+		Assert.assertEquals(irodsAccount.getHost(), tuning.getHost());
+		Assert.assertTrue(tuning.getRoundTripMicros() > 0);
+		Assert.assertTrue(tuning.getActualSendBufferSize() > 0);
+
+		SocketBufferTuner tuner = new SocketBufferTuner(
+				irodsFileSystem.getIrodsSession().getDiscoveredServerPropertiesCache(),
+				irodsFileSystem.getIrodsSession().buildPipelineConfigurationBasedOnJargonProperties());
+		Assert.assertTrue("round trip should be cached for the host",
+				tuner.retrieveRoundTripMicros(irodsAccount.getHost()) > 0);
+	}
+
+	@Test
+	public void testParallelPutAndGetWithTunedSockets() throws Exception {
+		byte[] data = new byte[(int) ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF + 4099];
+		new Random(2L).nextBytes(data);
+		File localFile = File.createTempFile("tuned", ".dat");
+		File returnedFile = File.createTempFile("tunedReturned", ".dat");
+		returnedFile.delete();
+		try {
+			Files.write(localFile.toPath(), data);
+			DataTransferOperations dataTransferOperations = irodsFileSystem.getIRODSAccessObjectFactory()
+					.getDataTransferOperations(irodsAccount);
+			IRODSFile target = irodsFileSystem.getIRODSFileFactory(irodsAccount)
+					.instanceIRODSFile(server.getHomePath("test"), "tuned.dat");
+			dataTransferOperations.putOperation(localFile, target, null, null);
+			Assert.assertArrayEquals("wrong content in catalog", data,
+					server.getCatalog().findDataObject(target.getAbsolutePath()).getContent());
+			dataTransferOperations.getOperation(target, returnedFile, null, null);
+			Assert.assertArrayEquals("wrong content returned", data, Files.readAllBytes(returnedFile.toPath()));
+		} finally {
+			localFile.delete();
+			returnedFile.delete();
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package org.irods.jargon.mockserver;
+
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class WriteBehindOutputStreamTest {
+
+	private static MockServerTestingHelper helper;
+	private static MockIRODSServer server;
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		helper = MockServerTestingHelper.start();
+		server = helper.getServer();
+		irodsFileSystem = helper.getIrodsFileSystem();
+		irodsAccount = helper.getIrodsAccount();
+		SettableJargonProperties settableJargonProperties = helper.getJargonProperties();
+		settableJargonProperties.setOutputStreamWriteBehindBuffers(3);
+		settableJargonProperties.setOutputStreamWriteBehindBufferSize(4096);
+		helper.setJargonProperties(settableJargonProperties);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		helper.close();
+	}
+
+	@Test
+	public void testWriteInMixedSizes() throws Exception {
+		byte[] data = randomBytes(70001);
+		IRODSFile file = targetFile("mixed.dat");
+		OutputStream out = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFileOutputStream(file);
+		int position = 0;
+		int size = 1;
+		while (position < data.length) {
+			int count = Math.min(size, data.length - position);
+			out.write(data, position, count);
+			position += count;
+			size = size * 3 % 10007;
+		}
+		out.close();
+		Assert.assertArrayEquals("wrong content in catalog", data,
+				server.getCatalog().findDataObject(file.getAbsolutePath()).getContent());
+	}
+
+	@Test
+	public void testFlushSendsHeldData() throws Exception {
+		byte[] data = randomBytes(10000);
+		IRODSFile file = targetFile("flush.dat");
+		OutputStream out = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFileOutputStream(file);
+		out.write(data, 0, 100);
+		out.flush();
+		Assert.assertEquals("flush should send partial buffer", 100,
+				server.getCatalog().findDataObject(file.getAbsolutePath()).getLength());
+		for (int i = 100; i < data.length; i++) {
+			out.write(data[i]);
+		}
+		out.flush();
+		Assert.assertEquals("wrong length after flush", data.length,
+				server.getCatalog().findDataObject(file.getAbsolutePath()).getLength());
+		// other requests on the connection after the writes are acknowledged
+		Assert.assertTrue("file should exist", file.exists());
+		out.close();
+		Assert.assertArrayEquals("wrong content in catalog", data,
+				server.getCatalog().findDataObject(file.getAbsolutePath()).getContent());
+	}
+
+	@Test
+	public void testCloseWithoutWrites() throws Exception {
+		IRODSFile file = targetFile("empty.dat");
+		OutputStream out = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFileOutputStream(file);
+		out.close();
+		Assert.assertEquals("should be empty", 0L,
+				server.getCatalog().findDataObject(file.getAbsolutePath()).getLength());
+	}
+
+	private static IRODSFile targetFile(final String name) throws Exception {
+		IRODSFileFactory irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+		return irodsFileFactory.instanceIRODSFile(server.getHomePath("test"), name);
+	}
+
+	private static byte[] randomBytes(final int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.irods.jargon.mockserver.unittest;
+
+import org.irods.jargon.mockserver.AdaptiveParallelThreadsTest;
+import org.irods.jargon.mockserver.BatchedMetadataCrawlTest;
+import org.irods.jargon.mockserver.BulkAVUOperationsTest;
+import org.irods.jargon.mockserver.ConcurrentRecursiveTransferTest;
+import org.irods.jargon.mockserver.FileTreeDiffTest;
+import org.irods.jargon.mockserver.MetadataCacheTest;
+import org.irods.jargon.mockserver.MockIRODSServerTest;
+import org.irods.jargon.mockserver.ParallelCrawlTest;
+import org.irods.jargon.mockserver.PooledFileAccessTest;
+import org.irods.jargon.mockserver.RandomAccessBlockCacheTest;
+import org.irods.jargon.mockserver.ReadAheadInputStreamTest;
+import org.irods.jargon.mockserver.SmallFileAggregationTest;
+import org.irods.jargon.mockserver.TcpBufferAutoTuneTest;
+import org.irods.jargon.mockserver.WriteBehindOutputStreamTest;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+@RunWith(Suite.class)
+@SuiteClasses({ MockIRODSServerTest.class, PooledFileAccessTest.class, ReadAheadInputStreamTest.class,
+		WriteBehindOutputStreamTest.class, RandomAccessBlockCacheTest.class, BulkAVUOperationsTest.class,
+		ConcurrentRecursiveTransferTest.class, SmallFileAggregationTest.class, AdaptiveParallelThreadsTest.class,
+		TcpBufferAutoTuneTest.class, BatchedMetadataCrawlTest.class, ParallelCrawlTest.class, FileTreeDiffTest.class,
+		MetadataCacheTest.class })
+public class AllTests {
+
+}